@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.autoscaling.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.autoscaling.model.AlreadyExistsException;
@@ -28,20 +24,6 @@ public class AlreadyExistsExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public AlreadyExistsExceptionUnmarshaller() {
-        super(AlreadyExistsException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("AlreadyExists"))
-            return null;
-
-        AlreadyExistsException e = (AlreadyExistsException) super
-                .unmarshall(node);
-
-        return e;
+        super(AlreadyExistsException.class, "AlreadyExists");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.autoscaling.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.autoscaling.model.ResourceContentionException;
@@ -28,20 +24,6 @@ public class ResourceContentionExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public ResourceContentionExceptionUnmarshaller() {
-        super(ResourceContentionException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ResourceContention"))
-            return null;
-
-        ResourceContentionException e = (ResourceContentionException) super
-                .unmarshall(node);
-
-        return e;
+        super(ResourceContentionException.class, "ResourceContention");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.autoscaling.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.autoscaling.model.ResourceInUseException;
@@ -28,20 +24,6 @@ public class ResourceInUseExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public ResourceInUseExceptionUnmarshaller() {
-        super(ResourceInUseException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ResourceInUse"))
-            return null;
-
-        ResourceInUseException e = (ResourceInUseException) super
-                .unmarshall(node);
-
-        return e;
+        super(ResourceInUseException.class, "ResourceInUse");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.autoscaling.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.autoscaling.model.ScalingActivityInProgressException;
@@ -28,20 +24,6 @@ public class ScalingActivityInProgressExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public ScalingActivityInProgressExceptionUnmarshaller() {
-        super(ScalingActivityInProgressException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ScalingActivityInProgress"))
-            return null;
-
-        ScalingActivityInProgressException e = (ScalingActivityInProgressException) super
-                .unmarshall(node);
-
-        return e;
+        super(ScalingActivityInProgressException.class, "ScalingActivityInProgress");
     }
 }
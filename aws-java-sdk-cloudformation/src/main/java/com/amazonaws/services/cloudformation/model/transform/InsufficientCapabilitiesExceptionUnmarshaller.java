@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.cloudformation.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudformation.model.InsufficientCapabilitiesException;
@@ -28,21 +24,6 @@ public class InsufficientCapabilitiesExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InsufficientCapabilitiesExceptionUnmarshaller() {
-        super(InsufficientCapabilitiesException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("InsufficientCapabilitiesException"))
-            return null;
-
-        InsufficientCapabilitiesException e = (InsufficientCapabilitiesException) super
-                .unmarshall(node);
-
-        return e;
+        super(InsufficientCapabilitiesException.class, "InsufficientCapabilitiesException");
     }
 }
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudfront.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudfront.model.AccessDeniedException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.cloudfront.model.AccessDeniedException;
 public class AccessDeniedExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public AccessDeniedExceptionUnmarshaller() {
-        super(AccessDeniedException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("AccessDenied"))
-            return null;
-
-        AccessDeniedException e = (AccessDeniedException)super.unmarshall(node);
-        
-        return e;
+        super(AccessDeniedException.class, "AccessDenied");
     }
 }
     
\ No newline at end of file
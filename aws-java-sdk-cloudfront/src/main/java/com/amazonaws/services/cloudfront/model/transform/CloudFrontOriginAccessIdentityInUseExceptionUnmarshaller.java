@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudfront.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudfront.model.CloudFrontOriginAccessIdentityInUseException;
@@ -25,19 +21,8 @@ import com.amazonaws.services.cloudfront.model.CloudFrontOriginAccessIdentityInU
 public class CloudFrontOriginAccessIdentityInUseExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public CloudFrontOriginAccessIdentityInUseExceptionUnmarshaller() {
-        super(CloudFrontOriginAccessIdentityInUseException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("CloudFrontOriginAccessIdentityInUse"))
-            return null;
-
-        CloudFrontOriginAccessIdentityInUseException e = (CloudFrontOriginAccessIdentityInUseException)super.unmarshall(node);
-        
-        return e;
+        super(CloudFrontOriginAccessIdentityInUseException.class,
+                "CloudFrontOriginAccessIdentityInUse");
     }
 }
     
\ No newline at end of file
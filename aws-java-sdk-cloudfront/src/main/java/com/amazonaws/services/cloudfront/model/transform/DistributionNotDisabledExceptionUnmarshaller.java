@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudfront.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudfront.model.DistributionNotDisabledException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.cloudfront.model.DistributionNotDisabledException;
 public class DistributionNotDisabledExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public DistributionNotDisabledExceptionUnmarshaller() {
-        super(DistributionNotDisabledException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DistributionNotDisabled"))
-            return null;
-
-        DistributionNotDisabledException e = (DistributionNotDisabledException)super.unmarshall(node);
-        
-        return e;
+        super(DistributionNotDisabledException.class, "DistributionNotDisabled");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudfront.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudfront.model.InvalidForwardCookiesException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.cloudfront.model.InvalidForwardCookiesException;
 public class InvalidForwardCookiesExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidForwardCookiesExceptionUnmarshaller() {
-        super(InvalidForwardCookiesException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidForwardCookies"))
-            return null;
-
-        InvalidForwardCookiesException e = (InvalidForwardCookiesException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidForwardCookiesException.class, "InvalidForwardCookies");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudfront.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudfront.model.InvalidGeoRestrictionParameterException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.cloudfront.model.InvalidGeoRestrictionParameterExc
 public class InvalidGeoRestrictionParameterExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidGeoRestrictionParameterExceptionUnmarshaller() {
-        super(InvalidGeoRestrictionParameterException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidGeoRestrictionParameter"))
-            return null;
-
-        InvalidGeoRestrictionParameterException e = (InvalidGeoRestrictionParameterException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidGeoRestrictionParameterException.class, "InvalidGeoRestrictionParameter");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudfront.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudfront.model.InvalidHeadersForS3OriginException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.cloudfront.model.InvalidHeadersForS3OriginExceptio
 public class InvalidHeadersForS3OriginExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidHeadersForS3OriginExceptionUnmarshaller() {
-        super(InvalidHeadersForS3OriginException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidHeadersForS3Origin"))
-            return null;
-
-        InvalidHeadersForS3OriginException e = (InvalidHeadersForS3OriginException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidHeadersForS3OriginException.class, "InvalidHeadersForS3Origin");
     }
 }
     
\ No newline at end of file
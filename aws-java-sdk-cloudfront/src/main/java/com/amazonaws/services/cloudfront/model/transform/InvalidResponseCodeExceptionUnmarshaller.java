@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudfront.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudfront.model.InvalidResponseCodeException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.cloudfront.model.InvalidResponseCodeException;
 public class InvalidResponseCodeExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidResponseCodeExceptionUnmarshaller() {
-        super(InvalidResponseCodeException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidResponseCode"))
-            return null;
-
-        InvalidResponseCodeException e = (InvalidResponseCodeException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidResponseCodeException.class, "InvalidResponseCode");
     }
 }
     
\ No newline at end of file
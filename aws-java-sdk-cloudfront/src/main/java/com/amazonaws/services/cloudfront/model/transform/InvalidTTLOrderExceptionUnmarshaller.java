@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudfront.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudfront.model.InvalidTTLOrderException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.cloudfront.model.InvalidTTLOrderException;
 public class InvalidTTLOrderExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidTTLOrderExceptionUnmarshaller() {
-        super(InvalidTTLOrderException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidTTLOrder"))
-            return null;
-
-        InvalidTTLOrderException e = (InvalidTTLOrderException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidTTLOrderException.class, "InvalidTTLOrder");
     }
 }
     
\ No newline at end of file
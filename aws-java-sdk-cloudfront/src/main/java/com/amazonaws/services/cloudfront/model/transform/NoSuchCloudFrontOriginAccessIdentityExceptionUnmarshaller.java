@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudfront.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudfront.model.NoSuchCloudFrontOriginAccessIdentityException;
@@ -25,19 +21,8 @@ import com.amazonaws.services.cloudfront.model.NoSuchCloudFrontOriginAccessIdent
 public class NoSuchCloudFrontOriginAccessIdentityExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public NoSuchCloudFrontOriginAccessIdentityExceptionUnmarshaller() {
-        super(NoSuchCloudFrontOriginAccessIdentityException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("NoSuchCloudFrontOriginAccessIdentity"))
-            return null;
-
-        NoSuchCloudFrontOriginAccessIdentityException e = (NoSuchCloudFrontOriginAccessIdentityException)super.unmarshall(node);
-        
-        return e;
+        super(NoSuchCloudFrontOriginAccessIdentityException.class,
+                "NoSuchCloudFrontOriginAccessIdentity");
     }
 }
     
\ No newline at end of file
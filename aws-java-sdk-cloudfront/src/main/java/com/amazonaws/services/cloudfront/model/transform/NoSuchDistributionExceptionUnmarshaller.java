@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudfront.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudfront.model.NoSuchDistributionException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.cloudfront.model.NoSuchDistributionException;
 public class NoSuchDistributionExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public NoSuchDistributionExceptionUnmarshaller() {
-        super(NoSuchDistributionException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("NoSuchDistribution"))
-            return null;
-
-        NoSuchDistributionException e = (NoSuchDistributionException)super.unmarshall(node);
-        
-        return e;
+        super(NoSuchDistributionException.class, "NoSuchDistribution");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudfront.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudfront.model.NoSuchOriginException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.cloudfront.model.NoSuchOriginException;
 public class NoSuchOriginExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public NoSuchOriginExceptionUnmarshaller() {
-        super(NoSuchOriginException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("NoSuchOrigin"))
-            return null;
-
-        NoSuchOriginException e = (NoSuchOriginException)super.unmarshall(node);
-        
-        return e;
+        super(NoSuchOriginException.class, "NoSuchOrigin");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudfront.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudfront.model.TooManyCloudFrontOriginAccessIdentitiesException;
@@ -25,19 +21,8 @@ import com.amazonaws.services.cloudfront.model.TooManyCloudFrontOriginAccessIden
 public class TooManyCloudFrontOriginAccessIdentitiesExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public TooManyCloudFrontOriginAccessIdentitiesExceptionUnmarshaller() {
-        super(TooManyCloudFrontOriginAccessIdentitiesException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("TooManyCloudFrontOriginAccessIdentities"))
-            return null;
-
-        TooManyCloudFrontOriginAccessIdentitiesException e = (TooManyCloudFrontOriginAccessIdentitiesException)super.unmarshall(node);
-        
-        return e;
+        super(TooManyCloudFrontOriginAccessIdentitiesException.class,
+                "TooManyCloudFrontOriginAccessIdentities");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudfront.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudfront.model.TooManyCookieNamesInWhiteListException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.cloudfront.model.TooManyCookieNamesInWhiteListExce
 public class TooManyCookieNamesInWhiteListExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public TooManyCookieNamesInWhiteListExceptionUnmarshaller() {
-        super(TooManyCookieNamesInWhiteListException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("TooManyCookieNamesInWhiteList"))
-            return null;
-
-        TooManyCookieNamesInWhiteListException e = (TooManyCookieNamesInWhiteListException)super.unmarshall(node);
-        
-        return e;
+        super(TooManyCookieNamesInWhiteListException.class, "TooManyCookieNamesInWhiteList");
     }
 }
     
\ No newline at end of file
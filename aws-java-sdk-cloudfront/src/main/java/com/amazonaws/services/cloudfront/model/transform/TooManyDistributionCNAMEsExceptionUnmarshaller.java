@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudfront.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudfront.model.TooManyDistributionCNAMEsException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.cloudfront.model.TooManyDistributionCNAMEsExceptio
 public class TooManyDistributionCNAMEsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public TooManyDistributionCNAMEsExceptionUnmarshaller() {
-        super(TooManyDistributionCNAMEsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("TooManyDistributionCNAMEs"))
-            return null;
-
-        TooManyDistributionCNAMEsException e = (TooManyDistributionCNAMEsException)super.unmarshall(node);
-        
-        return e;
+        super(TooManyDistributionCNAMEsException.class, "TooManyDistributionCNAMEs");
     }
 }
     
\ No newline at end of file
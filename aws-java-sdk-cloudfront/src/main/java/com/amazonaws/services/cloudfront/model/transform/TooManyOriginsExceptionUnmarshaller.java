@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudfront.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudfront.model.TooManyOriginsException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.cloudfront.model.TooManyOriginsException;
 public class TooManyOriginsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public TooManyOriginsExceptionUnmarshaller() {
-        super(TooManyOriginsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("TooManyOrigins"))
-            return null;
-
-        TooManyOriginsException e = (TooManyOriginsException)super.unmarshall(node);
-        
-        return e;
+        super(TooManyOriginsException.class, "TooManyOrigins");
     }
 }
     
\ No newline at end of file
@@ -14,27 +14,12 @@
  */
 package com.amazonaws.services.cloudfront_2012_03_15.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.cloudfront_2012_03_15.model.AccessDeniedException;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 public class AccessDeniedExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public AccessDeniedExceptionUnmarshaller() {
-        super(AccessDeniedException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("AccessDenied"))
-            return null;
-
-        AccessDeniedException e = (AccessDeniedException)super.unmarshall(node);
-
-        return e;
+        super(AccessDeniedException.class, "AccessDenied");
     }
 }
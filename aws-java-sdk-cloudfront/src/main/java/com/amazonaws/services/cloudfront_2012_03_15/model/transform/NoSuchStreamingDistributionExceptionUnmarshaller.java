@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudfront_2012_03_15.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudfront_2012_03_15.model.NoSuchStreamingDistributionException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.cloudfront_2012_03_15.model.NoSuchStreamingDistrib
 public class NoSuchStreamingDistributionExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public NoSuchStreamingDistributionExceptionUnmarshaller() {
-        super(NoSuchStreamingDistributionException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("NoSuchStreamingDistribution"))
-            return null;
-
-        NoSuchStreamingDistributionException e = (NoSuchStreamingDistributionException)super.unmarshall(node);
-        
-        return e;
+        super(NoSuchStreamingDistributionException.class, "NoSuchStreamingDistribution");
     }
 }
     
@@ -28,20 +28,15 @@ import com.amazonaws.services.cloudsearch.model.BaseException;
 public class BaseExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public BaseExceptionUnmarshaller() {
-        super(BaseException.class);
+        super(BaseException.class, "BaseException");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("BaseException"))
-            return null;
-
-        BaseException e = (BaseException)super.unmarshall(node);
-        
-        e.setCode(XpathUtils.asString(getErrorPropertyPath("Code"), node));
-        
+        BaseException e = (BaseException) super.unmarshall(node);
+        if (e != null) {
+            e.setCode(XpathUtils.asString(getErrorPropertyPath("Code"), node));
+        }
         return e;
     }
 }
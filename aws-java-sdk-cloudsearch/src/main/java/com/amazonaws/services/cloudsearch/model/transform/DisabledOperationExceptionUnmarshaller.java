@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudsearch.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudsearch.model.DisabledOperationException;
@@ -29,18 +25,6 @@ import com.amazonaws.services.cloudsearch.model.DisabledOperationException;
 public class DisabledOperationExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public DisabledOperationExceptionUnmarshaller() {
-        super(DisabledOperationException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DisabledAction"))
-            return null;
-
-        DisabledOperationException e = (DisabledOperationException)super.unmarshall(node);
-
-        return e;
+        super(DisabledOperationException.class, "DisabledAction");
     }
 }
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudsearch.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudsearch.model.InternalException;
@@ -28,19 +24,7 @@ import com.amazonaws.services.cloudsearch.model.InternalException;
 public class InternalExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InternalExceptionUnmarshaller() {
-        super(InternalException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InternalException"))
-            return null;
-
-        InternalException e = (InternalException)super.unmarshall(node);
-        
-        return e;
+        super(InternalException.class, "InternalException");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudsearch.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudsearch.model.LimitExceededException;
@@ -28,19 +24,7 @@ import com.amazonaws.services.cloudsearch.model.LimitExceededException;
 public class LimitExceededExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public LimitExceededExceptionUnmarshaller() {
-        super(LimitExceededException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("LimitExceeded"))
-            return null;
-
-        LimitExceededException e = (LimitExceededException)super.unmarshall(node);
-        
-        return e;
+        super(LimitExceededException.class, "LimitExceeded");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudsearchv2.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudsearchv2.model.DisabledOperationException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.cloudsearchv2.model.DisabledOperationException;
 public class DisabledOperationExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public DisabledOperationExceptionUnmarshaller() {
-        super(DisabledOperationException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DisabledAction"))
-            return null;
-
-        DisabledOperationException e = (DisabledOperationException)super.unmarshall(node);
-        
-        return e;
+        super(DisabledOperationException.class, "DisabledAction");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.cloudsearchv2.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudsearchv2.model.InvalidTypeException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.cloudsearchv2.model.InvalidTypeException;
 public class InvalidTypeExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidTypeExceptionUnmarshaller() {
-        super(InvalidTypeException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidType"))
-            return null;
-
-        InvalidTypeException e = (InvalidTypeException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidTypeException.class, "InvalidType");
     }
 }
     
\ No newline at end of file
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.cloudwatch.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudwatch.model.InvalidFormatException;
@@ -28,20 +24,6 @@ public class InvalidFormatExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidFormatExceptionUnmarshaller() {
-        super(InvalidFormatException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidFormat"))
-            return null;
-
-        InvalidFormatException e = (InvalidFormatException) super
-                .unmarshall(node);
-
-        return e;
+        super(InvalidFormatException.class, "InvalidFormat");
     }
 }
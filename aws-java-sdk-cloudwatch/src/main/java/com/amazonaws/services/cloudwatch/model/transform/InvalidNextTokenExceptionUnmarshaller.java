@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.cloudwatch.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudwatch.model.InvalidNextTokenException;
@@ -28,20 +24,6 @@ public class InvalidNextTokenExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidNextTokenExceptionUnmarshaller() {
-        super(InvalidNextTokenException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidNextToken"))
-            return null;
-
-        InvalidNextTokenException e = (InvalidNextTokenException) super
-                .unmarshall(node);
-
-        return e;
+        super(InvalidNextTokenException.class, "InvalidNextToken");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.cloudwatch.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.cloudwatch.model.LimitExceededException;
@@ -28,20 +24,6 @@ public class LimitExceededExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public LimitExceededExceptionUnmarshaller() {
-        super(LimitExceededException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("LimitExceeded"))
-            return null;
-
-        LimitExceededException e = (LimitExceededException) super
-                .unmarshall(node);
-
-        return e;
+        super(LimitExceededException.class, "LimitExceeded");
     }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.metrics.cloudwatch;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Accumulates the values of one metric, interval after interval. An
+ * accumulator which saw no value during an interval is retired at the end of
+ * the next one, so that metrics which are not recorded anymore do not hold on
+ * to memory.
+ */
+class MetricAccumulator {
+
+    private final MetricKey key;
+    private final boolean withHistogram;
+
+    /** the statistics of the current interval, or null once retired */
+    private final AtomicReference<MetricStatistics> current;
+
+    /** whether no value was recorded in the previous interval; only used by the publishing thread */
+    private boolean idle;
+
+    MetricAccumulator(MetricKey key, boolean withHistogram) {
+        this.key = key;
+        this.withHistogram = withHistogram;
+        this.current = new AtomicReference<MetricStatistics>(new MetricStatistics(withHistogram));
+    }
+
+    MetricKey getKey() {
+        return key;
+    }
+
+    /**
+     * Records a value in the current interval. Returns false if the
+     * accumulator is retired, in which case a new one must be used.
+     */
+    boolean record(double value) {
+        while (true) {
+            MetricStatistics statistics = current.get();
+            if (statistics == null) {
+                return false;
+            }
+            // A sealed statistics set has already been replaced; try again
+            if (statistics.enter()) {
+                try {
+                    statistics.record(value);
+                } finally {
+                    statistics.exit();
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends the current interval and returns its sealed statistics. A new
+     * interval starts, unless the accumulator is retired because it was idle.
+     */
+    MetricStatistics drain() {
+        MetricStatistics next = idle ? null : new MetricStatistics(withHistogram);
+        MetricStatistics statistics = current.getAndSet(next);
+        statistics.seal();
+        idle = statistics.getCount() == 0;
+        return statistics;
+    }
+
+    boolean isRetired() {
+        return current.get() == null;
+    }
+}
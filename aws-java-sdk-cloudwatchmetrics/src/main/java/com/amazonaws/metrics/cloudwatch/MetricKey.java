@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.metrics.cloudwatch;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.amazonaws.services.cloudwatch.model.Dimension;
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+
+/**
+ * Identifies a metric aggregated by a {@link MetricPublisher}: its name, unit
+ * and dimensions, the latter regardless of their order.
+ */
+final class MetricKey {
+
+    private static final Comparator<Dimension> BY_NAME = new Comparator<Dimension>() {
+        @Override
+        public int compare(Dimension d1, Dimension d2) {
+            return d1.getName().compareTo(d2.getName());
+        }
+    };
+
+    private final String metricName;
+    private final StandardUnit unit;
+    private final List<Dimension> dimensions;
+    private final int hashCode;
+
+    MetricKey(String metricName, StandardUnit unit, Dimension[] dimensions) {
+        this.metricName = metricName;
+        this.unit = unit;
+        if (dimensions.length == 0) {
+            this.dimensions = Collections.emptyList();
+        } else {
+            Dimension[] sorted = dimensions.clone();
+            Arrays.sort(sorted, BY_NAME);
+            this.dimensions = Collections.unmodifiableList(Arrays.asList(sorted));
+        }
+        this.hashCode = 31 * (31 * metricName.hashCode() + unit.hashCode()) + this.dimensions.hashCode();
+    }
+
+    String getMetricName() {
+        return metricName;
+    }
+
+    StandardUnit getUnit() {
+        return unit;
+    }
+
+    List<Dimension> getDimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof MetricKey)) {
+            return false;
+        }
+        MetricKey other = (MetricKey) obj;
+        return hashCode == other.hashCode
+                && metricName.equals(other.metricName)
+                && unit == other.unit
+                && dimensions.equals(other.dimensions);
+    }
+
+    @Override
+    public String toString() {
+        return metricName + dimensions;
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.metrics.cloudwatch;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.metrics.RequestMetricCollector;
+import com.amazonaws.services.cloudwatch.AmazonCloudWatch;
+import com.amazonaws.services.cloudwatch.model.Dimension;
+import com.amazonaws.services.cloudwatch.model.MetricDatum;
+import com.amazonaws.services.cloudwatch.model.PutMetricDataRequest;
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+import com.amazonaws.services.cloudwatch.model.StatisticSet;
+import com.amazonaws.util.VersionInfoUtils;
+
+/**
+ * Publishes application metrics to Amazon CloudWatch, aggregated locally into
+ * statistic sets.
+ * <p>
+ * Each value recorded is added to the statistics (sample count, sum, minimum
+ * and maximum) of its metric, identified by name, unit and dimensions, without
+ * locking, so that recording is cheap enough for hot code paths. Every
+ * {@link MetricPublisherConfig#getPublishIntervalMillis()} the statistics of
+ * the interval are sent, one datum per metric, with PutMetricData calls of 20
+ * datums made in parallel. Percentiles can be published too, estimated from
+ * per-metric histograms.
+ * <p>
+ * Memory is bounded regardless of the number of dimension values: at most
+ * {@link MetricPublisherConfig#getMaxMetrics()} metrics are aggregated at once,
+ * values of other metrics being dropped, and metrics not recorded during a
+ * whole interval are forgotten.
+ * <p>
+ * Instances are thread-safe. Publishers create threads that run until
+ * {@link #shutdown()} is called.
+ */
+public class MetricPublisher {
+
+    public static final String USER_AGENT = MetricPublisher.class.getSimpleName() + "/"
+            + VersionInfoUtils.getVersion();
+
+    /** The maximum number of datums the service accepts per PutMetricData call. */
+    static final int MAX_DATUMS_PER_CALL = 20;
+
+    /** The maximum number of dimensions of a metric. */
+    static final int MAX_DIMENSIONS = 10;
+
+    private static final Log log = LogFactory.getLog(MetricPublisher.class);
+
+    private static final Dimension[] NO_DIMENSIONS = new Dimension[0];
+
+    private final AmazonCloudWatch cloudWatch;
+    private final String namespace;
+    private final MetricPublisherConfig config;
+    private final double[] percentiles;
+
+    private final ConcurrentMap<MetricKey, MetricAccumulator> accumulators =
+            new ConcurrentHashMap<MetricKey, MetricAccumulator>();
+    private final AtomicInteger metricCount = new AtomicInteger();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final ExecutorService putExecutor;
+    private final ScheduledExecutorService scheduler;
+
+    public MetricPublisher(AmazonCloudWatch cloudWatch, String namespace) {
+        this(cloudWatch, namespace, new MetricPublisherConfig());
+    }
+
+    public MetricPublisher(AmazonCloudWatch cloudWatch, String namespace,
+            MetricPublisherConfig config) {
+        if (namespace == null || namespace.length() == 0) {
+            throw new IllegalArgumentException("A namespace is required");
+        }
+        this.cloudWatch = cloudWatch;
+        this.namespace = namespace;
+        this.config = new MetricPublisherConfig(config);
+        this.percentiles = this.config.getPercentiles();
+
+        putExecutor = Executors.newFixedThreadPool(this.config.getMaxConcurrentCalls(),
+                new DaemonThreadFactory());
+        scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory());
+
+        long intervalMillis = this.config.getPublishIntervalMillis();
+        scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    publish();
+                } catch (RuntimeException e) {
+                    log.warn("Unexpected error publishing metrics", e);
+                }
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records a value of a metric.
+     *
+     * @param metricName
+     *            the name of the metric.
+     * @param value
+     *            the value, a finite number.
+     * @param unit
+     *            the unit of the value, or null for none.
+     * @param dimensions
+     *            up to 10 dimensions of the metric, in any order; they must
+     *            not be modified afterwards.
+     * @return false if the value was dropped because the maximum number of
+     *         metrics are aggregated already, true otherwise.
+     */
+    public boolean record(String metricName, double value, StandardUnit unit,
+            Dimension... dimensions) {
+        if (metricName == null) {
+            throw new IllegalArgumentException("A metric name is required");
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("The value of " + metricName + " must be finite");
+        }
+        if (dimensions == null) {
+            dimensions = NO_DIMENSIONS;
+        }
+        if (dimensions.length > MAX_DIMENSIONS) {
+            throw new IllegalArgumentException("A metric cannot have more than "
+                    + MAX_DIMENSIONS + " dimensions");
+        }
+        MetricKey key = new MetricKey(metricName, unit == null ? StandardUnit.None : unit, dimensions);
+
+        while (true) {
+            MetricAccumulator accumulator = accumulators.get(key);
+            if (accumulator == null) {
+                if (!reserveMetric()) {
+                    droppedCount.incrementAndGet();
+                    return false;
+                }
+                accumulator = new MetricAccumulator(key, percentiles.length > 0);
+                MetricAccumulator existing = accumulators.putIfAbsent(key, accumulator);
+                if (existing != null) {
+                    metricCount.decrementAndGet();
+                    accumulator = existing;
+                }
+            }
+            if (accumulator.record(value)) {
+                return true;
+            }
+            retire(accumulator);
+        }
+    }
+
+    /**
+     * Publishes the statistics of the values recorded since the last
+     * publication now, rather than at the end of the interval. The calls are
+     * made in the background.
+     */
+    public void flush() {
+        publish();
+    }
+
+    /**
+     * Returns the number of distinct metrics being aggregated.
+     */
+    public int getMetricCount() {
+        return metricCount.get();
+    }
+
+    /**
+     * Returns the number of values dropped because the maximum number of
+     * metrics were aggregated already.
+     */
+    public long getDroppedValueCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Publishes the values recorded so far, waits for the calls to complete,
+     * then stops the threads of this publisher. The AmazonCloudWatch client is
+     * not shut down.
+     */
+    public void shutdown() {
+        scheduler.shutdown();
+        publish();
+        putExecutor.shutdown();
+        try {
+            putExecutor.awaitTermination(config.getPublishIntervalMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmazonClientException("Interrupted while publishing metrics", e);
+        }
+    }
+
+    /**
+     * Ends the current interval of all metrics, and sends their statistics.
+     */
+    private synchronized void publish() {
+        Date timestamp = new Date();
+        List<MetricDatum> data = new ArrayList<MetricDatum>();
+        for (MetricAccumulator accumulator : accumulators.values()) {
+            MetricStatistics statistics = accumulator.drain();
+            if (accumulator.isRetired()) {
+                retire(accumulator);
+            }
+            if (statistics.getCount() > 0) {
+                addData(accumulator.getKey(), statistics, timestamp, data);
+            }
+        }
+
+        for (int i = 0; i < data.size(); i += MAX_DATUMS_PER_CALL) {
+            final List<MetricDatum> batch = new ArrayList<MetricDatum>(
+                    data.subList(i, Math.min(i + MAX_DATUMS_PER_CALL, data.size())));
+            putExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    putMetricData(batch);
+                }
+            });
+        }
+    }
+
+    private void addData(MetricKey key, MetricStatistics statistics, Date timestamp,
+            List<MetricDatum> data) {
+        data.add(new MetricDatum()
+                .withMetricName(key.getMetricName())
+                .withUnit(key.getUnit())
+                .withDimensions(key.getDimensions())
+                .withTimestamp(timestamp)
+                .withStatisticValues(new StatisticSet()
+                        .withSampleCount((double) statistics.getCount())
+                        .withSum(statistics.getSum())
+                        .withMinimum(statistics.getMinimum())
+                        .withMaximum(statistics.getMaximum())));
+        for (double percentile : percentiles) {
+            data.add(new MetricDatum()
+                    .withMetricName(key.getMetricName() + ".p" + formatPercentile(percentile))
+                    .withUnit(key.getUnit())
+                    .withDimensions(key.getDimensions())
+                    .withTimestamp(timestamp)
+                    .withValue(statistics.getPercentile(percentile)));
+        }
+    }
+
+    private void putMetricData(List<MetricDatum> batch) {
+        PutMetricDataRequest request = new PutMetricDataRequest()
+                .withNamespace(namespace)
+                .withMetricData(batch)
+                .withRequestMetricCollector(RequestMetricCollector.NONE);
+        request.getRequestClientOptions().appendUserAgent(USER_AGENT);
+        try {
+            cloudWatch.putMetricData(request);
+        } catch (AmazonClientException e) {
+            log.warn("Unable to publish " + batch.size() + " metrics to " + namespace, e);
+        }
+    }
+
+    /**
+     * Counts a new metric unless the maximum number of metrics are aggregated
+     * already, so that threads creating metrics at once cannot go over it.
+     */
+    private boolean reserveMetric() {
+        int count;
+        do {
+            count = metricCount.get();
+            if (count >= config.getMaxMetrics()) {
+                return false;
+            }
+        } while (!metricCount.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    private void retire(MetricAccumulator accumulator) {
+        if (accumulators.remove(accumulator.getKey(), accumulator)) {
+            metricCount.decrementAndGet();
+        }
+    }
+
+    private static String formatPercentile(double percentile) {
+        if (percentile == Math.rint(percentile)) {
+            return String.valueOf((long) percentile);
+        }
+        return String.valueOf(percentile);
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        static AtomicInteger threadCount = new AtomicInteger(0);
+
+        public Thread newThread(Runnable r) {
+            int threadNumber = threadCount.addAndGet(1);
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("MetricPublisherThread-" + threadNumber);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.metrics.cloudwatch;
+
+/**
+ * Configuration of a {@link MetricPublisher}.
+ */
+public class MetricPublisherConfig {
+
+    /** The default time (in milliseconds) between two publications of the metrics. */
+    public static final long DEFAULT_PUBLISH_INTERVAL_MILLIS = 60 * 1000;
+
+    /** The default maximum number of distinct metrics aggregated at once. */
+    public static final int DEFAULT_MAX_METRICS = 10000;
+
+    /** The default maximum number of concurrent PutMetricData calls. */
+    public static final int DEFAULT_MAX_CONCURRENT_CALLS = 4;
+
+    private long publishIntervalMillis = DEFAULT_PUBLISH_INTERVAL_MILLIS;
+
+    private int maxMetrics = DEFAULT_MAX_METRICS;
+
+    private int maxConcurrentCalls = DEFAULT_MAX_CONCURRENT_CALLS;
+
+    private double[] percentiles = new double[0];
+
+    public MetricPublisherConfig() {
+    }
+
+    /** copy constructor */
+    public MetricPublisherConfig(MetricPublisherConfig other) {
+        publishIntervalMillis = other.publishIntervalMillis;
+        maxMetrics = other.maxMetrics;
+        maxConcurrentCalls = other.maxConcurrentCalls;
+        percentiles = other.percentiles.clone();
+    }
+
+    /**
+     * Returns the time (in milliseconds) between two publications of the
+     * metrics; each publication sends the statistics of the values recorded
+     * since the previous one.
+     */
+    public long getPublishIntervalMillis() {
+        return publishIntervalMillis;
+    }
+
+    /**
+     * Sets the time (in milliseconds) between two publications of the
+     * metrics.
+     *
+     * @param publishIntervalMillis
+     *            the time, at least one second
+     */
+    public void setPublishIntervalMillis(long publishIntervalMillis) {
+        if (publishIntervalMillis < 1000) {
+            throw new IllegalArgumentException("publishIntervalMillis " + publishIntervalMillis
+                    + " must be at least 1000");
+        }
+        this.publishIntervalMillis = publishIntervalMillis;
+    }
+
+    /**
+     * Sets the time (in milliseconds) between two publications of the
+     * metrics, and returns the updated object so that additional method calls
+     * can be chained together.
+     */
+    public MetricPublisherConfig withPublishIntervalMillis(long publishIntervalMillis) {
+        setPublishIntervalMillis(publishIntervalMillis);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of distinct metrics, by name, unit and
+     * dimensions, aggregated at once. Values of new metrics are dropped while
+     * that many are aggregated, which bounds the memory used however many
+     * dimension values are recorded. Metrics not recorded during a whole
+     * interval stop counting towards the maximum.
+     */
+    public int getMaxMetrics() {
+        return maxMetrics;
+    }
+
+    /**
+     * Sets the maximum number of distinct metrics aggregated at once.
+     *
+     * @param maxMetrics
+     *            the number of metrics, must be positive
+     */
+    public void setMaxMetrics(int maxMetrics) {
+        if (maxMetrics < 1) {
+            throw new IllegalArgumentException("maxMetrics " + maxMetrics + " must be positive");
+        }
+        this.maxMetrics = maxMetrics;
+    }
+
+    /**
+     * Sets the maximum number of distinct metrics aggregated at once, and
+     * returns the updated object so that additional method calls can be
+     * chained together.
+     */
+    public MetricPublisherConfig withMaxMetrics(int maxMetrics) {
+        setMaxMetrics(maxMetrics);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of PutMetricData calls in flight at once.
+     */
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    /**
+     * Sets the maximum number of PutMetricData calls in flight at once.
+     *
+     * @param maxConcurrentCalls
+     *            the number of calls, must be positive
+     */
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("maxConcurrentCalls " + maxConcurrentCalls
+                    + " must be positive");
+        }
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    /**
+     * Sets the maximum number of PutMetricData calls in flight at once, and
+     * returns the updated object so that additional method calls can be
+     * chained together.
+     */
+    public MetricPublisherConfig withMaxConcurrentCalls(int maxConcurrentCalls) {
+        setMaxConcurrentCalls(maxConcurrentCalls);
+        return this;
+    }
+
+    /**
+     * Returns the percentiles published for each metric, none by default.
+     * Percentiles are estimated from a histogram of the values of each metric,
+     * within about 12%, and published as metrics named after the metric with a
+     * suffix such as ".p99".
+     */
+    public double[] getPercentiles() {
+        return percentiles.clone();
+    }
+
+    /**
+     * Sets the percentiles published for each metric. Keeping a histogram
+     * takes about 2 KB per metric.
+     *
+     * @param percentiles
+     *            the percentiles, each greater than 0 and at most 100
+     */
+    public void setPercentiles(double... percentiles) {
+        for (double percentile : percentiles) {
+            if (!(percentile > 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("percentile " + percentile
+                        + " must be greater than 0 and at most 100");
+            }
+        }
+        this.percentiles = percentiles.clone();
+    }
+
+    /**
+     * Sets the percentiles published for each metric, and returns the updated
+     * object so that additional method calls can be chained together.
+     */
+    public MetricPublisherConfig withPercentiles(double... percentiles) {
+        setPercentiles(percentiles);
+        return this;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.metrics.cloudwatch;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The statistics of the values of a metric recorded during one interval:
+ * count, sum, minimum and maximum, and optionally a histogram from which
+ * percentiles are estimated. Values are recorded without locking.
+ * <p>
+ * Once the interval is over, the statistics are sealed and read by the
+ * publishing thread. A recording thread brackets its update with
+ * {@link #enter()} and {@link #exit()}; since it announces itself before
+ * checking the seal, and the publishing thread seals before waiting for the
+ * recording threads to leave, no value is half recorded when the statistics
+ * are read.
+ * <p>
+ * The histogram has four buckets per power of two between 2^-16 and 2^48,
+ * which bounds the relative error of the percentiles to about 12%, plus one
+ * bucket for the values below and one for the values above.
+ */
+class MetricStatistics {
+
+    private static final int MIN_EXPONENT = -16;
+    private static final int MAX_EXPONENT = 47;
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS + 2;
+    private static final double LOWEST_BUCKETED_VALUE = Math.scalb(1.0, MIN_EXPONENT);
+
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sumBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private final AtomicLong minBits = new AtomicLong(Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+    private final AtomicLong maxBits = new AtomicLong(Double.doubleToRawLongBits(Double.NEGATIVE_INFINITY));
+    private final AtomicLongArray histogram;
+
+    private final AtomicInteger writers = new AtomicInteger();
+    private volatile boolean sealed;
+
+    MetricStatistics(boolean withHistogram) {
+        histogram = withHistogram ? new AtomicLongArray(BUCKET_COUNT) : null;
+    }
+
+    /**
+     * Announces a thread about to record a value. Returns false, and the
+     * value must be recorded elsewhere, if the statistics are sealed.
+     */
+    boolean enter() {
+        writers.incrementAndGet();
+        if (sealed) {
+            writers.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    void exit() {
+        writers.decrementAndGet();
+    }
+
+    /**
+     * Prevents more values from being recorded, and waits for the values being
+     * recorded.
+     */
+    void seal() {
+        sealed = true;
+        while (writers.get() > 0) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Must be called between {@link #enter()} and {@link #exit()}.
+     */
+    void record(double value) {
+        count.incrementAndGet();
+        long bits;
+        do {
+            bits = sumBits.get();
+        } while (!sumBits.compareAndSet(bits,
+                Double.doubleToRawLongBits(Double.longBitsToDouble(bits) + value)));
+        do {
+            bits = minBits.get();
+        } while (value < Double.longBitsToDouble(bits)
+                && !minBits.compareAndSet(bits, Double.doubleToRawLongBits(value)));
+        do {
+            bits = maxBits.get();
+        } while (value > Double.longBitsToDouble(bits)
+                && !maxBits.compareAndSet(bits, Double.doubleToRawLongBits(value)));
+        if (histogram != null) {
+            histogram.incrementAndGet(bucketOf(value));
+        }
+    }
+
+    long getCount() {
+        return count.get();
+    }
+
+    double getSum() {
+        return Double.longBitsToDouble(sumBits.get());
+    }
+
+    double getMinimum() {
+        return Double.longBitsToDouble(minBits.get());
+    }
+
+    double getMaximum() {
+        return Double.longBitsToDouble(maxBits.get());
+    }
+
+    boolean hasHistogram() {
+        return histogram != null;
+    }
+
+    /**
+     * Estimates the value below which the given percentage of the recorded
+     * values fall; the lowest and highest ranks are the exact minimum and
+     * maximum. Must only be called on sealed statistics with a histogram and
+     * at least one value.
+     */
+    double getPercentile(double percentile) {
+        long total = count.get();
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        if (rank >= total) {
+            return getMaximum();
+        }
+        if (rank == 1) {
+            return getMinimum();
+        }
+        long seen = 0;
+        int bucket = 0;
+        for (; bucket < BUCKET_COUNT - 1; bucket++) {
+            seen += histogram.get(bucket);
+            if (seen >= rank) {
+                break;
+            }
+        }
+        double estimate = bucketMidpoint(bucket);
+        return Math.min(getMaximum(), Math.max(getMinimum(), estimate));
+    }
+
+    /**
+     * Returns the histogram bucket of a value: the first for values below
+     * 2^-16 (zero and negative values included), the last for values of 2^48
+     * and above, and otherwise the one selected by the exponent and the
+     * leading bits of the mantissa of the value.
+     */
+    static int bucketOf(double value) {
+        if (!(value >= LOWEST_BUCKETED_VALUE)) {
+            return 0;
+        }
+        long bits = Double.doubleToRawLongBits(value);
+        int exponent = (int) ((bits >>> 52) & 0x7ff) - 1023;
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (bits >>> (52 - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return 1 + (exponent - MIN_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    private static double bucketMidpoint(int bucket) {
+        if (bucket == 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (bucket == BUCKET_COUNT - 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        int exponent = (bucket - 1) / SUB_BUCKETS + MIN_EXPONENT;
+        int subBucket = (bucket - 1) % SUB_BUCKETS;
+        return Math.scalb(1.0 + (subBucket + 0.5) / SUB_BUCKETS, exponent);
+    }
+}
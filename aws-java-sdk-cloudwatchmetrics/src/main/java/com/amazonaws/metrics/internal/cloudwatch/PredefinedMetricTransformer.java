@@ -72,7 +72,12 @@ public class PredefinedMetricTransformer {
                 case HttpClientPoolAvailableCount:
                 case HttpClientPoolLeasedCount:
                 case HttpClientPoolPendingCount:
+                case BufferPoolHitCount:
+                case BufferPoolMissCount:
                     return metricOfCount(predefined, request, response);
+                case BufferPoolOutstandingBytes:
+                case BufferPoolFreeBytes:
+                    return metricOfCount(predefined, request, response, StandardUnit.Bytes);
                 case RequestCount:  // intentionally fall thru to reuse the same routine as RetryCount
                 case RetryCount:
                     return metricOfRequestOrRetryCount(predefined, request, response);
@@ -159,6 +164,15 @@ public class PredefinedMetricTransformer {
 
     protected List<MetricDatum> metricOfCount(
             Field metricType, Request<?> req, Object resp) {
+        return metricOfCount(metricType, req, resp, StandardUnit.Count);
+    }
+
+    /**
+     * Returns the metric datum of the counter recorded for the given metric
+     * type, in the given unit.
+     */
+    protected List<MetricDatum> metricOfCount(
+            Field metricType, Request<?> req, Object resp, StandardUnit unit) {
         AWSRequestMetrics m = req.getAWSRequestMetrics();
         TimingInfo ti = m.getTimingInfo();
         Number counter = ti.getCounter(metricType.name());
@@ -174,7 +188,7 @@ public class PredefinedMetricTransformer {
                 .withDimensions(new Dimension()
                     .withName(Dimensions.MetricType.name())
                     .withValue(metricType.name()))
-                .withUnit(StandardUnit.Count)
+                .withUnit(unit)
                 .withValue(Double.valueOf(count))
                 .withTimestamp(endTimestamp(ti)))
                 ;
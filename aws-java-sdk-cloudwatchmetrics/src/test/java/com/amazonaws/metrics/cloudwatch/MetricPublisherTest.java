@@ -0,0 +1,236 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.metrics.cloudwatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.amazonaws.services.cloudwatch.AbstractAmazonCloudWatch;
+import com.amazonaws.services.cloudwatch.model.Dimension;
+import com.amazonaws.services.cloudwatch.model.MetricDatum;
+import com.amazonaws.services.cloudwatch.model.PutMetricDataRequest;
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+
+public class MetricPublisherTest {
+
+    private static final String NAMESPACE = "namespace";
+
+    private final StubCloudWatch cloudWatch = new StubCloudWatch();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private MetricPublisher publisher;
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+    }
+
+    @Test
+    public void testNoValueIsLostWhilePublishing() throws Exception {
+        publisher = new MetricPublisher(cloudWatch, NAMESPACE);
+        final int iterations = 50000;
+        List<Future<Void>> results = new ArrayList<Future<Void>>();
+        for (int t = 0; t < 4; t++) {
+            final Dimension dimension = new Dimension().withName("thread").withValue(Integer.toString(t % 2));
+            results.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int i = 0; i < iterations; i++) {
+                        assertTrue(publisher.record("latency", i % 10, StandardUnit.Milliseconds, dimension));
+                    }
+                    return null;
+                }
+            }));
+        }
+        // publications end intervals, and retire idle metrics, all along
+        while (!allDone(results)) {
+            publisher.flush();
+            Thread.sleep(1);
+        }
+        for (Future<Void> result : results) {
+            result.get();
+        }
+        publisher.shutdown();
+
+        Map<String, double[]> totals = new HashMap<String, double[]>();
+        for (MetricDatum datum : cloudWatch.data()) {
+            assertEquals("latency", datum.getMetricName());
+            assertEquals(StandardUnit.Milliseconds.toString(), datum.getUnit());
+            String key = datum.getDimensions().get(0).getValue();
+            double[] total = totals.get(key);
+            if (total == null) {
+                total = new double[] { 0, 0, Double.MAX_VALUE, -Double.MAX_VALUE };
+                totals.put(key, total);
+            }
+            total[0] += datum.getStatisticValues().getSampleCount();
+            total[1] += datum.getStatisticValues().getSum();
+            total[2] = Math.min(total[2], datum.getStatisticValues().getMinimum());
+            total[3] = Math.max(total[3], datum.getStatisticValues().getMaximum());
+        }
+        assertEquals(2, totals.size());
+        for (double[] total : totals.values()) {
+            assertEquals(2 * iterations, total[0], 0);
+            assertEquals(2 * iterations / 10 * 45, total[1], 0);
+            assertEquals(0, total[2], 0);
+            assertEquals(9, total[3], 0);
+        }
+    }
+
+    @Test
+    public void testCallsHoldAtMost20Datums() throws Exception {
+        publisher = new MetricPublisher(cloudWatch, NAMESPACE, new MetricPublisherConfig()
+                .withPercentiles(50, 99.9));
+        for (int i = 0; i < 45; i++) {
+            publisher.record("metric-" + i, i, null);
+        }
+        publisher.shutdown();
+
+        // a statistic set and two percentiles per metric
+        assertEquals(7, cloudWatch.requests.size());
+        Set<String> names = new HashSet<String>();
+        for (PutMetricDataRequest request : cloudWatch.requests) {
+            assertEquals(NAMESPACE, request.getNamespace());
+            assertTrue(request.getMetricData().size() <= MetricPublisher.MAX_DATUMS_PER_CALL);
+            for (MetricDatum datum : request.getMetricData()) {
+                assertTrue(names.add(datum.getMetricName()));
+                assertEquals(StandardUnit.None.toString(), datum.getUnit());
+            }
+        }
+        assertEquals(135, names.size());
+        assertTrue(names.contains("metric-44.p50"));
+        assertTrue(names.contains("metric-44.p99.9"));
+    }
+
+    @Test
+    public void testValuesOfMetricsOverTheMaximumAreDropped() throws Exception {
+        publisher = new MetricPublisher(cloudWatch, NAMESPACE, new MetricPublisherConfig()
+                .withMaxMetrics(10));
+        for (int i = 0; i < 15; i++) {
+            assertEquals(i < 10, publisher.record("metric", 1, null,
+                    new Dimension().withName("id").withValue(Integer.toString(i))));
+        }
+        // metrics aggregated already are still recorded
+        assertTrue(publisher.record("metric", 1, null, new Dimension().withName("id").withValue("0")));
+        assertEquals(10, publisher.getMetricCount());
+        assertEquals(5, publisher.getDroppedValueCount());
+    }
+
+    @Test
+    public void testMaximumHoldsWhenThreadsCreateMetricsAtOnce() throws Exception {
+        publisher = new MetricPublisher(cloudWatch, NAMESPACE, new MetricPublisherConfig()
+                .withMaxMetrics(50));
+        List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+        for (int t = 0; t < 4; t++) {
+            final String prefix = "thread-" + t + "-";
+            results.add(executor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    int recorded = 0;
+                    for (int i = 0; i < 1000; i++) {
+                        if (publisher.record(prefix + i, 1, null)) {
+                            recorded++;
+                        }
+                    }
+                    return recorded;
+                }
+            }));
+        }
+        int recorded = 0;
+        for (Future<Integer> result : results) {
+            recorded += result.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(50, recorded);
+        assertEquals(50, publisher.getMetricCount());
+        assertEquals(4000 - 50, publisher.getDroppedValueCount());
+    }
+
+    @Test
+    public void testIdleMetricsAreRetired() throws Exception {
+        publisher = new MetricPublisher(cloudWatch, NAMESPACE, new MetricPublisherConfig()
+                .withMaxMetrics(1));
+        assertTrue(publisher.record("a", 1, null));
+        assertFalse(publisher.record("b", 1, null));
+
+        publisher.flush();
+        // "a" is idle during this interval, and retired at the end of the next
+        publisher.flush();
+        assertEquals(1, publisher.getMetricCount());
+        assertFalse(publisher.record("b", 1, null));
+        publisher.flush();
+        assertEquals(0, publisher.getMetricCount());
+
+        assertTrue(publisher.record("b", 2, null));
+        assertFalse(publisher.record("a", 1, null));
+        publisher.shutdown();
+
+        List<String> names = new ArrayList<String>();
+        for (MetricDatum datum : cloudWatch.data()) {
+            names.add(datum.getMetricName());
+        }
+        Collections.sort(names);
+        assertEquals(Arrays.asList("a", "b"), names);
+    }
+
+    private static boolean allDone(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            if (!future.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class StubCloudWatch extends AbstractAmazonCloudWatch {
+        private final List<PutMetricDataRequest> requests =
+                Collections.synchronizedList(new ArrayList<PutMetricDataRequest>());
+
+        List<MetricDatum> data() {
+            List<MetricDatum> data = new ArrayList<MetricDatum>();
+            synchronized (requests) {
+                for (PutMetricDataRequest request : requests) {
+                    data.addAll(request.getMetricData());
+                }
+            }
+            return data;
+        }
+
+        @Override
+        public void putMetricData(PutMetricDataRequest request) {
+            requests.add(request);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.metrics.cloudwatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+public class MetricStatisticsTest {
+
+    private static final double[] PERCENTILES = { 0.1, 1, 10, 25, 50, 75, 90, 99, 99.9, 100 };
+
+    @Test
+    public void testStatistics() {
+        MetricStatistics statistics = new MetricStatistics(false);
+        for (double value : new double[] { 3, -1.5, 10, 0 }) {
+            assertTrue(statistics.enter());
+            statistics.record(value);
+            statistics.exit();
+        }
+        statistics.seal();
+
+        assertFalse(statistics.hasHistogram());
+        assertEquals(4, statistics.getCount());
+        assertEquals(11.5, statistics.getSum(), 0);
+        assertEquals(-1.5, statistics.getMinimum(), 0);
+        assertEquals(10, statistics.getMaximum(), 0);
+        assertFalse(statistics.enter());
+    }
+
+    @Test
+    public void testPercentilesOfKnownData() {
+        double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + 1;
+        }
+        MetricStatistics statistics = record(values);
+        assertEquals(1, statistics.getPercentile(0.1), 0);
+        assertEquals(500, statistics.getPercentile(50), 500 * 0.125);
+        assertEquals(900, statistics.getPercentile(90), 900 * 0.125);
+        assertEquals(990, statistics.getPercentile(99), 990 * 0.125);
+        assertEquals(1000, statistics.getPercentile(100), 0);
+    }
+
+    @Test
+    public void testPercentilesAreWithinTheBucketError() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            // log-normal values spanning several orders of magnitude
+            double[] values = new double[1 + random.nextInt(5000)];
+            double scale = Math.pow(10, random.nextInt(6));
+            for (int i = 0; i < values.length; i++) {
+                values[i] = scale * Math.exp(1.5 * random.nextGaussian());
+            }
+            MetricStatistics statistics = record(values);
+
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            for (double percentile : PERCENTILES) {
+                int rank = Math.max(1, (int) Math.ceil(sorted.length * percentile / 100.0));
+                double exact = sorted[rank - 1];
+                assertEquals("p" + percentile + " of " + sorted.length + " values",
+                        exact, statistics.getPercentile(percentile), exact * 0.125);
+            }
+        }
+    }
+
+    @Test
+    public void testPercentilesOutsideTheBucketsAreClampedToMinimumAndMaximum() {
+        MetricStatistics statistics = record(new double[] { -5, 0, 0, 1e-9, 1, 1e20, 3e20 });
+        assertEquals(-5, statistics.getPercentile(10), 0);
+        assertEquals(-5, statistics.getPercentile(50), 0);
+        assertEquals(1, statistics.getPercentile(60), 0.125);
+        assertEquals(3e20, statistics.getPercentile(80), 0);
+        assertEquals(3e20, statistics.getPercentile(100), 0);
+    }
+
+    @Test
+    public void testBucketsAreOrderedAndNarrow() {
+        Random random = new Random(42);
+        double previous = 0;
+        for (int i = 0; i < 20000; i++) {
+            double value = previous * (1 + random.nextDouble() / 100) + Math.scalb(1.0, -17);
+            assertTrue(MetricStatistics.bucketOf(previous) <= MetricStatistics.bucketOf(value));
+            previous = value;
+        }
+        assertEquals(0, MetricStatistics.bucketOf(-1));
+        assertEquals(0, MetricStatistics.bucketOf(Math.scalb(1.0, -17)));
+        assertEquals(1, MetricStatistics.bucketOf(Math.scalb(1.0, -16)));
+        // four buckets per power of two
+        assertEquals(5, MetricStatistics.bucketOf(Math.scalb(1.0, -15)));
+        assertEquals(MetricStatistics.bucketOf(Math.scalb(1.0, 48)), MetricStatistics.bucketOf(Double.MAX_VALUE));
+        assertEquals(MetricStatistics.bucketOf(Math.scalb(1.0, 48)) - 1,
+                MetricStatistics.bucketOf(Math.scalb(1.0, 48) - 1));
+    }
+
+    /**
+     * Seals statistics while threads keep recording into them, as the
+     * publishing thread does, and checks that every value is either in the
+     * sealed statistics or was refused before being recorded.
+     */
+    @Test
+    public void testConcurrentRecordingAndSealingLosesNoValue() throws Exception {
+        final int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 200; round++) {
+                final MetricStatistics statistics = new MetricStatistics(true);
+                final AtomicBoolean refused = new AtomicBoolean();
+                List<Future<Long>> results = new ArrayList<Future<Long>>();
+                for (int t = 0; t < threads; t++) {
+                    results.add(executor.submit(new Callable<Long>() {
+                        @Override
+                        public Long call() {
+                            long recorded = 0;
+                            while (statistics.enter()) {
+                                try {
+                                    statistics.record(1);
+                                } finally {
+                                    statistics.exit();
+                                }
+                                recorded++;
+                            }
+                            refused.set(true);
+                            return recorded;
+                        }
+                    }));
+                }
+                Thread.sleep(round % 3);
+                statistics.seal();
+
+                long count = statistics.getCount();
+                double sum = statistics.getSum();
+                long total = 0;
+                for (Future<Long> result : results) {
+                    total += result.get(10, TimeUnit.SECONDS);
+                }
+                assertTrue(refused.get());
+                assertEquals(total, count);
+                assertEquals(total, statistics.getCount());
+                assertEquals(total, sum, 0);
+                if (total > 0) {
+                    assertEquals(1, statistics.getMinimum(), 0);
+                    assertEquals(1, statistics.getPercentile(50), 0);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static MetricStatistics record(double[] values) {
+        MetricStatistics statistics = new MetricStatistics(true);
+        for (double value : values) {
+            assertTrue(statistics.enter());
+            statistics.record(value);
+            statistics.exit();
+        }
+        statistics.seal();
+        return statistics;
+    }
+}
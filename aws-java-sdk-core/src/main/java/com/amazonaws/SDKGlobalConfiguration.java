@@ -44,6 +44,22 @@ public class SDKGlobalConfiguration {
     public static final String DEFAULT_METRICS_SYSTEM_PROPERTY =
         "com.amazonaws.sdk.enableDefaultMetrics";
 
+    /**
+     * System property used when starting up the JVM to make the buffer pool
+     * shared by the clients of the SDK remember where each buffer not
+     * returned to it was acquired, to find leaks in tests. This has a cost on
+     * every request, so it should not be set in production.
+     *
+     * <pre>
+     * Example:
+     *  -Dcom.amazonaws.sdk.bufferPoolLeakDetection
+     * </pre>
+     *
+     * @see com.amazonaws.internal.BufferPool#getLeaks()
+     */
+    public static final String BUFFER_POOL_LEAK_DETECTION_SYSTEM_PROPERTY =
+        "com.amazonaws.sdk.bufferPoolLeakDetection";
+
     /** System property name for the AWS access key ID */
     public static final String ACCESS_KEY_SYSTEM_PROPERTY = "aws.accessKeyId";
 
@@ -17,6 +17,8 @@ package com.amazonaws.auth.internal;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
+import com.amazonaws.util.DateCodec;
+
 /**
  * Utility methods that is used by the different AWS Signer implementations.
  * This class is strictly internal and is subjected to change.
@@ -29,6 +31,13 @@ public final class AWS4SignerUtils {
     private static final DateTimeFormatter timeFormatter = DateTimeFormat
             .forPattern("yyyyMMdd'T'HHmmss'Z'").withZoneUTC();
 
+    /**
+     * The formatted forms of the second of the latest request signed: most
+     * requests signed in a given second share them.
+     */
+    private static volatile FormattedSecond lastFormattedSecond = new FormattedSecond(
+            Long.MIN_VALUE, null, null);
+
     /**
      * Returns a string representation of the given date time in yyyyMMdd
      * format. The date returned is in the UTC zone.
@@ -36,7 +45,8 @@ public final class AWS4SignerUtils {
      * For example, given a time "1416863450581", this method returns "20141124"
      */
     public static String formatDateStamp(long timeMilli) {
-        return dateFormatter.print(timeMilli);
+        FormattedSecond formatted = formattedSecond(timeMilli);
+        return formatted != null ? formatted.dateStamp : dateFormatter.print(timeMilli);
     }
 
     /**
@@ -47,6 +57,41 @@ public final class AWS4SignerUtils {
      * "20141124T211050Z"
      */
     public static String formatTimestamp(long timeMilli) {
-        return timeFormatter.print(timeMilli);
+        FormattedSecond formatted = formattedSecond(timeMilli);
+        return formatted != null ? formatted.timestamp : timeFormatter.print(timeMilli);
+    }
+
+    /**
+     * Returns the formatted forms of the second of the given time, or null if
+     * they are left to the Joda-Time formatters.
+     */
+    private static FormattedSecond formattedSecond(long timeMilli) {
+        long second = timeMilli / 1000;
+        if (timeMilli % 1000 < 0) {
+            second--;
+        }
+        FormattedSecond formatted = lastFormattedSecond;
+        if (formatted.second == second) {
+            return formatted;
+        }
+        String timestamp = DateCodec.formatCompressedISO8601(timeMilli);
+        if (timestamp == null) {
+            return null;
+        }
+        formatted = new FormattedSecond(second, timestamp, timestamp.substring(0, 8));
+        lastFormattedSecond = formatted;
+        return formatted;
+    }
+
+    private static final class FormattedSecond {
+        private final long second;
+        private final String timestamp;
+        private final String dateStamp;
+
+        FormattedSecond(long second, String timestamp, String dateStamp) {
+            this.second = second;
+            this.timestamp = timestamp;
+            this.dateStamp = dateStamp;
+        }
     }
 }
@@ -20,6 +20,10 @@ import static com.amazonaws.event.SDKProgressPublisher.publishRequestContentLeng
 import static com.amazonaws.event.SDKProgressPublisher.publishResponseContentLength;
 import static com.amazonaws.util.AWSRequestMetrics.Field.AWSErrorCode;
 import static com.amazonaws.util.AWSRequestMetrics.Field.AWSRequestID;
+import static com.amazonaws.util.AWSRequestMetrics.Field.BufferPoolFreeBytes;
+import static com.amazonaws.util.AWSRequestMetrics.Field.BufferPoolHitCount;
+import static com.amazonaws.util.AWSRequestMetrics.Field.BufferPoolMissCount;
+import static com.amazonaws.util.AWSRequestMetrics.Field.BufferPoolOutstandingBytes;
 import static com.amazonaws.util.AWSRequestMetrics.Field.Exception;
 import static com.amazonaws.util.AWSRequestMetrics.Field.HttpClientPoolAvailableCount;
 import static com.amazonaws.util.AWSRequestMetrics.Field.HttpClientPoolLeasedCount;
@@ -63,7 +67,6 @@ import org.apache.http.conn.ClientConnectionManager;
 import org.apache.http.conn.scheme.Scheme;
 import org.apache.http.conn.scheme.SchemeRegistry;
 import org.apache.http.conn.ssl.SSLSocketFactory;
-import org.apache.http.entity.BufferedHttpEntity;
 import org.apache.http.pool.ConnPoolControl;
 import org.apache.http.pool.PoolStats;
 import org.apache.http.protocol.BasicHttpContext;
@@ -98,6 +101,7 @@ import com.amazonaws.http.timers.client.ClientExecutionTimeoutException;
 import com.amazonaws.http.timers.client.ClientExecutionTimer;
 import com.amazonaws.http.timers.request.HttpRequestAbortTaskTracker;
 import com.amazonaws.http.timers.request.HttpRequestTimer;
+import com.amazonaws.internal.BufferPool;
 import com.amazonaws.internal.CRC32MismatchException;
 import com.amazonaws.internal.ReleasableInputStream;
 import com.amazonaws.internal.ResettableInputStream;
@@ -436,9 +440,10 @@ public class AmazonHttpClient {
         ProgressListener listener = awsreq.getGeneralProgressListener();
         Map<String, String> headers = request.getHeaders();
         String s = headers.get("Content-Length");
+        long contentLength = -1;
         if (s != null) {
             try {
-                long contentLength = Long.parseLong(s);
+                contentLength = Long.parseLong(s);
                 publishRequestContentLength(listener, contentLength);
             } catch (NumberFormatException e) {
                 log.warn("Cannot parse the Content-Length header of the request.");
@@ -461,8 +466,11 @@ public class AmazonHttpClient {
                 }
             }
         }
-        if (!content.markSupported())
-            content = new SdkBufferedInputStream(content);
+        if (!content.markSupported()) {
+            // the buffer is returned to the pool when the content is closed
+            content = new SdkBufferedInputStream(content, bufferSize(awsreq, contentLength),
+                    BufferPool.getDefault());
+        }
         final InputStream is = ProgressInputStream.inputStreamForRequest(content, awsreq);
         if (AmazonHttpClient.unreliableTestConfig == null)
             return is;
@@ -472,6 +480,20 @@ public class AmazonHttpClient {
                 .withResetIntervalBeforeException(unreliableTestConfig.getResetIntervalBeforeException());
     }
 
+    /**
+     * Returns the size of the buffer making request content of the specified
+     * length resettable: large enough for the whole content when it fits in
+     * the read limit of the request, so that the buffer does not need to grow
+     * as the content is marked and read.
+     */
+    private static int bufferSize(AmazonWebServiceRequest awsreq, long contentLength) {
+        long size = awsreq.getRequestClientOptions().getReadLimit();
+        if (contentLength >= 0) {
+            size = Math.min(size, contentLength + 1);
+        }
+        return (int) Math.max(1, Math.min(size, BufferPool.MAX_POOLED_SIZE));
+    }
+
     private void afterError(Request<?> request,
                             Response<?> response,
                             List<RequestHandler2> requestHandler2s,
@@ -612,13 +634,28 @@ public class AmazonHttpClient {
                             } catch (IOException e) {
                                 log.warn("Cannot close the response content.", e);
                             }
+                            releaseBuffers(entity);
                         }
                     }
                 }
+                // The request entity is created again for each attempt
+                if (p.apacheRequest instanceof HttpEntityEnclosingRequest) {
+                    releaseBuffers(((HttpEntityEnclosingRequest) p.apacheRequest).getEntity());
+                }
             }
         } /* end while (true) */
     }
 
+    /**
+     * Returns the pooled buffers of the specified entity, if any, once it has
+     * been written or read.
+     */
+    private static void releaseBuffers(HttpEntity entity) {
+        if (entity instanceof PooledBufferedHttpEntity) {
+            ((PooledBufferedHttpEntity) entity).release();
+        }
+    }
+
     /**
      * Used to perform a last reset on the content input stream (if mark-supported); this is so
      * that, for backward compatibility reason, any "blind" retry (ie without calling reset) by user
@@ -806,6 +843,7 @@ public class AmazonHttpClient {
         execParams.newApacheRequest(httpRequestFactory, request, config, execContext);
 
         captureConnectionPoolMetrics(httpClient.getConnectionManager(), awsRequestMetrics);
+        captureBufferPoolMetrics(BufferPool.getDefault(), awsRequestMetrics);
         HttpContext httpContext = new BasicHttpContext();
         httpContext.setAttribute(AWSRequestMetrics.class.getSimpleName(), awsRequestMetrics);
         execParams.resetBeforeHttpRequest();
@@ -822,7 +860,8 @@ public class AmazonHttpClient {
             execParams.apacheResponse = httpClient.execute(execParams.apacheRequest, httpContext);
             if ((execContext.getClientExecutionTrackerTask().isEnabled() || requestAbortTaskTracker.isEnabled())
                     && !responseHandler.needsConnectionLeftOpen()) {
-                execParams.apacheResponse.setEntity(new BufferedHttpEntity(execParams.apacheResponse.getEntity()));
+                execParams.apacheResponse.setEntity(new PooledBufferedHttpEntity(
+                        execParams.apacheResponse.getEntity(), BufferPool.getDefault()));
             }
             isHeaderReqIdAvail = logHeaderRequestId(execParams.apacheResponse);
         } catch (IOException ioe) {
@@ -958,6 +997,19 @@ public class AmazonHttpClient {
         }
     }
 
+    /**
+     * Captures the buffer pool metrics.
+     */
+    private void captureBufferPoolMetrics(BufferPool bufferPool,
+                                          AWSRequestMetrics awsRequestMetrics) {
+        if (awsRequestMetrics.isEnabled()) {
+            awsRequestMetrics.withCounter(BufferPoolHitCount, bufferPool.getHitCount())
+                    .withCounter(BufferPoolMissCount, bufferPool.getMissCount())
+                    .withCounter(BufferPoolOutstandingBytes, bufferPool.getOutstandingBytes())
+                    .withCounter(BufferPoolFreeBytes, bufferPool.getFreeBytes());
+        }
+    }
+
     /**
      * Capture the metrics for the given throwable.
      */
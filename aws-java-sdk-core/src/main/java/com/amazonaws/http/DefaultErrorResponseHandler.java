@@ -15,7 +15,13 @@
 package com.amazonaws.http;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.xpath.XPath;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -24,7 +30,10 @@ import org.w3c.dom.Node;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.AmazonServiceException;
+import com.amazonaws.transform.LegacyErrorUnmarshaller;
+import com.amazonaws.transform.StandardErrorUnmarshaller;
 import com.amazonaws.transform.Unmarshaller;
+import com.amazonaws.transform.XmlErrorResponse;
 import com.amazonaws.util.IOUtils;
 import com.amazonaws.util.XpathUtils;
 
@@ -36,6 +45,18 @@ import com.amazonaws.util.XpathUtils;
  * unmarshaller is found that can unmarshall the error response, a generic
  * AmazonServiceException is created and populated with the AWS error response
  * information (error message, AWS error code, AWS request ID, etc).
+ * <p>
+ * The error code, message, type and request ID of the response are first read
+ * in a single streaming pass. The {@link StandardErrorUnmarshaller}s and
+ * {@link LegacyErrorUnmarshaller}s declaring the error code they handle are
+ * then looked up in a table by that code, in place of trying each of them in
+ * turn, and those that do not override the DOM based unmarshalling are given
+ * the streamed fields: a DOM is only built when an unmarshaller needs it.
+ * <p>
+ * This handler is for XML error responses only. JSON error responses are
+ * handled by {@link JsonErrorResponseHandler}, which reads the members its
+ * unmarshallers need with a streaming parser as well, and by
+ * {@link JsonErrorResponseHandlerV2}.
  */
 public class DefaultErrorResponseHandler
         implements HttpResponseHandler<AmazonServiceException> {
@@ -47,6 +68,18 @@ public class DefaultErrorResponseHandler
      */
     private List<Unmarshaller<AmazonServiceException, Node>> unmarshallerList;
 
+    /**
+     * Whether unmarshallers of a given class can be given the streamed fields
+     * of a response instead of its DOM.
+     */
+    private static final ConcurrentMap<Class<?>, Boolean> streamableClasses =
+            new ConcurrentHashMap<Class<?>, Boolean>();
+
+    /**
+     * The table of unmarshallers, built on the first error response handled.
+     */
+    private UnmarshallerTable table;
+
     /**
      * Constructs a new DefaultErrorResponseHandler that will handle error
      * responses from Amazon services using the specified list of unmarshallers.
@@ -74,6 +107,34 @@ public class DefaultErrorResponseHandler
             return newAmazonServiceException(
                     "Unable to unmarshall error response", errorResponse, ex);
         }
+        // Try to read the error fields without a DOM, and find the
+        // unmarshaller of the response from them
+        XmlErrorResponse error = null;
+        try {
+            error = XmlErrorResponse.parse(content);
+        } catch (Exception e) {
+            // Left to the DOM parser below to report
+            if (log.isDebugEnabled())
+                log.debug("Failed in streaming the error response", e);
+        }
+        int index = -1;
+        if (error != null) {
+            if (table == null) {
+                table = new UnmarshallerTable(unmarshallerList);
+            }
+            index = table.indexOf(error);
+            if (index >= 0 && table.isStreamable(index)) {
+                Unmarshaller<AmazonServiceException, Node> unmarshaller = unmarshallerList.get(index);
+                AmazonServiceException ase = unmarshaller instanceof StandardErrorUnmarshaller
+                        ? ((StandardErrorUnmarshaller) unmarshaller).unmarshall(error)
+                        : ((LegacyErrorUnmarshaller) unmarshaller).unmarshall(error);
+                if (ase != null) {
+                    ase.setStatusCode(errorResponse.getStatusCode());
+                    return ase;
+                }
+            }
+        }
+
         // Try to parse the error response as XML
         Document document;
         try {
@@ -84,6 +145,14 @@ public class DefaultErrorResponseHandler
                     errorResponse, e);
         }
 
+        if (index >= 0) {
+            AmazonServiceException ase = unmarshallerList.get(index).unmarshall(document);
+            if (ase != null) {
+                ase.setStatusCode(errorResponse.getStatusCode());
+                return ase;
+            }
+        }
+
         /*
          * We need to select which exception unmarshaller is the correct one to
          * use from all the possible exceptions this operation can throw.
@@ -126,4 +195,108 @@ public class DefaultErrorResponseHandler
         return false;
     }
 
-}
\ No newline at end of file
+    /**
+     * Returns whether unmarshallers of the given class, which must be a
+     * StandardErrorUnmarshaller or a LegacyErrorUnmarshaller, unmarshall the
+     * streamed fields of a response just as they would its DOM: that is,
+     * whether they do not override the DOM based unmarshalling.
+     */
+    private static boolean isStreamableClass(Class<?> clazz) {
+        Boolean streamable = streamableClasses.get(clazz);
+        if (streamable == null) {
+            Class<?> base = StandardErrorUnmarshaller.class.isAssignableFrom(clazz)
+                    ? StandardErrorUnmarshaller.class : LegacyErrorUnmarshaller.class;
+            try {
+                streamable = clazz.getMethod("unmarshall", Node.class).getDeclaringClass() == base
+                        && clazz.getMethod("parseErrorCode", Node.class, XPath.class)
+                                .getDeclaringClass() == base;
+            } catch (NoSuchMethodException e) {
+                streamable = false;
+            }
+            streamableClasses.putIfAbsent(clazz, streamable);
+        }
+        return streamable;
+    }
+
+    /**
+     * The unmarshallers of the handler, indexed by the error code they
+     * handle. Finds the same unmarshaller as trying each in turn would, when
+     * that can be known from the streamed fields of a response.
+     */
+    private static final class UnmarshallerTable {
+
+        /** The first standard unmarshaller handling each error code */
+        private final Map<String, Integer> standardCodes = new HashMap<String, Integer>();
+
+        /** The first legacy unmarshaller handling each error code */
+        private final Map<String, Integer> legacyCodes = new HashMap<String, Integer>();
+
+        /** The first unmarshaller handling all error codes */
+        private int firstCatchAll;
+
+        /**
+         * The first unmarshaller of another kind, which can only be tried
+         * with the DOM of a response
+         */
+        private int firstUnknown;
+
+        private final boolean[] streamable;
+
+        UnmarshallerTable(List<Unmarshaller<AmazonServiceException, Node>> unmarshallers) {
+            int size = unmarshallers.size();
+            firstCatchAll = size;
+            firstUnknown = size;
+            streamable = new boolean[size];
+            for (int i = 0; i < size && i < firstUnknown; i++) {
+                Unmarshaller<AmazonServiceException, Node> unmarshaller = unmarshallers.get(i);
+                String code;
+                Map<String, Integer> codes;
+                if (unmarshaller instanceof StandardErrorUnmarshaller) {
+                    code = ((StandardErrorUnmarshaller) unmarshaller).getHandledErrorCode();
+                    codes = standardCodes;
+                } else if (unmarshaller instanceof LegacyErrorUnmarshaller) {
+                    code = ((LegacyErrorUnmarshaller) unmarshaller).getHandledErrorCode();
+                    codes = legacyCodes;
+                } else {
+                    firstUnknown = i;
+                    break;
+                }
+                streamable[i] = isStreamableClass(unmarshaller.getClass());
+                if (code != null) {
+                    if (!codes.containsKey(code)) {
+                        codes.put(code, i);
+                    }
+                } else if (streamable[i]) {
+                    firstCatchAll = Math.min(firstCatchAll, i);
+                } else {
+                    // May return null or not, depending on the response
+                    firstUnknown = i;
+                }
+            }
+        }
+
+        /**
+         * Returns the index of the unmarshaller of the given response, or -1
+         * if it can only be found by trying them in turn with its DOM.
+         */
+        int indexOf(XmlErrorResponse error) {
+            int index = firstCatchAll;
+            Integer codeIndex = null;
+            if (error.getErrorCode() != null) {
+                if (error.isStandard()) {
+                    codeIndex = standardCodes.get(error.getErrorCode());
+                } else if (error.isLegacy()) {
+                    codeIndex = legacyCodes.get(error.getErrorCode());
+                }
+            }
+            if (codeIndex != null && codeIndex < index) {
+                index = codeIndex;
+            }
+            return index < firstUnknown ? index : -1;
+        }
+
+        boolean isStreamable(int index) {
+            return streamable[index];
+        }
+    }
+}
@@ -27,13 +27,13 @@ import org.apache.http.client.methods.HttpPatch;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpRequestBase;
-import org.apache.http.entity.BufferedHttpEntity;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.params.CoreProtocolPNames;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.ClientConfiguration;
 import com.amazonaws.Request;
+import com.amazonaws.internal.BufferPool;
 import com.amazonaws.util.FakeIOException;
 import com.amazonaws.util.HttpUtils;
 
@@ -237,18 +237,20 @@ class HttpRequestFactory {
     }
 
     /**
-     * Utility function for creating a new BufferedEntity and wrapping any errors
-     * as an AmazonClientException.
+     * Utility function for creating a new buffered entity and wrapping any errors
+     * as an AmazonClientException. The buffers of the entity are acquired from
+     * the default buffer pool, and returned to it by AmazonHttpClient once the
+     * request has been executed.
      *
      * @param entity
      *            The HTTP entity to wrap with a buffered HTTP entity.
      *
-     * @return A new BufferedHttpEntity wrapping the specified entity.
+     * @return A new PooledBufferedHttpEntity wrapping the specified entity.
      * @throws FakeIOException only for test simulation
      */
     private HttpEntity newBufferedHttpEntity(HttpEntity entity) throws FakeIOException {
         try {
-            return new BufferedHttpEntity(entity);
+            return new PooledBufferedHttpEntity(entity, BufferPool.getDefault());
         } catch(FakeIOException e) {
             throw e;
         } catch (IOException e) {
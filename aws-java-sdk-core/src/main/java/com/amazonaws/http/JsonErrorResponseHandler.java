@@ -14,9 +14,8 @@
  */
 package com.amazonaws.http;
 
-import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.List;
 import java.util.Map.Entry;
 
@@ -24,8 +23,21 @@ import com.amazonaws.AmazonClientException;
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.AmazonServiceException.ErrorType;
 import com.amazonaws.transform.JsonErrorUnmarshaller;
+import com.amazonaws.util.IOUtils;
+import com.amazonaws.util.StringUtils;
+import com.amazonaws.util.json.JSONException;
 import com.amazonaws.util.json.JSONObject;
-
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Implementation of HttpResponseHandler that handles the error responses of
+ * the JSON services, the counterpart of {@link DefaultErrorResponseHandler}
+ * for XML. The members of the response body the
+ * {@link JsonErrorUnmarshaller}s read are parsed in a single streaming pass,
+ * and the first unmarshaller matching the error type handles the response.
+ */
 public class JsonErrorResponseHandler implements HttpResponseHandler<AmazonServiceException> {
 
     /**
@@ -34,6 +46,8 @@ public class JsonErrorResponseHandler implements HttpResponseHandler<AmazonServi
      */
     private static final String X_AMZN_ERROR_TYPE = "x-amzn-ErrorType";
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     /**
      * The list of error response unmarshallers to try to apply to error
      * responses.
@@ -45,14 +59,13 @@ public class JsonErrorResponseHandler implements HttpResponseHandler<AmazonServi
     }
 
     public AmazonServiceException handle(HttpResponse response) throws Exception {
-        String streamContents = readStreamContents(response.getContent());
+        byte[] streamContents = readStreamContents(response.getContent());
         JSONObject jsonErrorMessage;
         try {
-            String s = streamContents;
-            if (s.length() == 0 || s.trim().length() == 0) s = "{}";
-            jsonErrorMessage = new JSONObject(s);
+            jsonErrorMessage = parseErrorMessage(streamContents);
         } catch (Exception e) {
-            throw new AmazonClientException("Unable to parse error response: '" + streamContents + "'", e);
+            throw new AmazonClientException("Unable to parse error response: '"
+                    + new String(streamContents, StringUtils.UTF8) + "'", e);
         }
 
         String errorTypeFromHeader = parseErrorTypeFromHeader(response);
@@ -100,23 +113,58 @@ public class JsonErrorResponseHandler implements HttpResponseHandler<AmazonServi
         return false;
     }
 
-    private String readStreamContents(final InputStream stream) {
+    private byte[] readStreamContents(final InputStream stream) {
+        if (stream == null) {
+            return new byte[0];
+        }
         try {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(stream));
-            StringBuilder sb = new StringBuilder();
-            while (true) {
-                String line = reader.readLine();
-                if (line == null) break;
-                sb.append(line);
-            }
-
-            return sb.toString();
+            return IOUtils.toByteArray(stream);
         } catch (Exception e) {
             try {stream.close();} catch (Exception ex) {}
             throw new AmazonClientException("Unable to read error response: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Parses the error response content with a streaming parser, straight
+     * from its bytes. Only the members with a scalar value are kept, as text:
+     * the error code under "__type" (or "code" for Glacier), the message, and
+     * the modeled members of the exceptions, which are all the error
+     * unmarshallers read. Nested objects and arrays are skipped without being
+     * built. An empty content is parsed as an empty object.
+     */
+    private JSONObject parseErrorMessage(byte[] content)
+            throws IOException, JSONException {
+        JsonParser parser = JSON_FACTORY.createParser(content);
+        try {
+            JSONObject json = new JSONObject();
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return json;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object, found " + token);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                token = parser.nextToken();
+                if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                } else if (token == JsonToken.VALUE_NULL) {
+                    json.put(name, JSONObject.NULL);
+                } else {
+                    json.put(name, parser.getText());
+                }
+            }
+            if (parser.nextToken() != null) {
+                throw new IOException("Unexpected content after the JSON object");
+            }
+            return json;
+        } finally {
+            parser.close();
+        }
+    }
+
     /**
      * Attempt to parse the error type from the response headers.
      * Returns null if such information is not available in the header.
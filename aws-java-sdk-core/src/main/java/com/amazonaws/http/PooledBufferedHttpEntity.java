@@ -0,0 +1,214 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import com.amazonaws.internal.BufferPool;
+import com.amazonaws.internal.Releasable;
+
+/**
+ * Same as {@link org.apache.http.entity.BufferedHttpEntity}, except that the
+ * content is buffered in arrays acquired from a {@link BufferPool}, returned
+ * to the pool on {@link #release()}. The entity must not be used after it is
+ * released.
+ * <p>
+ * The content is buffered in chunks, each twice as large as the previous one
+ * up to the largest pooled size, so that large entities are not copied again
+ * as they grow.
+ */
+public class PooledBufferedHttpEntity extends HttpEntityWrapper implements Releasable {
+
+    private static final int FIRST_CHUNK_SIZE = 4 * 1024;
+
+    private final BufferPool pool;
+
+    /** The chunks of the content, or null if the wrapped entity is not buffered */
+    private List<byte[]> chunks;
+
+    /** The number of bytes of the content, in all the chunks */
+    private long length;
+
+    /**
+     * Buffers the content of the specified entity, unless it is repeatable
+     * and of known length.
+     *
+     * @param entity
+     *            The entity to buffer.
+     * @param pool
+     *            The pool the buffers are acquired from.
+     * @throws IOException
+     *             If reading the content of the entity fails.
+     */
+    PooledBufferedHttpEntity(HttpEntity entity, BufferPool pool) throws IOException {
+        super(entity);
+        this.pool = pool;
+        if (!entity.isRepeatable() || entity.getContentLength() < 0) {
+            InputStream content = entity.getContent();
+            if (content != null) {
+                chunks = new ArrayList<byte[]>();
+                try {
+                    read(content);
+                } catch (IOException e) {
+                    release();
+                    throw e;
+                } catch (RuntimeException e) {
+                    release();
+                    throw e;
+                } finally {
+                    content.close();
+                }
+            }
+        }
+    }
+
+    private void read(InputStream content) throws IOException {
+        int chunkSize = FIRST_CHUNK_SIZE;
+        while (true) {
+            byte[] chunk = pool.acquire(chunkSize);
+            chunks.add(chunk);
+            int offset = 0;
+            while (offset < chunk.length) {
+                int read = content.read(chunk, offset, chunk.length - offset);
+                if (read == -1) {
+                    length += offset;
+                    return;
+                }
+                offset += read;
+            }
+            length += offset;
+            chunkSize = Math.min(chunk.length * 2, BufferPool.MAX_POOLED_SIZE);
+        }
+    }
+
+    @Override
+    public long getContentLength() {
+        if (chunks != null) {
+            return length;
+        }
+        return super.getContentLength();
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        if (chunks != null) {
+            return new ChunksInputStream();
+        }
+        return super.getContent();
+    }
+
+    @Override
+    public boolean isChunked() {
+        return chunks == null && super.isChunked();
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return chunks == null && super.isStreaming();
+    }
+
+    @Override
+    public void writeTo(OutputStream outstream) throws IOException {
+        if (outstream == null) {
+            throw new IllegalArgumentException("Output stream may not be null");
+        }
+        if (chunks == null) {
+            super.writeTo(outstream);
+            return;
+        }
+        long remaining = length;
+        for (byte[] chunk : chunks) {
+            int count = (int) Math.min(chunk.length, remaining);
+            outstream.write(chunk, 0, count);
+            remaining -= count;
+        }
+    }
+
+    /**
+     * Returns the buffers of the content to the pool.
+     */
+    @Override
+    public synchronized void release() {
+        if (chunks == null) return;
+        for (byte[] chunk : chunks) {
+            pool.release(chunk);
+        }
+        chunks = null;
+        length = 0;
+    }
+
+    /**
+     * Reads the buffered chunks in order.
+     */
+    private class ChunksInputStream extends InputStream {
+        private int chunkIndex;
+        private int offset;
+        private long remaining = length;
+
+        @Override
+        public int read() throws IOException {
+            byte[] chunk = currentChunk();
+            if (chunk == null) return -1;
+            remaining--;
+            return chunk[offset++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            byte[] chunk = currentChunk();
+            if (chunk == null) return -1;
+            int count = (int) Math.min(Math.min(len, chunk.length - offset), remaining);
+            System.arraycopy(chunk, offset, b, off, count);
+            offset += count;
+            remaining -= count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(remaining, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Returns the chunk holding the next byte, or null at the end of the
+         * content.
+         */
+        private byte[] currentChunk() throws IOException {
+            if (remaining <= 0) return null;
+            if (chunks == null) {
+                throw new IOException("The entity was released");
+            }
+            byte[] chunk = chunks.get(chunkIndex);
+            if (offset == chunk.length) {
+                chunk = chunks.get(++chunkIndex);
+                offset = 0;
+            }
+            return chunk;
+        }
+    }
+}
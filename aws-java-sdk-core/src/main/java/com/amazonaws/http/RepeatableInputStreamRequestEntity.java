@@ -24,6 +24,7 @@ import org.apache.http.entity.BasicHttpEntity;
 import org.apache.http.entity.InputStreamEntity;
 
 import com.amazonaws.Request;
+import com.amazonaws.internal.BufferPool;
 import com.amazonaws.metrics.MetricInputStreamEntity;
 import com.amazonaws.metrics.ServiceMetricType;
 import com.amazonaws.metrics.ThroughputMetricType;
@@ -47,6 +48,9 @@ class RepeatableInputStreamRequestEntity extends BasicHttpEntity {
     /** The InputStream containing the content to write out */
     private InputStream content;
 
+    /** The size of the buffer the content is copied to the connection with */
+    private static final int COPY_BUFFER_SIZE = 4 * 1024;
+
     private static final Log log = LogFactory
             .getLog(RepeatableInputStreamRequestEntity.class);
 
@@ -150,11 +154,50 @@ class RepeatableInputStreamRequestEntity extends BasicHttpEntity {
             if (!firstAttempt && isRepeatable()) content.reset();
 
             firstAttempt = false;
-            inputStreamRequestEntity.writeTo(output);
+            if (inputStreamRequestEntity instanceof MetricInputStreamEntity) {
+                inputStreamRequestEntity.writeTo(output);
+            } else {
+                copyContent(output);
+            }
         } catch (IOException ioe) {
             if (originalException == null) originalException = ioe;
             throw originalException;
         }
     }
 
+    /**
+     * Same as {@link InputStreamEntity#writeTo(OutputStream)}, except that the
+     * copy buffer is acquired from the default buffer pool instead of being
+     * allocated for every attempt.
+     */
+    private void copyContent(OutputStream output) throws IOException {
+        InputStream instream = inputStreamRequestEntity.getContent();
+        long length = inputStreamRequestEntity.getContentLength();
+        BufferPool pool = BufferPool.getDefault();
+        byte[] buffer = pool.acquire(COPY_BUFFER_SIZE);
+        try {
+            int l;
+            if (length < 0) {
+                // consume until EOF
+                while ((l = instream.read(buffer)) != -1) {
+                    output.write(buffer, 0, l);
+                }
+            } else {
+                // consume no more than length
+                long remaining = length;
+                while (remaining > 0) {
+                    l = instream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (l == -1) {
+                        break;
+                    }
+                    output.write(buffer, 0, l);
+                    remaining -= l;
+                }
+            }
+        } finally {
+            pool.release(buffer);
+            instream.close();
+        }
+    }
+
 }
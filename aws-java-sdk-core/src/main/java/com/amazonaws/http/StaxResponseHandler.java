@@ -18,9 +18,9 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.Map;
 
-import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -47,8 +47,16 @@ public class StaxResponseHandler<T> implements HttpResponseHandler<AmazonWebServ
     /** Shared logger for profiling information */
     private static final Log log = LogFactory.getLog("com.amazonaws.request");
 
-    /** Shared factory for creating XML event readers */
-    private static final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+    /**
+     * Factories for creating XML stream readers, one per thread since
+     * factories are not guaranteed to be thread-safe
+     */
+    private static final ThreadLocal<XMLInputFactory> xmlInputFactory = new ThreadLocal<XMLInputFactory>() {
+        @Override
+        protected XMLInputFactory initialValue() {
+            return XMLInputFactory.newInstance();
+        }
+    };
 
 
     /**
@@ -84,14 +92,11 @@ public class StaxResponseHandler<T> implements HttpResponseHandler<AmazonWebServ
         InputStream content = response.getContent();
         if (content == null) content = new ByteArrayInputStream("<eof/>".getBytes());
 
-        XMLEventReader eventReader;
-        synchronized (xmlInputFactory) {
-            eventReader = xmlInputFactory.createXMLEventReader(content);
-        }
+        XMLStreamReader streamReader = xmlInputFactory.get().createXMLStreamReader(content);
 
         try {
             AmazonWebServiceResponse<T> awsResponse = new AmazonWebServiceResponse<T>();
-            StaxUnmarshallerContext unmarshallerContext = new StaxUnmarshallerContext(eventReader, response.getHeaders());
+            StaxUnmarshallerContext unmarshallerContext = new StaxUnmarshallerContext(streamReader, response.getHeaders());
             unmarshallerContext.registerMetadataExpression("ResponseMetadata/RequestId", 2, ResponseMetadata.AWS_REQUEST_ID);
             unmarshallerContext.registerMetadataExpression("requestId", 2, ResponseMetadata.AWS_REQUEST_ID);
             registerAdditionalMetadataExpressions(unmarshallerContext);
@@ -113,7 +118,7 @@ public class StaxResponseHandler<T> implements HttpResponseHandler<AmazonWebServ
             return awsResponse;
         } finally {
             try {
-                eventReader.close();
+                streamReader.close();
             } catch (XMLStreamException e) {
                 log.warn("Error closing xml parser", e);
             }
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.internal;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.amazonaws.SDKGlobalConfiguration;
+import com.amazonaws.util.ByteBufferAllocator;
+
+/**
+ * A pool of the byte arrays and buffers used to copy and buffer request and
+ * response bodies, so that they are reused across requests instead of being
+ * allocated for each one.
+ * <p>
+ * Buffers are pooled in size classes, the powers of two from
+ * {@value #MIN_POOLED_SIZE} bytes to {@value #MAX_POOLED_SIZE} bytes; a
+ * request for a buffer is served with one of the smallest class large enough,
+ * and larger buffers are allocated and released without pooling. Each class
+ * keeps free buffers up to a bounded number of bytes, released buffers beyond
+ * that being left to the garbage collector.
+ * <p>
+ * Buffers must be released at most once, and not used after release. With
+ * leak detection, enabled with the
+ * {@link SDKGlobalConfiguration#BUFFER_POOL_LEAK_DETECTION_SYSTEM_PROPERTY}
+ * system property or in tests, the pool remembers where each buffer not yet
+ * released was acquired, and rejects releases of buffers it did not hand out.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class BufferPool implements ByteBufferAllocator {
+
+    /** The size of the smallest pooled buffers */
+    public static final int MIN_POOLED_SIZE = 512;
+
+    /** The size of the largest pooled buffers */
+    public static final int MAX_POOLED_SIZE = 1024 * 1024;
+
+    /** The default number of bytes of free buffers kept per size class */
+    public static final int DEFAULT_MAX_FREE_BYTES_PER_CLASS = 4 * 1024 * 1024;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_POOLED_SIZE);
+    private static final int CLASS_COUNT = Integer.numberOfTrailingZeros(MAX_POOLED_SIZE) - MIN_SHIFT + 1;
+
+    private static final BufferPool DEFAULT = new BufferPool(false, DEFAULT_MAX_FREE_BYTES_PER_CLASS,
+            System.getProperty(SDKGlobalConfiguration.BUFFER_POOL_LEAK_DETECTION_SYSTEM_PROPERTY) != null);
+
+    private final boolean direct;
+    private final SizeClass[] arrayClasses = new SizeClass[CLASS_COUNT];
+    private final SizeClass[] bufferClasses = new SizeClass[CLASS_COUNT];
+
+    /** The allocation sites of the buffers not released yet, or null without leak detection */
+    private final Map<Object, Throwable> outstanding;
+
+    private final AtomicLong acquireCount = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong outstandingCount = new AtomicLong();
+    private final AtomicLong outstandingBytes = new AtomicLong();
+
+    /**
+     * Creates a new pool.
+     *
+     * @param direct
+     *            Whether the buffers returned by
+     *            {@link #acquireBuffer(int)} are direct buffers; arrays are
+     *            always on the heap.
+     * @param maxFreeBytesPerClass
+     *            The maximum number of bytes of free buffers kept in each
+     *            size class.
+     * @param leakDetection
+     *            Whether to track the buffers not released yet.
+     */
+    public BufferPool(boolean direct, int maxFreeBytesPerClass, boolean leakDetection) {
+        if (maxFreeBytesPerClass < 0) {
+            throw new IllegalArgumentException("The maximum number of free bytes must not be negative");
+        }
+        this.direct = direct;
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            int size = MIN_POOLED_SIZE << i;
+            arrayClasses[i] = new SizeClass(size, maxFreeBytesPerClass / size);
+            bufferClasses[i] = new SizeClass(size, maxFreeBytesPerClass / size);
+        }
+        this.outstanding = leakDetection ? new IdentityHashMap<Object, Throwable>() : null;
+    }
+
+    /**
+     * Returns the pool shared by the clients of the SDK, pooling heap
+     * buffers.
+     */
+    public static BufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns a byte array at least the specified number of bytes long, and
+     * possibly longer. The contents of the array are undefined.
+     */
+    public byte[] acquire(int size) {
+        SizeClass sizeClass = sizeClass(arrayClasses, size);
+        byte[] array = sizeClass == null ? null : (byte[]) sizeClass.poll();
+        if (array != null) {
+            hitCount.incrementAndGet();
+        } else {
+            array = new byte[sizeClass == null ? size : sizeClass.size];
+        }
+        acquired(array, array.length);
+        return array;
+    }
+
+    /**
+     * Returns an array acquired from this pool to it.
+     */
+    public void release(byte[] array) {
+        if (array == null) return;
+        released(array, array.length);
+        SizeClass sizeClass = sizeClass(arrayClasses, array.length);
+        if (sizeClass != null && sizeClass.size == array.length) {
+            sizeClass.offer(array);
+        }
+    }
+
+    /**
+     * Returns a buffer with at least the specified number of bytes remaining,
+     * with its position at zero and its limit at the specified size. The
+     * contents of the buffer are undefined.
+     */
+    public ByteBuffer acquireBuffer(int size) {
+        SizeClass sizeClass = sizeClass(bufferClasses, size);
+        ByteBuffer buffer = sizeClass == null ? null : (ByteBuffer) sizeClass.poll();
+        if (buffer != null) {
+            hitCount.incrementAndGet();
+        } else {
+            int capacity = sizeClass == null ? size : sizeClass.size;
+            buffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+        }
+        buffer.clear();
+        buffer.limit(size);
+        acquired(buffer, buffer.capacity());
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer acquired from this pool to it.
+     */
+    public void releaseBuffer(ByteBuffer buffer) {
+        if (buffer == null) return;
+        released(buffer, buffer.capacity());
+        SizeClass sizeClass = sizeClass(bufferClasses, buffer.capacity());
+        if (sizeClass != null && sizeClass.size == buffer.capacity()) {
+            sizeClass.offer(buffer);
+        }
+    }
+
+    /**
+     * Same as {@link #acquireBuffer(int)}, so that binary values can be
+     * unmarshalled into pooled buffers.
+     */
+    @Override
+    public ByteBuffer allocate(int size) {
+        return acquireBuffer(size);
+    }
+
+    /** Returns the number of buffers and arrays acquired from this pool */
+    public long getAcquireCount() {
+        return acquireCount.get();
+    }
+
+    /** Returns the number of acquisitions served with a free pooled buffer */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of acquisitions for which a new buffer had to be
+     * allocated
+     */
+    public long getMissCount() {
+        return getAcquireCount() - getHitCount();
+    }
+
+    /** Returns the number of buffers and arrays acquired and not released yet */
+    public long getOutstandingCount() {
+        return outstandingCount.get();
+    }
+
+    /** Returns the total capacity of the buffers and arrays not released yet */
+    public long getOutstandingBytes() {
+        return outstandingBytes.get();
+    }
+
+    /** Returns the total capacity of the free buffers and arrays kept */
+    public long getFreeBytes() {
+        long freeBytes = 0;
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            freeBytes += (long) arrayClasses[i].size * arrayClasses[i].freeCount.get();
+            freeBytes += (long) bufferClasses[i].size * bufferClasses[i].freeCount.get();
+        }
+        return freeBytes;
+    }
+
+    /**
+     * Returns where the buffers not released yet were acquired, as
+     * exceptions whose stack traces are the allocation sites.
+     *
+     * @throws IllegalStateException
+     *             If leak detection is not enabled.
+     */
+    public List<Throwable> getLeaks() {
+        if (outstanding == null) {
+            throw new IllegalStateException("Leak detection is not enabled");
+        }
+        synchronized (outstanding) {
+            return new ArrayList<Throwable>(outstanding.values());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BufferPool [acquired=" + getAcquireCount() + ", hits=" + getHitCount()
+                + ", outstanding=" + getOutstandingCount() + " (" + getOutstandingBytes()
+                + " bytes), free=" + getFreeBytes() + " bytes]";
+    }
+
+    private void acquired(Object buffer, int capacity) {
+        acquireCount.incrementAndGet();
+        outstandingCount.incrementAndGet();
+        outstandingBytes.addAndGet(capacity);
+        if (outstanding != null) {
+            synchronized (outstanding) {
+                outstanding.put(buffer, new Throwable("Buffer of " + capacity + " bytes acquired here"));
+            }
+        }
+    }
+
+    private void released(Object buffer, int capacity) {
+        if (outstanding != null) {
+            synchronized (outstanding) {
+                if (outstanding.remove(buffer) == null) {
+                    throw new IllegalStateException("Released a buffer not acquired from this pool, or twice");
+                }
+            }
+        }
+        outstandingCount.decrementAndGet();
+        outstandingBytes.addAndGet(-capacity);
+    }
+
+    /**
+     * Returns the smallest size class of buffers of at least the specified
+     * size, or null if they are too large to be pooled.
+     */
+    private static SizeClass sizeClass(SizeClass[] classes, int size) {
+        if (size > MAX_POOLED_SIZE) return null;
+        if (size <= MIN_POOLED_SIZE) return classes[0];
+        int shift = 32 - Integer.numberOfLeadingZeros(size - 1);
+        return classes[shift - MIN_SHIFT];
+    }
+
+    /**
+     * The free buffers of one size.
+     */
+    private static final class SizeClass {
+        final int size;
+        final int maxFreeCount;
+        final Queue<Object> free = new ConcurrentLinkedQueue<Object>();
+        final AtomicInteger freeCount = new AtomicInteger();
+
+        SizeClass(int size, int maxFreeCount) {
+            this.size = size;
+            this.maxFreeCount = maxFreeCount;
+        }
+
+        Object poll() {
+            Object buffer = free.poll();
+            if (buffer != null) {
+                freeCount.decrementAndGet();
+            }
+            return buffer;
+        }
+
+        void offer(Object buffer) {
+            if (freeCount.incrementAndGet() > maxFreeCount) {
+                freeCount.decrementAndGet();
+                return;
+            }
+            free.offer(buffer);
+        }
+    }
+}
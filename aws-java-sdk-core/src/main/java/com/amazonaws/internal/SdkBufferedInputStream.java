@@ -28,12 +28,33 @@ import com.amazonaws.AbortedException;
  */
 public class SdkBufferedInputStream extends BufferedInputStream implements
         MetricAware {
+
+    /** The pool the buffer was acquired from, or null */
+    private final BufferPool pool;
+
+    /** The buffer acquired from the pool, until it is returned to it */
+    private byte[] pooledBuffer;
+
     public SdkBufferedInputStream(InputStream in) {
         super(in);
+        this.pool = null;
     }
 
     public SdkBufferedInputStream(InputStream in, int size) {
         super(in, size);
+        this.pool = null;
+    }
+
+    /**
+     * Creates a buffered input stream whose initial buffer, of at least the
+     * specified size, is acquired from the specified pool and returned to it
+     * when the stream is closed.
+     */
+    public SdkBufferedInputStream(InputStream in, int size, BufferPool pool) {
+        super(in, 1);
+        this.pool = pool;
+        this.pooledBuffer = pool.acquire(size);
+        this.buf = pooledBuffer;
     }
 
     @Override
@@ -90,10 +111,25 @@ public class SdkBufferedInputStream extends BufferedInputStream implements
 
     @Override
     public void close() throws IOException {
-        super.close();
+        try {
+            super.close();
+        } finally {
+            releasePooledBuffer();
+        }
         abortIfNeeded();
     }
 
+    /**
+     * Returns the buffer to the pool once the stream is closed; the buffer
+     * may have been replaced by a larger one since, as the stream was marked.
+     */
+    private synchronized void releasePooledBuffer() {
+        if (pooledBuffer != null) {
+            pool.release(pooledBuffer);
+            pooledBuffer = null;
+        }
+    }
+
     @Override
     public void mark(int readlimit) {
         abortIfNeeded();
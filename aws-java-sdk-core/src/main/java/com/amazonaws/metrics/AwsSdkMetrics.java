@@ -865,6 +865,10 @@ public enum AwsSdkMetrics {
             metricTypes.add(Field.HttpClientPoolAvailableCount);
             metricTypes.add(Field.HttpClientPoolLeasedCount);
             metricTypes.add(Field.HttpClientPoolPendingCount);
+            metricTypes.add(Field.BufferPoolHitCount);
+            metricTypes.add(Field.BufferPoolMissCount);
+            metricTypes.add(Field.BufferPoolOutstandingBytes);
+            metricTypes.add(Field.BufferPoolFreeBytes);
             metricTypes.add(AWSServiceMetrics.HttpClientGetConnectionTime);
             syncReadOnly();
         }
@@ -53,6 +53,16 @@
  * This metric is collected from the respective <a 
  * href="https://hc.apache.org/httpcomponents-core-ga/httpcore/apidocs/org/apache/http/pool/PoolStats.html"
  * >PoolStats</a>. before the connection of a request is obtained</li>
+ * <li>BufferPoolHitCount - Number of request and response body buffers served
+ * from the free buffers of the SDK's buffer pool since it was created.
+ * Sampled, like the metrics below, before the connection of a request is
+ * obtained.</li>
+ * <li>BufferPoolMissCount - Number of request and response body buffers the
+ * SDK's buffer pool had to allocate since it was created.</li>
+ * <li>BufferPoolOutstandingBytes - Number of bytes of the buffer pool's buffers
+ * currently in use.</li>
+ * <li>BufferPoolFreeBytes - Number of bytes of free buffers kept by the buffer
+ * pool.</li>
  * <li>HttpRequestTime - Number of milliseconds taken for a logical request/response 
  * round trip to AWS. Captured on a per request type level.</li>
  * <li>HttpClientSendRequestTime - Number of milliseconds taken for a physical request
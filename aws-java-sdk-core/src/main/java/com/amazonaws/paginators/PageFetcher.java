@@ -0,0 +1,49 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.paginators;
+
+import java.util.List;
+
+/**
+ * Fetches the pages of a paginated operation for a {@link Paginator}.
+ *
+ * @param <P>
+ *            The type of the pages, usually the result of the operation.
+ * @param <T>
+ *            The type of the items of each page.
+ *
+ * @see TokenPageFetcher
+ */
+public interface PageFetcher<P, T> {
+
+    /**
+     * Fetches the page following the specified one.
+     *
+     * @param previousPage
+     *            The previous page, or null to fetch the first page.
+     * @return The page fetched, never null.
+     */
+    P fetchPage(P previousPage);
+
+    /**
+     * Returns whether there is a page after the specified one.
+     */
+    boolean hasNextPage(P page);
+
+    /**
+     * Returns the items of the specified page, or null if it has none.
+     */
+    List<T> getItems(P page);
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.paginators;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.amazonaws.AmazonClientException;
+
+/**
+ * Iterates lazily over the pages of a paginated operation, or over the items
+ * of all its pages, fetching each page only when the iteration reaches it.
+ * <p>
+ * With {@link #withPrefetch(ExecutorService, int)}, the next pages are
+ * fetched in the background while the current one is processed, up to a
+ * bounded number of pages ahead, so that fetching and processing overlap.
+ * <p>
+ * Each call to {@link #iterator()} starts a new iteration from the first
+ * page. Iterators are not thread-safe, and pages are never removed.
+ *
+ * @param <P>
+ *            The type of the pages, usually the result of the operation.
+ * @param <T>
+ *            The type of the items of each page.
+ */
+public final class Paginator<P, T> implements Iterable<P> {
+
+    private final PageFetcher<P, T> fetcher;
+    private final ExecutorService executor;
+    private final int lookahead;
+
+    /**
+     * Creates a paginator fetching each page when the iteration reaches it.
+     *
+     * @param fetcher
+     *            The fetcher of the pages.
+     */
+    public Paginator(PageFetcher<P, T> fetcher) {
+        this(fetcher, null, 0);
+    }
+
+    private Paginator(PageFetcher<P, T> fetcher, ExecutorService executor, int lookahead) {
+        if (fetcher == null) {
+            throw new IllegalArgumentException("The page fetcher must not be null");
+        }
+        this.fetcher = fetcher;
+        this.executor = executor;
+        this.lookahead = lookahead;
+    }
+
+    /**
+     * Returns a paginator fetching up to the specified number of pages ahead
+     * of the iteration with the specified executor. Since each page needs
+     * the token of the previous one, pages are still fetched one after the
+     * other; at most one task of each iterator fetches at a time.
+     * <p>
+     * Abandoning an iteration leaves at most {@code lookahead} pages fetched
+     * in vain.
+     *
+     * @param executor
+     *            The executor fetching the pages. It must start its tasks in
+     *            the order they are submitted, like the executors of
+     *            {@link java.util.concurrent.Executors}, since each fetch
+     *            waits for the previous one.
+     * @param lookahead
+     *            The maximum number of pages fetched ahead of the page last
+     *            returned, at least 1.
+     */
+    public Paginator<P, T> withPrefetch(ExecutorService executor, int lookahead) {
+        if (executor == null) {
+            throw new IllegalArgumentException("The executor must not be null");
+        }
+        if (lookahead < 1) {
+            throw new IllegalArgumentException("The lookahead must be at least 1");
+        }
+        return new Paginator<P, T>(fetcher, executor, lookahead);
+    }
+
+    /**
+     * Returns an iterator over the pages, starting from the first one.
+     */
+    @Override
+    public Iterator<P> iterator() {
+        if (executor == null) {
+            return new PageIterator();
+        }
+        return new PrefetchingPageIterator();
+    }
+
+    /**
+     * Returns the items of all the pages, in order, as a single flat
+     * iterable. Pages are fetched as the iteration reaches them, like with
+     * {@link #iterator()}.
+     */
+    public Iterable<T> items() {
+        return new Iterable<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new ItemIterator(Paginator.this.iterator());
+            }
+        };
+    }
+
+    /**
+     * Fetches each page in the calling thread when the iteration reaches it.
+     */
+    private class PageIterator implements Iterator<P> {
+        private P page;
+        private boolean started;
+
+        @Override
+        public boolean hasNext() {
+            return !started || fetcher.hasNextPage(page);
+        }
+
+        @Override
+        public P next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            page = fetcher.fetchPage(page);
+            started = true;
+            return page;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Keeps up to lookahead fetches of the next pages submitted. Each fetch
+     * waits for the previous one, whose page it needs, and yields null once
+     * the last page has been fetched.
+     */
+    private class PrefetchingPageIterator implements Iterator<P> {
+        private final Deque<Future<P>> fetches = new ArrayDeque<Future<P>>();
+        private Future<P> lastFetch;
+        private boolean exhausted;
+        private P nextPage;
+
+        @Override
+        public boolean hasNext() {
+            if (nextPage != null) return true;
+            if (exhausted) return false;
+
+            fill();
+            nextPage = await(fetches.poll());
+            if (nextPage == null) {
+                exhausted = true;
+                fetches.clear();
+                return false;
+            }
+            fill();
+            return true;
+        }
+
+        @Override
+        public P next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            P page = nextPage;
+            nextPage = null;
+            return page;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void fill() {
+            while (fetches.size() < lookahead) {
+                final Future<P> previousFetch = lastFetch;
+                lastFetch = executor.submit(new Callable<P>() {
+                    @Override
+                    public P call() throws Exception {
+                        if (previousFetch == null) {
+                            return fetcher.fetchPage(null);
+                        }
+                        P previousPage = previousFetch.get();
+                        if (previousPage == null || !fetcher.hasNextPage(previousPage)) {
+                            return null;
+                        }
+                        return fetcher.fetchPage(previousPage);
+                    }
+                });
+                fetches.add(lastFetch);
+            }
+        }
+
+        private P await(Future<P> fetch) {
+            try {
+                return fetch.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AmazonClientException("Interrupted while waiting for a page", e);
+            } catch (ExecutionException e) {
+                exhausted = true;
+                fetches.clear();
+                throw unwrap(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the exception that failed a fetch, unwrapping the execution
+     * exceptions of the fetches that waited on the failed one.
+     */
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        while (cause instanceof ExecutionException) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new AmazonClientException("Unable to fetch a page", cause);
+    }
+
+    /**
+     * Flattens the items of the pages returned by a page iterator.
+     */
+    private class ItemIterator implements Iterator<T> {
+        private final Iterator<P> pages;
+        private Iterator<T> items = Collections.<T>emptyList().iterator();
+
+        ItemIterator(Iterator<P> pages) {
+            this.pages = pages;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!items.hasNext()) {
+                if (!pages.hasNext()) return false;
+                List<T> pageItems = fetcher.getItems(pages.next());
+                if (pageItems != null) {
+                    items = pageItems.iterator();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return items.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.paginators;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonWebServiceRequest;
+
+/**
+ * A {@link PageFetcher} for the operations paginated with a token, such as
+ * the {@code NextToken} of most services or the {@code Marker} of some. The
+ * pages are fetched with clones of the first request, with the token of the
+ * previous page set on them, so the first request is never modified.
+ * <p>
+ * The token and item properties are accessed through the getters and
+ * setters the request and result classes of every operation have, resolved
+ * once, when the fetcher is created. Subclasses only execute the requests,
+ * for example:
+ *
+ * <pre>
+ * new TokenPageFetcher&lt;DescribeLogStreamsRequest, DescribeLogStreamsResult, LogStream&gt;(
+ *         request, DescribeLogStreamsResult.class, "NextToken", "NextToken", "LogStreams") {
+ *     protected DescribeLogStreamsResult fetch(DescribeLogStreamsRequest pageRequest) {
+ *         return logs.describeLogStreams(pageRequest);
+ *     }
+ * };
+ * </pre>
+ *
+ * @param <R>
+ *            The type of the requests of the operation.
+ * @param <P>
+ *            The type of the results of the operation.
+ * @param <T>
+ *            The type of the items of each result.
+ */
+public abstract class TokenPageFetcher<R extends AmazonWebServiceRequest, P, T> implements PageFetcher<P, T> {
+
+    private final R firstRequest;
+    private final Method inputTokenSetter;
+    private final Method outputTokenGetter;
+    private final Method itemsGetter;
+
+    /**
+     * @param firstRequest
+     *            The request for the first page.
+     * @param resultClass
+     *            The class of the results of the operation.
+     * @param inputToken
+     *            The name of the token property of the request, e.g.
+     *            "NextToken" or "Marker".
+     * @param outputToken
+     *            The name of the token property of the result, e.g.
+     *            "NextToken" or "NextMarker".
+     * @param items
+     *            The name of the property of the result holding the list of
+     *            items, e.g. "LogStreams".
+     * @throws IllegalArgumentException
+     *             If the request or result classes don't have these
+     *             properties.
+     */
+    protected TokenPageFetcher(R firstRequest, Class<P> resultClass,
+            String inputToken, String outputToken, String items) {
+        if (firstRequest == null) {
+            throw new IllegalArgumentException("The first request must not be null");
+        }
+        this.firstRequest = firstRequest;
+        this.inputTokenSetter = findMethod(firstRequest.getClass(), "set" + inputToken, String.class);
+        this.outputTokenGetter = findMethod(resultClass, "get" + outputToken);
+        this.itemsGetter = findMethod(resultClass, "get" + items);
+    }
+
+    /**
+     * Executes the request for a page.
+     *
+     * @param pageRequest
+     *            A clone of the first request, with the token of the page
+     *            set.
+     * @return The result of the request.
+     */
+    protected abstract P fetch(R pageRequest);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public P fetchPage(P previousPage) {
+        R pageRequest = (R) firstRequest.clone();
+        if (previousPage != null) {
+            invoke(inputTokenSetter, pageRequest, getNextToken(previousPage));
+        }
+        return fetch(pageRequest);
+    }
+
+    @Override
+    public boolean hasNextPage(P page) {
+        String nextToken = getNextToken(page);
+        return nextToken != null && nextToken.length() > 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<T> getItems(P page) {
+        return (List<T>) invoke(itemsGetter, page);
+    }
+
+    private String getNextToken(P page) {
+        return (String) invoke(outputTokenGetter, page);
+    }
+
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(type.getName() + " has no method " + name, e);
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (IllegalAccessException e) {
+            throw new AmazonClientException("Unable to call " + method, e);
+        } catch (InvocationTargetException e) {
+            throw new AmazonClientException("Unable to call " + method, e.getCause());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.shards;
+
+/**
+ * Durable storage of the position a {@link ShardReader} has reached in each
+ * shard of a stream, so that processing resumes where it left off after a
+ * restart.
+ *
+ * @see FileCheckpointStore
+ */
+public interface CheckpointStore {
+
+    /**
+     * The checkpoint recorded for a shard which has been processed completely.
+     */
+    public static final String SHARD_END = "SHARD_END";
+
+    /**
+     * Returns the checkpoint recorded for the given shard: either the sequence
+     * number of the last processed record, or {@link #SHARD_END}; or null if
+     * no checkpoint has been recorded yet.
+     *
+     * @param streamId
+     *            the name or ARN identifying the stream to the service
+     */
+    String getCheckpoint(String streamId, String shardId);
+
+    /**
+     * Records the checkpoint for the given shard, replacing any previous one.
+     *
+     * @param streamId
+     *            the name or ARN identifying the stream to the service
+     * @param checkpoint
+     *            the sequence number of the last processed record of the
+     *            shard, or {@link #SHARD_END}
+     */
+    void setCheckpoint(String streamId, String shardId, String checkpoint);
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.shards;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import com.amazonaws.AmazonClientException;
+
+/**
+ * A {@link CheckpointStore} backed by a local properties file, suitable for a
+ * single process reading a stream. Every checkpoint rewrites the file through
+ * a temporary file in the same directory, so a crash never leaves a partially
+ * written file behind.
+ */
+@ThreadSafe
+public class FileCheckpointStore implements CheckpointStore {
+
+    private final File file;
+    private final Properties checkpoints = new Properties();
+
+    /**
+     * Creates a checkpoint store backed by the given file, loading the
+     * checkpoints it already contains, if it exists.
+     */
+    public FileCheckpointStore(File file) {
+        if (file == null) {
+            throw new IllegalArgumentException("file must not be null");
+        }
+        this.file = file;
+
+        if (file.exists()) {
+            InputStream in = null;
+            try {
+                in = new FileInputStream(file);
+                checkpoints.load(in);
+            } catch (IOException e) {
+                throw new AmazonClientException(
+                        "Unable to load checkpoints from " + file, e);
+            } finally {
+                closeQuietly(in);
+            }
+        }
+    }
+
+    @Override
+    public synchronized String getCheckpoint(String streamId, String shardId) {
+        return checkpoints.getProperty(key(streamId, shardId));
+    }
+
+    @Override
+    public synchronized void setCheckpoint(String streamId, String shardId,
+            String checkpoint) {
+        checkpoints.setProperty(key(streamId, shardId), checkpoint);
+
+        File temp = new File(file.getAbsoluteFile().getParentFile(),
+                file.getName() + ".tmp");
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(temp);
+            checkpoints.store(out, "Shard reader checkpoints");
+            out.close();
+            out = null;
+
+            // File.renameTo does not replace an existing file everywhere.
+            if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file))) {
+                throw new IOException("Unable to rename " + temp + " to " + file);
+            }
+        } catch (IOException e) {
+            throw new AmazonClientException(
+                    "Unable to store checkpoints to " + file, e);
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    private static String key(String streamId, String shardId) {
+        return streamId + "|" + shardId;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
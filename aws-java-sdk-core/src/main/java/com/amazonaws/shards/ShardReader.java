@@ -0,0 +1,629 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.shards;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.annotation.ThreadSafe;
+
+import com.amazonaws.AmazonClientException;
+
+/**
+ * Reads all shards of a stream and hands their records to a
+ * {@link ShardRecordProcessor}. Subclasses make the calls to the service
+ * holding the stream.
+ * <p>
+ * The reader periodically describes the stream to discover its shard lineage
+ * and starts reading a shard only once its parent shards (the shard it was
+ * split from, or both shards it was merged from) have been read completely or
+ * are no longer part of the stream, so that the records of a key are
+ * processed in order. Shards are processed in parallel on a bounded pool of
+ * threads, one batch at a time, and while a batch is being processed the next
+ * GetRecords call for the same shard is already in flight.
+ * <p>
+ * After each successfully processed batch the sequence number of its last
+ * record is stored in a {@link CheckpointStore}; a restarted reader resumes
+ * every shard right after its checkpoint. Records are therefore delivered at
+ * least once: a batch whose processing fails, or whose checkpoint is lost in
+ * a crash, is delivered again.
+ *
+ * @param <R>
+ *            The type of the records.
+ */
+@ThreadSafe
+public abstract class ShardReader<R> {
+
+    private static final Log log = LogFactory.getLog(ShardReader.class);
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private final String streamId;
+    private final CheckpointStore checkpointStore;
+    private final ShardRecordProcessor<R> processor;
+    private final ShardReaderConfig config;
+
+    private final ScheduledThreadPoolExecutor processingExecutor;
+    private final ExecutorService fetchExecutor;
+
+    /** Guards shards, consumers, completedShards and started. */
+    private final Object lock = new Object();
+    private final Map<String, ShardLineage> shards = new HashMap<String, ShardLineage>();
+    private final Map<String, ShardConsumer> consumers = new HashMap<String, ShardConsumer>();
+    private final Set<String> completedShards = new HashSet<String>();
+    private boolean started;
+
+    private volatile boolean shutdown;
+
+    private final Runnable syncTask = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                syncShards();
+            } catch (RuntimeException e) {
+                // Must not escape, or the periodic sync would be cancelled
+                log.warn("Unable to describe stream " + streamId, e);
+            }
+        }
+    };
+
+    /**
+     * Creates a reader for the given stream. Reading starts with
+     * {@link #start()}.
+     *
+     * @param streamId
+     *            the name or ARN identifying the stream to the service, under
+     *            which its checkpoints are stored
+     * @param checkpointStore
+     *            where the positions reached in the shards are stored
+     * @param processor
+     *            the callback receiving the records
+     * @param config
+     *            the configuration of the reader
+     * @param threadNamePrefix
+     *            the prefix of the names of the reader's threads
+     */
+    protected ShardReader(String streamId, CheckpointStore checkpointStore,
+            ShardRecordProcessor<R> processor, ShardReaderConfig config,
+            String threadNamePrefix) {
+        if (streamId == null || checkpointStore == null || processor == null
+                || config == null) {
+            throw new IllegalArgumentException(
+                    "streamId, checkpointStore, processor and config must not be null");
+        }
+        this.streamId = streamId;
+        this.checkpointStore = checkpointStore;
+        this.processor = processor;
+        this.config = config;
+
+        ThreadFactory threadFactory = new DaemonThreadFactory(threadNamePrefix);
+        this.processingExecutor = new ScheduledThreadPoolExecutor(
+                config.getMaxConcurrentShards(), threadFactory);
+        this.processingExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.fetchExecutor = Executors.newFixedThreadPool(
+                config.getMaxConcurrentShards(), threadFactory);
+    }
+
+    /**
+     * Returns the lineage of every shard of the stream, going through all
+     * pages of the description.
+     */
+    protected abstract List<ShardLineage> describeShards();
+
+    /**
+     * Returns an iterator for a shard which has no checkpoint.
+     *
+     * @param trimHorizon
+     *            whether reading must start at the trim horizon, because the
+     *            parents of the shard have been read or because the records
+     *            after its checkpoint have been trimmed; otherwise it starts
+     *            at the configured initial position
+     */
+    protected abstract String getShardIterator(String shardId, boolean trimHorizon);
+
+    /**
+     * Returns an iterator starting right after the given sequence number.
+     */
+    protected abstract String getShardIterator(String shardId, String afterSequenceNumber);
+
+    /**
+     * Calls GetRecords with the given iterator.
+     */
+    protected abstract RecordBatch<R> getRecords(String shardIterator, int limit);
+
+    /**
+     * Returns the sequence number of the given record.
+     */
+    protected abstract String getSequenceNumber(R record);
+
+    /**
+     * Tells how the reader recovers from the given exception thrown by one of
+     * the calls above while reading a shard.
+     */
+    protected abstract ReadFailure getReadFailure(RuntimeException e);
+
+    /**
+     * Starts reading the stream in the background.
+     *
+     * @throws IllegalStateException
+     *             if the reader has been started already
+     */
+    public void start() {
+        synchronized (lock) {
+            if (started) {
+                throw new IllegalStateException("The reader has been started already");
+            }
+            started = true;
+        }
+        processingExecutor.scheduleWithFixedDelay(syncTask, 0,
+                config.getShardSyncIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops reading the stream. Batches being processed are completed and
+     * checkpointed, but no further batches are delivered.
+     */
+    public void shutdown() {
+        shutdown = true;
+        processingExecutor.shutdown();
+        fetchExecutor.shutdown();
+    }
+
+    /**
+     * Waits until the reader has completely stopped after a call to
+     * {@link #shutdown()}.
+     *
+     * @return true if the reader stopped, false if the timeout elapsed first
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        return processingExecutor.awaitTermination(timeout, unit)
+                && fetchExecutor.awaitTermination(deadline - System.nanoTime(),
+                        TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the ids of the shards currently being read.
+     */
+    public Set<String> getActiveShardIds() {
+        synchronized (lock) {
+            return new HashSet<String>(consumers.keySet());
+        }
+    }
+
+    /**
+     * Describes the stream and starts reading every shard which is eligible.
+     */
+    private void syncShards() {
+        if (shutdown) {
+            return;
+        }
+
+        List<ShardLineage> described = describeShards();
+        Set<String> describedIds = new HashSet<String>();
+        synchronized (lock) {
+            for (ShardLineage shard : described) {
+                describedIds.add(shard.getShardId());
+                shards.put(shard.getShardId(), shard);
+            }
+
+            // Forget about completed shards which have been trimmed away
+            Iterator<String> it = shards.keySet().iterator();
+            while (it.hasNext()) {
+                String shardId = it.next();
+                if (!describedIds.contains(shardId) && completedShards.contains(shardId)) {
+                    it.remove();
+                }
+            }
+            completedShards.retainAll(shards.keySet());
+        }
+        startEligibleShards();
+    }
+
+    /**
+     * Starts reading all known shards which are neither being read nor
+     * completed, and whose parents (if any) have been read completely.
+     */
+    private void startEligibleShards() {
+        List<ShardConsumer> newConsumers = new ArrayList<ShardConsumer>();
+        synchronized (lock) {
+            for (ShardLineage shard : shards.values()) {
+                String shardId = shard.getShardId();
+                if (consumers.containsKey(shardId) || completedShards.contains(shardId)) {
+                    continue;
+                }
+
+                String parentId = shard.getParentShardId();
+                String adjacentParentId = shard.getAdjacentParentShardId();
+                if (isPending(parentId) || isPending(adjacentParentId)) {
+                    continue;
+                }
+
+                // Children of a shard we have read must be read from their
+                // very beginning, whatever the configured initial position.
+                boolean parentCompleted = completedShards.contains(parentId)
+                        || completedShards.contains(adjacentParentId);
+                ShardConsumer consumer = new ShardConsumer(shardId, parentCompleted);
+                consumers.put(shardId, consumer);
+                newConsumers.add(consumer);
+            }
+        }
+        for (ShardConsumer consumer : newConsumers) {
+            consumer.schedule(0);
+        }
+    }
+
+    /**
+     * Returns whether the given parent shard still has to be read before its
+     * children. Must be called under the lock.
+     */
+    private boolean isPending(String parentId) {
+        return parentId != null && shards.containsKey(parentId)
+                && !completedShards.contains(parentId);
+    }
+
+    private void shardCompleted(String shardId) {
+        synchronized (lock) {
+            consumers.remove(shardId);
+            completedShards.add(shardId);
+        }
+        // Look for the children right away instead of at the next sync
+        try {
+            processingExecutor.execute(syncTask);
+        } catch (RejectedExecutionException e) {
+            // Shut down in the meantime
+        }
+    }
+
+    /**
+     * Reads a single shard. Each consumer is scheduled on the processing pool
+     * again after every batch, so at most one task per shard runs at any
+     * time and the fields below are only ever accessed by that task.
+     */
+    private final class ShardConsumer implements Runnable {
+
+        private final String shardId;
+        private boolean trimHorizon;
+
+        private boolean initialized;
+        private String iterator;
+        private String lastSequenceNumber;
+        private Future<RecordBatch<R>> pendingFetch;
+        private RecordBatch<R> failedBatch;
+
+        ShardConsumer(String shardId, boolean trimHorizon) {
+            this.shardId = shardId;
+            this.trimHorizon = trimHorizon;
+        }
+
+        void schedule(long delayMillis) {
+            if (shutdown) {
+                return;
+            }
+            try {
+                processingExecutor.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shut down in the meantime
+            }
+        }
+
+        @Override
+        public void run() {
+            if (shutdown) {
+                return;
+            }
+
+            long delay;
+            try {
+                delay = processNextBatch();
+            } catch (RuntimeException e) {
+                switch (getReadFailure(e)) {
+                case EXPIRED_ITERATOR:
+                    iterator = null;
+                    delay = 0;
+                    break;
+                case TRIMMED:
+                    log.warn("Records of shard " + shardId + " after " + lastSequenceNumber
+                            + " have been trimmed, continuing at the trim horizon", e);
+                    lastSequenceNumber = null;
+                    trimHorizon = true;
+                    iterator = null;
+                    delay = 0;
+                    break;
+                case THROTTLED:
+                    // Other readers of the shard share its read throughput
+                    if (log.isDebugEnabled()) {
+                        log.debug("Reads of shard " + shardId + " are throttled", e);
+                    }
+                    delay = config.getIdleTimeBetweenReadsMillis();
+                    break;
+                default:
+                    log.warn("Unable to read shard " + shardId + " of stream " + streamId, e);
+                    delay = config.getIdleTimeBetweenReadsMillis();
+                    break;
+                }
+            }
+
+            if (delay >= 0) {
+                schedule(delay);
+            }
+        }
+
+        /**
+         * Fetches and processes the next batch of records.
+         *
+         * @return the delay (in milliseconds) before the next batch should
+         *         be processed, or -1 if the shard has been read completely
+         */
+        private long processNextBatch() {
+            if (!initialized) {
+                String checkpoint = checkpointStore.getCheckpoint(streamId, shardId);
+                if (CheckpointStore.SHARD_END.equals(checkpoint)) {
+                    shardCompleted(shardId);
+                    return -1;
+                }
+                lastSequenceNumber = checkpoint;
+                initialized = true;
+            }
+            if (iterator == null && failedBatch == null && pendingFetch == null) {
+                iterator = lastSequenceNumber == null
+                        ? getShardIterator(shardId, trimHorizon)
+                        : getShardIteratorAfter(lastSequenceNumber);
+            }
+
+            RecordBatch<R> result = failedBatch;
+            failedBatch = null;
+            if (result == null) {
+                result = nextResult();
+            }
+
+            List<R> records = result.getRecords();
+            String nextIterator = result.getNextShardIterator();
+            iterator = nextIterator;
+
+            // An empty batch does not mean the end of the data has been
+            // reached while the shard is behind its tip.
+            boolean behind = !records.isEmpty()
+                    || (result.getMillisBehindLatest() != null && result.getMillisBehindLatest() > 0);
+
+            // Pipeline the next call with the processing of this batch
+            if (nextIterator != null && behind && pendingFetch == null) {
+                pendingFetch = fetchExecutor.submit(new Fetch(nextIterator));
+            }
+
+            if (!records.isEmpty()) {
+                try {
+                    processor.processRecords(shardId, records);
+                } catch (Exception e) {
+                    log.warn("Failed to process records of shard " + shardId
+                            + ", the batch will be retried", e);
+                    failedBatch = result;
+                    return config.getIdleTimeBetweenReadsMillis();
+                }
+                lastSequenceNumber = getSequenceNumber(records.get(records.size() - 1));
+                checkpoint(lastSequenceNumber);
+            }
+
+            if (nextIterator == null) {
+                try {
+                    processor.shardEnded(shardId);
+                } catch (RuntimeException e) {
+                    log.warn("Record processor failed at the end of shard " + shardId, e);
+                }
+                checkpoint(CheckpointStore.SHARD_END);
+                shardCompleted(shardId);
+                return -1;
+            }
+
+            return behind ? 0 : config.getIdleTimeBetweenReadsMillis();
+        }
+
+        /**
+         * Returns the result of the pipelined GetRecords call if there is
+         * one, or calls GetRecords with the current iterator otherwise.
+         */
+        private RecordBatch<R> nextResult() {
+            Future<RecordBatch<R>> fetch = pendingFetch;
+            if (fetch == null) {
+                return new Fetch(iterator).call();
+            }
+
+            pendingFetch = null;
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        return fetch.get();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof RuntimeException) {
+                            throw (RuntimeException) cause;
+                        }
+                        throw new AmazonClientException(
+                                "Unable to get records of shard " + shardId, cause);
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void checkpoint(String checkpoint) {
+            try {
+                checkpointStore.setCheckpoint(streamId, shardId, checkpoint);
+            } catch (RuntimeException e) {
+                // Processing goes on; records are delivered again on restart
+                log.warn("Unable to checkpoint shard " + shardId + " at " + checkpoint, e);
+            }
+        }
+
+        private String getShardIteratorAfter(String sequenceNumber) {
+            try {
+                return getShardIterator(shardId, sequenceNumber);
+            } catch (RuntimeException e) {
+                if (getReadFailure(e) != ReadFailure.TRIMMED) {
+                    throw e;
+                }
+                log.warn("Records of shard " + shardId + " after " + sequenceNumber
+                        + " have been trimmed, continuing at the trim horizon", e);
+                return getShardIterator(shardId, true);
+            }
+        }
+    }
+
+    private final class Fetch implements Callable<RecordBatch<R>> {
+
+        private final String iterator;
+
+        Fetch(String iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public RecordBatch<R> call() {
+            return getRecords(iterator, config.getMaxRecordsPerCall());
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+
+        DaemonThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable,
+                    namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * How a reader recovers from an exception while reading a shard.
+     */
+    protected enum ReadFailure {
+
+        /** The iterator expired; a new one is requested right away. */
+        EXPIRED_ITERATOR,
+
+        /**
+         * The records after the checkpoint have been trimmed; reading goes
+         * on at the trim horizon.
+         */
+        TRIMMED,
+
+        /** Reads of the shard are throttled; they are retried after the idle time. */
+        THROTTLED,
+
+        /** Any other failure, logged and retried after the idle time. */
+        OTHER
+    }
+
+    /**
+     * The ids of a shard and of its parents, as described by the service.
+     */
+    protected static final class ShardLineage {
+
+        private final String shardId;
+        private final String parentShardId;
+        private final String adjacentParentShardId;
+
+        /**
+         * @param adjacentParentShardId
+         *            the second parent of a shard created by merging two
+         *            shards, or null
+         */
+        public ShardLineage(String shardId, String parentShardId,
+                String adjacentParentShardId) {
+            this.shardId = shardId;
+            this.parentShardId = parentShardId;
+            this.adjacentParentShardId = adjacentParentShardId;
+        }
+
+        public String getShardId() {
+            return shardId;
+        }
+
+        public String getParentShardId() {
+            return parentShardId;
+        }
+
+        public String getAdjacentParentShardId() {
+            return adjacentParentShardId;
+        }
+    }
+
+    /**
+     * The part of a GetRecords result the reader works with.
+     */
+    protected static final class RecordBatch<R> {
+
+        private final List<R> records;
+        private final String nextShardIterator;
+        private final Long millisBehindLatest;
+
+        /**
+         * @param nextShardIterator
+         *            the iterator of the next batch, or null once the shard
+         *            has been closed and read completely
+         * @param millisBehindLatest
+         *            how far the batch is behind the tip of the shard, or null
+         *            if the service does not tell
+         */
+        public RecordBatch(List<R> records, String nextShardIterator,
+                Long millisBehindLatest) {
+            this.records = records;
+            this.nextShardIterator = nextShardIterator;
+            this.millisBehindLatest = millisBehindLatest;
+        }
+
+        public List<R> getRecords() {
+            return records;
+        }
+
+        public String getNextShardIterator() {
+            return nextShardIterator;
+        }
+
+        public Long getMillisBehindLatest() {
+            return millisBehindLatest;
+        }
+    }
+}
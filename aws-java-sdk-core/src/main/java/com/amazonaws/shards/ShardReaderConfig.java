@@ -0,0 +1,189 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.shards;
+
+/**
+ * Configuration of a {@link ShardReader} common to all services. Each
+ * service's reader has a subclass adding where reading a new shard starts.
+ */
+public abstract class ShardReaderConfig {
+
+    /** The default number of threads processing records. */
+    public static final int DEFAULT_MAX_CONCURRENT_SHARDS = 4;
+
+    /**
+     * The default time (in milliseconds) to wait before polling a shard again
+     * after it returned no records.
+     */
+    public static final long DEFAULT_IDLE_TIME_BETWEEN_READS_MILLIS = 1000;
+
+    /**
+     * The default time (in milliseconds) between two DescribeStream calls
+     * discovering new shards.
+     */
+    public static final long DEFAULT_SHARD_SYNC_INTERVAL_MILLIS = 10 * 1000;
+
+    private final int maxRecordsPerCallLimit;
+
+    private int maxConcurrentShards = DEFAULT_MAX_CONCURRENT_SHARDS;
+
+    private int maxRecordsPerCall;
+
+    private long idleTimeBetweenReadsMillis = DEFAULT_IDLE_TIME_BETWEEN_READS_MILLIS;
+
+    private long shardSyncIntervalMillis = DEFAULT_SHARD_SYNC_INTERVAL_MILLIS;
+
+    /**
+     * @param maxRecordsPerCallLimit
+     *            the largest number of records the service returns per
+     *            GetRecords call, which is also the default
+     */
+    protected ShardReaderConfig(int maxRecordsPerCallLimit) {
+        this.maxRecordsPerCallLimit = maxRecordsPerCallLimit;
+        this.maxRecordsPerCall = maxRecordsPerCallLimit;
+    }
+
+    /**
+     * Returns the number of threads processing records. Each shard is
+     * processed by at most one thread at a time; shards take turns on the
+     * pool batch by batch, so there may be more open shards than threads.
+     */
+    public int getMaxConcurrentShards() {
+        return maxConcurrentShards;
+    }
+
+    /**
+     * Sets the number of threads processing records.
+     *
+     * @param maxConcurrentShards
+     *            the number of threads, must be at least 1
+     */
+    public void setMaxConcurrentShards(int maxConcurrentShards) {
+        if (maxConcurrentShards < 1) {
+            throw new IllegalArgumentException("maxConcurrentShards "
+                    + maxConcurrentShards + " must be at least 1");
+        }
+        this.maxConcurrentShards = maxConcurrentShards;
+    }
+
+    /**
+     * Sets the number of threads processing records, and returns the updated
+     * object so that additional method calls can be chained together.
+     */
+    public ShardReaderConfig withMaxConcurrentShards(int maxConcurrentShards) {
+        setMaxConcurrentShards(maxConcurrentShards);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of records requested per GetRecords call.
+     */
+    public int getMaxRecordsPerCall() {
+        return maxRecordsPerCall;
+    }
+
+    /**
+     * Sets the maximum number of records requested per GetRecords call.
+     *
+     * @param maxRecordsPerCall
+     *            the maximum number of records, between 1 and the largest
+     *            number the service returns
+     */
+    public void setMaxRecordsPerCall(int maxRecordsPerCall) {
+        if (maxRecordsPerCall < 1 || maxRecordsPerCall > maxRecordsPerCallLimit) {
+            throw new IllegalArgumentException("maxRecordsPerCall "
+                    + maxRecordsPerCall + " must be between 1 and "
+                    + maxRecordsPerCallLimit);
+        }
+        this.maxRecordsPerCall = maxRecordsPerCall;
+    }
+
+    /**
+     * Sets the maximum number of records requested per GetRecords call, and
+     * returns the updated object so that additional method calls can be
+     * chained together.
+     */
+    public ShardReaderConfig withMaxRecordsPerCall(int maxRecordsPerCall) {
+        setMaxRecordsPerCall(maxRecordsPerCall);
+        return this;
+    }
+
+    /**
+     * Returns the time (in milliseconds) to wait before polling a shard again
+     * after it returned no records, or after a failure.
+     */
+    public long getIdleTimeBetweenReadsMillis() {
+        return idleTimeBetweenReadsMillis;
+    }
+
+    /**
+     * Sets the time (in milliseconds) to wait before polling a shard again
+     * after it returned no records, or after a failure.
+     *
+     * @param idleTimeBetweenReadsMillis
+     *            the idle time, must not be negative
+     */
+    public void setIdleTimeBetweenReadsMillis(long idleTimeBetweenReadsMillis) {
+        if (idleTimeBetweenReadsMillis < 0) {
+            throw new IllegalArgumentException("idleTimeBetweenReadsMillis "
+                    + idleTimeBetweenReadsMillis + " must not be negative");
+        }
+        this.idleTimeBetweenReadsMillis = idleTimeBetweenReadsMillis;
+    }
+
+    /**
+     * Sets the time (in milliseconds) to wait before polling a shard again
+     * after it returned no records, and returns the updated object so that
+     * additional method calls can be chained together.
+     */
+    public ShardReaderConfig withIdleTimeBetweenReadsMillis(long idleTimeBetweenReadsMillis) {
+        setIdleTimeBetweenReadsMillis(idleTimeBetweenReadsMillis);
+        return this;
+    }
+
+    /**
+     * Returns the time (in milliseconds) between two DescribeStream calls
+     * discovering new shards. Children of a shard which ended are also looked
+     * for right away.
+     */
+    public long getShardSyncIntervalMillis() {
+        return shardSyncIntervalMillis;
+    }
+
+    /**
+     * Sets the time (in milliseconds) between two DescribeStream calls
+     * discovering new shards.
+     *
+     * @param shardSyncIntervalMillis
+     *            the interval, must be positive
+     */
+    public void setShardSyncIntervalMillis(long shardSyncIntervalMillis) {
+        if (shardSyncIntervalMillis <= 0) {
+            throw new IllegalArgumentException("shardSyncIntervalMillis "
+                    + shardSyncIntervalMillis + " must be positive");
+        }
+        this.shardSyncIntervalMillis = shardSyncIntervalMillis;
+    }
+
+    /**
+     * Sets the time (in milliseconds) between two DescribeStream calls
+     * discovering new shards, and returns the updated object so that
+     * additional method calls can be chained together.
+     */
+    public ShardReaderConfig withShardSyncIntervalMillis(long shardSyncIntervalMillis) {
+        setShardSyncIntervalMillis(shardSyncIntervalMillis);
+        return this;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.shards;
+
+import java.util.List;
+
+/**
+ * Application callback invoked by a {@link ShardReader} for the records read
+ * from the shards of a stream.
+ * <p>
+ * Records of a single shard are delivered in order, one batch at a time, and
+ * all records of a parent shard (or of both parents of a merged shard) are
+ * delivered before any record of its children. Batches of different shards
+ * may be delivered concurrently from different threads, so implementations
+ * must be thread safe.
+ *
+ * @param <R>
+ *            The type of the records.
+ */
+public interface ShardRecordProcessor<R> {
+
+    /**
+     * Processes a batch of records read from the given shard. The reader
+     * checkpoints the last record of the batch only after this method returns
+     * normally; if it throws, the same batch is delivered again later.
+     *
+     * @param shardId
+     *            the id of the shard the records were read from
+     * @param records
+     *            the records, never empty
+     */
+    void processRecords(String shardId, List<R> records) throws Exception;
+
+    /**
+     * Called once after all records of the given shard have been processed
+     * and the shard has been closed by the service, right before processing
+     * of its children may start.
+     *
+     * @param shardId
+     *            the id of the shard that ended
+     */
+    void shardEnded(String shardId);
+}
@@ -38,6 +38,12 @@ public class LegacyErrorUnmarshaller implements Unmarshaller<AmazonServiceExcept
      */
     private final Class<? extends AmazonServiceException> exceptionClass;
 
+    /**
+     * The AWS error code handled by this unmarshaller, or null if it handles
+     * all error codes.
+     */
+    private final String handledErrorCode;
+
     /**
      * Constructs a new unmarshaller that will unmarshall AWS error responses as
      * a generic AmazonServiceException object.
@@ -56,17 +62,68 @@ public class LegacyErrorUnmarshaller implements Unmarshaller<AmazonServiceExcept
      *            when unmarshalling the AWS error response.
      */
     protected LegacyErrorUnmarshaller(Class<? extends AmazonServiceException> exceptionClass) {
+        this(exceptionClass, null);
+    }
+
+    /**
+     * Constructor allowing subclasses to specify a specific type of
+     * AmazonServiceException to instantiate, and the only AWS error code for
+     * which it is instantiated; error responses with any other code are not
+     * unmarshalled, and null is returned for them.
+     *
+     * @param exceptionClass
+     *            The class of AmazonServiceException to create and populate
+     *            when unmarshalling the AWS error response.
+     * @param handledErrorCode
+     *            The AWS error code handled by this unmarshaller, or null to
+     *            handle all error codes.
+     *
+     * @see StandardErrorUnmarshaller#StandardErrorUnmarshaller(Class, String)
+     */
+    protected LegacyErrorUnmarshaller(Class<? extends AmazonServiceException> exceptionClass,
+            String handledErrorCode) {
         this.exceptionClass = exceptionClass;
+        this.handledErrorCode = handledErrorCode;
     }
 
     @Override
     public AmazonServiceException unmarshall(Node in) throws Exception {
         XPath xpath = xpath();
         String errorCode = parseErrorCode(in, xpath);
+        if (!matchErrorCode(errorCode)) {
+            return null;
+        }
         String message = asString("Response/Errors/Error/Message", in, xpath);
         String requestId = asString("Response/RequestID", in, xpath);
         String errorType = asString("Response/Errors/Error/Type", in, xpath);
 
+        return newException(errorCode, errorType, requestId, message);
+    }
+
+    /**
+     * Unmarshalls the fields of an error response that were read without
+     * building a DOM. Gives the same result as {@link #unmarshall(Node)} with
+     * the DOM of the same response, for this class; subclasses overriding
+     * {@link #unmarshall(Node)} are given the DOM instead.
+     *
+     * @param error
+     *            The streamed fields of the error response.
+     * @return The unmarshalled exception, or null if this unmarshaller does
+     *         not handle the error code of the response.
+     */
+    public AmazonServiceException unmarshall(XmlErrorResponse error) throws Exception {
+        if (!error.isLegacy()) {
+            return matchErrorCode(null) ? newException(null, null, null, null) : null;
+        }
+        if (!matchErrorCode(error.getErrorCode())) {
+            return null;
+        }
+        return newException(error.getErrorCode(), error.getErrorType(),
+                error.getRequestId(), error.getMessage());
+    }
+
+    private AmazonServiceException newException(String errorCode, String errorType,
+            String requestId, String message) throws Exception {
         Constructor<? extends AmazonServiceException> constructor = exceptionClass.getConstructor(String.class);
         AmazonServiceException ase = constructor.newInstance(message);
         ase.setErrorCode(errorCode);
@@ -83,6 +140,18 @@ public class LegacyErrorUnmarshaller implements Unmarshaller<AmazonServiceExcept
         return ase;
     }
 
+    /**
+     * Returns the AWS error code handled by this unmarshaller, or null if it
+     * handles all error codes.
+     */
+    public String getHandledErrorCode() {
+        return handledErrorCode;
+    }
+
+    private boolean matchErrorCode(String errorCode) {
+        return handledErrorCode == null || handledErrorCode.equals(errorCode);
+    }
+
     /**
      * Returns the AWS error code for the specified error response.
      *
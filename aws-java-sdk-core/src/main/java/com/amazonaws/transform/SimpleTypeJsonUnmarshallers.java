@@ -18,8 +18,12 @@ import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.util.Date;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.util.Base64;
+import com.amazonaws.util.ByteBufferAllocator;
 import com.amazonaws.util.DateUtils;
 
 public class SimpleTypeJsonUnmarshallers {
@@ -178,14 +182,49 @@ public class SimpleTypeJsonUnmarshallers {
     }
 
     /**
-     * Unmarshaller for ByteBuffer values.
+     * Unmarshaller for ByteBuffer values. The base 64 text is decoded straight
+     * from the characters of the JSON parser into a single buffer of the
+     * decoded size, without going through intermediate strings or arrays.
      */
     public static class ByteBufferJsonUnmarshaller implements Unmarshaller<ByteBuffer, JsonUnmarshallerContext> {
+
+        private final ByteBufferAllocator allocator;
+
+        public ByteBufferJsonUnmarshaller() {
+            this(null);
+        }
+
+        /**
+         * Creates an unmarshaller decoding into buffers obtained from the
+         * given allocator, or into new heap buffers if it is null.
+         */
+        public ByteBufferJsonUnmarshaller(ByteBufferAllocator allocator) {
+            this.allocator = allocator;
+        }
+
         public ByteBuffer unmarshall(JsonUnmarshallerContext unmarshallerContext) throws Exception {
+            JsonParser parser = unmarshallerContext.getJsonParser();
+            if (parser != null && !unmarshallerContext.isInsideResponseHeader()
+                    && unmarshallerContext.getCurrentToken() == JsonToken.VALUE_STRING) {
+                return decode(parser.getTextCharacters(), parser.getTextOffset(),
+                        parser.getTextLength());
+            }
+
             String base64EncodedString = unmarshallerContext.readText();
-            byte[] decodedBytes = Base64.decode(base64EncodedString);
-            return ByteBuffer.wrap(decodedBytes);
+            if (base64EncodedString == null) {
+                return null;
+            }
+            return decode(base64EncodedString.toCharArray(), 0, base64EncodedString.length());
+        }
 
+        private ByteBuffer decode(char[] chars, int offset, int length) {
+            int size = Base64.decodedLength(chars, offset, length);
+            ByteBuffer buffer = allocator == null ? ByteBuffer.allocate(size) : allocator.allocate(size);
+            int start = buffer.position();
+            Base64.decode(chars, offset, length, buffer);
+            buffer.limit(buffer.position());
+            buffer.position(start);
+            return buffer;
         }
 
         private static final ByteBufferJsonUnmarshaller instance = new ByteBufferJsonUnmarshaller();
@@ -33,11 +33,19 @@ import com.amazonaws.AmazonServiceException.ErrorType;
  */
 public class StandardErrorUnmarshaller extends AbstractErrorUnmarshaller<Node> {
 
+    /**
+     * The AWS error code handled by this unmarshaller, or null if it handles
+     * all error codes.
+     */
+    private final String handledErrorCode;
+
     /**
      * Constructs a new unmarshaller that will unmarshall a standard AWS error
      * message as a generic AmazonServiceException object.
      */
-    public StandardErrorUnmarshaller() {}
+    public StandardErrorUnmarshaller() {
+        this.handledErrorCode = null;
+    }
 
     /**
      * Constructor allowing subclasses to specify a specific type of
@@ -49,7 +57,32 @@ public class StandardErrorUnmarshaller extends AbstractErrorUnmarshaller<Node> {
      *            when unmarshalling the error message.
      */
     protected StandardErrorUnmarshaller(Class<? extends AmazonServiceException> exceptionClass) {
+        this(exceptionClass, null);
+    }
+
+    /**
+     * Constructor allowing subclasses to specify a specific type of
+     * AmazonServiceException to instantiate, and the only AWS error code for
+     * which it is instantiated; error responses with any other code are not
+     * unmarshalled, and null is returned for them.
+     * <p>
+     * Knowing the handled code up front lets {@link
+     * com.amazonaws.http.DefaultErrorResponseHandler} pick the unmarshaller
+     * of an error response from a table, and, unless
+     * {@link #unmarshall(Node)} is overridden, unmarshall it from its
+     * streamed {@link XmlErrorResponse} without building a DOM.
+     *
+     * @param exceptionClass
+     *            The class of AmazonServiceException to create and populate
+     *            when unmarshalling the error message.
+     * @param handledErrorCode
+     *            The AWS error code handled by this unmarshaller, or null to
+     *            handle all error codes.
+     */
+    protected StandardErrorUnmarshaller(Class<? extends AmazonServiceException> exceptionClass,
+            String handledErrorCode) {
         super(exceptionClass);
+        this.handledErrorCode = handledErrorCode;
     }
 
     /**
@@ -58,10 +91,40 @@ public class StandardErrorUnmarshaller extends AbstractErrorUnmarshaller<Node> {
     public AmazonServiceException unmarshall(Node in) throws Exception {
         XPath xpath = xpath();
         String errorCode = parseErrorCode(in, xpath);
+        if (!matchErrorCode(errorCode)) {
+            return null;
+        }
         String errorType = asString("ErrorResponse/Error/Type", in, xpath);
         String requestId = asString("ErrorResponse/RequestId", in, xpath);
         String message = asString("ErrorResponse/Error/Message", in, xpath);
 
+        return newException(errorCode, errorType, requestId, message);
+    }
+
+    /**
+     * Unmarshalls the fields of an error response that were read without
+     * building a DOM. Gives the same result as {@link #unmarshall(Node)} with
+     * the DOM of the same response, for this class; subclasses overriding
+     * {@link #unmarshall(Node)} are given the DOM instead.
+     *
+     * @param error
+     *            The streamed fields of the error response.
+     * @return The unmarshalled exception, or null if this unmarshaller does
+     *         not handle the error code of the response.
+     */
+    public AmazonServiceException unmarshall(XmlErrorResponse error) throws Exception {
+        if (!error.isStandard()) {
+            return matchErrorCode(null) ? newException(null, null, null, null) : null;
+        }
+        if (!matchErrorCode(error.getErrorCode())) {
+            return null;
+        }
+        return newException(error.getErrorCode(), error.getErrorType(),
+                error.getRequestId(), error.getMessage());
+    }
+
+    private AmazonServiceException newException(String errorCode, String errorType,
+            String requestId, String message) throws Exception {
         AmazonServiceException ase = newException(message);
         ase.setErrorCode(errorCode);
         ase.setRequestId(requestId);
@@ -77,6 +140,18 @@ public class StandardErrorUnmarshaller extends AbstractErrorUnmarshaller<Node> {
         return ase;
     }
 
+    /**
+     * Returns the AWS error code handled by this unmarshaller, or null if it
+     * handles all error codes.
+     */
+    public String getHandledErrorCode() {
+        return handledErrorCode;
+    }
+
+    private boolean matchErrorCode(String errorCode) {
+        return handledErrorCode == null || handledErrorCode.equals(errorCode);
+    }
+
     /**
      * Returns the AWS error code for the specified error response.
      *
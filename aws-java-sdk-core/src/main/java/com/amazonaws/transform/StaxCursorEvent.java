@@ -0,0 +1,183 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.transform;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Characters;
+import javax.xml.stream.events.EndElement;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+/**
+ * The lightweight events a {@link StaxUnmarshallerContext} reading from an
+ * {@code XMLStreamReader} returns: the type of the event and, for elements and
+ * attributes, their local name. Namespaces and locations are not retained.
+ */
+class StaxCursorEvent implements XMLEvent {
+
+    static final StaxCursorEvent START_DOCUMENT =
+            new StaxCursorEvent(XMLStreamConstants.START_DOCUMENT, null);
+
+    static final StaxCursorEvent END_DOCUMENT =
+            new StaxCursorEvent(XMLStreamConstants.END_DOCUMENT, null);
+
+    /** Only used for the rare conversions to standard events; not thread-safe */
+    private static final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+
+    private final int eventType;
+    final String localName;
+
+    StaxCursorEvent(int eventType, String localName) {
+        this.eventType = eventType;
+        this.localName = localName;
+    }
+
+    public int getEventType() {
+        return eventType;
+    }
+
+    public Location getLocation() {
+        return null;
+    }
+
+    public boolean isStartElement() {
+        return eventType == XMLStreamConstants.START_ELEMENT;
+    }
+
+    public boolean isAttribute() {
+        return eventType == XMLStreamConstants.ATTRIBUTE;
+    }
+
+    public boolean isNamespace() {
+        return false;
+    }
+
+    public boolean isEndElement() {
+        return eventType == XMLStreamConstants.END_ELEMENT;
+    }
+
+    public boolean isEntityReference() {
+        return false;
+    }
+
+    public boolean isProcessingInstruction() {
+        return false;
+    }
+
+    public boolean isCharacters() {
+        return false;
+    }
+
+    public boolean isStartDocument() {
+        return eventType == XMLStreamConstants.START_DOCUMENT;
+    }
+
+    public boolean isEndDocument() {
+        return eventType == XMLStreamConstants.END_DOCUMENT;
+    }
+
+    public StartElement asStartElement() {
+        if (!isStartElement()) {
+            throw new ClassCastException("Not a start element: " + this);
+        }
+        synchronized (eventFactory) {
+            return eventFactory.createStartElement(new QName(localName), null, null);
+        }
+    }
+
+    public EndElement asEndElement() {
+        if (!isEndElement()) {
+            throw new ClassCastException("Not an end element: " + this);
+        }
+        synchronized (eventFactory) {
+            return eventFactory.createEndElement(new QName(localName),
+                    Collections.<Namespace>emptyList().iterator());
+        }
+    }
+
+    public Characters asCharacters() {
+        throw new ClassCastException("Not characters: " + this);
+    }
+
+    public QName getSchemaType() {
+        return null;
+    }
+
+    public void writeAsEncodedUnicode(Writer writer) throws XMLStreamException {
+        try {
+            writer.write(toString());
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (eventType) {
+        case XMLStreamConstants.START_ELEMENT:
+            return "<" + localName + ">";
+        case XMLStreamConstants.END_ELEMENT:
+            return "</" + localName + ">";
+        case XMLStreamConstants.START_DOCUMENT:
+            return "<?xml version=\"1.0\"?>";
+        default:
+            return "";
+        }
+    }
+
+    /**
+     * An attribute of the current element.
+     */
+    static class AttributeEvent extends StaxCursorEvent implements Attribute {
+
+        private final String value;
+
+        AttributeEvent(String localName, String value) {
+            super(XMLStreamConstants.ATTRIBUTE, localName);
+            this.value = value;
+        }
+
+        public QName getName() {
+            return new QName(localName);
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public String getDTDType() {
+            return "CDATA";
+        }
+
+        public boolean isSpecified() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return localName + "=\"" + value + "\"";
+        }
+    }
+}
@@ -20,10 +20,13 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.Attribute;
 import javax.xml.stream.events.XMLEvent;
 
@@ -34,14 +37,33 @@ import javax.xml.stream.events.XMLEvent;
  * response. It also tracks the current position and element depth of the
  * document being parsed and provides utilties for accessing the next XML event
  * from the parser, reading element text, handling attribute XML events, etc.
+ * <p>
+ * The document can be read from an {@code XMLEventReader}, or from the cursor
+ * of an {@code XMLStreamReader}; the latter does not allocate an event for
+ * each token: text is only materialized when read, and the events returned by
+ * {@link #nextEvent()} are limited to the start and end of the document, of
+ * elements, and attributes.
  */
 public class StaxUnmarshallerContext {
 
+    /** The maximum number of distinct expressions whose compiled form is cached */
+    private static final int MAX_CACHED_EXPRESSIONS = 4096;
+
+    private static final ConcurrentMap<String, Expression> expressionCache =
+            new ConcurrentHashMap<String, Expression>();
+
     private XMLEvent currentEvent;
     private final XMLEventReader eventReader;
+    private final XMLStreamReader streamReader;
 
     public final Stack<String> stack = new Stack<String>();
-    private String stackString = "";
+
+    /** The local names of the enclosing elements, mirroring the stack */
+    private String[] path = new String[16];
+    private int depth;
+
+    /** The name of the current attribute, or null if the current event is not an attribute */
+    private String attributeName;
 
     private Map<String, String> metadata = new HashMap<String, String>();
     private List<MetadataExpression> metadataExpressions = new ArrayList<MetadataExpression>();
@@ -49,6 +71,15 @@ public class StaxUnmarshallerContext {
     private Iterator<?> attributeIterator;
     private final Map<String, String> headers;
 
+    /** Whether the stream reader is positioned on an event not returned yet */
+    private boolean pending;
+
+    /** The attributes of the last start element read from the stream reader */
+    private String[] attributeNames = new String[4];
+    private String[] attributeValues = new String[4];
+    private int attributeCount;
+    private int attributeIndex;
+
     /**
      * Constructs a new unmarshaller context using the specified source of XML events.
      *
@@ -71,9 +102,28 @@ public class StaxUnmarshallerContext {
      */
     public StaxUnmarshallerContext(XMLEventReader eventReader, Map<String, String> headers) {
         this.eventReader = eventReader;
+        this.streamReader = null;
         this.headers = headers;
     }
 
+    /**
+     * Constructs a new unmarshaller context reading from the cursor of the
+     * specified XML stream reader, positioned at the start of the document,
+     * with a set of response headers.
+     *
+     * @param streamReader
+     *            The XML stream reader for this unmarshalling context.
+     * @param headers
+     *            The set of response headers associated with this unmarshaller
+     *            context, or null.
+     */
+    public StaxUnmarshallerContext(XMLStreamReader streamReader, Map<String, String> headers) {
+        this.eventReader = null;
+        this.streamReader = streamReader;
+        this.headers = headers;
+        this.pending = true;
+    }
+
     /**
      * Returns the value of the header with the specified name from the
      * response, or null if not present.
@@ -102,6 +152,10 @@ public class StaxUnmarshallerContext {
             return attribute.getValue();
         }
 
+        if (streamReader != null) {
+            return readStreamText();
+        }
+
         StringBuilder sb = new StringBuilder();
         while (true) {
             XMLEvent event = eventReader.peek();
@@ -124,7 +178,7 @@ public class StaxUnmarshallerContext {
      *         document being parsed.
      */
     public int getCurrentDepth() {
-        return stack.size();
+        return depth;
     }
 
     /**
@@ -138,7 +192,15 @@ public class StaxUnmarshallerContext {
      */
     public boolean testExpression(String expression) {
         if (expression.equals(".")) return true;
-        return stackString.endsWith(expression);
+
+        StringBuilder stackString = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            stackString.append('/').append(path[i]);
+        }
+        if (attributeName != null) {
+            stackString.append("/@").append(attributeName);
+        }
+        return stackString.toString().endsWith(expression);
     }
 
     /**
@@ -156,19 +218,7 @@ public class StaxUnmarshallerContext {
      *         the XML document, starting from the specified depth.
      */
     public boolean testExpression(String expression, int startingStackDepth) {
-        if (expression.equals(".")) return true;
-
-        int index = -1;
-        while ((index = expression.indexOf("/", index + 1)) > -1) {
-            // Don't consider attributes a new depth level
-            if (expression.charAt(index + 1) != '@') {
-                startingStackDepth++;
-            }
-        }
-
-
-        return (startingStackDepth == getCurrentDepth()
-                && stackString.endsWith("/" + expression));
+        return compile(expression).matches(this, startingStackDepth);
     }
 
     /**
@@ -180,6 +230,9 @@ public class StaxUnmarshallerContext {
      *         yet).
      */
     public boolean isStartOfDocument() throws XMLStreamException {
+        if (streamReader != null) {
+            return pending && streamReader.getEventType() == XMLStreamConstants.START_DOCUMENT;
+        }
         return eventReader.peek().isStartDocument();
     }
 
@@ -191,6 +244,11 @@ public class StaxUnmarshallerContext {
      * @throws XMLStreamException
      */
     public XMLEvent nextEvent() throws XMLStreamException {
+        if (streamReader != null) {
+            currentEvent = nextStreamEvent();
+            return currentEvent;
+        }
+
         if (attributeIterator != null && attributeIterator.hasNext()) {
             currentEvent = (XMLEvent)attributeIterator.next();
         } else {
@@ -203,11 +261,11 @@ public class StaxUnmarshallerContext {
 
         updateContext(currentEvent);
 
-        if (eventReader.hasNext()) {
+        if (!metadataExpressions.isEmpty() && eventReader.hasNext()) {
             XMLEvent nextEvent = eventReader.peek();
             if (nextEvent != null && nextEvent.isCharacters()) {
                 for (MetadataExpression metadataExpression : metadataExpressions) {
-                    if (testExpression(metadataExpression.expression, metadataExpression.targetDepth)) {
+                    if (metadataExpression.expression.matches(this, metadataExpression.targetDepth)) {
                         metadata.put(metadataExpression.key, nextEvent.asCharacters().getData());
                     }
                 }
@@ -243,7 +301,7 @@ public class StaxUnmarshallerContext {
      *            The key under which to store the matching element's data.
      */
     public void registerMetadataExpression(String expression, int targetDepth, String storageKey) {
-        metadataExpressions.add(new MetadataExpression(expression, targetDepth, storageKey));
+        metadataExpressions.add(new MetadataExpression(compile(expression), targetDepth, storageKey));
     }
 
 
@@ -256,36 +314,247 @@ public class StaxUnmarshallerContext {
      * unmarshaller context is looking for.
      */
     private static class MetadataExpression {
-        public String expression;
+        public Expression expression;
         public int targetDepth;
         public String key;
 
-        public MetadataExpression(String expression, int targetDepth, String key) {
+        public MetadataExpression(Expression expression, int targetDepth, String key) {
             this.expression = expression;
             this.targetDepth = targetDepth;
             this.key = key;
         }
     }
 
+    /**
+     * A psuedo-xpath expression split into its steps once, so that it can be
+     * tested against the current position by comparing element names, without
+     * building strings.
+     */
+    private static class Expression {
+        /** Whether the expression is ".", which matches anywhere */
+        private final boolean self;
+
+        /** The element names of the expression, outermost first */
+        private final String[] elements;
+
+        /** The name of the attribute the expression ends with, or null */
+        private final String attribute;
+
+        /** The depth of the last element of the expression, relative to the starting depth */
+        private final int depthOffset;
+
+        Expression(String expression) {
+            self = expression.equals(".");
+
+            String[] steps = expression.split("/", -1);
+            int elementCount = steps.length;
+            String lastStep = steps[steps.length - 1];
+            if (lastStep.startsWith("@")) {
+                attribute = lastStep.substring(1);
+                elementCount--;
+            } else {
+                attribute = null;
+            }
+            elements = new String[elementCount];
+            System.arraycopy(steps, 0, elements, 0, elementCount);
+
+            // Each step after the first adds a level, except for attributes
+            int offset = 0;
+            for (int i = 1; i < steps.length; i++) {
+                if (!steps[i].startsWith("@")) {
+                    offset++;
+                }
+            }
+            depthOffset = offset;
+        }
+
+        boolean matches(StaxUnmarshallerContext context, int startingStackDepth) {
+            if (self) return true;
+
+            int depth = context.depth;
+            if (startingStackDepth + depthOffset != depth) return false;
+
+            if (attribute == null ? context.attributeName != null
+                    : !attribute.equals(context.attributeName)) {
+                return false;
+            }
+
+            int count = elements.length;
+            if (count > depth) return false;
+            String[] path = context.path;
+            for (int i = 1; i <= count; i++) {
+                String element = elements[count - i];
+                String name = path[depth - i];
+                if (element != name && !element.equals(name)) return false;
+            }
+            return true;
+        }
+    }
+
+    private static Expression compile(String expression) {
+        Expression compiled = expressionCache.get(expression);
+        if (compiled == null) {
+            compiled = new Expression(expression);
+            if (expressionCache.size() < MAX_CACHED_EXPRESSIONS) {
+                expressionCache.put(expression, compiled);
+            }
+        }
+        return compiled;
+    }
+
     private void updateContext(XMLEvent event) {
         if (event == null) return;
 
+        attributeName = null;
         if (event.isEndElement()) {
-            stack.pop();
-            stackString = "";
-            for (String s : stack) {
-                stackString += "/" + s;
-            }
+            pop();
         } else if (event.isStartElement()) {
-            stack.push(event.asStartElement().getName().getLocalPart());
-            stackString += "/" + event.asStartElement().getName().getLocalPart();
+            push(event.asStartElement().getName().getLocalPart());
         } else if (event.isAttribute()) {
             Attribute attribute = (Attribute)event;
-            stackString = "";
-            for (String s : stack) {
-                stackString += "/" + s;
+            attributeName = attribute.getName().getLocalPart();
+        }
+    }
+
+    private void push(String name) {
+        if (depth == path.length) {
+            String[] newPath = new String[depth * 2];
+            System.arraycopy(path, 0, newPath, 0, depth);
+            path = newPath;
+        }
+        path[depth++] = name;
+        stack.push(name);
+    }
+
+    private void pop() {
+        path[--depth] = null;
+        stack.pop();
+    }
+
+    /**
+     * Moves the cursor of the stream reader to the next event of interest to
+     * unmarshallers, skipping text, comments and processing instructions.
+     */
+    private XMLEvent nextStreamEvent() throws XMLStreamException {
+        if (attributeIndex < attributeCount) {
+            int i = attributeIndex++;
+            attributeName = attributeNames[i];
+            return new StaxCursorEvent.AttributeEvent(attributeNames[i], attributeValues[i]);
+        }
+        attributeName = null;
+
+        while (true) {
+            int eventType;
+            if (pending) {
+                pending = false;
+                eventType = streamReader.getEventType();
+            } else {
+                eventType = streamReader.next();
+            }
+
+            switch (eventType) {
+            case XMLStreamConstants.START_ELEMENT:
+                String name = streamReader.getLocalName();
+                push(name);
+                readAttributes();
+                if (!metadataExpressions.isEmpty()) {
+                    collectMetadata();
+                }
+                return new StaxCursorEvent(XMLStreamConstants.START_ELEMENT, name);
+            case XMLStreamConstants.END_ELEMENT:
+                String endName = path[depth - 1];
+                pop();
+                return new StaxCursorEvent(XMLStreamConstants.END_ELEMENT, endName);
+            case XMLStreamConstants.START_DOCUMENT:
+                return StaxCursorEvent.START_DOCUMENT;
+            case XMLStreamConstants.END_DOCUMENT:
+                return StaxCursorEvent.END_DOCUMENT;
+            default:
+                // Text outside of readText, comments, etc.
+                break;
+            }
+        }
+    }
+
+    private void readAttributes() {
+        attributeIndex = 0;
+        attributeCount = streamReader.getAttributeCount();
+        if (attributeCount > attributeNames.length) {
+            attributeNames = new String[attributeCount];
+            attributeValues = new String[attributeCount];
+        }
+        for (int i = 0; i < attributeCount; i++) {
+            attributeNames[i] = streamReader.getAttributeLocalName(i);
+            attributeValues[i] = streamReader.getAttributeValue(i);
+        }
+    }
+
+    /**
+     * Stores the text of the element just started under the keys of the
+     * metadata expressions it matches. The cursor is left on the first token
+     * of the content, for readText or the next event.
+     */
+    private void collectMetadata() throws XMLStreamException {
+        boolean matched = false;
+        for (MetadataExpression metadataExpression : metadataExpressions) {
+            if (metadataExpression.expression.matches(this, metadataExpression.targetDepth)) {
+                matched = true;
+                break;
+            }
+        }
+        if (!matched) return;
+
+        pending = true;
+        if (streamReader.next() != XMLStreamConstants.CHARACTERS) return;
+
+        String text = streamReader.getText();
+        for (MetadataExpression metadataExpression : metadataExpressions) {
+            if (metadataExpression.expression.matches(this, metadataExpression.targetDepth)) {
+                metadata.put(metadataExpression.key, text);
+            }
+        }
+    }
+
+    /**
+     * Reads the text content of the current element from the stream reader,
+     * leaving the cursor on the event that follows it for the next event.
+     */
+    private String readStreamText() throws XMLStreamException {
+        String text = null;
+        StringBuilder sb = null;
+        while (true) {
+            int eventType;
+            if (pending) {
+                pending = false;
+                eventType = streamReader.getEventType();
+            } else {
+                eventType = streamReader.next();
+            }
+
+            switch (eventType) {
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+            case XMLStreamConstants.ENTITY_REFERENCE:
+                if (text == null) {
+                    text = streamReader.getText();
+                } else {
+                    if (sb == null) {
+                        sb = new StringBuilder(text);
+                    }
+                    sb.append(streamReader.getText());
+                }
+                break;
+            case XMLStreamConstants.COMMENT:
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                break;
+            default:
+                // Like the event reader, stop at the first non-text event
+                // and leave it for the next call to nextEvent
+                pending = true;
+                if (sb != null) return sb.toString();
+                return text == null ? "" : text;
             }
-            stackString += "/@" + attribute.getName().getLocalPart();
         }
     }
 
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.transform;
+
+import java.io.StringReader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * The code, message, type and request ID of an XML error response, read in a
+ * single streaming pass instead of being looked up in a DOM.
+ * <p>
+ * Both the standard layout, read by {@link StandardErrorUnmarshaller}:
+ *
+ * <pre>
+ * &lt;ErrorResponse&gt;
+ *   &lt;Error&gt;&lt;Type/&gt;&lt;Code/&gt;&lt;Message/&gt;&lt;/Error&gt;
+ *   &lt;RequestId/&gt;
+ * &lt;/ErrorResponse&gt;
+ * </pre>
+ *
+ * and the legacy one, read by {@link LegacyErrorUnmarshaller}:
+ *
+ * <pre>
+ * &lt;Response&gt;
+ *   &lt;Errors&gt;&lt;Error&gt;&lt;Type/&gt;&lt;Code/&gt;&lt;Message/&gt;&lt;/Error&gt;&lt;/Errors&gt;
+ *   &lt;RequestID/&gt;
+ * &lt;/Response&gt;
+ * </pre>
+ *
+ * are understood. As with the XPath expressions they replace, each value is
+ * the trimmed text of the first matching element, or null if there is none.
+ */
+public final class XmlErrorResponse {
+
+    private static final String STANDARD_ROOT = "ErrorResponse";
+    private static final String LEGACY_ROOT = "Response";
+
+    private static final int CODE = 0;
+    private static final int MESSAGE = 1;
+    private static final int TYPE = 2;
+    private static final int REQUEST_ID = 3;
+    private static final int NONE = -1;
+
+    /** The deepest element read, Response/Errors/Error/Code */
+    private static final int MAX_DEPTH = 4;
+
+    /** XMLInputFactory is not thread safe */
+    private static final ThreadLocal<XMLInputFactory> xmlInputFactory = new ThreadLocal<XMLInputFactory>() {
+        @Override
+        protected XMLInputFactory initialValue() {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            return factory;
+        }
+    };
+
+    private String rootElement;
+    private final String[] fields = new String[4];
+
+    private XmlErrorResponse() {
+    }
+
+    /**
+     * Reads the error fields out of the given XML content.
+     *
+     * @param content
+     *            The content of the error response.
+     * @return The error fields of the content.
+     * @throws XMLStreamException
+     *             If the content is not well-formed XML.
+     */
+    public static XmlErrorResponse parse(String content) throws XMLStreamException {
+        XMLStreamReader reader = xmlInputFactory.get().createXMLStreamReader(
+                new StringReader(content));
+        try {
+            XmlErrorResponse error = new XmlErrorResponse();
+            error.read(reader);
+            return error;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void read(XMLStreamReader reader) throws XMLStreamException {
+        String[] path = new String[MAX_DEPTH];
+        int depth = 0;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                // Like the DOM the XPath expressions ran on, prefixed names
+                // do not match the unprefixed ones
+                String prefix = reader.getPrefix();
+                String name = prefix == null || prefix.length() == 0
+                        ? reader.getLocalName() : prefix + ":" + reader.getLocalName();
+                if (depth < MAX_DEPTH) {
+                    path[depth] = name;
+                }
+                depth++;
+                if (depth == 1) {
+                    rootElement = name;
+                }
+                int field = fieldAt(path, depth);
+                if (field != NONE && fields[field] == null) {
+                    fields[field] = readText(reader);
+                    depth--;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Returns the field held by the element that was just started, if any.
+     */
+    private int fieldAt(String[] path, int depth) {
+        if (STANDARD_ROOT.equals(rootElement)) {
+            if (depth == 2) {
+                return "RequestId".equals(path[1]) ? REQUEST_ID : NONE;
+            }
+            if (depth == 3 && "Error".equals(path[1])) {
+                return errorField(path[2]);
+            }
+        } else if (LEGACY_ROOT.equals(rootElement)) {
+            if (depth == 2) {
+                return "RequestID".equals(path[1]) ? REQUEST_ID : NONE;
+            }
+            if (depth == 4 && "Errors".equals(path[1]) && "Error".equals(path[2])) {
+                return errorField(path[3]);
+            }
+        }
+        return NONE;
+    }
+
+    private static int errorField(String name) {
+        if ("Code".equals(name)) {
+            return CODE;
+        } else if ("Message".equals(name)) {
+            return MESSAGE;
+        } else if ("Type".equals(name)) {
+            return TYPE;
+        }
+        return NONE;
+    }
+
+    /**
+     * Reads the text of the current element, including the text of any
+     * nested element, up to and including its end tag.
+     */
+    private static String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int nested = 0;
+        while (true) {
+            int event = reader.next();
+            switch (event) {
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+                text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                break;
+            case XMLStreamConstants.START_ELEMENT:
+                nested++;
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                if (nested-- == 0) {
+                    return text.toString().trim();
+                }
+                break;
+            default:
+                break;
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the root element of the response.
+     */
+    public String getRootElement() {
+        return rootElement;
+    }
+
+    /**
+     * Returns true if the response has the standard layout, rooted at an
+     * ErrorResponse element.
+     */
+    public boolean isStandard() {
+        return STANDARD_ROOT.equals(rootElement);
+    }
+
+    /**
+     * Returns true if the response has the legacy layout, rooted at a
+     * Response element.
+     */
+    public boolean isLegacy() {
+        return LEGACY_ROOT.equals(rootElement);
+    }
+
+    /**
+     * Returns the AWS error code of the response.
+     */
+    public String getErrorCode() {
+        return fields[CODE];
+    }
+
+    /**
+     * Returns the error message of the response.
+     */
+    public String getMessage() {
+        return fields[MESSAGE];
+    }
+
+    /**
+     * Returns the error type of the response, such as Sender or Receiver.
+     */
+    public String getErrorType() {
+        return fields[TYPE];
+    }
+
+    /**
+     * Returns the AWS request ID of the response.
+     */
+    public String getRequestId() {
+        return fields[REQUEST_ID];
+    }
+}
@@ -135,6 +135,27 @@ public class AWSRequestMetrics {
          * /apidocs/org/apache/http/pool/PoolStats.html
          */
         HttpClientPoolPendingCount,
+        /**
+         * The number of buffers served from the free buffers of the shared
+         * {@link com.amazonaws.internal.BufferPool} since it was created.
+         */
+        BufferPoolHitCount,
+        /**
+         * The number of buffers the shared
+         * {@link com.amazonaws.internal.BufferPool} had to allocate since it
+         * was created, because no free buffer of their size was kept.
+         */
+        BufferPoolMissCount,
+        /**
+         * The number of bytes of the buffers of the shared
+         * {@link com.amazonaws.internal.BufferPool} currently in use.
+         */
+        BufferPoolOutstandingBytes,
+        /**
+         * The number of bytes of the free buffers kept by the shared
+         * {@link com.amazonaws.internal.BufferPool}.
+         */
+        BufferPoolFreeBytes,
         RetryPauseTime,
 //      S3DownloadThroughput, // migrated to S3RequestMetric in the S3 clint library
 //      S3UploadThroughput,   // migrated to S3RequestMetric in the S3 clint library
@@ -14,6 +14,8 @@
  */
 package com.amazonaws.util;
 
+import java.nio.ByteBuffer;
+
 import javax.xml.bind.DatatypeConverter;
 
 import com.amazonaws.log.InternalLogFactory;
@@ -71,4 +73,39 @@ public enum Base64 {
      * Decodes the given base 64 encoded bytes.
      */
     public static byte[] decode(byte[] b64) { return b64 == null || b64.length == 0 ? b64 :  codec.decode(b64, b64.length); }
+
+    /**
+     * Returns the number of bytes the given base 64 encoded characters decode
+     * to. The result is exact unless the characters contain line breaks or
+     * spaces, in which case it is an upper bound.
+     */
+    public static int decodedLength(char[] b64, int offset, int length) {
+        int end = offset + length;
+        while (end > offset && isWhitespace(b64[end-1]))
+            end--;
+        int pads = 0;
+        for (int i = end - 1; i >= offset && pads < 2 && b64[i] == '='; i--)
+            pads++;
+        return Math.max(0, length / 4 * 3 - pads);
+    }
+
+    /**
+     * Decodes the given base 64 encoded characters directly into the given
+     * buffer, starting at its position, skipping carriage returns, line feeds
+     * and spaces as needed.
+     *
+     * @return the number of bytes decoded, by which the position of the
+     *         buffer has been advanced
+     * @throws IllegalArgumentException
+     *             if the characters are not valid base 64
+     * @throws java.nio.BufferOverflowException
+     *             if the buffer has not enough space remaining
+     */
+    public static int decode(char[] b64, int offset, int length, ByteBuffer dest) {
+        return codec.decode(b64, offset, length, dest);
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == '\r' || c == '\n' || c == ' ';
+    }
 }
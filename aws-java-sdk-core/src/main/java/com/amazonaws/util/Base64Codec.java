@@ -15,6 +15,9 @@
 package com.amazonaws.util;
 import static com.amazonaws.util.CodecUtils.sanityCheckLastPos;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
 /**
  * A Base 64 codec implementation.
  * 
@@ -31,9 +34,21 @@ class Base64Codec implements Codec {
     private static final int MASK_6BITS = (1 << 6) - 1;
     // Alphabet as defined at http://www.ietf.org/rfc/rfc4648.txt
     private static final byte PAD = '=';
-    
+
+    /** bytes decoded at a time into buffers without array */
+    private static final int DECODE_CHUNK_SIZE = 3 * 1024;
+
     private static class LazyHolder {
         private static final byte[] DECODED = decodeTable();
+        /** DECODED widened to all single octet characters */
+        private static final int[] DECODED_CHARS = decodeCharTable();
+
+        private static int[] decodeCharTable() {
+            final int[] dest = new int[Byte.MAX_VALUE + 1];
+            for (int i=0; i < dest.length; i++)
+                dest[i] = i < DECODED.length ? DECODED[i] : -1;
+            return dest;
+        }
         
         private static byte[] decodeTable() {
             final byte[] dest = new byte['z'+1];
@@ -234,6 +249,118 @@ class Base64Codec implements Codec {
         return dest;
     }
     
+    /**
+     * Decodes base 64 encoded characters directly into the given buffer,
+     * skipping carriage returns, line feeds and spaces as needed. Buffers
+     * without a backing array are filled chunk by chunk.
+     *
+     * @return the number of bytes decoded, by which the position of the
+     *         buffer has been advanced
+     */
+    int decode(char[] src, int offset, int length, ByteBuffer dest) {
+        final boolean backed = dest.hasArray();
+        final byte[] out = backed ? dest.array() : new byte[DECODE_CHUNK_SIZE];
+        final int outStart = backed ? dest.arrayOffset() + dest.position() : 0;
+        final int outEnd = backed ? dest.arrayOffset() + dest.limit() : out.length;
+        final int[] decoded = LazyHolder.DECODED_CHARS;
+        final int end = offset + length;
+        int o = outStart;
+        int total = 0;
+
+        int bits = 0;       // sextets of the current quantum
+        int count = 0;      // number of characters of the current quantum
+        int pads = 0;
+        int last = 0;       // last non-pad sextet
+        boolean done = false;
+
+        int i = offset;
+        while (i < end) {
+            // Fast path over whole quanta of plain characters; padding and
+            // whitespace are left to the slower path below.
+            for (; i + 4 <= end; i += 4) {
+                final char c0 = src[i], c1 = src[i+1], c2 = src[i+2], c3 = src[i+3];
+                if ((c0 | c1 | c2 | c3) > Byte.MAX_VALUE)
+                    break;
+                final int p0 = decoded[c0], p1 = decoded[c1], p2 = decoded[c2], p3 = decoded[c3];
+                if ((p0 | p1 | p2 | p3) < 0)
+                    break;
+                if (o + 3 > outEnd) {
+                    if (backed)
+                        throw new BufferOverflowException();
+                    dest.put(out, 0, o);
+                    total += o;
+                    o = 0;
+                }
+                final int q = p0 << 18 | p1 << 12 | p2 << 6 | p3;
+                out[o++] = (byte) (q >>> 16);
+                out[o++] = (byte) (q >>> 8);
+                out[o++] = (byte) q;
+            }
+
+            // One character at a time until the end of the current quantum
+            for (; i < end; i++) {
+                final char c = src[i];
+                if (c == '\r' || c == '\n' || c == ' ')
+                    continue;
+                if (done)
+                    throw new IllegalArgumentException("Invalid base 64 character after padding: \'" + c + "\'");
+                if (c == PAD) {
+                    if (count < 2)
+                        throw new IllegalArgumentException("Invalid base 64 padding at position " + (i - offset));
+                    pads++;
+                } else {
+                    if (pads > 0 || c > Byte.MAX_VALUE || decoded[c] < 0)
+                        throw new IllegalArgumentException("Invalid base 64 character: \'" + c + "\'");
+                    bits = bits << 6 | (last = decoded[c]);
+                }
+                if (++count < 4)
+                    continue;
+
+                if (o + 3 - pads > outEnd) {
+                    if (backed)
+                        throw new BufferOverflowException();
+                    dest.put(out, 0, o);
+                    total += o;
+                    o = 0;
+                }
+                switch (pads) {
+                    case 0:
+                        out[o++] = (byte) (bits >>> 16);
+                        out[o++] = (byte) (bits >>> 8);
+                        out[o++] = (byte) bits;
+                        break;
+                    case 1:
+                        sanityCheckLastPos(last, MASK_2BITS);
+                        out[o++] = (byte) (bits >>> 10);
+                        out[o++] = (byte) (bits >>> 2);
+                        done = true;
+                        break;
+                    default:
+                        sanityCheckLastPos(last, MASK_4BITS);
+                        out[o++] = (byte) (bits >>> 4);
+                        done = true;
+                        break;
+                }
+                bits = 0;
+                count = 0;
+                if (!done) {
+                    i++;
+                    break;
+                }
+            }
+        }
+        if (count != 0)
+            throw new IllegalArgumentException
+            ("Input is expected to be encoded in multiple of 4 bytes but found a trailing quantum of: " + count);
+
+        if (backed) {
+            dest.position(o - dest.arrayOffset());
+            return total + o - outStart;
+        }
+        dest.put(out, 0, o);
+        return total + o;
+    }
+
     protected int pos(byte in) {
         int pos = LazyHolder.DECODED[in];
         
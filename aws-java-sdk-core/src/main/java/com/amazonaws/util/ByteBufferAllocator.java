@@ -0,0 +1,31 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Supplies the buffers binary values are unmarshalled into, for instance from
+ * a pool owned by the caller.
+ */
+public interface ByteBufferAllocator {
+
+    /**
+     * Returns a buffer with at least the given number of bytes remaining. The
+     * buffer is filled from its position onwards, and handed to the caller
+     * with its position and limit around the bytes written.
+     */
+    ByteBuffer allocate(int size);
+}
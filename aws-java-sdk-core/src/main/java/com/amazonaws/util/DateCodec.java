@@ -0,0 +1,465 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.util;
+
+import com.amazonaws.annotation.ThreadSafe;
+
+/**
+ * Formats and parses the timestamps used by AWS services, in UTC, without
+ * going through a date-time library: no calendar, formatter, or intermediate
+ * string is allocated, and parsing does not throw for unexpected input.
+ * <p>
+ * Only the usual shapes of each format, for the years 1 to 9999, are handled
+ * here: parsing returns {@link #UNPARSEABLE}, and formatting returns null,
+ * for anything else, so that callers such as {@link DateUtils} can fall back
+ * to their general purpose formatters and keep their behavior and error
+ * reporting for such values.
+ */
+@ThreadSafe
+public final class DateCodec {
+
+    /**
+     * Returned by the parse methods for input they do not handle; it is not
+     * the time of any date they can return.
+     */
+    public static final long UNPARSEABLE = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * MILLIS_PER_SECOND;
+
+    /** 0001-01-01T00:00:00.000Z */
+    private static final long MIN_MILLIS = -62135596800000L;
+
+    /** 9999-12-31T23:59:59.999Z */
+    private static final long MAX_MILLIS = 253402300799999L;
+
+    private static final String[] DAYS_OF_WEEK = {
+        "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"
+    };
+
+    private static final String[] MONTHS = {
+        "Jan", "Feb", "Mar", "Apr", "May", "Jun",
+        "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"
+    };
+
+    private DateCodec() {
+    }
+
+    /**
+     * Formats the given time as yyyy-MM-dd'T'HH:mm:ss.SSS'Z', or returns null
+     * if its year is not between 1 and 9999.
+     */
+    public static String formatISO8601(long millis) {
+        if (millis < MIN_MILLIS || millis > MAX_MILLIS) {
+            return null;
+        }
+        char[] buf = new char[24];
+        int date = civilDate(floorDiv(millis, MILLIS_PER_DAY));
+        long millisOfDay = floorMod(millis, MILLIS_PER_DAY);
+        writeDigits(buf, 0, year(date), 4);
+        buf[4] = '-';
+        writeDigits(buf, 5, month(date), 2);
+        buf[7] = '-';
+        writeDigits(buf, 8, day(date), 2);
+        buf[10] = 'T';
+        writeTime(buf, 11, millisOfDay, ':');
+        buf[19] = '.';
+        writeDigits(buf, 20, (int) (millisOfDay % MILLIS_PER_SECOND), 3);
+        buf[23] = 'Z';
+        return new String(buf);
+    }
+
+    /**
+     * Formats the given time as EEE, dd MMM yyyy HH:mm:ss 'GMT', or returns
+     * null if its year is not between 1 and 9999.
+     */
+    public static String formatRFC822(long millis) {
+        if (millis < MIN_MILLIS || millis > MAX_MILLIS) {
+            return null;
+        }
+        char[] buf = new char[29];
+        long days = floorDiv(millis, MILLIS_PER_DAY);
+        int date = civilDate(days);
+        writeText(buf, 0, DAYS_OF_WEEK[dayOfWeek(days)]);
+        buf[3] = ',';
+        buf[4] = ' ';
+        writeDigits(buf, 5, day(date), 2);
+        buf[7] = ' ';
+        writeText(buf, 8, MONTHS[month(date) - 1]);
+        buf[11] = ' ';
+        writeDigits(buf, 12, year(date), 4);
+        buf[16] = ' ';
+        writeTime(buf, 17, floorMod(millis, MILLIS_PER_DAY), ':');
+        writeText(buf, 25, " GMT");
+        return new String(buf);
+    }
+
+    /**
+     * Formats the given time as yyyyMMdd'T'HHmmss'Z', as used for the
+     * X-Amz-Date of signed requests, or returns null if its year is not
+     * between 1 and 9999.
+     */
+    public static String formatCompressedISO8601(long millis) {
+        if (millis < MIN_MILLIS || millis > MAX_MILLIS) {
+            return null;
+        }
+        char[] buf = new char[16];
+        writeDateStamp(buf, civilDate(floorDiv(millis, MILLIS_PER_DAY)));
+        buf[8] = 'T';
+        long millisOfDay = floorMod(millis, MILLIS_PER_DAY);
+        writeDigits(buf, 9, (int) (millisOfDay / 3600000), 2);
+        writeDigits(buf, 11, (int) (millisOfDay / 60000 % 60), 2);
+        writeDigits(buf, 13, (int) (millisOfDay / 1000 % 60), 2);
+        buf[15] = 'Z';
+        return new String(buf);
+    }
+
+    /**
+     * Formats the date of the given time as yyyyMMdd, or returns null if its
+     * year is not between 1 and 9999.
+     */
+    public static String formatDateStamp(long millis) {
+        if (millis < MIN_MILLIS || millis > MAX_MILLIS) {
+            return null;
+        }
+        char[] buf = new char[8];
+        writeDateStamp(buf, civilDate(floorDiv(millis, MILLIS_PER_DAY)));
+        return new String(buf);
+    }
+
+    /**
+     * Formats the given time as the number of seconds since the epoch, with
+     * exactly three decimal places, as in "1408378076.135".
+     */
+    public static String formatEpochSeconds(long millis) {
+        if (millis == Long.MIN_VALUE) {
+            return "-9223372036854775.808";
+        }
+        long abs = Math.abs(millis);
+        StringBuilder sb = new StringBuilder(24);
+        if (millis < 0) {
+            sb.append('-');
+        }
+        sb.append(abs / MILLIS_PER_SECOND).append('.');
+        int fraction = (int) (abs % MILLIS_PER_SECOND);
+        if (fraction < 100) {
+            sb.append('0');
+        }
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction).toString();
+    }
+
+    /**
+     * Parses yyyy-MM-dd'T'HH:mm:ss, with an optional fraction of up to nine
+     * digits, followed by 'Z' or +0000, or, after a fraction, by a +HH:mm or
+     * -HH:mm offset.
+     *
+     * @return The parsed time, or {@link #UNPARSEABLE}.
+     */
+    public static long parseISO8601(String s) {
+        if (s == null || s.length() < 20
+                || s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(10) != 'T'
+                || s.charAt(13) != ':' || s.charAt(16) != ':') {
+            return UNPARSEABLE;
+        }
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 2);
+        int day = digits(s, 8, 2);
+        int hour = digits(s, 11, 2);
+        int minute = digits(s, 14, 2);
+        int second = digits(s, 17, 2);
+        if (!isValid(year, month, day, hour, minute, second)) {
+            return UNPARSEABLE;
+        }
+        int pos = 19;
+        int length = s.length();
+        int millisOfSecond = 0;
+        boolean hasFraction = s.charAt(pos) == '.';
+        if (hasFraction) {
+            int start = ++pos;
+            while (pos < length && isDigit(s.charAt(pos))) {
+                if (pos - start < 3) {
+                    millisOfSecond = millisOfSecond * 10 + (s.charAt(pos) - '0');
+                }
+                pos++;
+            }
+            int count = pos - start;
+            if (count == 0 || count > 9) {
+                return UNPARSEABLE;
+            }
+            for (int i = count; i < 3; i++) {
+                millisOfSecond *= 10;
+            }
+        }
+        long offsetMillis;
+        int remaining = length - pos;
+        if (remaining == 1 && s.charAt(pos) == 'Z') {
+            offsetMillis = 0;
+        } else if (remaining == 5 && s.startsWith("+0000", pos)) {
+            offsetMillis = 0;
+        } else if (remaining == 6 && hasFraction && s.charAt(pos + 3) == ':'
+                && (s.charAt(pos) == '+' || s.charAt(pos) == '-')) {
+            int offsetHours = digits(s, pos + 1, 2);
+            int offsetMinutes = digits(s, pos + 4, 2);
+            if (offsetHours < 0 || offsetHours > 23 || offsetMinutes < 0 || offsetMinutes > 59) {
+                return UNPARSEABLE;
+            }
+            offsetMillis = (offsetHours * 60L + offsetMinutes) * 60000L;
+            if (s.charAt(pos) == '-') {
+                offsetMillis = -offsetMillis;
+            }
+        } else {
+            return UNPARSEABLE;
+        }
+        return toMillis(year, month, day, hour, minute, second, millisOfSecond) - offsetMillis;
+    }
+
+    /**
+     * Parses EEE, dd MMM yyyy HH:mm:ss 'GMT', with English names whose day of
+     * the week matches the date.
+     *
+     * @return The parsed time, or {@link #UNPARSEABLE}.
+     */
+    public static long parseRFC822(String s) {
+        if (s == null || s.length() != 29
+                || s.charAt(3) != ',' || s.charAt(4) != ' ' || s.charAt(7) != ' '
+                || s.charAt(11) != ' ' || s.charAt(16) != ' ' || s.charAt(19) != ':'
+                || s.charAt(22) != ':' || !s.endsWith(" GMT")) {
+            return UNPARSEABLE;
+        }
+        int day = digits(s, 5, 2);
+        int month = indexOf(MONTHS, s, 8) + 1;
+        int year = digits(s, 12, 4);
+        int hour = digits(s, 17, 2);
+        int minute = digits(s, 20, 2);
+        int second = digits(s, 23, 2);
+        if (!isValid(year, month, day, hour, minute, second)) {
+            return UNPARSEABLE;
+        }
+        long days = daysSinceEpoch(year, month, day);
+        if (indexOf(DAYS_OF_WEEK, s, 0) != dayOfWeek(days)) {
+            return UNPARSEABLE;
+        }
+        return days * MILLIS_PER_DAY + ((hour * 60L + minute) * 60 + second) * MILLIS_PER_SECOND;
+    }
+
+    /**
+     * Parses yyyyMMdd'T'HHmmss'Z'.
+     *
+     * @return The parsed time, or {@link #UNPARSEABLE}.
+     */
+    public static long parseCompressedISO8601(String s) {
+        if (s == null || s.length() != 16 || s.charAt(8) != 'T' || s.charAt(15) != 'Z') {
+            return UNPARSEABLE;
+        }
+        int year = digits(s, 0, 4);
+        int month = digits(s, 4, 2);
+        int day = digits(s, 6, 2);
+        int hour = digits(s, 9, 2);
+        int minute = digits(s, 11, 2);
+        int second = digits(s, 13, 2);
+        if (!isValid(year, month, day, hour, minute, second)) {
+            return UNPARSEABLE;
+        }
+        return toMillis(year, month, day, hour, minute, second, 0);
+    }
+
+    /**
+     * Parses a number of seconds since the epoch, such as "1408378076.135",
+     * into milliseconds, ignoring any digit past the third decimal place.
+     * Only plain decimal numbers of up to fifteen integral digits, with an
+     * optional minus sign, are handled.
+     *
+     * @return The parsed time, or {@link #UNPARSEABLE}.
+     */
+    public static long parseEpochSeconds(String s) {
+        if (s == null) {
+            return UNPARSEABLE;
+        }
+        int length = s.length();
+        int pos = 0;
+        boolean negative = length > 0 && s.charAt(0) == '-';
+        if (negative) {
+            pos++;
+        }
+        long seconds = 0;
+        int start = pos;
+        while (pos < length && isDigit(s.charAt(pos))) {
+            seconds = seconds * 10 + (s.charAt(pos++) - '0');
+        }
+        int integralDigits = pos - start;
+        if (integralDigits > 15) {
+            return UNPARSEABLE;
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (pos < length && s.charAt(pos) == '.') {
+            pos++;
+            while (pos < length && isDigit(s.charAt(pos))) {
+                if (fractionDigits < 3) {
+                    fraction = fraction * 10 + (s.charAt(pos) - '0');
+                }
+                fractionDigits++;
+                pos++;
+            }
+        }
+        if (pos != length || integralDigits + fractionDigits == 0) {
+            return UNPARSEABLE;
+        }
+        for (int i = fractionDigits; i < 3; i++) {
+            fraction *= 10;
+        }
+        long millis = seconds * MILLIS_PER_SECOND + fraction;
+        return negative ? -millis : millis;
+    }
+
+    private static boolean isValid(int year, int month, int day, int hour, int minute, int second) {
+        return year >= 1 && month >= 1 && month <= 12
+                && day >= 1 && day <= daysInMonth(year, month)
+                && hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59
+                && second >= 0 && second <= 59;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2) {
+            return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static long toMillis(int year, int month, int day, int hour, int minute,
+            int second, int millisOfSecond) {
+        return daysSinceEpoch(year, month, day) * MILLIS_PER_DAY
+                + ((hour * 60L + minute) * 60 + second) * MILLIS_PER_SECOND
+                + millisOfSecond;
+    }
+
+    /**
+     * Returns the number of days from 1970-01-01 to the given date of the
+     * proleptic Gregorian calendar.
+     */
+    private static long daysSinceEpoch(int year, int month, int day) {
+        // Counted in years starting in March, so that the leap day ends them
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * Returns the date the given number of days after 1970-01-01, packed as
+     * year * 10000 + month * 100 + day.
+     */
+    private static int civilDate(long daysSinceEpoch) {
+        int days = (int) (daysSinceEpoch + 719468);
+        int era = days / 146097;
+        int dayOfEra = days - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 10000 + month * 100 + day;
+    }
+
+    private static int year(int date) {
+        return date / 10000;
+    }
+
+    private static int month(int date) {
+        return date / 100 % 100;
+    }
+
+    private static int day(int date) {
+        return date % 100;
+    }
+
+    /**
+     * Returns the day of the week of the given day, 0 being Monday.
+     */
+    private static int dayOfWeek(long daysSinceEpoch) {
+        // 1970-01-01 was a Thursday
+        return (int) floorMod(daysSinceEpoch + 3, 7);
+    }
+
+    private static long floorDiv(long x, long y) {
+        long q = x / y;
+        return (x % y < 0) ? q - 1 : q;
+    }
+
+    private static long floorMod(long x, long y) {
+        long m = x % y;
+        return m < 0 ? m + y : m;
+    }
+
+    private static void writeDateStamp(char[] buf, int date) {
+        writeDigits(buf, 0, year(date), 4);
+        writeDigits(buf, 4, month(date), 2);
+        writeDigits(buf, 6, day(date), 2);
+    }
+
+    private static void writeTime(char[] buf, int pos, long millisOfDay, char separator) {
+        writeDigits(buf, pos, (int) (millisOfDay / 3600000), 2);
+        buf[pos + 2] = separator;
+        writeDigits(buf, pos + 3, (int) (millisOfDay / 60000 % 60), 2);
+        buf[pos + 5] = separator;
+        writeDigits(buf, pos + 6, (int) (millisOfDay / 1000 % 60), 2);
+    }
+
+    private static void writeDigits(char[] buf, int pos, int value, int count) {
+        for (int i = pos + count - 1; i >= pos; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static void writeText(char[] buf, int pos, String text) {
+        text.getChars(0, text.length(), buf, pos);
+    }
+
+    /**
+     * Returns the value of the given number of decimal digits, or -1 if any
+     * of them is not a digit.
+     */
+    private static int digits(String s, int pos, int count) {
+        int value = 0;
+        for (int i = pos; i < pos + count; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int indexOf(String[] names, String s, int pos) {
+        for (int i = 0; i < names.length; i++) {
+            if (s.startsWith(names[i], pos)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
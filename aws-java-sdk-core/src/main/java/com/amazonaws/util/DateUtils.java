@@ -34,6 +34,9 @@ import com.amazonaws.annotation.ThreadSafe;
 
 /**
  * Utilities for parsing and formatting dates.
+ * <p>
+ * The usual forms of the dates are handled by {@link DateCodec}, without
+ * Joda-Time; the Joda-Time formatters below handle the others.
  */
 @ThreadSafe
 public class DateUtils {
@@ -73,6 +76,10 @@ public class DateUtils {
      * @return The parsed Date object.
      */
     public static Date parseISO8601Date(String dateString) {
+        long millis = DateCodec.parseISO8601(dateString);
+        if (millis != DateCodec.UNPARSEABLE) {
+            return new Date(millis);
+        }
         try {
             return doParseISO8601Date(dateString);
         } catch(RuntimeException ex) {
@@ -158,6 +165,10 @@ public class DateUtils {
      * @return The ISO 8601 string representing the specified date.
      */
     public static String formatISO8601Date(Date date) {
+        String formatted = DateCodec.formatISO8601(date.getTime());
+        if (formatted != null) {
+            return formatted;
+        }
         try {
             return iso8601DateFormat.print(date.getTime());
         } catch(RuntimeException ex) {
@@ -189,6 +200,10 @@ public class DateUtils {
      * @return The parsed Date object.
      */
     public static Date parseRFC822Date(String dateString) {
+        long millis = DateCodec.parseRFC822(dateString);
+        if (millis != DateCodec.UNPARSEABLE) {
+            return new Date(millis);
+        }
         try {
             return new Date(rfc822DateFormat.parseMillis(dateString));
         } catch(RuntimeException ex) {
@@ -205,6 +220,10 @@ public class DateUtils {
      * @return The RFC 822 string representing the specified date.
      */
     public static String formatRFC822Date(Date date) {
+        String formatted = DateCodec.formatRFC822(date.getTime());
+        if (formatted != null) {
+            return formatted;
+        }
         try {
             return rfc822DateFormat.print(date.getTime());
         } catch(RuntimeException ex) {
@@ -222,6 +241,10 @@ public class DateUtils {
      * @return The parsed Date object.
      */
     public static Date parseCompressedISO8601Date(String dateString) {
+        long millis = DateCodec.parseCompressedISO8601(dateString);
+        if (millis != DateCodec.UNPARSEABLE) {
+            return new Date(millis);
+        }
         try {
             return new Date(compressedIso8601DateFormat.parseMillis(dateString));
         } catch (RuntimeException ex) {
@@ -236,6 +259,10 @@ public class DateUtils {
     public static Date parseServiceSpecificDate(String dateString) {
         if (dateString == null)
             return null;
+        long millis = DateCodec.parseEpochSeconds(dateString);
+        if (millis != DateCodec.UNPARSEABLE) {
+            return new Date(millis);
+        }
         try {
             BigDecimal dateValue = new BigDecimal(dateString);
             return new Date(dateValue.scaleByPowerOfTen(
@@ -252,9 +279,7 @@ public class DateUtils {
     public static String formatServiceSpecificDate(Date date) {
         if (date == null)
             return null;
-        BigDecimal dateValue = BigDecimal.valueOf(date.getTime());
-        return dateValue.scaleByPowerOfTen(0 - AWS_DATE_MILLI_SECOND_PRECISION)
-                .toPlainString();
+        return DateCodec.formatEpochSeconds(date.getTime());
     }
 
     public static Date cloneDate(Date date) {
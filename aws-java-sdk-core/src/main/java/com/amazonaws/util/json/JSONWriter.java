@@ -25,11 +25,17 @@ package com.amazonaws.util.json;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.util.Date;
 
-import com.amazonaws.util.BinaryUtils;
 import com.amazonaws.util.DateUtils;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.CharacterEscapes;
+import com.fasterxml.jackson.core.io.SerializedString;
 
 /**
  * JSONWriter provides a quick and convenient way of producing JSON text.
@@ -57,6 +63,12 @@ import com.amazonaws.util.DateUtils;
  * you. Objects and arrays can be nested up to 70 levels deep.
  * <p>
  * This can sometimes be easier than using a JSONObject to build a string.
+ * <p>
+ * The text is produced by a Jackson {@link JsonGenerator}, which buffers it:
+ * it is flushed to the writer when the outermost array or object ends.
+ * Strings are escaped as by {@link JSONObject#quote(String)}: "&lt;/" is
+ * escaped as "&lt;\/", so the text can be embedded in HTML, and control
+ * characters and U+0080 to U+009F as lower case "&#92;u00xx" sequences.
  *
  * @version 2010-03-11
  */
@@ -72,10 +84,12 @@ public class JSONWriter {
     private static final int maxdepth = 70;
 
     /**
-     * The comma flag determines if a comma should be output before the next
-     * value.
+     * Shared factory of the generators; duplicate keys are detected by the
+     * generators, without a map per object.
      */
-    private boolean comma;
+    private static final JsonFactory jsonFactory = new JsonFactory()
+            .enable(JsonGenerator.Feature.STRICT_DUPLICATE_DETECTION)
+            .setCharacterEscapes(new QuoteEscapes());
 
     /**
      * The current mode. Values:
@@ -88,9 +102,9 @@ public class JSONWriter {
     protected char mode;
 
     /**
-     * The object/array stack.
+     * The object/array stack: true for objects, false for arrays.
      */
-    private JSONObject stack[];
+    private final boolean stack[];
 
     /**
      * The stack top index. A value of 0 indicates that the stack is empty.
@@ -102,43 +116,45 @@ public class JSONWriter {
      */
     protected Writer writer;
 
+    /**
+     * The generator writing the text to the writer.
+     */
+    private final JsonGenerator generator;
+
     /**
      * Make a fresh JSONWriter. It can be used to build one JSON text.
      */
     public JSONWriter(Writer w) {
-        this.comma = false;
         this.mode = 'i';
-        this.stack = new JSONObject[maxdepth];
+        this.stack = new boolean[maxdepth];
         this.top = 0;
         this.writer = w;
+        try {
+            this.generator = jsonFactory.createGenerator(new SlashEscapingWriter(w));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     /**
-     * Append a value.
-     * @param s A string value.
-     * @return this
+     * Checks that a value can be appended.
      * @throws JSONException If the value is out of sequence.
      */
-    private JSONWriter append(String s) throws JSONException {
-        if (s == null) {
-            throw new JSONException("Null pointer");
+    private void beforeValue() throws JSONException {
+        if (this.mode != 'o' && this.mode != 'a') {
+            throw new JSONException("Value out of sequence.");
         }
-        if (this.mode == 'o' || this.mode == 'a') {
-            try {
-                if (this.comma && this.mode == 'a') {
-                    this.writer.write(',');
-                }
-                this.writer.write(s);
-            } catch (IOException e) {
-                throw new JSONException(e);
-            }
-            if (this.mode == 'o') {
-                this.mode = 'k';
-            }
-            this.comma = true;
-            return this;
+    }
+
+    /**
+     * Records that a value was appended.
+     * @return this
+     */
+    private JSONWriter afterValue() {
+        if (this.mode == 'o') {
+            this.mode = 'k';
         }
-        throw new JSONException("Value out of sequence.");
+        return this;
     }
 
     /**
@@ -152,9 +168,15 @@ public class JSONWriter {
      */
     public JSONWriter array() throws JSONException {
         if (this.mode == 'i' || this.mode == 'o' || this.mode == 'a') {
-            this.push(null);
-            this.append("[");
-            this.comma = false;
+            if (this.mode == 'o') {
+                this.mode = 'k';
+            }
+            this.push(false);
+            try {
+                this.generator.writeStartArray();
+            } catch (IOException e) {
+                throw new JSONException(e);
+            }
             return this;
         }
         throw new JSONException("Misplaced array.");
@@ -163,22 +185,27 @@ public class JSONWriter {
     /**
      * End something.
      * @param m Mode
-     * @param c Closing character
      * @return this
      * @throws JSONException If unbalanced.
      */
-    private JSONWriter end(char m, char c) throws JSONException {
+    private JSONWriter end(char m) throws JSONException {
         if (this.mode != m) {
             throw new JSONException(m == 'a' ? "Misplaced endArray." :
                     "Misplaced endObject.");
         }
         this.pop(m);
         try {
-            this.writer.write(c);
+            if (m == 'a') {
+                this.generator.writeEndArray();
+            } else {
+                this.generator.writeEndObject();
+            }
+            if (this.top == 0) {
+                this.generator.flush();
+            }
         } catch (IOException e) {
             throw new JSONException(e);
         }
-        this.comma = true;
         return this;
     }
 
@@ -189,7 +216,7 @@ public class JSONWriter {
      * @throws JSONException If incorrectly nested.
      */
     public JSONWriter endArray() throws JSONException {
-        return this.end('a', ']');
+        return this.end('a');
     }
 
     /**
@@ -199,7 +226,7 @@ public class JSONWriter {
      * @throws JSONException If incorrectly nested.
      */
     public JSONWriter endObject() throws JSONException {
-        return this.end('k', '}');
+        return this.end('k');
     }
 
     /**
@@ -216,16 +243,11 @@ public class JSONWriter {
         }
         if (this.mode == 'k') {
             try {
-                stack[top - 1].putOnce(s, Boolean.TRUE);
-                if (this.comma) {
-                    this.writer.write(',');
-                }
-                this.writer.write(JSONObject.quote(s));
-                this.writer.write(':');
-                this.comma = false;
+                this.generator.writeFieldName(s);
                 this.mode = 'o';
                 return this;
             } catch (IOException e) {
+                // Including the duplicate keys detected by the generator
                 throw new JSONException(e);
             }
         }
@@ -247,9 +269,15 @@ public class JSONWriter {
             this.mode = 'o';
         }
         if (this.mode == 'o' || this.mode == 'a') {
-            this.append("{");
-            this.push(new JSONObject());
-            this.comma = false;
+            if (this.mode == 'o') {
+                this.mode = 'k';
+            }
+            this.push(true);
+            try {
+                this.generator.writeStartObject();
+            } catch (IOException e) {
+                throw new JSONException(e);
+            }
             return this;
         }
         throw new JSONException("Misplaced object.");
@@ -266,25 +294,25 @@ public class JSONWriter {
         if (this.top <= 0) {
             throw new JSONException("Nesting error.");
         }
-        char m = this.stack[this.top - 1] == null ? 'a' : 'k';
+        char m = this.stack[this.top - 1] ? 'k' : 'a';
         if (m != c) {
             throw new JSONException("Nesting error.");
         }
         this.top -= 1;
-        this.mode = this.top == 0 ? 'd' : this.stack[this.top - 1] == null ? 'a' : 'k';
+        this.mode = this.top == 0 ? 'd' : this.stack[this.top - 1] ? 'k' : 'a';
     }
 
     /**
      * Push an array or object scope.
-     * @param c The scope to open.
+     * @param object Whether the scope is an object.
      * @throws JSONException If nesting is too deep.
      */
-    private void push(JSONObject jo) throws JSONException {
+    private void push(boolean object) throws JSONException {
         if (this.top >= maxdepth) {
             throw new JSONException("Nesting too deep.");
         }
-        this.stack[this.top] = jo;
-        this.mode = jo == null ? 'a' : 'k';
+        this.stack[this.top] = object;
+        this.mode = object ? 'k' : 'a';
         this.top += 1;
     }
 
@@ -297,7 +325,13 @@ public class JSONWriter {
      * @throws JSONException
      */
     public JSONWriter value(boolean b) throws JSONException {
-        return this.append(b ? "true" : "false");
+        beforeValue();
+        try {
+            this.generator.writeBoolean(b);
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        return afterValue();
     }
 
     /**
@@ -307,7 +341,7 @@ public class JSONWriter {
      * @throws JSONException If the number is not finite.
      */
     public JSONWriter value(double d) throws JSONException {
-        return this.value(new Double(d));
+        return this.value(Double.valueOf(d));
     }
 
     /**
@@ -317,7 +351,13 @@ public class JSONWriter {
      * @throws JSONException
      */
     public JSONWriter value(long l) throws JSONException {
-        return this.value(Long.valueOf(l));
+        beforeValue();
+        try {
+            this.generator.writeNumber(l);
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        return afterValue();
     }
 
     /**
@@ -328,8 +368,17 @@ public class JSONWriter {
      * @throws JSONException
      */
     public JSONWriter value(Date date) throws JSONException {
-        // See https://forums.aws.amazon.com/thread.jspa?threadID=158756
-        return this.append(DateUtils.formatServiceSpecificDate(date));
+        if (date == null) {
+            throw new JSONException("Null pointer");
+        }
+        beforeValue();
+        try {
+            // See https://forums.aws.amazon.com/thread.jspa?threadID=158756
+            this.generator.writeNumber(DateUtils.formatServiceSpecificDate(date));
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        return afterValue();
     }
 
     /**
@@ -340,11 +389,23 @@ public class JSONWriter {
      * @throws JSONException
      */
     public JSONWriter value(ByteBuffer b) throws JSONException {
-        b.mark();
-        byte[] bytes = new byte[b.remaining()];
-        b.get(bytes, 0, bytes.length);
-        b.reset();
-        return this.value(BinaryUtils.toBase64(bytes));
+        if (b == null) {
+            throw new JSONException("Null pointer");
+        }
+        beforeValue();
+        try {
+            if (b.hasArray()) {
+                // Encoded straight from the backing array, without a copy
+                this.generator.writeBinary(b.array(), b.arrayOffset() + b.position(), b.remaining());
+            } else {
+                byte[] bytes = new byte[b.remaining()];
+                b.duplicate().get(bytes);
+                this.generator.writeBinary(bytes);
+            }
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        return afterValue();
     }
 
     /**
@@ -356,6 +417,109 @@ public class JSONWriter {
      * @throws JSONException If the value is out of sequence.
      */
     public JSONWriter value(Object o) throws JSONException {
-        return this.append(JSONObject.valueToString(o));
+        beforeValue();
+        try {
+            if (o == null || o.equals(JSONObject.NULL)) {
+                this.generator.writeNull();
+            } else if (o instanceof String) {
+                this.generator.writeString((String) o);
+            } else if (o instanceof Boolean) {
+                this.generator.writeBoolean((Boolean) o);
+            } else if (o instanceof Integer || o instanceof Long
+                    || o instanceof Short || o instanceof Byte) {
+                this.generator.writeNumber(((Number) o).longValue());
+            } else if (o instanceof BigInteger) {
+                this.generator.writeNumber((BigInteger) o);
+            } else if (o instanceof BigDecimal) {
+                this.generator.writeNumber((BigDecimal) o);
+            } else if (o instanceof Number) {
+                // Doubles and floats are checked for finiteness, and keep
+                // their legacy format, without trailing zeros
+                this.generator.writeNumber(JSONObject.numberToString((Number) o));
+            } else {
+                // JSONObject, JSONArray, JSONString, maps and collections
+                this.generator.writeRawValue(JSONObject.valueToString(o));
+            }
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        return afterValue();
+    }
+
+    /**
+     * The escapes of {@link JSONObject#quote(String)} that Jackson's standard
+     * escapes lack: U+0080 to U+009F, and lower case hex digits for the
+     * control characters without a short escape.
+     */
+    private static final class QuoteEscapes extends CharacterEscapes {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] asciiEscapes;
+        private final SerializableString[] sequences = new SerializableString['\u00a0'];
+
+        QuoteEscapes() {
+            asciiEscapes = standardAsciiEscapesForJSON();
+            for (int c = 0; c < sequences.length; c++) {
+                if (c < ' ' ? asciiEscapes[c] == ESCAPE_STANDARD : c >= '\u0080') {
+                    String hex = Integer.toHexString(c);
+                    sequences[c] = new SerializedString("\\u" + "0000".substring(hex.length()) + hex);
+                    if (c < ' ') {
+                        asciiEscapes[c] = ESCAPE_CUSTOM;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public int[] getEscapeCodesForAscii() {
+            return asciiEscapes;
+        }
+
+        @Override
+        public SerializableString getEscapeSequence(int ch) {
+            return ch < sequences.length ? sequences[ch] : null;
+        }
+    }
+
+    /**
+     * Escapes the slash of every "&lt;/" written through it. A '&lt;' only
+     * ever appears within strings in the generated text, so no tracking of
+     * the generator's state is needed.
+     */
+    private static final class SlashEscapingWriter extends Writer {
+        private final Writer out;
+        private boolean afterLessThan;
+
+        SlashEscapingWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            int start = off;
+            int end = off + len;
+            for (int i = off; i < end; i++) {
+                char c = cbuf[i];
+                if (c == '/' && (i > off ? cbuf[i - 1] == '<' : afterLessThan)) {
+                    out.write(cbuf, start, i - start);
+                    out.write('\\');
+                    start = i;
+                }
+            }
+            out.write(cbuf, start, end - start);
+            if (len > 0) {
+                afterLessThan = cbuf[end - 1] == '<';
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
     }
 }
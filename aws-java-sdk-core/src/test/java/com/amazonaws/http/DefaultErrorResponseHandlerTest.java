@@ -0,0 +1,198 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.w3c.dom.Node;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonServiceException.ErrorType;
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.transform.LegacyErrorUnmarshaller;
+import com.amazonaws.transform.StandardErrorUnmarshaller;
+import com.amazonaws.transform.Unmarshaller;
+import com.amazonaws.util.StringInputStream;
+import com.amazonaws.util.XpathUtils;
+
+public class DefaultErrorResponseHandlerTest {
+
+    private static final String STANDARD_ERROR =
+            "<ErrorResponse xmlns=\"http://example.com/doc/\">"
+            + "<Error><Type>Sender</Type><Code>Throttling</Code>"
+            + "<Message> Rate exceeded </Message><Detail/></Error>"
+            + "<RequestId>req-1</RequestId>"
+            + "</ErrorResponse>";
+
+    private static final String LEGACY_ERROR =
+            "<Response><Errors><Error><Code>RequestLimitExceeded</Code>"
+            + "<Message>Request limit exceeded.</Message></Error></Errors>"
+            + "<RequestID>req-2</RequestID></Response>";
+
+    public static class ThrottlingException extends AmazonServiceException {
+        private static final long serialVersionUID = 1L;
+        private String detail;
+
+        public ThrottlingException(String message) {
+            super(message);
+        }
+    }
+
+    public static class OtherException extends AmazonServiceException {
+        private static final long serialVersionUID = 1L;
+
+        public OtherException(String message) {
+            super(message);
+        }
+    }
+
+    private static class CodedUnmarshaller extends StandardErrorUnmarshaller {
+        CodedUnmarshaller(Class<? extends AmazonServiceException> exceptionClass, String code) {
+            super(exceptionClass, code);
+        }
+    }
+
+    private static class LegacyCodedUnmarshaller extends LegacyErrorUnmarshaller {
+        LegacyCodedUnmarshaller(Class<? extends AmazonServiceException> exceptionClass, String code) {
+            super(exceptionClass, code);
+        }
+    }
+
+    /** Reads a further member of the error, from the DOM */
+    private static class DetailUnmarshaller extends StandardErrorUnmarshaller {
+        DetailUnmarshaller() {
+            super(ThrottlingException.class, "Throttling");
+        }
+
+        @Override
+        public AmazonServiceException unmarshall(Node node) throws Exception {
+            ThrottlingException e = (ThrottlingException) super.unmarshall(node);
+            if (e != null) {
+                e.detail = XpathUtils.asString(getErrorPropertyPath("Detail"), node);
+            }
+            return e;
+        }
+    }
+
+    @Test
+    public void standardError_UnmarshalledByItsCode() throws Exception {
+        AmazonServiceException ase = handle(STANDARD_ERROR,
+                new CodedUnmarshaller(OtherException.class, "Other"),
+                new CodedUnmarshaller(ThrottlingException.class, "Throttling"),
+                new StandardErrorUnmarshaller());
+
+        assertEquals(ThrottlingException.class, ase.getClass());
+        assertEquals("Throttling", ase.getErrorCode());
+        assertEquals("Rate exceeded", ase.getErrorMessage());
+        assertEquals("req-1", ase.getRequestId());
+        assertEquals(ErrorType.Client, ase.getErrorType());
+        assertEquals(400, ase.getStatusCode());
+    }
+
+    @Test
+    public void standardError_UnknownCode_UnmarshalledByCatchAll() throws Exception {
+        AmazonServiceException ase = handle(STANDARD_ERROR,
+                new CodedUnmarshaller(OtherException.class, "Other"),
+                new StandardErrorUnmarshaller());
+
+        assertEquals(AmazonServiceException.class, ase.getClass());
+        assertEquals("Throttling", ase.getErrorCode());
+        assertEquals("req-1", ase.getRequestId());
+    }
+
+    @Test
+    public void legacyError_UnmarshalledByItsCode() throws Exception {
+        AmazonServiceException ase = handle(LEGACY_ERROR,
+                new CodedUnmarshaller(OtherException.class, "RequestLimitExceeded"),
+                new LegacyCodedUnmarshaller(ThrottlingException.class, "RequestLimitExceeded"),
+                new LegacyErrorUnmarshaller());
+
+        assertEquals(ThrottlingException.class, ase.getClass());
+        assertEquals("RequestLimitExceeded", ase.getErrorCode());
+        assertEquals("Request limit exceeded.", ase.getErrorMessage());
+        assertEquals("req-2", ase.getRequestId());
+        assertEquals(ErrorType.Unknown, ase.getErrorType());
+    }
+
+    @Test
+    public void standardCatchAll_LegacyError_UnmarshalledWithoutFields() throws Exception {
+        AmazonServiceException ase = handle(LEGACY_ERROR, new StandardErrorUnmarshaller());
+
+        assertEquals(AmazonServiceException.class, ase.getClass());
+        assertNull(ase.getErrorCode());
+        assertNull(ase.getRequestId());
+    }
+
+    @Test
+    public void overriddenUnmarshaller_IsGivenTheDocument() throws Exception {
+        AmazonServiceException ase = handle(STANDARD_ERROR,
+                new DetailUnmarshaller(),
+                new StandardErrorUnmarshaller());
+
+        assertEquals(ThrottlingException.class, ase.getClass());
+        assertEquals("", ((ThrottlingException) ase).detail);
+        assertEquals("Rate exceeded", ase.getErrorMessage());
+    }
+
+    @Test
+    public void otherUnmarshallers_AreTriedInOrder() throws Exception {
+        Unmarshaller<AmazonServiceException, Node> byRequestId = new Unmarshaller<AmazonServiceException, Node>() {
+            @Override
+            public AmazonServiceException unmarshall(Node in) throws Exception {
+                String requestId = XpathUtils.asString("ErrorResponse/RequestId", in);
+                return "req-1".equals(requestId) ? new OtherException("by request id") : null;
+            }
+        };
+        AmazonServiceException ase = handle(STANDARD_ERROR,
+                byRequestId,
+                new CodedUnmarshaller(ThrottlingException.class, "Throttling"));
+
+        assertEquals(OtherException.class, ase.getClass());
+
+        ase = handle(STANDARD_ERROR,
+                new CodedUnmarshaller(ThrottlingException.class, "Throttling"),
+                byRequestId);
+
+        assertEquals(ThrottlingException.class, ase.getClass());
+    }
+
+    @Test
+    public void malformedError_ReturnsGenericException() throws Exception {
+        AmazonServiceException ase = handle("<ErrorResponse><Error>",
+                new StandardErrorUnmarshaller());
+
+        assertTrue(ase.getErrorMessage().startsWith("Unable to unmarshall error response"));
+        assertEquals("400 Bad Request", ase.getErrorCode());
+    }
+
+    private static AmazonServiceException handle(String content,
+            Unmarshaller<AmazonServiceException, Node>... unmarshallers) throws Exception {
+        HttpResponse response = new HttpResponse(new DefaultRequest<String>("someService"), null);
+        response.setContent(new StringInputStream(content));
+        response.setStatusCode(400);
+        response.setStatusText("Bad Request");
+
+        List<Unmarshaller<AmazonServiceException, Node>> unmarshallerList =
+                new ArrayList<Unmarshaller<AmazonServiceException, Node>>(Arrays.asList(unmarshallers));
+        return new DefaultErrorResponseHandler(unmarshallerList).handle(response);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.transform.JsonErrorUnmarshaller;
+import com.amazonaws.util.StringInputStream;
+import com.amazonaws.util.json.JSONObject;
+
+public class JsonErrorResponseHandlerTest {
+
+    /**
+     * Records the modeled member "Type" besides the code and message, as the
+     * generated unmarshallers do.
+     */
+    private static class TypeRecordingUnmarshaller extends JsonErrorUnmarshaller {
+        private String type;
+
+        @Override
+        public AmazonServiceException unmarshall(JSONObject json) throws Exception {
+            AmazonServiceException ase = super.unmarshall(json);
+            type = parseMember("Type", json);
+            return ase;
+        }
+    }
+
+    private static HttpResponse response(String content) throws Exception {
+        HttpResponse response = new HttpResponse(new DefaultRequest<String>("someService"), null);
+        response.setStatusCode(400);
+        response.setContent(new StringInputStream(content));
+        return response;
+    }
+
+    @Test
+    public void testNestedMembersAreSkipped() throws Exception {
+        TypeRecordingUnmarshaller unmarshaller = new TypeRecordingUnmarshaller();
+        JsonErrorResponseHandler handler = new JsonErrorResponseHandler(Arrays.asList(unmarshaller));
+
+        AmazonServiceException ase = handler.handle(response(
+                "{\"details\":{\"message\":\"nested\",\"list\":[1,{\"__type\":\"Nested\"}]},"
+                + "\"__type\":\"com.amazonaws#ResourceNotFoundException\","
+                + "\"Type\":\"User\",\"items\":[[]],\"message\":\"Not found\",\"count\":3}"));
+
+        assertEquals("ResourceNotFoundException", ase.getErrorCode());
+        assertEquals("Not found", ase.getErrorMessage());
+        assertEquals("User", unmarshaller.type);
+    }
+
+    @Test
+    public void testMalformedContentIsRejected() throws Exception {
+        JsonErrorResponseHandler handler = new JsonErrorResponseHandler(
+                Arrays.asList(new JsonErrorUnmarshaller()));
+        try {
+            handler.handle(response("{\"__type\":\"Error\",\"details\":{]}"));
+            fail("Expected an AmazonClientException for the malformed content");
+        } catch (AmazonClientException expected) {
+        }
+    }
+}
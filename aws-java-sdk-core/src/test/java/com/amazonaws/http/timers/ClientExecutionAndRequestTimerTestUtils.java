@@ -21,6 +21,7 @@ package com.amazonaws.http.timers;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -34,7 +35,6 @@ import java.util.concurrent.TimeUnit;
 import org.apache.http.ProtocolVersion;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpRequestBase;
-import org.apache.http.entity.BufferedHttpEntity;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.message.BasicHttpResponse;
 import org.apache.http.message.BasicStatusLine;
@@ -46,6 +46,7 @@ import com.amazonaws.http.AmazonHttpClient;
 import com.amazonaws.http.ExecutionContext;
 import com.amazonaws.http.HttpClientFactory;
 import com.amazonaws.http.HttpMethodName;
+import com.amazonaws.http.PooledBufferedHttpEntity;
 import com.amazonaws.http.request.EmptyHttpRequest;
 import com.amazonaws.http.response.HttpResponseProxy;
 import com.amazonaws.http.response.NullErrorResponseHandler;
@@ -90,7 +91,7 @@ public class ClientExecutionAndRequestTimerTestUtils {
      *            Must by a spied {@link HttpResponseProxy}
      */
     public static void assertResponseIsBuffered(HttpResponseProxy responseProxy) {
-        verify(responseProxy).setEntity(any(BufferedHttpEntity.class));
+        verify(responseProxy).setEntity(isA(PooledBufferedHttpEntity.class));
     }
 
     /**
@@ -101,7 +102,7 @@ public class ClientExecutionAndRequestTimerTestUtils {
      *            Must by a spied {@link HttpResponseProxy}
      */
     public static void assertResponseWasNotBuffered(HttpResponseProxy responseProxy) {
-        verify(responseProxy, never()).setEntity(any(BufferedHttpEntity.class));
+        verify(responseProxy, never()).setEntity(any(PooledBufferedHttpEntity.class));
     }
 
     /**
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class BufferPoolTest {
+
+    @Test
+    public void acquire_RoundsUpToSizeClass() {
+        BufferPool pool = new BufferPool(false, 1024 * 1024, true);
+        assertEquals(BufferPool.MIN_POOLED_SIZE, pool.acquire(1).length);
+        assertEquals(4096, pool.acquire(4096).length);
+        assertEquals(8192, pool.acquire(4097).length);
+        assertEquals(BufferPool.MAX_POOLED_SIZE + 1, pool.acquire(BufferPool.MAX_POOLED_SIZE + 1).length);
+        assertEquals(4, pool.getOutstandingCount());
+    }
+
+    @Test
+    public void release_ReusesBuffers() {
+        BufferPool pool = new BufferPool(false, 1024 * 1024, true);
+        byte[] array = pool.acquire(3000);
+        pool.release(array);
+        assertEquals(4096, pool.getFreeBytes());
+        assertSame(array, pool.acquire(4000));
+        assertEquals(1, pool.getHitCount());
+        assertEquals(2, pool.getAcquireCount());
+        assertEquals(1, pool.getMissCount());
+
+        ByteBuffer buffer = pool.acquireBuffer(100);
+        assertEquals(100, buffer.remaining());
+        buffer.position(50);
+        pool.releaseBuffer(buffer);
+        ByteBuffer reused = pool.acquireBuffer(200);
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(200, reused.limit());
+    }
+
+    @Test
+    public void release_BoundsFreeBytesPerClass() {
+        BufferPool pool = new BufferPool(false, 8192, false);
+        byte[][] arrays = new byte[3][];
+        for (int i = 0; i < arrays.length; i++) {
+            arrays[i] = pool.acquire(4096);
+        }
+        for (byte[] array : arrays) {
+            pool.release(array);
+        }
+        assertEquals(8192, pool.getFreeBytes());
+        assertEquals(0, pool.getOutstandingCount());
+    }
+
+    @Test
+    public void acquireBuffer_AllocatesDirectBuffers() {
+        BufferPool pool = new BufferPool(true, 1024 * 1024, false);
+        assertTrue(pool.acquireBuffer(10).isDirect());
+        assertFalse(new BufferPool(false, 1024 * 1024, false).allocate(10).isDirect());
+    }
+
+    @Test
+    public void leakDetection_TracksOutstandingBuffers() {
+        BufferPool pool = new BufferPool(false, 1024 * 1024, true);
+        byte[] released = pool.acquire(10);
+        pool.acquire(10);
+        pool.release(released);
+        assertEquals(1, pool.getLeaks().size());
+
+        try {
+            pool.release(released);
+            fail("Expected double releases to be rejected");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            pool.release(new byte[512]);
+            fail("Expected foreign buffers to be rejected");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void sdkBufferedInputStream_ReturnsBufferOnClose() throws Exception {
+        BufferPool pool = new BufferPool(false, 1024 * 1024, true);
+        SdkBufferedInputStream in = new SdkBufferedInputStream(
+                new ByteArrayInputStream(new byte[] { 1, 2, 3 }), 8192, pool);
+        in.mark(100);
+        assertEquals(1, in.read());
+        in.reset();
+        assertEquals(1, in.read());
+        assertEquals(1, pool.getOutstandingCount());
+
+        in.close();
+        in.close();
+        assertEquals(0, pool.getOutstandingCount());
+        assertTrue(pool.getLeaks().isEmpty());
+
+        byte[] next = pool.acquire(8192);
+        assertNotSame(null, next);
+        assertEquals(1, pool.getHitCount());
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.paginators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonWebServiceRequest;
+
+public class PaginatorTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void items_FlattensAllPagesLazily() {
+        TestFetcher fetcher = new TestFetcher(3, 2);
+        Iterator<String> items = new Paginator<ListThingsResult, String>(fetcher).items().iterator();
+
+        assertEquals(0, fetcher.fetches.get());
+        assertEquals("0-0", items.next());
+        assertEquals(1, fetcher.fetches.get());
+        assertEquals(Arrays.asList("0-1", "1-0", "1-1", "2-0", "2-1"), drain(items));
+        assertEquals(3, fetcher.fetches.get());
+    }
+
+    @Test
+    public void iterator_SetsTokensOnClonesOfTheFirstRequest() {
+        ListThingsRequest request = new ListThingsRequest();
+        TestFetcher fetcher = new TestFetcher(request, 3, 1);
+        List<ListThingsResult> pages = new ArrayList<ListThingsResult>();
+        for (ListThingsResult page : new Paginator<ListThingsResult, String>(fetcher)) {
+            pages.add(page);
+        }
+
+        assertEquals(3, pages.size());
+        assertEquals(Arrays.asList(null, "1", "2"), fetcher.tokens);
+        assertNull(request.getNextToken());
+    }
+
+    @Test
+    public void prefetch_ReturnsPagesInOrder() {
+        TestFetcher fetcher = new TestFetcher(10, 3);
+        Paginator<ListThingsResult, String> paginator =
+                new Paginator<ListThingsResult, String>(fetcher).withPrefetch(executor, 3);
+
+        List<String> items = drain(paginator.items().iterator());
+        assertEquals(30, items.size());
+        for (int i = 0; i < 30; i++) {
+            assertEquals((i / 3) + "-" + (i % 3), items.get(i));
+        }
+        assertEquals(10, fetcher.fetches.get());
+    }
+
+    @Test
+    public void prefetch_FetchesBoundedNumberOfPagesAhead() throws Exception {
+        TestFetcher fetcher = new TestFetcher(10, 1);
+        Iterator<ListThingsResult> pages =
+                new Paginator<ListThingsResult, String>(fetcher).withPrefetch(executor, 2).iterator();
+
+        pages.next();
+        Thread.sleep(200);
+        assertEquals(3, fetcher.fetches.get());
+    }
+
+    @Test
+    public void prefetch_HandlesSinglePage() {
+        Iterator<ListThingsResult> pages = new Paginator<ListThingsResult, String>(new TestFetcher(1, 1))
+                .withPrefetch(executor, 4).iterator();
+        assertTrue(pages.hasNext());
+        pages.next();
+        assertFalse(pages.hasNext());
+    }
+
+    @Test
+    public void prefetch_RethrowsFetchFailures() {
+        final AmazonServiceException failure = new AmazonServiceException("boom");
+        TestFetcher fetcher = new TestFetcher(5, 1) {
+            @Override
+            protected ListThingsResult fetch(ListThingsRequest pageRequest) {
+                if ("2".equals(pageRequest.getNextToken())) {
+                    throw failure;
+                }
+                return super.fetch(pageRequest);
+            }
+        };
+        Iterator<ListThingsResult> pages =
+                new Paginator<ListThingsResult, String>(fetcher).withPrefetch(executor, 3).iterator();
+
+        pages.next();
+        pages.next();
+        try {
+            pages.next();
+            fail("Expected the failure of the third page");
+        } catch (AmazonServiceException e) {
+            assertSame(failure, e);
+        }
+        assertFalse(pages.hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tokenPageFetcher_RejectsUnknownProperties() {
+        new TokenPageFetcher<ListThingsRequest, ListThingsResult, String>(
+                new ListThingsRequest(), ListThingsResult.class, "Marker", "NextToken", "Things") {
+            @Override
+            protected ListThingsResult fetch(ListThingsRequest pageRequest) {
+                return null;
+            }
+        };
+    }
+
+    private static <T> List<T> drain(Iterator<T> iterator) {
+        List<T> list = new ArrayList<T>();
+        while (iterator.hasNext()) {
+            list.add(iterator.next());
+        }
+        return list;
+    }
+
+    /**
+     * Serves pages of numbered items, the token of each page being its
+     * number.
+     */
+    private static class TestFetcher extends TokenPageFetcher<ListThingsRequest, ListThingsResult, String> {
+        private final int pageCount;
+        private final int pageSize;
+        final AtomicInteger fetches = new AtomicInteger();
+        final List<String> tokens = new ArrayList<String>();
+
+        TestFetcher(int pageCount, int pageSize) {
+            this(new ListThingsRequest(), pageCount, pageSize);
+        }
+
+        TestFetcher(ListThingsRequest request, int pageCount, int pageSize) {
+            super(request, ListThingsResult.class, "NextToken", "NextToken", "Things");
+            this.pageCount = pageCount;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        protected ListThingsResult fetch(ListThingsRequest pageRequest) {
+            fetches.incrementAndGet();
+            synchronized (tokens) {
+                tokens.add(pageRequest.getNextToken());
+            }
+            int page = pageRequest.getNextToken() == null ? 0 : Integer.parseInt(pageRequest.getNextToken());
+            ListThingsResult result = new ListThingsResult();
+            for (int i = 0; i < pageSize; i++) {
+                result.getThings().add(page + "-" + i);
+            }
+            if (page + 1 < pageCount) {
+                result.setNextToken(String.valueOf(page + 1));
+            }
+            return result;
+        }
+    }
+
+    public static class ListThingsRequest extends AmazonWebServiceRequest {
+        private String nextToken;
+
+        public String getNextToken() {
+            return nextToken;
+        }
+
+        public void setNextToken(String nextToken) {
+            this.nextToken = nextToken;
+        }
+    }
+
+    public static class ListThingsResult {
+        private final List<String> things = new ArrayList<String>();
+        private String nextToken;
+
+        public List<String> getThings() {
+            return things;
+        }
+
+        public String getNextToken() {
+            return nextToken;
+        }
+
+        public void setNextToken(String nextToken) {
+            this.nextToken = nextToken;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.shards;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.Test;
+
+public class FileCheckpointStoreTest {
+
+    private static final String STREAM_ID = "arn:stream";
+
+    @Test
+    public void testCheckpointsSurviveReload() throws Exception {
+        File file = File.createTempFile("checkpoints", ".properties");
+        file.deleteOnExit();
+        assertTrue(file.delete());
+
+        FileCheckpointStore store = new FileCheckpointStore(file);
+        assertNull(store.getCheckpoint(STREAM_ID, "shard"));
+        store.setCheckpoint(STREAM_ID, "shard", "123");
+        store.setCheckpoint(STREAM_ID, "shard", "456");
+        store.setCheckpoint(STREAM_ID, "other", CheckpointStore.SHARD_END);
+
+        FileCheckpointStore reloaded = new FileCheckpointStore(file);
+        assertEquals("456", reloaded.getCheckpoint(STREAM_ID, "shard"));
+        assertEquals(CheckpointStore.SHARD_END, reloaded.getCheckpoint(STREAM_ID, "other"));
+        assertNull(reloaded.getCheckpoint("arn:other", "shard"));
+    }
+}
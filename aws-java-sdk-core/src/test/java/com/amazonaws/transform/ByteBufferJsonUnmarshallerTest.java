@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.transform;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.amazonaws.transform.SimpleTypeJsonUnmarshallers.ByteBufferJsonUnmarshaller;
+import com.amazonaws.util.ByteBufferAllocator;
+import com.amazonaws.util.json.JSONWriter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonToken;
+
+public class ByteBufferJsonUnmarshallerTest {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Test
+    public void unmarshall_ValueWrittenByJsonWriter_RoundTrips() throws Exception {
+        byte[] data = new byte[100000];
+        new Random(1).nextBytes(data);
+
+        StringWriter json = new StringWriter();
+        new JSONWriter(json).object().key("Data").value(ByteBuffer.wrap(data)).endObject();
+
+        ByteBuffer buffer = ByteBufferJsonUnmarshaller.getInstance()
+                .unmarshall(contextAtValue(json.toString()));
+        assertEquals(0, buffer.position());
+        assertEquals(data.length, buffer.remaining());
+        assertEquals(data.length, buffer.capacity());
+        assertArrayEquals(data, buffer.array());
+    }
+
+    @Test
+    public void unmarshall_WithAllocator_DecodesIntoAllocatedBuffer() throws Exception {
+        final ByteBuffer pool = ByteBuffer.allocateDirect(64);
+        pool.position(10);
+        ByteBufferJsonUnmarshaller unmarshaller = new ByteBufferJsonUnmarshaller(
+                new ByteBufferAllocator() {
+                    @Override
+                    public ByteBuffer allocate(int size) {
+                        return pool;
+                    }
+                });
+
+        ByteBuffer buffer = unmarshaller.unmarshall(contextAtValue("{\"Data\":\"Zm9vYmFy\"}"));
+        assertEquals(10, buffer.position());
+        assertEquals(16, buffer.limit());
+        byte[] decoded = new byte[6];
+        buffer.get(decoded);
+        assertArrayEquals("foobar".getBytes("UTF-8"), decoded);
+    }
+
+    @Test
+    public void unmarshall_NullValue_ReturnsNull() throws Exception {
+        assertNull(ByteBufferJsonUnmarshaller.getInstance()
+                .unmarshall(contextAtValue("{\"Data\":null}")));
+    }
+
+    @Test
+    public void unmarshall_EmptyValue_ReturnsEmptyBuffer() throws Exception {
+        assertEquals(0, ByteBufferJsonUnmarshaller.getInstance()
+                .unmarshall(contextAtValue("{\"Data\":\"\"}")).remaining());
+    }
+
+    private static JsonUnmarshallerContext contextAtValue(String json) throws Exception {
+        JsonUnmarshallerContext context = new JsonUnmarshallerContextImpl(
+                JSON_FACTORY.createParser(json));
+        JsonToken token;
+        do {
+            token = context.nextToken();
+        } while (token != JsonToken.VALUE_STRING && token != JsonToken.VALUE_NULL);
+        return context;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.events.XMLEvent;
+
+import org.junit.Test;
+
+public class StaxUnmarshallerContextTest {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    private static final String RESPONSE =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<DescribeThingsResponse xmlns=\"http://example.com/doc/\">\n"
+            + "  <!-- comment -->\n"
+            + "  <requestId>req-1</requestId>\n"
+            + "  <things>\n"
+            + "    <item id=\"a\">\n"
+            + "      <name>first &amp; <![CDATA[<only>]]></name>\n"
+            + "      <empty/>\n"
+            + "    </item>\n"
+            + "    <item id=\"b\"><name>second</name></item>\n"
+            + "  </things>\n"
+            + "</DescribeThingsResponse>";
+
+    @Test
+    public void streamReader_MatchesEventReader() throws Exception {
+        assertEquals(trace(eventContext()), trace(streamContext()));
+    }
+
+    @Test
+    public void streamReader_ReadsTextAndAttributes() throws Exception {
+        List<String> trace = trace(streamContext());
+        assertTrue(trace.contains("name@4=first & <only>"));
+        assertTrue(trace.contains("empty@4="));
+        assertTrue(trace.contains("@id@3=a"));
+        assertTrue(trace.contains("name@4=second"));
+    }
+
+    @Test
+    public void streamReader_CollectsMetadata() throws Exception {
+        StaxUnmarshallerContext context = streamContext();
+        context.registerMetadataExpression("requestId", 2, "RequestId");
+        List<String> trace = trace(context);
+        assertEquals("req-1", context.getMetadata().get("RequestId"));
+        // The text of the element is still there for the unmarshallers
+        assertTrue(trace.contains("requestId@2=req-1"));
+    }
+
+    @Test
+    public void testExpression_MatchesPathFromStartingDepth() throws Exception {
+        StaxUnmarshallerContext context = streamContext();
+        assertTrue(context.isStartOfDocument());
+        while (!context.nextEvent().isAttribute()) {
+            assertFalse(context.isStartOfDocument());
+        }
+        assertTrue(context.testExpression("things/item/@id", 2));
+        assertTrue(context.testExpression("item/@id", 3));
+        assertTrue(context.testExpression("@id", 3));
+        assertTrue(context.testExpression("@id"));
+        assertTrue(context.testExpression("."));
+        assertFalse(context.testExpression("item/@id", 2));
+        assertFalse(context.testExpression("item/@name", 3));
+        assertFalse(context.testExpression("item", 3));
+        assertEquals(3, context.getCurrentDepth());
+        assertEquals("a", context.readText());
+    }
+
+    private StaxUnmarshallerContext eventContext() throws Exception {
+        return new StaxUnmarshallerContext(XML_INPUT_FACTORY.createXMLEventReader(new StringReader(RESPONSE)));
+    }
+
+    private StaxUnmarshallerContext streamContext() throws Exception {
+        return new StaxUnmarshallerContext(XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(RESPONSE)),
+                null);
+    }
+
+    /**
+     * Walks the document the way generated unmarshallers do, recording the
+     * text of the leaf elements and attributes matched.
+     */
+    private static List<String> trace(StaxUnmarshallerContext context) throws Exception {
+        String[] leaves = { "requestId", "name", "empty", "@id" };
+        List<String> trace = new ArrayList<String>();
+        while (true) {
+            XMLEvent event = context.nextEvent();
+            if (event.isEndDocument()) {
+                return trace;
+            }
+            if (event.isStartElement() || event.isAttribute()) {
+                int depth = context.getCurrentDepth();
+                for (String leaf : leaves) {
+                    if (context.testExpression(leaf, depth)) {
+                        trace.add(leaf + "@" + depth + "=" + context.readText());
+                    }
+                }
+                if (context.testExpression("things/item", depth - 1)) {
+                    trace.add("item@" + depth);
+                }
+            } else if (event.isEndElement()) {
+                trace.add("end@" + context.getCurrentDepth());
+            }
+        }
+    }
+}
@@ -19,9 +19,11 @@
 package com.amazonaws.util;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.Random;
 import java.util.UUID;
 
 import org.junit.Assert;
@@ -92,4 +94,64 @@ public class Base64CodecTest
             }
         }
     }
+
+    @Test
+    public void testCharDecodingMatchesStringDecoding() {
+        Random random = new Random(42);
+        for (int length = 0; length < 300; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            char[] b64 = Base64.encodeAsString(data).toCharArray();
+
+            ByteBuffer heap = ByteBuffer.allocate(Base64.decodedLength(b64, 0, b64.length));
+            Assert.assertEquals(length, heap.remaining());
+            Assert.assertEquals(length, Base64.decode(b64, 0, b64.length, heap));
+            Assert.assertArrayEquals(data, heap.array());
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(length);
+            Base64.decode(b64, 0, b64.length, direct);
+            direct.flip();
+            byte[] decoded = new byte[direct.remaining()];
+            direct.get(decoded);
+            Assert.assertArrayEquals(data, decoded);
+        }
+    }
+
+    @Test
+    public void testCharDecodingIntoLargeDirectBuffer() {
+        byte[] data = new byte[100000];
+        new Random(7).nextBytes(data);
+        char[] b64 = Base64.encodeAsString(data).toCharArray();
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        Assert.assertEquals(data.length, Base64.decode(b64, 0, b64.length, direct));
+        direct.flip();
+        byte[] decoded = new byte[data.length];
+        direct.get(decoded);
+        Assert.assertArrayEquals(data, decoded);
+    }
+
+    @Test
+    public void testCharDecodingOfSubrangeWithWhitespace() throws UnsupportedEncodingException {
+        char[] b64 = "xxZm9v\r\nYmE=  yy".toCharArray();
+        int size = Base64.decodedLength(b64, 2, b64.length - 4);
+        Assert.assertTrue(size >= 5);
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        Assert.assertEquals(5, Base64.decode(b64, 2, b64.length - 4, buffer));
+        Assert.assertEquals("fooba", new String(buffer.array(), 0, 5, "UTF-8"));
+    }
+
+    @Test
+    public void testCharDecodingImpossibleCases() {
+        final String[] cases = {
+            "ZE==", "ZmC=", "Zm9vYE==", "Zm9vYmC=", "Zm9", "Z===", "Zg==Zg==", "Zm9v!A==",
+        };
+        for (String s : cases) {
+            try {
+                Base64.decode(s.toCharArray(), 0, s.length(), ByteBuffer.allocate(16));
+                Assert.fail(s);
+            } catch (IllegalArgumentException ex) {
+                // expected
+            }
+        }
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Random;
+
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.junit.Test;
+
+public class DateCodecTest {
+
+    private static final DateTimeFormatter COMPRESSED_ISO_8601 =
+            DateTimeFormat.forPattern("yyyyMMdd'T'HHmmss'Z'").withZoneUTC();
+
+    private static final DateTimeFormatter DATE_STAMP =
+            DateTimeFormat.forPattern("yyyyMMdd").withZoneUTC();
+
+    /** 0001-01-01T00:00:00.000Z to 9999-12-31T23:59:59.999Z */
+    private static final long MIN_MILLIS = -62135596800000L;
+    private static final long MAX_MILLIS = 253402300799999L;
+
+    @Test
+    public void format_MatchesJodaTime() {
+        Random random = new Random(42);
+        long[] fixed = { 0, -1, 1, 951782400000L, 951868799999L, 1408378076135L,
+                MIN_MILLIS, MAX_MILLIS };
+        for (int i = 0; i < 100000 + fixed.length; i++) {
+            long millis = i < fixed.length ? fixed[i]
+                    : MIN_MILLIS + (long) (random.nextDouble() * (MAX_MILLIS - MIN_MILLIS));
+            assertEquals(DateUtils.iso8601DateFormat.print(millis), DateCodec.formatISO8601(millis));
+            assertEquals(DateUtils.rfc822DateFormat.print(millis), DateCodec.formatRFC822(millis));
+            assertEquals(COMPRESSED_ISO_8601.print(millis), DateCodec.formatCompressedISO8601(millis));
+            assertEquals(DATE_STAMP.print(millis), DateCodec.formatDateStamp(millis));
+        }
+    }
+
+    @Test
+    public void parse_RoundTrips() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            long millis = MIN_MILLIS + (long) (random.nextDouble() * (MAX_MILLIS - MIN_MILLIS));
+            assertEquals(millis, DateCodec.parseISO8601(DateCodec.formatISO8601(millis)));
+            assertEquals(millis - ((millis % 1000) + 1000) % 1000,
+                    DateCodec.parseRFC822(DateCodec.formatRFC822(millis)));
+            assertEquals(millis - ((millis % 1000) + 1000) % 1000,
+                    DateCodec.parseCompressedISO8601(DateCodec.formatCompressedISO8601(millis)));
+        }
+    }
+
+    @Test
+    public void parseISO8601_Variants() {
+        long expected = DateUtils.iso8601DateFormat.parseMillis("2014-03-06T14:28:58.000Z");
+        assertEquals(expected, DateCodec.parseISO8601("2014-03-06T14:28:58Z"));
+        assertEquals(expected, DateCodec.parseISO8601("2014-03-06T14:28:58+0000"));
+        assertEquals(expected, DateCodec.parseISO8601("2014-03-06T14:28:58.000+0000"));
+        assertEquals(expected + 100, DateCodec.parseISO8601("2014-03-06T14:28:58.1Z"));
+        assertEquals(expected + 123, DateCodec.parseISO8601("2014-03-06T14:28:58.123456789Z"));
+        assertEquals(DateUtils.iso8601DateFormat.parseMillis("2014-03-06T14:28:58.000-07:30"),
+                DateCodec.parseISO8601("2014-03-06T14:28:58.000-07:30"));
+    }
+
+    @Test
+    public void parse_UnhandledInput() {
+        String[] iso8601 = { null, "", "2014-03-06T14:28:58.000Z.000Z", "2014-02-30T14:28:58.000Z",
+                "2014-03-06T24:00:00.000Z", "2014-03-06 14:28:58.000Z", "2014-03-06T14:28:58.Z",
+                "2014-03-06T14:28:58+01:00", "2014-03-06T14:28:58.0000000000Z",
+                "292278994-08-17T07:12:55.807Z", "2014-03-06T14:28:58.000" };
+        for (String s : iso8601) {
+            assertEquals(s, DateCodec.UNPARSEABLE, DateCodec.parseISO8601(s));
+        }
+        String[] rfc822 = { null, "Thu, 16 May 2014 23:56:46 GMT", "Fri, 16 may 2014 23:56:46 GMT",
+                "Fri, 16 May 2014 23:56:46 UTC", "Fri, 6 May 2014 23:56:46 GMT" };
+        for (String s : rfc822) {
+            assertEquals(s, DateCodec.UNPARSEABLE, DateCodec.parseRFC822(s));
+        }
+        String[] epoch = { null, "", "-", ".", "1e9", "+1", " 1", "1234567890123456.1" };
+        for (String s : epoch) {
+            assertEquals(s, DateCodec.UNPARSEABLE, DateCodec.parseEpochSeconds(s));
+        }
+    }
+
+    @Test
+    public void format_OutOfRange_ReturnsNull() {
+        assertNull(DateCodec.formatISO8601(MIN_MILLIS - 1));
+        assertNull(DateCodec.formatRFC822(MAX_MILLIS + 1));
+        assertNull(DateCodec.formatCompressedISO8601(Long.MAX_VALUE));
+        assertNull(DateCodec.formatDateStamp(Long.MIN_VALUE));
+    }
+
+    @Test
+    public void epochSeconds_MatchesBigDecimal() {
+        Random random = new Random(3);
+        for (int i = 0; i < 100000; i++) {
+            long millis = i < 2 ? i - 1 : random.nextLong() >> random.nextInt(64);
+            String formatted = BigDecimal.valueOf(millis).scaleByPowerOfTen(-3).toPlainString();
+            assertEquals(formatted, DateCodec.formatEpochSeconds(millis));
+            if (Math.abs(millis) < 1000000000000000000L) {
+                assertEquals(millis, DateCodec.parseEpochSeconds(formatted));
+            }
+        }
+        String[] inputs = { "1408378076", "1408378076.1", "1408378076.13579", "-1.5", "-0.0005",
+                ".5", "5." };
+        for (String s : inputs) {
+            assertEquals(s, new BigDecimal(s).scaleByPowerOfTen(3).longValue(),
+                    DateCodec.parseEpochSeconds(s));
+        }
+    }
+
+    @Test
+    public void rfc822_UsesEnglishNames() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.FRANCE);
+        try {
+            assertEquals("Fri, 16 May 2014 23:56:46 GMT", DateCodec.formatRFC822(1400284606000L));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
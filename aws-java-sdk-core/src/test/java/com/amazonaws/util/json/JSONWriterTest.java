@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.util.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+public class JSONWriterTest {
+
+    @Test
+    public void testClosingTagIsEscaped() throws Exception {
+        StringWriter out = new StringWriter();
+        new JSONWriter(out).object()
+                .key("</key>").value("<script></script>")
+                .key("path").value("a/b <c/d")
+                .endObject();
+
+        assertEquals("{\"<\\/key>\":\"<script><\\/script>\",\"path\":\"a/b <c/d\"}",
+                out.toString());
+    }
+
+    @Test
+    public void testEscapingMatchesQuoteAcrossBufferBoundaries() throws Exception {
+        // Long enough for the generator to flush several times, with a "</"
+        // at every possible offset of the flushed chunks
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            sb.append(i % 3 == 0 ? "x</" : "<");
+        }
+        String value = sb.toString();
+
+        StringWriter out = new StringWriter();
+        new JSONWriter(out).array().value(value).endArray();
+
+        assertEquals("[" + JSONObject.quote(value) + "]", out.toString());
+    }
+
+    @Test
+    public void testControlAndC1CharactersAreEscapedAsByQuote() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (char c = 0; c < 0x300; c++) {
+            sb.append(c);
+        }
+        String value = sb.toString();
+
+        StringWriter out = new StringWriter();
+        new JSONWriter(out).object().key(value).value(value).endObject();
+
+        String quoted = JSONObject.quote(value);
+        assertEquals("{" + quoted + ":" + quoted + "}", out.toString());
+        assertTrue(quoted.contains("\\u0080") && quoted.contains("\\u009f")
+                && quoted.contains("\\u001f") && quoted.contains(" "));
+    }
+
+    @Test
+    public void testDuplicateKeyIsRejected() throws Exception {
+        JSONWriter writer = new JSONWriter(new StringWriter());
+        writer.object().key("a").value(1).key("b").value(2);
+        try {
+            writer.key("a");
+            fail("Expected a JSONException for the duplicate key");
+        } catch (JSONException expected) {
+        }
+    }
+
+    @Test
+    public void testSameKeyInDifferentObjectsIsAllowed() throws Exception {
+        StringWriter out = new StringWriter();
+        new JSONWriter(out).object()
+                .key("a").object().key("a").value(1).endObject()
+                .key("b").array()
+                        .object().key("a").value(2).endObject()
+                        .object().key("a").value(3).endObject()
+                        .endArray()
+                .endObject();
+
+        assertEquals("{\"a\":{\"a\":1},\"b\":[{\"a\":2},{\"a\":3}]}", out.toString());
+    }
+}
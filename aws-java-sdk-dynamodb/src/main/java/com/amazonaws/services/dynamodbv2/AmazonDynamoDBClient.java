@@ -1765,6 +1765,95 @@ public class AmazonDynamoDBClient extends AmazonWebServiceClient implements
                 .withProvisionedThroughput(provisionedThroughput));
     }
 
+    /**
+     * Executes a <i>GetItem</i> operation like
+     * {@link #getItem(GetItemRequest)}, but unmarshalls the returned item, if
+     * any, straight from the response with the specified item unmarshaller and
+     * adds it to the specified list, instead of building an attribute value map
+     * for it. The item of the returned result is left unset.
+     *
+     * @param getItemRequest
+     *        Represents the input of a <i>GetItem</i> operation.
+     * @param itemUnmarshaller
+     *        Unmarshalls the item from the JSON object holding its attributes.
+     * @param items
+     *        The list the item is added to.
+     * @return Result of the GetItem operation returned by the service, without
+     *         its item.
+     */
+    public <T> GetItemResult getItem(GetItemRequest getItemRequest,
+            Unmarshaller<T, JsonUnmarshallerContext> itemUnmarshaller,
+            List<? super T> items) {
+        GetItemResultItemsJsonUnmarshaller<T> unmarshaller =
+                new GetItemResultItemsJsonUnmarshaller<T>(itemUnmarshaller);
+        GetItemResult result = invokeStreaming(getItemRequest,
+                new GetItemRequestMarshaller(), unmarshaller);
+        // Only added once the whole response has been read, so a retried
+        // attempt does not leave a partial page behind.
+        if (unmarshaller.getItems() != null) {
+            items.addAll(unmarshaller.getItems());
+        }
+        return result;
+    }
+
+    /**
+     * Executes a <i>Query</i> operation like {@link #query(QueryRequest)}, but
+     * unmarshalls each returned item straight from the response with the
+     * specified item unmarshaller and adds it to the specified list, instead of
+     * building an attribute value map for it. The items of the returned result
+     * are left unset.
+     *
+     * @param queryRequest
+     *        Represents the input of a <i>Query</i> operation.
+     * @param itemUnmarshaller
+     *        Unmarshalls an item from the JSON object holding its attributes.
+     * @param items
+     *        The list the items are added to.
+     * @return Result of the Query operation returned by the service, without
+     *         its items.
+     */
+    public <T> QueryResult query(QueryRequest queryRequest,
+            Unmarshaller<T, JsonUnmarshallerContext> itemUnmarshaller,
+            List<? super T> items) {
+        QueryResultItemsJsonUnmarshaller<T> unmarshaller =
+                new QueryResultItemsJsonUnmarshaller<T>(itemUnmarshaller);
+        QueryResult result = invokeStreaming(queryRequest,
+                new QueryRequestMarshaller(), unmarshaller);
+        if (unmarshaller.getItems() != null) {
+            items.addAll(unmarshaller.getItems());
+        }
+        return result;
+    }
+
+    /**
+     * Executes a <i>Scan</i> operation like {@link #scan(ScanRequest)}, but
+     * unmarshalls each returned item straight from the response with the
+     * specified item unmarshaller and adds it to the specified list, instead of
+     * building an attribute value map for it. The items of the returned result
+     * are left unset.
+     *
+     * @param scanRequest
+     *        Represents the input of a <i>Scan</i> operation.
+     * @param itemUnmarshaller
+     *        Unmarshalls an item from the JSON object holding its attributes.
+     * @param items
+     *        The list the items are added to.
+     * @return Result of the Scan operation returned by the service, without
+     *         its items.
+     */
+    public <T> ScanResult scan(ScanRequest scanRequest,
+            Unmarshaller<T, JsonUnmarshallerContext> itemUnmarshaller,
+            List<? super T> items) {
+        ScanResultItemsJsonUnmarshaller<T> unmarshaller =
+                new ScanResultItemsJsonUnmarshaller<T>(itemUnmarshaller);
+        ScanResult result = invokeStreaming(scanRequest,
+                new ScanRequestMarshaller(), unmarshaller);
+        if (unmarshaller.getItems() != null) {
+            items.addAll(unmarshaller.getItems());
+        }
+        return result;
+    }
+
     /**
      * Returns additional metadata for a previously executed successful,
      * request, typically used for debugging issues where a service isn't acting
@@ -1788,6 +1877,49 @@ public class AmazonDynamoDBClient extends AmazonWebServiceClient implements
         return client.getResponseMetadataForRequest(request);
     }
 
+    /**
+     * Executes a request whose JSON response is read by the specified
+     * unmarshaller, returning its result.
+     */
+    private <X, Y extends AmazonWebServiceRequest> X invokeStreaming(
+            Y originalRequest, Marshaller<Request<Y>, Y> marshaller,
+            Unmarshaller<X, JsonUnmarshallerContext> unmarshaller) {
+        ExecutionContext executionContext = createExecutionContext(originalRequest);
+        AWSRequestMetrics awsRequestMetrics = executionContext
+                .getAwsRequestMetrics();
+        awsRequestMetrics.startEvent(Field.ClientExecuteTime);
+        Request<Y> request = null;
+        Response<X> response = null;
+
+        try {
+            awsRequestMetrics.startEvent(Field.RequestMarshallTime);
+            try {
+                request = marshaller.marshall(super
+                        .beforeMarshalling(originalRequest));
+                // Binds the request metrics to the current request.
+                request.setAWSRequestMetrics(awsRequestMetrics);
+            } catch (AmazonClientException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new AmazonClientException(
+                        "Unable to marshall request to JSON: " + e.getMessage(), e);
+            } finally {
+                awsRequestMetrics.endEvent(Field.RequestMarshallTime);
+            }
+
+            JsonResponseHandler<X> responseHandler = new JsonResponseHandler<X>(
+                    unmarshaller);
+            responseHandler.setIsPayloadJson(true);
+            response = invoke(request, responseHandler, executionContext);
+
+            return response.getAwsResponse();
+
+        } finally {
+
+            endClientExecution(awsRequestMetrics, request, response);
+        }
+    }
+
     private <X, Y extends AmazonWebServiceRequest> Response<X> invoke(
             Request<Y> request,
             HttpResponseHandler<AmazonWebServiceResponse<X>> responseHandler,
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.cache;
+
+/**
+ * Configuration of the client-side item cache of a single table, as used by
+ * {@link ItemCachingAmazonDynamoDB}.
+ */
+public class ItemCacheConfig {
+
+    /** The default maximum number of items cached per table. */
+    public static final int DEFAULT_MAX_ITEMS = 10000;
+
+    /** The default time (in milliseconds) an item is served from the cache. */
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = 60 * 1000;
+
+    private int maxItems = DEFAULT_MAX_ITEMS;
+
+    private long timeToLiveMillis = DEFAULT_TIME_TO_LIVE_MILLIS;
+
+    private boolean cacheConsistentReads = false;
+
+    /**
+     * Returns the maximum number of items cached for the table. Once the
+     * cache is full, the least recently used items are evicted.
+     */
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    /**
+     * Sets the maximum number of items cached for the table.
+     *
+     * @param maxItems
+     *            the maximum number of items, must be at least 1
+     */
+    public void setMaxItems(int maxItems) {
+        if (maxItems < 1) {
+            throw new IllegalArgumentException("maxItems " + maxItems
+                    + " must be at least 1");
+        }
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Sets the maximum number of items cached for the table, and returns the
+     * updated object so that additional method calls can be chained together.
+     */
+    public ItemCacheConfig withMaxItems(int maxItems) {
+        setMaxItems(maxItems);
+        return this;
+    }
+
+    /**
+     * Returns the time (in milliseconds) after which a cached item is no
+     * longer served and has to be read from DynamoDB again.
+     */
+    public long getTimeToLiveMillis() {
+        return timeToLiveMillis;
+    }
+
+    /**
+     * Sets the time (in milliseconds) after which a cached item is no longer
+     * served.
+     *
+     * @param timeToLiveMillis
+     *            the time to live, must be positive
+     */
+    public void setTimeToLiveMillis(long timeToLiveMillis) {
+        if (timeToLiveMillis <= 0) {
+            throw new IllegalArgumentException("timeToLiveMillis "
+                    + timeToLiveMillis + " must be positive");
+        }
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    /**
+     * Sets the time (in milliseconds) after which a cached item is no longer
+     * served, and returns the updated object so that additional method calls
+     * can be chained together.
+     */
+    public ItemCacheConfig withTimeToLiveMillis(long timeToLiveMillis) {
+        setTimeToLiveMillis(timeToLiveMillis);
+        return this;
+    }
+
+    /**
+     * Returns whether requests asking for strongly consistent reads are also
+     * served from the cache. False by default, in which case such requests
+     * always go to DynamoDB, and their results are used to refresh the cache.
+     */
+    public boolean isCacheConsistentReads() {
+        return cacheConsistentReads;
+    }
+
+    /**
+     * Sets whether requests asking for strongly consistent reads are also
+     * served from the cache.
+     */
+    public void setCacheConsistentReads(boolean cacheConsistentReads) {
+        this.cacheConsistentReads = cacheConsistentReads;
+    }
+
+    /**
+     * Sets whether requests asking for strongly consistent reads are also
+     * served from the cache, and returns the updated object so that
+     * additional method calls can be chained together.
+     */
+    public ItemCacheConfig withCacheConsistentReads(boolean cacheConsistentReads) {
+        setCacheConsistentReads(cacheConsistentReads);
+        return this;
+    }
+}
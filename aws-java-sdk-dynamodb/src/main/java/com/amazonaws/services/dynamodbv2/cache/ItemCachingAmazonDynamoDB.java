@@ -0,0 +1,503 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.ResponseMetadata;
+import com.amazonaws.metrics.AwsSdkMetrics;
+import com.amazonaws.metrics.ServiceLatencyProvider;
+import com.amazonaws.metrics.ServiceMetricCollector;
+import com.amazonaws.regions.Region;
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.metrics.DynamoDBServiceMetric;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.CreateTableResult;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteTableResult;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableResult;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.ListTablesRequest;
+import com.amazonaws.services.dynamodbv2.model.ListTablesResult;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateTableResult;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+
+/**
+ * An {@link AmazonDynamoDB} client decorator which serves full-item
+ * <code>GetItem</code> and <code>BatchGetItem</code> reads of hot items from a
+ * client-side, size and time bounded cache.
+ * <p>
+ * Items written through this client, via <code>PutItem</code>,
+ * <code>UpdateItem</code>, <code>DeleteItem</code> or
+ * <code>BatchWriteItem</code>, are invalidated from the cache. Writes made by
+ * other clients are only observed once the cached items expire. Since both
+ * {@link com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper} and
+ * {@link com.amazonaws.services.dynamodbv2.document.DynamoDB} issue all their
+ * calls through the client they are given, wrapping that client is enough to
+ * cache <code>DynamoDBMapper.load</code> and <code>Table.getItem</code>, and to
+ * have the mapper's <code>save</code>, <code>delete</code> and
+ * <code>batchWrite</code> invalidate the cached items.
+ *
+ * <pre class="brush: java">
+ * ItemCachingAmazonDynamoDB cachingClient = new ItemCachingAmazonDynamoDB(client)
+ *     .withTableConfig("HotTable", new ItemCacheConfig()
+ *         .withMaxItems(50000)
+ *         .withTimeToLiveMillis(5000));
+ * DynamoDBMapper mapper = new DynamoDBMapper(cachingClient);
+ * </pre>
+ * <p>
+ * Reads using a projection are never cached. Cache hits and misses are
+ * counted by {@link #getCacheHitCount()} and {@link #getCacheMissCount()},
+ * and are reported to {@link AwsSdkMetrics} as the
+ * {@link DynamoDBServiceMetric#DynamoDBItemCacheHit} and
+ * {@link DynamoDBServiceMetric#DynamoDBItemCacheMiss} service metrics.
+ */
+@ThreadSafe
+public class ItemCachingAmazonDynamoDB extends AbstractAmazonDynamoDB {
+
+    private final AmazonDynamoDB client;
+
+    /** Used for the tables without a specific configuration, if not null. */
+    private final ItemCacheConfig defaultConfig;
+
+    private final ConcurrentMap<String, ItemCacheConfig> tableConfigs =
+            new ConcurrentHashMap<String, ItemCacheConfig>();
+
+    private final ConcurrentMap<String, TableItemCache> tableCaches =
+            new ConcurrentHashMap<String, TableItemCache>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Constructs a new caching client which only caches the items of the
+     * tables configured via {@link #setTableConfig(String, ItemCacheConfig)}.
+     *
+     * @param client
+     *            the client to which all calls are delegated
+     */
+    public ItemCachingAmazonDynamoDB(AmazonDynamoDB client) {
+        this(client, null);
+    }
+
+    /**
+     * Constructs a new caching client.
+     *
+     * @param client
+     *            the client to which all calls are delegated
+     * @param defaultConfig
+     *            the cache configuration of the tables without a specific
+     *            configuration, or null to only cache the items of the tables
+     *            configured via {@link #setTableConfig(String, ItemCacheConfig)}
+     */
+    public ItemCachingAmazonDynamoDB(AmazonDynamoDB client, ItemCacheConfig defaultConfig) {
+        if (client == null) {
+            throw new IllegalArgumentException("client must not be null");
+        }
+        this.client = client;
+        this.defaultConfig = defaultConfig;
+    }
+
+    /**
+     * Sets the cache configuration of the given table. Must be called before
+     * the first request on that table is made through this client.
+     */
+    public void setTableConfig(String tableName, ItemCacheConfig config) {
+        if (tableCaches.containsKey(tableName)) {
+            throw new IllegalStateException("The cache of table " + tableName
+                    + " is already in use");
+        }
+        tableConfigs.put(tableName, config);
+    }
+
+    /**
+     * Sets the cache configuration of the given table, and returns this
+     * client so that additional method calls can be chained together.
+     */
+    public ItemCachingAmazonDynamoDB withTableConfig(String tableName, ItemCacheConfig config) {
+        setTableConfig(tableName, config);
+        return this;
+    }
+
+    /**
+     * Removes all the cached items of the given table.
+     */
+    public void invalidateTable(String tableName) {
+        TableItemCache cache = tableCaches.get(tableName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Returns the number of items served from the cache so far.
+     */
+    public long getCacheHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of cacheable items which had to be read from
+     * DynamoDB so far.
+     */
+    public long getCacheMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the number of items currently held in the cache of the given
+     * table.
+     */
+    public int getCachedItemCount(String tableName) {
+        TableItemCache cache = tableCaches.get(tableName);
+        return cache == null ? 0 : cache.size();
+    }
+
+    @Override
+    public GetItemResult getItem(GetItemRequest request) {
+        TableItemCache cache = cacheFor(request.getTableName());
+        if (cache == null || !isFullItemRead(request.getAttributesToGet(),
+                request.getProjectionExpression())) {
+            return client.getItem(request);
+        }
+
+        Map<String, AttributeValue> key = request.getKey();
+        cache.rememberKeyAttributeNames(key);
+
+        boolean cacheable = cache.isCacheConsistentReads()
+                || !Boolean.TRUE.equals(request.getConsistentRead());
+        if (cacheable) {
+            ServiceLatencyProvider hitLatency =
+                    new ServiceLatencyProvider(DynamoDBServiceMetric.DynamoDBItemCacheHit);
+            Map<String, AttributeValue> item = cache.get(key);
+            if (item != null) {
+                hitCount.incrementAndGet();
+                AwsSdkMetrics.getServiceMetricCollector()
+                        .collectLatency(hitLatency.endTiming());
+                return new GetItemResult().withItem(item);
+            }
+            missCount.incrementAndGet();
+        }
+
+        ServiceLatencyProvider missLatency =
+                new ServiceLatencyProvider(DynamoDBServiceMetric.DynamoDBItemCacheMiss);
+        long epoch = cache.currentEpoch();
+        GetItemResult result = client.getItem(request);
+        if (result.getItem() != null) {
+            cache.put(key, result.getItem(), epoch);
+        }
+        if (cacheable) {
+            AwsSdkMetrics.getServiceMetricCollector()
+                    .collectLatency(missLatency.endTiming());
+        }
+        return result;
+    }
+
+    @Override
+    public BatchGetItemResult batchGetItem(BatchGetItemRequest request) {
+        Map<String, KeysAndAttributes> requestItems = request.getRequestItems();
+        if (requestItems == null) {
+            return client.batchGetItem(request);
+        }
+
+        Map<String, List<Map<String, AttributeValue>>> cachedItems =
+                new HashMap<String, List<Map<String, AttributeValue>>>();
+        Map<String, KeysAndAttributes> remainingItems =
+                new LinkedHashMap<String, KeysAndAttributes>();
+        Map<String, Long> epochs = new HashMap<String, Long>();
+        int missedKeyCount = 0;
+
+        for (Map.Entry<String, KeysAndAttributes> entry : requestItems.entrySet()) {
+            String tableName = entry.getKey();
+            KeysAndAttributes keysAndAttributes = entry.getValue();
+            TableItemCache cache = cacheFor(tableName);
+            if (cache == null
+                    || keysAndAttributes.getKeys() == null
+                    || !isFullItemRead(keysAndAttributes.getAttributesToGet(),
+                            keysAndAttributes.getProjectionExpression())) {
+                remainingItems.put(tableName, keysAndAttributes);
+                continue;
+            }
+
+            epochs.put(tableName, cache.currentEpoch());
+            if (!cache.isCacheConsistentReads()
+                    && Boolean.TRUE.equals(keysAndAttributes.getConsistentRead())) {
+                if (!keysAndAttributes.getKeys().isEmpty()) {
+                    cache.rememberKeyAttributeNames(keysAndAttributes.getKeys().get(0));
+                }
+                remainingItems.put(tableName, keysAndAttributes);
+                continue;
+            }
+
+            List<Map<String, AttributeValue>> hits = new ArrayList<Map<String, AttributeValue>>();
+            List<Map<String, AttributeValue>> misses = new ArrayList<Map<String, AttributeValue>>();
+            for (Map<String, AttributeValue> key : keysAndAttributes.getKeys()) {
+                cache.rememberKeyAttributeNames(key);
+                ServiceLatencyProvider hitLatency =
+                        new ServiceLatencyProvider(DynamoDBServiceMetric.DynamoDBItemCacheHit);
+                Map<String, AttributeValue> item = cache.get(key);
+                if (item != null) {
+                    hits.add(item);
+                    AwsSdkMetrics.getServiceMetricCollector()
+                            .collectLatency(hitLatency.endTiming());
+                } else {
+                    misses.add(key);
+                }
+            }
+            hitCount.addAndGet(hits.size());
+            missCount.addAndGet(misses.size());
+            missedKeyCount += misses.size();
+
+            if (!hits.isEmpty()) {
+                cachedItems.put(tableName, hits);
+            }
+            if (!misses.isEmpty()) {
+                remainingItems.put(tableName, keysAndAttributes.clone().withKeys(misses));
+            }
+        }
+
+        if (remainingItems.isEmpty()) {
+            return new BatchGetItemResult()
+                    .withResponses(cachedItems)
+                    .withUnprocessedKeys(new HashMap<String, KeysAndAttributes>());
+        }
+
+        BatchGetItemRequest remainingRequest = request;
+        if (!cachedItems.isEmpty()) {
+            remainingRequest = request.clone().withRequestItems(remainingItems);
+        }
+
+        ServiceLatencyProvider missLatency =
+                new ServiceLatencyProvider(DynamoDBServiceMetric.DynamoDBItemCacheMiss);
+        BatchGetItemResult result = client.batchGetItem(remainingRequest);
+        if (missedKeyCount > 0) {
+            // One sample per missed key, as for the misses of getItem
+            missLatency.endTiming();
+            ServiceMetricCollector collector = AwsSdkMetrics.getServiceMetricCollector();
+            for (int i = 0; i < missedKeyCount; i++) {
+                collector.collectLatency(missLatency);
+            }
+        }
+
+        Map<String, List<Map<String, AttributeValue>>> responses = result.getResponses();
+        if (responses == null) {
+            responses = new HashMap<String, List<Map<String, AttributeValue>>>();
+            result.setResponses(responses);
+        }
+        for (Map.Entry<String, Long> entry : epochs.entrySet()) {
+            TableItemCache cache = tableCaches.get(entry.getKey());
+            List<Map<String, AttributeValue>> items = responses.get(entry.getKey());
+            if (items == null) {
+                continue;
+            }
+            for (Map<String, AttributeValue> item : items) {
+                Map<String, AttributeValue> key = cache.extractKey(item);
+                if (key != null) {
+                    cache.put(key, item, entry.getValue());
+                }
+            }
+        }
+        for (Map.Entry<String, List<Map<String, AttributeValue>>> entry : cachedItems.entrySet()) {
+            List<Map<String, AttributeValue>> items = responses.get(entry.getKey());
+            if (items == null) {
+                responses.put(entry.getKey(), entry.getValue());
+            } else {
+                items.addAll(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public PutItemResult putItem(PutItemRequest request) {
+        try {
+            return client.putItem(request);
+        } finally {
+            TableItemCache cache = tableCaches.get(request.getTableName());
+            if (cache != null && request.getItem() != null) {
+                cache.invalidateItem(request.getItem());
+            }
+        }
+    }
+
+    @Override
+    public UpdateItemResult updateItem(UpdateItemRequest request) {
+        try {
+            return client.updateItem(request);
+        } finally {
+            invalidateKey(request.getTableName(), request.getKey());
+        }
+    }
+
+    @Override
+    public DeleteItemResult deleteItem(DeleteItemRequest request) {
+        try {
+            return client.deleteItem(request);
+        } finally {
+            invalidateKey(request.getTableName(), request.getKey());
+        }
+    }
+
+    @Override
+    public BatchWriteItemResult batchWriteItem(BatchWriteItemRequest request) {
+        try {
+            return client.batchWriteItem(request);
+        } finally {
+            if (request.getRequestItems() != null) {
+                for (Map.Entry<String, List<WriteRequest>> entry
+                        : request.getRequestItems().entrySet()) {
+                    TableItemCache cache = tableCaches.get(entry.getKey());
+                    if (cache == null || entry.getValue() == null) {
+                        continue;
+                    }
+                    for (WriteRequest writeRequest : entry.getValue()) {
+                        if (writeRequest.getPutRequest() != null) {
+                            cache.invalidateItem(writeRequest.getPutRequest().getItem());
+                        } else if (writeRequest.getDeleteRequest() != null) {
+                            cache.invalidate(writeRequest.getDeleteRequest().getKey());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public DeleteTableResult deleteTable(DeleteTableRequest request) {
+        try {
+            return client.deleteTable(request);
+        } finally {
+            invalidateTable(request.getTableName());
+        }
+    }
+
+    @Override
+    public CreateTableResult createTable(CreateTableRequest request) {
+        return client.createTable(request);
+    }
+
+    @Override
+    public DescribeTableResult describeTable(DescribeTableRequest request) {
+        return client.describeTable(request);
+    }
+
+    @Override
+    public ListTablesResult listTables(ListTablesRequest request) {
+        return client.listTables(request);
+    }
+
+    @Override
+    public QueryResult query(QueryRequest request) {
+        return client.query(request);
+    }
+
+    @Override
+    public ScanResult scan(ScanRequest request) {
+        return client.scan(request);
+    }
+
+    @Override
+    public UpdateTableResult updateTable(UpdateTableRequest request) {
+        return client.updateTable(request);
+    }
+
+    @Override
+    public void setEndpoint(String endpoint) {
+        client.setEndpoint(endpoint);
+    }
+
+    @Override
+    public void setRegion(Region region) {
+        client.setRegion(region);
+    }
+
+    @Override
+    public void shutdown() {
+        client.shutdown();
+    }
+
+    @Override
+    public ResponseMetadata getCachedResponseMetadata(AmazonWebServiceRequest request) {
+        return client.getCachedResponseMetadata(request);
+    }
+
+    /**
+     * Returns the cache of the given table, creating it on first use, or null
+     * if the items of the table are not cached.
+     */
+    private TableItemCache cacheFor(String tableName) {
+        if (tableName == null) {
+            return null;
+        }
+        TableItemCache cache = tableCaches.get(tableName);
+        if (cache != null) {
+            return cache;
+        }
+        ItemCacheConfig config = tableConfigs.get(tableName);
+        if (config == null) {
+            config = defaultConfig;
+        }
+        if (config == null) {
+            return null;
+        }
+        cache = new TableItemCache(config);
+        TableItemCache existing = tableCaches.putIfAbsent(tableName, cache);
+        return existing == null ? cache : existing;
+    }
+
+    private void invalidateKey(String tableName, Map<String, AttributeValue> key) {
+        TableItemCache cache = tableCaches.get(tableName);
+        if (cache != null && key != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    private static boolean isFullItemRead(List<String> attributesToGet,
+                                          String projectionExpression) {
+        return (attributesToGet == null || attributesToGet.isEmpty())
+                && projectionExpression == null;
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.cache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+/**
+ * Size and time bounded cache of the items of a single table, keyed by their
+ * primary key attributes.
+ * <p>
+ * Items are spread over a fixed number of segments, each of which is an
+ * access-ordered map guarded by its own monitor, so that concurrent readers
+ * of different keys rarely contend with each other.
+ */
+@ThreadSafe
+class TableItemCache {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment[] segments;
+
+    private final long timeToLiveNanos;
+
+    private final boolean cacheConsistentReads;
+
+    /**
+     * Incremented on every invalidation; an item read from DynamoDB is only
+     * added to the cache if no invalidation happened since the read started,
+     * so a concurrent write can never be shadowed by the value it replaced.
+     */
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * Names of the primary key attributes of the table, learned from the keys
+     * of the read requests. Needed to find the key of a written item.
+     */
+    private volatile Set<String> keyAttributeNames;
+
+    TableItemCache(ItemCacheConfig config) {
+        int segmentCount = Math.min(SEGMENT_COUNT, config.getMaxItems());
+        int maxItemsPerSegment = (config.getMaxItems() + segmentCount - 1) / segmentCount;
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxItemsPerSegment);
+        }
+        timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(config.getTimeToLiveMillis());
+        cacheConsistentReads = config.isCacheConsistentReads();
+    }
+
+    /**
+     * Returns whether strongly consistent reads may be served by this cache.
+     */
+    boolean isCacheConsistentReads() {
+        return cacheConsistentReads;
+    }
+
+    /**
+     * Returns the current epoch, to be passed to
+     * {@link #put(Map, Map, long)} once the read started now completes.
+     */
+    long currentEpoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Returns a copy of the cached item with the given key, or null if the
+     * item is not cached or has expired.
+     */
+    Map<String, AttributeValue> get(Map<String, AttributeValue> key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            CachedItem cached = segment.get(key);
+            if (cached == null) {
+                return null;
+            }
+            if (System.nanoTime() - cached.createdNanos > timeToLiveNanos) {
+                segment.remove(key);
+                return null;
+            }
+            return new HashMap<String, AttributeValue>(cached.item);
+        }
+    }
+
+    /**
+     * Caches the given item, unless the cache has been invalidated since the
+     * given epoch was observed.
+     */
+    void put(Map<String, AttributeValue> key,
+             Map<String, AttributeValue> item,
+             long observedEpoch) {
+
+        rememberKeyAttributeNames(key);
+        Map<String, AttributeValue> keyCopy = new HashMap<String, AttributeValue>(key);
+        CachedItem cached = new CachedItem(new HashMap<String, AttributeValue>(item));
+        Segment segment = segmentFor(keyCopy);
+        synchronized (segment) {
+            if (epoch.get() == observedEpoch) {
+                segment.put(keyCopy, cached);
+            }
+        }
+    }
+
+    /**
+     * Removes the item with the given key from the cache.
+     */
+    void invalidate(Map<String, AttributeValue> key) {
+        epoch.incrementAndGet();
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    /**
+     * Removes the given item from the cache, if the key attributes of the
+     * table are known; otherwise nothing has been cached yet for the table.
+     */
+    void invalidateItem(Map<String, AttributeValue> item) {
+        Set<String> names = keyAttributeNames;
+        if (names == null) {
+            // Invalidate concurrent reads anyway, they may be the first ones.
+            epoch.incrementAndGet();
+            return;
+        }
+        invalidate(extractKey(item));
+    }
+
+    /**
+     * Returns the primary key of the given item, or null if the key attributes
+     * of the table are not known yet.
+     */
+    Map<String, AttributeValue> extractKey(Map<String, AttributeValue> item) {
+        Set<String> names = keyAttributeNames;
+        if (names == null) {
+            return null;
+        }
+        Map<String, AttributeValue> key = new HashMap<String, AttributeValue>(names.size() * 2);
+        for (String name : names) {
+            key.put(name, item.get(name));
+        }
+        return key;
+    }
+
+    /**
+     * Records the key attribute names of the table, if not done yet.
+     */
+    void rememberKeyAttributeNames(Map<String, AttributeValue> key) {
+        if (keyAttributeNames == null) {
+            keyAttributeNames = Collections.unmodifiableSet(
+                    new HashSet<String>(key.keySet()));
+        }
+    }
+
+    /**
+     * Removes every item from the cache.
+     */
+    void clear() {
+        epoch.incrementAndGet();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of items currently cached, including expired ones
+     * which have not been evicted yet.
+     */
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentFor(Map<String, AttributeValue> key) {
+        int hash = key.hashCode();
+        // Spread the bits, since attribute value hash codes are not well mixed
+        hash ^= (hash >>> 20) ^ (hash >>> 12);
+        hash ^= (hash >>> 7) ^ (hash >>> 4);
+        return segments[(hash & 0x7fffffff) % segments.length];
+    }
+
+    private static final class CachedItem {
+        private final Map<String, AttributeValue> item;
+        private final long createdNanos = System.nanoTime();
+
+        private CachedItem(Map<String, AttributeValue> item) {
+            this.item = item;
+        }
+    }
+
+    /**
+     * An access-ordered map that evicts its least recently used entry once
+     * it grows beyond its maximum size.
+     */
+    private static final class Segment
+            extends LinkedHashMap<Map<String, AttributeValue>, CachedItem> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        private Segment(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(
+                Map.Entry<Map<String, AttributeValue>, CachedItem> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
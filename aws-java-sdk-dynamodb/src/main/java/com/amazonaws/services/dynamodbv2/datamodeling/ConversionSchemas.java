@@ -23,12 +23,15 @@ import java.nio.ByteBuffer;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -104,6 +107,10 @@ import com.amazonaws.services.dynamodbv2.datamodeling.unmarshallers.StringUnmars
 import com.amazonaws.services.dynamodbv2.datamodeling.unmarshallers.UUIDSetUnmarshaller;
 import com.amazonaws.services.dynamodbv2.datamodeling.unmarshallers.UUIDUnmarshaller;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.transform.AttributeValueJsonUnmarshaller;
+import com.amazonaws.transform.JsonUnmarshallerContext;
+import com.amazonaws.transform.Unmarshaller;
+import com.fasterxml.jackson.core.JsonToken;
 
 /**
  * Pre-defined strategies for mapping between Java types and DynamoDB types.
@@ -210,6 +217,10 @@ public final class ConversionSchemas {
         private final UnmarshallerSet unmarshallerSet;
         private final DynamoDBReflector reflector;
         private final S3ClientCache s3cc;
+        private final ConcurrentMap<Class<?>, AttributeSetter[]> setterCache =
+                new ConcurrentHashMap<Class<?>, AttributeSetter[]>();
+        private final ConcurrentMap<Class<?>, ItemJsonUnmarshaller<?>> itemUnmarshallerCache =
+                new ConcurrentHashMap<Class<?>, ItemJsonUnmarshaller<?>>();
 
         public StandardItemConverter(
                 MarshallerSet marshallerSet,
@@ -422,28 +433,192 @@ public final class ConversionSchemas {
                 return result;
             }
 
-            for (Method m : reflector.getRelevantGetters(clazz)) {
-                String attributeName = reflector.getAttributeName(m);
-                AttributeValue av = value.get(attributeName);
+            for (AttributeSetter attribute : getAttributeSetters(clazz)) {
+                AttributeValue av = value.get(attribute.attributeName);
                 if (av != null) {
-                    setValue(result, m, av);
+                    attribute.setValue(result, av);
                 }
             }
 
             return result;
         }
 
-        private void setValue(
-                Object target,
-                Method getter,
-                AttributeValue value) {
+        /**
+         * Returns the precompiled list of attribute setters for the given
+         * class, so that unconverting an item does not have to go back to the
+         * reflector and the unmarshaller sets for every attribute of every
+         * item.
+         */
+        private AttributeSetter[] getAttributeSetters(Class<?> clazz) {
+            AttributeSetter[] setters = setterCache.get(clazz);
+            if (setters == null) {
+                Collection<Method> getters = reflector.getRelevantGetters(clazz);
+                setters = new AttributeSetter[getters.size()];
+                int i = 0;
+                for (Method getter : getters) {
+                    setters[i++] = new AttributeSetter(
+                            reflector.getAttributeName(getter),
+                            getter,
+                            reflector.getSetter(getter));
+                }
 
-            Method setter = reflector.getSetter(getter);
-            ArgumentUnmarshaller unmarshaller =
-                    getUnmarshaller(getter, setter);
+                AttributeSetter[] existing =
+                        setterCache.putIfAbsent(clazz, setters);
+                if (existing != null) {
+                    setters = existing;
+                }
+            }
+            return setters;
+        }
+
+        /**
+         * Returns an unmarshaller that reads an item of the given class
+         * straight from the JSON object holding its attributes, setting each
+         * mapped attribute as soon as its value has been read and skipping the
+         * others, so that no attribute value map is built for the item.
+         */
+        <T> Unmarshaller<T, JsonUnmarshallerContext> getItemUnmarshaller(
+                Class<T> clazz) {
+
+            @SuppressWarnings("unchecked")
+            ItemJsonUnmarshaller<T> unmarshaller =
+                    (ItemJsonUnmarshaller<T>) itemUnmarshallerCache.get(clazz);
+            if (unmarshaller == null) {
+                unmarshaller = new ItemJsonUnmarshaller<T>(clazz);
+
+                @SuppressWarnings("unchecked")
+                ItemJsonUnmarshaller<T> existing = (ItemJsonUnmarshaller<T>)
+                        itemUnmarshallerCache.putIfAbsent(clazz, unmarshaller);
+                if (existing != null) {
+                    unmarshaller = existing;
+                }
+            }
+            return unmarshaller;
+        }
+
+        /**
+         * Reads a mapped object from the JSON object holding the attributes of
+         * an item, the same way {@link #unconvert(Class, Map)} reads it from
+         * an attribute value map. Each attribute value is still read into a
+         * single {@code AttributeValue}, which is what the argument
+         * unmarshallers take, but the item's map is never built.
+         */
+        private final class ItemJsonUnmarshaller<T>
+                implements Unmarshaller<T, JsonUnmarshallerContext> {
+
+            private final Class<T> clazz;
+            private final Map<String, AttributeSetter> setters;
+
+            ItemJsonUnmarshaller(Class<T> clazz) {
+                this.clazz = clazz;
+
+                AttributeSetter[] attributes = getAttributeSetters(clazz);
+                this.setters = new HashMap<String, AttributeSetter>(
+                        attributes.length * 2);
+                for (AttributeSetter attribute : attributes) {
+                    setters.put(attribute.attributeName, attribute);
+                }
+            }
+
+            @Override
+            public T unmarshall(JsonUnmarshallerContext context)
+                    throws Exception {
+
+                if (context.getCurrentToken() == JsonToken.VALUE_NULL) {
+                    return null;
+                }
+
+                T result = createObject(clazz);
+                int originalDepth = context.getCurrentDepth();
+
+                while (true) {
+                    JsonToken token = context.nextToken();
+                    if (token == null) {
+                        return result;
+                    }
+
+                    if (token == JsonToken.FIELD_NAME) {
+                        AttributeSetter attribute =
+                                setters.get(context.readText());
+                        context.nextToken();
+
+                        if (attribute == null) {
+                            skipValue(context);
+                        } else {
+                            AttributeValue value =
+                                    AttributeValueJsonUnmarshaller
+                                            .getInstance().unmarshall(context);
+                            if (value != null) {
+                                attribute.setValue(result, value);
+                            }
+                        }
+                    } else if (token == JsonToken.END_ARRAY
+                            || token == JsonToken.END_OBJECT) {
+                        if (context.getCurrentDepth() <= originalDepth) {
+                            return result;
+                        }
+                    }
+                }
+            }
+
+            /**
+             * Skips the value the context is positioned on, going through the
+             * context rather than the parser so that it keeps track of the
+             * fields being left.
+             */
+            private void skipValue(JsonUnmarshallerContext context)
+                    throws Exception {
+
+                JsonToken token = context.getCurrentToken();
+                if (token != JsonToken.START_OBJECT
+                        && token != JsonToken.START_ARRAY) {
+                    return;
+                }
 
-            Object unmarshalled = unmarshall(unmarshaller, setter, value);
-            ReflectionUtils.safeInvoke(setter, target, unmarshalled);
+                int depth = context.getCurrentDepth();
+                while (true) {
+                    token = context.nextToken();
+                    if (token == null) {
+                        return;
+                    }
+                    if ((token == JsonToken.END_ARRAY
+                            || token == JsonToken.END_OBJECT)
+                            && context.getCurrentDepth() < depth) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Sets a single attribute value on a mapped object. The unmarshaller
+         * is resolved lazily, on the first value actually seen for the
+         * attribute, so that a class with an attribute whose type cannot be
+         * unmarshalled can still be loaded as long as the attribute is absent.
+         */
+        private final class AttributeSetter {
+
+            private final String attributeName;
+            private final Method getter;
+            private final Method setter;
+            private volatile ArgumentUnmarshaller unmarshaller;
+
+            AttributeSetter(String attributeName, Method getter, Method setter) {
+                this.attributeName = attributeName;
+                this.getter = getter;
+                this.setter = setter;
+            }
+
+            void setValue(Object target, AttributeValue value) {
+                ArgumentUnmarshaller unmarshaller = this.unmarshaller;
+                if (unmarshaller == null) {
+                    unmarshaller = getUnmarshaller(getter, setter);
+                    this.unmarshaller = unmarshaller;
+                }
+
+                Object unmarshalled = unmarshall(unmarshaller, setter, value);
+                ReflectionUtils.safeInvoke(setter, target, unmarshalled);
+            }
         }
 
         private ArgumentUnmarshaller getUnmarshaller(
@@ -29,6 +29,8 @@ import java.util.Map.Entry;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -39,6 +41,7 @@ import com.amazonaws.AmazonWebServiceRequest;
 import com.amazonaws.auth.AWSCredentialsProvider;
 import com.amazonaws.retry.RetryUtils;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.BatchWriteRetryStrategy;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.SaveBehavior;
@@ -74,6 +77,8 @@ import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
 import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
 import com.amazonaws.services.dynamodbv2.model.WriteRequest;
 import com.amazonaws.services.s3.model.Region;
+import com.amazonaws.transform.JsonUnmarshallerContext;
+import com.amazonaws.transform.Unmarshaller;
 import com.amazonaws.util.VersionInfoUtils;
 
 /**
@@ -190,6 +195,13 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
     private final DynamoDBReflector reflector = new DynamoDBReflector();
     private final DynamoDBTableSchemaParser schemaParser = new DynamoDBTableSchemaParser();
 
+    /**
+     * Converters for the standard conversion schemas, which are reused across
+     * calls so that the per-class unmarshalling state they compile is kept.
+     */
+    private final ConcurrentMap<ConversionSchema, ItemConverter> converterCache =
+            new ConcurrentHashMap<ConversionSchema, ItemConverter>();
+
     private final AttributeTransformer transformer;
 
     /**
@@ -429,6 +441,13 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
         rq.setTableName(tableName);
         rq.setConsistentRead(config.getConsistentReads() == ConsistentReads.CONSISTENT);
 
+        Unmarshaller<T, JsonUnmarshallerContext> itemUnmarshaller =
+                getItemUnmarshaller(db, clazz, config);
+        if (itemUnmarshaller != null) {
+            List<T> items = new ArrayList<T>(1);
+            ((AmazonDynamoDBClient) db).getItem(applyUserAgent(rq), itemUnmarshaller, items);
+            return items.isEmpty() ? null : items.get(0);
+        }
 
         GetItemResult item = db.getItem(applyUserAgent(rq));
         Map<String, AttributeValue> itemAttributes = item.getItem();
@@ -1806,8 +1825,9 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
 
         ScanRequest scanRequest = createScanRequestFromExpression(clazz, scanExpression, config);
 
-        ScanResult scanResult = db.scan(applyUserAgent(scanRequest));
-        return new PaginatedScanList<T>(this, clazz, db, scanRequest, scanResult, config.getPaginationLoadingStrategy(), config);
+        List<T> results = new ArrayList<T>();
+        ScanResult scanResult = fetchScanPage(db, clazz, scanRequest, config, results);
+        return new PaginatedScanList<T>(this, clazz, db, scanRequest, scanResult, results, config.getPaginationLoadingStrategy(), config);
     }
 
     @Override
@@ -1839,12 +1859,11 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
 
         ScanRequest scanRequest = createScanRequestFromExpression(clazz, scanExpression, config);
 
-        ScanResult scanResult = db.scan(applyUserAgent(scanRequest));
+        List<T> results = new ArrayList<T>();
+        ScanResult scanResult = fetchScanPage(db, clazz, scanRequest, config, results);
         ScanResultPage<T> result = new ScanResultPage<T>();
-        List<AttributeTransformer.Parameters<T>> parameters =
-            toParameters(scanResult.getItems(), clazz, scanRequest.getTableName(), config);
 
-        result.setResults(marshallIntoObjects(parameters));
+        result.setResults(results);
         result.setLastEvaluatedKey(scanResult.getLastEvaluatedKey());
         result.setCount(scanResult.getCount());
         result.setScannedCount(scanResult.getScannedCount());
@@ -1871,8 +1890,9 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
 
         QueryRequest queryRequest = createQueryRequestFromExpression(clazz, queryExpression, config);
 
-        QueryResult queryResult = db.query(applyUserAgent(queryRequest));
-        return new PaginatedQueryList<T>(this, clazz, db, queryRequest, queryResult, config.getPaginationLoadingStrategy(), config);
+        List<T> results = new ArrayList<T>();
+        QueryResult queryResult = fetchQueryPage(db, clazz, queryRequest, config, results);
+        return new PaginatedQueryList<T>(this, clazz, db, queryRequest, queryResult, results, config.getPaginationLoadingStrategy(), config);
     }
 
     @Override
@@ -1888,12 +1908,11 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
 
         QueryRequest queryRequest = createQueryRequestFromExpression(clazz, queryExpression, config);
 
-        QueryResult queryResult = db.query(applyUserAgent(queryRequest));
+        List<T> results = new ArrayList<T>();
+        QueryResult queryResult = fetchQueryPage(db, clazz, queryRequest, config, results);
         QueryResultPage<T> result = new QueryResultPage<T>();
-        List<AttributeTransformer.Parameters<T>> parameters =
-            toParameters(queryResult.getItems(), clazz, queryRequest.getTableName(), config);
 
-        result.setResults(marshallIntoObjects(parameters));
+        result.setResults(results);
         result.setLastEvaluatedKey(queryResult.getLastEvaluatedKey());
         result.setCount(queryResult.getCount());
         result.setScannedCount(queryResult.getScannedCount());
@@ -1950,6 +1969,91 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
         return count;
     }
 
+    /**
+     * Runs the query against the given client and adds the items of the page
+     * it returns to the given list, reading them straight from the response
+     * when possible. It's package-private because the paginated query list
+     * fetches its later pages through it.
+     */
+    final <T> QueryResult fetchQueryPage(
+            AmazonDynamoDB dynamo,
+            Class<T> clazz,
+            QueryRequest queryRequest,
+            DynamoDBMapperConfig config,
+            List<T> results) {
+
+        Unmarshaller<T, JsonUnmarshallerContext> itemUnmarshaller =
+                getItemUnmarshaller(dynamo, clazz, config);
+        if (itemUnmarshaller != null) {
+            return ((AmazonDynamoDBClient) dynamo).query(
+                    applyUserAgent(queryRequest), itemUnmarshaller, results);
+        }
+
+        QueryResult queryResult = dynamo.query(applyUserAgent(queryRequest));
+        results.addAll(marshallIntoObjects(toParameters(
+                queryResult.getItems(),
+                clazz,
+                queryRequest.getTableName(),
+                config)));
+        return queryResult;
+    }
+
+    /**
+     * Runs the scan against the given client and adds the items of the page
+     * it returns to the given list, reading them straight from the response
+     * when possible. It's package-private because the paginated scan list
+     * fetches its later pages through it.
+     */
+    final <T> ScanResult fetchScanPage(
+            AmazonDynamoDB dynamo,
+            Class<T> clazz,
+            ScanRequest scanRequest,
+            DynamoDBMapperConfig config,
+            List<T> results) {
+
+        Unmarshaller<T, JsonUnmarshallerContext> itemUnmarshaller =
+                getItemUnmarshaller(dynamo, clazz, config);
+        if (itemUnmarshaller != null) {
+            return ((AmazonDynamoDBClient) dynamo).scan(
+                    applyUserAgent(scanRequest), itemUnmarshaller, results);
+        }
+
+        ScanResult scanResult = dynamo.scan(applyUserAgent(scanRequest));
+        results.addAll(marshallIntoObjects(toParameters(
+                scanResult.getItems(),
+                clazz,
+                scanRequest.getTableName(),
+                config)));
+        return scanResult;
+    }
+
+    /**
+     * Returns an unmarshaller reading items of the given class straight from
+     * the client's JSON responses, or null if they have to go through
+     * attribute value maps: when the client is not the plain generated client
+     * (a wrapper or subclass may act on the maps), when an attribute
+     * transformer is set, or when the conversion schema is a custom one.
+     */
+    private <T> Unmarshaller<T, JsonUnmarshallerContext> getItemUnmarshaller(
+            AmazonDynamoDB dynamo,
+            Class<T> clazz,
+            DynamoDBMapperConfig config) {
+
+        if (config == null
+                || transformer != null
+                || dynamo == null
+                || dynamo.getClass() != AmazonDynamoDBClient.class) {
+            return null;
+        }
+
+        ItemConverter converter = getConverter(config);
+        if (!(converter instanceof ConversionSchemas.StandardItemConverter)) {
+            return null;
+        }
+        return ((ConversionSchemas.StandardItemConverter) converter)
+                .getItemUnmarshaller(clazz);
+    }
+
     /**
      * Merges the config object given with the one specified at construction and
      * returns the result.
@@ -2530,11 +2634,28 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
     private ItemConverter getConverter(DynamoDBMapperConfig config) {
         ConversionSchema schema = config.getConversionSchema();
 
+        // Custom schemas may rely on getting a fresh converter every time.
+        boolean cacheable =
+                schema instanceof ConversionSchemas.StandardConversionSchema;
+        if (cacheable) {
+            ItemConverter converter = converterCache.get(schema);
+            if (converter != null) {
+                return converter;
+            }
+        }
+
         ConversionSchema.Dependencies params = new ConversionSchema.Dependencies()
                 .with(DynamoDBReflector.class, reflector)
                 .with(S3ClientCache.class, s3cc);
 
-        return schema.getConverter(params);
+        ItemConverter converter = schema.getConverter(params);
+        if (cacheable) {
+            ItemConverter existing = converterCache.putIfAbsent(schema, converter);
+            if (existing != null) {
+                converter = existing;
+            }
+        }
+        return converter;
     }
 
     private void pauseExponentially(int retries) {
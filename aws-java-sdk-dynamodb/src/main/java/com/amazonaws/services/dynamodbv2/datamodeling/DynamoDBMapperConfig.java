@@ -17,6 +17,7 @@ package com.amazonaws.services.dynamodbv2.datamodeling;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
 
 import com.amazonaws.metrics.RequestMetricCollector;
 import com.amazonaws.services.dynamodbv2.model.WriteRequest;
@@ -53,6 +54,8 @@ public class DynamoDBMapperConfig {
         private TableNameResolver tableNameResolver;
         private ObjectTableNameResolver objectTableNameResolver;
         private PaginationLoadingStrategy paginationLoadingStrategy;
+        private Integer paginationPrefetchDepth;
+        private ExecutorService paginationPrefetchExecutor;
         private RequestMetricCollector requestMetricCollector;
         private ConversionSchema conversionSchema;
         private BatchWriteRetryStrategy batchWriteRetryStrategy;
@@ -67,6 +70,8 @@ public class DynamoDBMapperConfig {
             tableNameResolver = DEFAULT.getTableNameResolver();
             objectTableNameResolver = DEFAULT.getObjectTableNameResolver();
             paginationLoadingStrategy = DEFAULT.getPaginationLoadingStrategy();
+            paginationPrefetchDepth = DEFAULT.getPaginationPrefetchDepth();
+            paginationPrefetchExecutor = DEFAULT.getPaginationPrefetchExecutor();
             requestMetricCollector = DEFAULT.getRequestMetricCollector();
             conversionSchema = DEFAULT.getConversionSchema();
             batchWriteRetryStrategy = DEFAULT.getBatchWriteRetryStrategy();
@@ -218,6 +223,52 @@ public class DynamoDBMapperConfig {
             return this;
         }
 
+        /**
+         * @return the currently-configured number of pages to prefetch
+         */
+        public Integer getPaginationPrefetchDepth() {
+            return paginationPrefetchDepth;
+        }
+
+        /**
+         * @param value the new number of pages to prefetch
+         */
+        public void setPaginationPrefetchDepth(Integer value) {
+            paginationPrefetchDepth = value;
+        }
+
+        /**
+         * @param value the new number of pages to prefetch
+         * @return this builder
+         */
+        public Builder withPaginationPrefetchDepth(Integer value) {
+            setPaginationPrefetchDepth(value);
+            return this;
+        }
+
+        /**
+         * @return the currently-configured executor fetching pages ahead
+         */
+        public ExecutorService getPaginationPrefetchExecutor() {
+            return paginationPrefetchExecutor;
+        }
+
+        /**
+         * @param value the new executor fetching pages ahead
+         */
+        public void setPaginationPrefetchExecutor(ExecutorService value) {
+            paginationPrefetchExecutor = value;
+        }
+
+        /**
+         * @param value the new executor fetching pages ahead
+         * @return this builder
+         */
+        public Builder withPaginationPrefetchExecutor(ExecutorService value) {
+            setPaginationPrefetchExecutor(value);
+            return this;
+        }
+
 
         /**
          * @return the currently-configured request metric collector
@@ -305,6 +356,8 @@ public class DynamoDBMapperConfig {
                     tableNameResolver,
                     objectTableNameResolver,
                     paginationLoadingStrategy,
+                    paginationPrefetchDepth,
+                    paginationPrefetchExecutor,
                     requestMetricCollector,
                     conversionSchema,
                     batchWriteRetryStrategy);
@@ -398,7 +451,23 @@ public class DynamoDBMapperConfig {
          * Paginated list will eagerly load all the paginated results from
          * DynamoDB as soon as the list is initialized.
          */
-        EAGER_LOADING
+        EAGER_LOADING,
+
+        /**
+         * Like ITERATION_ONLY, only supports using iterator to read from the
+         * paginated list, and the list could only be iterated once. In
+         * addition, the next pages are fetched from DynamoDB in the background
+         * while the caller processes the current page, so that the
+         * iteration does not stall for a full round trip per page.
+         * <p>
+         * At most {@link DynamoDBMapperConfig#getPaginationPrefetchDepth()}
+         * pages are buffered ahead of the page being iterated, and each page
+         * is released from memory as soon as the iteration moves past it.
+         * The pages are fetched with
+         * {@link DynamoDBMapperConfig#getPaginationPrefetchExecutor()}, or on a
+         * shared pool of daemon threads if none is configured.
+         */
+        PREFETCH_ITERATION_ONLY
     }
 
     /**
@@ -638,6 +707,8 @@ public class DynamoDBMapperConfig {
     private final TableNameResolver tableNameResolver;
     private final ObjectTableNameResolver objectTableNameResolver;
     private final PaginationLoadingStrategy paginationLoadingStrategy;
+    private final Integer paginationPrefetchDepth;
+    private final ExecutorService paginationPrefetchExecutor;
     private final RequestMetricCollector requestMetricCollector;
     private final ConversionSchema conversionSchema;
     private final BatchWriteRetryStrategy batchWriteRetryStrategy;
@@ -709,6 +780,8 @@ public class DynamoDBMapperConfig {
                 null,
                 null,
                 paginationLoadingStrategy,
+                null,
+                null,
                 requestMetricCollector,
                 ConversionSchemas.DEFAULT,
                 new DefaultBatchWriteRetryStrategy());
@@ -721,6 +794,8 @@ public class DynamoDBMapperConfig {
             TableNameResolver tableNameResolver,
             ObjectTableNameResolver objectTableNameResolver,
             PaginationLoadingStrategy paginationLoadingStrategy,
+            Integer paginationPrefetchDepth,
+            ExecutorService paginationPrefetchExecutor,
             RequestMetricCollector requestMetricCollector,
             ConversionSchema conversionSchema,
             BatchWriteRetryStrategy batchWriteRetryStrategy) {
@@ -731,6 +806,8 @@ public class DynamoDBMapperConfig {
         this.tableNameResolver = tableNameResolver;
         this.objectTableNameResolver = objectTableNameResolver;
         this.paginationLoadingStrategy = paginationLoadingStrategy;
+        this.paginationPrefetchDepth = paginationPrefetchDepth;
+        this.paginationPrefetchExecutor = paginationPrefetchExecutor;
         this.requestMetricCollector = requestMetricCollector;
         this.conversionSchema = conversionSchema;
         this.batchWriteRetryStrategy = batchWriteRetryStrategy;
@@ -740,7 +817,7 @@ public class DynamoDBMapperConfig {
      * Constructs a new configuration object with the save behavior given.
      */
     public DynamoDBMapperConfig(SaveBehavior saveBehavior) {
-        this(saveBehavior, null, null, null, null, null, null,
+        this(saveBehavior, null, null, null, null, null, null, null, null,
                 ConversionSchemas.DEFAULT, new DefaultBatchWriteRetryStrategy());
     }
 
@@ -749,7 +826,7 @@ public class DynamoDBMapperConfig {
      * given.
      */
     public DynamoDBMapperConfig(ConsistentReads consistentReads) {
-        this(null, consistentReads, null, null, null, null, null,
+        this(null, consistentReads, null, null, null, null, null, null, null,
                 ConversionSchemas.DEFAULT, new DefaultBatchWriteRetryStrategy());
     }
 
@@ -757,7 +834,7 @@ public class DynamoDBMapperConfig {
      * Constructs a new configuration object with the table name override given.
      */
     public DynamoDBMapperConfig(TableNameOverride tableNameOverride) {
-        this(null, null, tableNameOverride, null, null, null, null,
+        this(null, null, tableNameOverride, null, null, null, null, null, null,
                 ConversionSchemas.DEFAULT, new DefaultBatchWriteRetryStrategy());
     }
 
@@ -765,7 +842,7 @@ public class DynamoDBMapperConfig {
      * Constructs a new configuration object with the table name resolver strategy given.
      */
     public DynamoDBMapperConfig(TableNameResolver tableNameResolver) {
-        this(null, null, null, tableNameResolver, null, null, null,
+        this(null, null, null, tableNameResolver, null, null, null, null, null,
                 ConversionSchemas.DEFAULT, new DefaultBatchWriteRetryStrategy());
     }
 
@@ -773,7 +850,7 @@ public class DynamoDBMapperConfig {
      * Constructs a new configuration object with the object table name resolver strategy given.
      */
     public DynamoDBMapperConfig(ObjectTableNameResolver objectTableNameResolver) {
-        this(null, null, null, null, objectTableNameResolver, null, null,
+        this(null, null, null, null, objectTableNameResolver, null, null, null, null,
                 ConversionSchemas.DEFAULT, new DefaultBatchWriteRetryStrategy());
     }
 
@@ -781,7 +858,7 @@ public class DynamoDBMapperConfig {
      * Constructs a new configuration object with the table name resolver strategies given.
      */
     public DynamoDBMapperConfig(TableNameResolver tableNameResolver, ObjectTableNameResolver objectTableNameResolver) {
-        this(null, null, null, tableNameResolver, objectTableNameResolver, null, null,
+        this(null, null, null, tableNameResolver, objectTableNameResolver, null, null, null, null,
                 ConversionSchemas.DEFAULT, new DefaultBatchWriteRetryStrategy());
     }
 
@@ -792,7 +869,7 @@ public class DynamoDBMapperConfig {
     public DynamoDBMapperConfig(
             PaginationLoadingStrategy paginationLoadingStrategy) {
 
-        this(null, null, null, null, null, paginationLoadingStrategy, null,
+        this(null, null, null, null, null, paginationLoadingStrategy, null, null, null,
                 ConversionSchemas.DEFAULT, new DefaultBatchWriteRetryStrategy());
     }
 
@@ -800,7 +877,7 @@ public class DynamoDBMapperConfig {
      * Constructs a new configuration object with the conversion schema given.
      */
     public DynamoDBMapperConfig(ConversionSchema conversionSchema) {
-        this(null, null, null, null, null, null, null, conversionSchema, new DefaultBatchWriteRetryStrategy());
+        this(null, null, null, null, null, null, null, null, null, conversionSchema, new DefaultBatchWriteRetryStrategy());
     }
 
     /**
@@ -830,6 +907,10 @@ public class DynamoDBMapperConfig {
             this.objectTableNameResolver = defaults.getObjectTableNameResolver();
             this.paginationLoadingStrategy =
                     defaults.getPaginationLoadingStrategy();
+            this.paginationPrefetchDepth =
+                    defaults.getPaginationPrefetchDepth();
+            this.paginationPrefetchExecutor =
+                    defaults.getPaginationPrefetchExecutor();
             this.requestMetricCollector = defaults.getRequestMetricCollector();
             this.conversionSchema = defaults.getConversionSchema();
             this.batchWriteRetryStrategy = defaults.getBatchWriteRetryStrategy();
@@ -861,6 +942,16 @@ public class DynamoDBMapperConfig {
                     ? defaults.getPaginationLoadingStrategy()
                     : overrides.getPaginationLoadingStrategy();
 
+            this.paginationPrefetchDepth =
+                    (overrides.getPaginationPrefetchDepth() == null)
+                    ? defaults.getPaginationPrefetchDepth()
+                    : overrides.getPaginationPrefetchDepth();
+
+            this.paginationPrefetchExecutor =
+                    (overrides.getPaginationPrefetchExecutor() == null)
+                    ? defaults.getPaginationPrefetchExecutor()
+                    : overrides.getPaginationPrefetchExecutor();
+
             this.requestMetricCollector =
                     (overrides.getRequestMetricCollector() == null)
                     ? defaults.getRequestMetricCollector()
@@ -936,6 +1027,23 @@ public class DynamoDBMapperConfig {
         return paginationLoadingStrategy;
     }
 
+    /**
+     * Returns the maximum number of pages fetched ahead of the iteration when
+     * using {@link PaginationLoadingStrategy#PREFETCH_ITERATION_ONLY}.
+     */
+    public Integer getPaginationPrefetchDepth() {
+        return paginationPrefetchDepth;
+    }
+
+    /**
+     * Returns the executor fetching pages ahead of the iteration when using
+     * {@link PaginationLoadingStrategy#PREFETCH_ITERATION_ONLY}, or null if
+     * the pages are fetched on a shared pool of daemon threads.
+     */
+    public ExecutorService getPaginationPrefetchExecutor() {
+        return paginationPrefetchExecutor;
+    }
+
     /**
      * Returns the request metric collector or null if not specified.
      */
@@ -968,6 +1076,8 @@ public class DynamoDBMapperConfig {
             null, // TableNameResolver
             null, // ObjectTableNameResolver
             PaginationLoadingStrategy.LAZY_LOADING,
+            2,     // PaginationPrefetchDepth
+            null,  // PaginationPrefetchExecutor
             null,  // RequestMetricCollector
             ConversionSchemas.DEFAULT,
             new DefaultBatchWriteRetryStrategy());
@@ -22,7 +22,15 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
-
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
 
@@ -43,6 +51,29 @@ public abstract class PaginatedList<T> implements List<T> {
     
     private static final String ITERATION_ONLY_UNSUPPORTED_OPERATION_MESSAGE = " is not supported when using ITERATION_ONLY configuration.";
 
+    /**
+     * The number of pages fetched ahead of the iteration in
+     * PREFETCH_ITERATION_ONLY mode, if not specified otherwise.
+     */
+    public static final int DEFAULT_PREFETCH_DEPTH = 2;
+
+    private static final AtomicInteger PREFETCHER_THREAD_COUNT = new AtomicInteger(0);
+
+    /**
+     * The pool of daemon threads fetching pages ahead when no executor is
+     * configured. Idle threads are released after a minute.
+     */
+    private static final class DefaultPrefetchExecutor {
+        private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "dynamodb-mapper-page-prefetcher-" + PREFETCHER_THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
     /**
      * Reference to the DynamoDB mapper for marshalling DynamoDB attributes back
      * into objects
@@ -81,6 +112,24 @@ public abstract class PaginatedList<T> implements List<T> {
      */
     private boolean iterationStarted = false;
 
+    /**
+     * The maximum number of pages buffered ahead of the iteration. Only used
+     * when the list is in PREFETCH_ITERATION_ONLY mode.
+     */
+    private final int prefetchDepth;
+
+    /**
+     * The executor fetching pages ahead of the iteration. Only used when the
+     * list is in PREFETCH_ITERATION_ONLY mode.
+     */
+    private final ExecutorService prefetchExecutor;
+
+    /**
+     * Background loader of the next pages. Only set once an iterator has been
+     * retrieved from a list in PREFETCH_ITERATION_ONLY mode.
+     */
+    private volatile PagePrefetcher prefetcher;
+
     /**
      * Constructs a PaginatedList instance using the default PaginationLoadingStrategy
      */
@@ -104,11 +153,45 @@ public abstract class PaginatedList<T> implements List<T> {
      *            provided, LAZY_LOADING will be set by default.
      */
     public PaginatedList(DynamoDBMapper mapper, Class<T> clazz, AmazonDynamoDB dynamo, PaginationLoadingStrategy paginationLoadingStrategy) {
+        this(mapper, clazz, dynamo, paginationLoadingStrategy, null, null);
+    }
+
+    /**
+     * Constructs a PaginatedList instance.
+     *
+     * @param mapper
+     *            The mapper for marshalling DynamoDB attributes into objects.
+     * @param clazz
+     *            The class of the annotated model.
+     * @param dynamo
+     *            The DynamoDB client for making low-level request calls.
+     * @param paginationLoadingStrategy
+     *            The strategy used for loading paginated results. If null
+     *            value is provided, LAZY_LOADING will be set by default.
+     * @param prefetchDepth
+     *            The maximum number of pages to fetch ahead of the iteration
+     *            in PREFETCH_ITERATION_ONLY mode. If null value is provided,
+     *            {@link #DEFAULT_PREFETCH_DEPTH} will be used.
+     * @param prefetchExecutor
+     *            The executor fetching pages ahead of the iteration in
+     *            PREFETCH_ITERATION_ONLY mode. If null value is provided, a
+     *            shared pool of daemon threads will be used.
+     */
+    public PaginatedList(DynamoDBMapper mapper, Class<T> clazz, AmazonDynamoDB dynamo,
+            PaginationLoadingStrategy paginationLoadingStrategy, Integer prefetchDepth,
+            ExecutorService prefetchExecutor) {
+        if (prefetchDepth != null && prefetchDepth < 1) {
+            throw new IllegalArgumentException("The prefetch depth must be at least 1, but was " + prefetchDepth);
+        }
         this.mapper = mapper;
         this.clazz = clazz;
         this.dynamo = dynamo;
         this.paginationLoadingStrategy = paginationLoadingStrategy == null ?
                 PaginationLoadingStrategy.LAZY_LOADING : paginationLoadingStrategy;
+        this.prefetchDepth = prefetchDepth == null ?
+                DEFAULT_PREFETCH_DEPTH : prefetchDepth;
+        this.prefetchExecutor = prefetchExecutor == null ?
+                DefaultPrefetchExecutor.INSTANCE : prefetchExecutor;
 
         this.allResults = new ArrayList<T>();
         
@@ -145,7 +228,18 @@ public abstract class PaginatedList<T> implements List<T> {
      * value of true guarantees that nextResults is non-empty.
      */
     private boolean nextResultsAvailable() {
-        return !nextResults.isEmpty() || loadNextResults();
+        if ( !nextResults.isEmpty() )
+            return true;
+
+        /*
+         * The prefetcher must be polled without holding the lock on this list,
+         * since sub-classes may synchronize fetchNextPage() on it.
+         */
+        PagePrefetcher currentPrefetcher = prefetcher;
+        if ( currentPrefetcher != null )
+            return currentPrefetcher.takeNextPage();
+
+        return loadNextResults();
     }
 
     /**
@@ -201,7 +295,195 @@ public abstract class PaginatedList<T> implements List<T> {
      */
     @Override
     public Iterator<T> iterator() {
-        return new PaginatedListIterator(paginationLoadingStrategy == PaginationLoadingStrategy.ITERATION_ONLY);
+        return new PaginatedListIterator(isIterationOnly());
+    }
+
+    /**
+     * Returns whether the list only supports a single iteration, releasing
+     * each page of results once the iteration moves past it.
+     */
+    private boolean isIterationOnly() {
+        return paginationLoadingStrategy == PaginationLoadingStrategy.ITERATION_ONLY
+                || paginationLoadingStrategy == PaginationLoadingStrategy.PREFETCH_ITERATION_ONLY;
+    }
+
+    /**
+     * Stops fetching pages ahead of the iteration of a list in
+     * PREFETCH_ITERATION_ONLY mode, for instance when the iteration is
+     * abandoned before its end. The pages already fetched remain available to
+     * the iteration, which then fetches the following ones itself, as in
+     * ITERATION_ONLY mode.
+     * <p>
+     * Has no effect in the other modes, or before the iteration has started.
+     */
+    public void stopPrefetching() {
+        PagePrefetcher currentPrefetcher = prefetcher;
+        if ( currentPrefetcher != null )
+            currentPrefetcher.stop();
+    }
+
+    /**
+     * Loads the next pages of results on the prefetch executor, keeping at
+     * most prefetchDepth non-empty pages buffered ahead of the iteration.
+     * <p>
+     * A loading task returns as soon as the buffer is full, and the iteration
+     * submits a new one each time it takes a page, so an abandoned iteration
+     * leaves at most prefetchDepth pages loaded in vain and no blocked thread.
+     * While a task runs, it is the only caller of
+     * {@link PaginatedList#fetchNextPage()} and
+     * {@link PaginatedList#atEndOfResults()}. Once prefetching is stopped and
+     * the buffer drained, the iteration loads the next pages itself.
+     */
+    private final class PagePrefetcher implements Runnable {
+
+        /** Marks the end of the result set in the page queue. */
+        private final Object endOfResults = new Object();
+
+        /** Wakes up the iteration once prefetching has been stopped. */
+        private final Object stoppedMarker = new Object();
+
+        /**
+         * Loaded pages waiting to be consumed, followed by either the end
+         * marker or the exception that stopped the loading. Only the loading
+         * task adds pages, and never beyond the capacity of the queue.
+         */
+        private final BlockingQueue<Object> pages = new ArrayBlockingQueue<Object>(prefetchDepth);
+
+        /** Whether a loading task is submitted or running. Guarded by this. */
+        private boolean running = false;
+
+        /** Whether the end marker or a failure has been queued. Guarded by this. */
+        private boolean done = false;
+
+        private volatile boolean stopped = false;
+
+        /**
+         * Whether the end marker or a failure has been taken by the
+         * iteration. Only used by the iterating thread.
+         */
+        private boolean finished = false;
+
+        /**
+         * Submits a loading task, unless one is already running or there is
+         * nothing left to load.
+         */
+        private void schedule() {
+            synchronized (this) {
+                if ( running || done || stopped || pages.remainingCapacity() == 0 )
+                    return;
+                running = true;
+            }
+            try {
+                prefetchExecutor.execute(this);
+            } catch (RejectedExecutionException ree) {
+                // Fall back to loading on the iterating thread
+                synchronized (this) {
+                    running = false;
+                }
+                stop();
+            }
+        }
+
+        private synchronized void stop() {
+            stopped = true;
+            if ( !running && !done ) {
+                pages.offer(stoppedMarker);
+            }
+        }
+
+        @Override
+        public void run() {
+            while ( true ) {
+                Object last = null;
+                try {
+                    while ( !stopped && pages.remainingCapacity() > 0 ) {
+                        if ( atEndOfResults() ) {
+                            last = endOfResults;
+                            break;
+                        }
+                        List<T> page = fetchNextPage();
+                        if ( !page.isEmpty() ) {
+                            pages.add(page);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    last = e;
+                } catch (Error e) {
+                    last = e;
+                }
+
+                synchronized (this) {
+                    if ( last != null ) {
+                        pages.add(last);
+                        done = true;
+                    } else if ( stopped ) {
+                        pages.offer(stoppedMarker);
+                    }
+                    /*
+                     * The iteration may have taken a page since the loop
+                     * ended, without submitting a task while this one runs.
+                     */
+                    if ( done || stopped || pages.remainingCapacity() == 0 ) {
+                        running = false;
+                        notifyAll();
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Moves the next non-empty page into the nextResults buffer, waiting
+         * for it to be loaded if needed. Returns false once the end of the
+         * result set has been reached.
+         */
+        @SuppressWarnings("unchecked")
+        private boolean takeNextPage() {
+            if ( finished )
+                return false;
+
+            Object next;
+            try {
+                if ( stopped ) {
+                    next = pages.poll();
+                    if ( next == null ) {
+                        awaitIdle();
+                        next = pages.poll();
+                    }
+                } else {
+                    next = pages.take();
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new AmazonClientException("Interrupted while waiting for the next page of results.", ie);
+            }
+
+            if ( next == null || next == stoppedMarker ) {
+                finished = true;
+                prefetcher = null;
+                return loadNextResults();
+            }
+
+            if ( next instanceof List ) {
+                nextResults.addAll((List<T>) next);
+                schedule();
+                return true;
+            }
+
+            finished = true;
+            if ( next instanceof RuntimeException ) {
+                throw (RuntimeException) next;
+            } else if ( next instanceof Error ) {
+                throw (Error) next;
+            }
+            return false;
+        }
+
+        private synchronized void awaitIdle() throws InterruptedException {
+            while ( running ) {
+                wait();
+            }
+        }
     }
     
     private class PaginatedListIterator implements Iterator<T> {
@@ -235,6 +517,12 @@ public abstract class PaginatedList<T> implements List<T> {
                 
                 allResultsCopy = null; // not needed for ITERATION_ONLY mode
                 innerIterator = allResults.iterator();
+
+                if (paginationLoadingStrategy == PaginationLoadingStrategy.PREFETCH_ITERATION_ONLY) {
+                    PagePrefetcher newPrefetcher = new PagePrefetcher();
+                    prefetcher = newPrefetcher;
+                    newPrefetcher.schedule();
+                }
             }
             else {
                 /*
@@ -500,7 +788,7 @@ public abstract class PaginatedList<T> implements List<T> {
     }
     
     private void checkUnsupportedOperationForIterationOnlyMode(String methodSignature) {
-        if (this.paginationLoadingStrategy == PaginationLoadingStrategy.ITERATION_ONLY) {
+        if (isIterationOnly()) {
             throw new UnsupportedOperationException(methodSignature + ITERATION_ONLY_UNSUPPORTED_OPERATION_MESSAGE);
         }
     };
@@ -50,7 +50,9 @@ public class PaginatedParallelScanList<T> extends PaginatedList<T> {
             ParallelScanTask parallelScanTask,
             PaginationLoadingStrategy paginationLoadingStrategy,
             DynamoDBMapperConfig config) {
-        super(mapper, clazz, dynamo, paginationLoadingStrategy);
+        super(mapper, clazz, dynamo, paginationLoadingStrategy,
+                config == null ? null : config.getPaginationPrefetchDepth(),
+                config == null ? null : config.getPaginationPrefetchExecutor());
 
         this.parallelScanTask = parallelScanTask;
         this.config = config;
@@ -14,6 +14,7 @@
  */
 package com.amazonaws.services.dynamodbv2.datamodeling;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
@@ -55,19 +56,39 @@ public class PaginatedQueryList<T> extends PaginatedList<T> {
             PaginationLoadingStrategy paginationLoadingStrategy,
             DynamoDBMapperConfig config
     ) {
-        super(mapper, clazz, dynamo, paginationLoadingStrategy);
+        this(mapper, clazz, dynamo, queryRequest, queryResult,
+                mapper.marshallIntoObjects(mapper.toParameters(
+                        queryResult.getItems(),
+                        clazz,
+                        queryRequest.getTableName(),
+                        config)),
+                paginationLoadingStrategy, config);
+    }
+
+    /**
+     * Creates a list whose first page, already read from the given result,
+     * holds the given objects.
+     */
+    PaginatedQueryList(
+            DynamoDBMapper mapper,
+            Class<T> clazz,
+            AmazonDynamoDB dynamo,
+            QueryRequest queryRequest,
+            QueryResult queryResult,
+            List<T> firstPage,
+            PaginationLoadingStrategy paginationLoadingStrategy,
+            DynamoDBMapperConfig config
+    ) {
+        super(mapper, clazz, dynamo, paginationLoadingStrategy,
+                config == null ? null : config.getPaginationPrefetchDepth(),
+                config == null ? null : config.getPaginationPrefetchExecutor());
 
         this.queryRequest = queryRequest;
         this.queryResult  = queryResult;
         this.config = config;
 
 
-        allResults.addAll(mapper.marshallIntoObjects(
-            mapper.toParameters(
-                    queryResult.getItems(),
-                    clazz,
-                    queryRequest.getTableName(),
-                    config)));
+        allResults.addAll(firstPage);
 
         // If the results should be eagerly loaded at once
         if (paginationLoadingStrategy == PaginationLoadingStrategy.EAGER_LOADING) {
@@ -83,11 +104,8 @@ public class PaginatedQueryList<T> extends PaginatedList<T> {
     @Override
     protected synchronized List<T> fetchNextPage() {
         queryRequest.setExclusiveStartKey(queryResult.getLastEvaluatedKey());
-        queryResult = dynamo.query(DynamoDBMapper.applyUserAgent(queryRequest));
-        return mapper.marshallIntoObjects(mapper.toParameters(
-                queryResult.getItems(),
-                clazz,
-                queryRequest.getTableName(),
-                config));
+        List<T> page = new ArrayList<T>();
+        queryResult = mapper.fetchQueryPage(dynamo, clazz, queryRequest, config, page);
+        return page;
     }
 }
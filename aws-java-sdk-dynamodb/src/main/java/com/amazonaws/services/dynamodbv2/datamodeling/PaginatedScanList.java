@@ -14,6 +14,7 @@
  */
 package com.amazonaws.services.dynamodbv2.datamodeling;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
@@ -55,18 +56,38 @@ public class PaginatedScanList<T> extends PaginatedList<T> {
             PaginationLoadingStrategy paginationLoadingStrategy,
             DynamoDBMapperConfig config
     ) {
-        super(mapper, clazz, dynamo, paginationLoadingStrategy);
+        this(mapper, clazz, dynamo, scanRequest, scanResult,
+                mapper.marshallIntoObjects(mapper.toParameters(
+                        scanResult.getItems(),
+                        clazz,
+                        scanRequest.getTableName(),
+                        config)),
+                paginationLoadingStrategy, config);
+    }
+
+    /**
+     * Creates a list whose first page, already read from the given result,
+     * holds the given objects.
+     */
+    PaginatedScanList(
+            DynamoDBMapper mapper,
+            Class<T> clazz,
+            AmazonDynamoDB dynamo,
+            ScanRequest scanRequest,
+            ScanResult scanResult,
+            List<T> firstPage,
+            PaginationLoadingStrategy paginationLoadingStrategy,
+            DynamoDBMapperConfig config
+    ) {
+        super(mapper, clazz, dynamo, paginationLoadingStrategy,
+                config == null ? null : config.getPaginationPrefetchDepth(),
+                config == null ? null : config.getPaginationPrefetchExecutor());
 
         this.scanRequest = scanRequest;
         this.scanResult = scanResult;
         this.config = config;
 
-        allResults.addAll(mapper.marshallIntoObjects(
-            mapper.toParameters(
-                    scanResult.getItems(),
-                    clazz,
-                    scanRequest.getTableName(),
-                    config)));
+        allResults.addAll(firstPage);
 
         // If the results should be eagerly loaded at once
         if (paginationLoadingStrategy == PaginationLoadingStrategy.EAGER_LOADING) {
@@ -82,12 +103,9 @@ public class PaginatedScanList<T> extends PaginatedList<T> {
     @Override
     protected synchronized List<T> fetchNextPage() {
         scanRequest.setExclusiveStartKey(scanResult.getLastEvaluatedKey());
-        scanResult = dynamo.scan(DynamoDBMapper.applyUserAgent(scanRequest));
-        return mapper.marshallIntoObjects(mapper.toParameters(
-            scanResult.getItems(),
-            clazz,
-            scanRequest.getTableName(),
-            config));
+        List<T> page = new ArrayList<T>();
+        scanResult = mapper.fetchScanPage(dynamo, clazz, scanRequest, config, page);
+        return page;
     }
 
 }
@@ -0,0 +1,712 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.document;
+
+import static com.amazonaws.services.dynamodbv2.document.internal.AttributeValueWireJson.expect;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.document.internal.AttributeValueWireJson;
+import com.amazonaws.services.dynamodbv2.document.internal.InternalUtils;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * An immutable, memory-compact representation of a DynamoDB item, intended
+ * for holding large numbers of items in memory, such as in batch jobs.
+ * <p>
+ * Unlike {@link Item}, which keeps every attribute as a map entry with boxed
+ * values, a <code>CompactItem</code> stores its attributes in a few parallel
+ * arrays:
+ * <ul>
+ * <li>attribute names are interned, so that items of the same table share the
+ * same name instances;</li>
+ * <li>integral numbers that fit in a <code>long</code> are kept as primitives,
+ * and other numbers in their wire string form, parsed only on access;</li>
+ * <li>booleans and nulls take no object at all;</li>
+ * <li>binary values share a single backing array per item, and are returned as
+ * read-only views of it.</li>
+ * </ul>
+ * Sets, lists and maps are kept as private copies of their
+ * {@link AttributeValue}s, and copied again whenever they are returned.
+ * <p>
+ * A <code>CompactItem</code> can be read from and written to the DynamoDB wire
+ * JSON format directly (for example <code>{"id":{"N":"1"}}</code>), without
+ * going through an intermediate <code>Map&lt;String, AttributeValue></code>,
+ * and converted to and from {@link Item} and attribute value maps.
+ */
+public final class CompactItem {
+
+    private static final byte TYPE_STRING = 0;
+    private static final byte TYPE_LONG = 1;
+    private static final byte TYPE_NUMBER = 2;
+    private static final byte TYPE_BINARY = 3;
+    private static final byte TYPE_BOOLEAN = 4;
+    private static final byte TYPE_NULL = 5;
+    private static final byte TYPE_OTHER = 6;
+
+    /** The maximum number of distinct attribute names interned. */
+    private static final int MAX_INTERNED_NAMES = 8192;
+
+    private static final ConcurrentMap<String, String> INTERNED_NAMES =
+            new ConcurrentHashMap<String, String>();
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final byte[] NO_BYTES = new byte[0];
+
+    private final String[] names;
+    private final byte[] types;
+
+    /**
+     * Per attribute: the value of longs and booleans; the offset (high 32
+     * bits) and length (low 32 bits) within binaries of binary values.
+     */
+    private final long[] primitives;
+
+    /**
+     * Per attribute: the string, the number in wire form, or the attribute
+     * value; null for primitive types.
+     */
+    private final Object[] objects;
+
+    /** Backing array of all the binary values of this item. */
+    private final byte[] binaries;
+
+    private CompactItem(String[] names, byte[] types, long[] primitives,
+            Object[] objects, byte[] binaries) {
+        this.names = names;
+        this.types = types;
+        this.primitives = primitives;
+        this.objects = objects;
+        this.binaries = binaries;
+    }
+
+    /**
+     * Returns the number of attributes of this item.
+     */
+    public int numberOfAttributes() {
+        return names.length;
+    }
+
+    /**
+     * Returns the names of the attributes of this item, in their original
+     * order.
+     */
+    public List<String> attributeNames() {
+        return new AbstractList<String>() {
+            @Override public String get(int index) { return names[index]; }
+            @Override public int size() { return names.length; }
+        };
+    }
+
+    /**
+     * Returns true if this item contains the specified attribute; false
+     * otherwise.
+     */
+    public boolean isPresent(String attrName) {
+        return indexOf(attrName) >= 0;
+    }
+
+    /**
+     * Returns true if the specified attribute exists with a null value; false
+     * otherwise.
+     */
+    public boolean isNull(String attrName) {
+        int i = indexOf(attrName);
+        return i >= 0 && types[i] == TYPE_NULL;
+    }
+
+    /**
+     * Returns the value of the specified attribute as a string; or null if
+     * the attribute either doesn't exist or is null. Numbers are returned in
+     * their string form.
+     *
+     * @throws IncompatibleTypeException
+     *             if the attribute is neither a string nor a number
+     */
+    public String getString(String attrName) {
+        int i = indexOf(attrName);
+        if (i < 0 || types[i] == TYPE_NULL) {
+            return null;
+        }
+        switch (types[i]) {
+        case TYPE_STRING:
+        case TYPE_NUMBER:
+            return (String) objects[i];
+        case TYPE_LONG:
+            return Long.toString(primitives[i]);
+        default:
+            throw incompatible(attrName, "string");
+        }
+    }
+
+    /**
+     * Returns the value of the specified attribute as a <code>long</code>.
+     *
+     * @throws ArithmeticException
+     *             if the number has a fractional part or is out of range
+     * @throws IncompatibleTypeException
+     *             if the attribute is missing, null or not a number
+     */
+    public long getLong(String attrName) {
+        int i = requireIndex(attrName);
+        if (types[i] == TYPE_LONG) {
+            return primitives[i];
+        }
+        if (types[i] == TYPE_NUMBER) {
+            return new BigDecimal((String) objects[i]).longValueExact();
+        }
+        throw incompatible(attrName, "number");
+    }
+
+    /**
+     * Returns the value of the specified attribute as an <code>int</code>.
+     *
+     * @throws ArithmeticException
+     *             if the number has a fractional part or is out of range
+     * @throws IncompatibleTypeException
+     *             if the attribute is missing, null or not a number
+     */
+    public int getInt(String attrName) {
+        long value = getLong(attrName);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new ArithmeticException(value + " is out of range of an int");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Returns the value of the specified attribute as a
+     * <code>BigDecimal</code>; or null if the attribute either doesn't exist
+     * or is null.
+     *
+     * @throws IncompatibleTypeException
+     *             if the attribute is not a number
+     */
+    public BigDecimal getNumber(String attrName) {
+        int i = indexOf(attrName);
+        if (i < 0 || types[i] == TYPE_NULL) {
+            return null;
+        }
+        if (types[i] == TYPE_LONG) {
+            return BigDecimal.valueOf(primitives[i]);
+        }
+        if (types[i] == TYPE_NUMBER) {
+            return new BigDecimal((String) objects[i]);
+        }
+        throw incompatible(attrName, "number");
+    }
+
+    /**
+     * Returns the value of the specified attribute as a boolean.
+     *
+     * @throws IncompatibleTypeException
+     *             if the attribute is missing, null or not a boolean
+     */
+    public boolean getBoolean(String attrName) {
+        int i = requireIndex(attrName);
+        if (types[i] != TYPE_BOOLEAN) {
+            throw incompatible(attrName, "boolean");
+        }
+        return primitives[i] != 0;
+    }
+
+    /**
+     * Returns a read-only view of the specified binary attribute; or null if
+     * the attribute either doesn't exist or is null.
+     *
+     * @throws IncompatibleTypeException
+     *             if the attribute is not binary
+     */
+    public ByteBuffer getByteBuffer(String attrName) {
+        int i = indexOf(attrName);
+        if (i < 0 || types[i] == TYPE_NULL) {
+            return null;
+        }
+        if (types[i] != TYPE_BINARY) {
+            throw incompatible(attrName, "binary");
+        }
+        return binaryView(i);
+    }
+
+    /**
+     * Returns the value of the specified attribute as an
+     * {@link AttributeValue}; or null if the attribute doesn't exist.
+     */
+    public AttributeValue getAttributeValue(String attrName) {
+        int i = indexOf(attrName);
+        return i < 0 ? null : toAttributeValue(i);
+    }
+
+    /**
+     * Returns the attributes of this item as a map of attribute values, as
+     * used by the low level client.
+     */
+    public Map<String, AttributeValue> toAttributeValues() {
+        Map<String, AttributeValue> map = new LinkedHashMap<String, AttributeValue>(
+                names.length * 4 / 3 + 1);
+        for (int i = 0; i < names.length; i++) {
+            map.put(names[i], toAttributeValue(i));
+        }
+        return map;
+    }
+
+    /**
+     * Returns this item as a document API {@link Item}.
+     */
+    public Item toItem() {
+        return Item.fromMap(InternalUtils.<Object>toSimpleMapValue(toAttributeValues()));
+    }
+
+    /**
+     * Returns this item in the DynamoDB wire JSON format, that is as a JSON
+     * object mapping each attribute name to its typed attribute value.
+     */
+    public String toWireJSON() {
+        StringWriter writer = new StringWriter(names.length * 32);
+        try {
+            JsonGenerator generator = JSON_FACTORY.createGenerator(writer);
+            writeWireJSON(generator);
+            generator.close();
+        } catch (IOException e) {
+            throw new AmazonClientException("Unable to write item as JSON", e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Writes this item in the DynamoDB wire JSON format to the given
+     * generator.
+     */
+    public void writeWireJSON(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < names.length; i++) {
+            generator.writeFieldName(names[i]);
+            switch (types[i]) {
+            case TYPE_STRING:
+                generator.writeStartObject();
+                generator.writeStringField("S", (String) objects[i]);
+                generator.writeEndObject();
+                break;
+            case TYPE_LONG:
+                generator.writeStartObject();
+                generator.writeFieldName("N");
+                // DynamoDB numbers are always transferred as JSON strings
+                generator.writeString(Long.toString(primitives[i]));
+                generator.writeEndObject();
+                break;
+            case TYPE_NUMBER:
+                generator.writeStartObject();
+                generator.writeStringField("N", (String) objects[i]);
+                generator.writeEndObject();
+                break;
+            case TYPE_BINARY:
+                generator.writeStartObject();
+                generator.writeFieldName("B");
+                generator.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, binaries,
+                        binaryOffset(i), binaryLength(i));
+                generator.writeEndObject();
+                break;
+            case TYPE_BOOLEAN:
+                generator.writeStartObject();
+                generator.writeBooleanField("BOOL", primitives[i] != 0);
+                generator.writeEndObject();
+                break;
+            case TYPE_NULL:
+                generator.writeStartObject();
+                generator.writeBooleanField("NULL", true);
+                generator.writeEndObject();
+                break;
+            default:
+                AttributeValueWireJson.writeAttributeValue(generator, (AttributeValue) objects[i]);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Reads an item from its DynamoDB wire JSON format; or returns null if the
+     * input is null.
+     */
+    public static CompactItem fromWireJSON(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            JsonParser parser = JSON_FACTORY.createParser(json);
+            try {
+                parser.nextToken();
+                return fromWireJSON(parser);
+            } finally {
+                parser.close();
+            }
+        } catch (IOException e) {
+            throw new AmazonClientException("Unable to parse item JSON", e);
+        }
+    }
+
+    /**
+     * Reads an item in the DynamoDB wire JSON format from the given parser,
+     * which must be positioned on the START_OBJECT token of the item. The
+     * parser is left on the matching END_OBJECT token.
+     */
+    public static CompactItem fromWireJSON(JsonParser parser) throws IOException {
+        expect(parser, parser.getCurrentToken(), JsonToken.START_OBJECT);
+        Builder builder = new Builder();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_OBJECT) {
+            expect(parser, token, JsonToken.FIELD_NAME);
+            String name = parser.getCurrentName();
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            expect(parser, parser.nextToken(), JsonToken.FIELD_NAME);
+            String type = parser.getCurrentName();
+            parser.nextToken();
+            if ("S".equals(type)) {
+                builder.addString(name, parser.getText());
+            } else if ("N".equals(type)) {
+                builder.addNumber(name, parser.getText());
+            } else if ("B".equals(type)) {
+                builder.addBinary(name, parser.getBinaryValue(Base64Variants.MIME_NO_LINEFEEDS));
+            } else if ("BOOL".equals(type)) {
+                builder.addBoolean(name, parser.getBooleanValue());
+            } else if ("NULL".equals(type)) {
+                builder.addNull(name);
+            } else {
+                AttributeValue value = new AttributeValue();
+                AttributeValueWireJson.readTypedValue(parser, type, value);
+                builder.addOther(name, value);
+            }
+            expect(parser, parser.nextToken(), JsonToken.END_OBJECT);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns an item with the given attribute values; or null if the input
+     * is null.
+     */
+    public static CompactItem fromAttributeValues(Map<String, AttributeValue> attributeValues) {
+        if (attributeValues == null) {
+            return null;
+        }
+        Builder builder = new Builder(attributeValues.size());
+        for (Map.Entry<String, AttributeValue> entry : attributeValues.entrySet()) {
+            String name = entry.getKey();
+            AttributeValue value = entry.getValue();
+            if (value.getS() != null) {
+                builder.addString(name, value.getS());
+            } else if (value.getN() != null) {
+                builder.addNumber(name, value.getN());
+            } else if (value.getB() != null) {
+                ByteBuffer b = value.getB().duplicate();
+                byte[] bytes = new byte[b.remaining()];
+                b.get(bytes);
+                builder.addBinary(name, bytes);
+            } else if (value.getBOOL() != null) {
+                builder.addBoolean(name, value.getBOOL());
+            } else if (Boolean.TRUE.equals(value.getNULL())) {
+                builder.addNull(name);
+            } else {
+                builder.addOther(name, copyOf(value));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a compact copy of the given document API item; or null if the
+     * input is null.
+     */
+    public static CompactItem fromItem(Item item) {
+        if (item == null) {
+            return null;
+        }
+        return fromAttributeValues(InternalUtils.toAttributeValues(item));
+    }
+
+    /**
+     * Returns the canonical instance of the given attribute name, so that
+     * items read from the same table share their name strings.
+     */
+    static String intern(String name) {
+        String interned = INTERNED_NAMES.get(name);
+        if (interned != null) {
+            return interned;
+        }
+        if (INTERNED_NAMES.size() >= MAX_INTERNED_NAMES) {
+            return name;
+        }
+        interned = INTERNED_NAMES.putIfAbsent(name, name);
+        return interned == null ? name : interned;
+    }
+
+    /**
+     * Returns whether the given wire number is an integer that round-trips
+     * exactly through a <code>long</code>.
+     */
+    static boolean isCompactLong(String n) {
+        int length = n.length();
+        if (length == 0) {
+            return false;
+        }
+        int start = n.charAt(0) == '-' ? 1 : 0;
+        int digits = length - start;
+        // 18 digits always fit; leading zeros would not round-trip
+        if (digits < 1 || digits > 18 || (n.charAt(start) == '0' && digits > 1)) {
+            return false;
+        }
+        for (int i = start; i < length; i++) {
+            char c = n.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return !(start == 1 && digits == 1 && n.charAt(1) == '0');
+    }
+
+    private AttributeValue toAttributeValue(int i) {
+        switch (types[i]) {
+        case TYPE_STRING:
+            return new AttributeValue().withS((String) objects[i]);
+        case TYPE_LONG:
+            return new AttributeValue().withN(Long.toString(primitives[i]));
+        case TYPE_NUMBER:
+            return new AttributeValue().withN((String) objects[i]);
+        case TYPE_BINARY:
+            return new AttributeValue().withB(binaryView(i));
+        case TYPE_BOOLEAN:
+            return new AttributeValue().withBOOL(primitives[i] != 0);
+        case TYPE_NULL:
+            return new AttributeValue().withNULL(Boolean.TRUE);
+        default:
+            return copyOf((AttributeValue) objects[i]);
+        }
+    }
+
+    /**
+     * Returns a deep copy of the given attribute value, so that the values of
+     * sets, lists and maps held by an item can't be changed from outside.
+     */
+    private static AttributeValue copyOf(AttributeValue value) {
+        AttributeValue copy = new AttributeValue()
+                .withS(value.getS())
+                .withN(value.getN())
+                .withBOOL(value.getBOOL())
+                .withNULL(value.getNULL());
+        if (value.getB() != null) {
+            copy.setB(copyOf(value.getB()));
+        }
+        if (value.getSS() != null) {
+            copy.setSS(new ArrayList<String>(value.getSS()));
+        }
+        if (value.getNS() != null) {
+            copy.setNS(new ArrayList<String>(value.getNS()));
+        }
+        if (value.getBS() != null) {
+            List<ByteBuffer> bs = new ArrayList<ByteBuffer>(value.getBS().size());
+            for (ByteBuffer b : value.getBS()) {
+                bs.add(copyOf(b));
+            }
+            copy.setBS(bs);
+        }
+        if (value.getL() != null) {
+            List<AttributeValue> l = new ArrayList<AttributeValue>(value.getL().size());
+            for (AttributeValue element : value.getL()) {
+                l.add(element == null ? null : copyOf(element));
+            }
+            copy.setL(l);
+        }
+        if (value.getM() != null) {
+            Map<String, AttributeValue> m = new LinkedHashMap<String, AttributeValue>(
+                    value.getM().size() * 4 / 3 + 1);
+            for (Map.Entry<String, AttributeValue> entry : value.getM().entrySet()) {
+                AttributeValue element = entry.getValue();
+                m.put(entry.getKey(), element == null ? null : copyOf(element));
+            }
+            copy.setM(m);
+        }
+        return copy;
+    }
+
+    private static ByteBuffer copyOf(ByteBuffer b) {
+        ByteBuffer source = b.duplicate();
+        ByteBuffer copy = ByteBuffer.allocate(source.remaining());
+        copy.put(source);
+        copy.flip();
+        return copy;
+    }
+
+    private ByteBuffer binaryView(int i) {
+        return ByteBuffer.wrap(binaries, binaryOffset(i), binaryLength(i))
+                .slice().asReadOnlyBuffer();
+    }
+
+    private int binaryOffset(int i) {
+        return (int) (primitives[i] >>> 32);
+    }
+
+    private int binaryLength(int i) {
+        return (int) primitives[i];
+    }
+
+    private int indexOf(String attrName) {
+        // Attribute names are interned, so try the cheap identity check first
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] == attrName) {
+                return i;
+            }
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(attrName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int requireIndex(String attrName) {
+        int i = indexOf(attrName);
+        if (i < 0) {
+            throw new IncompatibleTypeException("Attribute " + attrName + " is not present");
+        }
+        if (types[i] == TYPE_NULL) {
+            throw new IncompatibleTypeException("Attribute " + attrName + " is null");
+        }
+        return i;
+    }
+
+    private static IncompatibleTypeException incompatible(String attrName, String type) {
+        return new IncompatibleTypeException("Attribute " + attrName
+                + " cannot be converted into a " + type);
+    }
+
+    /**
+     * Accumulates the attributes of an item into growable arrays.
+     */
+    private static final class Builder {
+        private String[] names;
+        private byte[] types;
+        private long[] primitives;
+        private Object[] objects;
+        private byte[] binaries = NO_BYTES;
+        private int binariesLength;
+        private int size;
+
+        private Builder() {
+            this(8);
+        }
+
+        private Builder(int capacity) {
+            capacity = Math.max(capacity, 1);
+            names = new String[capacity];
+            types = new byte[capacity];
+            primitives = new long[capacity];
+            objects = new Object[capacity];
+        }
+
+        void addString(String name, String value) {
+            add(name, TYPE_STRING, 0, value);
+        }
+
+        void addNumber(String name, String value) {
+            if (isCompactLong(value)) {
+                add(name, TYPE_LONG, Long.parseLong(value), null);
+            } else {
+                add(name, TYPE_NUMBER, 0, value);
+            }
+        }
+
+        void addBinary(String name, byte[] value) {
+            int required = binariesLength + value.length;
+            if (required > binaries.length) {
+                binaries = Arrays.copyOf(binaries, Math.max(required, binaries.length * 2));
+            }
+            System.arraycopy(value, 0, binaries, binariesLength, value.length);
+            add(name, TYPE_BINARY, ((long) binariesLength << 32) | value.length, null);
+            binariesLength = required;
+        }
+
+        void addBoolean(String name, boolean value) {
+            add(name, TYPE_BOOLEAN, value ? 1 : 0, null);
+        }
+
+        void addNull(String name) {
+            add(name, TYPE_NULL, 0, null);
+        }
+
+        void addOther(String name, AttributeValue value) {
+            add(name, TYPE_OTHER, 0, value);
+        }
+
+        private void add(String name, byte type, long primitive, Object object) {
+            if (size == names.length) {
+                int capacity = size * 2;
+                names = Arrays.copyOf(names, capacity);
+                types = Arrays.copyOf(types, capacity);
+                primitives = Arrays.copyOf(primitives, capacity);
+                objects = Arrays.copyOf(objects, capacity);
+            }
+            names[size] = intern(name);
+            types[size] = type;
+            primitives[size] = primitive;
+            objects[size] = object;
+            size++;
+        }
+
+        CompactItem build() {
+            return new CompactItem(
+                    size == names.length ? names : Arrays.copyOf(names, size),
+                    size == types.length ? types : Arrays.copyOf(types, size),
+                    size == primitives.length ? primitives : Arrays.copyOf(primitives, size),
+                    size == objects.length ? objects : Arrays.copyOf(objects, size),
+                    binariesLength == binaries.length ? binaries : Arrays.copyOf(binaries, binariesLength));
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return toAttributeValues().hashCode();
+    }
+
+    @Override
+    public boolean equals(Object in) {
+        if (!(in instanceof CompactItem)) {
+            return false;
+        }
+        return toAttributeValues().equals(((CompactItem) in).toAttributeValues());
+    }
+
+    @Override
+    public String toString() {
+        return "{ CompactItem: " + toWireJSON() + " }";
+    }
+}
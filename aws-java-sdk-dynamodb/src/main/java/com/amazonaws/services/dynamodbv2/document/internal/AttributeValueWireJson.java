@@ -0,0 +1,215 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.document.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.util.BinaryUtils;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads and writes attribute values in the DynamoDB wire JSON format, such as
+ * <code>{"S":"foo"}</code> or <code>{"L":[{"N":"1"},{"BOOL":true}]}</code>,
+ * directly from and to Jackson streams.
+ */
+public enum AttributeValueWireJson {
+    ;
+
+    /**
+     * Reads the attribute value object the given parser is positioned on (the
+     * START_OBJECT token has been consumed already), leaving the parser on the
+     * matching END_OBJECT token.
+     */
+    public static AttributeValue readAttributeValueBody(JsonParser parser) throws IOException {
+        AttributeValue value = new AttributeValue();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_OBJECT) {
+            expect(parser, token, JsonToken.FIELD_NAME);
+            String type = parser.getCurrentName();
+            parser.nextToken();
+            readTypedValue(parser, type, value);
+        }
+        return value;
+    }
+
+    /**
+     * Reads the value of the given attribute value type (such as "S" or "L")
+     * the given parser is positioned on into the given attribute value,
+     * leaving the parser on the last token of the value.
+     */
+    public static void readTypedValue(JsonParser parser, String type, AttributeValue value)
+            throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if ("S".equals(type)) {
+            value.setS(parser.getText());
+        } else if ("N".equals(type)) {
+            value.setN(parser.getText());
+        } else if ("B".equals(type)) {
+            value.setB(ByteBuffer.wrap(parser.getBinaryValue(Base64Variants.MIME_NO_LINEFEEDS)));
+        } else if ("BOOL".equals(type)) {
+            value.setBOOL(parser.getBooleanValue());
+        } else if ("NULL".equals(type)) {
+            value.setNULL(parser.getBooleanValue());
+        } else if ("SS".equals(type) || "NS".equals(type)) {
+            expect(parser, token, JsonToken.START_ARRAY);
+            List<String> strings = new ArrayList<String>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                strings.add(parser.getText());
+            }
+            if ("SS".equals(type)) {
+                value.setSS(strings);
+            } else {
+                value.setNS(strings);
+            }
+        } else if ("BS".equals(type)) {
+            expect(parser, token, JsonToken.START_ARRAY);
+            List<ByteBuffer> binaries = new ArrayList<ByteBuffer>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                binaries.add(ByteBuffer.wrap(parser.getBinaryValue(Base64Variants.MIME_NO_LINEFEEDS)));
+            }
+            value.setBS(binaries);
+        } else if ("L".equals(type)) {
+            expect(parser, token, JsonToken.START_ARRAY);
+            List<AttributeValue> list = new ArrayList<AttributeValue>();
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                expect(parser, token, JsonToken.START_OBJECT);
+                list.add(readAttributeValueBody(parser));
+            }
+            value.setL(list);
+        } else if ("M".equals(type)) {
+            expect(parser, token, JsonToken.START_OBJECT);
+            value.setM(readAttributeValueMapBody(parser));
+        } else {
+            throw new JsonParseException("Unknown attribute value type " + type,
+                    parser.getCurrentLocation());
+        }
+    }
+
+    /**
+     * Reads the map of attribute values the given parser is positioned on (the
+     * START_OBJECT token has been consumed already), leaving the parser on the
+     * matching END_OBJECT token.
+     */
+    public static Map<String, AttributeValue> readAttributeValueMapBody(JsonParser parser)
+            throws IOException {
+        Map<String, AttributeValue> map = new LinkedHashMap<String, AttributeValue>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_OBJECT) {
+            expect(parser, token, JsonToken.FIELD_NAME);
+            String name = parser.getCurrentName();
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            map.put(name, readAttributeValueBody(parser));
+        }
+        return map;
+    }
+
+    /**
+     * Writes the given attribute value as a JSON object.
+     */
+    public static void writeAttributeValue(JsonGenerator generator, AttributeValue value)
+            throws IOException {
+        generator.writeStartObject();
+        if (value.getS() != null) {
+            generator.writeStringField("S", value.getS());
+        } else if (value.getN() != null) {
+            generator.writeStringField("N", value.getN());
+        } else if (value.getB() != null) {
+            generator.writeFieldName("B");
+            writeBinary(generator, value.getB());
+        } else if (value.getBOOL() != null) {
+            generator.writeBooleanField("BOOL", value.getBOOL());
+        } else if (value.getNULL() != null) {
+            generator.writeBooleanField("NULL", value.getNULL());
+        } else if (value.getSS() != null) {
+            writeStrings(generator, "SS", value.getSS());
+        } else if (value.getNS() != null) {
+            writeStrings(generator, "NS", value.getNS());
+        } else if (value.getBS() != null) {
+            generator.writeArrayFieldStart("BS");
+            for (ByteBuffer binary : value.getBS()) {
+                writeBinary(generator, binary);
+            }
+            generator.writeEndArray();
+        } else if (value.getL() != null) {
+            generator.writeArrayFieldStart("L");
+            for (AttributeValue element : value.getL()) {
+                writeAttributeValue(generator, element);
+            }
+            generator.writeEndArray();
+        } else if (value.getM() != null) {
+            generator.writeFieldName("M");
+            writeAttributeValueMap(generator, value.getM());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the given map of attribute values as a JSON object.
+     */
+    public static void writeAttributeValueMap(JsonGenerator generator,
+            Map<String, AttributeValue> map) throws IOException {
+        generator.writeStartObject();
+        for (Map.Entry<String, AttributeValue> entry : map.entrySet()) {
+            generator.writeFieldName(entry.getKey());
+            writeAttributeValue(generator, entry.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the remaining bytes of the given buffer as a base-64 encoded JSON
+     * string, without changing the position of the buffer.
+     */
+    public static void writeBinary(JsonGenerator generator, ByteBuffer binary) throws IOException {
+        if (binary.hasArray()) {
+            generator.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, binary.array(),
+                    binary.arrayOffset() + binary.position(), binary.remaining());
+        } else {
+            generator.writeBinary(Base64Variants.MIME_NO_LINEFEEDS,
+                    BinaryUtils.copyBytesFrom(binary), 0, binary.remaining());
+        }
+    }
+
+    private static void writeStrings(JsonGenerator generator, String type, List<String> strings)
+            throws IOException {
+        generator.writeArrayFieldStart(type);
+        for (String string : strings) {
+            generator.writeString(string);
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Throws a {@link JsonParseException} if the given token is not the
+     * expected one.
+     */
+    public static void expect(JsonParser parser, JsonToken actual, JsonToken expected)
+            throws JsonParseException {
+        if (actual != expected) {
+            throw new JsonParseException("Expected " + expected + " but found " + actual,
+                    parser.getCurrentLocation());
+        }
+    }
+}
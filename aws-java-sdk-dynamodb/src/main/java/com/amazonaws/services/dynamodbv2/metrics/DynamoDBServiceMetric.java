@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016 Amazon Technologies, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://aws.amazon.com/apache2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.metrics;
+
+import com.amazonaws.metrics.ServiceMetricType;
+
+/**
+ * DynamoDB specific service metric types, which are not tied to an individual
+ * request. These metrics are not part of the default set of predefined
+ * metrics; they can be enabled via
+ * {@link com.amazonaws.metrics.AwsSdkMetrics#add(com.amazonaws.metrics.MetricType)}.
+ */
+public enum DynamoDBServiceMetric implements ServiceMetricType {
+    /**
+     * Time taken to serve an item from the client-side item cache. The sample
+     * count of this metric is the number of cache hits.
+     */
+    DynamoDBItemCacheHit,
+
+    /**
+     * Time taken to look up an item that was not found in the client-side
+     * item cache. The sample count of this metric is the number of cache
+     * misses.
+     */
+    DynamoDBItemCacheMiss,
+    ;
+
+    private static final String SERVICE_NAME = "Amazon DynamoDB";
+
+    @Override public String getServiceName() { return SERVICE_NAME; }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazonaws.services.dynamodbv2.model.transform;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.amazonaws.services.dynamodbv2.model.*;
+import com.amazonaws.transform.*;
+
+import com.fasterxml.jackson.core.JsonToken;
+import static com.fasterxml.jackson.core.JsonToken.*;
+
+/**
+ * GetItemResult JSON Unmarshaller that passes the returned item, if any, to an
+ * item unmarshaller instead of building an attribute value map for it. The
+ * item is kept by this unmarshaller, and the item of the returned result is
+ * left unset.
+ *
+ * @param <T>
+ *            The type the item is unmarshalled into.
+ */
+public class GetItemResultItemsJsonUnmarshaller<T> implements
+        Unmarshaller<GetItemResult, JsonUnmarshallerContext> {
+
+    private final Unmarshaller<T, JsonUnmarshallerContext> itemUnmarshaller;
+
+    private List<T> items;
+
+    public GetItemResultItemsJsonUnmarshaller(
+            Unmarshaller<T, JsonUnmarshallerContext> itemUnmarshaller) {
+        this.itemUnmarshaller = itemUnmarshaller;
+    }
+
+    /**
+     * Returns a list holding the item of the last unmarshalled result, or null
+     * if it had none.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    public GetItemResult unmarshall(JsonUnmarshallerContext context)
+            throws Exception {
+        GetItemResult getItemResult = new GetItemResult();
+        items = null;
+
+        int originalDepth = context.getCurrentDepth();
+        String currentParentElement = context.getCurrentParentElement();
+        int targetDepth = originalDepth + 1;
+
+        JsonToken token = context.getCurrentToken();
+        if (token == null)
+            token = context.nextToken();
+        if (token == VALUE_NULL)
+            return null;
+
+        while (true) {
+            if (token == null)
+                break;
+
+            if (token == FIELD_NAME || token == START_OBJECT) {
+                if (context.testExpression("Item", targetDepth)) {
+                    context.nextToken();
+                    T item = itemUnmarshaller.unmarshall(context);
+                    if (item != null) {
+                        items = new ArrayList<T>(1);
+                        items.add(item);
+                    }
+                }
+                if (context.testExpression("ConsumedCapacity", targetDepth)) {
+                    context.nextToken();
+                    getItemResult
+                            .setConsumedCapacity(ConsumedCapacityJsonUnmarshaller
+                                    .getInstance().unmarshall(context));
+                }
+            } else if (token == END_ARRAY || token == END_OBJECT) {
+                if (context.getLastParsedParentElement() == null
+                        || context.getLastParsedParentElement().equals(
+                                currentParentElement)) {
+                    if (context.getCurrentDepth() <= originalDepth)
+                        break;
+                }
+            }
+            token = context.nextToken();
+        }
+
+        return getItemResult;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazonaws.services.dynamodbv2.model.transform;
+
+import java.util.List;
+
+import com.amazonaws.services.dynamodbv2.model.*;
+import com.amazonaws.transform.SimpleTypeJsonUnmarshallers.*;
+import com.amazonaws.transform.*;
+
+import com.fasterxml.jackson.core.JsonToken;
+import static com.fasterxml.jackson.core.JsonToken.*;
+
+/**
+ * ScanResult JSON Unmarshaller that passes each returned item to an item
+ * unmarshaller instead of building an attribute value map for it. The items
+ * are kept by this unmarshaller, and the items of the returned result are left
+ * unset.
+ *
+ * @param <T>
+ *            The type the items are unmarshalled into.
+ */
+public class ScanResultItemsJsonUnmarshaller<T> implements
+        Unmarshaller<ScanResult, JsonUnmarshallerContext> {
+
+    private final Unmarshaller<T, JsonUnmarshallerContext> itemUnmarshaller;
+
+    private List<T> items;
+
+    public ScanResultItemsJsonUnmarshaller(
+            Unmarshaller<T, JsonUnmarshallerContext> itemUnmarshaller) {
+        this.itemUnmarshaller = itemUnmarshaller;
+    }
+
+    /**
+     * Returns the items of the last unmarshalled result, or null if it had
+     * none.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    public ScanResult unmarshall(JsonUnmarshallerContext context)
+            throws Exception {
+        ScanResult scanResult = new ScanResult();
+        items = null;
+
+        int originalDepth = context.getCurrentDepth();
+        String currentParentElement = context.getCurrentParentElement();
+        int targetDepth = originalDepth + 1;
+
+        JsonToken token = context.getCurrentToken();
+        if (token == null)
+            token = context.nextToken();
+        if (token == VALUE_NULL)
+            return null;
+
+        while (true) {
+            if (token == null)
+                break;
+
+            if (token == FIELD_NAME || token == START_OBJECT) {
+                if (context.testExpression("Items", targetDepth)) {
+                    context.nextToken();
+                    items = new ListUnmarshaller<T>(itemUnmarshaller)
+                            .unmarshall(context);
+                }
+                if (context.testExpression("Count", targetDepth)) {
+                    context.nextToken();
+                    scanResult.setCount(IntegerJsonUnmarshaller.getInstance()
+                            .unmarshall(context));
+                }
+                if (context.testExpression("ScannedCount", targetDepth)) {
+                    context.nextToken();
+                    scanResult.setScannedCount(IntegerJsonUnmarshaller
+                            .getInstance().unmarshall(context));
+                }
+                if (context.testExpression("LastEvaluatedKey", targetDepth)) {
+                    context.nextToken();
+                    scanResult
+                            .setLastEvaluatedKey(new MapUnmarshaller<String, AttributeValue>(
+                                    StringJsonUnmarshaller.getInstance(),
+                                    AttributeValueJsonUnmarshaller
+                                            .getInstance()).unmarshall(context));
+                }
+                if (context.testExpression("ConsumedCapacity", targetDepth)) {
+                    context.nextToken();
+                    scanResult
+                            .setConsumedCapacity(ConsumedCapacityJsonUnmarshaller
+                                    .getInstance().unmarshall(context));
+                }
+            } else if (token == END_ARRAY || token == END_OBJECT) {
+                if (context.getLastParsedParentElement() == null
+                        || context.getLastParsedParentElement().equals(
+                                currentParentElement)) {
+                    if (context.getCurrentDepth() <= originalDepth)
+                        break;
+                }
+            }
+            token = context.nextToken();
+        }
+
+        return scanResult;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.streams;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ResourceInUseException;
+import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
+import com.amazonaws.services.dynamodbv2.util.TableUtils;
+import com.amazonaws.shards.CheckpointStore;
+
+/**
+ * A {@link CheckpointStore} backed by a DynamoDB table, which allows several
+ * processes to share the checkpoints of a stream. The table has a string hash
+ * key named {@value #STREAM_ARN_ATTRIBUTE} and a string range key named
+ * {@value #SHARD_ID_ATTRIBUTE}; the checkpoint is stored in the
+ * {@value #CHECKPOINT_ATTRIBUTE} attribute. Use
+ * {@link #createTableIfNotExists(ProvisionedThroughput)} to create it.
+ */
+@ThreadSafe
+public class DynamoDBCheckpointStore implements CheckpointStore {
+
+    /** The hash key attribute holding the stream ARN. */
+    public static final String STREAM_ARN_ATTRIBUTE = "streamArn";
+
+    /** The range key attribute holding the shard id. */
+    public static final String SHARD_ID_ATTRIBUTE = "shardId";
+
+    /** The attribute holding the checkpoint. */
+    public static final String CHECKPOINT_ATTRIBUTE = "checkpoint";
+
+    private final AmazonDynamoDB dynamoDB;
+    private final String tableName;
+
+    /**
+     * Creates a checkpoint store which keeps the checkpoints in the given
+     * table.
+     */
+    public DynamoDBCheckpointStore(AmazonDynamoDB dynamoDB, String tableName) {
+        if (dynamoDB == null) {
+            throw new IllegalArgumentException("dynamoDB must not be null");
+        }
+        if (tableName == null) {
+            throw new IllegalArgumentException("tableName must not be null");
+        }
+        this.dynamoDB = dynamoDB;
+        this.tableName = tableName;
+    }
+
+    /**
+     * Creates the checkpoint table with the given provisioned throughput
+     * unless it exists already, and waits until it is active.
+     */
+    public void createTableIfNotExists(ProvisionedThroughput throughput)
+            throws InterruptedException {
+        try {
+            dynamoDB.createTable(new CreateTableRequest()
+                    .withTableName(tableName)
+                    .withKeySchema(
+                            new KeySchemaElement(STREAM_ARN_ATTRIBUTE, KeyType.HASH),
+                            new KeySchemaElement(SHARD_ID_ATTRIBUTE, KeyType.RANGE))
+                    .withAttributeDefinitions(
+                            new AttributeDefinition(STREAM_ARN_ATTRIBUTE, ScalarAttributeType.S),
+                            new AttributeDefinition(SHARD_ID_ATTRIBUTE, ScalarAttributeType.S))
+                    .withProvisionedThroughput(throughput));
+        } catch (ResourceInUseException e) {
+            // The table exists already
+        }
+        TableUtils.waitUntilActive(dynamoDB, tableName);
+    }
+
+    @Override
+    public String getCheckpoint(String streamArn, String shardId) {
+        Map<String, AttributeValue> item = dynamoDB.getItem(new GetItemRequest()
+                .withTableName(tableName)
+                .withKey(key(streamArn, shardId))
+                .withConsistentRead(true))
+                .getItem();
+
+        if (item == null) {
+            return null;
+        }
+        AttributeValue checkpoint = item.get(CHECKPOINT_ATTRIBUTE);
+        return checkpoint == null ? null : checkpoint.getS();
+    }
+
+    @Override
+    public void setCheckpoint(String streamArn, String shardId, String checkpoint) {
+        Map<String, AttributeValue> item = key(streamArn, shardId);
+        item.put(CHECKPOINT_ATTRIBUTE, new AttributeValue(checkpoint));
+        dynamoDB.putItem(new PutItemRequest()
+                .withTableName(tableName)
+                .withItem(item));
+    }
+
+    private static Map<String, AttributeValue> key(String streamArn, String shardId) {
+        Map<String, AttributeValue> key = new HashMap<String, AttributeValue>();
+        key.put(STREAM_ARN_ATTRIBUTE, new AttributeValue(streamArn));
+        key.put(SHARD_ID_ATTRIBUTE, new AttributeValue(shardId));
+        return key;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.streams;
+
+import com.amazonaws.services.dynamodbv2.model.Record;
+import com.amazonaws.shards.ShardRecordProcessor;
+
+/**
+ * Application callback invoked by a {@link StreamShardReader} for the records
+ * read from the shards of a DynamoDB stream.
+ * <p>
+ * Records of a single shard are delivered in order, one batch at a time, and
+ * all records of a parent shard are delivered before any record of its
+ * children. Batches of different shards may be delivered concurrently from
+ * different threads, so implementations must be thread safe.
+ */
+public interface StreamRecordProcessor extends ShardRecordProcessor<Record> {
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.streams;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBStreams;
+import com.amazonaws.services.dynamodbv2.model.DescribeStreamRequest;
+import com.amazonaws.services.dynamodbv2.model.ExpiredIteratorException;
+import com.amazonaws.services.dynamodbv2.model.GetRecordsRequest;
+import com.amazonaws.services.dynamodbv2.model.GetRecordsResult;
+import com.amazonaws.services.dynamodbv2.model.GetShardIteratorRequest;
+import com.amazonaws.services.dynamodbv2.model.Record;
+import com.amazonaws.services.dynamodbv2.model.Shard;
+import com.amazonaws.services.dynamodbv2.model.ShardIteratorType;
+import com.amazonaws.services.dynamodbv2.model.StreamDescription;
+import com.amazonaws.services.dynamodbv2.model.TrimmedDataAccessException;
+import com.amazonaws.shards.CheckpointStore;
+import com.amazonaws.shards.ShardReader;
+
+/**
+ * Reads all shards of a DynamoDB stream and hands their records to a
+ * {@link StreamRecordProcessor}.
+ * <p>
+ * The reader periodically describes the stream to discover its shard lineage
+ * and starts reading a shard only once its parent shard has been read
+ * completely (or is no longer part of the stream), so that all changes to an
+ * item are processed in order. Shards are processed in parallel on a bounded
+ * pool of threads, one batch at a time, and while a batch is being processed
+ * the next GetRecords call for the same shard is already in flight.
+ * <p>
+ * After each successfully processed batch the sequence number of its last
+ * record is stored in a {@link CheckpointStore}; a restarted reader resumes
+ * every shard right after its checkpoint. Records are therefore delivered at
+ * least once: a batch whose processing fails, or whose checkpoint is lost in
+ * a crash, is delivered again.
+ */
+@ThreadSafe
+public class StreamShardReader extends ShardReader<Record> {
+
+    private final AmazonDynamoDBStreams streams;
+    private final String streamArn;
+    private final StreamShardReaderConfig config;
+
+    /**
+     * Creates a reader with the default configuration.
+     *
+     * @see #StreamShardReader(AmazonDynamoDBStreams, String, CheckpointStore,
+     *      StreamRecordProcessor, StreamShardReaderConfig)
+     */
+    public StreamShardReader(AmazonDynamoDBStreams streams, String streamArn,
+            CheckpointStore checkpointStore, StreamRecordProcessor processor) {
+        this(streams, streamArn, checkpointStore, processor, new StreamShardReaderConfig());
+    }
+
+    /**
+     * Creates a reader for the given stream. Reading starts with
+     * {@link #start()}.
+     *
+     * @param streams
+     *            the client used to read the stream
+     * @param streamArn
+     *            the ARN of the stream to read
+     * @param checkpointStore
+     *            where the positions reached in the shards are stored
+     * @param processor
+     *            the callback receiving the records
+     * @param config
+     *            the configuration of the reader
+     */
+    public StreamShardReader(AmazonDynamoDBStreams streams, String streamArn,
+            CheckpointStore checkpointStore, StreamRecordProcessor processor,
+            StreamShardReaderConfig config) {
+        super(streamArn, checkpointStore, processor, config, "dynamodb-stream-reader-");
+        if (streams == null) {
+            throw new IllegalArgumentException("streams must not be null");
+        }
+        this.streams = streams;
+        this.streamArn = streamArn;
+        this.config = config;
+    }
+
+    @Override
+    protected List<ShardLineage> describeShards() {
+        List<ShardLineage> described = new ArrayList<ShardLineage>();
+        String exclusiveStartShardId = null;
+        do {
+            StreamDescription description = streams.describeStream(new DescribeStreamRequest()
+                    .withStreamArn(streamArn)
+                    .withExclusiveStartShardId(exclusiveStartShardId))
+                    .getStreamDescription();
+            for (Shard shard : description.getShards()) {
+                described.add(new ShardLineage(shard.getShardId(),
+                        shard.getParentShardId(), null));
+            }
+            exclusiveStartShardId = description.getLastEvaluatedShardId();
+        } while (exclusiveStartShardId != null);
+        return described;
+    }
+
+    @Override
+    protected String getShardIterator(String shardId, boolean trimHorizon) {
+        return getShardIterator(shardId, trimHorizon
+                ? ShardIteratorType.TRIM_HORIZON
+                : config.getInitialPosition(), null);
+    }
+
+    @Override
+    protected String getShardIterator(String shardId, String afterSequenceNumber) {
+        return getShardIterator(shardId, ShardIteratorType.AFTER_SEQUENCE_NUMBER,
+                afterSequenceNumber);
+    }
+
+    private String getShardIterator(String shardId, ShardIteratorType type,
+            String sequenceNumber) {
+        return streams.getShardIterator(new GetShardIteratorRequest()
+                .withStreamArn(streamArn)
+                .withShardId(shardId)
+                .withShardIteratorType(type)
+                .withSequenceNumber(sequenceNumber))
+                .getShardIterator();
+    }
+
+    @Override
+    protected RecordBatch<Record> getRecords(String shardIterator, int limit) {
+        GetRecordsResult result = streams.getRecords(new GetRecordsRequest()
+                .withShardIterator(shardIterator)
+                .withLimit(limit));
+        // DynamoDB does not tell how far behind the tip a batch is
+        return new RecordBatch<Record>(result.getRecords(),
+                result.getNextShardIterator(), null);
+    }
+
+    @Override
+    protected String getSequenceNumber(Record record) {
+        return record.getDynamodb().getSequenceNumber();
+    }
+
+    @Override
+    protected ReadFailure getReadFailure(RuntimeException e) {
+        if (e instanceof ExpiredIteratorException) {
+            return ReadFailure.EXPIRED_ITERATOR;
+        }
+        if (e instanceof TrimmedDataAccessException) {
+            return ReadFailure.TRIMMED;
+        }
+        return ReadFailure.OTHER;
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.metrics.AwsSdkMetrics;
+import com.amazonaws.metrics.ByteThroughputProvider;
+import com.amazonaws.metrics.MetricCollector;
+import com.amazonaws.metrics.RequestMetricCollector;
+import com.amazonaws.metrics.ServiceLatencyProvider;
+import com.amazonaws.metrics.ServiceMetricCollector;
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.metrics.DynamoDBServiceMetric;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.DeleteRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+
+public class ItemCachingAmazonDynamoDBTest {
+
+    private static final String TABLE = "table";
+    private static final String UNCACHED_TABLE = "uncached";
+    private static final String HASH_KEY = "id";
+
+    /**
+     * In-memory stand-in for DynamoDB which counts the items it serves.
+     */
+    private static class StubDynamoDB extends AbstractAmazonDynamoDB {
+        private final Map<Map<String, AttributeValue>, Map<String, AttributeValue>> items =
+                new HashMap<Map<String, AttributeValue>, Map<String, AttributeValue>>();
+        private int itemsRead;
+
+        @Override
+        public GetItemResult getItem(GetItemRequest request) {
+            Map<String, AttributeValue> item = items.get(request.getKey());
+            if (item != null) {
+                itemsRead++;
+            }
+            return new GetItemResult().withItem(item);
+        }
+
+        @Override
+        public BatchGetItemResult batchGetItem(BatchGetItemRequest request) {
+            Map<String, List<Map<String, AttributeValue>>> responses =
+                    new HashMap<String, List<Map<String, AttributeValue>>>();
+            for (Map.Entry<String, KeysAndAttributes> entry : request.getRequestItems().entrySet()) {
+                List<Map<String, AttributeValue>> found = new ArrayList<Map<String, AttributeValue>>();
+                for (Map<String, AttributeValue> key : entry.getValue().getKeys()) {
+                    if (items.containsKey(key)) {
+                        itemsRead++;
+                        found.add(items.get(key));
+                    }
+                }
+                responses.put(entry.getKey(), found);
+            }
+            return new BatchGetItemResult()
+                    .withResponses(responses)
+                    .withUnprocessedKeys(new HashMap<String, KeysAndAttributes>());
+        }
+
+        @Override
+        public PutItemResult putItem(PutItemRequest request) {
+            items.put(Collections.singletonMap(HASH_KEY, request.getItem().get(HASH_KEY)),
+                    request.getItem());
+            return new PutItemResult();
+        }
+
+        @Override
+        public UpdateItemResult updateItem(UpdateItemRequest request) {
+            Map<String, AttributeValue> item = items.get(request.getKey());
+            item.put("value", request.getAttributeUpdates().get("value").getValue());
+            return new UpdateItemResult();
+        }
+
+        @Override
+        public BatchWriteItemResult batchWriteItem(BatchWriteItemRequest request) {
+            for (WriteRequest writeRequest : request.getRequestItems().get(TABLE)) {
+                items.remove(writeRequest.getDeleteRequest().getKey());
+            }
+            return new BatchWriteItemResult();
+        }
+    }
+
+    private StubDynamoDB stub;
+    private ItemCachingAmazonDynamoDB client;
+
+    @Before
+    public void setUp() {
+        stub = new StubDynamoDB();
+        client = new ItemCachingAmazonDynamoDB(stub)
+                .withTableConfig(TABLE, new ItemCacheConfig().withMaxItems(100));
+        for (int i = 0; i < 5; i++) {
+            stub.putItem(new PutItemRequest().withTableName(TABLE).withItem(item(i, "v" + i)));
+            stub.putItem(new PutItemRequest().withTableName(UNCACHED_TABLE).withItem(item(i, "v" + i)));
+        }
+    }
+
+    @Test
+    public void testGetItemIsServedFromCache() {
+        assertEquals("v1", get(1).get("value").getS());
+        assertEquals("v1", get(1).get("value").getS());
+        assertEquals(1, stub.itemsRead);
+        assertEquals(1, client.getCacheHitCount());
+        assertEquals(1, client.getCacheMissCount());
+    }
+
+    @Test
+    public void testUncachedTableAndProjectionsBypassCache() {
+        GetItemRequest request = new GetItemRequest().withTableName(UNCACHED_TABLE).withKey(key(1));
+        client.getItem(request);
+        client.getItem(request);
+
+        GetItemRequest projection = new GetItemRequest().withTableName(TABLE).withKey(key(1))
+                .withProjectionExpression("value");
+        client.getItem(projection);
+        client.getItem(projection);
+
+        assertEquals(4, stub.itemsRead);
+        assertEquals(0, client.getCachedItemCount(TABLE));
+    }
+
+    @Test
+    public void testConsistentReadsRefreshButBypassCache() {
+        GetItemRequest request = new GetItemRequest().withTableName(TABLE).withKey(key(1))
+                .withConsistentRead(true);
+        client.getItem(request);
+        client.getItem(request);
+        assertEquals(2, stub.itemsRead);
+
+        get(1);
+        assertEquals(2, stub.itemsRead);
+    }
+
+    @Test
+    public void testWritesInvalidateCachedItems() {
+        get(1);
+        get(2);
+        get(3);
+
+        client.putItem(new PutItemRequest().withTableName(TABLE).withItem(item(1, "new")));
+        client.updateItem(new UpdateItemRequest().withTableName(TABLE).withKey(key(2))
+                .addAttributeUpdatesEntry("value", new AttributeValueUpdate().withValue(new AttributeValue("updated"))));
+        client.batchWriteItem(new BatchWriteItemRequest().withRequestItems(
+                Collections.singletonMap(TABLE, Arrays.asList(new WriteRequest()
+                        .withDeleteRequest(new DeleteRequest().withKey(key(3)))))));
+
+        assertEquals("new", get(1).get("value").getS());
+        assertEquals("updated", get(2).get("value").getS());
+        assertNull(get(3));
+    }
+
+    @Test
+    public void testBatchGetItemOnlyRequestsMissingKeys() {
+        get(0);
+        get(1);
+        int readsBefore = stub.itemsRead;
+
+        BatchGetItemResult result = client.batchGetItem(new BatchGetItemRequest()
+                .addRequestItemsEntry(TABLE, new KeysAndAttributes()
+                        .withKeys(key(0), key(1), key(2), key(3))));
+
+        assertEquals(4, result.getResponses().get(TABLE).size());
+        assertEquals(readsBefore + 2, stub.itemsRead);
+
+        // Everything is cached now, so DynamoDB is not called at all
+        result = client.batchGetItem(new BatchGetItemRequest()
+                .addRequestItemsEntry(TABLE, new KeysAndAttributes()
+                        .withKeys(key(0), key(1), key(2), key(3))));
+        assertEquals(4, result.getResponses().get(TABLE).size());
+        assertEquals(readsBefore + 2, stub.itemsRead);
+    }
+
+    @Test
+    public void testBatchGetItemRecordsOneMissSamplePerMissedKey() {
+        final List<ServiceLatencyProvider> samples = new ArrayList<ServiceLatencyProvider>();
+        final ServiceMetricCollector serviceMetricCollector = new ServiceMetricCollector() {
+            @Override
+            public void collectByteThroughput(ByteThroughputProvider provider) {
+            }
+
+            @Override
+            public void collectLatency(ServiceLatencyProvider provider) {
+                samples.add(provider);
+            }
+        };
+        AwsSdkMetrics.setMetricCollector(new MetricCollector() {
+            @Override public boolean start() { return true; }
+            @Override public boolean stop() { return true; }
+            @Override public boolean isEnabled() { return true; }
+            @Override public RequestMetricCollector getRequestMetricCollector() {
+                return RequestMetricCollector.NONE;
+            }
+            @Override public ServiceMetricCollector getServiceMetricCollector() {
+                return serviceMetricCollector;
+            }
+        });
+        try {
+            get(0);
+            samples.clear();
+
+            client.batchGetItem(new BatchGetItemRequest()
+                    .addRequestItemsEntry(TABLE, new KeysAndAttributes()
+                            .withKeys(key(0), key(1), key(2), key(3))));
+        } finally {
+            AwsSdkMetrics.setMetricCollector(null);
+        }
+
+        int hits = 0;
+        int misses = 0;
+        for (ServiceLatencyProvider sample : samples) {
+            if (sample.getServiceMetricType() == DynamoDBServiceMetric.DynamoDBItemCacheHit) {
+                hits++;
+            } else if (sample.getServiceMetricType() == DynamoDBServiceMetric.DynamoDBItemCacheMiss) {
+                misses++;
+            }
+        }
+        assertEquals(1, hits);
+        assertEquals(3, misses);
+    }
+
+    @Test
+    public void testCacheIsSizeBounded() {
+        client = new ItemCachingAmazonDynamoDB(stub, new ItemCacheConfig().withMaxItems(2));
+        for (int i = 0; i < 5; i++) {
+            get(i);
+        }
+        assertTrue(client.getCachedItemCount(TABLE) <= 2);
+    }
+
+    @Test
+    public void testExpiredItemsAreReadAgain() throws InterruptedException {
+        client = new ItemCachingAmazonDynamoDB(stub, new ItemCacheConfig().withTimeToLiveMillis(1));
+        get(1);
+        Thread.sleep(10);
+        get(1);
+        assertEquals(2, stub.itemsRead);
+    }
+
+    private Map<String, AttributeValue> get(int id) {
+        return client.getItem(new GetItemRequest().withTableName(TABLE).withKey(key(id))).getItem();
+    }
+
+    private static Map<String, AttributeValue> key(int id) {
+        return Collections.singletonMap(HASH_KEY, new AttributeValue().withN(Integer.toString(id)));
+    }
+
+    private static Map<String, AttributeValue> item(int id, String value) {
+        Map<String, AttributeValue> item = new HashMap<String, AttributeValue>(key(id));
+        item.put("value", new AttributeValue(value));
+        return item;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.datamodeling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.transform.GetItemResultItemsJsonUnmarshaller;
+import com.amazonaws.services.dynamodbv2.model.transform.QueryResultItemsJsonUnmarshaller;
+import com.amazonaws.services.dynamodbv2.model.transform.QueryResultJsonUnmarshaller;
+import com.amazonaws.transform.JsonUnmarshallerContext;
+import com.amazonaws.transform.JsonUnmarshallerContextImpl;
+import com.fasterxml.jackson.core.JsonFactory;
+
+public class ItemJsonUnmarshallerTest {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final ConversionSchemas.StandardItemConverter CONVERTER =
+            (ConversionSchemas.StandardItemConverter) ConversionSchemas.V2
+                    .getConverter(new ConversionSchema.Dependencies()
+                            .with(S3ClientCache.class, new S3ClientCache(
+                                    (AWSCredentialsProvider) null)));
+
+    private static final String QUERY_RESPONSE = "{"
+            + "\"Count\":2,"
+            + "\"Items\":["
+            + "{\"id\":{\"S\":\"a\"},"
+            + "\"unmapped\":{\"M\":{\"x\":{\"L\":[{\"S\":\"1\"},{\"M\":{}}]}}},"
+            + "\"number\":{\"N\":\"42\"},"
+            + "\"tags\":{\"SS\":[\"t1\",\"t2\"]},"
+            + "\"values\":{\"L\":[{\"S\":\"v1\"},{\"S\":\"v2\"}]},"
+            + "\"attributes\":{\"M\":{\"k\":{\"S\":\"v\"}}},"
+            + "\"flag\":{\"BOOL\":true}},"
+            + "{\"other\":{\"L\":[]},\"id\":{\"S\":\"b\"},\"flag\":{\"NULL\":true}}"
+            + "],"
+            + "\"LastEvaluatedKey\":{\"id\":{\"S\":\"b\"}},"
+            + "\"ScannedCount\":3"
+            + "}";
+
+    @Test
+    public void testQueryItemsMatchAttributeValueMaps() throws Exception {
+        QueryResultItemsJsonUnmarshaller<Item> unmarshaller =
+                new QueryResultItemsJsonUnmarshaller<Item>(
+                        CONVERTER.getItemUnmarshaller(Item.class));
+
+        QueryResult result = unmarshaller.unmarshall(context(QUERY_RESPONSE));
+        List<Item> items = unmarshaller.getItems();
+
+        QueryResult expected = QueryResultJsonUnmarshaller.getInstance()
+                .unmarshall(context(QUERY_RESPONSE));
+
+        assertNull(result.getItems());
+        assertEquals(2, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(CONVERTER.unconvert(Item.class,
+                    expected.getItems().get(i)), items.get(i));
+        }
+
+        Item first = items.get(0);
+        assertEquals("a", first.getId());
+        assertEquals(Integer.valueOf(42), first.getNumber());
+        assertEquals(new HashSet<String>(Arrays.asList("t1", "t2")),
+                first.getTags());
+        assertEquals(Arrays.asList("v1", "v2"), first.getValues());
+        assertEquals(Collections.singletonMap("k", "v"),
+                first.getAttributes());
+        assertEquals(Boolean.TRUE, first.getFlag());
+
+        // The fields after the skipped and streamed items are still read.
+        assertEquals(Integer.valueOf(2), result.getCount());
+        assertEquals(Integer.valueOf(3), result.getScannedCount());
+        assertEquals(expected.getLastEvaluatedKey(),
+                result.getLastEvaluatedKey());
+    }
+
+    @Test
+    public void testGetItem() throws Exception {
+        GetItemResultItemsJsonUnmarshaller<Item> unmarshaller =
+                new GetItemResultItemsJsonUnmarshaller<Item>(
+                        CONVERTER.getItemUnmarshaller(Item.class));
+
+        GetItemResult result = unmarshaller.unmarshall(context("{"
+                + "\"Item\":{\"id\":{\"S\":\"a\"},\"number\":{\"N\":\"7\"}},"
+                + "\"ConsumedCapacity\":{\"TableName\":\"table\","
+                + "\"CapacityUnits\":0.5}}"));
+
+        assertNull(result.getItem());
+        assertEquals(1, unmarshaller.getItems().size());
+        assertEquals("a", unmarshaller.getItems().get(0).getId());
+        assertEquals(Integer.valueOf(7),
+                unmarshaller.getItems().get(0).getNumber());
+        assertEquals("table", result.getConsumedCapacity().getTableName());
+
+        unmarshaller.unmarshall(context("{}"));
+        assertNull(unmarshaller.getItems());
+    }
+
+    private static JsonUnmarshallerContext context(String json)
+            throws Exception {
+        return new JsonUnmarshallerContextImpl(JSON_FACTORY.createParser(json));
+    }
+
+    @DynamoDBTable(tableName = "table")
+    public static class Item {
+
+        private String id;
+        private Integer number;
+        private Set<String> tags;
+        private List<String> values;
+        private Map<String, String> attributes;
+        private Boolean flag;
+
+        @DynamoDBHashKey
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public Integer getNumber() {
+            return number;
+        }
+
+        public void setNumber(Integer number) {
+            this.number = number;
+        }
+
+        public Set<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(Set<String> tags) {
+            this.tags = tags;
+        }
+
+        public List<String> getValues() {
+            return values;
+        }
+
+        public void setValues(List<String> values) {
+            this.values = values;
+        }
+
+        public Map<String, String> getAttributes() {
+            return attributes;
+        }
+
+        public void setAttributes(Map<String, String> attributes) {
+            this.attributes = attributes;
+        }
+
+        public Boolean getFlag() {
+            return flag;
+        }
+
+        public void setFlag(Boolean flag) {
+            this.flag = flag;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Item)) {
+                return false;
+            }
+            Item other = (Item) obj;
+            return Arrays.asList(id, number, tags, values, attributes, flag)
+                    .equals(Arrays.asList(other.id, other.number, other.tags,
+                            other.values, other.attributes, other.flag));
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.asList(id, number, tags, values, attributes, flag)
+                    .hashCode();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.datamodeling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+
+import org.junit.Test;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+
+public class PaginatedListPrefetchTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Serves integers in pages of PAGE_SIZE, optionally failing on a given
+     * page, and records how far ahead of the consumer it has been asked to
+     * fetch and on which threads.
+     */
+    private static class StubPaginatedList extends PaginatedList<Integer> {
+
+        private final int totalPages;
+        private final int failingPage;
+        private final AtomicInteger fetchedPages = new AtomicInteger(1);
+        private final List<Thread> fetchingThreads =
+                Collections.synchronizedList(new ArrayList<Thread>());
+
+        StubPaginatedList(int totalPages, int failingPage, Integer prefetchDepth,
+                ExecutorService executor) {
+            super(null, Integer.class, null,
+                    PaginationLoadingStrategy.PREFETCH_ITERATION_ONLY, prefetchDepth, executor);
+            this.totalPages = totalPages;
+            this.failingPage = failingPage;
+            allResults.addAll(page(0));
+        }
+
+        @Override
+        protected boolean atEndOfResults() {
+            return fetchedPages.get() >= totalPages;
+        }
+
+        @Override
+        protected synchronized List<Integer> fetchNextPage() {
+            fetchingThreads.add(Thread.currentThread());
+            int pageNumber = fetchedPages.getAndIncrement();
+            if (pageNumber == failingPage) {
+                throw new AmazonServiceException("Page " + pageNumber + " failed");
+            }
+            // Every other page is empty, as DynamoDB may return for filtered scans
+            if (pageNumber % 2 == 1) {
+                return Collections.emptyList();
+            }
+            return page(pageNumber);
+        }
+
+        private static List<Integer> page(int pageNumber) {
+            List<Integer> page = new ArrayList<Integer>();
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                page.add(pageNumber * PAGE_SIZE + i);
+            }
+            return page;
+        }
+    }
+
+    private static List<Integer> expectedItems(int totalPages) {
+        List<Integer> expected = new ArrayList<Integer>();
+        for (int page = 0; page < totalPages; page += 2) {
+            expected.addAll(StubPaginatedList.page(page));
+        }
+        return expected;
+    }
+
+    private static List<Integer> drain(Iterator<Integer> iterator) {
+        List<Integer> actual = new ArrayList<Integer>();
+        while (iterator.hasNext()) {
+            actual.add(iterator.next());
+        }
+        return actual;
+    }
+
+    /**
+     * Waits for the tasks submitted so far to the single-threaded executor to
+     * complete.
+     */
+    private void awaitSubmittedTasks() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testIteratesAllPagesInOrder() {
+        StubPaginatedList list = new StubPaginatedList(10, -1, null, executor);
+        assertEquals(expectedItems(10), drain(list.iterator()));
+    }
+
+    @Test
+    public void testIteratesAllPagesInOrderOnDefaultExecutor() {
+        StubPaginatedList list = new StubPaginatedList(10, -1, null, null);
+        assertEquals(expectedItems(10), drain(list.iterator()));
+    }
+
+    @Test
+    public void testPrefetchIsBoundedByDepth() throws Exception {
+        StubPaginatedList list = new StubPaginatedList(100, -1, 1, executor);
+
+        Iterator<Integer> iterator = list.iterator();
+        awaitSubmittedTasks();
+        // An empty page, then the one buffered non-empty page
+        assertEquals(3, list.fetchedPages.get());
+
+        // Taking the buffered page makes room for exactly one more
+        for (int i = 0; i <= PAGE_SIZE; i++) {
+            iterator.next();
+        }
+        awaitSubmittedTasks();
+        assertEquals(5, list.fetchedPages.get());
+    }
+
+    @Test
+    public void testAbandonedIterationLeavesNoTaskRunning() throws Exception {
+        StubPaginatedList list = new StubPaginatedList(100, -1, 2, executor);
+
+        Iterator<Integer> iterator = list.iterator();
+        iterator.next();
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(list.fetchedPages.get() <= 5);
+    }
+
+    @Test
+    public void testStoppedPrefetchingContinuesOnIteratingThread() throws Exception {
+        StubPaginatedList list = new StubPaginatedList(10, -1, 1, executor);
+
+        Iterator<Integer> iterator = list.iterator();
+        awaitSubmittedTasks();
+        list.stopPrefetching();
+        int prefetched = list.fetchingThreads.size();
+
+        assertEquals(expectedItems(10), drain(iterator));
+        List<Thread> threads = list.fetchingThreads;
+        assertTrue(prefetched < threads.size());
+        for (Thread thread : threads.subList(prefetched, threads.size())) {
+            assertEquals(Thread.currentThread(), thread);
+        }
+    }
+
+    @Test
+    public void testRejectedPrefetchingFallsBackToIteratingThread() {
+        executor.shutdown();
+        StubPaginatedList list = new StubPaginatedList(10, -1, null, executor);
+
+        assertEquals(expectedItems(10), drain(list.iterator()));
+        for (Thread thread : list.fetchingThreads) {
+            assertEquals(Thread.currentThread(), thread);
+        }
+    }
+
+    @Test
+    public void testFailureIsSurfacedToIterator() {
+        StubPaginatedList list = new StubPaginatedList(10, 4, null, executor);
+
+        Iterator<Integer> iterator = list.iterator();
+        int consumed = 0;
+        try {
+            while (iterator.hasNext()) {
+                iterator.next();
+                consumed++;
+            }
+            fail("Expected the prefetching failure to be rethrown");
+        } catch (AmazonServiceException expected) {
+            assertEquals(2 * PAGE_SIZE, consumed);
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testOnlyIteratorIsSupported() {
+        new StubPaginatedList(10, -1, null, executor).size();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCanOnlyBeIteratedOnce() {
+        StubPaginatedList list = new StubPaginatedList(10, -1, null, executor);
+        list.iterator();
+        list.iterator();
+    }
+}
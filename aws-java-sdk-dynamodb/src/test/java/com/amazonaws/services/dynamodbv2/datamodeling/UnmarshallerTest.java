@@ -443,6 +443,23 @@ public class UnmarshallerTest {
         }
     }
 
+    @Test
+    public void testUnconvertObjectRepeatedly() {
+        for (int i = 0; i < 3; i++) {
+            SubClass result = CONVERTER.unconvert(SubClass.class,
+                    Collections.singletonMap("value",
+                            new AttributeValue().withN(Integer.toString(i))));
+            assertEquals(Integer.valueOf(i), result.getValue());
+            assertEquals("name", result.getName());
+        }
+    }
+
+    @Test
+    public void testUnconvertObjectWithAbsentUnsupportedAttribute() {
+        Assert.assertNotNull(CONVERTER.unconvert(UnannotatedSubClass.class,
+                Collections.singletonMap("other", new AttributeValue("x"))));
+    }
+
     @Test
     public void testS3Link() {
         S3Link link = (S3Link) unconvert("getS3Link", "setS3Link",
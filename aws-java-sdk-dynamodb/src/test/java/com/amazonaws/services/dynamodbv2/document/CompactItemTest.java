@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.document;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+public class CompactItemTest {
+
+    private static final String WIRE_JSON = "{"
+            + "\"id\":{\"N\":\"42\"},"
+            + "\"name\":{\"S\":\"foo\"},"
+            + "\"price\":{\"N\":\"12.50\"},"
+            + "\"big\":{\"N\":\"123456789012345678901234567890\"},"
+            + "\"data\":{\"B\":\"AQID\"},"
+            + "\"active\":{\"BOOL\":true},"
+            + "\"nothing\":{\"NULL\":true},"
+            + "\"tags\":{\"SS\":[\"a\",\"b\"]},"
+            + "\"nested\":{\"M\":{\"x\":{\"L\":[{\"N\":\"1\"},{\"S\":\"y\"}]}}}"
+            + "}";
+
+    @Test
+    public void testWireJsonRoundTrip() {
+        CompactItem item = CompactItem.fromWireJSON(WIRE_JSON);
+        assertEquals(9, item.numberOfAttributes());
+        assertEquals(WIRE_JSON, item.toWireJSON());
+    }
+
+    @Test
+    public void testTypedAccessors() {
+        CompactItem item = CompactItem.fromWireJSON(WIRE_JSON);
+
+        assertEquals(42L, item.getLong("id"));
+        assertEquals(42, item.getInt("id"));
+        assertEquals("42", item.getString("id"));
+        assertEquals("foo", item.getString("name"));
+        assertEquals(new BigDecimal("12.50"), item.getNumber("price"));
+        assertEquals(new BigDecimal("123456789012345678901234567890"), item.getNumber("big"));
+        assertTrue(item.getBoolean("active"));
+        assertTrue(item.isNull("nothing"));
+        assertNull(item.getString("nothing"));
+        assertFalse(item.isPresent("missing"));
+        assertEquals(Arrays.asList("a", "b"), item.getAttributeValue("tags").getSS());
+
+        ByteBuffer data = item.getByteBuffer("data");
+        assertTrue(data.isReadOnly());
+        assertEquals(3, data.remaining());
+        assertEquals(1, data.get(0));
+        assertEquals(3, data.get(2));
+    }
+
+    @Test(expected = IncompatibleTypeException.class)
+    public void testIncompatibleType() {
+        CompactItem.fromWireJSON(WIRE_JSON).getLong("name");
+    }
+
+    @Test
+    public void testAttributeValuesRoundTrip() {
+        Map<String, AttributeValue> attributeValues = new LinkedHashMap<String, AttributeValue>();
+        attributeValues.put("id", new AttributeValue().withN("-7"));
+        attributeValues.put("zero", new AttributeValue().withN("007"));
+        attributeValues.put("s", new AttributeValue("bar"));
+        attributeValues.put("b", new AttributeValue().withB(ByteBuffer.wrap(new byte[] {9, 8})));
+        attributeValues.put("ok", new AttributeValue().withBOOL(false));
+        attributeValues.put("ns", new AttributeValue().withNS("1", "2"));
+
+        CompactItem item = CompactItem.fromAttributeValues(attributeValues);
+        assertEquals(attributeValues, item.toAttributeValues());
+        assertEquals(-7L, item.getLong("id"));
+        // Non-canonical numbers are kept in their wire form
+        assertEquals("007", item.getString("zero"));
+    }
+
+    @Test
+    public void testNestedValuesAreNotShared() {
+        Map<String, AttributeValue> inner = new LinkedHashMap<String, AttributeValue>();
+        inner.put("n", new AttributeValue().withN("1"));
+        Map<String, AttributeValue> attributeValues = new LinkedHashMap<String, AttributeValue>();
+        attributeValues.put("ss", new AttributeValue().withSS("a", "b"));
+        attributeValues.put("m", new AttributeValue().withM(inner));
+        attributeValues.put("bs", new AttributeValue().withBS(ByteBuffer.wrap(new byte[] {1})));
+
+        CompactItem item = CompactItem.fromAttributeValues(attributeValues);
+        String json = item.toWireJSON();
+
+        // Changing the input doesn't change the item
+        attributeValues.get("ss").getSS().add("c");
+        inner.put("n", new AttributeValue().withN("2"));
+        attributeValues.get("bs").getBS().get(0).put(0, (byte) 9);
+        assertEquals(json, item.toWireJSON());
+
+        // Nor does changing its returned values
+        item.getAttributeValue("ss").getSS().clear();
+        item.getAttributeValue("m").getM().clear();
+        item.toAttributeValues().get("bs").getBS().get(0).put(0, (byte) 9);
+        assertEquals(json, item.toWireJSON());
+    }
+
+    @Test
+    public void testItemRoundTrip() {
+        Item item = new Item()
+                .withPrimaryKey("id", 1)
+                .withString("s", "v")
+                .withBinary("b", new byte[] {1, 2})
+                .withBoolean("flag", true)
+                .withList("list", "a", 2);
+
+        CompactItem compact = CompactItem.fromItem(item);
+        assertEquals(item.toJSON(), compact.toItem().toJSON());
+    }
+
+    @Test
+    public void testAttributeNamesAreInterned() {
+        CompactItem first = CompactItem.fromWireJSON(WIRE_JSON);
+        CompactItem second = CompactItem.fromWireJSON(WIRE_JSON);
+        assertSame(first.attributeNames().get(1), second.attributeNames().get(1));
+    }
+
+    @Test
+    public void testIsCompactLong() {
+        assertTrue(CompactItem.isCompactLong("0"));
+        assertTrue(CompactItem.isCompactLong("-123"));
+        assertTrue(CompactItem.isCompactLong("999999999999999999"));
+        assertFalse(CompactItem.isCompactLong("9999999999999999999"));
+        assertFalse(CompactItem.isCompactLong("-0"));
+        assertFalse(CompactItem.isCompactLong("01"));
+        assertFalse(CompactItem.isCompactLong("1.0"));
+        assertFalse(CompactItem.isCompactLong("1E3"));
+        assertFalse(CompactItem.isCompactLong("-"));
+    }
+}
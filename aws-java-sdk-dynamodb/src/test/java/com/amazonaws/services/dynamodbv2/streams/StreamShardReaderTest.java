@@ -0,0 +1,226 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.streams;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDBStreams;
+import com.amazonaws.services.dynamodbv2.model.DescribeStreamRequest;
+import com.amazonaws.services.dynamodbv2.model.DescribeStreamResult;
+import com.amazonaws.services.dynamodbv2.model.GetRecordsRequest;
+import com.amazonaws.services.dynamodbv2.model.GetRecordsResult;
+import com.amazonaws.services.dynamodbv2.model.GetShardIteratorRequest;
+import com.amazonaws.services.dynamodbv2.model.GetShardIteratorResult;
+import com.amazonaws.services.dynamodbv2.model.Record;
+import com.amazonaws.services.dynamodbv2.model.Shard;
+import com.amazonaws.services.dynamodbv2.model.ShardIteratorType;
+import com.amazonaws.services.dynamodbv2.model.StreamDescription;
+import com.amazonaws.services.dynamodbv2.model.StreamRecord;
+import com.amazonaws.shards.CheckpointStore;
+
+public class StreamShardReaderTest {
+
+    private static final String STREAM_ARN = "arn:stream";
+
+    /**
+     * A stream made of a closed parent shard "parent" with records 1 to 3 and
+     * two children "left" (records 4 and 5) and "right" (record 6), which are
+     * closed as well. Each GetRecords call returns at most two records.
+     */
+    private static class StubStreams extends AbstractAmazonDynamoDBStreams {
+        private final Map<String, List<String>> records = new HashMap<String, List<String>>();
+        private final Map<String, String> iteratorRequests = new ConcurrentHashMap<String, String>();
+
+        StubStreams() {
+            records.put("parent", Arrays.asList("1", "2", "3"));
+            records.put("left", Arrays.asList("4", "5"));
+            records.put("right", Arrays.asList("6"));
+        }
+
+        @Override
+        public DescribeStreamResult describeStream(DescribeStreamRequest request) {
+            // Shards are returned in two pages, children first
+            if (request.getExclusiveStartShardId() == null) {
+                return new DescribeStreamResult().withStreamDescription(new StreamDescription()
+                        .withShards(shard("left", "parent"), shard("right", "parent"))
+                        .withLastEvaluatedShardId("right"));
+            }
+            return new DescribeStreamResult().withStreamDescription(new StreamDescription()
+                    .withShards(shard("parent", null)));
+        }
+
+        @Override
+        public GetShardIteratorResult getShardIterator(GetShardIteratorRequest request) {
+            iteratorRequests.put(request.getShardId(), request.getShardIteratorType()
+                    + (request.getSequenceNumber() == null ? "" : " " + request.getSequenceNumber()));
+
+            List<String> shardRecords = records.get(request.getShardId());
+            int position = 0;
+            if (ShardIteratorType.AFTER_SEQUENCE_NUMBER.toString()
+                    .equals(request.getShardIteratorType())) {
+                position = shardRecords.indexOf(request.getSequenceNumber()) + 1;
+            }
+            return new GetShardIteratorResult()
+                    .withShardIterator(request.getShardId() + ":" + position);
+        }
+
+        @Override
+        public GetRecordsResult getRecords(GetRecordsRequest request) {
+            String[] iterator = request.getShardIterator().split(":");
+            List<String> shardRecords = records.get(iterator[0]);
+            int position = Integer.parseInt(iterator[1]);
+            int end = Math.min(position + 2, shardRecords.size());
+
+            List<Record> result = new ArrayList<Record>();
+            for (String sequenceNumber : shardRecords.subList(position, end)) {
+                result.add(new Record().withDynamodb(
+                        new StreamRecord().withSequenceNumber(sequenceNumber)));
+            }
+            return new GetRecordsResult()
+                    .withRecords(result)
+                    .withNextShardIterator(end == shardRecords.size() ? null : iterator[0] + ":" + end);
+        }
+    }
+
+    private static Shard shard(String shardId, String parentShardId) {
+        return new Shard().withShardId(shardId).withParentShardId(parentShardId);
+    }
+
+    private static class InMemoryCheckpointStore implements CheckpointStore {
+        private final Map<String, String> checkpoints = new ConcurrentHashMap<String, String>();
+
+        @Override
+        public String getCheckpoint(String streamArn, String shardId) {
+            return checkpoints.get(shardId);
+        }
+
+        @Override
+        public void setCheckpoint(String streamArn, String shardId, String checkpoint) {
+            checkpoints.put(shardId, checkpoint);
+        }
+    }
+
+    private static class RecordingProcessor implements StreamRecordProcessor {
+        private final List<String> processed = Collections.synchronizedList(new ArrayList<String>());
+        private final CountDownLatch shardsEnded;
+        private volatile boolean failOnce;
+
+        RecordingProcessor(int expectedShards) {
+            shardsEnded = new CountDownLatch(expectedShards);
+        }
+
+        @Override
+        public void processRecords(String shardId, List<Record> records) throws Exception {
+            if (failOnce) {
+                failOnce = false;
+                throw new Exception("Processing failed");
+            }
+            for (Record record : records) {
+                processed.add(record.getDynamodb().getSequenceNumber());
+            }
+        }
+
+        @Override
+        public void shardEnded(String shardId) {
+            shardsEnded.countDown();
+        }
+    }
+
+    private StreamShardReader reader;
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if (reader != null) {
+            reader.shutdown();
+            assertTrue(reader.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testParentIsProcessedBeforeChildren() throws InterruptedException {
+        InMemoryCheckpointStore checkpoints = new InMemoryCheckpointStore();
+        RecordingProcessor processor = new RecordingProcessor(3);
+        start(new StubStreams(), checkpoints, processor);
+
+        assertTrue(processor.shardsEnded.await(5, TimeUnit.SECONDS));
+        // The final checkpoint of a shard is recorded after shardEnded
+        reader.shutdown();
+        assertTrue(reader.awaitTermination(5, TimeUnit.SECONDS));
+
+        List<String> processed = new ArrayList<String>(processor.processed);
+        assertEquals(6, processed.size());
+        assertEquals(Arrays.asList("1", "2", "3"), processed.subList(0, 3));
+        assertTrue(processed.indexOf("4") < processed.indexOf("5"));
+
+        assertEquals(CheckpointStore.SHARD_END, checkpoints.getCheckpoint(STREAM_ARN, "parent"));
+        assertEquals(CheckpointStore.SHARD_END, checkpoints.getCheckpoint(STREAM_ARN, "left"));
+        assertEquals(CheckpointStore.SHARD_END, checkpoints.getCheckpoint(STREAM_ARN, "right"));
+    }
+
+    @Test
+    public void testProcessingResumesAfterCheckpoints() throws InterruptedException {
+        InMemoryCheckpointStore checkpoints = new InMemoryCheckpointStore();
+        checkpoints.setCheckpoint(STREAM_ARN, "parent", CheckpointStore.SHARD_END);
+        checkpoints.setCheckpoint(STREAM_ARN, "left", "4");
+        RecordingProcessor processor = new RecordingProcessor(2);
+        StubStreams streams = new StubStreams();
+        start(streams, checkpoints, processor);
+
+        assertTrue(processor.shardsEnded.await(5, TimeUnit.SECONDS));
+        List<String> processed = new ArrayList<String>(processor.processed);
+        Collections.sort(processed);
+        assertEquals(Arrays.asList("5", "6"), processed);
+        assertNull(streams.iteratorRequests.get("parent"));
+        assertEquals("AFTER_SEQUENCE_NUMBER 4", streams.iteratorRequests.get("left"));
+        assertEquals("TRIM_HORIZON", streams.iteratorRequests.get("right"));
+    }
+
+    @Test
+    public void testFailedBatchIsRetried() throws InterruptedException {
+        RecordingProcessor processor = new RecordingProcessor(3);
+        processor.failOnce = true;
+        start(new StubStreams(), new InMemoryCheckpointStore(), processor);
+
+        assertTrue(processor.shardsEnded.await(5, TimeUnit.SECONDS));
+        assertEquals(6, processor.processed.size());
+        assertEquals(Arrays.asList("1", "2", "3"), processor.processed.subList(0, 3));
+    }
+
+    private void start(StubStreams streams, CheckpointStore checkpoints,
+            StreamRecordProcessor processor) {
+        reader = new StreamShardReader(streams, STREAM_ARN, checkpoints, processor,
+                new StreamShardReaderConfig()
+                        .withMaxConcurrentShards(2)
+                        .withIdleTimeBetweenReadsMillis(10)
+                        .withShardSyncIntervalMillis(50)
+                        .withInitialPosition(ShardIteratorType.LATEST));
+        reader.start();
+    }
+}
@@ -33,6 +33,7 @@ import com.amazonaws.util.AWSRequestMetrics.Field;
 
 import com.amazonaws.services.ec2.model.*;
 import com.amazonaws.services.ec2.model.transform.*;
+import com.amazonaws.services.ec2.util.ItemHandler;
 
 /**
  * Client for accessing AmazonEC2.  All service calls made
@@ -12752,6 +12753,114 @@ public class AmazonEC2Client extends AmazonWebServiceClient implements AmazonEC2
         }
     }
 
+    /**
+     * Describes one or more of your instances, passing each reservation to
+     * the specified handler as soon as it is read from the response, instead
+     * of returning them all in a result. Pages of results are requested in
+     * turn, following the next token of each response, until the last one.
+     * The memory used is bounded by the size of a single reservation,
+     * regardless of the number of instances described.
+     * <p>
+     * The request is not modified; the next tokens are set on a clone of it.
+     * If a request is retried after part of its response was read, the
+     * reservations already handled may be passed to the handler again.
+     *
+     * @param describeInstancesRequest
+     *            The request for the first page of instances; set its
+     *            maximum number of results to page through them.
+     * @param handler
+     *            The handler receiving each reservation, on the calling
+     *            thread.
+     *
+     * @throws AmazonClientException
+     *             If any internal errors are encountered inside the client
+     *             while attempting to make the request or handle the response,
+     *             or if the handler throws an exception.
+     * @throws AmazonServiceException
+     *             If an error response is returned by AmazonEC2 indicating
+     *             either a problem with the data in the request, or a server
+     *             side issue.
+     */
+    public void describeInstances(DescribeInstancesRequest describeInstancesRequest,
+            ItemHandler<? super Reservation> handler) throws AmazonServiceException, AmazonClientException {
+        DescribeInstancesRequest pageRequest = describeInstancesRequest.clone();
+        StreamingItemsStaxUnmarshaller<Reservation> unmarshaller = new StreamingItemsStaxUnmarshaller<Reservation>(
+                "reservationSet/item", ReservationStaxUnmarshaller.getInstance(), handler);
+        do {
+            String nextToken = invokeStreaming(pageRequest, new DescribeInstancesRequestMarshaller(), unmarshaller);
+            pageRequest.setNextToken(nextToken);
+        } while (pageRequest.getNextToken() != null);
+    }
+
+    /**
+     * Describes one or more of the EBS snapshots available to you, passing
+     * each snapshot to the specified handler as soon as it is read from the
+     * response, instead of returning them all in a result. Pages of results
+     * are requested in turn, following the next token of each response, until
+     * the last one. The memory used is bounded by the size of a single
+     * snapshot, regardless of the number of snapshots described.
+     * <p>
+     * The request is not modified; the next tokens are set on a clone of it.
+     * If a request is retried after part of its response was read, the
+     * snapshots already handled may be passed to the handler again.
+     *
+     * @param describeSnapshotsRequest
+     *            The request for the first page of snapshots; set its
+     *            maximum number of results to page through them.
+     * @param handler
+     *            The handler receiving each snapshot, on the calling thread.
+     *
+     * @throws AmazonClientException
+     *             If any internal errors are encountered inside the client
+     *             while attempting to make the request or handle the response,
+     *             or if the handler throws an exception.
+     * @throws AmazonServiceException
+     *             If an error response is returned by AmazonEC2 indicating
+     *             either a problem with the data in the request, or a server
+     *             side issue.
+     */
+    public void describeSnapshots(DescribeSnapshotsRequest describeSnapshotsRequest,
+            ItemHandler<? super Snapshot> handler) throws AmazonServiceException, AmazonClientException {
+        DescribeSnapshotsRequest pageRequest = describeSnapshotsRequest.clone();
+        StreamingItemsStaxUnmarshaller<Snapshot> unmarshaller = new StreamingItemsStaxUnmarshaller<Snapshot>(
+                "snapshotSet/item", SnapshotStaxUnmarshaller.getInstance(), handler);
+        do {
+            String nextToken = invokeStreaming(pageRequest, new DescribeSnapshotsRequestMarshaller(), unmarshaller);
+            pageRequest.setNextToken(nextToken);
+        } while (pageRequest.getNextToken() != null);
+    }
+
+    /**
+     * Describes one or more of the images available to you, passing each
+     * image to the specified handler as soon as it is read from the response,
+     * instead of returning them all in a result. The memory used is bounded
+     * by the size of a single image, which makes this suitable for listing
+     * public images. DescribeImages is not paginated, so a single request is
+     * made.
+     * <p>
+     * If the request is retried after part of its response was read, the
+     * images already handled may be passed to the handler again.
+     *
+     * @param describeImagesRequest
+     *            The request describing the images.
+     * @param handler
+     *            The handler receiving each image, on the calling thread.
+     *
+     * @throws AmazonClientException
+     *             If any internal errors are encountered inside the client
+     *             while attempting to make the request or handle the response,
+     *             or if the handler throws an exception.
+     * @throws AmazonServiceException
+     *             If an error response is returned by AmazonEC2 indicating
+     *             either a problem with the data in the request, or a server
+     *             side issue.
+     */
+    public void describeImages(DescribeImagesRequest describeImagesRequest,
+            ItemHandler<? super Image> handler) throws AmazonServiceException, AmazonClientException {
+        invokeStreaming(describeImagesRequest, new DescribeImagesRequestMarshaller(),
+                new StreamingItemsStaxUnmarshaller<Image>("imagesSet/item", ImageStaxUnmarshaller.getInstance(), handler));
+    }
+
     /**
      * Returns additional metadata for a previously executed successful, request, typically used for
      * debugging issues where a service isn't acting as expected.  This data isn't considered part
@@ -12772,6 +12881,43 @@ public class AmazonEC2Client extends AmazonWebServiceClient implements AmazonEC2
         return client.getResponseMetadataForRequest(request);
     }
 
+    /**
+     * Executes a request whose items are passed to a handler by the specified
+     * streaming unmarshaller, returning the token of the next page, if any.
+     */
+    private <Y extends AmazonWebServiceRequest> String invokeStreaming(Y originalRequest,
+            Marshaller<Request<Y>, Y> marshaller,
+            Unmarshaller<String, StaxUnmarshallerContext> unmarshaller) {
+        ExecutionContext executionContext = createExecutionContext(originalRequest);
+        AWSRequestMetrics awsRequestMetrics = executionContext.getAwsRequestMetrics();
+        awsRequestMetrics.startEvent(Field.ClientExecuteTime);
+        Request<Y> request = null;
+        Response<String> response = null;
+
+        try {
+            awsRequestMetrics.startEvent(Field.RequestMarshallTime);
+            try {
+                request = marshaller.marshall(super.beforeMarshalling(originalRequest));
+                // Binds the request metrics to the current request.
+                request.setAWSRequestMetrics(awsRequestMetrics);
+            } catch (AmazonClientException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new AmazonClientException(
+                        "Unable to marshall request: " + e.getMessage(), e);
+            } finally {
+                awsRequestMetrics.endEvent(Field.RequestMarshallTime);
+            }
+
+            response = invoke(request, unmarshaller, executionContext);
+            return response.getAwsResponse();
+
+        } finally {
+
+            endClientExecution(awsRequestMetrics, request, response);
+        }
+    }
+
     private <X, Y extends AmazonWebServiceRequest> Response<X> invoke(Request<Y> request,
             Unmarshaller<X, StaxUnmarshallerContext> unmarshaller,
             ExecutionContext executionContext)
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2010-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.ec2.model.transform;
+
+import javax.xml.stream.events.XMLEvent;
+
+import com.amazonaws.services.ec2.util.ItemHandler;
+import com.amazonaws.transform.SimpleTypeStaxUnmarshallers.StringStaxUnmarshaller;
+import com.amazonaws.transform.StaxUnmarshallerContext;
+import com.amazonaws.transform.Unmarshaller;
+
+/**
+ * StAX unmarshaller for the result of a describe operation which passes each
+ * item of the result to a handler as soon as it is unmarshalled, rather than
+ * collecting them in a list. Only the pagination token of the result is
+ * returned, so the memory used does not depend on the size of the response.
+ *
+ * @param <T>
+ *            The type of the items of the result.
+ */
+public class StreamingItemsStaxUnmarshaller<T> implements Unmarshaller<String, StaxUnmarshallerContext> {
+
+    private final String itemExpression;
+    private final Unmarshaller<T, StaxUnmarshallerContext> itemUnmarshaller;
+    private final ItemHandler<? super T> handler;
+
+    /**
+     * @param itemExpression
+     *            The expression matching the items of the result, e.g.
+     *            "reservationSet/item".
+     * @param itemUnmarshaller
+     *            The unmarshaller of a single item.
+     * @param handler
+     *            The handler receiving the items.
+     */
+    public StreamingItemsStaxUnmarshaller(String itemExpression,
+            Unmarshaller<T, StaxUnmarshallerContext> itemUnmarshaller,
+            ItemHandler<? super T> handler) {
+        this.itemExpression = itemExpression;
+        this.itemUnmarshaller = itemUnmarshaller;
+        this.handler = handler;
+    }
+
+    /**
+     * @return The token of the next page of the result, or null if this was
+     *         the last page.
+     */
+    public String unmarshall(StaxUnmarshallerContext context) throws Exception {
+        String nextToken = null;
+        int originalDepth = context.getCurrentDepth();
+        int targetDepth = originalDepth + 1;
+
+        if (context.isStartOfDocument()) targetDepth += 1;
+
+        while (true) {
+            XMLEvent xmlEvent = context.nextEvent();
+            if (xmlEvent.isEndDocument()) return nextToken;
+
+            if (xmlEvent.isAttribute() || xmlEvent.isStartElement()) {
+                if (context.testExpression(itemExpression, targetDepth)) {
+                    handler.handle(itemUnmarshaller.unmarshall(context));
+                    continue;
+                }
+                if (context.testExpression("nextToken", targetDepth)) {
+                    nextToken = StringStaxUnmarshaller.getInstance().unmarshall(context);
+                    continue;
+                }
+            } else if (xmlEvent.isEndElement()) {
+                if (context.getCurrentDepth() < originalDepth) {
+                    return nextToken;
+                }
+            }
+        }
+    }
+}
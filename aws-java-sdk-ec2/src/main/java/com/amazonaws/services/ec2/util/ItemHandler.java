@@ -0,0 +1,41 @@
+/*
+ * Copyright 2010-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.ec2.util;
+
+/**
+ * Callback receiving the items of a describe operation one at a time, as the
+ * response is parsed, instead of in a fully materialized result.
+ *
+ * @param <T>
+ *            The type of the items handled.
+ *
+ * @see com.amazonaws.services.ec2.AmazonEC2Client#describeInstances(com.amazonaws.services.ec2.model.DescribeInstancesRequest, ItemHandler)
+ */
+public interface ItemHandler<T> {
+
+    /**
+     * Handles the next item of the response. This is called on the thread
+     * making the request, while the rest of the response is still being
+     * read, so implementations should hand long running work off to other
+     * threads.
+     * <p>
+     * Exceptions thrown by this method abort the request, and are rethrown
+     * wrapped in an {@link com.amazonaws.AmazonClientException}.
+     *
+     * @param item
+     *            The item just read from the response.
+     */
+    void handle(T item) throws Exception;
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.ec2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.services.ec2.model.DescribeInstancesRequest;
+import com.amazonaws.services.ec2.model.DescribeSnapshotsRequest;
+import com.amazonaws.services.ec2.model.Reservation;
+import com.amazonaws.services.ec2.model.Snapshot;
+import com.amazonaws.services.ec2.util.ItemHandler;
+import com.amazonaws.util.IOUtils;
+import com.amazonaws.util.StringUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Runs the streaming describe calls against a local server answering with
+ * canned pages, each page naming the token of the next.
+ */
+public class AmazonEC2ClientStreamingTest {
+
+    private static final String NAMESPACE = "http://ec2.amazonaws.com/doc/2015-10-01/";
+
+    private HttpServer server;
+
+    private AmazonEC2Client ec2;
+
+    /** the canned pages, by action and then by the token requesting them */
+    private final Map<String, Map<String, String>> pages = new HashMap<String, Map<String, String>>();
+
+    /** the parameters of the requests received */
+    private final List<Map<String, String>> requests =
+            Collections.synchronizedList(new ArrayList<Map<String, String>>());
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                Map<String, String> parameters = parse(IOUtils.toString(exchange.getRequestBody()));
+                requests.add(parameters);
+                String page = pages.get(parameters.get("Action")).get(parameters.get("NextToken"));
+                byte[] body = page.getBytes(StringUtils.UTF8);
+                exchange.getResponseHeaders().set("Content-Type", "text/xml;charset=UTF-8");
+                exchange.sendResponseHeaders(200, body.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(body);
+                out.close();
+            }
+        });
+        server.start();
+
+        ec2 = new AmazonEC2Client(new BasicAWSCredentials("access", "secret"),
+                new ClientConfiguration().withMaxErrorRetry(0));
+        ec2.setEndpoint("http://localhost:" + server.getAddress().getPort());
+    }
+
+    @After
+    public void tearDown() {
+        ec2.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    public void testInstancesOfAllPagesAreHandledInOrder() throws Exception {
+        page("DescribeInstances", null, "token-1", "reservationSet", reservation("r-1") + reservation("r-2"));
+        page("DescribeInstances", "token-1", "token-2", "reservationSet", reservation("r-3"));
+        page("DescribeInstances", "token-2", null, "reservationSet", reservation("r-4") + reservation("r-5"));
+
+        DescribeInstancesRequest request = new DescribeInstancesRequest()
+                .withInstanceIds("i-1").withMaxResults(2);
+        final List<String> reservationIds = new ArrayList<String>();
+        ec2.describeInstances(request, new ItemHandler<Reservation>() {
+            @Override
+            public void handle(Reservation item) {
+                reservationIds.add(item.getReservationId());
+            }
+        });
+
+        assertEquals(Arrays.asList("r-1", "r-2", "r-3", "r-4", "r-5"), reservationIds);
+        assertEquals(3, requests.size());
+        assertNull(requests.get(0).get("NextToken"));
+        assertEquals("token-1", requests.get(1).get("NextToken"));
+        assertEquals("token-2", requests.get(2).get("NextToken"));
+        for (Map<String, String> parameters : requests) {
+            assertEquals("i-1", parameters.get("InstanceId.1"));
+            assertEquals("2", parameters.get("MaxResults"));
+        }
+
+        // the next tokens were set on a clone of the request
+        assertNull(request.getNextToken());
+        assertEquals(Arrays.asList("i-1"), request.getInstanceIds());
+        assertEquals(2, request.getMaxResults().intValue());
+    }
+
+    @Test
+    public void testSnapshotsArePagedFromTheTokenOfTheRequest() throws Exception {
+        page("DescribeSnapshots", "start", "token-1", "snapshotSet", snapshot("snap-1") + snapshot("snap-2"));
+        page("DescribeSnapshots", "token-1", null, "snapshotSet", snapshot("snap-3"));
+
+        DescribeSnapshotsRequest request = new DescribeSnapshotsRequest()
+                .withOwnerIds("self").withNextToken("start");
+        final List<String> snapshotIds = new ArrayList<String>();
+        ec2.describeSnapshots(request, new ItemHandler<Snapshot>() {
+            @Override
+            public void handle(Snapshot item) {
+                snapshotIds.add(item.getSnapshotId());
+            }
+        });
+
+        assertEquals(Arrays.asList("snap-1", "snap-2", "snap-3"), snapshotIds);
+        assertEquals(2, requests.size());
+        assertEquals("start", requests.get(0).get("NextToken"));
+        assertEquals("token-1", requests.get(1).get("NextToken"));
+        assertEquals("self", requests.get(1).get("Owner.1"));
+        assertEquals("start", request.getNextToken());
+    }
+
+    @Test
+    public void testHandlerFailuresAbortTheRequest() throws Exception {
+        page("DescribeSnapshots", null, "token-1", "snapshotSet", snapshot("snap-1") + snapshot("snap-2"));
+
+        final List<String> snapshotIds = new ArrayList<String>();
+        try {
+            ec2.describeSnapshots(new DescribeSnapshotsRequest(), new ItemHandler<Snapshot>() {
+                @Override
+                public void handle(Snapshot item) {
+                    snapshotIds.add(item.getSnapshotId());
+                    throw new IllegalStateException("stop");
+                }
+            });
+            fail("Expected the handler failure to abort the request");
+        } catch (AmazonClientException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(Arrays.asList("snap-1"), snapshotIds);
+        assertEquals(1, requests.size());
+    }
+
+    private void page(String action, String token, String nextToken, String set, String items) {
+        Map<String, String> actionPages = pages.get(action);
+        if (actionPages == null) {
+            actionPages = new HashMap<String, String>();
+            pages.put(action, actionPages);
+        }
+        actionPages.put(token, "<" + action + "Response xmlns=\"" + NAMESPACE + "\">"
+                + "<requestId>request-" + token + "</requestId>"
+                + "<" + set + ">" + items + "</" + set + ">"
+                + (nextToken == null ? "" : "<nextToken>" + nextToken + "</nextToken>")
+                + "</" + action + "Response>");
+    }
+
+    private static String reservation(String reservationId) {
+        return "<item><reservationId>" + reservationId + "</reservationId><ownerId>123456789012</ownerId>"
+                + "<groupSet/><instancesSet><item><instanceId>i-" + reservationId + "</instanceId></item>"
+                + "</instancesSet></item>";
+    }
+
+    private static String snapshot(String snapshotId) {
+        return "<item><snapshotId>" + snapshotId + "</snapshotId><volumeSize>8</volumeSize></item>";
+    }
+
+    private static Map<String, String> parse(String form) throws IOException {
+        Map<String, String> parameters = new HashMap<String, String>();
+        for (String pair : form.split("&")) {
+            int equals = pair.indexOf('=');
+            parameters.put(URLDecoder.decode(pair.substring(0, equals), "UTF-8"),
+                    URLDecoder.decode(pair.substring(equals + 1), "UTF-8"));
+        }
+        return parameters;
+    }
+}
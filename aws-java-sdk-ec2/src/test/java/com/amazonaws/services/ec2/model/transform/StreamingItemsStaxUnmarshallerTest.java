@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.ec2.model.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+
+import org.junit.Test;
+
+import com.amazonaws.services.ec2.model.Reservation;
+import com.amazonaws.services.ec2.model.Snapshot;
+import com.amazonaws.services.ec2.util.ItemHandler;
+import com.amazonaws.transform.StaxUnmarshallerContext;
+
+public class StreamingItemsStaxUnmarshallerTest {
+
+    private static final String INSTANCES_PAGE =
+            "<DescribeInstancesResponse xmlns=\"http://ec2.amazonaws.com/doc/2015-10-01/\">"
+            + "<requestId>request-1</requestId>"
+            + "<reservationSet>"
+            + reservation("r-1", "i-1", "i-2")
+            + reservation("r-2", "i-3")
+            + reservation("r-3")
+            + "</reservationSet>"
+            + "<nextToken>token-1</nextToken>"
+            + "</DescribeInstancesResponse>";
+
+    private static final String LAST_SNAPSHOTS_PAGE =
+            "<DescribeSnapshotsResponse xmlns=\"http://ec2.amazonaws.com/doc/2015-10-01/\">"
+            + "<requestId>request-2</requestId>"
+            + "<snapshotSet>"
+            + "<item><snapshotId>snap-1</snapshotId><volumeSize>8</volumeSize>"
+            + "<tagSet><item><key>Name</key><value>root</value></item></tagSet></item>"
+            + "<item><snapshotId>snap-2</snapshotId><volumeSize>100</volumeSize></item>"
+            + "</snapshotSet>"
+            + "</DescribeSnapshotsResponse>";
+
+    @Test
+    public void testItemsAreHandledInOrderAndTheNextTokenReturned() throws Exception {
+        final List<Reservation> reservations = new ArrayList<Reservation>();
+        String nextToken = new StreamingItemsStaxUnmarshaller<Reservation>("reservationSet/item",
+                ReservationStaxUnmarshaller.getInstance(), new ItemHandler<Reservation>() {
+                    @Override
+                    public void handle(Reservation item) {
+                        reservations.add(item);
+                    }
+                }).unmarshall(context(INSTANCES_PAGE));
+
+        assertEquals("token-1", nextToken);
+        assertEquals(3, reservations.size());
+        assertEquals("r-1", reservations.get(0).getReservationId());
+        assertEquals("r-2", reservations.get(1).getReservationId());
+        assertEquals("r-3", reservations.get(2).getReservationId());
+        // nested items are part of their reservation, not items of the result
+        assertEquals(2, reservations.get(0).getInstances().size());
+        assertEquals("i-2", reservations.get(0).getInstances().get(1).getInstanceId());
+        assertEquals("i-3", reservations.get(1).getInstances().get(0).getInstanceId());
+        assertEquals(0, reservations.get(2).getInstances().size());
+    }
+
+    @Test
+    public void testLastPageHasNoNextToken() throws Exception {
+        final List<String> snapshotIds = new ArrayList<String>();
+        String nextToken = new StreamingItemsStaxUnmarshaller<Snapshot>("snapshotSet/item",
+                SnapshotStaxUnmarshaller.getInstance(), new ItemHandler<Snapshot>() {
+                    @Override
+                    public void handle(Snapshot item) {
+                        snapshotIds.add(item.getSnapshotId() + ":" + item.getVolumeSize()
+                                + ":" + item.getTags().size());
+                    }
+                }).unmarshall(context(LAST_SNAPSHOTS_PAGE));
+
+        assertNull(nextToken);
+        assertEquals(Arrays.asList("snap-1:8:1", "snap-2:100:0"), snapshotIds);
+    }
+
+    private static String reservation(String reservationId, String... instanceIds) {
+        StringBuilder xml = new StringBuilder("<item><reservationId>").append(reservationId)
+                .append("</reservationId><ownerId>123456789012</ownerId><groupSet/><instancesSet>");
+        for (String instanceId : instanceIds) {
+            xml.append("<item><instanceId>").append(instanceId).append("</instanceId>")
+                    .append("<instanceState><code>16</code><name>running</name></instanceState></item>");
+        }
+        return xml.append("</instancesSet></item>").toString();
+    }
+
+    private static StaxUnmarshallerContext context(String xml) throws Exception {
+        return new StaxUnmarshallerContext(XMLInputFactory.newInstance()
+                .createXMLEventReader(new StringReader(xml)));
+    }
+}
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticache.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticache.model.CacheParameterGroupNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticache.model.CacheParameterGroupNotFoundExcep
 public class CacheParameterGroupNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public CacheParameterGroupNotFoundExceptionUnmarshaller() {
-        super(CacheParameterGroupNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("CacheParameterGroupNotFound"))
-            return null;
-
-        CacheParameterGroupNotFoundException e = (CacheParameterGroupNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(CacheParameterGroupNotFoundException.class, "CacheParameterGroupNotFound");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticache.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticache.model.CacheSecurityGroupAlreadyExistsException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticache.model.CacheSecurityGroupAlreadyExistsE
 public class CacheSecurityGroupAlreadyExistsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public CacheSecurityGroupAlreadyExistsExceptionUnmarshaller() {
-        super(CacheSecurityGroupAlreadyExistsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("CacheSecurityGroupAlreadyExists"))
-            return null;
-
-        CacheSecurityGroupAlreadyExistsException e = (CacheSecurityGroupAlreadyExistsException)super.unmarshall(node);
-        
-        return e;
+        super(CacheSecurityGroupAlreadyExistsException.class, "CacheSecurityGroupAlreadyExists");
     }
 }
     
\ No newline at end of file
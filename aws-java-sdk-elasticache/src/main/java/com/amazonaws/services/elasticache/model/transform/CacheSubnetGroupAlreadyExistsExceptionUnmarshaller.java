@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticache.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticache.model.CacheSubnetGroupAlreadyExistsException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticache.model.CacheSubnetGroupAlreadyExistsExc
 public class CacheSubnetGroupAlreadyExistsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public CacheSubnetGroupAlreadyExistsExceptionUnmarshaller() {
-        super(CacheSubnetGroupAlreadyExistsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("CacheSubnetGroupAlreadyExists"))
-            return null;
-
-        CacheSubnetGroupAlreadyExistsException e = (CacheSubnetGroupAlreadyExistsException)super.unmarshall(node);
-        
-        return e;
+        super(CacheSubnetGroupAlreadyExistsException.class, "CacheSubnetGroupAlreadyExists");
     }
 }
     
\ No newline at end of file
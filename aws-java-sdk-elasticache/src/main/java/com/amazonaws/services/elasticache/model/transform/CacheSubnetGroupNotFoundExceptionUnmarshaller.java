@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticache.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticache.model.CacheSubnetGroupNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticache.model.CacheSubnetGroupNotFoundExceptio
 public class CacheSubnetGroupNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public CacheSubnetGroupNotFoundExceptionUnmarshaller() {
-        super(CacheSubnetGroupNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("CacheSubnetGroupNotFoundFault"))
-            return null;
-
-        CacheSubnetGroupNotFoundException e = (CacheSubnetGroupNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(CacheSubnetGroupNotFoundException.class, "CacheSubnetGroupNotFoundFault");
     }
 }
     
\ No newline at end of file
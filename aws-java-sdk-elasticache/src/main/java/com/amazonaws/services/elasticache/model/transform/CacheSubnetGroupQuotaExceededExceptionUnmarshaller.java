@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticache.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticache.model.CacheSubnetGroupQuotaExceededException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticache.model.CacheSubnetGroupQuotaExceededExc
 public class CacheSubnetGroupQuotaExceededExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public CacheSubnetGroupQuotaExceededExceptionUnmarshaller() {
-        super(CacheSubnetGroupQuotaExceededException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("CacheSubnetGroupQuotaExceeded"))
-            return null;
-
-        CacheSubnetGroupQuotaExceededException e = (CacheSubnetGroupQuotaExceededException)super.unmarshall(node);
-        
-        return e;
+        super(CacheSubnetGroupQuotaExceededException.class, "CacheSubnetGroupQuotaExceeded");
     }
 }
     
\ No newline at end of file
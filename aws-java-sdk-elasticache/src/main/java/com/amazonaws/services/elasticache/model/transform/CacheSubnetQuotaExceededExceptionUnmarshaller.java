@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticache.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticache.model.CacheSubnetQuotaExceededException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticache.model.CacheSubnetQuotaExceededExceptio
 public class CacheSubnetQuotaExceededExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public CacheSubnetQuotaExceededExceptionUnmarshaller() {
-        super(CacheSubnetQuotaExceededException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("CacheSubnetQuotaExceededFault"))
-            return null;
-
-        CacheSubnetQuotaExceededException e = (CacheSubnetQuotaExceededException)super.unmarshall(node);
-        
-        return e;
+        super(CacheSubnetQuotaExceededException.class, "CacheSubnetQuotaExceededFault");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticache.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticache.model.InsufficientCacheClusterCapacityException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticache.model.InsufficientCacheClusterCapacity
 public class InsufficientCacheClusterCapacityExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InsufficientCacheClusterCapacityExceptionUnmarshaller() {
-        super(InsufficientCacheClusterCapacityException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InsufficientCacheClusterCapacity"))
-            return null;
-
-        InsufficientCacheClusterCapacityException e = (InsufficientCacheClusterCapacityException)super.unmarshall(node);
-        
-        return e;
+        super(InsufficientCacheClusterCapacityException.class, "InsufficientCacheClusterCapacity");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticache.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticache.model.InvalidCacheClusterStateException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticache.model.InvalidCacheClusterStateExceptio
 public class InvalidCacheClusterStateExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidCacheClusterStateExceptionUnmarshaller() {
-        super(InvalidCacheClusterStateException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidCacheClusterState"))
-            return null;
-
-        InvalidCacheClusterStateException e = (InvalidCacheClusterStateException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidCacheClusterStateException.class, "InvalidCacheClusterState");
     }
 }
     
\ No newline at end of file
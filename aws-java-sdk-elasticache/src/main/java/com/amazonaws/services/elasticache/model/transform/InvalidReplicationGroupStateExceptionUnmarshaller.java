@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticache.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticache.model.InvalidReplicationGroupStateException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticache.model.InvalidReplicationGroupStateExce
 public class InvalidReplicationGroupStateExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidReplicationGroupStateExceptionUnmarshaller() {
-        super(InvalidReplicationGroupStateException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidReplicationGroupState"))
-            return null;
-
-        InvalidReplicationGroupStateException e = (InvalidReplicationGroupStateException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidReplicationGroupStateException.class, "InvalidReplicationGroupState");
     }
 }
     
\ No newline at end of file
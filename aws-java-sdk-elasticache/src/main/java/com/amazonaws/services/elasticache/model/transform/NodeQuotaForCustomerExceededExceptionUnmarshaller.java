@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticache.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticache.model.NodeQuotaForCustomerExceededException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticache.model.NodeQuotaForCustomerExceededExce
 public class NodeQuotaForCustomerExceededExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public NodeQuotaForCustomerExceededExceptionUnmarshaller() {
-        super(NodeQuotaForCustomerExceededException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("NodeQuotaForCustomerExceeded"))
-            return null;
-
-        NodeQuotaForCustomerExceededException e = (NodeQuotaForCustomerExceededException)super.unmarshall(node);
-        
-        return e;
+        super(NodeQuotaForCustomerExceededException.class, "NodeQuotaForCustomerExceeded");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticache.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticache.model.ReservedCacheNodesOfferingNotFoundException;
@@ -25,19 +21,8 @@ import com.amazonaws.services.elasticache.model.ReservedCacheNodesOfferingNotFou
 public class ReservedCacheNodesOfferingNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ReservedCacheNodesOfferingNotFoundExceptionUnmarshaller() {
-        super(ReservedCacheNodesOfferingNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ReservedCacheNodesOfferingNotFound"))
-            return null;
-
-        ReservedCacheNodesOfferingNotFoundException e = (ReservedCacheNodesOfferingNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(ReservedCacheNodesOfferingNotFoundException.class,
+                "ReservedCacheNodesOfferingNotFound");
     }
 }
     
\ No newline at end of file
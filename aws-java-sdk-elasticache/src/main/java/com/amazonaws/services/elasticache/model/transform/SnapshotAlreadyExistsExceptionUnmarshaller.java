@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticache.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticache.model.SnapshotAlreadyExistsException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticache.model.SnapshotAlreadyExistsException;
 public class SnapshotAlreadyExistsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public SnapshotAlreadyExistsExceptionUnmarshaller() {
-        super(SnapshotAlreadyExistsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("SnapshotAlreadyExistsFault"))
-            return null;
-
-        SnapshotAlreadyExistsException e = (SnapshotAlreadyExistsException)super.unmarshall(node);
-        
-        return e;
+        super(SnapshotAlreadyExistsException.class, "SnapshotAlreadyExistsFault");
     }
 }
     
\ No newline at end of file
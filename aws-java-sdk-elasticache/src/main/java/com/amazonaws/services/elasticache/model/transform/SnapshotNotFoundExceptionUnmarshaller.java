@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticache.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticache.model.SnapshotNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticache.model.SnapshotNotFoundException;
 public class SnapshotNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public SnapshotNotFoundExceptionUnmarshaller() {
-        super(SnapshotNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("SnapshotNotFoundFault"))
-            return null;
-
-        SnapshotNotFoundException e = (SnapshotNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(SnapshotNotFoundException.class, "SnapshotNotFoundFault");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticache.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticache.model.TagQuotaPerResourceExceededException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticache.model.TagQuotaPerResourceExceededExcep
 public class TagQuotaPerResourceExceededExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public TagQuotaPerResourceExceededExceptionUnmarshaller() {
-        super(TagQuotaPerResourceExceededException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("TagQuotaPerResourceExceeded"))
-            return null;
-
-        TagQuotaPerResourceExceededException e = (TagQuotaPerResourceExceededException)super.unmarshall(node);
-        
-        return e;
+        super(TagQuotaPerResourceExceededException.class, "TagQuotaPerResourceExceeded");
     }
 }
     
\ No newline at end of file
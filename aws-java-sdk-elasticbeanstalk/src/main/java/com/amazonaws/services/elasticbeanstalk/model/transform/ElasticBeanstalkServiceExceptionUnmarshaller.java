@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.elasticbeanstalk.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticbeanstalk.model.ElasticBeanstalkServiceException;
@@ -28,21 +24,6 @@ public class ElasticBeanstalkServiceExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public ElasticBeanstalkServiceExceptionUnmarshaller() {
-        super(ElasticBeanstalkServiceException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("ElasticBeanstalkServiceException"))
-            return null;
-
-        ElasticBeanstalkServiceException e = (ElasticBeanstalkServiceException) super
-                .unmarshall(node);
-
-        return e;
+        super(ElasticBeanstalkServiceException.class, "ElasticBeanstalkServiceException");
     }
 }
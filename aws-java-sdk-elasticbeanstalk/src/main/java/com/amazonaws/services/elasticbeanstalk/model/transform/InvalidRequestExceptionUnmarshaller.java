@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.elasticbeanstalk.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticbeanstalk.model.InvalidRequestException;
@@ -28,20 +24,6 @@ public class InvalidRequestExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidRequestExceptionUnmarshaller() {
-        super(InvalidRequestException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidRequestException"))
-            return null;
-
-        InvalidRequestException e = (InvalidRequestException) super
-                .unmarshall(node);
-
-        return e;
+        super(InvalidRequestException.class, "InvalidRequestException");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.elasticbeanstalk.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticbeanstalk.model.S3LocationNotInServiceRegionException;
@@ -28,21 +24,6 @@ public class S3LocationNotInServiceRegionExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public S3LocationNotInServiceRegionExceptionUnmarshaller() {
-        super(S3LocationNotInServiceRegionException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("S3LocationNotInServiceRegionException"))
-            return null;
-
-        S3LocationNotInServiceRegionException e = (S3LocationNotInServiceRegionException) super
-                .unmarshall(node);
-
-        return e;
+        super(S3LocationNotInServiceRegionException.class, "S3LocationNotInServiceRegionException");
     }
 }
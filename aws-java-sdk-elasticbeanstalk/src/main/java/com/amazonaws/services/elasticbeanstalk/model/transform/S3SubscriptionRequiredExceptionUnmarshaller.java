@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.elasticbeanstalk.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticbeanstalk.model.S3SubscriptionRequiredException;
@@ -28,21 +24,6 @@ public class S3SubscriptionRequiredExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public S3SubscriptionRequiredExceptionUnmarshaller() {
-        super(S3SubscriptionRequiredException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("S3SubscriptionRequiredException"))
-            return null;
-
-        S3SubscriptionRequiredException e = (S3SubscriptionRequiredException) super
-                .unmarshall(node);
-
-        return e;
+        super(S3SubscriptionRequiredException.class, "S3SubscriptionRequiredException");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.elasticbeanstalk.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticbeanstalk.model.TooManyApplicationVersionsException;
@@ -28,21 +24,6 @@ public class TooManyApplicationVersionsExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public TooManyApplicationVersionsExceptionUnmarshaller() {
-        super(TooManyApplicationVersionsException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("TooManyApplicationVersionsException"))
-            return null;
-
-        TooManyApplicationVersionsException e = (TooManyApplicationVersionsException) super
-                .unmarshall(node);
-
-        return e;
+        super(TooManyApplicationVersionsException.class, "TooManyApplicationVersionsException");
     }
 }
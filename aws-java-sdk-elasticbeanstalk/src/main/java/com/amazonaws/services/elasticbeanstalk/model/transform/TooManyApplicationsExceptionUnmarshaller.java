@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.elasticbeanstalk.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticbeanstalk.model.TooManyApplicationsException;
@@ -28,21 +24,6 @@ public class TooManyApplicationsExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public TooManyApplicationsExceptionUnmarshaller() {
-        super(TooManyApplicationsException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("TooManyApplicationsException"))
-            return null;
-
-        TooManyApplicationsException e = (TooManyApplicationsException) super
-                .unmarshall(node);
-
-        return e;
+        super(TooManyApplicationsException.class, "TooManyApplicationsException");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.elasticbeanstalk.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticbeanstalk.model.TooManyBucketsException;
@@ -28,20 +24,6 @@ public class TooManyBucketsExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public TooManyBucketsExceptionUnmarshaller() {
-        super(TooManyBucketsException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("TooManyBucketsException"))
-            return null;
-
-        TooManyBucketsException e = (TooManyBucketsException) super
-                .unmarshall(node);
-
-        return e;
+        super(TooManyBucketsException.class, "TooManyBucketsException");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.elasticbeanstalk.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticbeanstalk.model.TooManyConfigurationTemplatesException;
@@ -28,21 +24,7 @@ public class TooManyConfigurationTemplatesExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public TooManyConfigurationTemplatesExceptionUnmarshaller() {
-        super(TooManyConfigurationTemplatesException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("TooManyConfigurationTemplatesException"))
-            return null;
-
-        TooManyConfigurationTemplatesException e = (TooManyConfigurationTemplatesException) super
-                .unmarshall(node);
-
-        return e;
+        super(TooManyConfigurationTemplatesException.class,
+                "TooManyConfigurationTemplatesException");
     }
 }
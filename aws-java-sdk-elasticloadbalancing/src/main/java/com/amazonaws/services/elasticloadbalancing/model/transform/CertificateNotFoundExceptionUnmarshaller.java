@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticloadbalancing.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticloadbalancing.model.CertificateNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticloadbalancing.model.CertificateNotFoundExce
 public class CertificateNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public CertificateNotFoundExceptionUnmarshaller() {
-        super(CertificateNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("CertificateNotFound"))
-            return null;
-
-        CertificateNotFoundException e = (CertificateNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(CertificateNotFoundException.class, "CertificateNotFound");
     }
 }
     
\ No newline at end of file
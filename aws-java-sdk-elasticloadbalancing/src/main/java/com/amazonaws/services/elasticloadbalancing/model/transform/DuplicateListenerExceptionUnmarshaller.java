@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticloadbalancing.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticloadbalancing.model.DuplicateListenerException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticloadbalancing.model.DuplicateListenerExcept
 public class DuplicateListenerExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public DuplicateListenerExceptionUnmarshaller() {
-        super(DuplicateListenerException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DuplicateListener"))
-            return null;
-
-        DuplicateListenerException e = (DuplicateListenerException)super.unmarshall(node);
-        
-        return e;
+        super(DuplicateListenerException.class, "DuplicateListener");
     }
 }
     
\ No newline at end of file
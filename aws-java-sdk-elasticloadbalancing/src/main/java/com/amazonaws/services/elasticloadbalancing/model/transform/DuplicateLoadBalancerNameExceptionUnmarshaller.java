@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticloadbalancing.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticloadbalancing.model.DuplicateLoadBalancerNameException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticloadbalancing.model.DuplicateLoadBalancerNa
 public class DuplicateLoadBalancerNameExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public DuplicateLoadBalancerNameExceptionUnmarshaller() {
-        super(DuplicateLoadBalancerNameException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DuplicateLoadBalancerName"))
-            return null;
-
-        DuplicateLoadBalancerNameException e = (DuplicateLoadBalancerNameException)super.unmarshall(node);
-        
-        return e;
+        super(DuplicateLoadBalancerNameException.class, "DuplicateLoadBalancerName");
     }
 }
     
\ No newline at end of file
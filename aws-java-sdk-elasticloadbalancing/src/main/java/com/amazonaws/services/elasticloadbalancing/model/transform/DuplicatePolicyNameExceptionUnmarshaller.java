@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticloadbalancing.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticloadbalancing.model.DuplicatePolicyNameException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticloadbalancing.model.DuplicatePolicyNameExce
 public class DuplicatePolicyNameExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public DuplicatePolicyNameExceptionUnmarshaller() {
-        super(DuplicatePolicyNameException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DuplicatePolicyName"))
-            return null;
-
-        DuplicatePolicyNameException e = (DuplicatePolicyNameException)super.unmarshall(node);
-        
-        return e;
+        super(DuplicatePolicyNameException.class, "DuplicatePolicyName");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticloadbalancing.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticloadbalancing.model.DuplicateTagKeysException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticloadbalancing.model.DuplicateTagKeysExcepti
 public class DuplicateTagKeysExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public DuplicateTagKeysExceptionUnmarshaller() {
-        super(DuplicateTagKeysException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DuplicateTagKeys"))
-            return null;
-
-        DuplicateTagKeysException e = (DuplicateTagKeysException)super.unmarshall(node);
-        
-        return e;
+        super(DuplicateTagKeysException.class, "DuplicateTagKeys");
     }
 }
     
\ No newline at end of file
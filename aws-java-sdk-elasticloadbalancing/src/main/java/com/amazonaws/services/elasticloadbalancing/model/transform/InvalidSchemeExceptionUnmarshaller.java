@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticloadbalancing.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticloadbalancing.model.InvalidSchemeException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticloadbalancing.model.InvalidSchemeException;
 public class InvalidSchemeExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidSchemeExceptionUnmarshaller() {
-        super(InvalidSchemeException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidScheme"))
-            return null;
-
-        InvalidSchemeException e = (InvalidSchemeException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidSchemeException.class, "InvalidScheme");
     }
 }
     
\ No newline at end of file
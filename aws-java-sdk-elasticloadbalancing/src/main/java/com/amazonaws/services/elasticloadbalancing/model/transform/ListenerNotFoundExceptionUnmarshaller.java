@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticloadbalancing.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticloadbalancing.model.ListenerNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticloadbalancing.model.ListenerNotFoundExcepti
 public class ListenerNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ListenerNotFoundExceptionUnmarshaller() {
-        super(ListenerNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ListenerNotFound"))
-            return null;
-
-        ListenerNotFoundException e = (ListenerNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(ListenerNotFoundException.class, "ListenerNotFound");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticloadbalancing.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticloadbalancing.model.LoadBalancerNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticloadbalancing.model.LoadBalancerNotFoundExc
 public class LoadBalancerNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public LoadBalancerNotFoundExceptionUnmarshaller() {
-        super(LoadBalancerNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("LoadBalancerNotFound"))
-            return null;
-
-        LoadBalancerNotFoundException e = (LoadBalancerNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(LoadBalancerNotFoundException.class, "LoadBalancerNotFound");
     }
 }
     
\ No newline at end of file
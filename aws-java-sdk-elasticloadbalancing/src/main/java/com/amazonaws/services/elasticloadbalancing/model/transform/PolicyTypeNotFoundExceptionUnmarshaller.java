@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticloadbalancing.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticloadbalancing.model.PolicyTypeNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticloadbalancing.model.PolicyTypeNotFoundExcep
 public class PolicyTypeNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public PolicyTypeNotFoundExceptionUnmarshaller() {
-        super(PolicyTypeNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("PolicyTypeNotFound"))
-            return null;
-
-        PolicyTypeNotFoundException e = (PolicyTypeNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(PolicyTypeNotFoundException.class, "PolicyTypeNotFound");
     }
 }
     
\ No newline at end of file
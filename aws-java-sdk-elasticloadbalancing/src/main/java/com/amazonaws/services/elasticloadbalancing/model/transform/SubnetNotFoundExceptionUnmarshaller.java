@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.elasticloadbalancing.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.elasticloadbalancing.model.SubnetNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.elasticloadbalancing.model.SubnetNotFoundException
 public class SubnetNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public SubnetNotFoundExceptionUnmarshaller() {
-        super(SubnetNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("SubnetNotFound"))
-            return null;
-
-        SubnetNotFoundException e = (SubnetNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(SubnetNotFoundException.class, "SubnetNotFound");
     }
 }
     
\ No newline at end of file
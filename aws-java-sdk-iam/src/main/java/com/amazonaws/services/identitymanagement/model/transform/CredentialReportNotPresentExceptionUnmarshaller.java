@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.identitymanagement.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.identitymanagement.model.CredentialReportNotPresentException;
@@ -28,20 +24,6 @@ public class CredentialReportNotPresentExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public CredentialReportNotPresentExceptionUnmarshaller() {
-        super(CredentialReportNotPresentException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ReportNotPresent"))
-            return null;
-
-        CredentialReportNotPresentException e = (CredentialReportNotPresentException) super
-                .unmarshall(node);
-
-        return e;
+        super(CredentialReportNotPresentException.class, "ReportNotPresent");
     }
 }
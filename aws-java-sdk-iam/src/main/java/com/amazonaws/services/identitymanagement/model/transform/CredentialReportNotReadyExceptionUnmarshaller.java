@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.identitymanagement.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.identitymanagement.model.CredentialReportNotReadyException;
@@ -28,20 +24,6 @@ public class CredentialReportNotReadyExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public CredentialReportNotReadyExceptionUnmarshaller() {
-        super(CredentialReportNotReadyException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ReportInProgress"))
-            return null;
-
-        CredentialReportNotReadyException e = (CredentialReportNotReadyException) super
-                .unmarshall(node);
-
-        return e;
+        super(CredentialReportNotReadyException.class, "ReportInProgress");
     }
 }
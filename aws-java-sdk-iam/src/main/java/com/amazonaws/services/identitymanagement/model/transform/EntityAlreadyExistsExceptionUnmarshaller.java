@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.identitymanagement.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.identitymanagement.model.EntityAlreadyExistsException;
@@ -28,20 +24,6 @@ public class EntityAlreadyExistsExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public EntityAlreadyExistsExceptionUnmarshaller() {
-        super(EntityAlreadyExistsException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("EntityAlreadyExists"))
-            return null;
-
-        EntityAlreadyExistsException e = (EntityAlreadyExistsException) super
-                .unmarshall(node);
-
-        return e;
+        super(EntityAlreadyExistsException.class, "EntityAlreadyExists");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.identitymanagement.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.identitymanagement.model.EntityTemporarilyUnmodifiableException;
@@ -28,21 +24,6 @@ public class EntityTemporarilyUnmodifiableExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public EntityTemporarilyUnmodifiableExceptionUnmarshaller() {
-        super(EntityTemporarilyUnmodifiableException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("EntityTemporarilyUnmodifiable"))
-            return null;
-
-        EntityTemporarilyUnmodifiableException e = (EntityTemporarilyUnmodifiableException) super
-                .unmarshall(node);
-
-        return e;
+        super(EntityTemporarilyUnmodifiableException.class, "EntityTemporarilyUnmodifiable");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.identitymanagement.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.identitymanagement.model.InvalidAuthenticationCodeException;
@@ -28,20 +24,6 @@ public class InvalidAuthenticationCodeExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidAuthenticationCodeExceptionUnmarshaller() {
-        super(InvalidAuthenticationCodeException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidAuthenticationCode"))
-            return null;
-
-        InvalidAuthenticationCodeException e = (InvalidAuthenticationCodeException) super
-                .unmarshall(node);
-
-        return e;
+        super(InvalidAuthenticationCodeException.class, "InvalidAuthenticationCode");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.identitymanagement.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.identitymanagement.model.InvalidInputException;
@@ -28,20 +24,6 @@ public class InvalidInputExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidInputExceptionUnmarshaller() {
-        super(InvalidInputException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidInput"))
-            return null;
-
-        InvalidInputException e = (InvalidInputException) super
-                .unmarshall(node);
-
-        return e;
+        super(InvalidInputException.class, "InvalidInput");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.identitymanagement.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.identitymanagement.model.UnrecognizedPublicKeyEncodingException;
@@ -28,21 +24,6 @@ public class UnrecognizedPublicKeyEncodingExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public UnrecognizedPublicKeyEncodingExceptionUnmarshaller() {
-        super(UnrecognizedPublicKeyEncodingException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("UnrecognizedPublicKeyEncoding"))
-            return null;
-
-        UnrecognizedPublicKeyEncodingException e = (UnrecognizedPublicKeyEncodingException) super
-                .unmarshall(node);
-
-        return e;
+        super(UnrecognizedPublicKeyEncodingException.class, "UnrecognizedPublicKeyEncoding");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.importexport.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.importexport.model.InvalidAddressException;
@@ -28,20 +24,6 @@ public class InvalidAddressExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidAddressExceptionUnmarshaller() {
-        super(InvalidAddressException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidAddressException"))
-            return null;
-
-        InvalidAddressException e = (InvalidAddressException) super
-                .unmarshall(node);
-
-        return e;
+        super(InvalidAddressException.class, "InvalidAddressException");
     }
 }
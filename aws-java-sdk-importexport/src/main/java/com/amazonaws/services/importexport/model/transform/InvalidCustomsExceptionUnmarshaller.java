@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.importexport.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.importexport.model.InvalidCustomsException;
@@ -28,20 +24,6 @@ public class InvalidCustomsExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidCustomsExceptionUnmarshaller() {
-        super(InvalidCustomsException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidCustomsException"))
-            return null;
-
-        InvalidCustomsException e = (InvalidCustomsException) super
-                .unmarshall(node);
-
-        return e;
+        super(InvalidCustomsException.class, "InvalidCustomsException");
     }
 }
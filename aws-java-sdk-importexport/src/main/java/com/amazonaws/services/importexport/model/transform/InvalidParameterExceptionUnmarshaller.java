@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.importexport.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.importexport.model.InvalidParameterException;
@@ -28,20 +24,6 @@ public class InvalidParameterExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidParameterExceptionUnmarshaller() {
-        super(InvalidParameterException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidParameterException"))
-            return null;
-
-        InvalidParameterException e = (InvalidParameterException) super
-                .unmarshall(node);
-
-        return e;
+        super(InvalidParameterException.class, "InvalidParameterException");
     }
 }
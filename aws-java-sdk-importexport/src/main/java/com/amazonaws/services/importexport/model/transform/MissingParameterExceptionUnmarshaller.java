@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.importexport.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.importexport.model.MissingParameterException;
@@ -28,20 +24,6 @@ public class MissingParameterExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public MissingParameterExceptionUnmarshaller() {
-        super(MissingParameterException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("MissingParameterException"))
-            return null;
-
-        MissingParameterException e = (MissingParameterException) super
-                .unmarshall(node);
-
-        return e;
+        super(MissingParameterException.class, "MissingParameterException");
     }
 }
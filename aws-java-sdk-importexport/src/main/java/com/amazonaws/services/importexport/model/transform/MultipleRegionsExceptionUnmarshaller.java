@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.importexport.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.importexport.model.MultipleRegionsException;
@@ -28,20 +24,6 @@ public class MultipleRegionsExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public MultipleRegionsExceptionUnmarshaller() {
-        super(MultipleRegionsException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("MultipleRegionsException"))
-            return null;
-
-        MultipleRegionsException e = (MultipleRegionsException) super
-                .unmarshall(node);
-
-        return e;
+        super(MultipleRegionsException.class, "MultipleRegionsException");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.importexport.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.importexport.model.UnableToUpdateJobIdException;
@@ -28,21 +24,6 @@ public class UnableToUpdateJobIdExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public UnableToUpdateJobIdExceptionUnmarshaller() {
-        super(UnableToUpdateJobIdException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("UnableToUpdateJobIdException"))
-            return null;
-
-        UnableToUpdateJobIdException e = (UnableToUpdateJobIdException) super
-                .unmarshall(node);
-
-        return e;
+        super(UnableToUpdateJobIdException.class, "UnableToUpdateJobIdException");
     }
 }
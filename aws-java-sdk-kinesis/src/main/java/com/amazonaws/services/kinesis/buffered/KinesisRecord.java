@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesis.buffered;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import com.amazonaws.services.kinesis.model.PutRecordsRequestEntry;
+import com.amazonaws.util.StringUtils;
+
+/**
+ * A record as sent to Kinesis, holding one user record or the aggregate of
+ * several. It is only used by one thread at a time.
+ */
+class KinesisRecord {
+
+    private final String partitionKey;
+    private final String explicitHashKey;
+    private final ByteBuffer data;
+    private final List<UserRecord> userRecords;
+    private final String predictedShardId;
+    private final int size;
+
+    private int attempts;
+    private long notBeforeNanos;
+
+    KinesisRecord(String partitionKey, String explicitHashKey, ByteBuffer data,
+            List<UserRecord> userRecords, String predictedShardId) {
+        this.partitionKey = partitionKey;
+        this.explicitHashKey = explicitHashKey;
+        this.data = data;
+        this.userRecords = userRecords;
+        this.predictedShardId = predictedShardId;
+        this.size = data.remaining() + partitionKey.getBytes(StringUtils.UTF8).length;
+    }
+
+    PutRecordsRequestEntry toEntry() {
+        return new PutRecordsRequestEntry()
+                .withPartitionKey(partitionKey)
+                .withExplicitHashKey(explicitHashKey)
+                .withData(data.duplicate());
+    }
+
+    List<UserRecord> getUserRecords() {
+        return userRecords;
+    }
+
+    boolean isAggregated() {
+        return userRecords.size() > 1;
+    }
+
+    /** Returns the shard the record was aggregated for, or null. */
+    String getPredictedShardId() {
+        return predictedShardId;
+    }
+
+    /** Returns the size of the data and partition key, in bytes. */
+    int getSize() {
+        return size;
+    }
+
+    int getAttempts() {
+        return attempts;
+    }
+
+    void incrementAttempts() {
+        attempts++;
+    }
+
+    /**
+     * Returns the deadline of the oldest user record, after which the record
+     * is not retried anymore.
+     */
+    long getDeadlineNanos() {
+        long deadline = userRecords.get(0).getDeadlineNanos();
+        for (UserRecord userRecord : userRecords) {
+            if (userRecord.getDeadlineNanos() - deadline < 0) {
+                deadline = userRecord.getDeadlineNanos();
+            }
+        }
+        return deadline;
+    }
+
+    long getNotBeforeNanos() {
+        return notBeforeNanos;
+    }
+
+    void setNotBeforeNanos(long notBeforeNanos) {
+        this.notBeforeNanos = notBeforeNanos;
+    }
+}
@@ -0,0 +1,513 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesis.buffered;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonServiceException.ErrorType;
+import com.amazonaws.retry.RetryUtils;
+import com.amazonaws.services.kinesis.AmazonKinesis;
+import com.amazonaws.services.kinesis.model.PutRecordsRequest;
+import com.amazonaws.services.kinesis.model.PutRecordsRequestEntry;
+import com.amazonaws.services.kinesis.model.PutRecordsResult;
+import com.amazonaws.services.kinesis.model.PutRecordsResultEntry;
+import com.amazonaws.util.StringUtils;
+
+/**
+ * Puts records in a Kinesis stream in batches, trading a little latency for
+ * far fewer calls and much better use of the shards' throughput.
+ * <p>
+ * User records are buffered and, unless disabled, those predicted to go to
+ * the same shard are aggregated into larger Kinesis records in the format of
+ * the Kinesis Producer Library, which the Kinesis Client Library
+ * de-aggregates. The shard of a record is predicted from the hash key ranges
+ * of the open shards, which are described in the background when the
+ * producer is created and refreshed periodically, or as soon as a record is
+ * seen landing in another shard than predicted. Records added before the
+ * shards are known are sent without aggregation.
+ * <p>
+ * Kinesis records are sent with PutRecords calls of up to 500 records and
+ * 5 MB, made when a call is full or when its oldest record has been buffered
+ * for {@link KinesisRecordProducerConfig#getRecordMaxBufferedTimeMillis()}.
+ * Only the entries that failed in a call are retried, with exponential
+ * backoff, until they succeed, run out of attempts or outlive their time to
+ * live. The outcome of each user record is reported through the future
+ * returned when it was added.
+ * <p>
+ * Instances are thread-safe. Producers create threads that run until
+ * {@link #shutdown()} is called.
+ */
+public class KinesisRecordProducer {
+
+    private static final Log log = LogFactory.getLog(KinesisRecordProducer.class);
+
+    /** backoff before the first retry of a record; doubled at each attempt */
+    private static final long MIN_BACKOFF_MILLIS = 100;
+
+    private static final long MAX_BACKOFF_MILLIS = 5000;
+
+    private static final int MAX_PARTITION_KEY_LENGTH = 256;
+
+    private final AmazonKinesis kinesis;
+    private final String streamName;
+    private final KinesisRecordProducerConfig config;
+
+    /** bounds the number of user records added but not completed yet */
+    private final Semaphore outstandingPermits;
+    private final AtomicInteger outstandingCount = new AtomicInteger();
+
+    private final ExecutorService putExecutor;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile ShardMap shardMap;
+    private volatile long shardMapUpdatedNanos;
+    private final AtomicBoolean shardMapRefreshing = new AtomicBoolean();
+
+    /** guards the fields below */
+    private final Object lock = new Object();
+
+    /** non-empty aggregators, by predicted shard */
+    private final Map<String, RecordAggregator> aggregators = new HashMap<String, RecordAggregator>();
+
+    /** records to send in the next call */
+    private final List<KinesisRecord> ready = new ArrayList<KinesisRecord>();
+    private long readyBytes;
+    private long readySinceNanos;
+
+    /** failed records waiting for their backoff to elapse */
+    private final List<KinesisRecord> retries = new ArrayList<KinesisRecord>();
+
+    private boolean shutdown;
+
+    public KinesisRecordProducer(AmazonKinesis kinesis, String streamName) {
+        this(kinesis, streamName, new KinesisRecordProducerConfig());
+    }
+
+    public KinesisRecordProducer(AmazonKinesis kinesis, String streamName,
+            KinesisRecordProducerConfig config) {
+        this.kinesis = kinesis;
+        this.streamName = streamName;
+        this.config = new KinesisRecordProducerConfig(config);
+        this.outstandingPermits = new Semaphore(this.config.getMaxOutstandingRecords());
+
+        putExecutor = Executors.newFixedThreadPool(this.config.getMaxConcurrentRequests(),
+                new DaemonThreadFactory());
+        scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory());
+
+        long tickMillis = Math.max(1, this.config.getRecordMaxBufferedTimeMillis() / 4);
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+
+        if (this.config.isAggregationEnabled()) {
+            refreshShardMap();
+        }
+    }
+
+    /**
+     * Adds a record to put in the stream, blocking while
+     * {@link KinesisRecordProducerConfig#getMaxOutstandingRecords()} records
+     * are outstanding.
+     *
+     * @param partitionKey
+     *            the partition key of the record, from 1 to 256 characters.
+     * @param explicitHashKey
+     *            the hash key to route the record on in place of the hash of
+     *            its partition key, or null.
+     * @param data
+     *            the data of the record; its remaining bytes are sent and
+     *            must not be modified until the record is put.
+     * @return the future outcome of the record. Its get method throws an
+     *         ExecutionException wrapping an AmazonClientException if the
+     *         record could not be put.
+     */
+    public Future<UserRecordResult> addUserRecord(String partitionKey,
+            String explicitHashKey, ByteBuffer data) {
+        if (partitionKey == null || partitionKey.length() == 0
+                || partitionKey.length() > MAX_PARTITION_KEY_LENGTH) {
+            throw new IllegalArgumentException("The partition key must be 1 to "
+                    + MAX_PARTITION_KEY_LENGTH + " characters long");
+        }
+        BigInteger hashKey;
+        if (explicitHashKey != null) {
+            try {
+                hashKey = new BigInteger(explicitHashKey);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid explicit hash key: " + explicitHashKey);
+            }
+        } else {
+            hashKey = hashPartitionKey(partitionKey);
+        }
+        int size = data.remaining() + partitionKey.getBytes(StringUtils.UTF8).length;
+        if (size > KinesisRecordProducerConfig.SERVICE_MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("The data and partition key of a record "
+                    + "must not exceed " + KinesisRecordProducerConfig.SERVICE_MAX_RECORD_SIZE
+                    + " bytes");
+        }
+
+        try {
+            outstandingPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmazonClientException("Interrupted while waiting to add a record", e);
+        }
+        outstandingCount.incrementAndGet();
+
+        long deadlineNanos = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(config.getRecordTtlMillis());
+        UserRecord record = new UserRecord(partitionKey, explicitHashKey, hashKey,
+                data.slice(), deadlineNanos);
+        List<List<KinesisRecord>> batches = new ArrayList<List<KinesisRecord>>();
+        synchronized (lock) {
+            if (shutdown) {
+                completed(1);
+                throw new AmazonClientException("The producer has been shut down.");
+            }
+            ShardMap currentShardMap = shardMap;
+            String shardId = currentShardMap != null ? currentShardMap.getShardId(hashKey) : null;
+            if (config.isAggregationEnabled() && shardId != null) {
+                RecordAggregator aggregator = aggregators.get(shardId);
+                if (aggregator == null) {
+                    aggregator = new RecordAggregator(shardId);
+                    aggregators.put(shardId, aggregator);
+                } else if (aggregator.sizeWith(record) > config.getAggregationMaxSize()) {
+                    addReady(aggregator.build(), batches);
+                }
+                aggregator.add(record);
+            } else {
+                List<UserRecord> userRecords = new ArrayList<UserRecord>(1);
+                userRecords.add(record);
+                addReady(new KinesisRecord(partitionKey, explicitHashKey, record.getData(),
+                        userRecords, null), batches);
+            }
+        }
+        send(batches);
+        return record.getFuture();
+    }
+
+    /**
+     * Sends all buffered records without waiting for their buffering time to
+     * elapse. Records waiting to be retried keep waiting for their backoff.
+     */
+    public void flush() {
+        flush(true);
+    }
+
+    /**
+     * Flushes the buffered records and blocks until all records added are
+     * put or failed.
+     */
+    public void flushSync() {
+        long tickMillis = Math.max(1, config.getRecordMaxBufferedTimeMillis() / 4);
+        while (outstandingCount.get() > 0) {
+            flush(true);
+            try {
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AmazonClientException("Interrupted while flushing records", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of user records added but not put or failed yet.
+     */
+    public int getOutstandingRecordsCount() {
+        return outstandingCount.get();
+    }
+
+    /**
+     * Puts the outstanding records then stops the threads of this producer.
+     * Records cannot be added afterwards. The AmazonKinesis client is not shut
+     * down.
+     */
+    public void shutdown() {
+        flushSync();
+        synchronized (lock) {
+            shutdown = true;
+        }
+        scheduler.shutdown();
+        putExecutor.shutdown();
+    }
+
+    /**
+     * Sends the records whose buffering time elapsed, and describes the shards
+     * again when due.
+     */
+    private void tick() {
+        try {
+            flush(false);
+            if (config.isAggregationEnabled() && System.nanoTime() - shardMapUpdatedNanos
+                    >= TimeUnit.MILLISECONDS.toNanos(config.getShardMapRefreshMillis())) {
+                refreshShardMap();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unexpected error flushing records to " + streamName, e);
+        }
+    }
+
+    /**
+     * Moves the records whose buffering time elapsed, or all if asked to, to
+     * calls, and sends the calls.
+     */
+    private void flush(boolean all) {
+        List<List<KinesisRecord>> batches = new ArrayList<List<KinesisRecord>>();
+        synchronized (lock) {
+            long now = System.nanoTime();
+            long maxBufferedNanos = TimeUnit.MILLISECONDS.toNanos(config.getRecordMaxBufferedTimeMillis());
+
+            Iterator<RecordAggregator> aggregatorIterator = aggregators.values().iterator();
+            while (aggregatorIterator.hasNext()) {
+                RecordAggregator aggregator = aggregatorIterator.next();
+                if (all || now - aggregator.getFirstAddedNanos() >= maxBufferedNanos) {
+                    addReady(aggregator.build(), batches);
+                    aggregatorIterator.remove();
+                }
+            }
+
+            Iterator<KinesisRecord> retryIterator = retries.iterator();
+            while (retryIterator.hasNext()) {
+                KinesisRecord record = retryIterator.next();
+                if (now - record.getNotBeforeNanos() >= 0) {
+                    addReady(record, batches);
+                    retryIterator.remove();
+                }
+            }
+
+            if (!ready.isEmpty() && (all || now - readySinceNanos >= maxBufferedNanos)) {
+                batches.add(drainReady());
+            }
+        }
+        send(batches);
+    }
+
+    /**
+     * Adds a record to the next call, moving the call to the given batches
+     * when it is full. Must be called under the lock.
+     */
+    private void addReady(KinesisRecord record, List<List<KinesisRecord>> batches) {
+        if (!ready.isEmpty() && readyBytes + record.getSize() > config.getMaxBytesPerRequest()) {
+            batches.add(drainReady());
+        }
+        if (ready.isEmpty()) {
+            readySinceNanos = System.nanoTime();
+        }
+        ready.add(record);
+        readyBytes += record.getSize();
+        if (ready.size() >= config.getMaxRecordsPerRequest()) {
+            batches.add(drainReady());
+        }
+    }
+
+    private List<KinesisRecord> drainReady() {
+        List<KinesisRecord> batch = new ArrayList<KinesisRecord>(ready);
+        ready.clear();
+        readyBytes = 0;
+        return batch;
+    }
+
+    private void send(List<List<KinesisRecord>> batches) {
+        for (final List<KinesisRecord> batch : batches) {
+            putExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    putRecords(batch);
+                }
+            });
+        }
+    }
+
+    private void putRecords(List<KinesisRecord> batch) {
+        List<PutRecordsRequestEntry> entries = new ArrayList<PutRecordsRequestEntry>(batch.size());
+        for (KinesisRecord record : batch) {
+            entries.add(record.toEntry());
+            record.incrementAttempts();
+        }
+
+        PutRecordsResult result;
+        try {
+            result = kinesis.putRecords(new PutRecordsRequest()
+                    .withStreamName(streamName)
+                    .withRecords(entries));
+        } catch (AmazonServiceException e) {
+            for (KinesisRecord record : batch) {
+                if (isRetryable(e)) {
+                    retry(record, e.getErrorCode() + ": " + e.getErrorMessage(), e);
+                } else {
+                    fail(record, e);
+                }
+            }
+            return;
+        } catch (AmazonClientException e) {
+            for (KinesisRecord record : batch) {
+                retry(record, e.getMessage(), e);
+            }
+            return;
+        } catch (RuntimeException e) {
+            for (KinesisRecord record : batch) {
+                fail(record, new AmazonClientException("Failed to put records to " + streamName, e));
+            }
+            return;
+        }
+
+        // Results are in the order of the request entries
+        List<PutRecordsResultEntry> resultEntries = result.getRecords();
+        for (int i = 0; i < batch.size(); i++) {
+            KinesisRecord record = batch.get(i);
+            PutRecordsResultEntry resultEntry = i < resultEntries.size() ? resultEntries.get(i) : null;
+            if (resultEntry == null) {
+                retry(record, "No result returned for the record", null);
+            } else if (resultEntry.getErrorCode() != null) {
+                retry(record, resultEntry.getErrorCode() + ": " + resultEntry.getErrorMessage(), null);
+            } else {
+                succeed(record, resultEntry);
+            }
+        }
+    }
+
+    private void succeed(KinesisRecord record, PutRecordsResultEntry resultEntry) {
+        if (record.getPredictedShardId() != null
+                && !record.getPredictedShardId().equals(resultEntry.getShardId())) {
+            // The shards changed since they were last described
+            refreshShardMap();
+        }
+        List<UserRecord> userRecords = record.getUserRecords();
+        for (int i = 0; i < userRecords.size(); i++) {
+            userRecords.get(i).getFuture().setSuccess(new UserRecordResult(
+                    resultEntry.getShardId(), resultEntry.getSequenceNumber(),
+                    record.isAggregated() ? i : 0, record.getAttempts()));
+        }
+        completed(userRecords.size());
+    }
+
+    private void retry(KinesisRecord record, String reason, Exception cause) {
+        long now = System.nanoTime();
+        long backoffMillis = MIN_BACKOFF_MILLIS << Math.min(record.getAttempts() - 1, 16);
+        long notBeforeNanos = now + TimeUnit.MILLISECONDS.toNanos(
+                Math.min(backoffMillis, MAX_BACKOFF_MILLIS));
+        if (record.getAttempts() >= config.getMaxAttempts()
+                || notBeforeNanos - record.getDeadlineNanos() > 0) {
+            fail(record, new AmazonClientException("Failed to put record to " + streamName
+                    + " after " + record.getAttempts() + " attempts: " + reason, cause));
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Retrying record to " + streamName + " after attempt "
+                    + record.getAttempts() + ": " + reason);
+        }
+        record.setNotBeforeNanos(notBeforeNanos);
+        synchronized (lock) {
+            retries.add(record);
+        }
+    }
+
+    private void fail(KinesisRecord record, AmazonClientException exception) {
+        for (UserRecord userRecord : record.getUserRecords()) {
+            userRecord.getFuture().setFailure(exception);
+        }
+        completed(record.getUserRecords().size());
+    }
+
+    private void completed(int count) {
+        outstandingCount.addAndGet(-count);
+        outstandingPermits.release(count);
+    }
+
+    /**
+     * Describes the shards of the stream in the background, unless already
+     * being done.
+     */
+    private void refreshShardMap() {
+        if (!shardMapRefreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            putExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        shardMap = ShardMap.describe(kinesis, streamName);
+                    } catch (AmazonClientException e) {
+                        log.warn("Unable to describe the shards of " + streamName, e);
+                    } finally {
+                        shardMapUpdatedNanos = System.nanoTime();
+                        shardMapRefreshing.set(false);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // shut down
+            shardMapRefreshing.set(false);
+        }
+    }
+
+    private static boolean isRetryable(AmazonServiceException e) {
+        return e.getErrorType() == ErrorType.Service
+                || e.getStatusCode() >= 500
+                || RetryUtils.isThrottlingException(e)
+                || "ProvisionedThroughputExceededException".equals(e.getErrorCode());
+    }
+
+    /**
+     * Returns the MD5 of the partition key as an unsigned 128-bit integer, as
+     * Kinesis does to map it to a shard.
+     */
+    private static BigInteger hashPartitionKey(String partitionKey) {
+        try {
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            return new BigInteger(1, md5.digest(partitionKey.getBytes(StringUtils.UTF8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new AmazonClientException("Unable to hash the partition key", e);
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        static AtomicInteger threadCount = new AtomicInteger(0);
+
+        public Thread newThread(Runnable r) {
+            int threadNumber = threadCount.addAndGet(1);
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("KinesisRecordProducerThread-" + threadNumber);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,410 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesis.buffered;
+
+/**
+ * Configuration of a {@link KinesisRecordProducer}.
+ */
+public class KinesisRecordProducerConfig {
+
+    /** The maximum number of records the service accepts per PutRecords call. */
+    public static final int SERVICE_MAX_RECORDS_PER_REQUEST = 500;
+
+    /** The maximum size of a PutRecords call the service accepts, in bytes. */
+    public static final long SERVICE_MAX_BYTES_PER_REQUEST = 5 * 1024 * 1024;
+
+    /** The maximum size of a Kinesis record, data and partition key, in bytes. */
+    public static final int SERVICE_MAX_RECORD_SIZE = 1024 * 1024;
+
+    /** The default maximum size of an aggregated Kinesis record, in bytes. */
+    public static final int DEFAULT_AGGREGATION_MAX_SIZE = 50 * 1024;
+
+    /** The default time (in milliseconds) a user record may wait to be sent. */
+    public static final long DEFAULT_RECORD_MAX_BUFFERED_TIME_MILLIS = 100;
+
+    /** The default maximum number of concurrent PutRecords calls. */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+
+    /** The default maximum number of user records added but not put yet. */
+    public static final int DEFAULT_MAX_OUTSTANDING_RECORDS = 100000;
+
+    /** The default maximum number of attempts to put a record. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 10;
+
+    /** The default time (in milliseconds) after which a record is not retried anymore. */
+    public static final long DEFAULT_RECORD_TTL_MILLIS = 30 * 1000;
+
+    /** The default time (in milliseconds) between two refreshes of the shard map. */
+    public static final long DEFAULT_SHARD_MAP_REFRESH_MILLIS = 60 * 1000;
+
+    private boolean aggregationEnabled = true;
+
+    private int aggregationMaxSize = DEFAULT_AGGREGATION_MAX_SIZE;
+
+    private long recordMaxBufferedTimeMillis = DEFAULT_RECORD_MAX_BUFFERED_TIME_MILLIS;
+
+    private int maxRecordsPerRequest = SERVICE_MAX_RECORDS_PER_REQUEST;
+
+    private long maxBytesPerRequest = SERVICE_MAX_BYTES_PER_REQUEST;
+
+    private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+
+    private int maxOutstandingRecords = DEFAULT_MAX_OUTSTANDING_RECORDS;
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    private long recordTtlMillis = DEFAULT_RECORD_TTL_MILLIS;
+
+    private long shardMapRefreshMillis = DEFAULT_SHARD_MAP_REFRESH_MILLIS;
+
+    public KinesisRecordProducerConfig() {
+    }
+
+    /** copy constructor */
+    public KinesisRecordProducerConfig(KinesisRecordProducerConfig other) {
+        aggregationEnabled = other.aggregationEnabled;
+        aggregationMaxSize = other.aggregationMaxSize;
+        recordMaxBufferedTimeMillis = other.recordMaxBufferedTimeMillis;
+        maxRecordsPerRequest = other.maxRecordsPerRequest;
+        maxBytesPerRequest = other.maxBytesPerRequest;
+        maxConcurrentRequests = other.maxConcurrentRequests;
+        maxOutstandingRecords = other.maxOutstandingRecords;
+        maxAttempts = other.maxAttempts;
+        recordTtlMillis = other.recordTtlMillis;
+        shardMapRefreshMillis = other.shardMapRefreshMillis;
+    }
+
+    /**
+     * Returns whether user records predicted to go to the same shard are
+     * aggregated into larger Kinesis records. Aggregated records use the
+     * format of the Kinesis Producer Library, which the Kinesis Client Library
+     * de-aggregates.
+     */
+    public boolean isAggregationEnabled() {
+        return aggregationEnabled;
+    }
+
+    /**
+     * Sets whether user records predicted to go to the same shard are
+     * aggregated into larger Kinesis records.
+     */
+    public void setAggregationEnabled(boolean aggregationEnabled) {
+        this.aggregationEnabled = aggregationEnabled;
+    }
+
+    /**
+     * Sets whether user records predicted to go to the same shard are
+     * aggregated into larger Kinesis records, and returns the updated object
+     * so that additional method calls can be chained together.
+     */
+    public KinesisRecordProducerConfig withAggregationEnabled(boolean aggregationEnabled) {
+        setAggregationEnabled(aggregationEnabled);
+        return this;
+    }
+
+    /**
+     * Returns the maximum size of an aggregated Kinesis record, in bytes.
+     * User records larger than that are sent on their own.
+     */
+    public int getAggregationMaxSize() {
+        return aggregationMaxSize;
+    }
+
+    /**
+     * Sets the maximum size of an aggregated Kinesis record, in bytes.
+     *
+     * @param aggregationMaxSize
+     *            the size, between 64 bytes and 1 MB
+     */
+    public void setAggregationMaxSize(int aggregationMaxSize) {
+        if (aggregationMaxSize < 64 || aggregationMaxSize > SERVICE_MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("aggregationMaxSize "
+                    + aggregationMaxSize + " must be between 64 and "
+                    + SERVICE_MAX_RECORD_SIZE);
+        }
+        this.aggregationMaxSize = aggregationMaxSize;
+    }
+
+    /**
+     * Sets the maximum size of an aggregated Kinesis record, in bytes, and
+     * returns the updated object so that additional method calls can be
+     * chained together.
+     */
+    public KinesisRecordProducerConfig withAggregationMaxSize(int aggregationMaxSize) {
+        setAggregationMaxSize(aggregationMaxSize);
+        return this;
+    }
+
+    /**
+     * Returns the approximate time (in milliseconds) a user record may wait
+     * in the buffer for other records before being sent. Records are sent
+     * sooner when a PutRecords call is full.
+     */
+    public long getRecordMaxBufferedTimeMillis() {
+        return recordMaxBufferedTimeMillis;
+    }
+
+    /**
+     * Sets the approximate time (in milliseconds) a user record may wait in
+     * the buffer for other records before being sent.
+     *
+     * @param recordMaxBufferedTimeMillis
+     *            the time, must be positive
+     */
+    public void setRecordMaxBufferedTimeMillis(long recordMaxBufferedTimeMillis) {
+        if (recordMaxBufferedTimeMillis <= 0) {
+            throw new IllegalArgumentException("recordMaxBufferedTimeMillis "
+                    + recordMaxBufferedTimeMillis + " must be positive");
+        }
+        this.recordMaxBufferedTimeMillis = recordMaxBufferedTimeMillis;
+    }
+
+    /**
+     * Sets the approximate time (in milliseconds) a user record may wait in
+     * the buffer for other records before being sent, and returns the updated
+     * object so that additional method calls can be chained together.
+     */
+    public KinesisRecordProducerConfig withRecordMaxBufferedTimeMillis(long recordMaxBufferedTimeMillis) {
+        setRecordMaxBufferedTimeMillis(recordMaxBufferedTimeMillis);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of Kinesis records per PutRecords call.
+     */
+    public int getMaxRecordsPerRequest() {
+        return maxRecordsPerRequest;
+    }
+
+    /**
+     * Sets the maximum number of Kinesis records per PutRecords call.
+     *
+     * @param maxRecordsPerRequest
+     *            the number of records, between 1 and 500
+     */
+    public void setMaxRecordsPerRequest(int maxRecordsPerRequest) {
+        if (maxRecordsPerRequest < 1 || maxRecordsPerRequest > SERVICE_MAX_RECORDS_PER_REQUEST) {
+            throw new IllegalArgumentException("maxRecordsPerRequest "
+                    + maxRecordsPerRequest + " must be between 1 and "
+                    + SERVICE_MAX_RECORDS_PER_REQUEST);
+        }
+        this.maxRecordsPerRequest = maxRecordsPerRequest;
+    }
+
+    /**
+     * Sets the maximum number of Kinesis records per PutRecords call, and
+     * returns the updated object so that additional method calls can be
+     * chained together.
+     */
+    public KinesisRecordProducerConfig withMaxRecordsPerRequest(int maxRecordsPerRequest) {
+        setMaxRecordsPerRequest(maxRecordsPerRequest);
+        return this;
+    }
+
+    /**
+     * Returns the maximum size of a PutRecords call, data and partition keys,
+     * in bytes.
+     */
+    public long getMaxBytesPerRequest() {
+        return maxBytesPerRequest;
+    }
+
+    /**
+     * Sets the maximum size of a PutRecords call, data and partition keys, in
+     * bytes.
+     *
+     * @param maxBytesPerRequest
+     *            the size, between 1 MB and 5 MB
+     */
+    public void setMaxBytesPerRequest(long maxBytesPerRequest) {
+        if (maxBytesPerRequest < SERVICE_MAX_RECORD_SIZE
+                || maxBytesPerRequest > SERVICE_MAX_BYTES_PER_REQUEST) {
+            throw new IllegalArgumentException("maxBytesPerRequest "
+                    + maxBytesPerRequest + " must be between "
+                    + SERVICE_MAX_RECORD_SIZE + " and "
+                    + SERVICE_MAX_BYTES_PER_REQUEST);
+        }
+        this.maxBytesPerRequest = maxBytesPerRequest;
+    }
+
+    /**
+     * Sets the maximum size of a PutRecords call, in bytes, and returns the
+     * updated object so that additional method calls can be chained together.
+     */
+    public KinesisRecordProducerConfig withMaxBytesPerRequest(long maxBytesPerRequest) {
+        setMaxBytesPerRequest(maxBytesPerRequest);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of concurrent PutRecords calls, which is
+     * also the number of threads making them.
+     */
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * Sets the maximum number of concurrent PutRecords calls.
+     *
+     * @param maxConcurrentRequests
+     *            the number of calls, must be at least 1
+     */
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("maxConcurrentRequests "
+                    + maxConcurrentRequests + " must be at least 1");
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    /**
+     * Sets the maximum number of concurrent PutRecords calls, and returns the
+     * updated object so that additional method calls can be chained together.
+     */
+    public KinesisRecordProducerConfig withMaxConcurrentRequests(int maxConcurrentRequests) {
+        setMaxConcurrentRequests(maxConcurrentRequests);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of user records added but not put yet.
+     * Adding a record blocks while that many records are outstanding.
+     */
+    public int getMaxOutstandingRecords() {
+        return maxOutstandingRecords;
+    }
+
+    /**
+     * Sets the maximum number of user records added but not put yet.
+     *
+     * @param maxOutstandingRecords
+     *            the number of records, must be at least 1
+     */
+    public void setMaxOutstandingRecords(int maxOutstandingRecords) {
+        if (maxOutstandingRecords < 1) {
+            throw new IllegalArgumentException("maxOutstandingRecords "
+                    + maxOutstandingRecords + " must be at least 1");
+        }
+        this.maxOutstandingRecords = maxOutstandingRecords;
+    }
+
+    /**
+     * Sets the maximum number of user records added but not put yet, and
+     * returns the updated object so that additional method calls can be
+     * chained together.
+     */
+    public KinesisRecordProducerConfig withMaxOutstandingRecords(int maxOutstandingRecords) {
+        setMaxOutstandingRecords(maxOutstandingRecords);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of attempts to put a record. Only the
+     * records a PutRecords call failed to put are retried.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Sets the maximum number of attempts to put a record.
+     *
+     * @param maxAttempts
+     *            the number of attempts, must be at least 1
+     */
+    public void setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts " + maxAttempts
+                    + " must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Sets the maximum number of attempts to put a record, and returns the
+     * updated object so that additional method calls can be chained together.
+     */
+    public KinesisRecordProducerConfig withMaxAttempts(int maxAttempts) {
+        setMaxAttempts(maxAttempts);
+        return this;
+    }
+
+    /**
+     * Returns the time (in milliseconds) after it was added past which a
+     * failed record is not retried anymore.
+     */
+    public long getRecordTtlMillis() {
+        return recordTtlMillis;
+    }
+
+    /**
+     * Sets the time (in milliseconds) after it was added past which a failed
+     * record is not retried anymore.
+     *
+     * @param recordTtlMillis
+     *            the time, must be positive
+     */
+    public void setRecordTtlMillis(long recordTtlMillis) {
+        if (recordTtlMillis <= 0) {
+            throw new IllegalArgumentException("recordTtlMillis "
+                    + recordTtlMillis + " must be positive");
+        }
+        this.recordTtlMillis = recordTtlMillis;
+    }
+
+    /**
+     * Sets the time (in milliseconds) after it was added past which a failed
+     * record is not retried anymore, and returns the updated object so that
+     * additional method calls can be chained together.
+     */
+    public KinesisRecordProducerConfig withRecordTtlMillis(long recordTtlMillis) {
+        setRecordTtlMillis(recordTtlMillis);
+        return this;
+    }
+
+    /**
+     * Returns the time (in milliseconds) between two DescribeStream calls
+     * refreshing the map used to predict the shard of a record. The map is
+     * also refreshed when a record lands on another shard than predicted.
+     */
+    public long getShardMapRefreshMillis() {
+        return shardMapRefreshMillis;
+    }
+
+    /**
+     * Sets the time (in milliseconds) between two refreshes of the shard map.
+     *
+     * @param shardMapRefreshMillis
+     *            the time, must be positive
+     */
+    public void setShardMapRefreshMillis(long shardMapRefreshMillis) {
+        if (shardMapRefreshMillis <= 0) {
+            throw new IllegalArgumentException("shardMapRefreshMillis "
+                    + shardMapRefreshMillis + " must be positive");
+        }
+        this.shardMapRefreshMillis = shardMapRefreshMillis;
+    }
+
+    /**
+     * Sets the time (in milliseconds) between two refreshes of the shard map,
+     * and returns the updated object so that additional method calls can be
+     * chained together.
+     */
+    public KinesisRecordProducerConfig withShardMapRefreshMillis(long shardMapRefreshMillis) {
+        setShardMapRefreshMillis(shardMapRefreshMillis);
+        return this;
+    }
+}
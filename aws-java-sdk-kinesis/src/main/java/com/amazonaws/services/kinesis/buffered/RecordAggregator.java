@@ -0,0 +1,247 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesis.buffered;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.util.StringUtils;
+
+/**
+ * Aggregates user records predicted to go to the same shard into a single
+ * Kinesis record, in the format of the Kinesis Producer Library: 4 magic
+ * bytes, an {@code AggregatedRecord} protocol buffers message, and the MD5
+ * digest of that message. The Kinesis Client Library de-aggregates such
+ * records transparently.
+ * <p>
+ * The message has the following schema; tags are not supported.
+ *
+ * <pre>
+ * message AggregatedRecord {
+ *   repeated string partition_key_table     = 1;
+ *   repeated string explicit_hash_key_table = 2;
+ *   repeated Record records                 = 3;
+ * }
+ * message Record {
+ *   required uint64 partition_key_index     = 1;
+ *   optional uint64 explicit_hash_key_index = 2;
+ *   required bytes  data                    = 3;
+ * }
+ * </pre>
+ *
+ * Instances are not thread-safe.
+ */
+class RecordAggregator {
+
+    private static final byte[] MAGIC = { (byte) 0xF3, (byte) 0x89, (byte) 0x9A, (byte) 0xC2 };
+    private static final int DIGEST_SIZE = 16;
+
+    /** Field keys: field number << 3 | wire type, 2 being length-delimited and 0 varint */
+    private static final int PARTITION_KEY_TABLE_KEY = 1 << 3 | 2;
+    private static final int EXPLICIT_HASH_KEY_TABLE_KEY = 2 << 3 | 2;
+    private static final int RECORDS_KEY = 3 << 3 | 2;
+    private static final int PARTITION_KEY_INDEX_KEY = 1 << 3;
+    private static final int EXPLICIT_HASH_KEY_INDEX_KEY = 2 << 3;
+    private static final int DATA_KEY = 3 << 3 | 2;
+
+    private final List<UserRecord> records = new ArrayList<UserRecord>();
+    private final Map<String, Integer> partitionKeys = new LinkedHashMap<String, Integer>();
+    private final Map<String, Integer> explicitHashKeys = new LinkedHashMap<String, Integer>();
+    private final String shardId;
+
+    /** size of the protocol buffers message */
+    private int messageSize;
+
+    private long firstAddedNanos;
+
+    RecordAggregator(String shardId) {
+        this.shardId = shardId;
+    }
+
+    boolean isEmpty() {
+        return records.isEmpty();
+    }
+
+    long getFirstAddedNanos() {
+        return firstAddedNanos;
+    }
+
+    /**
+     * Returns the size of the Kinesis record, data and partition key, if the
+     * given user record was added.
+     */
+    int sizeWith(UserRecord record) {
+        int size = messageSize + entrySize(record);
+        String kinesisPartitionKey = records.isEmpty()
+                ? record.getPartitionKey() : records.get(0).getPartitionKey();
+        return MAGIC.length + size + DIGEST_SIZE + utf8Length(kinesisPartitionKey);
+    }
+
+    void add(UserRecord record) {
+        if (records.isEmpty()) {
+            firstAddedNanos = System.nanoTime();
+        }
+        messageSize += entrySize(record);
+        index(partitionKeys, record.getPartitionKey());
+        if (record.getExplicitHashKey() != null) {
+            index(explicitHashKeys, record.getExplicitHashKey());
+        }
+        records.add(record);
+    }
+
+    /**
+     * Builds the Kinesis record and resets this aggregator. A single user
+     * record is sent as is rather than aggregated.
+     */
+    KinesisRecord build() {
+        List<UserRecord> userRecords = new ArrayList<UserRecord>(records);
+        KinesisRecord kinesisRecord;
+        if (userRecords.size() == 1) {
+            UserRecord record = userRecords.get(0);
+            kinesisRecord = new KinesisRecord(record.getPartitionKey(),
+                    record.getExplicitHashKey(), record.getData(), userRecords,
+                    shardId);
+        } else {
+            UserRecord first = userRecords.get(0);
+            // The explicit hash key routes the whole aggregate to the shard
+            // predicted for its first record
+            kinesisRecord = new KinesisRecord(first.getPartitionKey(),
+                    first.getHashKey().toString(), encode(), userRecords,
+                    shardId);
+        }
+
+        records.clear();
+        partitionKeys.clear();
+        explicitHashKeys.clear();
+        messageSize = 0;
+        return kinesisRecord;
+    }
+
+    private ByteBuffer encode() {
+        byte[] buffer = new byte[MAGIC.length + messageSize + DIGEST_SIZE];
+        System.arraycopy(MAGIC, 0, buffer, 0, MAGIC.length);
+        int position = MAGIC.length;
+
+        for (String partitionKey : partitionKeys.keySet()) {
+            position = writeString(buffer, position, PARTITION_KEY_TABLE_KEY, partitionKey);
+        }
+        for (String explicitHashKey : explicitHashKeys.keySet()) {
+            position = writeString(buffer, position, EXPLICIT_HASH_KEY_TABLE_KEY, explicitHashKey);
+        }
+        for (UserRecord record : records) {
+            ByteBuffer data = record.getData();
+            position = writeVarint(buffer, position, RECORDS_KEY);
+            position = writeVarint(buffer, position, recordSize(record));
+            position = writeVarint(buffer, position, PARTITION_KEY_INDEX_KEY);
+            position = writeVarint(buffer, position, partitionKeys.get(record.getPartitionKey()));
+            if (record.getExplicitHashKey() != null) {
+                position = writeVarint(buffer, position, EXPLICIT_HASH_KEY_INDEX_KEY);
+                position = writeVarint(buffer, position, explicitHashKeys.get(record.getExplicitHashKey()));
+            }
+            position = writeVarint(buffer, position, DATA_KEY);
+            position = writeVarint(buffer, position, data.remaining());
+            data.duplicate().get(buffer, position, data.remaining());
+            position += data.remaining();
+        }
+
+        MessageDigest md5;
+        try {
+            md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AmazonClientException("Unable to compute the MD5 of an aggregated record", e);
+        }
+        md5.update(buffer, MAGIC.length, messageSize);
+        System.arraycopy(md5.digest(), 0, buffer, position, DIGEST_SIZE);
+        return ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * Returns by how much the message grows when the given record is added,
+     * counting new entries of the key tables.
+     */
+    private int entrySize(UserRecord record) {
+        int size = 0;
+        if (!partitionKeys.containsKey(record.getPartitionKey())) {
+            size += lengthDelimitedSize(utf8Length(record.getPartitionKey()));
+        }
+        if (record.getExplicitHashKey() != null
+                && !explicitHashKeys.containsKey(record.getExplicitHashKey())) {
+            size += lengthDelimitedSize(utf8Length(record.getExplicitHashKey()));
+        }
+        return size + lengthDelimitedSize(recordSize(record));
+    }
+
+    /**
+     * Returns the size of the Record message of the given user record, which
+     * must be in the key tables already or be about to be added last.
+     */
+    private int recordSize(UserRecord record) {
+        Integer partitionKeyIndex = partitionKeys.get(record.getPartitionKey());
+        int size = 1 + varintSize(partitionKeyIndex != null ? partitionKeyIndex : partitionKeys.size());
+        if (record.getExplicitHashKey() != null) {
+            Integer explicitHashKeyIndex = explicitHashKeys.get(record.getExplicitHashKey());
+            size += 1 + varintSize(explicitHashKeyIndex != null
+                    ? explicitHashKeyIndex : explicitHashKeys.size());
+        }
+        return size + lengthDelimitedSize(record.getData().remaining());
+    }
+
+    private static void index(Map<String, Integer> table, String key) {
+        if (!table.containsKey(key)) {
+            table.put(key, table.size());
+        }
+    }
+
+    /** size of a length-delimited field with a one byte key */
+    private static int lengthDelimitedSize(int length) {
+        return 1 + varintSize(length) + length;
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            ++size;
+        }
+        return size;
+    }
+
+    private static int writeVarint(byte[] buffer, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    private static int writeString(byte[] buffer, int position, int key, String value) {
+        byte[] bytes = value.getBytes(StringUtils.UTF8);
+        position = writeVarint(buffer, position, key);
+        position = writeVarint(buffer, position, bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        return position + bytes.length;
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(StringUtils.UTF8).length;
+    }
+}
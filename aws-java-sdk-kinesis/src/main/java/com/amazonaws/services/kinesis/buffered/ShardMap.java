@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesis.buffered;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.amazonaws.services.kinesis.AmazonKinesis;
+import com.amazonaws.services.kinesis.model.DescribeStreamRequest;
+import com.amazonaws.services.kinesis.model.Shard;
+import com.amazonaws.services.kinesis.model.StreamDescription;
+
+/**
+ * The hash key ranges of the open shards of a stream, used to predict which
+ * shard a record goes to. Instances are immutable.
+ */
+class ShardMap {
+
+    private final BigInteger[] endingHashKeys;
+    private final String[] shardIds;
+
+    private ShardMap(List<Shard> openShards) {
+        Collections.sort(openShards, new Comparator<Shard>() {
+            @Override
+            public int compare(Shard left, Shard right) {
+                return endingHashKey(left).compareTo(endingHashKey(right));
+            }
+        });
+        endingHashKeys = new BigInteger[openShards.size()];
+        shardIds = new String[openShards.size()];
+        for (int i = 0; i < shardIds.length; i++) {
+            endingHashKeys[i] = endingHashKey(openShards.get(i));
+            shardIds[i] = openShards.get(i).getShardId();
+        }
+    }
+
+    /**
+     * Describes the stream, page by page, and maps its open shards.
+     */
+    static ShardMap describe(AmazonKinesis kinesis, String streamName) {
+        List<Shard> openShards = new ArrayList<Shard>();
+        String exclusiveStartShardId = null;
+        StreamDescription description;
+        do {
+            description = kinesis.describeStream(new DescribeStreamRequest()
+                    .withStreamName(streamName)
+                    .withExclusiveStartShardId(exclusiveStartShardId))
+                    .getStreamDescription();
+            for (Shard shard : description.getShards()) {
+                if (shard.getSequenceNumberRange() == null
+                        || shard.getSequenceNumberRange().getEndingSequenceNumber() == null) {
+                    openShards.add(shard);
+                }
+                exclusiveStartShardId = shard.getShardId();
+            }
+        } while (Boolean.TRUE.equals(description.getHasMoreShards())
+                && !description.getShards().isEmpty());
+        return new ShardMap(openShards);
+    }
+
+    /**
+     * Returns the id of the open shard whose hash key range holds the given
+     * hash key, or null if there is none.
+     */
+    String getShardId(BigInteger hashKey) {
+        int low = 0;
+        int high = endingHashKeys.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (endingHashKeys[middle].compareTo(hashKey) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low < shardIds.length ? shardIds[low] : null;
+    }
+
+    private static BigInteger endingHashKey(Shard shard) {
+        return new BigInteger(shard.getHashKeyRange().getEndingHashKey());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesis.buffered;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * A record added to a {@link KinesisRecordProducer}, along with the hash key
+ * it routes on and the future to complete when it is put.
+ */
+class UserRecord {
+
+    private final String partitionKey;
+    private final String explicitHashKey;
+    private final BigInteger hashKey;
+    private final ByteBuffer data;
+    private final UserRecordFuture future = new UserRecordFuture();
+    private final long deadlineNanos;
+
+    UserRecord(String partitionKey, String explicitHashKey, BigInteger hashKey,
+            ByteBuffer data, long deadlineNanos) {
+        this.partitionKey = partitionKey;
+        this.explicitHashKey = explicitHashKey;
+        this.hashKey = hashKey;
+        this.data = data;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    String getPartitionKey() {
+        return partitionKey;
+    }
+
+    /** Returns the explicit hash key given by the user, or null. */
+    String getExplicitHashKey() {
+        return explicitHashKey;
+    }
+
+    BigInteger getHashKey() {
+        return hashKey;
+    }
+
+    ByteBuffer getData() {
+        return data;
+    }
+
+    UserRecordFuture getFuture() {
+        return future;
+    }
+
+    /** Returns the time after which the record is not retried anymore. */
+    long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesis.buffered;
+
+/**
+ * The outcome of a user record successfully put by a
+ * {@link KinesisRecordProducer}.
+ */
+public class UserRecordResult {
+
+    private final String shardId;
+    private final String sequenceNumber;
+    private final long subSequenceNumber;
+    private final int attempts;
+
+    UserRecordResult(String shardId, String sequenceNumber,
+            long subSequenceNumber, int attempts) {
+        this.shardId = shardId;
+        this.sequenceNumber = sequenceNumber;
+        this.subSequenceNumber = subSequenceNumber;
+        this.attempts = attempts;
+    }
+
+    /**
+     * Returns the id of the shard the record was put in.
+     */
+    public String getShardId() {
+        return shardId;
+    }
+
+    /**
+     * Returns the sequence number of the Kinesis record holding the user
+     * record.
+     */
+    public String getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    /**
+     * Returns the index of the user record in the aggregated Kinesis record
+     * holding it, or 0 if the record was not aggregated.
+     */
+    public long getSubSequenceNumber() {
+        return subSequenceNumber;
+    }
+
+    /**
+     * Returns the number of PutRecords calls it took to put the record.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    @Override
+    public String toString() {
+        return "{ShardId: " + shardId + ", SequenceNumber: " + sequenceNumber
+                + ", SubSequenceNumber: " + subSequenceNumber
+                + ", Attempts: " + attempts + "}";
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesis.consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import com.amazonaws.services.kinesis.AmazonKinesis;
+import com.amazonaws.services.kinesis.model.DescribeStreamRequest;
+import com.amazonaws.services.kinesis.model.ExpiredIteratorException;
+import com.amazonaws.services.kinesis.model.GetRecordsRequest;
+import com.amazonaws.services.kinesis.model.GetRecordsResult;
+import com.amazonaws.services.kinesis.model.GetShardIteratorRequest;
+import com.amazonaws.services.kinesis.model.ProvisionedThroughputExceededException;
+import com.amazonaws.services.kinesis.model.Record;
+import com.amazonaws.services.kinesis.model.Shard;
+import com.amazonaws.services.kinesis.model.ShardIteratorType;
+import com.amazonaws.services.kinesis.model.StreamDescription;
+import com.amazonaws.shards.CheckpointStore;
+import com.amazonaws.shards.ShardReader;
+
+/**
+ * Reads all shards of a Kinesis stream and hands their records to a
+ * {@link KinesisRecordProcessor}.
+ * <p>
+ * The reader periodically describes the stream to discover its shard lineage
+ * and starts reading a shard only once its parent shards (the shard it was
+ * split from, or both shards it was merged from) have been read completely or
+ * are no longer part of the stream, so that all records of a partition key
+ * are processed in order. Shards are processed in parallel on a bounded pool
+ * of threads, one batch at a time, and while a batch is being processed the
+ * next GetRecords call for the same shard is already in flight.
+ * <p>
+ * After each successfully processed batch the sequence number of its last
+ * record is stored in a {@link CheckpointStore}; a restarted reader resumes
+ * every shard right after its checkpoint. Records are therefore delivered at
+ * least once: a batch whose processing fails, or whose checkpoint is lost in
+ * a crash, is delivered again.
+ * <p>
+ * The reader only depends on the {@link AmazonKinesis} interface, so it can
+ * run against a local stand-in of the service as well.
+ */
+@ThreadSafe
+public class KinesisShardReader extends ShardReader<Record> {
+
+    private final AmazonKinesis kinesis;
+    private final String streamName;
+    private final KinesisShardReaderConfig config;
+
+    /**
+     * Creates a reader with the default configuration.
+     *
+     * @see #KinesisShardReader(AmazonKinesis, String, CheckpointStore,
+     *      KinesisRecordProcessor, KinesisShardReaderConfig)
+     */
+    public KinesisShardReader(AmazonKinesis kinesis, String streamName,
+            CheckpointStore checkpointStore, KinesisRecordProcessor processor) {
+        this(kinesis, streamName, checkpointStore, processor, new KinesisShardReaderConfig());
+    }
+
+    /**
+     * Creates a reader for the given stream. Reading starts with
+     * {@link #start()}.
+     *
+     * @param kinesis
+     *            the client used to read the stream
+     * @param streamName
+     *            the name of the stream to read
+     * @param checkpointStore
+     *            where the positions reached in the shards are stored
+     * @param processor
+     *            the callback receiving the records
+     * @param config
+     *            the configuration of the reader
+     */
+    public KinesisShardReader(AmazonKinesis kinesis, String streamName,
+            CheckpointStore checkpointStore, KinesisRecordProcessor processor,
+            KinesisShardReaderConfig config) {
+        super(streamName, checkpointStore, processor, config, "kinesis-shard-reader-");
+        if (kinesis == null) {
+            throw new IllegalArgumentException("kinesis must not be null");
+        }
+        this.kinesis = kinesis;
+        this.streamName = streamName;
+        this.config = config;
+    }
+
+    @Override
+    protected List<ShardLineage> describeShards() {
+        List<ShardLineage> described = new ArrayList<ShardLineage>();
+        String exclusiveStartShardId = null;
+        StreamDescription description;
+        do {
+            description = kinesis.describeStream(new DescribeStreamRequest()
+                    .withStreamName(streamName)
+                    .withExclusiveStartShardId(exclusiveStartShardId))
+                    .getStreamDescription();
+            List<Shard> page = description.getShards();
+            for (Shard shard : page) {
+                described.add(new ShardLineage(shard.getShardId(),
+                        shard.getParentShardId(), shard.getAdjacentParentShardId()));
+            }
+            if (!page.isEmpty()) {
+                exclusiveStartShardId = page.get(page.size() - 1).getShardId();
+            }
+        } while (Boolean.TRUE.equals(description.getHasMoreShards())
+                && !description.getShards().isEmpty());
+        return described;
+    }
+
+    @Override
+    protected String getShardIterator(String shardId, boolean trimHorizon) {
+        return getShardIterator(shardId, trimHorizon
+                ? ShardIteratorType.TRIM_HORIZON
+                : config.getInitialPosition(), null);
+    }
+
+    @Override
+    protected String getShardIterator(String shardId, String afterSequenceNumber) {
+        return getShardIterator(shardId, ShardIteratorType.AFTER_SEQUENCE_NUMBER,
+                afterSequenceNumber);
+    }
+
+    private String getShardIterator(String shardId, ShardIteratorType type,
+            String sequenceNumber) {
+        return kinesis.getShardIterator(new GetShardIteratorRequest()
+                .withStreamName(streamName)
+                .withShardId(shardId)
+                .withShardIteratorType(type)
+                .withStartingSequenceNumber(sequenceNumber))
+                .getShardIterator();
+    }
+
+    @Override
+    protected RecordBatch<Record> getRecords(String shardIterator, int limit) {
+        GetRecordsResult result = kinesis.getRecords(new GetRecordsRequest()
+                .withShardIterator(shardIterator)
+                .withLimit(limit));
+        return new RecordBatch<Record>(result.getRecords(),
+                result.getNextShardIterator(), result.getMillisBehindLatest());
+    }
+
+    @Override
+    protected String getSequenceNumber(Record record) {
+        return record.getSequenceNumber();
+    }
+
+    @Override
+    protected ReadFailure getReadFailure(RuntimeException e) {
+        if (e instanceof ExpiredIteratorException) {
+            return ReadFailure.EXPIRED_ITERATOR;
+        }
+        if (e instanceof ProvisionedThroughputExceededException) {
+            return ReadFailure.THROTTLED;
+        }
+        return ReadFailure.OTHER;
+    }
+}
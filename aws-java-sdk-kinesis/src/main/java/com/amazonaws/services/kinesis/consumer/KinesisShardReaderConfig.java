@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesis.consumer;
+
+import com.amazonaws.shards.ShardReaderConfig;
+import com.amazonaws.services.kinesis.model.ShardIteratorType;
+
+/**
+ * Configuration of a {@link KinesisShardReader}.
+ */
+public class KinesisShardReaderConfig extends ShardReaderConfig {
+
+    /** The default maximum number of records requested per GetRecords call. */
+    public static final int DEFAULT_MAX_RECORDS_PER_CALL = 10000;
+
+    private ShardIteratorType initialPosition = ShardIteratorType.TRIM_HORIZON;
+
+    public KinesisShardReaderConfig() {
+        super(DEFAULT_MAX_RECORDS_PER_CALL);
+    }
+
+    @Override
+    public KinesisShardReaderConfig withMaxConcurrentShards(int maxConcurrentShards) {
+        setMaxConcurrentShards(maxConcurrentShards);
+        return this;
+    }
+
+    @Override
+    public KinesisShardReaderConfig withMaxRecordsPerCall(int maxRecordsPerCall) {
+        setMaxRecordsPerCall(maxRecordsPerCall);
+        return this;
+    }
+
+    @Override
+    public KinesisShardReaderConfig withIdleTimeBetweenReadsMillis(long idleTimeBetweenReadsMillis) {
+        setIdleTimeBetweenReadsMillis(idleTimeBetweenReadsMillis);
+        return this;
+    }
+
+    @Override
+    public KinesisShardReaderConfig withShardSyncIntervalMillis(long shardSyncIntervalMillis) {
+        setShardSyncIntervalMillis(shardSyncIntervalMillis);
+        return this;
+    }
+
+    /**
+     * Returns where reading a shard without checkpoint starts: either
+     * {@link ShardIteratorType#TRIM_HORIZON} (the default) or
+     * {@link ShardIteratorType#LATEST}.
+     */
+    public ShardIteratorType getInitialPosition() {
+        return initialPosition;
+    }
+
+    /**
+     * Sets where reading a shard without checkpoint starts.
+     *
+     * @param initialPosition
+     *            either {@link ShardIteratorType#TRIM_HORIZON} or
+     *            {@link ShardIteratorType#LATEST}
+     */
+    public void setInitialPosition(ShardIteratorType initialPosition) {
+        if (initialPosition != ShardIteratorType.TRIM_HORIZON
+                && initialPosition != ShardIteratorType.LATEST) {
+            throw new IllegalArgumentException("initialPosition "
+                    + initialPosition + " must be TRIM_HORIZON or LATEST");
+        }
+        this.initialPosition = initialPosition;
+    }
+
+    /**
+     * Sets where reading a shard without checkpoint starts, and returns the
+     * updated object so that additional method calls can be chained together.
+     */
+    public KinesisShardReaderConfig withInitialPosition(ShardIteratorType initialPosition) {
+        setInitialPosition(initialPosition);
+        return this;
+    }
+}
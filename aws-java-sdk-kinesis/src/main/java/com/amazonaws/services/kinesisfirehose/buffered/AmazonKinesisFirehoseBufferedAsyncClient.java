@@ -0,0 +1,338 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesisfirehose.buffered;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.ResponseMetadata;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.regions.Region;
+import com.amazonaws.services.kinesisfirehose.AmazonKinesisFirehoseAsync;
+import com.amazonaws.services.kinesisfirehose.model.CreateDeliveryStreamRequest;
+import com.amazonaws.services.kinesisfirehose.model.CreateDeliveryStreamResult;
+import com.amazonaws.services.kinesisfirehose.model.DeleteDeliveryStreamRequest;
+import com.amazonaws.services.kinesisfirehose.model.DeleteDeliveryStreamResult;
+import com.amazonaws.services.kinesisfirehose.model.DescribeDeliveryStreamRequest;
+import com.amazonaws.services.kinesisfirehose.model.DescribeDeliveryStreamResult;
+import com.amazonaws.services.kinesisfirehose.model.ListDeliveryStreamsRequest;
+import com.amazonaws.services.kinesisfirehose.model.ListDeliveryStreamsResult;
+import com.amazonaws.services.kinesisfirehose.model.PutRecordBatchRequest;
+import com.amazonaws.services.kinesisfirehose.model.PutRecordBatchResult;
+import com.amazonaws.services.kinesisfirehose.model.PutRecordRequest;
+import com.amazonaws.services.kinesisfirehose.model.PutRecordResult;
+import com.amazonaws.services.kinesisfirehose.model.UpdateDestinationRequest;
+import com.amazonaws.services.kinesisfirehose.model.UpdateDestinationResult;
+import com.amazonaws.util.VersionInfoUtils;
+
+/**
+ * AmazonKinesisFirehoseBufferedAsyncClient provides client-side batching of
+ * putRecord calls. <br>
+ * Rather than putting each record right away, this client buffers the records
+ * of each delivery stream and puts them with PutRecordBatch calls of up to
+ * 500 records and 4 MB, made when a batch is full or has been open for a
+ * configurable time (default=200ms). The records of a batch which the service
+ * reports as failed are resubmitted on their own, with exponential backoff,
+ * and the outcome of each record is reported through the future and async
+ * handler of its putRecord call. Calls other than putRecord are passed on to
+ * the real client unchanged. <br>
+ * The throughput and backlog of each delivery stream can be monitored with
+ * {@link #getMetrics(String)}. Buffered records are put when {@link #flush()}
+ * or {@link #shutdown()} is called, or when their batch closes. <br>
+ * AmazonKinesisFirehoseBufferedAsyncClient is thread-safe.<br>
+ */
+public class AmazonKinesisFirehoseBufferedAsyncClient implements AmazonKinesisFirehoseAsync {
+
+    public static final String USER_AGENT = AmazonKinesisFirehoseBufferedAsyncClient.class.getSimpleName()
+            + "/" + VersionInfoUtils.getVersion();
+
+    private final Map<String, DeliveryStreamBuffer> buffers = new HashMap<String, DeliveryStreamBuffer>();
+    private final AmazonKinesisFirehoseAsync realFirehose;
+    private final FirehoseBufferConfig bufferConfig;
+
+    /** closes open batches and schedules retries */
+    private final ScheduledExecutorService scheduler;
+
+    /** runs the async handlers of putRecordAsync calls */
+    private final ExecutorService callbackExecutor;
+
+    private boolean shutdown;
+
+    public AmazonKinesisFirehoseBufferedAsyncClient(AmazonKinesisFirehoseAsync paramRealFirehose) {
+        this(paramRealFirehose, new FirehoseBufferConfig());
+    }
+
+    public AmazonKinesisFirehoseBufferedAsyncClient(AmazonKinesisFirehoseAsync paramRealFirehose,
+            FirehoseBufferConfig config) {
+        realFirehose = paramRealFirehose;
+        bufferConfig = new FirehoseBufferConfig(config);
+        scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory());
+        callbackExecutor = Executors.newCachedThreadPool(new DaemonThreadFactory());
+    }
+
+    @Override
+    public void setEndpoint(String endpoint) throws IllegalArgumentException {
+        realFirehose.setEndpoint(endpoint);
+    }
+
+    @Override
+    public void setRegion(Region region) throws IllegalArgumentException {
+        realFirehose.setRegion(region);
+    }
+
+    @Override
+    public PutRecordResult putRecord(PutRecordRequest putRecordRequest) {
+        Future<PutRecordResult> future = putRecordAsync(putRecordRequest);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmazonClientException("Thread interrupted while waiting for the record to be put", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AmazonClientException) {
+                throw (AmazonClientException) e.getCause();
+            }
+            throw new AmazonClientException("Caught an exception while waiting for the record to be put", e);
+        }
+    }
+
+    @Override
+    public Future<PutRecordResult> putRecordAsync(PutRecordRequest putRecordRequest) {
+        return putRecordAsync(putRecordRequest, null);
+    }
+
+    @Override
+    public Future<PutRecordResult> putRecordAsync(PutRecordRequest putRecordRequest,
+            AsyncHandler<PutRecordRequest, PutRecordResult> asyncHandler) {
+        DeliveryStreamBuffer buffer = getBuffer(putRecordRequest.getDeliveryStreamName());
+        return buffer.putRecord(putRecordRequest, asyncHandler);
+    }
+
+    @Override
+    public PutRecordBatchResult putRecordBatch(PutRecordBatchRequest putRecordBatchRequest) {
+        appendUserAgent(putRecordBatchRequest);
+        return realFirehose.putRecordBatch(putRecordBatchRequest);
+    }
+
+    @Override
+    public Future<PutRecordBatchResult> putRecordBatchAsync(PutRecordBatchRequest putRecordBatchRequest) {
+        appendUserAgent(putRecordBatchRequest);
+        return realFirehose.putRecordBatchAsync(putRecordBatchRequest);
+    }
+
+    @Override
+    public Future<PutRecordBatchResult> putRecordBatchAsync(PutRecordBatchRequest putRecordBatchRequest,
+            AsyncHandler<PutRecordBatchRequest, PutRecordBatchResult> asyncHandler) {
+        appendUserAgent(putRecordBatchRequest);
+        return realFirehose.putRecordBatchAsync(putRecordBatchRequest, asyncHandler);
+    }
+
+    @Override
+    public CreateDeliveryStreamResult createDeliveryStream(CreateDeliveryStreamRequest createDeliveryStreamRequest) {
+        appendUserAgent(createDeliveryStreamRequest);
+        return realFirehose.createDeliveryStream(createDeliveryStreamRequest);
+    }
+
+    @Override
+    public Future<CreateDeliveryStreamResult> createDeliveryStreamAsync(
+            CreateDeliveryStreamRequest createDeliveryStreamRequest) {
+        appendUserAgent(createDeliveryStreamRequest);
+        return realFirehose.createDeliveryStreamAsync(createDeliveryStreamRequest);
+    }
+
+    @Override
+    public Future<CreateDeliveryStreamResult> createDeliveryStreamAsync(
+            CreateDeliveryStreamRequest createDeliveryStreamRequest,
+            AsyncHandler<CreateDeliveryStreamRequest, CreateDeliveryStreamResult> asyncHandler) {
+        appendUserAgent(createDeliveryStreamRequest);
+        return realFirehose.createDeliveryStreamAsync(createDeliveryStreamRequest, asyncHandler);
+    }
+
+    @Override
+    public DeleteDeliveryStreamResult deleteDeliveryStream(DeleteDeliveryStreamRequest deleteDeliveryStreamRequest) {
+        appendUserAgent(deleteDeliveryStreamRequest);
+        return realFirehose.deleteDeliveryStream(deleteDeliveryStreamRequest);
+    }
+
+    @Override
+    public Future<DeleteDeliveryStreamResult> deleteDeliveryStreamAsync(
+            DeleteDeliveryStreamRequest deleteDeliveryStreamRequest) {
+        appendUserAgent(deleteDeliveryStreamRequest);
+        return realFirehose.deleteDeliveryStreamAsync(deleteDeliveryStreamRequest);
+    }
+
+    @Override
+    public Future<DeleteDeliveryStreamResult> deleteDeliveryStreamAsync(
+            DeleteDeliveryStreamRequest deleteDeliveryStreamRequest,
+            AsyncHandler<DeleteDeliveryStreamRequest, DeleteDeliveryStreamResult> asyncHandler) {
+        appendUserAgent(deleteDeliveryStreamRequest);
+        return realFirehose.deleteDeliveryStreamAsync(deleteDeliveryStreamRequest, asyncHandler);
+    }
+
+    @Override
+    public DescribeDeliveryStreamResult describeDeliveryStream(
+            DescribeDeliveryStreamRequest describeDeliveryStreamRequest) {
+        appendUserAgent(describeDeliveryStreamRequest);
+        return realFirehose.describeDeliveryStream(describeDeliveryStreamRequest);
+    }
+
+    @Override
+    public Future<DescribeDeliveryStreamResult> describeDeliveryStreamAsync(
+            DescribeDeliveryStreamRequest describeDeliveryStreamRequest) {
+        appendUserAgent(describeDeliveryStreamRequest);
+        return realFirehose.describeDeliveryStreamAsync(describeDeliveryStreamRequest);
+    }
+
+    @Override
+    public Future<DescribeDeliveryStreamResult> describeDeliveryStreamAsync(
+            DescribeDeliveryStreamRequest describeDeliveryStreamRequest,
+            AsyncHandler<DescribeDeliveryStreamRequest, DescribeDeliveryStreamResult> asyncHandler) {
+        appendUserAgent(describeDeliveryStreamRequest);
+        return realFirehose.describeDeliveryStreamAsync(describeDeliveryStreamRequest, asyncHandler);
+    }
+
+    @Override
+    public ListDeliveryStreamsResult listDeliveryStreams(ListDeliveryStreamsRequest listDeliveryStreamsRequest) {
+        appendUserAgent(listDeliveryStreamsRequest);
+        return realFirehose.listDeliveryStreams(listDeliveryStreamsRequest);
+    }
+
+    @Override
+    public Future<ListDeliveryStreamsResult> listDeliveryStreamsAsync(
+            ListDeliveryStreamsRequest listDeliveryStreamsRequest) {
+        appendUserAgent(listDeliveryStreamsRequest);
+        return realFirehose.listDeliveryStreamsAsync(listDeliveryStreamsRequest);
+    }
+
+    @Override
+    public Future<ListDeliveryStreamsResult> listDeliveryStreamsAsync(
+            ListDeliveryStreamsRequest listDeliveryStreamsRequest,
+            AsyncHandler<ListDeliveryStreamsRequest, ListDeliveryStreamsResult> asyncHandler) {
+        appendUserAgent(listDeliveryStreamsRequest);
+        return realFirehose.listDeliveryStreamsAsync(listDeliveryStreamsRequest, asyncHandler);
+    }
+
+    @Override
+    public UpdateDestinationResult updateDestination(UpdateDestinationRequest updateDestinationRequest) {
+        appendUserAgent(updateDestinationRequest);
+        return realFirehose.updateDestination(updateDestinationRequest);
+    }
+
+    @Override
+    public Future<UpdateDestinationResult> updateDestinationAsync(UpdateDestinationRequest updateDestinationRequest) {
+        appendUserAgent(updateDestinationRequest);
+        return realFirehose.updateDestinationAsync(updateDestinationRequest);
+    }
+
+    @Override
+    public Future<UpdateDestinationResult> updateDestinationAsync(UpdateDestinationRequest updateDestinationRequest,
+            AsyncHandler<UpdateDestinationRequest, UpdateDestinationResult> asyncHandler) {
+        appendUserAgent(updateDestinationRequest);
+        return realFirehose.updateDestinationAsync(updateDestinationRequest, asyncHandler);
+    }
+
+    @Override
+    public ResponseMetadata getCachedResponseMetadata(AmazonWebServiceRequest request) {
+        return realFirehose.getCachedResponseMetadata(request);
+    }
+
+    /**
+     * Returns a snapshot of the activity of the buffer of the given delivery
+     * stream, or null if no record was put in it through this client.
+     */
+    public DeliveryStreamMetrics getMetrics(String deliveryStreamName) {
+        DeliveryStreamBuffer buffer;
+        synchronized (buffers) {
+            buffer = buffers.get(deliveryStreamName);
+        }
+        return buffer != null ? buffer.getMetrics() : null;
+    }
+
+    /**
+     * Sends the open batches of all delivery streams without waiting for them
+     * to fill up or time out. Records waiting to be retried keep waiting for
+     * their backoff.
+     */
+    public void flush() {
+        for (DeliveryStreamBuffer buffer : getBuffers()) {
+            buffer.flush();
+        }
+    }
+
+    /**
+     * Puts the buffered records of all delivery streams, then shuts down the
+     * real client. Records put afterwards are rejected.
+     */
+    @Override
+    public void shutdown() {
+        synchronized (buffers) {
+            shutdown = true;
+        }
+        for (DeliveryStreamBuffer buffer : getBuffers()) {
+            buffer.shutdown();
+        }
+        scheduler.shutdown();
+        callbackExecutor.shutdown();
+        realFirehose.shutdown();
+    }
+
+    private DeliveryStreamBuffer getBuffer(String deliveryStreamName) {
+        synchronized (buffers) {
+            if (shutdown) {
+                throw new AmazonClientException("The client has been shut down.");
+            }
+            DeliveryStreamBuffer buffer = buffers.get(deliveryStreamName);
+            if (buffer == null) {
+                buffer = new DeliveryStreamBuffer(realFirehose, deliveryStreamName, bufferConfig,
+                        USER_AGENT, scheduler, callbackExecutor);
+                buffers.put(deliveryStreamName, buffer);
+            }
+            return buffer;
+        }
+    }
+
+    private List<DeliveryStreamBuffer> getBuffers() {
+        synchronized (buffers) {
+            return new ArrayList<DeliveryStreamBuffer>(buffers.values());
+        }
+    }
+
+    private static void appendUserAgent(AmazonWebServiceRequest request) {
+        request.getRequestClientOptions().appendUserAgent(USER_AGENT);
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        static AtomicInteger threadCount = new AtomicInteger(0);
+
+        public Thread newThread(Runnable r) {
+            int threadNumber = threadCount.addAndGet(1);
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("FirehoseBufferThread-" + threadNumber);
+            return thread;
+        }
+    }
+}
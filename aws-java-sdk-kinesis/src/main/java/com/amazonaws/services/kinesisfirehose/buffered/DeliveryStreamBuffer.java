@@ -0,0 +1,419 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesisfirehose.buffered;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonServiceException.ErrorType;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.retry.RetryUtils;
+import com.amazonaws.services.kinesisfirehose.AmazonKinesisFirehoseAsync;
+import com.amazonaws.services.kinesisfirehose.model.PutRecordBatchRequest;
+import com.amazonaws.services.kinesisfirehose.model.PutRecordBatchResponseEntry;
+import com.amazonaws.services.kinesisfirehose.model.PutRecordBatchResult;
+import com.amazonaws.services.kinesisfirehose.model.PutRecordRequest;
+import com.amazonaws.services.kinesisfirehose.model.PutRecordResult;
+import com.amazonaws.services.kinesisfirehose.model.Record;
+
+/**
+ * Buffers the records put in one delivery stream and sends them with
+ * PutRecordBatch calls.
+ * <p>
+ * Records are added to an open batch, which is closed when it holds
+ * {@link FirehoseBufferConfig#getMaxBatchSize()} records, when the next record
+ * would take it over {@link FirehoseBufferConfig#getMaxBatchSizeBytes()}, or
+ * {@link FirehoseBufferConfig#getMaxBatchOpenMs()} after its first record was
+ * added. Closed batches are sent as soon as fewer than
+ * {@link FirehoseBufferConfig#getMaxInflightBatches()} calls are in flight.
+ * Records failing in a call are added back to the open batch after a backoff,
+ * so that only those are resubmitted.
+ */
+class DeliveryStreamBuffer {
+
+    private static final Log log = LogFactory.getLog(DeliveryStreamBuffer.class);
+
+    /** backoff before the first retry of a record; doubled at each attempt */
+    private static final long MIN_BACKOFF_MILLIS = 100;
+
+    private static final long MAX_BACKOFF_MILLIS = 5000;
+
+    private final AmazonKinesisFirehoseAsync realFirehose;
+    private final String deliveryStreamName;
+    private final FirehoseBufferConfig config;
+    private final String userAgent;
+    private final ScheduledExecutorService scheduler;
+    private final Executor callbackExecutor;
+
+    /** bounds the number of records added but not completed yet */
+    private final Semaphore bufferedPermits;
+
+    private final AtomicLong recordsAdded = new AtomicLong();
+    private final AtomicLong recordsPut = new AtomicLong();
+    private final AtomicLong bytesPut = new AtomicLong();
+    private final AtomicLong recordsFailed = new AtomicLong();
+    private final AtomicLong recordsRetried = new AtomicLong();
+    private final AtomicLong batchesSent = new AtomicLong();
+    private final AtomicLong backlogRecords = new AtomicLong();
+    private final AtomicLong backlogBytes = new AtomicLong();
+
+    /** guards the fields below; notified when the backlog drains */
+    private final Object lock = new Object();
+
+    private List<BufferedRecord> openBatch = new ArrayList<BufferedRecord>();
+    private long openBatchBytes;
+    private ScheduledFuture<?> openBatchTimer;
+
+    private final LinkedList<List<BufferedRecord>> closedBatches = new LinkedList<List<BufferedRecord>>();
+    private int inflightBatches;
+
+    private boolean shutdown;
+
+    DeliveryStreamBuffer(AmazonKinesisFirehoseAsync realFirehose, String deliveryStreamName,
+            FirehoseBufferConfig config, String userAgent, ScheduledExecutorService scheduler,
+            Executor callbackExecutor) {
+        this.realFirehose = realFirehose;
+        this.deliveryStreamName = deliveryStreamName;
+        this.config = config;
+        this.userAgent = userAgent;
+        this.scheduler = scheduler;
+        this.callbackExecutor = callbackExecutor;
+        this.bufferedPermits = new Semaphore(config.getMaxBufferedRecords());
+    }
+
+    /**
+     * Adds the record of the request to the buffer, blocking while
+     * {@link FirehoseBufferConfig#getMaxBufferedRecords()} records are
+     * buffered. The remaining bytes of the data of the record are sent, and
+     * must not be modified until the record is put.
+     */
+    Future<PutRecordResult> putRecord(PutRecordRequest request,
+            AsyncHandler<PutRecordRequest, PutRecordResult> handler) {
+        Record record = request.getRecord();
+        if (record == null || record.getData() == null) {
+            throw new IllegalArgumentException("A record with data is required");
+        }
+        ByteBuffer data = record.getData().slice();
+        if (data.remaining() > FirehoseBufferConfig.SERVICE_MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("The data of a record must not exceed "
+                    + FirehoseBufferConfig.SERVICE_MAX_RECORD_SIZE + " bytes");
+        }
+
+        try {
+            bufferedPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmazonClientException("Interrupted while waiting to buffer a record", e);
+        }
+
+        BufferedRecord bufferedRecord = new BufferedRecord(data,
+                new PutRecordFuture(request, handler, callbackExecutor));
+        synchronized (lock) {
+            if (shutdown) {
+                bufferedPermits.release();
+                throw new AmazonClientException("The client has been shut down.");
+            }
+            recordsAdded.incrementAndGet();
+            backlogRecords.incrementAndGet();
+            backlogBytes.addAndGet(bufferedRecord.size);
+            addToOpenBatch(bufferedRecord);
+        }
+        dispatch();
+        return bufferedRecord.future;
+    }
+
+    /**
+     * Closes the open batch, and sends it unless the maximum number of calls
+     * is in flight. Records waiting to be retried keep waiting for their
+     * backoff.
+     */
+    void flush() {
+        synchronized (lock) {
+            if (!openBatch.isEmpty()) {
+                closeOpenBatch();
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * Flushes the buffer and blocks until all records added are put or
+     * failed.
+     */
+    void flushSync() {
+        try {
+            while (backlogRecords.get() > 0) {
+                flush();
+                synchronized (lock) {
+                    if (backlogRecords.get() > 0) {
+                        lock.wait(config.getMaxBatchOpenMs());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmazonClientException("Interrupted while flushing records to "
+                    + deliveryStreamName, e);
+        }
+    }
+
+    /**
+     * Rejects records added from now on, then puts the buffered records.
+     */
+    void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+        }
+        flushSync();
+    }
+
+    DeliveryStreamMetrics getMetrics() {
+        int inflight;
+        synchronized (lock) {
+            inflight = inflightBatches;
+        }
+        return new DeliveryStreamMetrics(System.currentTimeMillis(), recordsAdded.get(),
+                recordsPut.get(), bytesPut.get(), recordsFailed.get(), recordsRetried.get(),
+                batchesSent.get(), backlogRecords.get(), backlogBytes.get(), inflight);
+    }
+
+    /**
+     * Must be called under the lock.
+     */
+    private void addToOpenBatch(BufferedRecord record) {
+        if (!openBatch.isEmpty() && openBatchBytes + record.size > config.getMaxBatchSizeBytes()) {
+            closeOpenBatch();
+        }
+        openBatch.add(record);
+        openBatchBytes += record.size;
+        if (openBatch.size() >= config.getMaxBatchSize()) {
+            closeOpenBatch();
+        } else if (openBatch.size() == 1) {
+            final List<BufferedRecord> batch = openBatch;
+            openBatchTimer = scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    closeIfOpen(batch);
+                }
+            }, config.getMaxBatchOpenMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Must be called under the lock.
+     */
+    private void closeOpenBatch() {
+        closedBatches.add(openBatch);
+        openBatch = new ArrayList<BufferedRecord>();
+        openBatchBytes = 0;
+        if (openBatchTimer != null) {
+            openBatchTimer.cancel(false);
+            openBatchTimer = null;
+        }
+    }
+
+    private void closeIfOpen(List<BufferedRecord> batch) {
+        synchronized (lock) {
+            if (openBatch != batch || batch.isEmpty()) {
+                return;
+            }
+            closeOpenBatch();
+        }
+        dispatch();
+    }
+
+    /**
+     * Sends closed batches while fewer than the maximum number of calls are
+     * in flight.
+     */
+    private void dispatch() {
+        List<List<BufferedRecord>> batches = new ArrayList<List<BufferedRecord>>();
+        synchronized (lock) {
+            while (inflightBatches < config.getMaxInflightBatches() && !closedBatches.isEmpty()) {
+                batches.add(closedBatches.removeFirst());
+                inflightBatches++;
+            }
+        }
+        for (List<BufferedRecord> batch : batches) {
+            send(batch);
+        }
+    }
+
+    private void send(final List<BufferedRecord> batch) {
+        List<Record> records = new ArrayList<Record>(batch.size());
+        for (BufferedRecord record : batch) {
+            // A fresh buffer per attempt, so that marshalling leaves the data intact
+            records.add(new Record().withData(record.data.duplicate()));
+            record.attempts++;
+        }
+        PutRecordBatchRequest request = new PutRecordBatchRequest()
+                .withDeliveryStreamName(deliveryStreamName)
+                .withRecords(records);
+        request.getRequestClientOptions().appendUserAgent(userAgent);
+        batchesSent.incrementAndGet();
+
+        try {
+            realFirehose.putRecordBatchAsync(request,
+                    new AsyncHandler<PutRecordBatchRequest, PutRecordBatchResult>() {
+                        @Override
+                        public void onSuccess(PutRecordBatchRequest request, PutRecordBatchResult result) {
+                            batchCompleted(batch, result, null);
+                        }
+
+                        @Override
+                        public void onError(Exception exception) {
+                            batchCompleted(batch, null, exception);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            batchCompleted(batch, null, e);
+        }
+    }
+
+    private void batchCompleted(List<BufferedRecord> batch, PutRecordBatchResult result,
+            Exception exception) {
+        try {
+            if (exception != null) {
+                handleError(batch, exception);
+            } else {
+                handleResult(batch, result);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unexpected error handling the result of a batch put to "
+                    + deliveryStreamName, e);
+        } finally {
+            synchronized (lock) {
+                inflightBatches--;
+            }
+            dispatch();
+        }
+    }
+
+    private void handleResult(List<BufferedRecord> batch, PutRecordBatchResult result) {
+        // Responses are in the order of the request records
+        List<PutRecordBatchResponseEntry> entries = result.getRequestResponses();
+        for (int i = 0; i < batch.size(); i++) {
+            BufferedRecord record = batch.get(i);
+            PutRecordBatchResponseEntry entry = i < entries.size() ? entries.get(i) : null;
+            if (entry == null) {
+                retry(record, "No response returned for the record", null);
+            } else if (entry.getErrorCode() != null) {
+                retry(record, entry.getErrorCode() + ": " + entry.getErrorMessage(), null);
+            } else {
+                recordsPut.incrementAndGet();
+                bytesPut.addAndGet(record.size);
+                completed(record);
+                record.future.setSuccess(new PutRecordResult().withRecordId(entry.getRecordId()));
+            }
+        }
+    }
+
+    private void handleError(List<BufferedRecord> batch, Exception exception) {
+        for (BufferedRecord record : batch) {
+            if (exception instanceof AmazonServiceException) {
+                AmazonServiceException ase = (AmazonServiceException) exception;
+                if (isRetryable(ase)) {
+                    retry(record, ase.getErrorCode() + ": " + ase.getErrorMessage(), ase);
+                } else {
+                    fail(record, ase);
+                }
+            } else if (exception instanceof AmazonClientException) {
+                retry(record, exception.getMessage(), exception);
+            } else {
+                fail(record, new AmazonClientException("Failed to put records to "
+                        + deliveryStreamName, exception));
+            }
+        }
+    }
+
+    private void retry(final BufferedRecord record, String reason, Exception cause) {
+        if (record.attempts >= config.getMaxAttempts()) {
+            fail(record, new AmazonClientException("Failed to put record to " + deliveryStreamName
+                    + " after " + record.attempts + " attempts: " + reason, cause));
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Retrying record to " + deliveryStreamName + " after attempt "
+                    + record.attempts + ": " + reason);
+        }
+        recordsRetried.incrementAndGet();
+        long backoffMillis = Math.min(MIN_BACKOFF_MILLIS << Math.min(record.attempts - 1, 16),
+                MAX_BACKOFF_MILLIS);
+        try {
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (lock) {
+                        addToOpenBatch(record);
+                    }
+                    dispatch();
+                }
+            }, backoffMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            fail(record, new AmazonClientException("The client has been shut down.", cause));
+        }
+    }
+
+    private void fail(BufferedRecord record, AmazonClientException exception) {
+        recordsFailed.incrementAndGet();
+        completed(record);
+        record.future.setFailure(exception);
+    }
+
+    private void completed(BufferedRecord record) {
+        backlogBytes.addAndGet(-record.size);
+        if (backlogRecords.decrementAndGet() == 0) {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+        bufferedPermits.release();
+    }
+
+    private static boolean isRetryable(AmazonServiceException e) {
+        return e.getErrorType() == ErrorType.Service
+                || e.getStatusCode() >= 500
+                || RetryUtils.isThrottlingException(e)
+                || "ServiceUnavailableException".equals(e.getErrorCode());
+    }
+
+    private static class BufferedRecord {
+        final ByteBuffer data;
+        final int size;
+        final PutRecordFuture future;
+        int attempts;
+
+        BufferedRecord(ByteBuffer data, PutRecordFuture future) {
+            this.data = data;
+            this.size = data.remaining();
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesisfirehose.buffered;
+
+/**
+ * A snapshot of the activity of the buffer of a delivery stream in an
+ * {@link AmazonKinesisFirehoseBufferedAsyncClient}. Counts are cumulative
+ * since the buffer was created; throughput is obtained by comparing two
+ * snapshots with {@link #getRecordsPutPerSecondSince(DeliveryStreamMetrics)}
+ * and {@link #getBytesPutPerSecondSince(DeliveryStreamMetrics)}.
+ */
+public class DeliveryStreamMetrics {
+
+    private final long timestampMillis;
+    private final long recordsAddedCount;
+    private final long recordsPutCount;
+    private final long bytesPutCount;
+    private final long recordsFailedCount;
+    private final long recordsRetriedCount;
+    private final long batchesSentCount;
+    private final long backlogRecords;
+    private final long backlogBytes;
+    private final int inflightBatches;
+
+    DeliveryStreamMetrics(long timestampMillis, long recordsAddedCount, long recordsPutCount,
+            long bytesPutCount, long recordsFailedCount, long recordsRetriedCount,
+            long batchesSentCount, long backlogRecords, long backlogBytes, int inflightBatches) {
+        this.timestampMillis = timestampMillis;
+        this.recordsAddedCount = recordsAddedCount;
+        this.recordsPutCount = recordsPutCount;
+        this.bytesPutCount = bytesPutCount;
+        this.recordsFailedCount = recordsFailedCount;
+        this.recordsRetriedCount = recordsRetriedCount;
+        this.batchesSentCount = batchesSentCount;
+        this.backlogRecords = backlogRecords;
+        this.backlogBytes = backlogBytes;
+        this.inflightBatches = inflightBatches;
+    }
+
+    /**
+     * @return the time the snapshot was taken, in milliseconds since the epoch
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * @return the number of records added to the buffer
+     */
+    public long getRecordsAddedCount() {
+        return recordsAddedCount;
+    }
+
+    /**
+     * @return the number of records put in the delivery stream
+     */
+    public long getRecordsPutCount() {
+        return recordsPutCount;
+    }
+
+    /**
+     * @return the size of the data of the records put in the delivery stream,
+     *         in bytes
+     */
+    public long getBytesPutCount() {
+        return bytesPutCount;
+    }
+
+    /**
+     * @return the number of records which could not be put, and whose future
+     *         failed
+     */
+    public long getRecordsFailedCount() {
+        return recordsFailedCount;
+    }
+
+    /**
+     * @return the number of times a record was resubmitted after failing in a
+     *         call
+     */
+    public long getRecordsRetriedCount() {
+        return recordsRetriedCount;
+    }
+
+    /**
+     * @return the number of PutRecordBatch calls made
+     */
+    public long getBatchesSentCount() {
+        return batchesSentCount;
+    }
+
+    /**
+     * @return the number of records added but not put or failed yet
+     */
+    public long getBacklogRecords() {
+        return backlogRecords;
+    }
+
+    /**
+     * @return the size of the data of the records added but not put or failed
+     *         yet, in bytes
+     */
+    public long getBacklogBytes() {
+        return backlogBytes;
+    }
+
+    /**
+     * @return the number of PutRecordBatch calls in flight
+     */
+    public int getInflightBatches() {
+        return inflightBatches;
+    }
+
+    /**
+     * @return the number of records put per second between the given earlier
+     *         snapshot and this one
+     */
+    public double getRecordsPutPerSecondSince(DeliveryStreamMetrics earlier) {
+        long elapsedMillis = timestampMillis - earlier.timestampMillis;
+        if (elapsedMillis <= 0) {
+            return 0;
+        }
+        return (recordsPutCount - earlier.recordsPutCount) * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * @return the number of bytes put per second between the given earlier
+     *         snapshot and this one
+     */
+    public double getBytesPutPerSecondSince(DeliveryStreamMetrics earlier) {
+        long elapsedMillis = timestampMillis - earlier.timestampMillis;
+        if (elapsedMillis <= 0) {
+            return 0;
+        }
+        return (bytesPutCount - earlier.bytesPutCount) * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "DeliveryStreamMetrics [recordsAddedCount=" + recordsAddedCount
+                + ", recordsPutCount=" + recordsPutCount + ", bytesPutCount=" + bytesPutCount
+                + ", recordsFailedCount=" + recordsFailedCount + ", recordsRetriedCount="
+                + recordsRetriedCount + ", batchesSentCount=" + batchesSentCount
+                + ", backlogRecords=" + backlogRecords + ", backlogBytes=" + backlogBytes
+                + ", inflightBatches=" + inflightBatches + "]";
+    }
+}
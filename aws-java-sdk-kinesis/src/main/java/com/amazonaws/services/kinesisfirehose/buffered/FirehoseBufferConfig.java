@@ -0,0 +1,278 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesisfirehose.buffered;
+
+/**
+ * Configuration of the per delivery stream buffers of an
+ * {@link AmazonKinesisFirehoseBufferedAsyncClient}.
+ */
+public class FirehoseBufferConfig {
+
+    /** The maximum number of records the service accepts per PutRecordBatch call. */
+    public static final int SERVICE_MAX_BATCH_SIZE = 500;
+
+    /** The maximum size of a PutRecordBatch call the service accepts, in bytes. */
+    public static final long SERVICE_MAX_BATCH_SIZE_BYTES = 4 * 1024 * 1024;
+
+    /** The maximum size of the data of a record the service accepts, in bytes. */
+    public static final int SERVICE_MAX_RECORD_SIZE = 1000 * 1024;
+
+    /** The default time (in milliseconds) a batch is held open for more records. */
+    public static final long DEFAULT_MAX_BATCH_OPEN_MS = 200;
+
+    /** The default maximum number of concurrent PutRecordBatch calls per delivery stream. */
+    public static final int DEFAULT_MAX_INFLIGHT_BATCHES = 5;
+
+    /** The default maximum number of records buffered per delivery stream. */
+    public static final int DEFAULT_MAX_BUFFERED_RECORDS = 20000;
+
+    /** The default maximum number of attempts to put a record. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 10;
+
+    private int maxBatchSize = SERVICE_MAX_BATCH_SIZE;
+
+    private long maxBatchSizeBytes = SERVICE_MAX_BATCH_SIZE_BYTES;
+
+    private long maxBatchOpenMs = DEFAULT_MAX_BATCH_OPEN_MS;
+
+    private int maxInflightBatches = DEFAULT_MAX_INFLIGHT_BATCHES;
+
+    private int maxBufferedRecords = DEFAULT_MAX_BUFFERED_RECORDS;
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    public FirehoseBufferConfig() {
+    }
+
+    /** copy constructor */
+    public FirehoseBufferConfig(FirehoseBufferConfig other) {
+        maxBatchSize = other.maxBatchSize;
+        maxBatchSizeBytes = other.maxBatchSizeBytes;
+        maxBatchOpenMs = other.maxBatchOpenMs;
+        maxInflightBatches = other.maxInflightBatches;
+        maxBufferedRecords = other.maxBufferedRecords;
+        maxAttempts = other.maxAttempts;
+    }
+
+    /**
+     * Returns the maximum number of records per PutRecordBatch call. A batch
+     * is sent as soon as it holds that many records.
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of records per PutRecordBatch call.
+     *
+     * @param maxBatchSize
+     *            the number of records, between 1 and 500
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize < 1 || maxBatchSize > SERVICE_MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("maxBatchSize " + maxBatchSize
+                    + " must be between 1 and " + SERVICE_MAX_BATCH_SIZE);
+        }
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of records per PutRecordBatch call, and returns
+     * the updated object so that additional method calls can be chained
+     * together.
+     */
+    public FirehoseBufferConfig withMaxBatchSize(int maxBatchSize) {
+        setMaxBatchSize(maxBatchSize);
+        return this;
+    }
+
+    /**
+     * Returns the maximum total size of the data of the records of a
+     * PutRecordBatch call, in bytes. A batch is sent when the next record
+     * would not fit in it.
+     */
+    public long getMaxBatchSizeBytes() {
+        return maxBatchSizeBytes;
+    }
+
+    /**
+     * Sets the maximum total size of the data of the records of a
+     * PutRecordBatch call, in bytes.
+     *
+     * @param maxBatchSizeBytes
+     *            the size, between 1000 KB and 4 MB
+     */
+    public void setMaxBatchSizeBytes(long maxBatchSizeBytes) {
+        if (maxBatchSizeBytes < SERVICE_MAX_RECORD_SIZE
+                || maxBatchSizeBytes > SERVICE_MAX_BATCH_SIZE_BYTES) {
+            throw new IllegalArgumentException("maxBatchSizeBytes " + maxBatchSizeBytes
+                    + " must be between " + SERVICE_MAX_RECORD_SIZE + " and "
+                    + SERVICE_MAX_BATCH_SIZE_BYTES);
+        }
+        this.maxBatchSizeBytes = maxBatchSizeBytes;
+    }
+
+    /**
+     * Sets the maximum total size of the data of the records of a
+     * PutRecordBatch call, in bytes, and returns the updated object so that
+     * additional method calls can be chained together.
+     */
+    public FirehoseBufferConfig withMaxBatchSizeBytes(long maxBatchSizeBytes) {
+        setMaxBatchSizeBytes(maxBatchSizeBytes);
+        return this;
+    }
+
+    /**
+     * Returns the maximum time (in milliseconds) a batch is held open for
+     * more records after its first record was added. Longer times make for
+     * fuller batches and fewer calls, at the cost of record latency.
+     */
+    public long getMaxBatchOpenMs() {
+        return maxBatchOpenMs;
+    }
+
+    /**
+     * Sets the maximum time (in milliseconds) a batch is held open for more
+     * records after its first record was added.
+     *
+     * @param maxBatchOpenMs
+     *            the time, must be positive
+     */
+    public void setMaxBatchOpenMs(long maxBatchOpenMs) {
+        if (maxBatchOpenMs <= 0) {
+            throw new IllegalArgumentException("maxBatchOpenMs " + maxBatchOpenMs
+                    + " must be positive");
+        }
+        this.maxBatchOpenMs = maxBatchOpenMs;
+    }
+
+    /**
+     * Sets the maximum time (in milliseconds) a batch is held open for more
+     * records after its first record was added, and returns the updated
+     * object so that additional method calls can be chained together.
+     */
+    public FirehoseBufferConfig withMaxBatchOpenMs(long maxBatchOpenMs) {
+        setMaxBatchOpenMs(maxBatchOpenMs);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of PutRecordBatch calls in flight at once
+     * for a delivery stream. Closed batches wait for a call to complete when
+     * that many are in flight.
+     */
+    public int getMaxInflightBatches() {
+        return maxInflightBatches;
+    }
+
+    /**
+     * Sets the maximum number of PutRecordBatch calls in flight at once for a
+     * delivery stream.
+     *
+     * @param maxInflightBatches
+     *            the number of calls, must be positive
+     */
+    public void setMaxInflightBatches(int maxInflightBatches) {
+        if (maxInflightBatches < 1) {
+            throw new IllegalArgumentException("maxInflightBatches " + maxInflightBatches
+                    + " must be positive");
+        }
+        this.maxInflightBatches = maxInflightBatches;
+    }
+
+    /**
+     * Sets the maximum number of PutRecordBatch calls in flight at once for a
+     * delivery stream, and returns the updated object so that additional
+     * method calls can be chained together.
+     */
+    public FirehoseBufferConfig withMaxInflightBatches(int maxInflightBatches) {
+        setMaxInflightBatches(maxInflightBatches);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of records added to a delivery stream but
+     * not put or failed yet. Adding a record blocks while that many are
+     * buffered.
+     */
+    public int getMaxBufferedRecords() {
+        return maxBufferedRecords;
+    }
+
+    /**
+     * Sets the maximum number of records added to a delivery stream but not
+     * put or failed yet.
+     *
+     * @param maxBufferedRecords
+     *            the number of records, must be positive
+     */
+    public void setMaxBufferedRecords(int maxBufferedRecords) {
+        if (maxBufferedRecords < 1) {
+            throw new IllegalArgumentException("maxBufferedRecords " + maxBufferedRecords
+                    + " must be positive");
+        }
+        this.maxBufferedRecords = maxBufferedRecords;
+    }
+
+    /**
+     * Sets the maximum number of records added to a delivery stream but not
+     * put or failed yet, and returns the updated object so that additional
+     * method calls can be chained together.
+     */
+    public FirehoseBufferConfig withMaxBufferedRecords(int maxBufferedRecords) {
+        setMaxBufferedRecords(maxBufferedRecords);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of attempts to put a record. Records that
+     * failed in a call are resubmitted with exponential backoff until they
+     * are put or run out of attempts.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Sets the maximum number of attempts to put a record.
+     *
+     * @param maxAttempts
+     *            the number of attempts, must be positive
+     */
+    public void setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts " + maxAttempts
+                    + " must be positive");
+        }
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Sets the maximum number of attempts to put a record, and returns the
+     * updated object so that additional method calls can be chained together.
+     */
+    public FirehoseBufferConfig withMaxAttempts(int maxAttempts) {
+        setMaxAttempts(maxAttempts);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "FirehoseBufferConfig [maxBatchSize=" + maxBatchSize + ", maxBatchSizeBytes="
+                + maxBatchSizeBytes + ", maxBatchOpenMs=" + maxBatchOpenMs
+                + ", maxInflightBatches=" + maxInflightBatches + ", maxBufferedRecords="
+                + maxBufferedRecords + ", maxAttempts=" + maxAttempts + "]";
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesisfirehose.buffered;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.kinesisfirehose.model.PutRecordRequest;
+import com.amazonaws.services.kinesisfirehose.model.PutRecordResult;
+
+/**
+ * The future of a record buffered by a {@link DeliveryStreamBuffer}. It cannot
+ * be cancelled. The async handler given, if any, is called on the callback
+ * executor once the future is done, since the completing thread is one of the
+ * real client's.
+ */
+class PutRecordFuture implements Future<PutRecordResult> {
+
+    private final PutRecordRequest request;
+    private final AsyncHandler<PutRecordRequest, PutRecordResult> handler;
+    private final Executor callbackExecutor;
+
+    private PutRecordResult result;
+    private Exception exception;
+    private boolean done;
+
+    PutRecordFuture(PutRecordRequest request,
+            AsyncHandler<PutRecordRequest, PutRecordResult> handler, Executor callbackExecutor) {
+        this.request = request;
+        this.handler = handler;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    void setSuccess(PutRecordResult paramResult) {
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            result = paramResult;
+            done = true;
+            notifyAll();
+        }
+        dispatchCallback();
+    }
+
+    void setFailure(Exception paramException) {
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            exception = paramException;
+            done = true;
+            notifyAll();
+        }
+        dispatchCallback();
+    }
+
+    private void dispatchCallback() {
+        if (handler == null) {
+            return;
+        }
+        callbackExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (exception != null) {
+                    handler.onError(exception);
+                } else {
+                    handler.onSuccess(request, result);
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return done;
+    }
+
+    @Override
+    public synchronized PutRecordResult get() throws InterruptedException, ExecutionException {
+        while (!done) {
+            wait();
+        }
+        return getResult();
+    }
+
+    @Override
+    public synchronized PutRecordResult get(long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!done) {
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                throw new TimeoutException("Timed out waiting for the record to be put after "
+                        + timeout + " " + unit);
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+        }
+        return getResult();
+    }
+
+    private PutRecordResult getResult() throws ExecutionException {
+        if (exception != null) {
+            throw new ExecutionException(exception);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesis.buffered;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.kinesis.AbstractAmazonKinesis;
+import com.amazonaws.services.kinesis.model.DescribeStreamRequest;
+import com.amazonaws.services.kinesis.model.DescribeStreamResult;
+import com.amazonaws.services.kinesis.model.HashKeyRange;
+import com.amazonaws.services.kinesis.model.PutRecordsRequest;
+import com.amazonaws.services.kinesis.model.PutRecordsRequestEntry;
+import com.amazonaws.services.kinesis.model.PutRecordsResult;
+import com.amazonaws.services.kinesis.model.PutRecordsResultEntry;
+import com.amazonaws.services.kinesis.model.Shard;
+import com.amazonaws.services.kinesis.model.StreamDescription;
+import com.amazonaws.util.StringUtils;
+
+public class KinesisRecordProducerTest {
+
+    private static final String STREAM_NAME = "stream";
+
+    /** the hash key splitting the two shards of the stub stream */
+    private static final BigInteger SPLIT = BigInteger.ONE.shiftLeft(127);
+
+    private KinesisRecordProducer producer;
+
+    @After
+    public void tearDown() {
+        if (producer != null) {
+            producer.shutdown();
+        }
+    }
+
+    @Test
+    public void testOnlyFailedEntriesAreRetried() throws Exception {
+        final StubKinesis kinesis = new StubKinesis() {
+            @Override
+            boolean fails(String key, int attempt) {
+                // every third record is throttled on its first two attempts
+                return Integer.parseInt(key) % 3 == 0 && attempt <= 2;
+            }
+        };
+        producer = new KinesisRecordProducer(kinesis, STREAM_NAME, new KinesisRecordProducerConfig()
+                .withAggregationEnabled(false)
+                .withMaxRecordsPerRequest(50));
+
+        int total = 300;
+        List<Future<UserRecordResult>> futures = new ArrayList<Future<UserRecordResult>>();
+        for (int i = 0; i < total; i++) {
+            futures.add(producer.addUserRecord(Integer.toString(i), null, data(i)));
+        }
+        producer.flushSync();
+        assertEquals(0, producer.getOutstandingRecordsCount());
+
+        for (int i = 0; i < total; i++) {
+            UserRecordResult result = futures.get(i).get(1, TimeUnit.SECONDS);
+            String partitionKey = Integer.toString(i);
+            int expectedAttempts = i % 3 == 0 ? 3 : 1;
+            assertEquals(partitionKey, expectedAttempts, result.getAttempts());
+            assertEquals(partitionKey, expectedAttempts, kinesis.attempts.get(partitionKey).get());
+            assertEquals("seq-" + partitionKey, result.getSequenceNumber());
+            assertEquals(0, result.getSubSequenceNumber());
+        }
+
+        // each failed entry is sent twice more, and nothing else is resent
+        assertEquals(total + 2 * total / 3, kinesis.entriesSent.get());
+        for (int size : kinesis.requestSizes) {
+            assertTrue(size <= 50);
+        }
+
+        // retries wait for the backoff, doubled at each attempt
+        for (int i = 0; i < total; i += 3) {
+            List<Long> times = kinesis.attemptNanos.get(Integer.toString(i));
+            assertTrue(times.get(1) - times.get(0) >= TimeUnit.MILLISECONDS.toNanos(100));
+            assertTrue(times.get(2) - times.get(1) >= TimeUnit.MILLISECONDS.toNanos(200));
+        }
+    }
+
+    @Test
+    public void testRecordFailsAfterMaxAttempts() throws Exception {
+        final StubKinesis kinesis = new StubKinesis() {
+            @Override
+            boolean fails(String key, int attempt) {
+                return key.equals("bad");
+            }
+        };
+        producer = new KinesisRecordProducer(kinesis, STREAM_NAME, new KinesisRecordProducerConfig()
+                .withAggregationEnabled(false)
+                .withMaxAttempts(3));
+
+        Future<UserRecordResult> bad = producer.addUserRecord("bad", null, data(1));
+        Future<UserRecordResult> good = producer.addUserRecord("good", null, data(2));
+        producer.flushSync();
+
+        assertEquals(1, good.get(1, TimeUnit.SECONDS).getAttempts());
+        try {
+            bad.get(1, TimeUnit.SECONDS);
+            fail("Expected the record to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof AmazonClientException);
+            assertTrue(e.getCause().getMessage(), e.getCause().getMessage()
+                    .contains("after 3 attempts: ProvisionedThroughputExceededException"));
+        }
+        assertEquals(3, kinesis.attempts.get("bad").get());
+        assertEquals(0, producer.getOutstandingRecordsCount());
+    }
+
+    @Test
+    public void testAggregatedRecordsCompleteWithTheirSubSequenceNumbers() throws Exception {
+        final StubKinesis kinesis = new StubKinesis() {
+            @Override
+            boolean fails(String key, int attempt) {
+                // the aggregate of the upper shard is throttled once
+                return attempt == 1 && new BigInteger(key).compareTo(SPLIT) >= 0;
+            }
+        };
+        producer = new KinesisRecordProducer(kinesis, STREAM_NAME, new KinesisRecordProducerConfig()
+                .withRecordMaxBufferedTimeMillis(2000));
+        assertTrue(kinesis.described.await(5, TimeUnit.SECONDS));
+        // the shard map is set right after the stub returns
+        Thread.sleep(100);
+
+        List<Future<UserRecordResult>> lower = new ArrayList<Future<UserRecordResult>>();
+        List<Future<UserRecordResult>> upper = new ArrayList<Future<UserRecordResult>>();
+        for (int i = 0; i < 10; i++) {
+            lower.add(producer.addUserRecord("lower-" + i, BigInteger.valueOf(i).toString(), data(i)));
+            upper.add(producer.addUserRecord("upper-" + i, SPLIT.add(BigInteger.valueOf(i)).toString(), data(i)));
+        }
+        producer.flushSync();
+
+        // one Kinesis record per shard, keyed by its first user record
+        assertEquals(1, kinesis.attempts.get("lower-0").get());
+        assertEquals(2, kinesis.attempts.get("upper-0").get());
+        assertEquals(3, kinesis.entriesSent.get());
+        for (int i = 0; i < 10; i++) {
+            UserRecordResult result = lower.get(i).get(1, TimeUnit.SECONDS);
+            assertEquals("shardId-lower", result.getShardId());
+            assertEquals("seq-lower-0", result.getSequenceNumber());
+            assertEquals(i, result.getSubSequenceNumber());
+            assertEquals(1, result.getAttempts());
+
+            result = upper.get(i).get(1, TimeUnit.SECONDS);
+            assertEquals("shardId-upper", result.getShardId());
+            assertEquals("seq-upper-0", result.getSequenceNumber());
+            assertEquals(i, result.getSubSequenceNumber());
+            assertEquals(2, result.getAttempts());
+        }
+    }
+
+    private static ByteBuffer data(int i) {
+        return ByteBuffer.wrap(("data-" + i).getBytes(StringUtils.UTF8));
+    }
+
+    /**
+     * A stream of two shards split at {@link #SPLIT}. PutRecords fails the
+     * entries the test picks with a throttling error, and names the records
+     * it puts after their partition keys. Entries are identified by their
+     * explicit hash key when they have one, else by their partition key.
+     */
+    private abstract static class StubKinesis extends AbstractAmazonKinesis {
+        private final CountDownLatch described = new CountDownLatch(1);
+        private final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<String, AtomicInteger>();
+        private final Map<String, List<Long>> attemptNanos = new ConcurrentHashMap<String, List<Long>>();
+        private final List<Integer> requestSizes = Collections.synchronizedList(new ArrayList<Integer>());
+        private final AtomicInteger entriesSent = new AtomicInteger();
+
+        abstract boolean fails(String key, int attempt);
+
+        @Override
+        public DescribeStreamResult describeStream(DescribeStreamRequest request) {
+            described.countDown();
+            return new DescribeStreamResult().withStreamDescription(new StreamDescription()
+                    .withShards(
+                            new Shard().withShardId("shardId-lower").withHashKeyRange(new HashKeyRange()
+                                    .withStartingHashKey("0")
+                                    .withEndingHashKey(SPLIT.subtract(BigInteger.ONE).toString())),
+                            new Shard().withShardId("shardId-upper").withHashKeyRange(new HashKeyRange()
+                                    .withStartingHashKey(SPLIT.toString())
+                                    .withEndingHashKey(BigInteger.ONE.shiftLeft(128)
+                                            .subtract(BigInteger.ONE).toString())))
+                    .withHasMoreShards(false));
+        }
+
+        @Override
+        public PutRecordsResult putRecords(PutRecordsRequest request) {
+            assertEquals(STREAM_NAME, request.getStreamName());
+            requestSizes.add(request.getRecords().size());
+            List<PutRecordsResultEntry> results = new ArrayList<PutRecordsResultEntry>();
+            for (PutRecordsRequestEntry entry : request.getRecords()) {
+                entriesSent.incrementAndGet();
+                String partitionKey = entry.getPartitionKey();
+                attempts.putIfAbsent(partitionKey, new AtomicInteger());
+                attemptNanos.putIfAbsent(partitionKey, Collections.synchronizedList(new ArrayList<Long>()));
+                int attempt = attempts.get(partitionKey).incrementAndGet();
+                attemptNanos.get(partitionKey).add(System.nanoTime());
+
+                String key = entry.getExplicitHashKey() != null ? entry.getExplicitHashKey() : partitionKey;
+                if (fails(key, attempt)) {
+                    results.add(new PutRecordsResultEntry()
+                            .withErrorCode("ProvisionedThroughputExceededException")
+                            .withErrorMessage("Rate exceeded"));
+                } else {
+                    String shardId = entry.getExplicitHashKey() != null
+                            && new BigInteger(entry.getExplicitHashKey()).compareTo(SPLIT) >= 0
+                            ? "shardId-upper" : "shardId-lower";
+                    results.add(new PutRecordsResultEntry()
+                            .withShardId(shardId)
+                            .withSequenceNumber("seq-" + partitionKey));
+                }
+            }
+            return new PutRecordsResult().withRecords(results);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesis.buffered;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.amazonaws.util.StringUtils;
+
+public class RecordAggregatorTest {
+
+    private static final byte[] MAGIC = { (byte) 0xF3, (byte) 0x89, (byte) 0x9A, (byte) 0xC2 };
+
+    @Test
+    public void testAggregateDecodesToTheUserRecords() throws Exception {
+        List<UserRecord> records = Arrays.asList(
+                record("a", null, 1, bytes(3)),
+                record("b", "123", 2, bytes(0)),
+                record("a", "123", 3, bytes(200)),
+                record("\u00fc\u20ac\ud83d\ude00", null, 4, bytes(17)),
+                record("b", "456", 5, bytes(1)));
+        RecordAggregator aggregator = new RecordAggregator("shardId-0");
+        for (UserRecord record : records) {
+            aggregator.add(record);
+        }
+
+        KinesisRecord kinesisRecord = aggregator.build();
+        assertTrue(aggregator.isEmpty());
+        assertTrue(kinesisRecord.isAggregated());
+        assertEquals("shardId-0", kinesisRecord.getPredictedShardId());
+        assertEquals(records, kinesisRecord.getUserRecords());
+
+        AggregatedRecord decoded = decode(kinesisRecord.toEntry().getData());
+        assertEquals(Arrays.asList("a", "b", "\u00fc\u20ac\ud83d\ude00"), decoded.partitionKeys);
+        assertEquals(Arrays.asList("123", "456"), decoded.explicitHashKeys);
+        assertEquals(records.size(), decoded.records.size());
+        assertRecord(decoded.records.get(0), 0, null, records.get(0));
+        assertRecord(decoded.records.get(1), 1, 0, records.get(1));
+        assertRecord(decoded.records.get(2), 0, 0, records.get(2));
+        assertRecord(decoded.records.get(3), 2, null, records.get(3));
+        assertRecord(decoded.records.get(4), 1, 1, records.get(4));
+
+        // the aggregate goes where its first record was predicted to go
+        assertEquals("a", kinesisRecord.toEntry().getPartitionKey());
+        assertEquals("1", kinesisRecord.toEntry().getExplicitHashKey());
+    }
+
+    @Test
+    public void testSingleRecordIsNotAggregated() {
+        UserRecord record = record("key", "42", 42, bytes(10));
+        RecordAggregator aggregator = new RecordAggregator("shardId-0");
+        aggregator.add(record);
+
+        KinesisRecord kinesisRecord = aggregator.build();
+        assertFalse(kinesisRecord.isAggregated());
+        assertEquals("key", kinesisRecord.toEntry().getPartitionKey());
+        assertEquals("42", kinesisRecord.toEntry().getExplicitHashKey());
+        assertEquals(record.getData(), kinesisRecord.toEntry().getData());
+        assertEquals(13, kinesisRecord.getSize());
+    }
+
+    @Test
+    public void testAggregatorIsReusableAfterBuild() throws Exception {
+        RecordAggregator aggregator = new RecordAggregator("shardId-0");
+        aggregator.add(record("a", "1", 1, bytes(5)));
+        aggregator.add(record("b", "2", 2, bytes(5)));
+        aggregator.build();
+
+        aggregator.add(record("c", null, 3, bytes(5)));
+        aggregator.add(record("c", null, 4, bytes(6)));
+        AggregatedRecord decoded = decode(aggregator.build().toEntry().getData());
+        assertEquals(Arrays.asList("c"), decoded.partitionKeys);
+        assertTrue(decoded.explicitHashKeys.isEmpty());
+        assertEquals(2, decoded.records.size());
+    }
+
+    /**
+     * Adds records with new and known keys, indices past one byte and data
+     * lengths needing one to three varint bytes, checking after each that
+     * the size predicted beforehand is the size of the record built.
+     */
+    @Test
+    public void testSizeWithIsTheEncodedSize() throws Exception {
+        Random random = new Random(42);
+        List<UserRecord> records = new ArrayList<UserRecord>();
+        List<Integer> predictedSizes = new ArrayList<Integer>();
+        RecordAggregator aggregator = new RecordAggregator("shardId-0");
+        for (int i = 0; i < 400; i++) {
+            String partitionKey = random.nextInt(3) == 0
+                    ? "key-" + random.nextInt(i + 1) : "key-\u00e9-" + i;
+            String explicitHashKey = random.nextInt(4) == 0 ? null
+                    : Integer.toString(random.nextInt(2) == 0 ? random.nextInt(i + 1) : 1000 + i);
+            int length = i == 7 ? 20000 : random.nextInt(4) == 0 ? 128 + random.nextInt(300) : random.nextInt(20);
+            UserRecord record = record(partitionKey, explicitHashKey, i, bytes(length));
+
+            predictedSizes.add(aggregator.sizeWith(record));
+            aggregator.add(record);
+            records.add(record);
+        }
+
+        for (int n = 2; n <= records.size(); n++) {
+            RecordAggregator prefix = new RecordAggregator("shardId-0");
+            for (UserRecord record : records.subList(0, n)) {
+                prefix.add(record);
+            }
+            KinesisRecord kinesisRecord = prefix.build();
+            assertEquals("after " + n + " records", predictedSizes.get(n - 1).intValue(), kinesisRecord.getSize());
+            // the record decodes and its digest matches
+            assertEquals(n, decode(kinesisRecord.toEntry().getData()).records.size());
+        }
+        // a single record is sent as is, which is never larger
+        assertTrue(predictedSizes.get(0) >= records.get(0).getData().remaining()
+                + records.get(0).getPartitionKey().getBytes(StringUtils.UTF8).length);
+    }
+
+    private static void assertRecord(DecodedRecord decoded, int partitionKeyIndex,
+            Integer explicitHashKeyIndex, UserRecord record) {
+        assertEquals(partitionKeyIndex, decoded.partitionKeyIndex.intValue());
+        if (explicitHashKeyIndex == null) {
+            assertNull(decoded.explicitHashKeyIndex);
+        } else {
+            assertEquals(explicitHashKeyIndex.longValue(), decoded.explicitHashKeyIndex.longValue());
+        }
+        byte[] expected = new byte[record.getData().remaining()];
+        record.getData().duplicate().get(expected);
+        assertArrayEquals(expected, decoded.data);
+    }
+
+    private static UserRecord record(String partitionKey, String explicitHashKey, long hashKey, byte[] data) {
+        return new UserRecord(partitionKey, explicitHashKey, BigInteger.valueOf(hashKey),
+                ByteBuffer.wrap(data), System.nanoTime());
+    }
+
+    private static byte[] bytes(int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (i * 31 + length);
+        }
+        return bytes;
+    }
+
+    private static class AggregatedRecord {
+        private final List<String> partitionKeys = new ArrayList<String>();
+        private final List<String> explicitHashKeys = new ArrayList<String>();
+        private final List<DecodedRecord> records = new ArrayList<DecodedRecord>();
+    }
+
+    private static class DecodedRecord {
+        private Long partitionKeyIndex;
+        private Long explicitHashKeyIndex;
+        private byte[] data;
+    }
+
+    /**
+     * Decodes a record in the format of the Kinesis Producer Library,
+     * checking its magic bytes and digest, and that the tables come before
+     * the records.
+     */
+    private static AggregatedRecord decode(ByteBuffer data) throws Exception {
+        byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        assertArrayEquals(MAGIC, Arrays.copyOf(bytes, MAGIC.length));
+        byte[] message = Arrays.copyOfRange(bytes, MAGIC.length, bytes.length - 16);
+        assertArrayEquals(MessageDigest.getInstance("MD5").digest(message),
+                Arrays.copyOfRange(bytes, bytes.length - 16, bytes.length));
+
+        AggregatedRecord aggregated = new AggregatedRecord();
+        ByteBuffer in = ByteBuffer.wrap(message);
+        while (in.hasRemaining()) {
+            int key = (int) readVarint(in);
+            byte[] value = readLengthDelimited(in);
+            switch (key) {
+            case 1 << 3 | 2:
+                assertTrue(aggregated.explicitHashKeys.isEmpty() && aggregated.records.isEmpty());
+                aggregated.partitionKeys.add(new String(value, StringUtils.UTF8));
+                break;
+            case 2 << 3 | 2:
+                assertTrue(aggregated.records.isEmpty());
+                aggregated.explicitHashKeys.add(new String(value, StringUtils.UTF8));
+                break;
+            case 3 << 3 | 2:
+                aggregated.records.add(decodeRecord(ByteBuffer.wrap(value), aggregated));
+                break;
+            default:
+                throw new AssertionError("unexpected key " + key);
+            }
+        }
+        return aggregated;
+    }
+
+    private static DecodedRecord decodeRecord(ByteBuffer in, AggregatedRecord aggregated) {
+        DecodedRecord record = new DecodedRecord();
+        while (in.hasRemaining()) {
+            int key = (int) readVarint(in);
+            switch (key) {
+            case 1 << 3:
+                record.partitionKeyIndex = readVarint(in);
+                assertTrue(record.partitionKeyIndex < aggregated.partitionKeys.size());
+                break;
+            case 2 << 3:
+                record.explicitHashKeyIndex = readVarint(in);
+                assertTrue(record.explicitHashKeyIndex < aggregated.explicitHashKeys.size());
+                break;
+            case 3 << 3 | 2:
+                record.data = readLengthDelimited(in);
+                break;
+            default:
+                throw new AssertionError("unexpected key " + key);
+            }
+        }
+        assertTrue(record.partitionKeyIndex != null && record.data != null);
+        return record;
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0;; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                // the shortest encoding is used
+                assertTrue(shift == 0 || b != 0);
+                return value;
+            }
+        }
+    }
+
+    private static byte[] readLengthDelimited(ByteBuffer in) {
+        byte[] value = new byte[(int) readVarint(in)];
+        in.get(value);
+        return value;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesis.consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.amazonaws.services.kinesis.AbstractAmazonKinesis;
+import com.amazonaws.services.kinesis.model.DescribeStreamRequest;
+import com.amazonaws.services.kinesis.model.DescribeStreamResult;
+import com.amazonaws.services.kinesis.model.GetRecordsRequest;
+import com.amazonaws.services.kinesis.model.GetRecordsResult;
+import com.amazonaws.services.kinesis.model.GetShardIteratorRequest;
+import com.amazonaws.services.kinesis.model.GetShardIteratorResult;
+import com.amazonaws.services.kinesis.model.ProvisionedThroughputExceededException;
+import com.amazonaws.services.kinesis.model.Record;
+import com.amazonaws.services.kinesis.model.Shard;
+import com.amazonaws.services.kinesis.model.ShardIteratorType;
+import com.amazonaws.services.kinesis.model.StreamDescription;
+import com.amazonaws.shards.CheckpointStore;
+
+public class KinesisShardReaderTest {
+
+    private static final String STREAM_NAME = "stream";
+
+    /**
+     * A stream made of two closed shards "left" (records 1 and 2) and "right"
+     * (record 3) which have been merged into the closed shard "merged"
+     * (records 4 and 5). Each GetRecords call returns at most two records.
+     */
+    private static class StubKinesis extends AbstractAmazonKinesis {
+        private final Map<String, List<String>> records = new HashMap<String, List<String>>();
+        private final Map<String, String> iteratorRequests = new ConcurrentHashMap<String, String>();
+        private final AtomicBoolean throttleOnce = new AtomicBoolean();
+
+        StubKinesis() {
+            records.put("left", Arrays.asList("1", "2"));
+            records.put("right", Arrays.asList("3"));
+            records.put("merged", Arrays.asList("4", "5"));
+        }
+
+        @Override
+        public DescribeStreamResult describeStream(DescribeStreamRequest request) {
+            // Shards are returned in two pages, the child first
+            if (request.getExclusiveStartShardId() == null) {
+                return new DescribeStreamResult().withStreamDescription(new StreamDescription()
+                        .withShards(new Shard().withShardId("merged")
+                                .withParentShardId("left")
+                                .withAdjacentParentShardId("right"))
+                        .withHasMoreShards(true));
+            }
+            assertEquals("merged", request.getExclusiveStartShardId());
+            return new DescribeStreamResult().withStreamDescription(new StreamDescription()
+                    .withShards(new Shard().withShardId("left"),
+                            new Shard().withShardId("right"))
+                    .withHasMoreShards(false));
+        }
+
+        @Override
+        public GetShardIteratorResult getShardIterator(GetShardIteratorRequest request) {
+            iteratorRequests.put(request.getShardId(), request.getShardIteratorType()
+                    + (request.getStartingSequenceNumber() == null
+                            ? "" : " " + request.getStartingSequenceNumber()));
+
+            List<String> shardRecords = records.get(request.getShardId());
+            int position = 0;
+            if (ShardIteratorType.AFTER_SEQUENCE_NUMBER.toString()
+                    .equals(request.getShardIteratorType())) {
+                position = shardRecords.indexOf(request.getStartingSequenceNumber()) + 1;
+            }
+            return new GetShardIteratorResult()
+                    .withShardIterator(request.getShardId() + ":" + position);
+        }
+
+        @Override
+        public GetRecordsResult getRecords(GetRecordsRequest request) {
+            String[] iterator = request.getShardIterator().split(":");
+            if (iterator[0].equals("merged") && throttleOnce.compareAndSet(true, false)) {
+                throw new ProvisionedThroughputExceededException("Rate exceeded");
+            }
+            List<String> shardRecords = records.get(iterator[0]);
+            int position = Integer.parseInt(iterator[1]);
+            int end = Math.min(position + 2, shardRecords.size());
+
+            List<Record> result = new ArrayList<Record>();
+            for (String sequenceNumber : shardRecords.subList(position, end)) {
+                result.add(new Record().withSequenceNumber(sequenceNumber));
+            }
+            return new GetRecordsResult()
+                    .withRecords(result)
+                    .withMillisBehindLatest(0L)
+                    .withNextShardIterator(end == shardRecords.size() ? null : iterator[0] + ":" + end);
+        }
+    }
+
+    private static class InMemoryCheckpointStore implements CheckpointStore {
+        private final Map<String, String> checkpoints = new ConcurrentHashMap<String, String>();
+
+        @Override
+        public String getCheckpoint(String streamName, String shardId) {
+            return checkpoints.get(shardId);
+        }
+
+        @Override
+        public void setCheckpoint(String streamName, String shardId, String checkpoint) {
+            checkpoints.put(shardId, checkpoint);
+        }
+    }
+
+    private static class RecordingProcessor implements KinesisRecordProcessor {
+        private final List<String> processed = Collections.synchronizedList(new ArrayList<String>());
+        private final CountDownLatch shardsEnded;
+
+        RecordingProcessor(int expectedShards) {
+            shardsEnded = new CountDownLatch(expectedShards);
+        }
+
+        @Override
+        public void processRecords(String shardId, List<Record> records) {
+            for (Record record : records) {
+                processed.add(record.getSequenceNumber());
+            }
+        }
+
+        @Override
+        public void shardEnded(String shardId) {
+            shardsEnded.countDown();
+        }
+    }
+
+    private KinesisShardReader reader;
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if (reader != null) {
+            reader.shutdown();
+            assertTrue(reader.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testMergedShardWaitsForBothParents() throws InterruptedException {
+        InMemoryCheckpointStore checkpoints = new InMemoryCheckpointStore();
+        RecordingProcessor processor = new RecordingProcessor(3);
+        StubKinesis kinesis = new StubKinesis();
+        start(kinesis, checkpoints, processor);
+
+        assertTrue(processor.shardsEnded.await(5, TimeUnit.SECONDS));
+        // The final checkpoint of a shard is recorded after shardEnded
+        reader.shutdown();
+        assertTrue(reader.awaitTermination(5, TimeUnit.SECONDS));
+
+        List<String> processed = new ArrayList<String>(processor.processed);
+        assertEquals(5, processed.size());
+        assertEquals(Arrays.asList("4", "5"), processed.subList(3, 5));
+        assertTrue(processed.indexOf("1") < processed.indexOf("2"));
+
+        // Shards without parents start at the configured position, the
+        // merged shard at its very beginning
+        assertEquals("LATEST", kinesis.iteratorRequests.get("left"));
+        assertEquals("TRIM_HORIZON", kinesis.iteratorRequests.get("merged"));
+
+        assertEquals(CheckpointStore.SHARD_END, checkpoints.getCheckpoint(STREAM_NAME, "left"));
+        assertEquals(CheckpointStore.SHARD_END, checkpoints.getCheckpoint(STREAM_NAME, "right"));
+        assertEquals(CheckpointStore.SHARD_END, checkpoints.getCheckpoint(STREAM_NAME, "merged"));
+    }
+
+    @Test
+    public void testProcessingResumesAfterCheckpoints() throws InterruptedException {
+        InMemoryCheckpointStore checkpoints = new InMemoryCheckpointStore();
+        checkpoints.setCheckpoint(STREAM_NAME, "left", CheckpointStore.SHARD_END);
+        checkpoints.setCheckpoint(STREAM_NAME, "right", "3");
+        checkpoints.setCheckpoint(STREAM_NAME, "merged", "4");
+        RecordingProcessor processor = new RecordingProcessor(2);
+        StubKinesis kinesis = new StubKinesis();
+        start(kinesis, checkpoints, processor);
+
+        assertTrue(processor.shardsEnded.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("5"), new ArrayList<String>(processor.processed));
+        assertNull(kinesis.iteratorRequests.get("left"));
+        assertEquals("AFTER_SEQUENCE_NUMBER 3", kinesis.iteratorRequests.get("right"));
+        assertEquals("AFTER_SEQUENCE_NUMBER 4", kinesis.iteratorRequests.get("merged"));
+    }
+
+    @Test
+    public void testThrottledReadIsRetried() throws InterruptedException {
+        RecordingProcessor processor = new RecordingProcessor(3);
+        StubKinesis kinesis = new StubKinesis();
+        kinesis.throttleOnce.set(true);
+        start(kinesis, new InMemoryCheckpointStore(), processor);
+
+        assertTrue(processor.shardsEnded.await(5, TimeUnit.SECONDS));
+        assertEquals(5, processor.processed.size());
+        assertEquals(Arrays.asList("4", "5"), processor.processed.subList(3, 5));
+    }
+
+    private void start(StubKinesis kinesis, CheckpointStore checkpoints,
+            KinesisRecordProcessor processor) {
+        reader = new KinesisShardReader(kinesis, STREAM_NAME, checkpoints, processor,
+                new KinesisShardReaderConfig()
+                        .withMaxConcurrentShards(2)
+                        .withIdleTimeBetweenReadsMillis(10)
+                        .withShardSyncIntervalMillis(50)
+                        .withInitialPosition(ShardIteratorType.LATEST));
+        reader.start();
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.kinesisfirehose.buffered;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.kinesisfirehose.AbstractAmazonKinesisFirehoseAsync;
+import com.amazonaws.services.kinesisfirehose.model.PutRecordBatchRequest;
+import com.amazonaws.services.kinesisfirehose.model.PutRecordBatchResponseEntry;
+import com.amazonaws.services.kinesisfirehose.model.PutRecordBatchResult;
+import com.amazonaws.services.kinesisfirehose.model.PutRecordRequest;
+import com.amazonaws.services.kinesisfirehose.model.PutRecordResult;
+import com.amazonaws.services.kinesisfirehose.model.Record;
+
+public class DeliveryStreamBufferTest {
+
+    private static final String STREAM_NAME = "stream";
+
+    @Test
+    public void testBatchesHoldAtMost500Records() throws Exception {
+        StubFirehose firehose = new StubFirehose();
+        AmazonKinesisFirehoseBufferedAsyncClient client = newClient(firehose, new FirehoseBufferConfig()
+                .withMaxBatchOpenMs(60000));
+
+        List<Future<PutRecordResult>> futures = putRecords(client, new int[1200], 10);
+        client.shutdown();
+
+        assertEquals(3, firehose.batches.size());
+        List<List<Integer>> batches = firehose.sortedBatches();
+        assertEquals(500, batches.get(0).size());
+        assertEquals(500, batches.get(1).size());
+        assertEquals(200, batches.get(2).size());
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals("id-" + i + "-1", futures.get(i).get(1, TimeUnit.SECONDS).getRecordId());
+        }
+    }
+
+    @Test
+    public void testBatchesHoldAtMost4MB() throws Exception {
+        StubFirehose firehose = new StubFirehose();
+        AmazonKinesisFirehoseBufferedAsyncClient client = newClient(firehose, new FirehoseBufferConfig()
+                .withMaxBatchOpenMs(60000));
+
+        Random random = new Random(42);
+        int[] sizes = new int[40];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = i % 10 == 0 ? FirehoseBufferConfig.SERVICE_MAX_RECORD_SIZE : 4 + random.nextInt(700 * 1024);
+        }
+        putRecords(client, sizes, 0);
+        client.shutdown();
+
+        // records are sent in order, each batch being closed by the first
+        // record that does not fit
+        List<List<Integer>> batches = firehose.sortedBatches();
+        int next = 0;
+        for (int b = 0; b < batches.size(); b++) {
+            List<Integer> batch = batches.get(b);
+            long bytes = 0;
+            for (int index : batch) {
+                assertEquals(next++, index);
+                bytes += sizes[index];
+            }
+            assertTrue(bytes <= FirehoseBufferConfig.SERVICE_MAX_BATCH_SIZE_BYTES);
+            if (b < batches.size() - 1) {
+                assertTrue(bytes + sizes[next] > FirehoseBufferConfig.SERVICE_MAX_BATCH_SIZE_BYTES);
+            }
+        }
+        assertEquals(sizes.length, next);
+    }
+
+    @Test
+    public void testOnlyFailedRecordsAreResubmitted() throws Exception {
+        StubFirehose firehose = new StubFirehose() {
+            @Override
+            boolean fails(int index, int attempt) {
+                return index % 4 == 0 && attempt == 1;
+            }
+        };
+        AmazonKinesisFirehoseBufferedAsyncClient client = newClient(firehose, new FirehoseBufferConfig()
+                .withMaxBatchSize(100)
+                .withMaxBatchOpenMs(50));
+
+        List<Future<PutRecordResult>> futures = putRecords(client, new int[1000], 10);
+        client.shutdown();
+
+        for (int i = 0; i < futures.size(); i++) {
+            int attempts = i % 4 == 0 ? 2 : 1;
+            assertEquals("id-" + i + "-" + attempts, futures.get(i).get(1, TimeUnit.SECONDS).getRecordId());
+            assertEquals(attempts, firehose.attemptNanos.get(i).size());
+        }
+        // the records that failed are sent twice, and no other record again
+        int sent = 0;
+        for (List<Integer> batch : firehose.batches) {
+            assertTrue(batch.size() <= 100);
+            sent += batch.size();
+        }
+        assertEquals(1000 + 250, sent);
+
+        DeliveryStreamMetrics metrics = client.getMetrics(STREAM_NAME);
+        assertEquals(1000, metrics.getRecordsPutCount());
+        assertEquals(250, metrics.getRecordsRetriedCount());
+        assertEquals(0, metrics.getRecordsFailedCount());
+        assertEquals(0, metrics.getBacklogRecords());
+    }
+
+    @Test
+    public void testRetriesBackOffUntilOutOfAttempts() throws Exception {
+        StubFirehose firehose = new StubFirehose() {
+            @Override
+            boolean fails(int index, int attempt) {
+                return index == 0;
+            }
+        };
+        AmazonKinesisFirehoseBufferedAsyncClient client = newClient(firehose, new FirehoseBufferConfig()
+                .withMaxBatchOpenMs(10)
+                .withMaxAttempts(4));
+
+        List<Future<PutRecordResult>> futures = putRecords(client, new int[2], 10);
+        client.shutdown();
+
+        assertEquals("id-1-1", futures.get(1).get(1, TimeUnit.SECONDS).getRecordId());
+        try {
+            futures.get(0).get(1, TimeUnit.SECONDS);
+            fail("Expected the record to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof AmazonClientException);
+            assertTrue(e.getCause().getMessage(), e.getCause().getMessage()
+                    .contains("after 4 attempts: ServiceUnavailableException"));
+        }
+
+        // 100, 200 then 400 ms between the attempts
+        List<Long> attempts = firehose.attemptNanos.get(0);
+        assertEquals(4, attempts.size());
+        for (int i = 1; i < attempts.size(); i++) {
+            assertTrue(attempts.get(i) - attempts.get(i - 1) >= TimeUnit.MILLISECONDS.toNanos(100 << (i - 1)));
+        }
+        assertEquals(1, client.getMetrics(STREAM_NAME).getRecordsFailedCount());
+    }
+
+    private static AmazonKinesisFirehoseBufferedAsyncClient newClient(StubFirehose firehose,
+            FirehoseBufferConfig config) {
+        return new AmazonKinesisFirehoseBufferedAsyncClient(firehose, config);
+    }
+
+    /**
+     * Puts records of the given sizes, or of the given default size where
+     * zero, whose data starts with their index.
+     */
+    private static List<Future<PutRecordResult>> putRecords(AmazonKinesisFirehoseBufferedAsyncClient client,
+            int[] sizes, int defaultSize) {
+        List<Future<PutRecordResult>> futures = new ArrayList<Future<PutRecordResult>>();
+        for (int i = 0; i < sizes.length; i++) {
+            ByteBuffer data = ByteBuffer.allocate(sizes[i] != 0 ? sizes[i] : defaultSize);
+            data.putInt(0, i);
+            futures.add(client.putRecordAsync(new PutRecordRequest()
+                    .withDeliveryStreamName(STREAM_NAME)
+                    .withRecord(new Record().withData(data))));
+        }
+        return futures;
+    }
+
+    /**
+     * Answers PutRecordBatch calls from another thread, failing the records
+     * the test picks with a retryable error. Records are identified by the
+     * index their data starts with, and get the id "id-index-attempt".
+     */
+    private static class StubFirehose extends AbstractAmazonKinesisFirehoseAsync {
+        private final ExecutorService executor = Executors.newSingleThreadExecutor();
+        private final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<List<Integer>>());
+        private final Map<Integer, List<Long>> attemptNanos = new ConcurrentHashMap<Integer, List<Long>>();
+
+        boolean fails(int index, int attempt) {
+            return false;
+        }
+
+        List<List<Integer>> sortedBatches() {
+            List<List<Integer>> sorted = new ArrayList<List<Integer>>(batches);
+            Collections.sort(sorted, new Comparator<List<Integer>>() {
+                @Override
+                public int compare(List<Integer> left, List<Integer> right) {
+                    return left.get(0).compareTo(right.get(0));
+                }
+            });
+            return sorted;
+        }
+
+        @Override
+        public Future<PutRecordBatchResult> putRecordBatchAsync(final PutRecordBatchRequest request,
+                final AsyncHandler<PutRecordBatchRequest, PutRecordBatchResult> asyncHandler) {
+            assertEquals(STREAM_NAME, request.getDeliveryStreamName());
+            final List<Integer> batch = new ArrayList<Integer>();
+            final List<PutRecordBatchResponseEntry> entries = new ArrayList<PutRecordBatchResponseEntry>();
+            int failed = 0;
+            for (Record record : request.getRecords()) {
+                int index = record.getData().getInt(record.getData().position());
+                batch.add(index);
+                List<Long> attempts = attemptNanos.get(index);
+                if (attempts == null) {
+                    attempts = Collections.synchronizedList(new ArrayList<Long>());
+                    attemptNanos.put(index, attempts);
+                }
+                attempts.add(System.nanoTime());
+                if (fails(index, attempts.size())) {
+                    failed++;
+                    entries.add(new PutRecordBatchResponseEntry()
+                            .withErrorCode("ServiceUnavailableException")
+                            .withErrorMessage("Slow down"));
+                } else {
+                    entries.add(new PutRecordBatchResponseEntry().withRecordId("id-" + index + "-" + attempts.size()));
+                }
+            }
+            batches.add(batch);
+            final PutRecordBatchResult result = new PutRecordBatchResult()
+                    .withFailedPutCount(failed)
+                    .withRequestResponses(entries);
+            return executor.submit(new Callable<PutRecordBatchResult>() {
+                @Override
+                public PutRecordBatchResult call() {
+                    asyncHandler.onSuccess(request, result);
+                    return result;
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            executor.shutdown();
+        }
+    }
+}
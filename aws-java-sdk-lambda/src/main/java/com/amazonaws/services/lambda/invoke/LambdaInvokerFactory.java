@@ -14,19 +14,30 @@
  */
 package com.amazonaws.services.lambda.invoke;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import com.amazonaws.services.lambda.AWSLambda;
+import com.amazonaws.services.lambda.AWSLambdaAsync;
 import com.amazonaws.services.lambda.model.InvocationType;
 import com.amazonaws.services.lambda.model.InvokeRequest;
 import com.amazonaws.services.lambda.model.InvokeResult;
@@ -34,9 +45,9 @@ import com.amazonaws.services.lambda.model.LogType;
 import com.amazonaws.util.Base64;
 import com.amazonaws.util.BinaryUtils;
 import com.amazonaws.util.StringUtils;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 /**
  * A factory for objects that implement a user-supplied interface by invoking a remote Lambda
@@ -59,11 +70,27 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  *                 LambdaInvokerFactory.build( LambdaFunctions.class, new AWSLambdaClient());
  *                 Request request = new Request(...); Result result =
  *                 functions.doSomeStuff(request); </code>
+ * <p>
+ * Given an {@code AWSLambdaAsync} client, methods returning a {@code Future} invoke their
+ * function asynchronously:
+ * <p>
+ * <code>
+ * public interface AsyncLambdaFunctions {
+ * 
+ * @LambdaFunction(functionName="doSomeStuff") Future&lt;Result&gt; doSomeStuffAsync(Request
+ *                                             request); } AsyncLambdaFunctions functions =
+ *                                             LambdaInvokerFactory.build(
+ *                                             AsyncLambdaFunctions.class, new
+ *                                             AWSLambdaAsyncClient()); Future&lt;Result&gt;
+ *                                             result = functions.doSomeStuffAsync(request);
+ *                                             </code>
  */
 public final class LambdaInvokerFactory {
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
+    private static final ObjectReader ERROR_READER = MAPPER.reader(LambdaFunctionError.class);
+
     /**
      * Creates a new Lambda invoker implementing the given interface and wrapping the given
      * {@code AWSLambda} client.
@@ -80,36 +107,94 @@ public final class LambdaInvokerFactory {
         return interfaceClass.cast(proxy);
     }
 
+    /**
+     * Creates a new Lambda invoker implementing the given interface and wrapping the given
+     * {@code AWSLambdaAsync} client. Methods of the interface returning a {@code Future} of their
+     * result invoke their function asynchronously; others block until the function returns, as
+     * with {@link #build(Class, AWSLambda)}. Function errors are reported by the future, as the
+     * cause of an {@code ExecutionException}.
+     *
+     * @param interfaceClass
+     *            the interface to implement
+     * @param awsLambda
+     *            the lambda client to use for making remote calls
+     */
+    public static <T> T build(Class<T> interfaceClass, AWSLambdaAsync awsLambda) {
+        return build(interfaceClass, (AWSLambda) awsLambda);
+    }
+
     private LambdaInvokerFactory() {
     }
 
-    private static class LambdaInvocationHandler implements InvocationHandler {
+    /**
+     * What is needed to invoke the function of an interface method, worked out from the method
+     * once and for all: its annotation, and readers and writers bound to its types.
+     */
+    private static class LambdaMethod {
 
-        private final AWSLambda awsLambda;
-        private final Log log;
+        private final String functionName;
+        private final InvocationType invocationType;
+        private final LogType logType;
 
-        public LambdaInvocationHandler(Class<?> interfaceClass, AWSLambda awsLambda) {
+        /** whether the method returns a Future of its result */
+        private final boolean async;
 
-            this.awsLambda = awsLambda;
-            this.log = LogFactory.getLog(interfaceClass);
-        }
+        private final ObjectWriter inputWriter;
 
-        @Override
-        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        /** the reader of the result, or null if the method returns no value */
+        private final ObjectReader resultReader;
 
-            LambdaFunction annotation = validateInterfaceMethod(method, args);
+        /** the declared exceptions which can be constructed from a message */
+        private final List<Constructor<?>> exceptionConstructors = new ArrayList<Constructor<?>>();
 
-            InvokeRequest invokeRequest = buildInvokeRequest(method, annotation, args == null ? null : args[0]);
+        /**
+         * @throws LambdaSerializationException
+         *             if the method is not annotated appropriately
+         */
+        LambdaMethod(Method method) {
+            LambdaFunction annotation = validateInterfaceMethod(method);
 
-            InvokeResult invokeResult = awsLambda.invoke(invokeRequest);
+            String functionName = annotation.functionName();
+            if (functionName.isEmpty()) {
+                functionName = method.getName();
+            }
+            this.functionName = functionName;
+            this.invocationType = annotation.invocationType();
+            this.logType = annotation.logType();
+
+            Type[] parameterTypes = method.getGenericParameterTypes();
+            Class<?> parameterClass = parameterTypes.length == 0 ? null : method.getParameterTypes()[0];
+            // Only a final type tells the type of the argument; others are
+            // serialized according to the class of the argument
+            if (parameterClass != null && !parameterClass.isPrimitive()
+                    && Modifier.isFinal(parameterClass.getModifiers())) {
+                this.inputWriter = MAPPER.writerFor(MAPPER.getTypeFactory().constructType(parameterTypes[0]));
+            } else {
+                this.inputWriter = MAPPER.writer();
+            }
 
-            return processInvokeResult(method, invokeResult);
+            Type resultType = method.getGenericReturnType();
+            this.async = method.getReturnType() == Future.class;
+            if (async) {
+                resultType = resultType instanceof ParameterizedType
+                        ? ((ParameterizedType) resultType).getActualTypeArguments()[0]
+                        : Object.class;
+            }
+            this.resultReader = resultType == void.class || resultType == Void.class ? null
+                    : MAPPER.reader(MAPPER.getTypeFactory().constructType(resultType));
+
+            for (Class<?> exceptionType : method.getExceptionTypes()) {
+                Constructor<?> constructor = findConstructor(exceptionType);
+                if (constructor != null) {
+                    exceptionConstructors.add(constructor);
+                }
+            }
         }
 
         /**
          * Verifies that the given method is annotated appropriately.
          */
-        private LambdaFunction validateInterfaceMethod(Method method, Object[] args) {
+        private static LambdaFunction validateInterfaceMethod(Method method) {
 
             LambdaFunction annotation = method.getAnnotation(LambdaFunction.class);
 
@@ -121,40 +206,113 @@ public final class LambdaInvokerFactory {
                 throw new LambdaSerializationException("InvocationType must be RequestResponse if LogType " + "is set");
             }
 
-            if (args != null && args.length > 1) {
+            if (method.getParameterTypes().length > 1) {
                 throw new LambdaSerializationException("LambdaFunctions take either 0 or 1 arguments");
             }
 
             return annotation;
         }
 
+        private static Constructor<?> findConstructor(Class<?> type) {
+
+            for (Constructor<?> constructor : type.getConstructors()) {
+                Class<?>[] params = constructor.getParameterTypes();
+
+                if (params != null && params.length == 1 && String.class.equals(params[0])) {
+
+                    return constructor;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * A ByteArrayOutputStream whose content can be wrapped rather than copied.
+     */
+    private static class PayloadOutputStream extends ByteArrayOutputStream {
+
+        PayloadOutputStream() {
+            super(256);
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    private static class LambdaInvocationHandler implements InvocationHandler {
+
+        private final AWSLambda awsLambda;
+        private final Log log;
+
+        private final ConcurrentMap<Method, LambdaMethod> lambdaMethods =
+                new ConcurrentHashMap<Method, LambdaMethod>();
+
+        public LambdaInvocationHandler(Class<?> interfaceClass, AWSLambda awsLambda) {
+
+            this.awsLambda = awsLambda;
+            this.log = LogFactory.getLog(interfaceClass);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            LambdaMethod lambdaMethod = getLambdaMethod(method);
+
+            InvokeRequest invokeRequest = buildInvokeRequest(lambdaMethod, args == null ? null : args[0]);
+
+            if (lambdaMethod.async) {
+                if (!(awsLambda instanceof AWSLambdaAsync)) {
+                    throw new LambdaSerializationException("Method " + method.getName()
+                            + " returns a Future and requires an AWSLambdaAsync client");
+                }
+                return new InvokeResultFuture(method, lambdaMethod,
+                        ((AWSLambdaAsync) awsLambda).invokeAsync(invokeRequest));
+            }
+
+            InvokeResult invokeResult = awsLambda.invoke(invokeRequest);
+
+            return processInvokeResult(method, lambdaMethod, invokeResult);
+        }
+
+        private LambdaMethod getLambdaMethod(Method method) {
+
+            LambdaMethod lambdaMethod = lambdaMethods.get(method);
+
+            if (lambdaMethod == null) {
+                lambdaMethod = new LambdaMethod(method);
+                lambdaMethods.putIfAbsent(method, lambdaMethod);
+            }
+
+            return lambdaMethod;
+        }
+
         /**
-         * Builds an InvokeRequest from the given method, its {@code LambdaFunction} annotation, and
-         * the input parameter (if any).
+         * Builds an InvokeRequest for the given method and the input parameter (if any), which is
+         * serialized straight into the payload buffer.
          */
-        private InvokeRequest buildInvokeRequest(Method method, LambdaFunction annotation, Object input) {
+        private InvokeRequest buildInvokeRequest(LambdaMethod lambdaMethod, Object input) {
 
             InvokeRequest invokeRequest = new InvokeRequest();
 
-            String functionName = annotation.functionName();
-            if (functionName.isEmpty()) {
-                functionName = method.getName();
-            }
-
-            invokeRequest.setFunctionName(functionName);
-            invokeRequest.setInvocationType(annotation.invocationType());
-            invokeRequest.setLogType(annotation.logType());
+            invokeRequest.setFunctionName(lambdaMethod.functionName);
+            invokeRequest.setInvocationType(lambdaMethod.invocationType);
+            invokeRequest.setLogType(lambdaMethod.logType);
 
             if (input != null) {
                 try {
 
-                    String payload = MAPPER.writer().writeValueAsString(input);
+                    PayloadOutputStream payload = new PayloadOutputStream();
+                    lambdaMethod.inputWriter.writeValue(payload, input);
                     if (log.isDebugEnabled()) {
-                        log.debug("Serialized request object to '" + payload + "'");
+                        log.debug("Serialized request object to '" + payload.toString(StringUtils.UTF8.name())
+                                + "'");
                     }
-                    invokeRequest.setPayload(payload);
+                    invokeRequest.setPayload(payload.toByteBuffer());
 
-                } catch (JsonProcessingException ex) {
+                } catch (IOException ex) {
                     throw new LambdaSerializationException("Failed to serialize request object to JSON", ex);
                 }
             }
@@ -168,7 +326,8 @@ public final class LambdaInvokerFactory {
          * into a corresponding {@code Exception} type, otherwise parse the result payload into a
          * Java object suitable for returning from this method.
          */
-        private Object processInvokeResult(Method method, InvokeResult invokeResult) throws Throwable {
+        private Object processInvokeResult(Method method, LambdaMethod lambdaMethod, InvokeResult invokeResult)
+                throws Throwable {
 
             if (invokeResult.getLogResult() != null && log.isInfoEnabled()) {
                 try {
@@ -186,9 +345,9 @@ public final class LambdaInvokerFactory {
 
             if (functionError == null) {
                 // Success.
-                return getObjectFromPayload(method, invokeResult);
+                return getObjectFromPayload(lambdaMethod, invokeResult);
             } else {
-                throw getExceptionFromPayload(method, invokeResult);
+                throw getExceptionFromPayload(method, lambdaMethod, invokeResult);
             }
         }
 
@@ -200,18 +359,19 @@ public final class LambdaInvokerFactory {
          * @throws LambdaSerializationException
          *             on error deserializing
          */
-        private Object getObjectFromPayload(Method method, InvokeResult invokeResult) {
+        private Object getObjectFromPayload(LambdaMethod lambdaMethod, InvokeResult invokeResult) {
 
             try {
 
-                return getObjectFromPayload(method.getGenericReturnType(), invokeResult.getPayload());
+                return getObjectFromPayload(lambdaMethod.resultReader, invokeResult.getPayload());
 
             } catch (IOException ex) {
                 throw new LambdaSerializationException("Failed to parse Lambda function result", ex);
             }
         }
 
-        private Throwable getExceptionFromPayload(Method method, InvokeResult invokeResult) {
+        private Throwable getExceptionFromPayload(Method method, LambdaMethod lambdaMethod,
+                InvokeResult invokeResult) {
 
             Throwable throwable = null;
 
@@ -221,14 +381,15 @@ public final class LambdaInvokerFactory {
 
             try {
 
-                LambdaFunctionError error = getObjectFromPayload(LambdaFunctionError.class, invokeResult.getPayload());
+                LambdaFunctionError error = (LambdaFunctionError) getObjectFromPayload(ERROR_READER,
+                        invokeResult.getPayload());
 
                 if (error != null) {
                     message = error.getErrorMessage();
                     type = error.getErrorType();
                     stackTrace = error.getStackTrace();
 
-                    throwable = getCustomException(method, error);
+                    throwable = getCustomException(lambdaMethod, error);
                 }
 
             } catch (Exception ex) {
@@ -247,18 +408,16 @@ public final class LambdaInvokerFactory {
             return throwable;
         }
 
-        private Throwable getCustomException(Method method, LambdaFunctionError error) {
+        private Throwable getCustomException(LambdaMethod lambdaMethod, LambdaFunctionError error) {
 
             String type = error.getErrorType();
             Constructor<?> constructor = null;
 
             if (type != null) {
-                for (Class<?> exceptionType : method.getExceptionTypes()) {
-                    if (exceptionType.getSimpleName().startsWith(type)) {
-                        constructor = findConstructor(exceptionType);
-                        if (constructor != null) {
-                            break;
-                        }
+                for (Constructor<?> candidate : lambdaMethod.exceptionConstructors) {
+                    if (candidate.getDeclaringClass().getSimpleName().startsWith(type)) {
+                        constructor = candidate;
+                        break;
                     }
                 }
             }
@@ -276,20 +435,6 @@ public final class LambdaInvokerFactory {
             return null;
         }
 
-        private Constructor<?> findConstructor(Class<?> type) {
-
-            for (Constructor<?> constructor : type.getConstructors()) {
-                Class<?>[] params = constructor.getParameterTypes();
-
-                if (params != null && params.length == 1 && String.class.equals(params[0])) {
-
-                    return constructor;
-                }
-            }
-
-            return null;
-        }
-
         private void fillStackTrace(Throwable throwable, List<String> stackTrace, Class<?> interfaceClass) {
 
             StackTraceElement[] elements = new StackTraceElement[stackTrace.size()];
@@ -301,20 +446,83 @@ public final class LambdaInvokerFactory {
             throwable.setStackTrace(elements);
         }
 
-        private <T> T getObjectFromPayload(Class<T> type, ByteBuffer payload) throws IOException {
+        /**
+         * Reads an object from the given payload, in place when it is backed by an array.
+         */
+        private Object getObjectFromPayload(ObjectReader reader, ByteBuffer payload) throws IOException {
+
+            if (reader == null || payload == null || payload.remaining() == 0) {
+                return null;
+            }
 
-            return type.cast(getObjectFromPayload((Type) type, payload));
+            if (payload.hasArray()) {
+                return reader.readValue(payload.array(), payload.arrayOffset() + payload.position(),
+                        payload.remaining());
+            }
+
+            return reader.readValue(BinaryUtils.copyAllBytesFrom(payload));
         }
 
-        private Object getObjectFromPayload(Type type, ByteBuffer payload) throws IOException {
+        /**
+         * The future result of an asynchronous invocation, processed like the result of a
+         * synchronous one when first retrieved.
+         */
+        private class InvokeResultFuture implements Future<Object> {
 
-            if (type == void.class || payload.remaining() == 0) {
-                return null;
+            private final Method method;
+            private final LambdaMethod lambdaMethod;
+            private final Future<InvokeResult> invokeResultFuture;
+
+            private boolean processed;
+            private Object value;
+            private Throwable failure;
+
+            InvokeResultFuture(Method method, LambdaMethod lambdaMethod, Future<InvokeResult> invokeResultFuture) {
+                this.method = method;
+                this.lambdaMethod = lambdaMethod;
+                this.invokeResultFuture = invokeResultFuture;
+            }
+
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                return invokeResultFuture.cancel(mayInterruptIfRunning);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return invokeResultFuture.isCancelled();
+            }
+
+            @Override
+            public boolean isDone() {
+                return invokeResultFuture.isDone();
+            }
+
+            @Override
+            public Object get() throws InterruptedException, ExecutionException {
+                return process(invokeResultFuture.get());
             }
 
-            JavaType javaType = MAPPER.getTypeFactory().constructType(type);
+            @Override
+            public Object get(long timeout, TimeUnit unit)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                return process(invokeResultFuture.get(timeout, unit));
+            }
 
-            return MAPPER.reader(javaType).readValue(BinaryUtils.copyAllBytesFrom(payload));
+            private synchronized Object process(InvokeResult invokeResult) throws ExecutionException {
+                if (!processed) {
+                    try {
+                        value = processInvokeResult(method, lambdaMethod, invokeResult);
+                    } catch (Throwable t) {
+                        failure = t;
+                    }
+                    processed = true;
+                }
+                if (failure != null) {
+                    throw new ExecutionException(failure);
+                }
+                return value;
+            }
         }
     }
 }
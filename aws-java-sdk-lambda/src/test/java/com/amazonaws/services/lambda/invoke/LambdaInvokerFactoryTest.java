@@ -0,0 +1,271 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.lambda.invoke;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.amazonaws.services.lambda.AWSLambda;
+import com.amazonaws.services.lambda.AWSLambdaAsync;
+import com.amazonaws.services.lambda.model.InvocationType;
+import com.amazonaws.services.lambda.model.InvokeRequest;
+import com.amazonaws.services.lambda.model.InvokeResult;
+import com.amazonaws.util.BinaryUtils;
+import com.amazonaws.util.StringUtils;
+
+public class LambdaInvokerFactoryTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    /** released to let the stub client answer asynchronous calls */
+    private final CountDownLatch answer = new CountDownLatch(1);
+
+    /** the requests the stub client received, with their payloads */
+    private final List<InvokeRequest> requests = new CopyOnWriteArrayList<InvokeRequest>();
+
+    /** the result of the next calls to the stub client */
+    private volatile InvokeResult response = result("{\"name\":\"result\"}");
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testFutureIsProcessedWhenRetrieved() throws Exception {
+        Functions functions = LambdaInvokerFactory.build(Functions.class, asyncClient());
+
+        Future<Output> future = functions.echoAsync(new Input("input"));
+        assertFalse(future.isDone());
+        answer.countDown();
+
+        Output output = future.get(5, TimeUnit.SECONDS);
+        assertEquals("result", output.name);
+        assertTrue(future.isDone());
+        // the result is processed once
+        assertTrue(output == future.get());
+
+        assertEquals(1, requests.size());
+        assertEquals("echo", requests.get(0).getFunctionName());
+        assertEquals(InvocationType.RequestResponse.toString(), requests.get(0).getInvocationType());
+        assertEquals("{\"name\":\"input\"}", payloadOf(requests.get(0)));
+    }
+
+    @Test
+    public void testFunctionErrorsAreTheCauseOfExecutionExceptions() throws Exception {
+        Functions functions = LambdaInvokerFactory.build(Functions.class, asyncClient());
+        answer.countDown();
+
+        response = result("{\"errorType\":\"BadInputException\",\"errorMessage\":\"bad input\","
+                + "\"stackTrace\":[\"at handler\"]}").withFunctionError("Handled");
+        Future<Output> future = functions.failAsync(new Input("input"));
+        for (int i = 0; i < 2; i++) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("Expected the function to fail");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof BadInputException);
+                assertEquals("bad input", e.getCause().getMessage());
+                assertEquals("at handler", e.getCause().getStackTrace()[0].getMethodName());
+            }
+        }
+
+        // errors of undeclared types are reported as LambdaFunctionExceptions
+        response = result("{\"errorType\":\"RuntimeError\",\"errorMessage\":\"crashed\"}")
+                .withFunctionError("Unhandled");
+        try {
+            functions.echoAsync(new Input("input")).get(5, TimeUnit.SECONDS);
+            fail("Expected the function to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof LambdaFunctionException);
+            LambdaFunctionException cause = (LambdaFunctionException) e.getCause();
+            assertEquals("crashed", cause.getMessage());
+            assertEquals("RuntimeError", cause.getType());
+            assertFalse(cause.isHandled());
+        }
+    }
+
+    @Test
+    public void testVoidAndRawFutures() throws Exception {
+        Functions functions = LambdaInvokerFactory.build(Functions.class, asyncClient());
+        answer.countDown();
+
+        Future<Void> notified = functions.notifyAsync(new Input("input"));
+        assertNull(notified.get(5, TimeUnit.SECONDS));
+        assertEquals(InvocationType.Event.toString(), requests.get(0).getInvocationType());
+
+        // a raw Future reads the result as untyped JSON
+        Object raw = functions.rawAsync(new Input("input")).get(5, TimeUnit.SECONDS);
+        assertTrue(raw instanceof Map);
+        assertEquals("result", ((Map<?, ?>) raw).get("name"));
+    }
+
+    @Test
+    public void testFutureMethodsRequireAnAsyncClient() throws Exception {
+        Functions functions = LambdaInvokerFactory.build(Functions.class, syncClient());
+
+        try {
+            functions.echoAsync(new Input("input"));
+            fail("Expected a LambdaSerializationException");
+        } catch (LambdaSerializationException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("requires an AWSLambdaAsync client"));
+        }
+        assertTrue(requests.isEmpty());
+
+        // other methods still work
+        assertEquals("result", functions.echo(new FinalInput("input")).name);
+    }
+
+    @Test
+    public void testArgumentsAreWrittenAsTheirFinalDeclaredTypeOrElseTheirClass() throws Exception {
+        Functions functions = LambdaInvokerFactory.build(Functions.class, syncClient());
+
+        functions.echo(new FinalInput("final"));
+        assertEquals("{\"name\":\"final\"}", payloadOf(requests.get(0)));
+
+        // the declared type is not final, so the properties of the subclass
+        // are written as well
+        functions.log(new DerivedInput("derived", 42));
+        assertEquals("{\"name\":\"derived\",\"extra\":42}", payloadOf(requests.get(1)));
+
+        functions.log(null);
+        assertNull(requests.get(2).getPayload());
+    }
+
+    private AWSLambda syncClient() {
+        return (AWSLambda) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { AWSLambda.class }, new StubLambda());
+    }
+
+    private AWSLambdaAsync asyncClient() {
+        return (AWSLambdaAsync) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { AWSLambdaAsync.class }, new StubLambda());
+    }
+
+    private static InvokeResult result(String payload) {
+        return new InvokeResult().withStatusCode(200)
+                .withPayload(ByteBuffer.wrap(payload.getBytes(StringUtils.UTF8)));
+    }
+
+    private static String payloadOf(InvokeRequest request) {
+        return new String(BinaryUtils.copyAllBytesFrom(request.getPayload()), StringUtils.UTF8);
+    }
+
+    /**
+     * Answers Invoke calls with {@link #response}, asynchronous ones from
+     * another thread once {@link #answer} is released.
+     */
+    private class StubLambda implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if (method.getName().equals("invoke")) {
+                requests.add((InvokeRequest) args[0]);
+                return response;
+            }
+            if (method.getName().equals("invokeAsync") && args.length == 1) {
+                requests.add((InvokeRequest) args[0]);
+                final InvokeResult result = response;
+                return executor.submit(new Callable<InvokeResult>() {
+                    @Override
+                    public InvokeResult call() throws Exception {
+                        answer.await();
+                        return result;
+                    }
+                });
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    public interface Functions {
+
+        @LambdaFunction(functionName = "echo")
+        Future<Output> echoAsync(Input input);
+
+        @LambdaFunction(functionName = "notify", invocationType = InvocationType.Event)
+        Future<Void> notifyAsync(Input input);
+
+        @SuppressWarnings("rawtypes")
+        @LambdaFunction(functionName = "raw")
+        Future rawAsync(Input input);
+
+        @LambdaFunction(functionName = "fail")
+        Future<Output> failAsync(Input input) throws BadInputException;
+
+        @LambdaFunction
+        Output echo(FinalInput input);
+
+        @LambdaFunction
+        void log(Input input);
+    }
+
+    public static class Input {
+        public String name;
+
+        public Input(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class DerivedInput extends Input {
+        public int extra;
+
+        public DerivedInput(String name, int extra) {
+            super(name);
+            this.extra = extra;
+        }
+    }
+
+    public static final class FinalInput {
+        public String name;
+
+        public FinalInput(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Output {
+        public String name;
+    }
+
+    public static class BadInputException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        public BadInputException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,437 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.logs.buffered;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonServiceException.ErrorType;
+import com.amazonaws.retry.RetryUtils;
+import com.amazonaws.services.logs.AWSLogs;
+import com.amazonaws.services.logs.buffered.LogStreamBuffer.BufferedEvent;
+import com.amazonaws.services.logs.model.DataAlreadyAcceptedException;
+import com.amazonaws.services.logs.model.InputLogEvent;
+import com.amazonaws.services.logs.model.InvalidSequenceTokenException;
+import com.amazonaws.services.logs.model.PutLogEventsRequest;
+import com.amazonaws.services.logs.model.PutLogEventsResult;
+
+/**
+ * Publishes log events to CloudWatch Logs in batches, taking care of the
+ * ordering, size limits and sequence tokens PutLogEvents requires.
+ * <p>
+ * Events are buffered per log stream, up to
+ * {@link LogEventPublisherConfig#getMaxBufferedEvents()} events; events
+ * published to a full buffer block or are dropped according to
+ * {@link LogEventPublisherConfig#getOverflowPolicy()}. The buffered events of
+ * a stream are sorted by timestamp and packed into calls of up to 10000
+ * events, 1 MB and 24 hours, sent when a call is full or when its oldest event
+ * has been buffered for
+ * {@link LogEventPublisherConfig#getMaxBatchDelayMillis()}.
+ * <p>
+ * Each call needs the sequence token returned by the previous call to the same
+ * stream, so the calls of a stream are made one after the other, while those
+ * of different streams are made concurrently. Events published while a call
+ * is in flight are packed as soon as it returns, and sent right away if they
+ * fill a call, so that a busy stream is never left waiting for its batch
+ * delay. The sequence token of a stream is not looked up beforehand: the first
+ * call is made without one, and calls rejected with an
+ * InvalidSequenceTokenException, for instance because another process wrote
+ * to the stream, are made again with the token the service expects. Calls
+ * failing with a throttling or server error are retried with exponential
+ * backoff, and their events dropped once out of attempts.
+ * <p>
+ * Instances are thread-safe. Publishers create threads that run until
+ * {@link #shutdown()} is called. The log groups and streams must exist.
+ */
+public class LogEventPublisher {
+
+    private static final Log log = LogFactory.getLog(LogEventPublisher.class);
+
+    /** backoff before the first retry of a call; doubled at each attempt */
+    private static final long MIN_BACKOFF_MILLIS = 200;
+
+    private static final long MAX_BACKOFF_MILLIS = 10000;
+
+    private final AWSLogs logs;
+    private final LogEventPublisherConfig config;
+
+    private final Map<String, LogStreamBuffer> buffers = new HashMap<String, LogStreamBuffer>();
+
+    private final ExecutorService putExecutor;
+    private final ScheduledExecutorService scheduler;
+
+    /** events published and neither sent nor dropped yet */
+    private final AtomicInteger outstandingCount = new AtomicInteger();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private volatile boolean shutdown;
+
+    public LogEventPublisher(AWSLogs logs) {
+        this(logs, new LogEventPublisherConfig());
+    }
+
+    public LogEventPublisher(AWSLogs logs, LogEventPublisherConfig config) {
+        this.logs = logs;
+        this.config = new LogEventPublisherConfig(config);
+
+        putExecutor = Executors.newFixedThreadPool(this.config.getMaxConcurrentCalls(),
+                new DaemonThreadFactory());
+        scheduler = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory());
+
+        long tickMillis = Math.max(1, this.config.getMaxBatchDelayMillis() / 4);
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    drainReadyStreams(false);
+                } catch (RuntimeException e) {
+                    log.warn("Unexpected error publishing log events", e);
+                }
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publishes an event to a log stream.
+     *
+     * @param logGroupName
+     *            the name of the log group of the stream.
+     * @param logStreamName
+     *            the name of the log stream.
+     * @param event
+     *            the event, with a timestamp and a message of up to 256 KB
+     *            less 26 bytes in UTF-8.
+     * @return false if the event was dropped because the buffer of the stream
+     *         is full and the overflow policy is
+     *         {@link OverflowPolicy#DROP_NEWEST}, true otherwise.
+     */
+    public boolean publish(String logGroupName, String logStreamName, InputLogEvent event) {
+        if (event.getTimestamp() == null || event.getMessage() == null) {
+            throw new IllegalArgumentException("A log event must have a timestamp and a message");
+        }
+        int size = utf8Length(event.getMessage()) + LogEventPublisherConfig.EVENT_OVERHEAD_BYTES;
+        if (size > LogEventPublisherConfig.SERVICE_MAX_EVENT_SIZE) {
+            throw new IllegalArgumentException("The message of a log event must not exceed "
+                    + (LogEventPublisherConfig.SERVICE_MAX_EVENT_SIZE
+                            - LogEventPublisherConfig.EVENT_OVERHEAD_BYTES) + " bytes");
+        }
+        BufferedEvent bufferedEvent = new BufferedEvent(event.getTimestamp(), event.getMessage(), size);
+
+        LogStreamBuffer buffer = getBuffer(logGroupName, logStreamName);
+        synchronized (buffer) {
+            while (buffer.events.size() >= config.getMaxBufferedEvents()) {
+                switch (config.getOverflowPolicy()) {
+                case DROP_NEWEST:
+                    droppedCount.incrementAndGet();
+                    return false;
+                case DROP_OLDEST:
+                    buffer.removeOldest();
+                    completed(1);
+                    droppedCount.incrementAndGet();
+                    break;
+                default:
+                    startDraining(buffer);
+                    try {
+                        buffer.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new AmazonClientException("Interrupted while waiting to publish a log event", e);
+                    }
+                }
+            }
+            if (shutdown) {
+                throw new AmazonClientException("The publisher has been shut down.");
+            }
+            buffer.add(bufferedEvent);
+            outstandingCount.incrementAndGet();
+            if (buffer.isReady(config, System.nanoTime())) {
+                startDraining(buffer);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sends all buffered events without waiting for their batch delay to
+     * elapse.
+     */
+    public void flush() {
+        drainReadyStreams(true);
+    }
+
+    /**
+     * Flushes the buffered events and blocks until all events published are
+     * sent or dropped.
+     */
+    public void flushSync() {
+        long tickMillis = Math.max(1, config.getMaxBatchDelayMillis() / 4);
+        while (outstandingCount.get() > 0) {
+            flush();
+            try {
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AmazonClientException("Interrupted while flushing log events", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of events published but neither sent nor dropped yet.
+     */
+    public int getOutstandingEventCount() {
+        return outstandingCount.get();
+    }
+
+    /**
+     * Returns the number of events sent to CloudWatch Logs.
+     */
+    public long getSentEventCount() {
+        return sentCount.get();
+    }
+
+    /**
+     * Returns the number of events dropped, either by the overflow policy or
+     * because their call failed.
+     */
+    public long getDroppedEventCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Sends the outstanding events then stops the threads of this publisher.
+     * Events cannot be published afterwards. The AWSLogs client is not shut
+     * down.
+     */
+    public void shutdown() {
+        shutdown = true;
+        flushSync();
+        scheduler.shutdown();
+        putExecutor.shutdown();
+    }
+
+    private LogStreamBuffer getBuffer(String logGroupName, String logStreamName) {
+        // Log group names cannot contain colons
+        String key = logGroupName + ":" + logStreamName;
+        synchronized (buffers) {
+            LogStreamBuffer buffer = buffers.get(key);
+            if (buffer == null) {
+                buffer = new LogStreamBuffer(logGroupName, logStreamName,
+                        config.getMaxBufferedEvents());
+                buffers.put(key, buffer);
+            }
+            return buffer;
+        }
+    }
+
+    /**
+     * Starts sending the events of the streams which are ready, or of all
+     * streams if asked to.
+     */
+    private void drainReadyStreams(boolean all) {
+        List<LogStreamBuffer> snapshot;
+        synchronized (buffers) {
+            snapshot = new ArrayList<LogStreamBuffer>(buffers.values());
+        }
+        long now = System.nanoTime();
+        for (LogStreamBuffer buffer : snapshot) {
+            synchronized (buffer) {
+                if (all && !buffer.events.isEmpty()) {
+                    buffer.flushRequested = true;
+                }
+                if (buffer.isReady(config, now)) {
+                    startDraining(buffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Must be called while holding the monitor of the buffer.
+     */
+    private void startDraining(final LogStreamBuffer buffer) {
+        if (buffer.draining) {
+            return;
+        }
+        buffer.draining = true;
+        putExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                drain(buffer);
+            }
+        });
+    }
+
+    /**
+     * Sends the events of a stream one call after the other, for as long as
+     * the buffered events are ready to go.
+     */
+    private void drain(LogStreamBuffer buffer) {
+        try {
+            while (true) {
+                List<BufferedEvent> batch;
+                synchronized (buffer) {
+                    if (!buffer.isReady(config, System.nanoTime())) {
+                        buffer.draining = false;
+                        return;
+                    }
+                    batch = buffer.pack(config);
+                    buffer.notifyAll();
+                }
+                try {
+                    putLogEvents(buffer, batch);
+                } finally {
+                    completed(batch.size());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unexpected error publishing log events to " + buffer.logStreamName, e);
+            synchronized (buffer) {
+                buffer.draining = false;
+            }
+        }
+    }
+
+    private void putLogEvents(LogStreamBuffer buffer, List<BufferedEvent> batch) {
+        List<InputLogEvent> events = new ArrayList<InputLogEvent>(batch.size());
+        for (BufferedEvent event : batch) {
+            events.add(event.toInputLogEvent());
+        }
+        PutLogEventsRequest request = new PutLogEventsRequest(buffer.logGroupName,
+                buffer.logStreamName, events);
+
+        for (int attempt = 1; ; attempt++) {
+            String failure;
+            try {
+                PutLogEventsResult result = logs.putLogEvents(
+                        request.withSequenceToken(buffer.sequenceToken));
+                buffer.sequenceToken = result.getNextSequenceToken();
+                if (result.getRejectedLogEventsInfo() != null) {
+                    log.warn("Some log events sent to " + buffer.logStreamName
+                            + " were rejected: " + result.getRejectedLogEventsInfo());
+                }
+                sentCount.addAndGet(batch.size());
+                return;
+            } catch (DataAlreadyAcceptedException e) {
+                // A previous attempt went through after all
+                buffer.sequenceToken = e.getExpectedSequenceToken();
+                sentCount.addAndGet(batch.size());
+                return;
+            } catch (InvalidSequenceTokenException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Recovering the sequence token of " + buffer.logStreamName);
+                }
+                buffer.sequenceToken = e.getExpectedSequenceToken();
+                if (attempt < config.getMaxAttempts()) {
+                    continue;
+                }
+                failure = e.getMessage();
+            } catch (AmazonServiceException e) {
+                if (!isRetryable(e)) {
+                    drop(buffer, batch, e.getMessage());
+                    return;
+                }
+                failure = e.getMessage();
+            } catch (AmazonClientException e) {
+                failure = e.getMessage();
+            }
+
+            if (attempt >= config.getMaxAttempts()) {
+                drop(buffer, batch, failure);
+                return;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Retrying log events to " + buffer.logStreamName + " after attempt "
+                        + attempt + ": " + failure);
+            }
+            try {
+                Thread.sleep(Math.min(MIN_BACKOFF_MILLIS << Math.min(attempt - 1, 16),
+                        MAX_BACKOFF_MILLIS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                drop(buffer, batch, "Interrupted");
+                return;
+            }
+        }
+    }
+
+    private void drop(LogStreamBuffer buffer, List<BufferedEvent> batch, String reason) {
+        log.warn("Dropping " + batch.size() + " log events to " + buffer.logStreamName
+                + ": " + reason);
+        droppedCount.addAndGet(batch.size());
+    }
+
+    private void completed(int count) {
+        outstandingCount.addAndGet(-count);
+    }
+
+    private static boolean isRetryable(AmazonServiceException e) {
+        return e.getErrorType() == ErrorType.Service
+                || e.getStatusCode() >= 500
+                || RetryUtils.isThrottlingException(e)
+                || "ServiceUnavailableException".equals(e.getErrorCode())
+                || "OperationAbortedException".equals(e.getErrorCode());
+    }
+
+    /**
+     * Returns the number of bytes of the UTF-8 encoding of the given string,
+     * without encoding it.
+     */
+    private static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        static AtomicInteger threadCount = new AtomicInteger(0);
+
+        public Thread newThread(Runnable r) {
+            int threadNumber = threadCount.addAndGet(1);
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("LogEventPublisherThread-" + threadNumber);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.logs.buffered;
+
+/**
+ * Configuration of a {@link LogEventPublisher}.
+ */
+public class LogEventPublisherConfig {
+
+    /** The maximum number of events the service accepts per PutLogEvents call. */
+    public static final int SERVICE_MAX_BATCH_COUNT = 10000;
+
+    /**
+     * The maximum size of a PutLogEvents call the service accepts, in bytes,
+     * counted as the UTF-8 size of the messages plus
+     * {@link #EVENT_OVERHEAD_BYTES} per event.
+     */
+    public static final int SERVICE_MAX_BATCH_SIZE_BYTES = 1024 * 1024;
+
+    /** The number of bytes the service counts for each event on top of its message. */
+    public static final int EVENT_OVERHEAD_BYTES = 26;
+
+    /** The maximum size of an event the service accepts, overhead included, in bytes. */
+    public static final int SERVICE_MAX_EVENT_SIZE = 256 * 1024;
+
+    /** The maximum time (in milliseconds) the events of one PutLogEvents call may span. */
+    public static final long SERVICE_MAX_BATCH_SPAN_MILLIS = 24 * 60 * 60 * 1000L;
+
+    /** The default time (in milliseconds) an event may wait to be sent. */
+    public static final long DEFAULT_MAX_BATCH_DELAY_MILLIS = 1000;
+
+    /** The default maximum number of events buffered per log stream. */
+    public static final int DEFAULT_MAX_BUFFERED_EVENTS = 10000;
+
+    /** The default maximum number of concurrent PutLogEvents calls, across log streams. */
+    public static final int DEFAULT_MAX_CONCURRENT_CALLS = 4;
+
+    /** The default maximum number of attempts to put a batch of events. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 10;
+
+    private int maxBatchCount = SERVICE_MAX_BATCH_COUNT;
+
+    private int maxBatchSizeBytes = SERVICE_MAX_BATCH_SIZE_BYTES;
+
+    private long maxBatchDelayMillis = DEFAULT_MAX_BATCH_DELAY_MILLIS;
+
+    private int maxBufferedEvents = DEFAULT_MAX_BUFFERED_EVENTS;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    private int maxConcurrentCalls = DEFAULT_MAX_CONCURRENT_CALLS;
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    public LogEventPublisherConfig() {
+    }
+
+    /** copy constructor */
+    public LogEventPublisherConfig(LogEventPublisherConfig other) {
+        maxBatchCount = other.maxBatchCount;
+        maxBatchSizeBytes = other.maxBatchSizeBytes;
+        maxBatchDelayMillis = other.maxBatchDelayMillis;
+        maxBufferedEvents = other.maxBufferedEvents;
+        overflowPolicy = other.overflowPolicy;
+        maxConcurrentCalls = other.maxConcurrentCalls;
+        maxAttempts = other.maxAttempts;
+    }
+
+    /**
+     * Returns the maximum number of events per PutLogEvents call.
+     */
+    public int getMaxBatchCount() {
+        return maxBatchCount;
+    }
+
+    /**
+     * Sets the maximum number of events per PutLogEvents call.
+     *
+     * @param maxBatchCount
+     *            the number of events, between 1 and 10000
+     */
+    public void setMaxBatchCount(int maxBatchCount) {
+        if (maxBatchCount < 1 || maxBatchCount > SERVICE_MAX_BATCH_COUNT) {
+            throw new IllegalArgumentException("maxBatchCount " + maxBatchCount
+                    + " must be between 1 and " + SERVICE_MAX_BATCH_COUNT);
+        }
+        this.maxBatchCount = maxBatchCount;
+    }
+
+    /**
+     * Sets the maximum number of events per PutLogEvents call, and returns the
+     * updated object so that additional method calls can be chained together.
+     */
+    public LogEventPublisherConfig withMaxBatchCount(int maxBatchCount) {
+        setMaxBatchCount(maxBatchCount);
+        return this;
+    }
+
+    /**
+     * Returns the maximum size of a PutLogEvents call, in bytes, counted the
+     * way the service does.
+     */
+    public int getMaxBatchSizeBytes() {
+        return maxBatchSizeBytes;
+    }
+
+    /**
+     * Sets the maximum size of a PutLogEvents call, in bytes.
+     *
+     * @param maxBatchSizeBytes
+     *            the size, between 256 KB and 1 MB
+     */
+    public void setMaxBatchSizeBytes(int maxBatchSizeBytes) {
+        if (maxBatchSizeBytes < SERVICE_MAX_EVENT_SIZE
+                || maxBatchSizeBytes > SERVICE_MAX_BATCH_SIZE_BYTES) {
+            throw new IllegalArgumentException("maxBatchSizeBytes " + maxBatchSizeBytes
+                    + " must be between " + SERVICE_MAX_EVENT_SIZE + " and "
+                    + SERVICE_MAX_BATCH_SIZE_BYTES);
+        }
+        this.maxBatchSizeBytes = maxBatchSizeBytes;
+    }
+
+    /**
+     * Sets the maximum size of a PutLogEvents call, in bytes, and returns the
+     * updated object so that additional method calls can be chained together.
+     */
+    public LogEventPublisherConfig withMaxBatchSizeBytes(int maxBatchSizeBytes) {
+        setMaxBatchSizeBytes(maxBatchSizeBytes);
+        return this;
+    }
+
+    /**
+     * Returns the approximate time (in milliseconds) an event may wait in the
+     * buffer for other events of its log stream before being sent. Events are
+     * sent sooner when they fill a PutLogEvents call.
+     */
+    public long getMaxBatchDelayMillis() {
+        return maxBatchDelayMillis;
+    }
+
+    /**
+     * Sets the approximate time (in milliseconds) an event may wait in the
+     * buffer for other events of its log stream before being sent.
+     *
+     * @param maxBatchDelayMillis
+     *            the time, must be positive
+     */
+    public void setMaxBatchDelayMillis(long maxBatchDelayMillis) {
+        if (maxBatchDelayMillis <= 0) {
+            throw new IllegalArgumentException("maxBatchDelayMillis " + maxBatchDelayMillis
+                    + " must be positive");
+        }
+        this.maxBatchDelayMillis = maxBatchDelayMillis;
+    }
+
+    /**
+     * Sets the approximate time (in milliseconds) an event may wait in the
+     * buffer for other events of its log stream before being sent, and
+     * returns the updated object so that additional method calls can be
+     * chained together.
+     */
+    public LogEventPublisherConfig withMaxBatchDelayMillis(long maxBatchDelayMillis) {
+        setMaxBatchDelayMillis(maxBatchDelayMillis);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of events buffered per log stream, not
+     * counting those being sent. Events published to a full buffer are
+     * handled according to {@link #getOverflowPolicy()}.
+     */
+    public int getMaxBufferedEvents() {
+        return maxBufferedEvents;
+    }
+
+    /**
+     * Sets the maximum number of events buffered per log stream.
+     *
+     * @param maxBufferedEvents
+     *            the number of events, must be positive
+     */
+    public void setMaxBufferedEvents(int maxBufferedEvents) {
+        if (maxBufferedEvents < 1) {
+            throw new IllegalArgumentException("maxBufferedEvents " + maxBufferedEvents
+                    + " must be positive");
+        }
+        this.maxBufferedEvents = maxBufferedEvents;
+    }
+
+    /**
+     * Sets the maximum number of events buffered per log stream, and returns
+     * the updated object so that additional method calls can be chained
+     * together.
+     */
+    public LogEventPublisherConfig withMaxBufferedEvents(int maxBufferedEvents) {
+        setMaxBufferedEvents(maxBufferedEvents);
+        return this;
+    }
+
+    /**
+     * Returns what is done with events published to a full buffer. The
+     * default is to block the publishing thread.
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Sets what is done with events published to a full buffer.
+     */
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("overflowPolicy must not be null");
+        }
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Sets what is done with events published to a full buffer, and returns
+     * the updated object so that additional method calls can be chained
+     * together.
+     */
+    public LogEventPublisherConfig withOverflowPolicy(OverflowPolicy overflowPolicy) {
+        setOverflowPolicy(overflowPolicy);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of PutLogEvents calls in flight at once.
+     * There is never more than one call in flight per log stream, since each
+     * call needs the sequence token returned by the previous one.
+     */
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    /**
+     * Sets the maximum number of PutLogEvents calls in flight at once.
+     *
+     * @param maxConcurrentCalls
+     *            the number of calls, must be positive
+     */
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("maxConcurrentCalls " + maxConcurrentCalls
+                    + " must be positive");
+        }
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    /**
+     * Sets the maximum number of PutLogEvents calls in flight at once, and
+     * returns the updated object so that additional method calls can be
+     * chained together.
+     */
+    public LogEventPublisherConfig withMaxConcurrentCalls(int maxConcurrentCalls) {
+        setMaxConcurrentCalls(maxConcurrentCalls);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of attempts to put a batch of events.
+     * Batches failing with a throttling or server error are retried with
+     * exponential backoff, and dropped once they run out of attempts.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Sets the maximum number of attempts to put a batch of events.
+     *
+     * @param maxAttempts
+     *            the number of attempts, must be positive
+     */
+    public void setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts " + maxAttempts
+                    + " must be positive");
+        }
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Sets the maximum number of attempts to put a batch of events, and
+     * returns the updated object so that additional method calls can be
+     * chained together.
+     */
+    public LogEventPublisherConfig withMaxAttempts(int maxAttempts) {
+        setMaxAttempts(maxAttempts);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "LogEventPublisherConfig [maxBatchCount=" + maxBatchCount + ", maxBatchSizeBytes="
+                + maxBatchSizeBytes + ", maxBatchDelayMillis=" + maxBatchDelayMillis
+                + ", maxBufferedEvents=" + maxBufferedEvents + ", overflowPolicy="
+                + overflowPolicy + ", maxConcurrentCalls=" + maxConcurrentCalls
+                + ", maxAttempts=" + maxAttempts + "]";
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.logs.buffered;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.amazonaws.services.logs.model.InputLogEvent;
+
+/**
+ * The events buffered for one log stream by a {@link LogEventPublisher}, and
+ * the sequence token of the stream. Fields are guarded by the monitor of the
+ * buffer, except the sequence token which is only used by the thread sending
+ * the events of the stream.
+ */
+class LogStreamBuffer {
+
+    private static final Comparator<BufferedEvent> BY_TIMESTAMP = new Comparator<BufferedEvent>() {
+        @Override
+        public int compare(BufferedEvent e1, BufferedEvent e2) {
+            return e1.timestamp < e2.timestamp ? -1 : (e1.timestamp == e2.timestamp ? 0 : 1);
+        }
+    };
+
+    final String logGroupName;
+    final String logStreamName;
+
+    /**
+     * The buffered events, oldest first; in publication order, except for
+     * those left over by {@link #pack(LogEventPublisherConfig)} which come
+     * first in timestamp order.
+     */
+    final ArrayDeque<BufferedEvent> events;
+    long bufferedBytes;
+
+    /** when the oldest buffered event was published */
+    long oldestAddedNanos;
+
+    /** true while a thread is sending the events of the stream */
+    boolean draining;
+
+    /** true to send all buffered events without waiting for the batch delay */
+    boolean flushRequested;
+
+    String sequenceToken;
+
+    LogStreamBuffer(String logGroupName, String logStreamName, int capacity) {
+        this.logGroupName = logGroupName;
+        this.logStreamName = logStreamName;
+        this.events = new ArrayDeque<BufferedEvent>(capacity);
+    }
+
+    void add(BufferedEvent event) {
+        if (events.isEmpty()) {
+            oldestAddedNanos = System.nanoTime();
+        }
+        events.addLast(event);
+        bufferedBytes += event.size;
+    }
+
+    BufferedEvent removeOldest() {
+        BufferedEvent event = events.removeFirst();
+        bufferedBytes -= event.size;
+        return event;
+    }
+
+    /**
+     * Returns whether the buffered events should be sent now rather than wait
+     * for more events.
+     */
+    boolean isReady(LogEventPublisherConfig config, long nowNanos) {
+        if (events.isEmpty()) {
+            return false;
+        }
+        return flushRequested
+                || events.size() >= config.getMaxBatchCount()
+                || events.size() >= config.getMaxBufferedEvents()
+                || bufferedBytes >= config.getMaxBatchSizeBytes()
+                || nowNanos - oldestAddedNanos
+                        >= TimeUnit.MILLISECONDS.toNanos(config.getMaxBatchDelayMillis());
+    }
+
+    /**
+     * Removes the buffered events with the earliest timestamps that fit in one
+     * PutLogEvents call, and returns them in timestamp order. The events left
+     * over stay in the buffer in timestamp order, so that sorting them again
+     * along with events published later is cheap.
+     */
+    List<BufferedEvent> pack(LogEventPublisherConfig config) {
+        List<BufferedEvent> sorted = new ArrayList<BufferedEvent>(events);
+        Collections.sort(sorted, BY_TIMESTAMP);
+
+        long firstTimestamp = sorted.get(0).timestamp;
+        int count = 0;
+        long batchBytes = 0;
+        while (count < sorted.size() && count < config.getMaxBatchCount()) {
+            BufferedEvent event = sorted.get(count);
+            if (batchBytes + event.size > config.getMaxBatchSizeBytes()
+                    || event.timestamp - firstTimestamp
+                            >= LogEventPublisherConfig.SERVICE_MAX_BATCH_SPAN_MILLIS) {
+                break;
+            }
+            batchBytes += event.size;
+            count++;
+        }
+
+        events.clear();
+        events.addAll(sorted.subList(count, sorted.size()));
+        bufferedBytes -= batchBytes;
+        if (events.isEmpty()) {
+            flushRequested = false;
+        }
+        return new ArrayList<BufferedEvent>(sorted.subList(0, count));
+    }
+
+    static class BufferedEvent {
+        final long timestamp;
+        final String message;
+        final int size;
+
+        BufferedEvent(long timestamp, String message, int size) {
+            this.timestamp = timestamp;
+            this.message = message;
+            this.size = size;
+        }
+
+        InputLogEvent toInputLogEvent() {
+            return new InputLogEvent().withTimestamp(timestamp).withMessage(message);
+        }
+    }
+}
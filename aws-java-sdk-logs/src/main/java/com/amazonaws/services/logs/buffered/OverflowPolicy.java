@@ -0,0 +1,31 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.logs.buffered;
+
+/**
+ * What a {@link LogEventPublisher} does with an event published to a log
+ * stream whose buffer is full.
+ */
+public enum OverflowPolicy {
+
+    /** Blocks the publishing thread until the buffer has room for the event. */
+    BLOCK,
+
+    /** Discards the event being published. */
+    DROP_NEWEST,
+
+    /** Discards the oldest buffered event to make room for the event being published. */
+    DROP_OLDEST
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.logs.buffered;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.logs.AbstractAWSLogs;
+import com.amazonaws.services.logs.model.DataAlreadyAcceptedException;
+import com.amazonaws.services.logs.model.InputLogEvent;
+import com.amazonaws.services.logs.model.InvalidSequenceTokenException;
+import com.amazonaws.services.logs.model.PutLogEventsRequest;
+import com.amazonaws.services.logs.model.PutLogEventsResult;
+import com.amazonaws.util.StringUtils;
+
+public class LogEventPublisherTest {
+
+    private static final String GROUP = "group";
+
+    private static final String STREAM = "stream";
+
+    private static final long BASE_TIMESTAMP = 1450000000000L;
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    private StubLogs logs;
+
+    private LogEventPublisher publisher;
+
+    @Before
+    public void setUp() {
+        logs = new StubLogs();
+    }
+
+    @After
+    public void tearDown() {
+        logs.gate.countDown();
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+    }
+
+    @Test
+    public void testCallsChainSequenceTokens() throws Exception {
+        publisher = new LogEventPublisher(logs, config());
+        for (int i = 0; i < 25000; i++) {
+            publisher.publish(GROUP, STREAM, event(i, "event-" + i));
+        }
+        flushAndWait();
+
+        assertNull(logs.calls.get(0).sequenceToken);
+        for (int i = 1; i < logs.calls.size(); i++) {
+            assertEquals("token-" + i, logs.calls.get(i).sequenceToken);
+        }
+        assertEquals(0, logs.rejectedCalls);
+        int maxCount = 0;
+        for (Call call : logs.calls) {
+            assertTrue(call.events.size() <= LogEventPublisherConfig.SERVICE_MAX_BATCH_COUNT);
+            maxCount = Math.max(maxCount, call.events.size());
+        }
+        assertEquals(LogEventPublisherConfig.SERVICE_MAX_BATCH_COUNT, maxCount);
+        assertAccepted(0, 25000);
+        assertEquals(25000, publisher.getSentEventCount());
+        assertEquals(0, publisher.getDroppedEventCount());
+    }
+
+    @Test
+    public void testInvalidSequenceTokenIsRecovered() throws Exception {
+        // the stream was written to before, and is written to by someone else
+        logs.writeElsewhere();
+        publisher = new LogEventPublisher(logs, config());
+        for (int i = 0; i < 10; i++) {
+            publisher.publish(GROUP, STREAM, event(i, "event-" + i));
+        }
+        flushAndWait();
+        logs.writeElsewhere();
+        for (int i = 10; i < 20; i++) {
+            publisher.publish(GROUP, STREAM, event(i, "event-" + i));
+        }
+        flushAndWait();
+
+        assertEquals(2, logs.rejectedCalls);
+        assertEquals(4, logs.calls.size());
+        assertNull(logs.calls.get(0).sequenceToken);
+        assertEquals("elsewhere-1", logs.calls.get(1).sequenceToken);
+        assertEquals("token-1", logs.calls.get(2).sequenceToken);
+        assertEquals("elsewhere-2", logs.calls.get(3).sequenceToken);
+        assertAccepted(0, 20);
+        assertEquals(20, publisher.getSentEventCount());
+        assertEquals(0, publisher.getDroppedEventCount());
+    }
+
+    @Test
+    public void testDataAlreadyAcceptedCountsAsSent() throws Exception {
+        // the first call goes through but its response is lost
+        logs.loseResponseOfCall = 1;
+        publisher = new LogEventPublisher(logs, config());
+        for (int i = 0; i < 10; i++) {
+            publisher.publish(GROUP, STREAM, event(i, "event-" + i));
+        }
+        flushAndWait();
+        for (int i = 10; i < 20; i++) {
+            publisher.publish(GROUP, STREAM, event(i, "event-" + i));
+        }
+        flushAndWait();
+
+        // the retry is told the data was accepted, and the next call chains on
+        assertEquals(3, logs.calls.size());
+        assertNull(logs.calls.get(1).sequenceToken);
+        assertEquals("token-1", logs.calls.get(2).sequenceToken);
+        assertEquals(1, logs.rejectedCalls);
+        assertAccepted(0, 20);
+        assertEquals(20, publisher.getSentEventCount());
+        assertEquals(0, publisher.getDroppedEventCount());
+    }
+
+    @Test
+    public void testBatchesHoldAtMost1MBCountingEventOverhead() throws Exception {
+        publisher = new LogEventPublisher(logs, config());
+        for (int i = 0; i < 300; i++) {
+            // two bytes per character in UTF-8
+            publisher.publish(GROUP, STREAM, event(i, repeat('\u00e9', 5000 + i * 7919 % 5000)));
+        }
+        flushAndWait();
+
+        // each call is closed by the first event that does not fit
+        int next = 0;
+        for (int c = 0; c < logs.calls.size(); c++) {
+            long bytes = 0;
+            for (InputLogEvent event : logs.calls.get(c).events) {
+                assertEquals(BASE_TIMESTAMP + next++, event.getTimestamp().longValue());
+                bytes += size(event);
+            }
+            assertTrue(bytes <= LogEventPublisherConfig.SERVICE_MAX_BATCH_SIZE_BYTES);
+            if (c < logs.calls.size() - 1) {
+                assertTrue(bytes + size(logs.calls.get(c + 1).events.get(0))
+                        > LogEventPublisherConfig.SERVICE_MAX_BATCH_SIZE_BYTES);
+            }
+        }
+        assertEquals(300, next);
+    }
+
+    @Test
+    public void testBatchesAreSortedAndSpanLessThan24Hours() throws Exception {
+        publisher = new LogEventPublisher(logs, config());
+        long[] offsets = { 48 * HOUR, 30 * HOUR, 24 * HOUR, 24 * HOUR - 1, HOUR, 0 };
+        for (long offset : offsets) {
+            publisher.publish(GROUP, STREAM, new InputLogEvent()
+                    .withTimestamp(BASE_TIMESTAMP + offset)
+                    .withMessage(Long.toString(offset)));
+        }
+        flushAndWait();
+
+        assertEquals(3, logs.calls.size());
+        assertEquals(3, logs.calls.get(0).events.size());
+        assertEquals(BASE_TIMESTAMP, logs.calls.get(0).events.get(0).getTimestamp().longValue());
+        assertEquals(BASE_TIMESTAMP + HOUR, logs.calls.get(0).events.get(1).getTimestamp().longValue());
+        assertEquals(BASE_TIMESTAMP + 24 * HOUR - 1, logs.calls.get(0).events.get(2).getTimestamp().longValue());
+        assertEquals(2, logs.calls.get(1).events.size());
+        assertEquals(BASE_TIMESTAMP + 24 * HOUR, logs.calls.get(1).events.get(0).getTimestamp().longValue());
+        assertEquals(1, logs.calls.get(2).events.size());
+    }
+
+    @Test
+    public void testDropNewestDropsEventsPublishedToAFullBuffer() throws Exception {
+        publisher = fillWhileCallInFlight(OverflowPolicy.DROP_NEWEST);
+        for (int i = 20; i < 25; i++) {
+            assertFalse(publisher.publish(GROUP, STREAM, event(i, "event-" + i)));
+        }
+        logs.gate.countDown();
+        flushAndWait();
+
+        assertAccepted(0, 20);
+        assertEquals(20, publisher.getSentEventCount());
+        assertEquals(5, publisher.getDroppedEventCount());
+    }
+
+    @Test
+    public void testDropOldestDropsTheOldestBufferedEvents() throws Exception {
+        publisher = fillWhileCallInFlight(OverflowPolicy.DROP_OLDEST);
+        for (int i = 20; i < 25; i++) {
+            assertTrue(publisher.publish(GROUP, STREAM, event(i, "event-" + i)));
+        }
+        logs.gate.countDown();
+        flushAndWait();
+
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 25; i++) {
+            if (i < 10 || i >= 15) {
+                expected.add("event-" + i);
+            }
+        }
+        assertEquals(expected, logs.acceptedMessages());
+        assertEquals(20, publisher.getSentEventCount());
+        assertEquals(5, publisher.getDroppedEventCount());
+    }
+
+    @Test
+    public void testBlockWaitsForRoomInTheBuffer() throws Exception {
+        publisher = fillWhileCallInFlight(OverflowPolicy.BLOCK);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Void> blocked = executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int i = 20; i < 25; i++) {
+                        assertTrue(publisher.publish(GROUP, STREAM, event(i, "event-" + i)));
+                    }
+                    return null;
+                }
+            });
+            Thread.sleep(200);
+            assertFalse(blocked.isDone());
+
+            logs.gate.countDown();
+            blocked.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        flushAndWait();
+
+        assertAccepted(0, 25);
+        assertEquals(0, publisher.getDroppedEventCount());
+    }
+
+    /**
+     * Returns a publisher with a buffer of 10 events, the first 10 of which
+     * are in a call held by the stub and the next 10 buffered.
+     */
+    private LogEventPublisher fillWhileCallInFlight(OverflowPolicy overflowPolicy) throws Exception {
+        logs.gate = new CountDownLatch(1);
+        LogEventPublisher publisher = new LogEventPublisher(logs, config()
+                .withMaxBufferedEvents(10)
+                .withOverflowPolicy(overflowPolicy));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(publisher.publish(GROUP, STREAM, event(i, "event-" + i)));
+        }
+        assertTrue(logs.called.await(5, TimeUnit.SECONDS));
+        for (int i = 10; i < 20; i++) {
+            assertTrue(publisher.publish(GROUP, STREAM, event(i, "event-" + i)));
+        }
+        return publisher;
+    }
+
+    /**
+     * Returns a configuration under which events are only sent when a call
+     * is full or on a flush.
+     */
+    private static LogEventPublisherConfig config() {
+        return new LogEventPublisherConfig().withMaxBatchDelayMillis(60000);
+    }
+
+    private void flushAndWait() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30000;
+        while (publisher.getOutstandingEventCount() > 0) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            publisher.flush();
+            Thread.sleep(10);
+        }
+    }
+
+    private void assertAccepted(int from, int to) {
+        List<String> expected = new ArrayList<String>();
+        for (int i = from; i < to; i++) {
+            expected.add("event-" + i);
+        }
+        assertEquals(expected, logs.acceptedMessages());
+    }
+
+    private static InputLogEvent event(int i, String message) {
+        return new InputLogEvent().withTimestamp(BASE_TIMESTAMP + i).withMessage(message);
+    }
+
+    private static int size(InputLogEvent event) {
+        return event.getMessage().getBytes(StringUtils.UTF8).length + 26;
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder sb = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static class Call {
+        private final String sequenceToken;
+        private final List<InputLogEvent> events;
+
+        Call(String sequenceToken, List<InputLogEvent> events) {
+            this.sequenceToken = sequenceToken;
+            this.events = events;
+        }
+    }
+
+    /**
+     * A single log stream checking sequence tokens as CloudWatch Logs does: a
+     * call must carry the token returned by the last accepted call, or none
+     * for a new stream, and a call repeating the last accepted call is told
+     * its data was already accepted.
+     */
+    private static class StubLogs extends AbstractAWSLogs {
+        private final List<Call> calls = Collections.synchronizedList(new ArrayList<Call>());
+        private final List<InputLogEvent> accepted = new ArrayList<InputLogEvent>();
+        private final CountDownLatch called = new CountDownLatch(1);
+
+        /** held by the calls until counted down */
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        /** the call whose response is lost after it is accepted, if any */
+        private volatile int loseResponseOfCall;
+
+        private String expectedToken;
+        private Call lastAccepted;
+        private int acceptedCount;
+        private int elsewhereCount;
+        private int rejectedCalls;
+
+        synchronized void writeElsewhere() {
+            expectedToken = "elsewhere-" + ++elsewhereCount;
+            lastAccepted = null;
+        }
+
+        synchronized List<String> acceptedMessages() {
+            List<String> messages = new ArrayList<String>();
+            for (InputLogEvent event : accepted) {
+                messages.add(event.getMessage());
+            }
+            return messages;
+        }
+
+        @Override
+        public PutLogEventsResult putLogEvents(PutLogEventsRequest request) {
+            assertEquals(GROUP, request.getLogGroupName());
+            assertEquals(STREAM, request.getLogStreamName());
+            Call call = new Call(request.getSequenceToken(),
+                    new ArrayList<InputLogEvent>(request.getLogEvents()));
+            calls.add(call);
+            called.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            synchronized (this) {
+                String token = call.sequenceToken;
+                if (token == null ? expectedToken != null : !token.equals(expectedToken)) {
+                    rejectedCalls++;
+                    if (lastAccepted != null && equal(token, lastAccepted.sequenceToken)
+                            && call.events.equals(lastAccepted.events)) {
+                        throw new DataAlreadyAcceptedException("already accepted")
+                                .withExpectedSequenceToken(expectedToken);
+                    }
+                    throw new InvalidSequenceTokenException("invalid token")
+                            .withExpectedSequenceToken(expectedToken);
+                }
+                accepted.addAll(call.events);
+                lastAccepted = call;
+                expectedToken = "token-" + ++acceptedCount;
+                if (calls.size() == loseResponseOfCall) {
+                    AmazonServiceException e = new AmazonServiceException("lost response");
+                    e.setStatusCode(503);
+                    throw e;
+                }
+                return new PutLogEventsResult().withNextSequenceToken(expectedToken);
+            }
+        }
+
+        private static boolean equal(String left, String right) {
+            return left == null ? right == null : left.equals(right);
+        }
+    }
+}
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.AuthorizationAlreadyExistsException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.AuthorizationAlreadyExistsException;
 public class AuthorizationAlreadyExistsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public AuthorizationAlreadyExistsExceptionUnmarshaller() {
-        super(AuthorizationAlreadyExistsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("AuthorizationAlreadyExists"))
-            return null;
-
-        AuthorizationAlreadyExistsException e = (AuthorizationAlreadyExistsException)super.unmarshall(node);
-        
-        return e;
+        super(AuthorizationAlreadyExistsException.class, "AuthorizationAlreadyExists");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.DBClusterNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.DBClusterNotFoundException;
 public class DBClusterNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public DBClusterNotFoundExceptionUnmarshaller() {
-        super(DBClusterNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DBClusterNotFoundFault"))
-            return null;
-
-        DBClusterNotFoundException e = (DBClusterNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(DBClusterNotFoundException.class, "DBClusterNotFoundFault");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.DBClusterParameterGroupNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.DBClusterParameterGroupNotFoundException
 public class DBClusterParameterGroupNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public DBClusterParameterGroupNotFoundExceptionUnmarshaller() {
-        super(DBClusterParameterGroupNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DBClusterParameterGroupNotFound"))
-            return null;
-
-        DBClusterParameterGroupNotFoundException e = (DBClusterParameterGroupNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(DBClusterParameterGroupNotFoundException.class, "DBClusterParameterGroupNotFound");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.DBInstanceAlreadyExistsException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.DBInstanceAlreadyExistsException;
 public class DBInstanceAlreadyExistsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public DBInstanceAlreadyExistsExceptionUnmarshaller() {
-        super(DBInstanceAlreadyExistsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DBInstanceAlreadyExists"))
-            return null;
-
-        DBInstanceAlreadyExistsException e = (DBInstanceAlreadyExistsException)super.unmarshall(node);
-        
-        return e;
+        super(DBInstanceAlreadyExistsException.class, "DBInstanceAlreadyExists");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.DBParameterGroupAlreadyExistsException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.DBParameterGroupAlreadyExistsException;
 public class DBParameterGroupAlreadyExistsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public DBParameterGroupAlreadyExistsExceptionUnmarshaller() {
-        super(DBParameterGroupAlreadyExistsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DBParameterGroupAlreadyExists"))
-            return null;
-
-        DBParameterGroupAlreadyExistsException e = (DBParameterGroupAlreadyExistsException)super.unmarshall(node);
-        
-        return e;
+        super(DBParameterGroupAlreadyExistsException.class, "DBParameterGroupAlreadyExists");
     }
 }
     
\ No newline at end of file
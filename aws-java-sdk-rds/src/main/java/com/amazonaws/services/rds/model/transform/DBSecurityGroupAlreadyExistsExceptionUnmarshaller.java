@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.DBSecurityGroupAlreadyExistsException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.DBSecurityGroupAlreadyExistsException;
 public class DBSecurityGroupAlreadyExistsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public DBSecurityGroupAlreadyExistsExceptionUnmarshaller() {
-        super(DBSecurityGroupAlreadyExistsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DBSecurityGroupAlreadyExists"))
-            return null;
-
-        DBSecurityGroupAlreadyExistsException e = (DBSecurityGroupAlreadyExistsException)super.unmarshall(node);
-        
-        return e;
+        super(DBSecurityGroupAlreadyExistsException.class, "DBSecurityGroupAlreadyExists");
     }
 }
     
\ No newline at end of file
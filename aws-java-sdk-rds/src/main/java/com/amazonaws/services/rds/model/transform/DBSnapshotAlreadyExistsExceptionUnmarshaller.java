@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.DBSnapshotAlreadyExistsException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.DBSnapshotAlreadyExistsException;
 public class DBSnapshotAlreadyExistsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public DBSnapshotAlreadyExistsExceptionUnmarshaller() {
-        super(DBSnapshotAlreadyExistsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DBSnapshotAlreadyExists"))
-            return null;
-
-        DBSnapshotAlreadyExistsException e = (DBSnapshotAlreadyExistsException)super.unmarshall(node);
-        
-        return e;
+        super(DBSnapshotAlreadyExistsException.class, "DBSnapshotAlreadyExists");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.DBSubnetGroupDoesNotCoverEnoughAZsException;
@@ -25,19 +21,8 @@ import com.amazonaws.services.rds.model.DBSubnetGroupDoesNotCoverEnoughAZsExcept
 public class DBSubnetGroupDoesNotCoverEnoughAZsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public DBSubnetGroupDoesNotCoverEnoughAZsExceptionUnmarshaller() {
-        super(DBSubnetGroupDoesNotCoverEnoughAZsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DBSubnetGroupDoesNotCoverEnoughAZs"))
-            return null;
-
-        DBSubnetGroupDoesNotCoverEnoughAZsException e = (DBSubnetGroupDoesNotCoverEnoughAZsException)super.unmarshall(node);
-        
-        return e;
+        super(DBSubnetGroupDoesNotCoverEnoughAZsException.class,
+                "DBSubnetGroupDoesNotCoverEnoughAZs");
     }
 }
     
\ No newline at end of file
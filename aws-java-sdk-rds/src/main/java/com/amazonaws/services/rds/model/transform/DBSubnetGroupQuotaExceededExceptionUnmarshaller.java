@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.DBSubnetGroupQuotaExceededException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.DBSubnetGroupQuotaExceededException;
 public class DBSubnetGroupQuotaExceededExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public DBSubnetGroupQuotaExceededExceptionUnmarshaller() {
-        super(DBSubnetGroupQuotaExceededException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DBSubnetGroupQuotaExceeded"))
-            return null;
-
-        DBSubnetGroupQuotaExceededException e = (DBSubnetGroupQuotaExceededException)super.unmarshall(node);
-        
-        return e;
+        super(DBSubnetGroupQuotaExceededException.class, "DBSubnetGroupQuotaExceeded");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.DBUpgradeDependencyFailureException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.DBUpgradeDependencyFailureException;
 public class DBUpgradeDependencyFailureExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public DBUpgradeDependencyFailureExceptionUnmarshaller() {
-        super(DBUpgradeDependencyFailureException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DBUpgradeDependencyFailure"))
-            return null;
-
-        DBUpgradeDependencyFailureException e = (DBUpgradeDependencyFailureException)super.unmarshall(node);
-        
-        return e;
+        super(DBUpgradeDependencyFailureException.class, "DBUpgradeDependencyFailure");
     }
 }
     
\ No newline at end of file
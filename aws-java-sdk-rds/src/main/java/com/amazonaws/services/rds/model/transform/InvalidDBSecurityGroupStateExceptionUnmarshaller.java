@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.InvalidDBSecurityGroupStateException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.InvalidDBSecurityGroupStateException;
 public class InvalidDBSecurityGroupStateExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidDBSecurityGroupStateExceptionUnmarshaller() {
-        super(InvalidDBSecurityGroupStateException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidDBSecurityGroupState"))
-            return null;
-
-        InvalidDBSecurityGroupStateException e = (InvalidDBSecurityGroupStateException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidDBSecurityGroupStateException.class, "InvalidDBSecurityGroupState");
     }
 }
     
\ No newline at end of file
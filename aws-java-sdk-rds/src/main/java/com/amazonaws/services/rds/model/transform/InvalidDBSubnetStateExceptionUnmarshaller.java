@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.InvalidDBSubnetStateException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.InvalidDBSubnetStateException;
 public class InvalidDBSubnetStateExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidDBSubnetStateExceptionUnmarshaller() {
-        super(InvalidDBSubnetStateException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidDBSubnetStateFault"))
-            return null;
-
-        InvalidDBSubnetStateException e = (InvalidDBSubnetStateException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidDBSubnetStateException.class, "InvalidDBSubnetStateFault");
     }
 }
     
\ No newline at end of file
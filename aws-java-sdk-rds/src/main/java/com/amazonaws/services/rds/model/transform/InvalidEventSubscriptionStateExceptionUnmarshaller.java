@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.InvalidEventSubscriptionStateException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.InvalidEventSubscriptionStateException;
 public class InvalidEventSubscriptionStateExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidEventSubscriptionStateExceptionUnmarshaller() {
-        super(InvalidEventSubscriptionStateException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidEventSubscriptionState"))
-            return null;
-
-        InvalidEventSubscriptionStateException e = (InvalidEventSubscriptionStateException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidEventSubscriptionStateException.class, "InvalidEventSubscriptionState");
     }
 }
     
\ No newline at end of file
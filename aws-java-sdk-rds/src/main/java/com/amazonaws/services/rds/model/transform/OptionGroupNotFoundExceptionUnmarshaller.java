@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.OptionGroupNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.OptionGroupNotFoundException;
 public class OptionGroupNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public OptionGroupNotFoundExceptionUnmarshaller() {
-        super(OptionGroupNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("OptionGroupNotFoundFault"))
-            return null;
-
-        OptionGroupNotFoundException e = (OptionGroupNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(OptionGroupNotFoundException.class, "OptionGroupNotFoundFault");
     }
 }
     
\ No newline at end of file
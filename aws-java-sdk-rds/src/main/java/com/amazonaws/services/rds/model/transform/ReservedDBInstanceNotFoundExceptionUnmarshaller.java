@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.ReservedDBInstanceNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.ReservedDBInstanceNotFoundException;
 public class ReservedDBInstanceNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ReservedDBInstanceNotFoundExceptionUnmarshaller() {
-        super(ReservedDBInstanceNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ReservedDBInstanceNotFound"))
-            return null;
-
-        ReservedDBInstanceNotFoundException e = (ReservedDBInstanceNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(ReservedDBInstanceNotFoundException.class, "ReservedDBInstanceNotFound");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.ReservedDBInstanceQuotaExceededException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.ReservedDBInstanceQuotaExceededException
 public class ReservedDBInstanceQuotaExceededExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ReservedDBInstanceQuotaExceededExceptionUnmarshaller() {
-        super(ReservedDBInstanceQuotaExceededException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ReservedDBInstanceQuotaExceeded"))
-            return null;
-
-        ReservedDBInstanceQuotaExceededException e = (ReservedDBInstanceQuotaExceededException)super.unmarshall(node);
-        
-        return e;
+        super(ReservedDBInstanceQuotaExceededException.class, "ReservedDBInstanceQuotaExceeded");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.ReservedDBInstancesOfferingNotFoundException;
@@ -25,19 +21,8 @@ import com.amazonaws.services.rds.model.ReservedDBInstancesOfferingNotFoundExcep
 public class ReservedDBInstancesOfferingNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ReservedDBInstancesOfferingNotFoundExceptionUnmarshaller() {
-        super(ReservedDBInstancesOfferingNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ReservedDBInstancesOfferingNotFound"))
-            return null;
-
-        ReservedDBInstancesOfferingNotFoundException e = (ReservedDBInstancesOfferingNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(ReservedDBInstancesOfferingNotFoundException.class,
+                "ReservedDBInstancesOfferingNotFound");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.ResourceNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.ResourceNotFoundException;
 public class ResourceNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ResourceNotFoundExceptionUnmarshaller() {
-        super(ResourceNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ResourceNotFoundFault"))
-            return null;
-
-        ResourceNotFoundException e = (ResourceNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(ResourceNotFoundException.class, "ResourceNotFoundFault");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.StorageQuotaExceededException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.StorageQuotaExceededException;
 public class StorageQuotaExceededExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public StorageQuotaExceededExceptionUnmarshaller() {
-        super(StorageQuotaExceededException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("StorageQuotaExceeded"))
-            return null;
-
-        StorageQuotaExceededException e = (StorageQuotaExceededException)super.unmarshall(node);
-        
-        return e;
+        super(StorageQuotaExceededException.class, "StorageQuotaExceeded");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.SubnetAlreadyInUseException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.SubnetAlreadyInUseException;
 public class SubnetAlreadyInUseExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public SubnetAlreadyInUseExceptionUnmarshaller() {
-        super(SubnetAlreadyInUseException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("SubnetAlreadyInUse"))
-            return null;
-
-        SubnetAlreadyInUseException e = (SubnetAlreadyInUseException)super.unmarshall(node);
-        
-        return e;
+        super(SubnetAlreadyInUseException.class, "SubnetAlreadyInUse");
     }
 }
     
\ No newline at end of file
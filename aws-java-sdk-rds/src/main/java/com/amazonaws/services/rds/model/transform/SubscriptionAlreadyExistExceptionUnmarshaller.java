@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.rds.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.rds.model.SubscriptionAlreadyExistException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.rds.model.SubscriptionAlreadyExistException;
 public class SubscriptionAlreadyExistExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public SubscriptionAlreadyExistExceptionUnmarshaller() {
-        super(SubscriptionAlreadyExistException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("SubscriptionAlreadyExist"))
-            return null;
-
-        SubscriptionAlreadyExistException e = (SubscriptionAlreadyExistException)super.unmarshall(node);
-        
-        return e;
+        super(SubscriptionAlreadyExistException.class, "SubscriptionAlreadyExist");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.AuthorizationNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.AuthorizationNotFoundException;
 public class AuthorizationNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public AuthorizationNotFoundExceptionUnmarshaller() {
-        super(AuthorizationNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("AuthorizationNotFound"))
-            return null;
-
-        AuthorizationNotFoundException e = (AuthorizationNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(AuthorizationNotFoundException.class, "AuthorizationNotFound");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.ClusterAlreadyExistsException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.ClusterAlreadyExistsException;
 public class ClusterAlreadyExistsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ClusterAlreadyExistsExceptionUnmarshaller() {
-        super(ClusterAlreadyExistsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ClusterAlreadyExists"))
-            return null;
-
-        ClusterAlreadyExistsException e = (ClusterAlreadyExistsException)super.unmarshall(node);
-        
-        return e;
+        super(ClusterAlreadyExistsException.class, "ClusterAlreadyExists");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.ClusterParameterGroupAlreadyExistsException;
@@ -25,19 +21,8 @@ import com.amazonaws.services.redshift.model.ClusterParameterGroupAlreadyExistsE
 public class ClusterParameterGroupAlreadyExistsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ClusterParameterGroupAlreadyExistsExceptionUnmarshaller() {
-        super(ClusterParameterGroupAlreadyExistsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ClusterParameterGroupAlreadyExists"))
-            return null;
-
-        ClusterParameterGroupAlreadyExistsException e = (ClusterParameterGroupAlreadyExistsException)super.unmarshall(node);
-        
-        return e;
+        super(ClusterParameterGroupAlreadyExistsException.class,
+                "ClusterParameterGroupAlreadyExists");
     }
 }
     
\ No newline at end of file
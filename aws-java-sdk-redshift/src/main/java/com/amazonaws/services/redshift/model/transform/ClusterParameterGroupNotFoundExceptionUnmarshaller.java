@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.ClusterParameterGroupNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.ClusterParameterGroupNotFoundExcept
 public class ClusterParameterGroupNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ClusterParameterGroupNotFoundExceptionUnmarshaller() {
-        super(ClusterParameterGroupNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ClusterParameterGroupNotFound"))
-            return null;
-
-        ClusterParameterGroupNotFoundException e = (ClusterParameterGroupNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(ClusterParameterGroupNotFoundException.class, "ClusterParameterGroupNotFound");
     }
 }
     
\ No newline at end of file
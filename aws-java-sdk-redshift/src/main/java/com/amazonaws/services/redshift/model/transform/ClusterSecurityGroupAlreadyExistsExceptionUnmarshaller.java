@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.ClusterSecurityGroupAlreadyExistsException;
@@ -25,19 +21,8 @@ import com.amazonaws.services.redshift.model.ClusterSecurityGroupAlreadyExistsEx
 public class ClusterSecurityGroupAlreadyExistsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ClusterSecurityGroupAlreadyExistsExceptionUnmarshaller() {
-        super(ClusterSecurityGroupAlreadyExistsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ClusterSecurityGroupAlreadyExists"))
-            return null;
-
-        ClusterSecurityGroupAlreadyExistsException e = (ClusterSecurityGroupAlreadyExistsException)super.unmarshall(node);
-        
-        return e;
+        super(ClusterSecurityGroupAlreadyExistsException.class,
+                "ClusterSecurityGroupAlreadyExists");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.ClusterSecurityGroupNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.ClusterSecurityGroupNotFoundExcepti
 public class ClusterSecurityGroupNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ClusterSecurityGroupNotFoundExceptionUnmarshaller() {
-        super(ClusterSecurityGroupNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ClusterSecurityGroupNotFound"))
-            return null;
-
-        ClusterSecurityGroupNotFoundException e = (ClusterSecurityGroupNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(ClusterSecurityGroupNotFoundException.class, "ClusterSecurityGroupNotFound");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.ClusterSecurityGroupQuotaExceededException;
@@ -25,19 +21,8 @@ import com.amazonaws.services.redshift.model.ClusterSecurityGroupQuotaExceededEx
 public class ClusterSecurityGroupQuotaExceededExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ClusterSecurityGroupQuotaExceededExceptionUnmarshaller() {
-        super(ClusterSecurityGroupQuotaExceededException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("QuotaExceeded.ClusterSecurityGroup"))
-            return null;
-
-        ClusterSecurityGroupQuotaExceededException e = (ClusterSecurityGroupQuotaExceededException)super.unmarshall(node);
-        
-        return e;
+        super(ClusterSecurityGroupQuotaExceededException.class,
+                "QuotaExceeded.ClusterSecurityGroup");
     }
 }
     
\ No newline at end of file
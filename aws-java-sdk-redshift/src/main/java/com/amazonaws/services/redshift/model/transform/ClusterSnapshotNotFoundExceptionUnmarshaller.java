@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.ClusterSnapshotNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.ClusterSnapshotNotFoundException;
 public class ClusterSnapshotNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ClusterSnapshotNotFoundExceptionUnmarshaller() {
-        super(ClusterSnapshotNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ClusterSnapshotNotFound"))
-            return null;
-
-        ClusterSnapshotNotFoundException e = (ClusterSnapshotNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(ClusterSnapshotNotFoundException.class, "ClusterSnapshotNotFound");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.ClusterSubnetGroupAlreadyExistsException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.ClusterSubnetGroupAlreadyExistsExce
 public class ClusterSubnetGroupAlreadyExistsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ClusterSubnetGroupAlreadyExistsExceptionUnmarshaller() {
-        super(ClusterSubnetGroupAlreadyExistsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ClusterSubnetGroupAlreadyExists"))
-            return null;
-
-        ClusterSubnetGroupAlreadyExistsException e = (ClusterSubnetGroupAlreadyExistsException)super.unmarshall(node);
-        
-        return e;
+        super(ClusterSubnetGroupAlreadyExistsException.class, "ClusterSubnetGroupAlreadyExists");
     }
 }
     
\ No newline at end of file
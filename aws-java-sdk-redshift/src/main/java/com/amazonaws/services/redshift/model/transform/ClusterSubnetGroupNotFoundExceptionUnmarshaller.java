@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.ClusterSubnetGroupNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.ClusterSubnetGroupNotFoundException
 public class ClusterSubnetGroupNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ClusterSubnetGroupNotFoundExceptionUnmarshaller() {
-        super(ClusterSubnetGroupNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ClusterSubnetGroupNotFoundFault"))
-            return null;
-
-        ClusterSubnetGroupNotFoundException e = (ClusterSubnetGroupNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(ClusterSubnetGroupNotFoundException.class, "ClusterSubnetGroupNotFoundFault");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.ClusterSubnetGroupQuotaExceededException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.ClusterSubnetGroupQuotaExceededExce
 public class ClusterSubnetGroupQuotaExceededExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ClusterSubnetGroupQuotaExceededExceptionUnmarshaller() {
-        super(ClusterSubnetGroupQuotaExceededException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ClusterSubnetGroupQuotaExceeded"))
-            return null;
-
-        ClusterSubnetGroupQuotaExceededException e = (ClusterSubnetGroupQuotaExceededException)super.unmarshall(node);
-        
-        return e;
+        super(ClusterSubnetGroupQuotaExceededException.class, "ClusterSubnetGroupQuotaExceeded");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.HsmClientCertificateAlreadyExistsException;
@@ -25,19 +21,8 @@ import com.amazonaws.services.redshift.model.HsmClientCertificateAlreadyExistsEx
 public class HsmClientCertificateAlreadyExistsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public HsmClientCertificateAlreadyExistsExceptionUnmarshaller() {
-        super(HsmClientCertificateAlreadyExistsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("HsmClientCertificateAlreadyExistsFault"))
-            return null;
-
-        HsmClientCertificateAlreadyExistsException e = (HsmClientCertificateAlreadyExistsException)super.unmarshall(node);
-        
-        return e;
+        super(HsmClientCertificateAlreadyExistsException.class,
+                "HsmClientCertificateAlreadyExistsFault");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.HsmClientCertificateQuotaExceededException;
@@ -25,19 +21,8 @@ import com.amazonaws.services.redshift.model.HsmClientCertificateQuotaExceededEx
 public class HsmClientCertificateQuotaExceededExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public HsmClientCertificateQuotaExceededExceptionUnmarshaller() {
-        super(HsmClientCertificateQuotaExceededException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("HsmClientCertificateQuotaExceededFault"))
-            return null;
-
-        HsmClientCertificateQuotaExceededException e = (HsmClientCertificateQuotaExceededException)super.unmarshall(node);
-        
-        return e;
+        super(HsmClientCertificateQuotaExceededException.class,
+                "HsmClientCertificateQuotaExceededFault");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.InsufficientClusterCapacityException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.InsufficientClusterCapacityExceptio
 public class InsufficientClusterCapacityExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InsufficientClusterCapacityExceptionUnmarshaller() {
-        super(InsufficientClusterCapacityException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InsufficientClusterCapacity"))
-            return null;
-
-        InsufficientClusterCapacityException e = (InsufficientClusterCapacityException)super.unmarshall(node);
-        
-        return e;
+        super(InsufficientClusterCapacityException.class, "InsufficientClusterCapacity");
     }
 }
     
\ No newline at end of file
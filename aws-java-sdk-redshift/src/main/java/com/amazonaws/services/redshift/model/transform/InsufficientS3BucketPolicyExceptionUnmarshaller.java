@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.InsufficientS3BucketPolicyException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.InsufficientS3BucketPolicyException
 public class InsufficientS3BucketPolicyExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InsufficientS3BucketPolicyExceptionUnmarshaller() {
-        super(InsufficientS3BucketPolicyException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InsufficientS3BucketPolicyFault"))
-            return null;
-
-        InsufficientS3BucketPolicyException e = (InsufficientS3BucketPolicyException)super.unmarshall(node);
-        
-        return e;
+        super(InsufficientS3BucketPolicyException.class, "InsufficientS3BucketPolicyFault");
     }
 }
     
\ No newline at end of file
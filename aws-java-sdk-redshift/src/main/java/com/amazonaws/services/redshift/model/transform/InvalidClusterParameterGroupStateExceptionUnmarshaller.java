@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.InvalidClusterParameterGroupStateException;
@@ -25,19 +21,8 @@ import com.amazonaws.services.redshift.model.InvalidClusterParameterGroupStateEx
 public class InvalidClusterParameterGroupStateExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidClusterParameterGroupStateExceptionUnmarshaller() {
-        super(InvalidClusterParameterGroupStateException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidClusterParameterGroupState"))
-            return null;
-
-        InvalidClusterParameterGroupStateException e = (InvalidClusterParameterGroupStateException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidClusterParameterGroupStateException.class,
+                "InvalidClusterParameterGroupState");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.InvalidClusterSecurityGroupStateException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.InvalidClusterSecurityGroupStateExc
 public class InvalidClusterSecurityGroupStateExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidClusterSecurityGroupStateExceptionUnmarshaller() {
-        super(InvalidClusterSecurityGroupStateException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidClusterSecurityGroupState"))
-            return null;
-
-        InvalidClusterSecurityGroupStateException e = (InvalidClusterSecurityGroupStateException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidClusterSecurityGroupStateException.class, "InvalidClusterSecurityGroupState");
     }
 }
     
\ No newline at end of file
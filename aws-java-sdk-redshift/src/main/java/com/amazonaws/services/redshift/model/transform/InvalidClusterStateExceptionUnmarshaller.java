@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.InvalidClusterStateException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.InvalidClusterStateException;
 public class InvalidClusterStateExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidClusterStateExceptionUnmarshaller() {
-        super(InvalidClusterStateException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidClusterState"))
-            return null;
-
-        InvalidClusterStateException e = (InvalidClusterStateException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidClusterStateException.class, "InvalidClusterState");
     }
 }
     
\ No newline at end of file
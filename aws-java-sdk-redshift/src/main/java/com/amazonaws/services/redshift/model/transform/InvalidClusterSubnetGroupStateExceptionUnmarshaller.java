@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.InvalidClusterSubnetGroupStateException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.InvalidClusterSubnetGroupStateExcep
 public class InvalidClusterSubnetGroupStateExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidClusterSubnetGroupStateExceptionUnmarshaller() {
-        super(InvalidClusterSubnetGroupStateException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidClusterSubnetGroupStateFault"))
-            return null;
-
-        InvalidClusterSubnetGroupStateException e = (InvalidClusterSubnetGroupStateException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidClusterSubnetGroupStateException.class, "InvalidClusterSubnetGroupStateFault");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.InvalidHsmClientCertificateStateException;
@@ -25,19 +21,8 @@ import com.amazonaws.services.redshift.model.InvalidHsmClientCertificateStateExc
 public class InvalidHsmClientCertificateStateExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidHsmClientCertificateStateExceptionUnmarshaller() {
-        super(InvalidHsmClientCertificateStateException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidHsmClientCertificateStateFault"))
-            return null;
-
-        InvalidHsmClientCertificateStateException e = (InvalidHsmClientCertificateStateException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidHsmClientCertificateStateException.class,
+                "InvalidHsmClientCertificateStateFault");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.InvalidHsmConfigurationStateException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.InvalidHsmConfigurationStateExcepti
 public class InvalidHsmConfigurationStateExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidHsmConfigurationStateExceptionUnmarshaller() {
-        super(InvalidHsmConfigurationStateException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidHsmConfigurationStateFault"))
-            return null;
-
-        InvalidHsmConfigurationStateException e = (InvalidHsmConfigurationStateException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidHsmConfigurationStateException.class, "InvalidHsmConfigurationStateFault");
     }
 }
     
\ No newline at end of file
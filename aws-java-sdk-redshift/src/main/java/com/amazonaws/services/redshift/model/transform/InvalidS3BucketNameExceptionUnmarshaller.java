@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.InvalidS3BucketNameException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.InvalidS3BucketNameException;
 public class InvalidS3BucketNameExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidS3BucketNameExceptionUnmarshaller() {
-        super(InvalidS3BucketNameException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidS3BucketNameFault"))
-            return null;
-
-        InvalidS3BucketNameException e = (InvalidS3BucketNameException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidS3BucketNameException.class, "InvalidS3BucketNameFault");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.InvalidS3KeyPrefixException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.InvalidS3KeyPrefixException;
 public class InvalidS3KeyPrefixExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidS3KeyPrefixExceptionUnmarshaller() {
-        super(InvalidS3KeyPrefixException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidS3KeyPrefixFault"))
-            return null;
-
-        InvalidS3KeyPrefixException e = (InvalidS3KeyPrefixException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidS3KeyPrefixException.class, "InvalidS3KeyPrefixFault");
     }
 }
     
\ No newline at end of file
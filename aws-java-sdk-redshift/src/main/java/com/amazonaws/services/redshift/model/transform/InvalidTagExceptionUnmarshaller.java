@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.InvalidTagException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.InvalidTagException;
 public class InvalidTagExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidTagExceptionUnmarshaller() {
-        super(InvalidTagException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidTagFault"))
-            return null;
-
-        InvalidTagException e = (InvalidTagException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidTagException.class, "InvalidTagFault");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.InvalidVPCNetworkStateException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.InvalidVPCNetworkStateException;
 public class InvalidVPCNetworkStateExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public InvalidVPCNetworkStateExceptionUnmarshaller() {
-        super(InvalidVPCNetworkStateException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidVPCNetworkStateFault"))
-            return null;
-
-        InvalidVPCNetworkStateException e = (InvalidVPCNetworkStateException)super.unmarshall(node);
-        
-        return e;
+        super(InvalidVPCNetworkStateException.class, "InvalidVPCNetworkStateFault");
     }
 }
     
\ No newline at end of file
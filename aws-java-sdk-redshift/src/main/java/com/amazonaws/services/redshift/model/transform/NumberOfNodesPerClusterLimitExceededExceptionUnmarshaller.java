@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.NumberOfNodesPerClusterLimitExceededException;
@@ -25,19 +21,8 @@ import com.amazonaws.services.redshift.model.NumberOfNodesPerClusterLimitExceede
 public class NumberOfNodesPerClusterLimitExceededExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public NumberOfNodesPerClusterLimitExceededExceptionUnmarshaller() {
-        super(NumberOfNodesPerClusterLimitExceededException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("NumberOfNodesPerClusterLimitExceeded"))
-            return null;
-
-        NumberOfNodesPerClusterLimitExceededException e = (NumberOfNodesPerClusterLimitExceededException)super.unmarshall(node);
-        
-        return e;
+        super(NumberOfNodesPerClusterLimitExceededException.class,
+                "NumberOfNodesPerClusterLimitExceeded");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.ReservedNodeAlreadyExistsException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.ReservedNodeAlreadyExistsException;
 public class ReservedNodeAlreadyExistsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ReservedNodeAlreadyExistsExceptionUnmarshaller() {
-        super(ReservedNodeAlreadyExistsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ReservedNodeAlreadyExists"))
-            return null;
-
-        ReservedNodeAlreadyExistsException e = (ReservedNodeAlreadyExistsException)super.unmarshall(node);
-        
-        return e;
+        super(ReservedNodeAlreadyExistsException.class, "ReservedNodeAlreadyExists");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.SNSTopicArnNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.SNSTopicArnNotFoundException;
 public class SNSTopicArnNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public SNSTopicArnNotFoundExceptionUnmarshaller() {
-        super(SNSTopicArnNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("SNSTopicArnNotFound"))
-            return null;
-
-        SNSTopicArnNotFoundException e = (SNSTopicArnNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(SNSTopicArnNotFoundException.class, "SNSTopicArnNotFound");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.SnapshotCopyDisabledException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.SnapshotCopyDisabledException;
 public class SnapshotCopyDisabledExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public SnapshotCopyDisabledExceptionUnmarshaller() {
-        super(SnapshotCopyDisabledException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("SnapshotCopyDisabledFault"))
-            return null;
-
-        SnapshotCopyDisabledException e = (SnapshotCopyDisabledException)super.unmarshall(node);
-        
-        return e;
+        super(SnapshotCopyDisabledException.class, "SnapshotCopyDisabledFault");
     }
 }
     
\ No newline at end of file
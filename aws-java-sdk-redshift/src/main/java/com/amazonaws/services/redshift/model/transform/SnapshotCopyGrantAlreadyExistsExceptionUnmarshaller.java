@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.SnapshotCopyGrantAlreadyExistsException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.SnapshotCopyGrantAlreadyExistsExcep
 public class SnapshotCopyGrantAlreadyExistsExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public SnapshotCopyGrantAlreadyExistsExceptionUnmarshaller() {
-        super(SnapshotCopyGrantAlreadyExistsException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("SnapshotCopyGrantAlreadyExistsFault"))
-            return null;
-
-        SnapshotCopyGrantAlreadyExistsException e = (SnapshotCopyGrantAlreadyExistsException)super.unmarshall(node);
-        
-        return e;
+        super(SnapshotCopyGrantAlreadyExistsException.class, "SnapshotCopyGrantAlreadyExistsFault");
     }
 }
     
\ No newline at end of file
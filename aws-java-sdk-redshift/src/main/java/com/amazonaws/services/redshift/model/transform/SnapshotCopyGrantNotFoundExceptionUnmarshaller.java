@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.SnapshotCopyGrantNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.SnapshotCopyGrantNotFoundException;
 public class SnapshotCopyGrantNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public SnapshotCopyGrantNotFoundExceptionUnmarshaller() {
-        super(SnapshotCopyGrantNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("SnapshotCopyGrantNotFoundFault"))
-            return null;
-
-        SnapshotCopyGrantNotFoundException e = (SnapshotCopyGrantNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(SnapshotCopyGrantNotFoundException.class, "SnapshotCopyGrantNotFoundFault");
     }
 }
     
\ No newline at end of file
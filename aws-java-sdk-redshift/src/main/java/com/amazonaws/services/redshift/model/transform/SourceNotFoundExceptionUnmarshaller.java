@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.SourceNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.SourceNotFoundException;
 public class SourceNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public SourceNotFoundExceptionUnmarshaller() {
-        super(SourceNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("SourceNotFound"))
-            return null;
-
-        SourceNotFoundException e = (SourceNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(SourceNotFoundException.class, "SourceNotFound");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.SubscriptionCategoryNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.SubscriptionCategoryNotFoundExcepti
 public class SubscriptionCategoryNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public SubscriptionCategoryNotFoundExceptionUnmarshaller() {
-        super(SubscriptionCategoryNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("SubscriptionCategoryNotFound"))
-            return null;
-
-        SubscriptionCategoryNotFoundException e = (SubscriptionCategoryNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(SubscriptionCategoryNotFoundException.class, "SubscriptionCategoryNotFound");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.SubscriptionEventIdNotFoundException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.SubscriptionEventIdNotFoundExceptio
 public class SubscriptionEventIdNotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public SubscriptionEventIdNotFoundExceptionUnmarshaller() {
-        super(SubscriptionEventIdNotFoundException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("SubscriptionEventIdNotFound"))
-            return null;
-
-        SubscriptionEventIdNotFoundException e = (SubscriptionEventIdNotFoundException)super.unmarshall(node);
-        
-        return e;
+        super(SubscriptionEventIdNotFoundException.class, "SubscriptionEventIdNotFound");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.UnknownSnapshotCopyRegionException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.UnknownSnapshotCopyRegionException;
 public class UnknownSnapshotCopyRegionExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public UnknownSnapshotCopyRegionExceptionUnmarshaller() {
-        super(UnknownSnapshotCopyRegionException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("UnknownSnapshotCopyRegionFault"))
-            return null;
-
-        UnknownSnapshotCopyRegionException e = (UnknownSnapshotCopyRegionException)super.unmarshall(node);
-        
-        return e;
+        super(UnknownSnapshotCopyRegionException.class, "UnknownSnapshotCopyRegionFault");
     }
 }
     
\ No newline at end of file
@@ -14,10 +14,6 @@
  */
 package com.amazonaws.services.redshift.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.redshift.model.UnsupportedOptionException;
@@ -25,19 +21,7 @@ import com.amazonaws.services.redshift.model.UnsupportedOptionException;
 public class UnsupportedOptionExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public UnsupportedOptionExceptionUnmarshaller() {
-        super(UnsupportedOptionException.class);
-    }
-
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("UnsupportedOptionFault"))
-            return null;
-
-        UnsupportedOptionException e = (UnsupportedOptionException)super.unmarshall(node);
-        
-        return e;
+        super(UnsupportedOptionException.class, "UnsupportedOptionFault");
     }
 }
     
\ No newline at end of file
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.ConcurrentModificationException;
@@ -28,20 +24,6 @@ public class ConcurrentModificationExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public ConcurrentModificationExceptionUnmarshaller() {
-        super(ConcurrentModificationException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ConcurrentModification"))
-            return null;
-
-        ConcurrentModificationException e = (ConcurrentModificationException) super
-                .unmarshall(node);
-
-        return e;
+        super(ConcurrentModificationException.class, "ConcurrentModification");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.DelegationSetAlreadyCreatedException;
@@ -28,21 +24,6 @@ public class DelegationSetAlreadyCreatedExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public DelegationSetAlreadyCreatedExceptionUnmarshaller() {
-        super(DelegationSetAlreadyCreatedException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("DelegationSetAlreadyCreated"))
-            return null;
-
-        DelegationSetAlreadyCreatedException e = (DelegationSetAlreadyCreatedException) super
-                .unmarshall(node);
-
-        return e;
+        super(DelegationSetAlreadyCreatedException.class, "DelegationSetAlreadyCreated");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.DelegationSetAlreadyReusableException;
@@ -28,21 +24,6 @@ public class DelegationSetAlreadyReusableExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public DelegationSetAlreadyReusableExceptionUnmarshaller() {
-        super(DelegationSetAlreadyReusableException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("DelegationSetAlreadyReusable"))
-            return null;
-
-        DelegationSetAlreadyReusableException e = (DelegationSetAlreadyReusableException) super
-                .unmarshall(node);
-
-        return e;
+        super(DelegationSetAlreadyReusableException.class, "DelegationSetAlreadyReusable");
     }
 }
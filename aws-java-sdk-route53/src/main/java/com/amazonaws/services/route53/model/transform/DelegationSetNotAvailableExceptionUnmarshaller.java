@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.DelegationSetNotAvailableException;
@@ -28,20 +24,6 @@ public class DelegationSetNotAvailableExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public DelegationSetNotAvailableExceptionUnmarshaller() {
-        super(DelegationSetNotAvailableException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DelegationSetNotAvailable"))
-            return null;
-
-        DelegationSetNotAvailableException e = (DelegationSetNotAvailableException) super
-                .unmarshall(node);
-
-        return e;
+        super(DelegationSetNotAvailableException.class, "DelegationSetNotAvailable");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.DelegationSetNotReusableException;
@@ -28,20 +24,6 @@ public class DelegationSetNotReusableExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public DelegationSetNotReusableExceptionUnmarshaller() {
-        super(DelegationSetNotReusableException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DelegationSetNotReusable"))
-            return null;
-
-        DelegationSetNotReusableException e = (DelegationSetNotReusableException) super
-                .unmarshall(node);
-
-        return e;
+        super(DelegationSetNotReusableException.class, "DelegationSetNotReusable");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.HealthCheckAlreadyExistsException;
@@ -28,20 +24,6 @@ public class HealthCheckAlreadyExistsExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public HealthCheckAlreadyExistsExceptionUnmarshaller() {
-        super(HealthCheckAlreadyExistsException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("HealthCheckAlreadyExists"))
-            return null;
-
-        HealthCheckAlreadyExistsException e = (HealthCheckAlreadyExistsException) super
-                .unmarshall(node);
-
-        return e;
+        super(HealthCheckAlreadyExistsException.class, "HealthCheckAlreadyExists");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.HealthCheckVersionMismatchException;
@@ -28,21 +24,6 @@ public class HealthCheckVersionMismatchExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public HealthCheckVersionMismatchExceptionUnmarshaller() {
-        super(HealthCheckVersionMismatchException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("HealthCheckVersionMismatch"))
-            return null;
-
-        HealthCheckVersionMismatchException e = (HealthCheckVersionMismatchException) super
-                .unmarshall(node);
-
-        return e;
+        super(HealthCheckVersionMismatchException.class, "HealthCheckVersionMismatch");
     }
 }
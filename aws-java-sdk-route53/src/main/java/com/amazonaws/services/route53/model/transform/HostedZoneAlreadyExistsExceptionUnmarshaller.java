@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.HostedZoneAlreadyExistsException;
@@ -28,20 +24,6 @@ public class HostedZoneAlreadyExistsExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public HostedZoneAlreadyExistsExceptionUnmarshaller() {
-        super(HostedZoneAlreadyExistsException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("HostedZoneAlreadyExists"))
-            return null;
-
-        HostedZoneAlreadyExistsException e = (HostedZoneAlreadyExistsException) super
-                .unmarshall(node);
-
-        return e;
+        super(HostedZoneAlreadyExistsException.class, "HostedZoneAlreadyExists");
     }
 }
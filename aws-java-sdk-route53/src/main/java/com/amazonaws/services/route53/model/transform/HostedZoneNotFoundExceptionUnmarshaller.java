@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.HostedZoneNotFoundException;
@@ -28,20 +24,6 @@ public class HostedZoneNotFoundExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public HostedZoneNotFoundExceptionUnmarshaller() {
-        super(HostedZoneNotFoundException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("HostedZoneNotFound"))
-            return null;
-
-        HostedZoneNotFoundException e = (HostedZoneNotFoundException) super
-                .unmarshall(node);
-
-        return e;
+        super(HostedZoneNotFoundException.class, "HostedZoneNotFound");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.InvalidTrafficPolicyDocumentException;
@@ -28,21 +24,6 @@ public class InvalidTrafficPolicyDocumentExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidTrafficPolicyDocumentExceptionUnmarshaller() {
-        super(InvalidTrafficPolicyDocumentException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("InvalidTrafficPolicyDocument"))
-            return null;
-
-        InvalidTrafficPolicyDocumentException e = (InvalidTrafficPolicyDocumentException) super
-                .unmarshall(node);
-
-        return e;
+        super(InvalidTrafficPolicyDocumentException.class, "InvalidTrafficPolicyDocument");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.NoSuchGeoLocationException;
@@ -28,20 +24,6 @@ public class NoSuchGeoLocationExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public NoSuchGeoLocationExceptionUnmarshaller() {
-        super(NoSuchGeoLocationException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("NoSuchGeoLocation"))
-            return null;
-
-        NoSuchGeoLocationException e = (NoSuchGeoLocationException) super
-                .unmarshall(node);
-
-        return e;
+        super(NoSuchGeoLocationException.class, "NoSuchGeoLocation");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.NoSuchHealthCheckException;
@@ -28,20 +24,6 @@ public class NoSuchHealthCheckExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public NoSuchHealthCheckExceptionUnmarshaller() {
-        super(NoSuchHealthCheckException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("NoSuchHealthCheck"))
-            return null;
-
-        NoSuchHealthCheckException e = (NoSuchHealthCheckException) super
-                .unmarshall(node);
-
-        return e;
+        super(NoSuchHealthCheckException.class, "NoSuchHealthCheck");
     }
 }
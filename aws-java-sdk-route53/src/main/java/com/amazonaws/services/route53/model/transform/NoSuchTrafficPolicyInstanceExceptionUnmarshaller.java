@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.NoSuchTrafficPolicyInstanceException;
@@ -28,21 +24,6 @@ public class NoSuchTrafficPolicyInstanceExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public NoSuchTrafficPolicyInstanceExceptionUnmarshaller() {
-        super(NoSuchTrafficPolicyInstanceException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("NoSuchTrafficPolicyInstance"))
-            return null;
-
-        NoSuchTrafficPolicyInstanceException e = (NoSuchTrafficPolicyInstanceException) super
-                .unmarshall(node);
-
-        return e;
+        super(NoSuchTrafficPolicyInstanceException.class, "NoSuchTrafficPolicyInstance");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.ThrottlingException;
@@ -27,19 +23,6 @@ import com.amazonaws.services.route53.model.ThrottlingException;
 public class ThrottlingExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public ThrottlingExceptionUnmarshaller() {
-        super(ThrottlingException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ThrottlingException"))
-            return null;
-
-        ThrottlingException e = (ThrottlingException) super.unmarshall(node);
-
-        return e;
+        super(ThrottlingException.class, "ThrottlingException");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.TooManyTrafficPoliciesException;
@@ -28,20 +24,6 @@ public class TooManyTrafficPoliciesExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public TooManyTrafficPoliciesExceptionUnmarshaller() {
-        super(TooManyTrafficPoliciesException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("TooManyTrafficPolicies"))
-            return null;
-
-        TooManyTrafficPoliciesException e = (TooManyTrafficPoliciesException) super
-                .unmarshall(node);
-
-        return e;
+        super(TooManyTrafficPoliciesException.class, "TooManyTrafficPolicies");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.TooManyTrafficPolicyInstancesException;
@@ -28,21 +24,6 @@ public class TooManyTrafficPolicyInstancesExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public TooManyTrafficPolicyInstancesExceptionUnmarshaller() {
-        super(TooManyTrafficPolicyInstancesException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("TooManyTrafficPolicyInstances"))
-            return null;
-
-        TooManyTrafficPolicyInstancesException e = (TooManyTrafficPolicyInstancesException) super
-                .unmarshall(node);
-
-        return e;
+        super(TooManyTrafficPolicyInstancesException.class, "TooManyTrafficPolicyInstances");
     }
 }
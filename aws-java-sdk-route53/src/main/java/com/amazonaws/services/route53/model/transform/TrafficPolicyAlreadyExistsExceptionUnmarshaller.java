@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.TrafficPolicyAlreadyExistsException;
@@ -28,21 +24,6 @@ public class TrafficPolicyAlreadyExistsExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public TrafficPolicyAlreadyExistsExceptionUnmarshaller() {
-        super(TrafficPolicyAlreadyExistsException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("TrafficPolicyAlreadyExists"))
-            return null;
-
-        TrafficPolicyAlreadyExistsException e = (TrafficPolicyAlreadyExistsException) super
-                .unmarshall(node);
-
-        return e;
+        super(TrafficPolicyAlreadyExistsException.class, "TrafficPolicyAlreadyExists");
     }
 }
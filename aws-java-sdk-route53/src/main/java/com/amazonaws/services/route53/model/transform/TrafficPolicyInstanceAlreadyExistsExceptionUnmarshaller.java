@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.route53.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.route53.model.TrafficPolicyInstanceAlreadyExistsException;
@@ -28,21 +24,7 @@ public class TrafficPolicyInstanceAlreadyExistsExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public TrafficPolicyInstanceAlreadyExistsExceptionUnmarshaller() {
-        super(TrafficPolicyInstanceAlreadyExistsException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("TrafficPolicyInstanceAlreadyExists"))
-            return null;
-
-        TrafficPolicyInstanceAlreadyExistsException e = (TrafficPolicyInstanceAlreadyExistsException) super
-                .unmarshall(node);
-
-        return e;
+        super(TrafficPolicyInstanceAlreadyExistsException.class,
+                "TrafficPolicyInstanceAlreadyExists");
     }
 }
@@ -28,21 +28,15 @@ public class AlreadyExistsExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public AlreadyExistsExceptionUnmarshaller() {
-        super(AlreadyExistsException.class);
+        super(AlreadyExistsException.class, "AlreadyExists");
     }
 
     @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("AlreadyExists"))
-            return null;
-
-        AlreadyExistsException e = (AlreadyExistsException) super
-                .unmarshall(node);
-        e.setName(XpathUtils.asString(getErrorPropertyPath("Name"), node));
-
+        AlreadyExistsException e = (AlreadyExistsException) super.unmarshall(node);
+        if (e != null) {
+            e.setName(XpathUtils.asString(getErrorPropertyPath("Name"), node));
+        }
         return e;
     }
 }
@@ -28,21 +28,15 @@ public class CannotDeleteExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public CannotDeleteExceptionUnmarshaller() {
-        super(CannotDeleteException.class);
+        super(CannotDeleteException.class, "CannotDelete");
     }
 
     @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("CannotDelete"))
-            return null;
-
-        CannotDeleteException e = (CannotDeleteException) super
-                .unmarshall(node);
-        e.setName(XpathUtils.asString(getErrorPropertyPath("Name"), node));
-
+        CannotDeleteException e = (CannotDeleteException) super.unmarshall(node);
+        if (e != null) {
+            e.setName(XpathUtils.asString(getErrorPropertyPath("Name"), node));
+        }
         return e;
     }
 }
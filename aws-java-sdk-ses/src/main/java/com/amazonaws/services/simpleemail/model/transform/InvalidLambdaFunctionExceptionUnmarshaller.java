@@ -28,22 +28,15 @@ public class InvalidLambdaFunctionExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidLambdaFunctionExceptionUnmarshaller() {
-        super(InvalidLambdaFunctionException.class);
+        super(InvalidLambdaFunctionException.class, "InvalidLambdaFunction");
     }
 
     @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidLambdaFunction"))
-            return null;
-
-        InvalidLambdaFunctionException e = (InvalidLambdaFunctionException) super
-                .unmarshall(node);
-        e.setFunctionArn(XpathUtils.asString(
-                getErrorPropertyPath("FunctionArn"), node));
-
+        InvalidLambdaFunctionException e = (InvalidLambdaFunctionException) super.unmarshall(node);
+        if (e != null) {
+            e.setFunctionArn(XpathUtils.asString(getErrorPropertyPath("FunctionArn"), node));
+        }
         return e;
     }
 }
@@ -28,21 +28,16 @@ public class InvalidS3ConfigurationExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidS3ConfigurationExceptionUnmarshaller() {
-        super(InvalidS3ConfigurationException.class);
+        super(InvalidS3ConfigurationException.class, "InvalidS3Configuration");
     }
 
     @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidS3Configuration"))
-            return null;
-
         InvalidS3ConfigurationException e = (InvalidS3ConfigurationException) super
                 .unmarshall(node);
-        e.setBucket(XpathUtils.asString(getErrorPropertyPath("Bucket"), node));
-
+        if (e != null) {
+            e.setBucket(XpathUtils.asString(getErrorPropertyPath("Bucket"), node));
+        }
         return e;
     }
 }
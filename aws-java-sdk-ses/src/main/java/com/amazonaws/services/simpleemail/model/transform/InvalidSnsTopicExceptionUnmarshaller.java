@@ -28,21 +28,15 @@ public class InvalidSnsTopicExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidSnsTopicExceptionUnmarshaller() {
-        super(InvalidSnsTopicException.class);
+        super(InvalidSnsTopicException.class, "InvalidSnsTopic");
     }
 
     @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidSnsTopic"))
-            return null;
-
-        InvalidSnsTopicException e = (InvalidSnsTopicException) super
-                .unmarshall(node);
-        e.setTopic(XpathUtils.asString(getErrorPropertyPath("Topic"), node));
-
+        InvalidSnsTopicException e = (InvalidSnsTopicException) super.unmarshall(node);
+        if (e != null) {
+            e.setTopic(XpathUtils.asString(getErrorPropertyPath("Topic"), node));
+        }
         return e;
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.simpleemail.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.simpleemail.model.MessageRejectedException;
@@ -28,20 +24,6 @@ public class MessageRejectedExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public MessageRejectedExceptionUnmarshaller() {
-        super(MessageRejectedException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("MessageRejected"))
-            return null;
-
-        MessageRejectedException e = (MessageRejectedException) super
-                .unmarshall(node);
-
-        return e;
+        super(MessageRejectedException.class, "MessageRejected");
     }
 }
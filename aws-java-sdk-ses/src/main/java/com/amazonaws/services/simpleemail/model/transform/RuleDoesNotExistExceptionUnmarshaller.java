@@ -28,21 +28,15 @@ public class RuleDoesNotExistExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public RuleDoesNotExistExceptionUnmarshaller() {
-        super(RuleDoesNotExistException.class);
+        super(RuleDoesNotExistException.class, "RuleDoesNotExist");
     }
 
     @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("RuleDoesNotExist"))
-            return null;
-
-        RuleDoesNotExistException e = (RuleDoesNotExistException) super
-                .unmarshall(node);
-        e.setName(XpathUtils.asString(getErrorPropertyPath("Name"), node));
-
+        RuleDoesNotExistException e = (RuleDoesNotExistException) super.unmarshall(node);
+        if (e != null) {
+            e.setName(XpathUtils.asString(getErrorPropertyPath("Name"), node));
+        }
         return e;
     }
 }
@@ -28,21 +28,15 @@ public class RuleSetDoesNotExistExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public RuleSetDoesNotExistExceptionUnmarshaller() {
-        super(RuleSetDoesNotExistException.class);
+        super(RuleSetDoesNotExistException.class, "RuleSetDoesNotExist");
     }
 
     @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("RuleSetDoesNotExist"))
-            return null;
-
-        RuleSetDoesNotExistException e = (RuleSetDoesNotExistException) super
-                .unmarshall(node);
-        e.setName(XpathUtils.asString(getErrorPropertyPath("Name"), node));
-
+        RuleSetDoesNotExistException e = (RuleSetDoesNotExistException) super.unmarshall(node);
+        if (e != null) {
+            e.setName(XpathUtils.asString(getErrorPropertyPath("Name"), node));
+        }
         return e;
     }
 }
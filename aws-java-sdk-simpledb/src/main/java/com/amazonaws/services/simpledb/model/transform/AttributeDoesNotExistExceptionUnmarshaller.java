@@ -25,20 +25,15 @@ import com.amazonaws.services.simpledb.model.AttributeDoesNotExistException;
 public class AttributeDoesNotExistExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public AttributeDoesNotExistExceptionUnmarshaller() {
-        super(AttributeDoesNotExistException.class);
+        super(AttributeDoesNotExistException.class, "AttributeDoesNotExist");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("AttributeDoesNotExist"))
-            return null;
-
-        AttributeDoesNotExistException e = (AttributeDoesNotExistException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        AttributeDoesNotExistException e = (AttributeDoesNotExistException) super.unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
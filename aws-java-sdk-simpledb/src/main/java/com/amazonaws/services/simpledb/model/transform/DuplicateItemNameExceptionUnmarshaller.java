@@ -25,20 +25,15 @@ import com.amazonaws.services.simpledb.model.DuplicateItemNameException;
 public class DuplicateItemNameExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public DuplicateItemNameExceptionUnmarshaller() {
-        super(DuplicateItemNameException.class);
+        super(DuplicateItemNameException.class, "DuplicateItemName");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("DuplicateItemName"))
-            return null;
-
-        DuplicateItemNameException e = (DuplicateItemNameException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        DuplicateItemNameException e = (DuplicateItemNameException) super.unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
@@ -25,20 +25,15 @@ import com.amazonaws.services.simpledb.model.InvalidNextTokenException;
 public class InvalidNextTokenExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public InvalidNextTokenExceptionUnmarshaller() {
-        super(InvalidNextTokenException.class);
+        super(InvalidNextTokenException.class, "InvalidNextToken");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidNextToken"))
-            return null;
-
-        InvalidNextTokenException e = (InvalidNextTokenException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        InvalidNextTokenException e = (InvalidNextTokenException) super.unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
@@ -25,20 +25,16 @@ import com.amazonaws.services.simpledb.model.InvalidNumberPredicatesException;
 public class InvalidNumberPredicatesExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public InvalidNumberPredicatesExceptionUnmarshaller() {
-        super(InvalidNumberPredicatesException.class);
+        super(InvalidNumberPredicatesException.class, "InvalidNumberPredicates");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidNumberPredicates"))
-            return null;
-
-        InvalidNumberPredicatesException e = (InvalidNumberPredicatesException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        InvalidNumberPredicatesException e = (InvalidNumberPredicatesException) super
+                .unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
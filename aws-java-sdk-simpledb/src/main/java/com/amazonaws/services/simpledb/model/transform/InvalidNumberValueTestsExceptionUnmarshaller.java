@@ -25,20 +25,16 @@ import com.amazonaws.services.simpledb.model.InvalidNumberValueTestsException;
 public class InvalidNumberValueTestsExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public InvalidNumberValueTestsExceptionUnmarshaller() {
-        super(InvalidNumberValueTestsException.class);
+        super(InvalidNumberValueTestsException.class, "InvalidNumberValueTests");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidNumberValueTests"))
-            return null;
-
-        InvalidNumberValueTestsException e = (InvalidNumberValueTestsException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        InvalidNumberValueTestsException e = (InvalidNumberValueTestsException) super
+                .unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
@@ -25,20 +25,15 @@ import com.amazonaws.services.simpledb.model.InvalidParameterValueException;
 public class InvalidParameterValueExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public InvalidParameterValueExceptionUnmarshaller() {
-        super(InvalidParameterValueException.class);
+        super(InvalidParameterValueException.class, "InvalidParameterValue");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidParameterValue"))
-            return null;
-
-        InvalidParameterValueException e = (InvalidParameterValueException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        InvalidParameterValueException e = (InvalidParameterValueException) super.unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
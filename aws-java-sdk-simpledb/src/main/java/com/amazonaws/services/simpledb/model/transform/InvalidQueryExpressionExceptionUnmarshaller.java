@@ -25,20 +25,16 @@ import com.amazonaws.services.simpledb.model.InvalidQueryExpressionException;
 public class InvalidQueryExpressionExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public InvalidQueryExpressionExceptionUnmarshaller() {
-        super(InvalidQueryExpressionException.class);
+        super(InvalidQueryExpressionException.class, "InvalidQueryExpression");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidQueryExpression"))
-            return null;
-
-        InvalidQueryExpressionException e = (InvalidQueryExpressionException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        InvalidQueryExpressionException e = (InvalidQueryExpressionException) super
+                .unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
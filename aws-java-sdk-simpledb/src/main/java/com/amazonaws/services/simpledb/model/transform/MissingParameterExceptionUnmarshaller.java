@@ -25,20 +25,15 @@ import com.amazonaws.services.simpledb.model.MissingParameterException;
 public class MissingParameterExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public MissingParameterExceptionUnmarshaller() {
-        super(MissingParameterException.class);
+        super(MissingParameterException.class, "MissingParameter");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("MissingParameter"))
-            return null;
-
-        MissingParameterException e = (MissingParameterException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        MissingParameterException e = (MissingParameterException) super.unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
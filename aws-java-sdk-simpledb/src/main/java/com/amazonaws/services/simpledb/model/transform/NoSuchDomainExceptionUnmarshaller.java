@@ -25,20 +25,15 @@ import com.amazonaws.services.simpledb.model.NoSuchDomainException;
 public class NoSuchDomainExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public NoSuchDomainExceptionUnmarshaller() {
-        super(NoSuchDomainException.class);
+        super(NoSuchDomainException.class, "NoSuchDomain");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("NoSuchDomain"))
-            return null;
-
-        NoSuchDomainException e = (NoSuchDomainException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        NoSuchDomainException e = (NoSuchDomainException) super.unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
@@ -25,20 +25,16 @@ import com.amazonaws.services.simpledb.model.NumberDomainAttributesExceededExcep
 public class NumberDomainAttributesExceededExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public NumberDomainAttributesExceededExceptionUnmarshaller() {
-        super(NumberDomainAttributesExceededException.class);
+        super(NumberDomainAttributesExceededException.class, "NumberDomainAttributesExceeded");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("NumberDomainAttributesExceeded"))
-            return null;
-
-        NumberDomainAttributesExceededException e = (NumberDomainAttributesExceededException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        NumberDomainAttributesExceededException e = (NumberDomainAttributesExceededException) super
+                .unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
@@ -25,20 +25,16 @@ import com.amazonaws.services.simpledb.model.NumberDomainBytesExceededException;
 public class NumberDomainBytesExceededExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public NumberDomainBytesExceededExceptionUnmarshaller() {
-        super(NumberDomainBytesExceededException.class);
+        super(NumberDomainBytesExceededException.class, "NumberDomainBytesExceeded");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("NumberDomainBytesExceeded"))
-            return null;
-
-        NumberDomainBytesExceededException e = (NumberDomainBytesExceededException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        NumberDomainBytesExceededException e = (NumberDomainBytesExceededException) super
+                .unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
@@ -25,20 +25,15 @@ import com.amazonaws.services.simpledb.model.NumberDomainsExceededException;
 public class NumberDomainsExceededExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public NumberDomainsExceededExceptionUnmarshaller() {
-        super(NumberDomainsExceededException.class);
+        super(NumberDomainsExceededException.class, "NumberDomainsExceeded");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("NumberDomainsExceeded"))
-            return null;
-
-        NumberDomainsExceededException e = (NumberDomainsExceededException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        NumberDomainsExceededException e = (NumberDomainsExceededException) super.unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
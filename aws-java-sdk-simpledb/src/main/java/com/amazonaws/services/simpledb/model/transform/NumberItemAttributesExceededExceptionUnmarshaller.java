@@ -25,20 +25,16 @@ import com.amazonaws.services.simpledb.model.NumberItemAttributesExceededExcepti
 public class NumberItemAttributesExceededExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public NumberItemAttributesExceededExceptionUnmarshaller() {
-        super(NumberItemAttributesExceededException.class);
+        super(NumberItemAttributesExceededException.class, "NumberItemAttributesExceeded");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("NumberItemAttributesExceeded"))
-            return null;
-
-        NumberItemAttributesExceededException e = (NumberItemAttributesExceededException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        NumberItemAttributesExceededException e = (NumberItemAttributesExceededException) super
+                .unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
@@ -25,20 +25,17 @@ import com.amazonaws.services.simpledb.model.NumberSubmittedAttributesExceededEx
 public class NumberSubmittedAttributesExceededExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public NumberSubmittedAttributesExceededExceptionUnmarshaller() {
-        super(NumberSubmittedAttributesExceededException.class);
+        super(NumberSubmittedAttributesExceededException.class,
+                "NumberSubmittedAttributesExceeded");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("NumberSubmittedAttributesExceeded"))
-            return null;
-
-        NumberSubmittedAttributesExceededException e = (NumberSubmittedAttributesExceededException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        NumberSubmittedAttributesExceededException e = (NumberSubmittedAttributesExceededException) super
+                .unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
@@ -25,20 +25,16 @@ import com.amazonaws.services.simpledb.model.NumberSubmittedItemsExceededExcepti
 public class NumberSubmittedItemsExceededExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public NumberSubmittedItemsExceededExceptionUnmarshaller() {
-        super(NumberSubmittedItemsExceededException.class);
+        super(NumberSubmittedItemsExceededException.class, "NumberSubmittedItemsExceeded");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("NumberSubmittedItemsExceeded"))
-            return null;
-
-        NumberSubmittedItemsExceededException e = (NumberSubmittedItemsExceededException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        NumberSubmittedItemsExceededException e = (NumberSubmittedItemsExceededException) super
+                .unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
@@ -25,20 +25,15 @@ import com.amazonaws.services.simpledb.model.RequestTimeoutException;
 public class RequestTimeoutExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public RequestTimeoutExceptionUnmarshaller() {
-        super(RequestTimeoutException.class);
+        super(RequestTimeoutException.class, "RequestTimeout");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("RequestTimeout"))
-            return null;
-
-        RequestTimeoutException e = (RequestTimeoutException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        RequestTimeoutException e = (RequestTimeoutException) super.unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
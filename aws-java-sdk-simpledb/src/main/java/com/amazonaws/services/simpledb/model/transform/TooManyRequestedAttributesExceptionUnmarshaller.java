@@ -25,20 +25,16 @@ import com.amazonaws.services.simpledb.model.TooManyRequestedAttributesException
 public class TooManyRequestedAttributesExceptionUnmarshaller extends LegacyErrorUnmarshaller {
 
     public TooManyRequestedAttributesExceptionUnmarshaller() {
-        super(TooManyRequestedAttributesException.class);
+        super(TooManyRequestedAttributesException.class, "TooManyRequestedAttributes");
     }
 
+    @Override
     public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands.
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("TooManyRequestedAttributes"))
-            return null;
-
-        TooManyRequestedAttributesException e = (TooManyRequestedAttributesException)super.unmarshall(node);
-        
-        e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
-        
+        TooManyRequestedAttributesException e = (TooManyRequestedAttributesException) super
+                .unmarshall(node);
+        if (e != null) {
+            e.setBoxUsage(XpathUtils.asFloat(getErrorPropertyPath("BoxUsage"), node));
+        }
         return e;
     }
 }
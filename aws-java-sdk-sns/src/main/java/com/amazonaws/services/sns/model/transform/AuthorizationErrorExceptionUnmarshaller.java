@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sns.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sns.model.AuthorizationErrorException;
@@ -28,20 +24,6 @@ public class AuthorizationErrorExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public AuthorizationErrorExceptionUnmarshaller() {
-        super(AuthorizationErrorException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("AuthorizationError"))
-            return null;
-
-        AuthorizationErrorException e = (AuthorizationErrorException) super
-                .unmarshall(node);
-
-        return e;
+        super(AuthorizationErrorException.class, "AuthorizationError");
     }
 }
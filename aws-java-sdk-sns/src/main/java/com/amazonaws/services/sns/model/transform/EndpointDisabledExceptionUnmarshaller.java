@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sns.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sns.model.EndpointDisabledException;
@@ -28,20 +24,6 @@ public class EndpointDisabledExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public EndpointDisabledExceptionUnmarshaller() {
-        super(EndpointDisabledException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("EndpointDisabled"))
-            return null;
-
-        EndpointDisabledException e = (EndpointDisabledException) super
-                .unmarshall(node);
-
-        return e;
+        super(EndpointDisabledException.class, "EndpointDisabled");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sns.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sns.model.InternalErrorException;
@@ -28,20 +24,6 @@ public class InternalErrorExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InternalErrorExceptionUnmarshaller() {
-        super(InternalErrorException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InternalError"))
-            return null;
-
-        InternalErrorException e = (InternalErrorException) super
-                .unmarshall(node);
-
-        return e;
+        super(InternalErrorException.class, "InternalError");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sns.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sns.model.NotFoundException;
@@ -27,19 +23,6 @@ import com.amazonaws.services.sns.model.NotFoundException;
 public class NotFoundExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public NotFoundExceptionUnmarshaller() {
-        super(NotFoundException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("NotFound"))
-            return null;
-
-        NotFoundException e = (NotFoundException) super.unmarshall(node);
-
-        return e;
+        super(NotFoundException.class, "NotFound");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sns.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sns.model.SubscriptionLimitExceededException;
@@ -28,20 +24,6 @@ public class SubscriptionLimitExceededExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public SubscriptionLimitExceededExceptionUnmarshaller() {
-        super(SubscriptionLimitExceededException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("SubscriptionLimitExceeded"))
-            return null;
-
-        SubscriptionLimitExceededException e = (SubscriptionLimitExceededException) super
-                .unmarshall(node);
-
-        return e;
+        super(SubscriptionLimitExceededException.class, "SubscriptionLimitExceeded");
     }
 }
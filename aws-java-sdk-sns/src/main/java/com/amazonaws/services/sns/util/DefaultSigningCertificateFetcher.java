@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.sns.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.util.IOUtils;
+
+/**
+ * Downloads signing certificates over HTTPS.
+ */
+public class DefaultSigningCertificateFetcher implements SigningCertificateFetcher {
+
+    /** The default timeout (in milliseconds) to connect and to read the certificate. */
+    public static final int DEFAULT_TIMEOUT_MILLIS = 10 * 1000;
+
+    private final int timeoutMillis;
+
+    public DefaultSigningCertificateFetcher() {
+        this(DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public DefaultSigningCertificateFetcher(int timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public X509Certificate fetch(String signingCertUrl) {
+        InputStream in = null;
+        try {
+            URLConnection connection = new URL(signingCertUrl).openConnection();
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            in = connection.getInputStream();
+            return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(in);
+        } catch (IOException e) {
+            throw new AmazonClientException("Unable to download the certificate at " + signingCertUrl, e);
+        } catch (CertificateException e) {
+            throw new AmazonClientException("Unable to parse the certificate at " + signingCertUrl, e);
+        } finally {
+            IOUtils.closeQuietly(in, null);
+        }
+    }
+}
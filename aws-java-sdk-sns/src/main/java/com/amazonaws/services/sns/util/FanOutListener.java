@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.sns.util;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sns.model.PublishResult;
+
+/**
+ * Notified by a {@link FanOutPublisher} of the outcome of each message, for
+ * instance to disable the endpoints which failed. Listeners are called from
+ * the threads of the publisher, concurrently, and should return quickly.
+ */
+public interface FanOutListener {
+
+    /**
+     * Called when a message is published.
+     */
+    void onSuccess(PublishRequest request, PublishResult result);
+
+    /**
+     * Called when a message could not be published, with the error of its
+     * last attempt.
+     */
+    void onFailure(PublishRequest request, AmazonClientException exception);
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.sns.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonServiceException.ErrorType;
+import com.amazonaws.retry.RetryUtils;
+import com.amazonaws.services.sns.AmazonSNS;
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sns.model.PublishResult;
+import com.amazonaws.util.VersionInfoUtils;
+
+/**
+ * Publishes many messages, such as mobile push notifications to each of a
+ * large number of endpoints, with bounded concurrency and rate.
+ * <p>
+ * Amazon SNS has no batch Publish call, so a fan-out is one call per
+ * message. This publisher makes up to
+ * {@link FanOutPublisherConfig#getMaxConcurrentPublishes()} calls at once with
+ * the given client, sharing its connection pool, and no more than
+ * {@link FanOutPublisherConfig#getMaxPublishesPerSecond()} calls per second
+ * across all its fan-outs. The messages are read from an iterator as calls
+ * complete, so they can be generated on the fly rather than held in memory.
+ * Throttled calls, and calls failing with server or network errors, are
+ * attempted again after an exponential backoff; other failures, such as
+ * disabled endpoints, are not.
+ * <p>
+ * The publisher does all the retries itself, so that each one waits for its
+ * turn under the rate limit: the client must be created with retries
+ * disabled, for example with
+ * {@code new ClientConfiguration().withRetryPolicy(PredefinedRetryPolicies.NO_RETRY_POLICY)}.
+ * A client that retries on its own makes calls that the rate limit does not
+ * see, and multiplies the attempts of each message by its own.
+ * <p>
+ * Instances are thread-safe. Publishers create threads that run until
+ * {@link #shutdown()} is called.
+ */
+public class FanOutPublisher {
+
+    public static final String USER_AGENT = FanOutPublisher.class.getSimpleName() + "/"
+            + VersionInfoUtils.getVersion();
+
+    private static final Log log = LogFactory.getLog(FanOutPublisher.class);
+
+    /** backoff before the first retry of a call; doubled at each attempt */
+    private static final long MIN_BACKOFF_MILLIS = 100;
+
+    private static final long MAX_BACKOFF_MILLIS = 20000;
+
+    private static final Random random = new Random();
+
+    private final AmazonSNS sns;
+    private final FanOutPublisherConfig config;
+    private final ExecutorService executor;
+
+    /** the minimum time between two calls, or 0 if the rate is not limited */
+    private final long nanosPerPublish;
+
+    private final Object rateLock = new Object();
+
+    /** the earliest time of the next call; guarded by rateLock */
+    private long nextPublishNanos = System.nanoTime();
+
+    /**
+     * Creates a publisher with the default configuration.
+     *
+     * @param sns
+     *            the client to publish with, whose retries are disabled.
+     */
+    public FanOutPublisher(AmazonSNS sns) {
+        this(sns, new FanOutPublisherConfig());
+    }
+
+    /**
+     * Creates a publisher with the given configuration.
+     *
+     * @param sns
+     *            the client to publish with, whose retries are disabled.
+     * @param config
+     *            the configuration of the publisher.
+     */
+    public FanOutPublisher(AmazonSNS sns, FanOutPublisherConfig config) {
+        this.sns = sns;
+        this.config = new FanOutPublisherConfig(config);
+        double maxPublishesPerSecond = this.config.getMaxPublishesPerSecond();
+        this.nanosPerPublish = maxPublishesPerSecond == 0 ? 0
+                : Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / maxPublishesPerSecond));
+        this.executor = Executors.newFixedThreadPool(this.config.getMaxConcurrentPublishes(),
+                new DaemonThreadFactory());
+    }
+
+    /**
+     * Publishes the given messages, and returns once they are all published
+     * or failed.
+     *
+     * @see #publish(Iterator, FanOutListener)
+     */
+    public FanOutResult publish(Iterable<PublishRequest> requests) {
+        return publish(requests.iterator(), null);
+    }
+
+    /**
+     * Publishes the messages of the given iterator, and returns once they are
+     * all published or failed. The iterator is consumed by the calling
+     * thread, as the publisher is ready for more messages.
+     *
+     * @param requests
+     *            the messages to publish.
+     * @param listener
+     *            notified of the outcome of each message, or null.
+     * @return the counts of published and failed messages.
+     * @throws AmazonClientException
+     *             if interrupted, or if the publisher is shut down; the
+     *             messages already handed to the publisher are still
+     *             published.
+     */
+    public FanOutResult publish(Iterator<PublishRequest> requests,
+            final FanOutListener listener) {
+        final long startNanos = System.nanoTime();
+        final Tally tally = new Tally();
+        final int maxInflight = config.getMaxConcurrentPublishes();
+        final Semaphore inflight = new Semaphore(maxInflight);
+        try {
+            while (requests.hasNext()) {
+                final PublishRequest request = requests.next();
+                inflight.acquire();
+                try {
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                publish(request, tally, listener);
+                            } finally {
+                                inflight.release();
+                            }
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    inflight.release();
+                    throw new AmazonClientException("The publisher is shut down", e);
+                }
+            }
+            inflight.acquire(maxInflight);
+            inflight.release(maxInflight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmazonClientException("Interrupted while publishing messages", e);
+        }
+        return tally.toResult(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Stops the threads of this publisher once the messages in flight are
+     * published. The AmazonSNS client is not shut down.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void publish(PublishRequest request, Tally tally, FanOutListener listener) {
+        request.getRequestClientOptions().appendUserAgent(USER_AGENT);
+        AmazonClientException failure;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                awaitRate();
+                PublishResult result = sns.publish(request);
+                tally.successCount.incrementAndGet();
+                if (listener != null) {
+                    try {
+                        listener.onSuccess(request, result);
+                    } catch (RuntimeException e) {
+                        log.warn("Unexpected error from the fan-out listener", e);
+                    }
+                }
+                return;
+            } catch (AmazonServiceException e) {
+                failure = e;
+                if (!isRetryable(e)) {
+                    break;
+                }
+            } catch (AmazonClientException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = new AmazonClientException("Interrupted while publishing a message", e);
+                break;
+            } catch (RuntimeException e) {
+                failure = new AmazonClientException("Unexpected error publishing a message", e);
+                break;
+            }
+
+            if (attempt >= config.getMaxAttempts()) {
+                break;
+            }
+            tally.retryCount.incrementAndGet();
+            if (log.isDebugEnabled()) {
+                log.debug("Attempt " + attempt + " to publish a message failed: "
+                        + failure.getMessage());
+            }
+            try {
+                Thread.sleep(backoffMillis(attempt));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        tally.failed(failure);
+        if (listener != null) {
+            try {
+                listener.onFailure(request, failure);
+            } catch (RuntimeException e) {
+                log.warn("Unexpected error from the fan-out listener", e);
+            }
+        }
+    }
+
+    /**
+     * Waits for the turn of a call, so that calls are evenly spaced at the
+     * configured rate. Idle time is not saved up for bursts later.
+     */
+    private void awaitRate() throws InterruptedException {
+        if (nanosPerPublish == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (rateLock) {
+            long now = System.nanoTime();
+            if (nextPublishNanos - now < 0) {
+                nextPublishNanos = now;
+            }
+            waitNanos = nextPublishNanos - now;
+            nextPublishNanos += nanosPerPublish;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Returns the exponential backoff before the given retry, jittered so that
+     * the calls throttled together are not all attempted again together.
+     */
+    private static long backoffMillis(int attempt) {
+        long backoff = Math.min(MIN_BACKOFF_MILLIS << Math.min(attempt - 1, 16),
+                MAX_BACKOFF_MILLIS);
+        return backoff / 2 + (long) (random.nextDouble() * (backoff / 2));
+    }
+
+    private static boolean isRetryable(AmazonServiceException e) {
+        return e.getErrorType() == ErrorType.Service
+                || e.getStatusCode() >= 500
+                || RetryUtils.isThrottlingException(e);
+    }
+
+    /**
+     * The counts of one fan-out.
+     */
+    private static class Tally {
+        final AtomicLong successCount = new AtomicLong();
+        final AtomicLong failureCount = new AtomicLong();
+        final AtomicLong retryCount = new AtomicLong();
+        final ConcurrentMap<String, AtomicLong> failureCounts =
+                new ConcurrentHashMap<String, AtomicLong>();
+
+        void failed(AmazonClientException failure) {
+            failureCount.incrementAndGet();
+            String reason = errorCodeOf(failure);
+            AtomicLong count = failureCounts.get(reason);
+            if (count == null) {
+                AtomicLong existing = failureCounts.putIfAbsent(reason, count = new AtomicLong());
+                if (existing != null) {
+                    count = existing;
+                }
+            }
+            count.incrementAndGet();
+        }
+
+        FanOutResult toResult(long elapsedMillis) {
+            Map<String, Long> counts = new TreeMap<String, Long>();
+            for (Map.Entry<String, AtomicLong> entry : failureCounts.entrySet()) {
+                counts.put(entry.getKey(), entry.getValue().get());
+            }
+            return new FanOutResult(successCount.get(), failureCount.get(), retryCount.get(),
+                    counts, elapsedMillis);
+        }
+
+        private static String errorCodeOf(AmazonClientException failure) {
+            if (failure instanceof AmazonServiceException
+                    && ((AmazonServiceException) failure).getErrorCode() != null) {
+                return ((AmazonServiceException) failure).getErrorCode();
+            }
+            Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+            return cause.getClass().getSimpleName();
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        static AtomicInteger threadCount = new AtomicInteger(0);
+
+        public Thread newThread(Runnable r) {
+            int threadNumber = threadCount.addAndGet(1);
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("FanOutPublisherThread-" + threadNumber);
+            return thread;
+        }
+    }
+}
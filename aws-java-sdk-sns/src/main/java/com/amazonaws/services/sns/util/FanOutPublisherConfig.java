@@ -0,0 +1,142 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.sns.util;
+
+/**
+ * Configuration of a {@link FanOutPublisher}.
+ */
+public class FanOutPublisherConfig {
+
+    /** The default maximum number of Publish calls in flight at once. */
+    public static final int DEFAULT_MAX_CONCURRENT_PUBLISHES = 50;
+
+    /** The default maximum number of attempts to publish a message. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 10;
+
+    private int maxConcurrentPublishes = DEFAULT_MAX_CONCURRENT_PUBLISHES;
+
+    private double maxPublishesPerSecond = 0;
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    public FanOutPublisherConfig() {
+    }
+
+    /** copy constructor */
+    public FanOutPublisherConfig(FanOutPublisherConfig other) {
+        maxConcurrentPublishes = other.maxConcurrentPublishes;
+        maxPublishesPerSecond = other.maxPublishesPerSecond;
+        maxAttempts = other.maxAttempts;
+    }
+
+    /**
+     * Returns the maximum number of Publish calls in flight at once, which is
+     * also the number of threads of the publisher. The client should allow at
+     * least as many connections, see
+     * {@link com.amazonaws.ClientConfiguration#setMaxConnections(int)}.
+     */
+    public int getMaxConcurrentPublishes() {
+        return maxConcurrentPublishes;
+    }
+
+    /**
+     * Sets the maximum number of Publish calls in flight at once.
+     *
+     * @param maxConcurrentPublishes
+     *            the number of calls, must be positive
+     */
+    public void setMaxConcurrentPublishes(int maxConcurrentPublishes) {
+        if (maxConcurrentPublishes < 1) {
+            throw new IllegalArgumentException("maxConcurrentPublishes " + maxConcurrentPublishes
+                    + " must be positive");
+        }
+        this.maxConcurrentPublishes = maxConcurrentPublishes;
+    }
+
+    /**
+     * Sets the maximum number of Publish calls in flight at once, and returns
+     * the updated object so that additional method calls can be chained
+     * together.
+     */
+    public FanOutPublisherConfig withMaxConcurrentPublishes(int maxConcurrentPublishes) {
+        setMaxConcurrentPublishes(maxConcurrentPublishes);
+        return this;
+    }
+
+    /**
+     * Returns the maximum rate of Publish calls, retries included, per second;
+     * 0, the default, means no limit other than the number of concurrent
+     * calls.
+     */
+    public double getMaxPublishesPerSecond() {
+        return maxPublishesPerSecond;
+    }
+
+    /**
+     * Sets the maximum rate of Publish calls, retries included, per second.
+     *
+     * @param maxPublishesPerSecond
+     *            the rate, or 0 for no limit
+     */
+    public void setMaxPublishesPerSecond(double maxPublishesPerSecond) {
+        if (!(maxPublishesPerSecond >= 0) || Double.isInfinite(maxPublishesPerSecond)) {
+            throw new IllegalArgumentException("maxPublishesPerSecond " + maxPublishesPerSecond
+                    + " must be a finite number, positive or 0");
+        }
+        this.maxPublishesPerSecond = maxPublishesPerSecond;
+    }
+
+    /**
+     * Sets the maximum rate of Publish calls, retries included, per second,
+     * and returns the updated object so that additional method calls can be
+     * chained together.
+     */
+    public FanOutPublisherConfig withMaxPublishesPerSecond(double maxPublishesPerSecond) {
+        setMaxPublishesPerSecond(maxPublishesPerSecond);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of attempts to publish a message. Only
+     * throttled calls and server or network errors are attempted again; the
+     * client itself must not retry, see {@link FanOutPublisher}.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Sets the maximum number of attempts to publish a message.
+     *
+     * @param maxAttempts
+     *            the number of attempts, must be positive
+     */
+    public void setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts " + maxAttempts + " must be positive");
+        }
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Sets the maximum number of attempts to publish a message, and returns
+     * the updated object so that additional method calls can be chained
+     * together.
+     */
+    public FanOutPublisherConfig withMaxAttempts(int maxAttempts) {
+        setMaxAttempts(maxAttempts);
+        return this;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.sns.util;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The outcome of a fan-out by a {@link FanOutPublisher}: how many messages
+ * were published, and how many could not be, by error code.
+ */
+public class FanOutResult {
+
+    private final long successCount;
+    private final long failureCount;
+    private final long retryCount;
+    private final Map<String, Long> failureCounts;
+    private final long elapsedMillis;
+
+    FanOutResult(long successCount, long failureCount, long retryCount,
+            Map<String, Long> failureCounts, long elapsedMillis) {
+        this.successCount = successCount;
+        this.failureCount = failureCount;
+        this.retryCount = retryCount;
+        this.failureCounts = Collections.unmodifiableMap(failureCounts);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return the number of messages published.
+     */
+    public long getSuccessCount() {
+        return successCount;
+    }
+
+    /**
+     * @return the number of messages which could not be published.
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * @return the number of Publish calls attempted again after being
+     *         throttled or failing with a server or network error.
+     */
+    public long getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * @return the number of messages which could not be published, by the
+     *         error code of their last attempt, such as "EndpointDisabled";
+     *         failures without an error code, such as network errors, are
+     *         counted under the class name of their cause, such as
+     *         "SocketTimeoutException".
+     */
+    public Map<String, Long> getFailureCounts() {
+        return failureCounts;
+    }
+
+    /**
+     * @return the time the fan-out took, in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "{SuccessCount: " + successCount + ", FailureCount: " + failureCount
+                + ", RetryCount: " + retryCount + ", FailureCounts: " + failureCounts
+                + ", ElapsedMillis: " + elapsedMillis + "}";
+    }
+}
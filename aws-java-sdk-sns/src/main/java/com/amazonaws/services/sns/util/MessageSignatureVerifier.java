@@ -0,0 +1,271 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.sns.util;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.cert.CertificateExpiredException;
+import java.security.cert.CertificateNotYetValidException;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.util.Base64;
+import com.amazonaws.util.StringUtils;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Verifies the signatures of Amazon SNS messages delivered to HTTP/S
+ * endpoints, retrieving the signing certificates as needed.
+ * <p>
+ * Unlike {@link SignatureChecker}, which is handed the public key, this
+ * verifier is meant for endpoints receiving many messages: the certificate
+ * named by the SigningCertURL of a message is downloaded once and cached,
+ * provided the URL is an HTTPS URL of an Amazon SNS host; the
+ * {@code SHA1withRSA} signature engines are reused, one per thread; and the
+ * string to sign is built while parsing the message, without intermediate
+ * maps.
+ * <p>
+ * Instances are thread-safe, and are meant to be shared.
+ */
+public class MessageSignatureVerifier {
+
+    /** The hosts signing certificates may be downloaded from. */
+    private static final Pattern SIGNING_CERT_HOST = Pattern.compile(
+            "^sns\\.[a-zA-Z0-9\\-]{3,}\\.amazonaws\\.com(\\.cn)?$");
+
+    /** Bounds the cache; Amazon SNS only uses a handful of certificates. */
+    private static final int MAX_CACHED_CERTIFICATES = 100;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final ThreadLocal<Signature> SIGNATURE = new ThreadLocal<Signature>() {
+        @Override
+        protected Signature initialValue() {
+            try {
+                return Signature.getInstance("SHA1withRSA");
+            } catch (NoSuchAlgorithmException e) {
+                throw new AmazonClientException("SHA1withRSA signatures are not supported", e);
+            }
+        }
+    };
+
+    private final SigningCertificateFetcher certificateFetcher;
+
+    private final ConcurrentMap<String, X509Certificate> certificates =
+            new ConcurrentHashMap<String, X509Certificate>();
+
+    public MessageSignatureVerifier() {
+        this(new DefaultSigningCertificateFetcher());
+    }
+
+    public MessageSignatureVerifier(SigningCertificateFetcher certificateFetcher) {
+        this.certificateFetcher = certificateFetcher;
+    }
+
+    /**
+     * Verifies the signature of an Amazon SNS message.
+     *
+     * @param message
+     *            the JSON body of a Notification, SubscriptionConfirmation
+     *            or UnsubscribeConfirmation message.
+     * @return true if the message is signed by Amazon SNS, false if it is
+     *         not, or cannot be verified because it is malformed, of an
+     *         unknown type or signature version, or its SigningCertURL is
+     *         not an Amazon SNS URL.
+     * @throws AmazonClientException
+     *             if the signing certificate could not be retrieved.
+     */
+    public boolean verify(String message) {
+        ParsedMessage parsed;
+        try {
+            parsed = parse(message);
+        } catch (IOException e) {
+            return false;
+        }
+        if (!"1".equals(parsed.signatureVersion) || parsed.signature == null
+                || parsed.signingCertUrl == null) {
+            return false;
+        }
+        String stringToSign = parsed.stringToSign();
+        if (stringToSign == null || !isSigningCertUrl(parsed.signingCertUrl)) {
+            return false;
+        }
+
+        X509Certificate certificate = getCertificate(parsed.signingCertUrl);
+        try {
+            certificate.checkValidity();
+        } catch (CertificateExpiredException e) {
+            return false;
+        } catch (CertificateNotYetValidException e) {
+            return false;
+        }
+        return verify(stringToSign.getBytes(StringUtils.UTF8), parsed.signature,
+                certificate.getPublicKey());
+    }
+
+    /**
+     * Verifies a base64 encoded SHA1withRSA signature, with the signature
+     * engine of the current thread.
+     */
+    static boolean verify(byte[] data, String signature, PublicKey publicKey) {
+        byte[] signatureBytes;
+        try {
+            signatureBytes = Base64.decode(signature);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        Signature verifier = SIGNATURE.get();
+        try {
+            verifier.initVerify(publicKey);
+            verifier.update(data);
+            return verifier.verify(signatureBytes);
+        } catch (InvalidKeyException e) {
+            return false;
+        } catch (SignatureException e) {
+            return false;
+        }
+    }
+
+    private X509Certificate getCertificate(String signingCertUrl) {
+        X509Certificate certificate = certificates.get(signingCertUrl);
+        if (certificate == null) {
+            certificate = certificateFetcher.fetch(signingCertUrl);
+            if (certificates.size() >= MAX_CACHED_CERTIFICATES) {
+                certificates.clear();
+            }
+            certificates.put(signingCertUrl, certificate);
+        }
+        return certificate;
+    }
+
+    private static boolean isSigningCertUrl(String signingCertUrl) {
+        try {
+            URL url = new URL(signingCertUrl);
+            return "https".equals(url.getProtocol())
+                    && SIGNING_CERT_HOST.matcher(url.getHost()).matches();
+        } catch (MalformedURLException e) {
+            return false;
+        }
+    }
+
+    private static ParsedMessage parse(String message) throws IOException {
+        ParsedMessage parsed = new ParsedMessage();
+        JsonParser parser = JSON_FACTORY.createParser(message);
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                String value = token == JsonToken.VALUE_NULL ? null : parser.getText();
+                if ("Type".equals(name)) {
+                    parsed.type = value;
+                } else if ("Message".equals(name)) {
+                    parsed.message = value;
+                } else if ("MessageId".equals(name)) {
+                    parsed.messageId = value;
+                } else if ("Subject".equals(name)) {
+                    parsed.subject = value;
+                } else if ("SubscribeURL".equals(name)) {
+                    parsed.subscribeUrl = value;
+                } else if ("Timestamp".equals(name)) {
+                    parsed.timestamp = value;
+                } else if ("Token".equals(name)) {
+                    parsed.token = value;
+                } else if ("TopicArn".equals(name)) {
+                    parsed.topicArn = value;
+                } else if ("SignatureVersion".equals(name)) {
+                    parsed.signatureVersion = value;
+                } else if ("Signature".equals(name)) {
+                    parsed.signature = value;
+                } else if ("SigningCertURL".equals(name)) {
+                    parsed.signingCertUrl = value;
+                }
+            }
+        } finally {
+            parser.close();
+        }
+        return parsed;
+    }
+
+    /**
+     * The fields of a message which are signed or needed to verify the
+     * signature.
+     */
+    private static class ParsedMessage {
+        String type;
+        String message;
+        String messageId;
+        String subject;
+        String subscribeUrl;
+        String timestamp;
+        String token;
+        String topicArn;
+        String signatureVersion;
+        String signature;
+        String signingCertUrl;
+
+        /**
+         * Returns the string Amazon SNS signed for a message of this type:
+         * each signed field present, in alphabetical order, as its name and
+         * value each followed by a newline. Returns null for unknown types.
+         */
+        String stringToSign() {
+            StringBuilder sb = new StringBuilder(256 + (message == null ? 0 : message.length()));
+            if ("Notification".equals(type)) {
+                append(sb, "Message", message);
+                append(sb, "MessageId", messageId);
+                append(sb, "Subject", subject);
+                append(sb, "Timestamp", timestamp);
+                append(sb, "TopicArn", topicArn);
+                append(sb, "Type", type);
+            } else if ("SubscriptionConfirmation".equals(type)
+                    || "UnsubscribeConfirmation".equals(type)) {
+                append(sb, "Message", message);
+                append(sb, "MessageId", messageId);
+                append(sb, "SubscribeURL", subscribeUrl);
+                append(sb, "Timestamp", timestamp);
+                append(sb, "Token", token);
+                append(sb, "TopicArn", topicArn);
+                append(sb, "Type", type);
+            } else {
+                return null;
+            }
+            return sb.toString();
+        }
+
+        private static void append(StringBuilder sb, String name, String value) {
+            if (value != null) {
+                sb.append(name).append('\n').append(value).append('\n');
+            }
+        }
+    }
+}
@@ -15,11 +15,7 @@
 package com.amazonaws.services.sns.util;
 
 import java.io.IOException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
-import java.security.Signature;
-import java.security.SignatureException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -28,7 +24,6 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
-import com.amazonaws.util.Base64;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
@@ -39,8 +34,6 @@ import com.fasterxml.jackson.core.JsonToken;
  */
 public class SignatureChecker {
 
-    private Signature sigChecker;
-
     private final String NOTIFICATION_TYPE = "Notification";
     private final String SUBSCRIBE_TYPE = "SubscriptionConfirmation";
     private final String UNSUBSCRIBE_TYPE = "UnsubscribeConfirmation";
@@ -115,9 +108,9 @@ public class SignatureChecker {
     }
 
     /**
-     * Does the actual Java cryptographic verification of the signature. This
-     * method does no handling of the many rare exceptions it is required to
-     * catch.
+     * Does the actual Java cryptographic verification of the signature, with
+     * a signature engine reused by the current thread. This method does no
+     * handling of the many rare exceptions it is required to catch.
      *
      * This can also be used to verify the signature from the x-amz-sns-signature http header
      *
@@ -129,22 +122,7 @@ public class SignatureChecker {
      * @return
      */
     public boolean verifySignature(String message, String signature, PublicKey publicKey){
-        boolean result = false;
-        byte[] sigbytes = null;
-        try {
-            sigbytes = Base64.decode(signature.getBytes());
-            sigChecker = Signature.getInstance("SHA1withRSA"); //check the signature
-            sigChecker.initVerify(publicKey);
-            sigChecker.update(message.getBytes());
-            result = sigChecker.verify(sigbytes);
-        } catch (NoSuchAlgorithmException e) {
-            // Rare exception: JVM does not support SHA1 with RSA
-        } catch (InvalidKeyException e) {
-            // Rare exception: The private key was incorrectly formatted
-        } catch (SignatureException e) {
-            // Rare exception: Catch-all exception for the signature checker
-        }
-        return result;
+        return MessageSignatureVerifier.verify(message.getBytes(), signature, publicKey);
     }
 
     protected String stringToSign(SortedMap<String, String> signables) {
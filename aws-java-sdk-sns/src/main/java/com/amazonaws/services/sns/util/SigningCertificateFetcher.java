@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.sns.util;
+
+import java.security.cert.X509Certificate;
+
+/**
+ * Retrieves the certificates Amazon SNS signs messages with, for a
+ * {@link MessageSignatureVerifier}. Implementations other than
+ * {@link DefaultSigningCertificateFetcher} can, for instance, serve
+ * certificates from local files.
+ */
+public interface SigningCertificateFetcher {
+
+    /**
+     * Returns the certificate at the given URL, the SigningCertURL of an
+     * Amazon SNS message.
+     *
+     * @throws com.amazonaws.AmazonClientException
+     *             if the certificate could not be retrieved or parsed.
+     */
+    X509Certificate fetch(String signingCertUrl);
+}
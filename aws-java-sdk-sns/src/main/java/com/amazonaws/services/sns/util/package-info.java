@@ -14,6 +14,6 @@
  */
 /**
  * Utilities for working with Amazon Simple Notification Service such as validating
- * message signatures.
+ * message signatures and fanning messages out to many endpoints.
  */
 package com.amazonaws.services.sns.util;
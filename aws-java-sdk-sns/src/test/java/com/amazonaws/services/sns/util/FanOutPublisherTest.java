@@ -0,0 +1,229 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.sns.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonServiceException.ErrorType;
+import com.amazonaws.services.sns.AbstractAmazonSNS;
+import com.amazonaws.services.sns.model.PublishRequest;
+import com.amazonaws.services.sns.model.PublishResult;
+
+public class FanOutPublisherTest {
+
+    private FanOutPublisher publisher;
+
+    @After
+    public void tearDown() {
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+    }
+
+    @Test
+    public void testCallsInFlightAreBounded() throws Exception {
+        StubSNS sns = new StubSNS() {
+            @Override
+            void call(String target, int attempt) throws InterruptedException {
+                Thread.sleep(5);
+            }
+        };
+        publisher = new FanOutPublisher(sns, new FanOutPublisherConfig()
+                .withMaxConcurrentPublishes(4));
+
+        final Map<String, String> published = new ConcurrentHashMap<String, String>();
+        FanOutResult result = publisher.publish(requests("target-", 100).iterator(), new FanOutListener() {
+            @Override
+            public void onSuccess(PublishRequest request, PublishResult result) {
+                published.put(request.getTargetArn(), result.getMessageId());
+            }
+
+            @Override
+            public void onFailure(PublishRequest request, AmazonClientException failure) {
+                fail(failure.getMessage());
+            }
+        });
+
+        assertEquals(100, result.getSuccessCount());
+        assertEquals(0, result.getFailureCount());
+        assertEquals(0, result.getRetryCount());
+        assertEquals(100, published.size());
+        assertEquals("id-target-42-1", published.get("target-42"));
+        assertTrue(sns.maxInflight.get() <= 4);
+        assertTrue(sns.maxInflight.get() > 1);
+    }
+
+    @Test
+    public void testOnlyRetryableFailuresAreAttemptedAgain() throws Exception {
+        StubSNS sns = new StubSNS() {
+            @Override
+            void call(String target, int attempt) {
+                if (target.startsWith("throttled") && attempt <= 2 || target.equals("always-throttled")) {
+                    throw serviceException("Throttling", ErrorType.Client, 400);
+                }
+                if (target.equals("unavailable") && attempt == 1) {
+                    throw serviceException("ServiceUnavailable", ErrorType.Service, 503);
+                }
+                if (target.equals("disabled")) {
+                    throw serviceException("EndpointDisabled", ErrorType.Client, 400);
+                }
+            }
+        };
+        publisher = new FanOutPublisher(sns, new FanOutPublisherConfig()
+                .withMaxAttempts(3));
+
+        List<PublishRequest> requests = requests("throttled-", 5);
+        requests.addAll(requests("ok-", 5));
+        requests.add(new PublishRequest().withTargetArn("unavailable").withMessage("message"));
+        requests.add(new PublishRequest().withTargetArn("disabled").withMessage("message"));
+        requests.add(new PublishRequest().withTargetArn("always-throttled").withMessage("message"));
+        FanOutResult result = publisher.publish(requests);
+
+        assertEquals(11, result.getSuccessCount());
+        assertEquals(2, result.getFailureCount());
+        // two per throttled message, one for the unavailable service, two for
+        // the message out of attempts
+        assertEquals(5 * 2 + 1 + 2, result.getRetryCount());
+        Map<String, Long> failureCounts = new TreeMap<String, Long>();
+        failureCounts.put("EndpointDisabled", 1L);
+        failureCounts.put("Throttling", 1L);
+        assertEquals(failureCounts, result.getFailureCounts());
+
+        assertEquals(3, sns.attempts("throttled-0").size());
+        assertEquals(1, sns.attempts("ok-0").size());
+        assertEquals(2, sns.attempts("unavailable").size());
+        assertEquals(1, sns.attempts("disabled").size());
+        assertEquals(3, sns.attempts("always-throttled").size());
+
+        // the backoff is 100 ms, then 200 ms, less up to half of jitter
+        List<Long> times = sns.attempts("always-throttled");
+        assertTrue(times.get(1) - times.get(0) >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(times.get(2) - times.get(1) >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void testRetriesWaitForTheirTurnUnderTheRateLimit() throws Exception {
+        StubSNS sns = new StubSNS() {
+            @Override
+            void call(String target, int attempt) {
+                if (target.equals("target-0") && attempt == 1) {
+                    throw serviceException("Throttling", ErrorType.Client, 400);
+                }
+            }
+        };
+        publisher = new FanOutPublisher(sns, new FanOutPublisherConfig()
+                .withMaxConcurrentPublishes(8)
+                .withMaxPublishesPerSecond(50));
+
+        FanOutResult result = publisher.publish(requests("target-", 20));
+        assertEquals(20, result.getSuccessCount());
+        assertEquals(1, result.getRetryCount());
+
+        // 21 calls, retry included, at least 20 ms apart
+        List<Long> times = new ArrayList<Long>(sns.callNanos);
+        assertEquals(21, times.size());
+        Collections.sort(times);
+        long span = times.get(times.size() - 1) - times.get(0);
+        assertTrue(span + " ns", span >= TimeUnit.MILLISECONDS.toNanos(20 * 20 - 5));
+    }
+
+    @Test
+    public void testPublishFailsOnceShutDown() throws Exception {
+        publisher = new FanOutPublisher(new StubSNS());
+        publisher.shutdown();
+        try {
+            publisher.publish(requests("target-", 1));
+            fail("Expected the publisher to be shut down");
+        } catch (AmazonClientException e) {
+            assertEquals("The publisher is shut down", e.getMessage());
+        }
+    }
+
+    private static List<PublishRequest> requests(String prefix, int count) {
+        List<PublishRequest> requests = new ArrayList<PublishRequest>();
+        for (int i = 0; i < count; i++) {
+            requests.add(new PublishRequest().withTargetArn(prefix + i).withMessage("message"));
+        }
+        return requests;
+    }
+
+    private static AmazonServiceException serviceException(String errorCode, ErrorType errorType,
+            int statusCode) {
+        AmazonServiceException e = new AmazonServiceException(errorCode);
+        e.setErrorCode(errorCode);
+        e.setErrorType(errorType);
+        e.setStatusCode(statusCode);
+        return e;
+    }
+
+    /**
+     * Records the time of each Publish call, and the most calls in flight at
+     * once. Calls fail as the test picks by throwing from {@link #call}, and
+     * messages get the id "id-target-attempt".
+     */
+    private static class StubSNS extends AbstractAmazonSNS {
+        private final Map<String, List<Long>> attemptNanos = new ConcurrentHashMap<String, List<Long>>();
+        private final List<Long> callNanos = Collections.synchronizedList(new ArrayList<Long>());
+        private final AtomicInteger inflight = new AtomicInteger();
+        private final AtomicInteger maxInflight = new AtomicInteger();
+
+        void call(String target, int attempt) throws InterruptedException {
+        }
+
+        List<Long> attempts(String target) {
+            return attemptNanos.get(target);
+        }
+
+        @Override
+        public PublishResult publish(PublishRequest request) {
+            long now = System.nanoTime();
+            callNanos.add(now);
+            String target = request.getTargetArn();
+            attemptNanos.putIfAbsent(target, Collections.synchronizedList(new ArrayList<Long>()));
+            List<Long> attempts = attemptNanos.get(target);
+            attempts.add(now);
+
+            int count = inflight.incrementAndGet();
+            try {
+                int max;
+                while (count > (max = maxInflight.get()) && !maxInflight.compareAndSet(max, count)) {
+                }
+                call(target, attempts.size());
+                return new PublishResult().withMessageId("id-" + target + "-" + attempts.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AmazonClientException(e);
+            } finally {
+                inflight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.sns.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Principal;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.cert.CertificateExpiredException;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.amazonaws.util.Base64;
+import com.amazonaws.util.StringUtils;
+
+public class MessageSignatureVerifierTest {
+
+    private static final String CERT_URL =
+            "https://sns.us-east-1.amazonaws.com/SimpleNotificationService-test.pem";
+
+    private static KeyPair keyPair;
+
+    @BeforeClass
+    public static void generateKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(1024);
+        keyPair = generator.generateKeyPair();
+    }
+
+    /**
+     * Serves a self-signed certificate for the generated key, counting how
+     * often it is asked for.
+     */
+    private static class StubFetcher implements SigningCertificateFetcher {
+        private final AtomicInteger fetches = new AtomicInteger();
+        private final boolean expired;
+
+        StubFetcher(boolean expired) {
+            this.expired = expired;
+        }
+
+        @Override
+        public X509Certificate fetch(String signingCertUrl) {
+            assertEquals(CERT_URL, signingCertUrl);
+            fetches.incrementAndGet();
+            return new SelfSignedCertificate(keyPair.getPublic(), expired);
+        }
+    }
+
+    @Test
+    public void testValidMessage() throws Exception {
+        StubFetcher fetcher = new StubFetcher(false);
+        MessageSignatureVerifier verifier = new MessageSignatureVerifier(fetcher);
+
+        assertTrue(verifier.verify(notification("Hello", "Hello", CERT_URL)));
+        assertTrue(verifier.verify(notification("Hello again", "Hello again", CERT_URL)));
+        // The certificate is downloaded once for both messages
+        assertEquals(1, fetcher.fetches.get());
+    }
+
+    @Test
+    public void testTamperedMessage() throws Exception {
+        MessageSignatureVerifier verifier = new MessageSignatureVerifier(new StubFetcher(false));
+
+        assertFalse(verifier.verify(notification("Hello", "Goodbye", CERT_URL)));
+    }
+
+    @Test
+    public void testForeignCertificateUrl() throws Exception {
+        StubFetcher fetcher = new StubFetcher(false);
+        MessageSignatureVerifier verifier = new MessageSignatureVerifier(fetcher);
+
+        assertFalse(verifier.verify(notification("Hello", "Hello",
+                "https://sns.us-east-1.amazonaws.com.example.com/cert.pem")));
+        assertFalse(verifier.verify(notification("Hello", "Hello",
+                "http://sns.us-east-1.amazonaws.com/cert.pem")));
+        assertEquals(0, fetcher.fetches.get());
+    }
+
+    @Test
+    public void testExpiredCertificate() throws Exception {
+        MessageSignatureVerifier verifier = new MessageSignatureVerifier(new StubFetcher(true));
+
+        assertFalse(verifier.verify(notification("Hello", "Hello", CERT_URL)));
+    }
+
+    /**
+     * Returns a Notification whose signature covers the signed message
+     * rather than the delivered one.
+     */
+    private static String notification(String signedMessage, String deliveredMessage,
+            String signingCertUrl) throws Exception {
+        String messageId = "da41e39f-ea4d-435a-b922-c6aae3915ebe";
+        String timestamp = "2016-01-01T12:00:00.000Z";
+        String topicArn = "arn:aws:sns:us-east-1:123456789012:topic";
+        String stringToSign = "Message\n" + signedMessage + "\n"
+                + "MessageId\n" + messageId + "\n"
+                + "Timestamp\n" + timestamp + "\n"
+                + "TopicArn\n" + topicArn + "\n"
+                + "Type\nNotification\n";
+
+        Signature signature = Signature.getInstance("SHA1withRSA");
+        signature.initSign(keyPair.getPrivate());
+        signature.update(stringToSign.getBytes(StringUtils.UTF8));
+
+        return "{\"Type\":\"Notification\""
+                + ",\"MessageId\":\"" + messageId + "\""
+                + ",\"TopicArn\":\"" + topicArn + "\""
+                + ",\"Message\":\"" + deliveredMessage + "\""
+                + ",\"Timestamp\":\"" + timestamp + "\""
+                + ",\"SignatureVersion\":\"1\""
+                + ",\"Signature\":\"" + Base64.encodeAsString(signature.sign()) + "\""
+                + ",\"SigningCertURL\":\"" + signingCertUrl + "\""
+                + ",\"MessageAttributes\":{\"a\":{\"Type\":\"String\",\"Value\":\"b\"}}}";
+    }
+
+    /**
+     * The parts of a self-signed certificate the verifier looks at: its
+     * validity and its public key.
+     */
+    private static class SelfSignedCertificate extends X509Certificate {
+        private final PublicKey publicKey;
+        private final boolean expired;
+
+        SelfSignedCertificate(PublicKey publicKey, boolean expired) {
+            this.publicKey = publicKey;
+            this.expired = expired;
+        }
+
+        @Override
+        public PublicKey getPublicKey() {
+            return publicKey;
+        }
+
+        @Override
+        public void checkValidity() throws CertificateExpiredException {
+            if (expired) {
+                throw new CertificateExpiredException();
+            }
+        }
+
+        @Override
+        public void checkValidity(Date date) throws CertificateExpiredException {
+            checkValidity();
+        }
+
+        @Override
+        public void verify(PublicKey key) {
+        }
+
+        @Override
+        public void verify(PublicKey key, String sigProvider) {
+        }
+
+        @Override
+        public int getVersion() {
+            return 3;
+        }
+
+        @Override
+        public BigInteger getSerialNumber() {
+            return BigInteger.ONE;
+        }
+
+        @Override
+        public Principal getIssuerDN() {
+            return null;
+        }
+
+        @Override
+        public Principal getSubjectDN() {
+            return null;
+        }
+
+        @Override
+        public Date getNotBefore() {
+            return null;
+        }
+
+        @Override
+        public Date getNotAfter() {
+            return null;
+        }
+
+        @Override
+        public byte[] getTBSCertificate() {
+            return null;
+        }
+
+        @Override
+        public byte[] getSignature() {
+            return null;
+        }
+
+        @Override
+        public String getSigAlgName() {
+            return "SHA1withRSA";
+        }
+
+        @Override
+        public String getSigAlgOID() {
+            return null;
+        }
+
+        @Override
+        public byte[] getSigAlgParams() {
+            return null;
+        }
+
+        @Override
+        public boolean[] getIssuerUniqueID() {
+            return null;
+        }
+
+        @Override
+        public boolean[] getSubjectUniqueID() {
+            return null;
+        }
+
+        @Override
+        public boolean[] getKeyUsage() {
+            return null;
+        }
+
+        @Override
+        public int getBasicConstraints() {
+            return -1;
+        }
+
+        @Override
+        public byte[] getEncoded() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return "SelfSignedCertificate";
+        }
+
+        @Override
+        public boolean hasUnsupportedCriticalExtension() {
+            return false;
+        }
+
+        @Override
+        public Set<String> getCriticalExtensionOIDs() {
+            return null;
+        }
+
+        @Override
+        public Set<String> getNonCriticalExtensionOIDs() {
+            return null;
+        }
+
+        @Override
+        public byte[] getExtensionValue(String oid) {
+            return null;
+        }
+    }
+}
@@ -14,16 +14,22 @@
  */
 package com.amazonaws.services.sqs;
 
-import static com.amazonaws.util.StringUtils.UTF8;
-
-import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -42,13 +48,18 @@ import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
 import com.amazonaws.services.sqs.model.SendMessageRequest;
 import com.amazonaws.services.sqs.model.SendMessageResult;
 import com.amazonaws.util.BinaryUtils;
-import com.amazonaws.util.Md5Utils;
 import com.amazonaws.util.TimingInfo;
 
 /**
  * SQS operations on sending and receiving messages will return the MD5 digest of the message body.
  * This custom request handler will verify that the message is correctly received by SQS, by
  * comparing the returned MD5 with the calculation according to the original request.
+ * <p>
+ * Each thread reuses its own MD5 digest, and strings are UTF-8 encoded into a small per-thread
+ * buffer while being digested rather than into a new byte array. The messages of a batch are
+ * verified together; when the batch is large and more than one processor is available, its
+ * messages are verified concurrently by a shared pool of daemon threads and the thread which
+ * unmarshalled the response.
  */
 public class MessageMD5ChecksumHandler extends AbstractRequestHandler {
 
@@ -58,6 +69,12 @@ public class MessageMD5ChecksumHandler extends AbstractRequestHandler {
     private static final byte STRING_LIST_TYPE_FIELD_INDEX = 3;
     private static final byte BINARY_LIST_TYPE_FIELD_INDEX = 4;
 
+    /** size of the per-thread buffer strings are UTF-8 encoded into */
+    private static final int SCRATCH_SIZE_IN_BYTES = 8 * 1024;
+
+    /** batches with fewer characters in their message bodies are verified on the calling thread */
+    private static final int PARALLEL_VERIFICATION_THRESHOLD = 64 * 1024;
+
     /*
      * Constant strings for composing error message.
      */
@@ -70,6 +87,32 @@ public class MessageMD5ChecksumHandler extends AbstractRequestHandler {
 
     private static final Log log = LogFactory.getLog(MessageMD5ChecksumHandler.class);
 
+    /** the MD5 digest and UTF-8 buffer of each thread */
+    private static final ThreadLocal<DigestState> DIGEST_STATE = new ThreadLocal<DigestState>() {
+        @Override
+        protected DigestState initialValue() {
+            return new DigestState();
+        }
+    };
+
+    /** null on single processor machines, where verifying concurrently would not help */
+    private static final ExecutorService VERIFICATION_EXECUTOR = newVerificationExecutor();
+
+    /** verifies the messages of large batches; null to verify them on the calling thread */
+    private final ExecutorService verificationExecutor;
+
+    public MessageMD5ChecksumHandler() {
+        this(VERIFICATION_EXECUTOR);
+    }
+
+    /**
+     * Creates a handler which verifies the messages of large batches with the given executor, or
+     * on the calling thread if it is null.
+     */
+    MessageMD5ChecksumHandler(ExecutorService verificationExecutor) {
+        this.verificationExecutor = verificationExecutor;
+    }
+
     @Override
     public void afterResponse(Request<?> request, Object response, TimingInfo timingInfo) {
         if (request != null && response != null) {
@@ -104,22 +147,12 @@ public class MessageMD5ChecksumHandler extends AbstractRequestHandler {
      */
     private static void sendMessageOperationMd5Check(SendMessageRequest sendMessageRequest,
                                                      SendMessageResult sendMessageResult) {
-        String messageBodySent = sendMessageRequest.getMessageBody();
-        String bodyMd5Returned = sendMessageResult.getMD5OfMessageBody();
-        String clientSideBodyMd5 = calculateMessageBodyMd5(messageBodySent);
-        if (!clientSideBodyMd5.equals(bodyMd5Returned)) {
-            throw new AmazonClientException(String.format(MD5_MISMATCH_ERROR_MESSAGE, MESSAGE_BODY, clientSideBodyMd5,
-                    bodyMd5Returned));
-        }
-
-        Map<String, MessageAttributeValue> messageAttrSent = sendMessageRequest.getMessageAttributes();
-        if (messageAttrSent != null && !messageAttrSent.isEmpty()) {
-            String clientSideAttrMd5 = calculateMessageAttributesMd5(messageAttrSent);
-            String attrMd5Returned = sendMessageResult.getMD5OfMessageAttributes();
-            if (!clientSideAttrMd5.equals(attrMd5Returned)) {
-                throw new AmazonClientException(String.format(MD5_MISMATCH_ERROR_MESSAGE, MESSAGE_ATTRIBUTES,
-                        clientSideAttrMd5, attrMd5Returned));
-            }
+        MessageMd5Check check = new MessageMd5Check(null, sendMessageRequest.getMessageBody(),
+                sendMessageResult.getMD5OfMessageBody(), sendMessageRequest.getMessageAttributes(),
+                sendMessageResult.getMD5OfMessageAttributes());
+        AmazonClientException mismatch = check.call();
+        if (mismatch != null) {
+            throw mismatch;
         }
     }
 
@@ -127,27 +160,14 @@ public class MessageMD5ChecksumHandler extends AbstractRequestHandler {
      * Throw an exception if the MD5 checksums included in the ReceiveMessageResult do not match the
      * client-side calculation on the received messages.
      */
-    private static void receiveMessageResultMd5Check(ReceiveMessageResult receiveMessageResult) {
+    private void receiveMessageResultMd5Check(ReceiveMessageResult receiveMessageResult) {
         if (receiveMessageResult.getMessages() != null) {
+            List<MessageMd5Check> checks = new ArrayList<MessageMd5Check>(receiveMessageResult.getMessages().size());
             for (Message messageReceived : receiveMessageResult.getMessages()) {
-                String messageBody = messageReceived.getBody();
-                String bodyMd5Returned = messageReceived.getMD5OfBody();
-                String clientSideBodyMd5 = calculateMessageBodyMd5(messageBody);
-                if (!clientSideBodyMd5.equals(bodyMd5Returned)) {
-                    throw new AmazonClientException(String.format(MD5_MISMATCH_ERROR_MESSAGE, MESSAGE_BODY,
-                            clientSideBodyMd5, bodyMd5Returned));
-                }
-
-                Map<String, MessageAttributeValue> messageAttr = messageReceived.getMessageAttributes();
-                if (messageAttr != null && !messageAttr.isEmpty()) {
-                    String attrMd5Returned = messageReceived.getMD5OfMessageAttributes();
-                    String clientSideAttrMd5 = calculateMessageAttributesMd5(messageAttr);
-                    if (!clientSideAttrMd5.equals(attrMd5Returned)) {
-                        throw new AmazonClientException(String.format(MD5_MISMATCH_ERROR_MESSAGE, MESSAGE_ATTRIBUTES,
-                                clientSideAttrMd5, attrMd5Returned));
-                    }
-                }
+                checks.add(new MessageMd5Check(null, messageReceived.getBody(), messageReceived.getMD5OfBody(),
+                        messageReceived.getMessageAttributes(), messageReceived.getMD5OfMessageAttributes()));
             }
+            verifyBatch(checks);
         }
     }
 
@@ -155,8 +175,8 @@ public class MessageMD5ChecksumHandler extends AbstractRequestHandler {
      * Throw an exception if the MD5 checksums returned in the SendMessageBatchResult do not match
      * the client-side calculation based on the original messages in the SendMessageBatchRequest.
      */
-    private static void sendMessageBatchOperationMd5Check(SendMessageBatchRequest sendMessageBatchRequest,
-                                                          SendMessageBatchResult sendMessageBatchResult) {
+    private void sendMessageBatchOperationMd5Check(SendMessageBatchRequest sendMessageBatchRequest,
+                                                   SendMessageBatchResult sendMessageBatchResult) {
         Map<String, SendMessageBatchRequestEntry> idToRequestEntryMap = new HashMap<String, SendMessageBatchRequestEntry>();
         if (sendMessageBatchRequest.getEntries() != null) {
             for (SendMessageBatchRequestEntry entry : sendMessageBatchRequest.getEntries()) {
@@ -165,26 +185,124 @@ public class MessageMD5ChecksumHandler extends AbstractRequestHandler {
         }
 
         if (sendMessageBatchResult.getSuccessful() != null) {
+            List<MessageMd5Check> checks = new ArrayList<MessageMd5Check>(sendMessageBatchResult.getSuccessful()
+                    .size());
             for (SendMessageBatchResultEntry entry : sendMessageBatchResult.getSuccessful()) {
-                String messageBody = idToRequestEntryMap.get(entry.getId()).getMessageBody();
-                String bodyMd5Returned = entry.getMD5OfMessageBody();
-                String clientSideBodyMd5 = calculateMessageBodyMd5(messageBody);
-                if (!clientSideBodyMd5.equals(bodyMd5Returned)) {
-                    throw new AmazonClientException(String.format(MD5_MISMATCH_ERROR_MESSAGE_WITH_ID, MESSAGE_BODY,
-                            entry.getId(), clientSideBodyMd5, bodyMd5Returned));
+                SendMessageBatchRequestEntry requestEntry = idToRequestEntryMap.get(entry.getId());
+                checks.add(new MessageMd5Check(entry.getId(), requestEntry.getMessageBody(),
+                        entry.getMD5OfMessageBody(), requestEntry.getMessageAttributes(),
+                        entry.getMD5OfMessageAttributes()));
+            }
+            verifyBatch(checks);
+        }
+    }
+
+    /**
+     * Runs the checks of the messages of a batch and throws the mismatch of the first message in
+     * the batch which failed, if any. Large batches are verified concurrently when possible.
+     */
+    private void verifyBatch(List<MessageMd5Check> checks) {
+        List<Future<AmazonClientException>> futures = null;
+        if (verificationExecutor != null && checks.size() > 1
+                && bodyLength(checks) >= PARALLEL_VERIFICATION_THRESHOLD) {
+            futures = new ArrayList<Future<AmazonClientException>>(checks.size());
+            try {
+                // the calling thread verifies the first message itself
+                for (MessageMd5Check check : checks.subList(1, checks.size())) {
+                    futures.add(verificationExecutor.submit(check));
                 }
+            } catch (RejectedExecutionException e) {
+                // the remaining messages are verified on this thread
+            }
+        }
 
-                Map<String, MessageAttributeValue> messageAttr = idToRequestEntryMap.get(entry.getId())
-                        .getMessageAttributes();
-                if (messageAttr != null && !messageAttr.isEmpty()) {
-                    String attrMd5Returned = entry.getMD5OfMessageAttributes();
-                    String clientSideAttrMd5 = calculateMessageAttributesMd5(messageAttr);
-                    if (!clientSideAttrMd5.equals(attrMd5Returned)) {
-                        throw new AmazonClientException(String.format(MD5_MISMATCH_ERROR_MESSAGE_WITH_ID,
-                                MESSAGE_ATTRIBUTES, entry.getId(), clientSideAttrMd5, attrMd5Returned));
-                    }
+        AmazonClientException firstMismatch = null;
+        for (int i = 0; i < checks.size() && firstMismatch == null; i++) {
+            if (i == 0 || futures == null || i > futures.size()) {
+                firstMismatch = checks.get(i).call();
+            } else {
+                firstMismatch = getMismatch(futures.get(i - 1), checks.get(i));
+            }
+        }
+        if (firstMismatch != null) {
+            throw firstMismatch;
+        }
+    }
+
+    /**
+     * Waits for a check submitted to the verification executor. If the waiting thread is
+     * interrupted, the check is run again on that thread.
+     */
+    private static AmazonClientException getMismatch(Future<AmazonClientException> future, MessageMd5Check check) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return check.call();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AmazonClientException) {
+                throw (AmazonClientException) e.getCause();
+            }
+            throw new AmazonClientException("Unable to verify the MD5 hash of the message. "
+                    + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static long bodyLength(List<MessageMd5Check> checks) {
+        long length = 0;
+        for (MessageMd5Check check : checks) {
+            if (check.messageBody != null) {
+                length += check.messageBody.length();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Verifies the MD5 of the body and, if there are any, of the attributes of one message.
+     * Returns the exception describing a mismatch rather than throwing it, so that the checks of a
+     * batch can run on other threads.
+     */
+    private static class MessageMd5Check implements Callable<AmazonClientException> {
+        /** the id of the batch entry, or null for single messages */
+        private final String id;
+        private final String messageBody;
+        private final String bodyMd5Returned;
+        private final Map<String, MessageAttributeValue> messageAttributes;
+        private final String attributesMd5Returned;
+
+        MessageMd5Check(String id, String messageBody, String bodyMd5Returned,
+                Map<String, MessageAttributeValue> messageAttributes, String attributesMd5Returned) {
+            this.id = id;
+            this.messageBody = messageBody;
+            this.bodyMd5Returned = bodyMd5Returned;
+            this.messageAttributes = messageAttributes;
+            this.attributesMd5Returned = attributesMd5Returned;
+        }
+
+        @Override
+        public AmazonClientException call() {
+            String clientSideBodyMd5 = calculateMessageBodyMd5(messageBody);
+            if (!clientSideBodyMd5.equals(bodyMd5Returned)) {
+                return mismatch(MESSAGE_BODY, clientSideBodyMd5, bodyMd5Returned);
+            }
+
+            if (messageAttributes != null && !messageAttributes.isEmpty()) {
+                String clientSideAttrMd5 = calculateMessageAttributesMd5(messageAttributes);
+                if (!clientSideAttrMd5.equals(attributesMd5Returned)) {
+                    return mismatch(MESSAGE_ATTRIBUTES, clientSideAttrMd5, attributesMd5Returned);
                 }
             }
+            return null;
+        }
+
+        private AmazonClientException mismatch(String part, String clientSideMd5, String md5Returned) {
+            if (id == null) {
+                return new AmazonClientException(String.format(MD5_MISMATCH_ERROR_MESSAGE, part, clientSideMd5,
+                        md5Returned));
+            }
+            return new AmazonClientException(String.format(MD5_MISMATCH_ERROR_MESSAGE_WITH_ID, id, part,
+                    clientSideMd5, md5Returned));
         }
     }
 
@@ -195,14 +313,15 @@ public class MessageMD5ChecksumHandler extends AbstractRequestHandler {
         if (log.isDebugEnabled()) {
             log.debug("Message body: " + messageBody);
         }
-        byte[] expectedMd5;
+        DigestState state = DIGEST_STATE.get();
+        state.digest.reset();
         try {
-            expectedMd5 = Md5Utils.computeMD5Hash(messageBody.getBytes(UTF8));
+            state.updateUtf8(messageBody);
         } catch (Exception e) {
             throw new AmazonClientException("Unable to calculate the MD5 hash of the message body. " + e.getMessage(),
                     e);
         }
-        String expectedMd5Hex = BinaryUtils.toHex(expectedMd5);
+        String expectedMd5Hex = BinaryUtils.toHex(state.digest.digest());
         if (log.isDebugEnabled()) {
             log.debug("Expected  MD5 of message body: " + expectedMd5Hex);
         }
@@ -219,34 +338,34 @@ public class MessageMD5ChecksumHandler extends AbstractRequestHandler {
         List<String> sortedAttributeNames = new ArrayList<String>(messageAttributes.keySet());
         Collections.sort(sortedAttributeNames);
 
-        MessageDigest md5Digest = null;
+        DigestState state = DIGEST_STATE.get();
+        MessageDigest md5Digest = state.digest;
+        md5Digest.reset();
         try {
-            md5Digest = MessageDigest.getInstance("MD5");
-
             for (String attrName : sortedAttributeNames) {
                 MessageAttributeValue attrValue = messageAttributes.get(attrName);
 
                 // Encoded Name
-                updateLengthAndBytes(md5Digest, attrName);
+                state.updateLengthAndBytes(attrName);
                 // Encoded Type
-                updateLengthAndBytes(md5Digest, attrValue.getDataType());
+                state.updateLengthAndBytes(attrValue.getDataType());
 
                 // Encoded Value
                 if (attrValue.getStringValue() != null) {
                     md5Digest.update(STRING_TYPE_FIELD_INDEX);
-                    updateLengthAndBytes(md5Digest, attrValue.getStringValue());
+                    state.updateLengthAndBytes(attrValue.getStringValue());
                 } else if (attrValue.getBinaryValue() != null) {
                     md5Digest.update(BINARY_TYPE_FIELD_INDEX);
-                    updateLengthAndBytes(md5Digest, attrValue.getBinaryValue());
+                    state.updateLengthAndBytes(attrValue.getBinaryValue());
                 } else if (attrValue.getStringListValues().size() > 0) {
                     md5Digest.update(STRING_LIST_TYPE_FIELD_INDEX);
                     for (String strListMember : attrValue.getStringListValues()) {
-                        updateLengthAndBytes(md5Digest, strListMember);
+                        state.updateLengthAndBytes(strListMember);
                     }
                 } else if (attrValue.getBinaryListValues().size() > 0) {
                     md5Digest.update(BINARY_LIST_TYPE_FIELD_INDEX);
                     for (ByteBuffer byteListMember : attrValue.getBinaryListValues()) {
-                        updateLengthAndBytes(md5Digest, byteListMember);
+                        state.updateLengthAndBytes(byteListMember);
                     }
                 }
             }
@@ -263,25 +382,127 @@ public class MessageMD5ChecksumHandler extends AbstractRequestHandler {
     }
 
     /**
-     * Update the digest using a sequence of bytes that consists of the length (in 4 bytes) of the
-     * input String and the actual utf8-encoded byte values.
+     * The MD5 digest of a thread, and the buffer it UTF-8 encodes strings into before digesting
+     * them. Strings are encoded exactly like {@code String.getBytes(UTF8)} does, unpaired
+     * surrogates included.
      */
-    private static void updateLengthAndBytes(MessageDigest digest, String str) throws UnsupportedEncodingException {
-        byte[] utf8Encoded = str.getBytes(UTF8);
-        ByteBuffer lengthBytes = ByteBuffer.allocate(INTEGER_SIZE_IN_BYTES).putInt(utf8Encoded.length);
-        digest.update(lengthBytes.array());
-        digest.update(utf8Encoded);
+    private static class DigestState {
+        private final MessageDigest digest;
+        private final byte[] scratch = new byte[SCRATCH_SIZE_IN_BYTES];
+
+        DigestState() {
+            try {
+                digest = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new AmazonClientException("Unable to get an MD5 digest. " + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Update the digest using a sequence of bytes that consists of the length (in 4 bytes) of
+         * the input String and the actual utf8-encoded byte values.
+         */
+        void updateLengthAndBytes(String str) {
+            updateLength(utf8Length(str));
+            updateUtf8(str);
+        }
+
+        /**
+         * Update the digest using a sequence of bytes that consists of the length (in 4 bytes) of
+         * the input ByteBuffer and all the bytes it contains.
+         */
+        void updateLengthAndBytes(ByteBuffer binaryValue) {
+            ByteBuffer readOnlyBuffer = binaryValue.asReadOnlyBuffer();
+            updateLength(readOnlyBuffer.remaining());
+            digest.update(readOnlyBuffer);
+        }
+
+        private void updateLength(int length) {
+            scratch[0] = (byte) (length >>> 24);
+            scratch[1] = (byte) (length >>> 16);
+            scratch[2] = (byte) (length >>> 8);
+            scratch[3] = (byte) length;
+            digest.update(scratch, 0, INTEGER_SIZE_IN_BYTES);
+        }
+
+        /**
+         * Update the digest with the UTF-8 encoding of the given string, a buffer at a time.
+         */
+        void updateUtf8(String str) {
+            byte[] buffer = scratch;
+            int limit = buffer.length - 4;
+            int position = 0;
+            int length = str.length();
+            for (int i = 0; i < length; i++) {
+                if (position > limit) {
+                    digest.update(buffer, 0, position);
+                    position = 0;
+                }
+                char c = str.charAt(i);
+                if (c < 0x80) {
+                    buffer[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[position++] = (byte) (0xc0 | (c >> 6));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(str.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, str.charAt(++i));
+                    buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+                } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                    // unpaired surrogate, replaced like the JDK encoder does
+                    buffer[position++] = '?';
+                } else {
+                    buffer[position++] = (byte) (0xe0 | (c >> 12));
+                    buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+            digest.update(buffer, 0, position);
+        }
+
+        /**
+         * @return the number of bytes {@link #updateUtf8(String)} digests for the given string
+         */
+        private static int utf8Length(String str) {
+            int utf8Length = 0;
+            int length = str.length();
+            for (int i = 0; i < length; i++) {
+                char c = str.charAt(i);
+                if (c < 0x80) {
+                    utf8Length += 1;
+                } else if (c < 0x800) {
+                    utf8Length += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(str.charAt(i + 1))) {
+                    utf8Length += 4;
+                    ++i;
+                } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                    utf8Length += 1;
+                } else {
+                    utf8Length += 3;
+                }
+            }
+            return utf8Length;
+        }
     }
 
-    /**
-     * Update the digest using a sequence of bytes that consists of the length (in 4 bytes) of the
-     * input ByteBuffer and all the bytes it contains.
-     */
-    private static void updateLengthAndBytes(MessageDigest digest, ByteBuffer binaryValue) {
-        ByteBuffer readOnlyBuffer = binaryValue.asReadOnlyBuffer();
-        int size = readOnlyBuffer.remaining();
-        ByteBuffer lengthBytes = ByteBuffer.allocate(INTEGER_SIZE_IN_BYTES).putInt(size);
-        digest.update(lengthBytes.array());
-        digest.update(readOnlyBuffer);
+    private static ExecutorService newVerificationExecutor() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        if (processors < 2) {
+            return null;
+        }
+        return Executors.newFixedThreadPool(processors - 1, new ThreadFactory() {
+            private final AtomicInteger threadCount = new AtomicInteger(0);
+
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r);
+                thread.setDaemon(true);
+                thread.setName("SQSMessageMD5VerificationThread-" + threadCount.incrementAndGet());
+                return thread;
+            }
+        });
     }
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazonaws.services.sqs.buffered;
+
+import com.amazonaws.services.sqs.model.Message;
+
+/**
+ * Processes the messages received by a {@link QueueConsumer}. Implementations are called
+ * concurrently by the processing threads of the consumer and must be thread-safe.
+ */
+public interface MessageHandler {
+
+    /**
+     * Processes a message. If this method returns normally, the message is deleted from the queue.
+     * If it throws, the message is left in the queue and will be received again once its
+     * visibility timeout expires.
+     *
+     * @param message
+     *            the message to process
+     */
+    void handleMessage(Message message) throws Exception;
+}
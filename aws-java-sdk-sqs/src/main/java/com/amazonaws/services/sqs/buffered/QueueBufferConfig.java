@@ -109,6 +109,14 @@ public class QueueBufferConfig {
 
     public static final int LONGPOLL_WAIT_TIMEOUT_SECONDS_DEFAULT = 20;
 
+    /**
+     * Should the receive buffer size its pre-fetching from the observed consumption rate or not?
+     */
+    private boolean adaptivePrefetching;
+
+    /** false */
+    public static final boolean ADAPTIVE_PREFETCHING_DEFAULT = false;
+
     public QueueBufferConfig(long maxBatchOpenMs, int maxInflightOutboundBatches, int maxInflightReceiveBatches,
             int maxDoneReceiveBatches, boolean paramLongPoll, long maxBatchSizeBytes, int visibilityTimeout,
             int longPollTimeout, int maxBatch) {
@@ -122,6 +130,7 @@ public class QueueBufferConfig {
         this.visibilityTimeoutSeconds = visibilityTimeout;
         this.longPollWaitTimeoutSeconds = longPollTimeout;
         this.maxBatchSize = maxBatch;
+        this.adaptivePrefetching = ADAPTIVE_PREFETCHING_DEFAULT;
     }
 
     public QueueBufferConfig() {
@@ -141,6 +150,7 @@ public class QueueBufferConfig {
         maxInflightOutboundBatches = other.maxInflightOutboundBatches;
         maxInflightReceiveBatches = other.maxInflightReceiveBatches;
         visibilityTimeoutSeconds = other.visibilityTimeoutSeconds;
+        adaptivePrefetching = other.adaptivePrefetching;
     }
 
     @Override
@@ -149,7 +159,8 @@ public class QueueBufferConfig {
                 + longPoll + ", maxInflightOutboundBatches=" + maxInflightOutboundBatches
                 + ", maxInflightReceiveBatches=" + maxInflightReceiveBatches + ", maxDoneReceiveBatches="
                 + maxDoneReceiveBatches + ", maxBatchSizeBytes=" + maxBatchSizeBytes + ", visibilityTimeoutSeconds="
-                + visibilityTimeoutSeconds + ", longPollWaitTimeoutSeconds=" + longPollWaitTimeoutSeconds + "]";
+                + visibilityTimeoutSeconds + ", longPollWaitTimeoutSeconds=" + longPollWaitTimeoutSeconds + ", adaptivePrefetching="
+                + adaptivePrefetching + "]";
     }
 
     /**
@@ -429,6 +440,40 @@ public class QueueBufferConfig {
         return this;
     }
 
+    /**
+     * If true, the receive buffer sizes its pre-fetching from the rate at which messages are taken
+     * out of it and from the visibility timeout, instead of always keeping maxDoneReceiveBatches
+     * batches buffered and maxInflightReceiveBatches batches in flight; those two settings become
+     * upper bounds. The buffer then also extends, once, the visibility timeout of buffered
+     * messages which are about to expire before being consumed.
+     */
+    public boolean isAdaptivePrefetching() {
+        return adaptivePrefetching;
+    }
+
+    /**
+     * If true, the receive buffer sizes its pre-fetching from the rate at which messages are taken
+     * out of it and from the visibility timeout, instead of always keeping maxDoneReceiveBatches
+     * batches buffered and maxInflightReceiveBatches batches in flight; those two settings become
+     * upper bounds. The buffer then also extends, once, the visibility timeout of buffered
+     * messages which are about to expire before being consumed.
+     */
+    public void setAdaptivePrefetching(boolean adaptivePrefetching) {
+        this.adaptivePrefetching = adaptivePrefetching;
+    }
+
+    /**
+     * If true, the receive buffer sizes its pre-fetching from the rate at which messages are taken
+     * out of it and from the visibility timeout, instead of always keeping maxDoneReceiveBatches
+     * batches buffered and maxInflightReceiveBatches batches in flight; those two settings become
+     * upper bounds. The buffer then also extends, once, the visibility timeout of buffered
+     * messages which are about to expire before being consumed.
+     */
+    public QueueBufferConfig withAdaptivePrefetching(boolean adaptivePrefetching) {
+        setAdaptivePrefetching(adaptivePrefetching);
+        return this;
+    }
+
     /**
      * this method checks the config for validity. If the config is deemed to be invalid, an
      * informative exception is thrown.
@@ -63,17 +63,8 @@ class QueueBufferFuture<Req extends AmazonWebServiceRequest, Res> implements Fut
         done = true;
         notifyAll();
 
-        // if we have a callback to call, schedule
-        // it on a different thread. Who knows what this
-        // thread is doing.
-        if (callback != null && issuingBuffer != null) {
-            QueueBuffer.executor.submit(new Callable<Void>() {
-                public Void call() throws Exception {
-                    callback.onSuccess(result);
-                    return null;
-                }
-            });
-
+        if (issuingBuffer != null) {
+            dispatchCallback();
         }
     }
 
@@ -87,19 +78,29 @@ class QueueBufferFuture<Req extends AmazonWebServiceRequest, Res> implements Fut
         done = true;
         notifyAll();
 
-        // if we have a callback to call, schedule
-        // it on a different thread. Who knows what this
-        // thread is doing.
-        if (callback != null && issuingBuffer != null) {
-            QueueBuffer.executor.submit(new Callable<Void>() {
-                public Void call() throws Exception {
-                    callback.onError(e);
-                    return null;
-                }
-            });
-
+        if (issuingBuffer != null) {
+            dispatchCallback();
         }
+    }
 
+    /**
+     * If we have a callback to call, schedule it on a different thread. Who knows what this thread
+     * is doing. Must be called once, when the future is done and its buffer is set.
+     */
+    private void dispatchCallback() {
+        if (callback == null) {
+            return;
+        }
+        QueueBuffer.executor.submit(new Callable<Void>() {
+            public Void call() throws Exception {
+                if (e != null) {
+                    callback.onError(e);
+                } else {
+                    callback.onSuccess(result);
+                }
+                return null;
+            }
+        });
     }
 
     @Override
@@ -108,8 +109,16 @@ class QueueBufferFuture<Req extends AmazonWebServiceRequest, Res> implements Fut
         return false;
     }
 
-    public void setBuffer(QueueBuffer paramBuffer) {
+    /**
+     * Sets the buffer which issued this future. The buffer is set after the future is handed out,
+     * so the future may be done already, in which case the callback is dispatched now.
+     */
+    public synchronized void setBuffer(QueueBuffer paramBuffer) {
+        boolean dispatchNow = done && issuingBuffer == null;
         issuingBuffer = paramBuffer;
+        if (dispatchNow) {
+            dispatchCallback();
+        }
     }
 
     @Override
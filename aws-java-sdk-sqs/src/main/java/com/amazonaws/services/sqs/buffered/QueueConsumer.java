@@ -0,0 +1,364 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazonaws.services.sqs.buffered;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageRequest;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+
+/**
+ * Consumes the messages of an SQS queue with a {@link MessageHandler}.
+ * <p>
+ * A few receiver threads long poll the queue and hand the messages over to a fixed pool of
+ * processing threads. Receivers only ask for as many messages as the consumer has room for, so
+ * that no more than processingThreads + maxBufferedMessages messages are held at any time.
+ * Successfully processed messages are deleted, and messages still being processed when their
+ * visibility timeout is about to expire get it extended. Deletes and visibility changes go
+ * through the given {@link AmazonSQSBufferedAsyncClient}, which coalesces them into
+ * {@code DeleteMessageBatch} and {@code ChangeMessageVisibilityBatch} calls; receives, which set a
+ * wait time and a visibility timeout, bypass its pre-fetching buffer.
+ * <p>
+ * Instances of {@code QueueConsumer} are thread-safe.
+ */
+public class QueueConsumer {
+
+    private static final Log log = LogFactory.getLog(QueueConsumer.class);
+
+    /** the service does not return more messages per receive call */
+    private static final int MAX_MESSAGES_PER_RECEIVE = 10;
+
+    /** time to wait before receiving again after a failed receive */
+    private static final long RECEIVE_RETRY_DELAY_MILLIS = 1000;
+
+    private static final String SENT_TIMESTAMP = "SentTimestamp";
+
+    private final AmazonSQSBufferedAsyncClient sqs;
+
+    private final String queueUrl;
+
+    private final MessageHandler handler;
+
+    private final QueueConsumerConfig config;
+
+    private final ExecutorService receivers;
+
+    private final ExecutorService processors;
+
+    private final ScheduledExecutorService heartbeats;
+
+    /** one permit per message the consumer may still receive */
+    private final Semaphore capacity;
+
+    /** received messages not processed yet */
+    private final Set<InFlightMessage> inFlight = Collections
+            .newSetFromMap(new ConcurrentHashMap<InFlightMessage, Boolean>());
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private final AtomicInteger activeReceivers = new AtomicInteger();
+
+    private volatile boolean shutDown = false;
+
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong deletedCount = new AtomicLong();
+    private final AtomicLong deleteFailedCount = new AtomicLong();
+    private final AtomicLong visibilityExtendedCount = new AtomicLong();
+    private volatile long lagMillis = -1;
+
+    private final AsyncHandler<DeleteMessageRequest, Void> deleteHandler = new AsyncHandler<DeleteMessageRequest, Void>() {
+        @Override
+        public void onSuccess(DeleteMessageRequest request, Void result) {
+            deletedCount.incrementAndGet();
+        }
+
+        @Override
+        public void onError(Exception exception) {
+            deleteFailedCount.incrementAndGet();
+            log.warn("Unable to delete a processed message from " + queueUrl, exception);
+        }
+    };
+
+    private final AsyncHandler<ChangeMessageVisibilityRequest, Void> heartbeatHandler = new AsyncHandler<ChangeMessageVisibilityRequest, Void>() {
+        @Override
+        public void onSuccess(ChangeMessageVisibilityRequest request, Void result) {
+            visibilityExtendedCount.incrementAndGet();
+        }
+
+        @Override
+        public void onError(Exception exception) {
+            log.warn("Unable to extend the visibility timeout of a message from " + queueUrl, exception);
+        }
+    };
+
+    /**
+     * Creates a consumer of the given queue. The consumer does not receive anything until
+     * {@link #start()} is called.
+     *
+     * @throws AmazonClientException
+     *             if the config is invalid
+     */
+    public QueueConsumer(AmazonSQSBufferedAsyncClient sqs, String queueUrl, MessageHandler handler,
+            QueueConsumerConfig config) {
+        if (sqs == null || queueUrl == null || handler == null) {
+            throw new IllegalArgumentException("sqs, queueUrl and handler must not be null");
+        }
+        this.config = new QueueConsumerConfig(config);
+        this.config.validate();
+        this.sqs = sqs;
+        this.queueUrl = queueUrl;
+        this.handler = handler;
+
+        ThreadFactory threadFactory = new DaemonThreadFactory();
+        receivers = Executors.newFixedThreadPool(this.config.getReceiverCount(), threadFactory);
+        processors = Executors.newFixedThreadPool(this.config.getProcessingThreads(), threadFactory);
+        heartbeats = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        capacity = new Semaphore(this.config.getProcessingThreads() + this.config.getMaxBufferedMessages());
+    }
+
+    /**
+     * Starts receiving and processing messages.
+     *
+     * @throws IllegalStateException
+     *             if the consumer was already started
+     */
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("The consumer was already started");
+        }
+        activeReceivers.set(config.getReceiverCount());
+        for (int i = 0; i < config.getReceiverCount(); i++) {
+            receivers.execute(new Receiver());
+        }
+        long interval = config.getHeartbeatIntervalSeconds();
+        heartbeats.scheduleWithFixedDelay(new Heartbeat(), interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops receiving messages. Receive calls in flight complete and the messages received so far
+     * are processed; use {@link #awaitTermination(long, TimeUnit)} to wait for that.
+     */
+    public void shutdown() {
+        shutDown = true;
+        receivers.shutdown();
+        if (!started.get()) {
+            processors.shutdown();
+            heartbeats.shutdown();
+        }
+    }
+
+    /**
+     * Waits until the consumer has processed all the messages it received after a
+     * {@link #shutdown()}, or the timeout elapses.
+     *
+     * @return true if the consumer terminated, false if the timeout elapsed first
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        return receivers.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)
+                && processors.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)
+                && heartbeats.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return a snapshot of the activity of this consumer
+     */
+    public QueueConsumerMetrics getMetrics() {
+        return new QueueConsumerMetrics(System.currentTimeMillis(), receivedCount.get(), processedCount.get(),
+                failedCount.get(), deletedCount.get(), deleteFailedCount.get(), visibilityExtendedCount.get(),
+                inFlight.size(), lagMillis);
+    }
+
+    /**
+     * Long polls the queue until the consumer is shut down. The last receiver to stop shuts the
+     * processing pool down once the messages it was given are processed.
+     */
+    private class Receiver implements Runnable {
+        public void run() {
+            try {
+                while (!shutDown) {
+                    if (!receive()) {
+                        break;
+                    }
+                }
+            } finally {
+                if (activeReceivers.decrementAndGet() == 0) {
+                    processors.shutdown();
+                    heartbeats.shutdown();
+                }
+            }
+        }
+
+        /**
+         * @return false if the receiver was interrupted and must stop
+         */
+        private boolean receive() {
+            int permits = 1;
+            try {
+                capacity.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            while (permits < MAX_MESSAGES_PER_RECEIVE && capacity.tryAcquire()) {
+                ++permits;
+            }
+
+            ReceiveMessageRequest request = new ReceiveMessageRequest(queueUrl).withMaxNumberOfMessages(permits)
+                    .withWaitTimeSeconds(config.getLongPollWaitTimeoutSeconds())
+                    .withVisibilityTimeout(config.getVisibilityTimeoutSeconds()).withAttributeNames(SENT_TIMESTAMP);
+            long visibilityDeadline = System.currentTimeMillis()
+                    + TimeUnit.SECONDS.toMillis(config.getVisibilityTimeoutSeconds());
+            List<Message> messages;
+            try {
+                messages = sqs.receiveMessage(request).getMessages();
+            } catch (AmazonClientException e) {
+                capacity.release(permits);
+                if (shutDown) {
+                    return false;
+                }
+                log.warn("Unable to receive messages from " + queueUrl, e);
+                try {
+                    Thread.sleep(RECEIVE_RETRY_DELAY_MILLIS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                return true;
+            }
+
+            capacity.release(permits - messages.size());
+            receivedCount.addAndGet(messages.size());
+            for (Message message : messages) {
+                InFlightMessage inFlightMessage = new InFlightMessage(message, visibilityDeadline);
+                inFlight.add(inFlightMessage);
+                processors.execute(new Processor(inFlightMessage));
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Processes a message, then deletes it if the handler succeeded.
+     */
+    private class Processor implements Runnable {
+        private final InFlightMessage inFlightMessage;
+
+        Processor(InFlightMessage paramInFlightMessage) {
+            inFlightMessage = paramInFlightMessage;
+        }
+
+        public void run() {
+            Message message = inFlightMessage.message;
+            try {
+                handler.handleMessage(message);
+                processedCount.incrementAndGet();
+                updateLag(message);
+                sqs.deleteMessageAsync(new DeleteMessageRequest(queueUrl, message.getReceiptHandle()), deleteHandler);
+            } catch (Exception e) {
+                failedCount.incrementAndGet();
+                log.warn("Failed to process message " + message.getMessageId() + " from " + queueUrl, e);
+            } finally {
+                inFlight.remove(inFlightMessage);
+                capacity.release();
+            }
+        }
+
+        private void updateLag(Message message) {
+            String sentTimestamp = message.getAttributes().get(SENT_TIMESTAMP);
+            if (sentTimestamp != null) {
+                try {
+                    lagMillis = System.currentTimeMillis() - Long.parseLong(sentTimestamp);
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Extends the visibility timeout of the messages in process which would otherwise expire
+     * before the next two heartbeats.
+     */
+    private class Heartbeat implements Runnable {
+        public void run() {
+            long now = System.currentTimeMillis();
+            long horizon = now + 2 * TimeUnit.SECONDS.toMillis(config.getHeartbeatIntervalSeconds());
+            for (InFlightMessage inFlightMessage : inFlight) {
+                if (inFlightMessage.visibilityDeadline <= horizon) {
+                    // the new timeout starts when SQS gets the request, after now
+                    inFlightMessage.visibilityDeadline = now
+                            + TimeUnit.SECONDS.toMillis(config.getVisibilityTimeoutSeconds());
+                    try {
+                        sqs.changeMessageVisibilityAsync(new ChangeMessageVisibilityRequest(queueUrl,
+                                inFlightMessage.message.getReceiptHandle(), config.getVisibilityTimeoutSeconds()),
+                                heartbeatHandler);
+                    } catch (AmazonClientException e) {
+                        log.warn("Unable to extend the visibility timeout of a message from " + queueUrl, e);
+                    }
+                }
+            }
+        }
+    }
+
+    private static class InFlightMessage {
+        private final Message message;
+
+        /** when the visibility timeout of the message expires, in milliseconds since the epoch */
+        private volatile long visibilityDeadline;
+
+        InFlightMessage(Message paramMessage, long paramVisibilityDeadline) {
+            message = paramMessage;
+            visibilityDeadline = paramVisibilityDeadline;
+        }
+    }
+
+    /**
+     * We need daemon threads in our executors so that we don't keep the process running if our
+     * threads are the only ones left in the process.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+        static AtomicInteger threadCount = new AtomicInteger(0);
+
+        public Thread newThread(Runnable r) {
+            int threadNumber = threadCount.addAndGet(1);
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("SQSQueueConsumerThread-" + threadNumber);
+            return thread;
+        }
+    }
+}
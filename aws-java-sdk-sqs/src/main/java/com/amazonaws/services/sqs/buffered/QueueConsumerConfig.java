@@ -0,0 +1,327 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazonaws.services.sqs.buffered;
+
+import com.amazonaws.AmazonClientException;
+
+/**
+ * Configuration of a {@link QueueConsumer}.
+ */
+public class QueueConsumerConfig {
+
+    /**
+     * The number of threads long polling the queue. Each of them has at most one receive call in
+     * flight.
+     */
+    private int receiverCount;
+
+    /** 2 receivers */
+    public static final int RECEIVER_COUNT_DEFAULT = 2;
+
+    /**
+     * The number of threads processing messages.
+     */
+    private int processingThreads;
+
+    /** 10 threads */
+    public static final int PROCESSING_THREADS_DEFAULT = 10;
+
+    /**
+     * The maximum number of received messages waiting for a processing thread. Receivers stop
+     * polling when processingThreads + maxBufferedMessages messages are held by the consumer, so
+     * that messages do not wait on the client side while their visibility timeout runs.
+     */
+    private int maxBufferedMessages;
+
+    /** 10 messages */
+    public static final int MAX_BUFFERED_MESSAGES_DEFAULT = 10;
+
+    /**
+     * The visibility timeout requested when receiving messages. Messages still being processed when
+     * their visibility timeout is about to expire get it extended by that amount.
+     */
+    private int visibilityTimeoutSeconds;
+
+    /** 30 seconds */
+    public static final int VISIBILITY_TIMEOUT_SECONDS_DEFAULT = 30;
+
+    /**
+     * The amount of time, in seconds, a receive call waits on the server for messages to arrive.
+     */
+    private int longPollWaitTimeoutSeconds;
+
+    /** 20 seconds */
+    public static final int LONGPOLL_WAIT_TIMEOUT_SECONDS_DEFAULT = 20;
+
+    /**
+     * The interval, in seconds, at which the consumer looks for messages in process whose
+     * visibility timeout expires within the next two intervals, and extends it. Must be lower
+     * than half the visibility timeout.
+     */
+    private int heartbeatIntervalSeconds;
+
+    /** 10 seconds */
+    public static final int HEARTBEAT_INTERVAL_SECONDS_DEFAULT = 10;
+
+    public QueueConsumerConfig() {
+        receiverCount = RECEIVER_COUNT_DEFAULT;
+        processingThreads = PROCESSING_THREADS_DEFAULT;
+        maxBufferedMessages = MAX_BUFFERED_MESSAGES_DEFAULT;
+        visibilityTimeoutSeconds = VISIBILITY_TIMEOUT_SECONDS_DEFAULT;
+        longPollWaitTimeoutSeconds = LONGPOLL_WAIT_TIMEOUT_SECONDS_DEFAULT;
+        heartbeatIntervalSeconds = HEARTBEAT_INTERVAL_SECONDS_DEFAULT;
+    }
+
+    /** copy constructor */
+    public QueueConsumerConfig(QueueConsumerConfig other) {
+        receiverCount = other.receiverCount;
+        processingThreads = other.processingThreads;
+        maxBufferedMessages = other.maxBufferedMessages;
+        visibilityTimeoutSeconds = other.visibilityTimeoutSeconds;
+        longPollWaitTimeoutSeconds = other.longPollWaitTimeoutSeconds;
+        heartbeatIntervalSeconds = other.heartbeatIntervalSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "QueueConsumerConfig [receiverCount=" + receiverCount + ", processingThreads=" + processingThreads
+                + ", maxBufferedMessages=" + maxBufferedMessages + ", visibilityTimeoutSeconds="
+                + visibilityTimeoutSeconds + ", longPollWaitTimeoutSeconds=" + longPollWaitTimeoutSeconds
+                + ", heartbeatIntervalSeconds=" + heartbeatIntervalSeconds + "]";
+    }
+
+    /**
+     * The number of threads long polling the queue. Each of them has at most one receive call in
+     * flight.
+     */
+    public int getReceiverCount() {
+        return receiverCount;
+    }
+
+    /**
+     * The number of threads long polling the queue. Each of them has at most one receive call in
+     * flight.
+     *
+     * @throws IllegalArgumentException
+     *             if the count is lower than 1
+     */
+    public void setReceiverCount(int receiverCount) {
+        if (receiverCount < 1) {
+            throw new IllegalArgumentException("receiverCount " + receiverCount + " must be at least 1");
+        }
+        this.receiverCount = receiverCount;
+    }
+
+    /**
+     * The number of threads long polling the queue. Each of them has at most one receive call in
+     * flight.
+     *
+     * @throws IllegalArgumentException
+     *             if the count is lower than 1
+     */
+    public QueueConsumerConfig withReceiverCount(int receiverCount) {
+        setReceiverCount(receiverCount);
+        return this;
+    }
+
+    /**
+     * The number of threads processing messages.
+     */
+    public int getProcessingThreads() {
+        return processingThreads;
+    }
+
+    /**
+     * The number of threads processing messages.
+     *
+     * @throws IllegalArgumentException
+     *             if the count is lower than 1
+     */
+    public void setProcessingThreads(int processingThreads) {
+        if (processingThreads < 1) {
+            throw new IllegalArgumentException("processingThreads " + processingThreads + " must be at least 1");
+        }
+        this.processingThreads = processingThreads;
+    }
+
+    /**
+     * The number of threads processing messages.
+     *
+     * @throws IllegalArgumentException
+     *             if the count is lower than 1
+     */
+    public QueueConsumerConfig withProcessingThreads(int processingThreads) {
+        setProcessingThreads(processingThreads);
+        return this;
+    }
+
+    /**
+     * The maximum number of received messages waiting for a processing thread. Receivers stop
+     * polling when processingThreads + maxBufferedMessages messages are held by the consumer, so
+     * that messages do not wait on the client side while their visibility timeout runs.
+     */
+    public int getMaxBufferedMessages() {
+        return maxBufferedMessages;
+    }
+
+    /**
+     * The maximum number of received messages waiting for a processing thread. Receivers stop
+     * polling when processingThreads + maxBufferedMessages messages are held by the consumer, so
+     * that messages do not wait on the client side while their visibility timeout runs.
+     *
+     * @throws IllegalArgumentException
+     *             if the number is negative
+     */
+    public void setMaxBufferedMessages(int maxBufferedMessages) {
+        if (maxBufferedMessages < 0) {
+            throw new IllegalArgumentException("maxBufferedMessages " + maxBufferedMessages
+                    + " must not be negative");
+        }
+        this.maxBufferedMessages = maxBufferedMessages;
+    }
+
+    /**
+     * The maximum number of received messages waiting for a processing thread. Receivers stop
+     * polling when processingThreads + maxBufferedMessages messages are held by the consumer, so
+     * that messages do not wait on the client side while their visibility timeout runs.
+     *
+     * @throws IllegalArgumentException
+     *             if the number is negative
+     */
+    public QueueConsumerConfig withMaxBufferedMessages(int maxBufferedMessages) {
+        setMaxBufferedMessages(maxBufferedMessages);
+        return this;
+    }
+
+    /**
+     * The visibility timeout requested when receiving messages. Messages still being processed when
+     * their visibility timeout is about to expire get it extended by that amount.
+     */
+    public int getVisibilityTimeoutSeconds() {
+        return visibilityTimeoutSeconds;
+    }
+
+    /**
+     * The visibility timeout requested when receiving messages. Messages still being processed when
+     * their visibility timeout is about to expire get it extended by that amount.
+     *
+     * @throws IllegalArgumentException
+     *             if the timeout is lower than 1
+     */
+    public void setVisibilityTimeoutSeconds(int visibilityTimeoutSeconds) {
+        if (visibilityTimeoutSeconds < 1) {
+            throw new IllegalArgumentException("visibilityTimeoutSeconds " + visibilityTimeoutSeconds
+                    + " must be at least 1");
+        }
+        this.visibilityTimeoutSeconds = visibilityTimeoutSeconds;
+    }
+
+    /**
+     * The visibility timeout requested when receiving messages. Messages still being processed when
+     * their visibility timeout is about to expire get it extended by that amount.
+     *
+     * @throws IllegalArgumentException
+     *             if the timeout is lower than 1
+     */
+    public QueueConsumerConfig withVisibilityTimeoutSeconds(int visibilityTimeoutSeconds) {
+        setVisibilityTimeoutSeconds(visibilityTimeoutSeconds);
+        return this;
+    }
+
+    /**
+     * The amount of time, in seconds, a receive call waits on the server for messages to arrive.
+     */
+    public int getLongPollWaitTimeoutSeconds() {
+        return longPollWaitTimeoutSeconds;
+    }
+
+    /**
+     * The amount of time, in seconds, a receive call waits on the server for messages to arrive.
+     *
+     * @throws IllegalArgumentException
+     *             if the timeout is not between 0 and 20
+     */
+    public void setLongPollWaitTimeoutSeconds(int longPollWaitTimeoutSeconds) {
+        if (longPollWaitTimeoutSeconds < 0 || longPollWaitTimeoutSeconds > 20) {
+            throw new IllegalArgumentException("longPollWaitTimeoutSeconds " + longPollWaitTimeoutSeconds
+                    + " must be between 0 and 20");
+        }
+        this.longPollWaitTimeoutSeconds = longPollWaitTimeoutSeconds;
+    }
+
+    /**
+     * The amount of time, in seconds, a receive call waits on the server for messages to arrive.
+     *
+     * @throws IllegalArgumentException
+     *             if the timeout is not between 0 and 20
+     */
+    public QueueConsumerConfig withLongPollWaitTimeoutSeconds(int longPollWaitTimeoutSeconds) {
+        setLongPollWaitTimeoutSeconds(longPollWaitTimeoutSeconds);
+        return this;
+    }
+
+    /**
+     * The interval, in seconds, at which the consumer looks for messages in process whose
+     * visibility timeout expires within the next two intervals, and extends it. Must be lower
+     * than half the visibility timeout.
+     */
+    public int getHeartbeatIntervalSeconds() {
+        return heartbeatIntervalSeconds;
+    }
+
+    /**
+     * The interval, in seconds, at which the consumer looks for messages in process whose
+     * visibility timeout expires within the next two intervals, and extends it. Must be lower
+     * than half the visibility timeout.
+     *
+     * @throws IllegalArgumentException
+     *             if the interval is lower than 1
+     */
+    public void setHeartbeatIntervalSeconds(int heartbeatIntervalSeconds) {
+        if (heartbeatIntervalSeconds < 1) {
+            throw new IllegalArgumentException("heartbeatIntervalSeconds " + heartbeatIntervalSeconds
+                    + " must be at least 1");
+        }
+        this.heartbeatIntervalSeconds = heartbeatIntervalSeconds;
+    }
+
+    /**
+     * The interval, in seconds, at which the consumer looks for messages in process whose
+     * visibility timeout expires within the next two intervals, and extends it. Must be lower
+     * than half the visibility timeout.
+     *
+     * @throws IllegalArgumentException
+     *             if the interval is lower than 1
+     */
+    public QueueConsumerConfig withHeartbeatIntervalSeconds(int heartbeatIntervalSeconds) {
+        setHeartbeatIntervalSeconds(heartbeatIntervalSeconds);
+        return this;
+    }
+
+    /**
+     * this method checks the config for validity. If the config is deemed to be invalid, an
+     * informative exception is thrown.
+     *
+     * @throws AmazonClientException
+     *             with a message explaining why the config was invalid
+     */
+    void validate() {
+        if (heartbeatIntervalSeconds * 2 >= visibilityTimeoutSeconds) {
+            throw new AmazonClientException("Heartbeat interval " + heartbeatIntervalSeconds
+                    + "s must be lower than half the visibility timeout " + visibilityTimeoutSeconds + "s");
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazonaws.services.sqs.buffered;
+
+/**
+ * A snapshot of the activity of a {@link QueueConsumer}. Counts are cumulative since the consumer
+ * was created; throughput is obtained by comparing two snapshots with
+ * {@link #getProcessedPerSecondSince(QueueConsumerMetrics)}.
+ */
+public class QueueConsumerMetrics {
+
+    private final long timestampMillis;
+    private final long receivedCount;
+    private final long processedCount;
+    private final long failedCount;
+    private final long deletedCount;
+    private final long deleteFailedCount;
+    private final long visibilityExtendedCount;
+    private final int inFlightCount;
+    private final long lagMillis;
+
+    QueueConsumerMetrics(long timestampMillis, long receivedCount, long processedCount, long failedCount,
+            long deletedCount, long deleteFailedCount, long visibilityExtendedCount, int inFlightCount,
+            long lagMillis) {
+        this.timestampMillis = timestampMillis;
+        this.receivedCount = receivedCount;
+        this.processedCount = processedCount;
+        this.failedCount = failedCount;
+        this.deletedCount = deletedCount;
+        this.deleteFailedCount = deleteFailedCount;
+        this.visibilityExtendedCount = visibilityExtendedCount;
+        this.inFlightCount = inFlightCount;
+        this.lagMillis = lagMillis;
+    }
+
+    /**
+     * @return the time the snapshot was taken, in milliseconds since the epoch
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * @return the number of messages received from the queue
+     */
+    public long getReceivedCount() {
+        return receivedCount;
+    }
+
+    /**
+     * @return the number of messages the handler processed successfully
+     */
+    public long getProcessedCount() {
+        return processedCount;
+    }
+
+    /**
+     * @return the number of messages the handler failed to process
+     */
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * @return the number of processed messages deleted from the queue
+     */
+    public long getDeletedCount() {
+        return deletedCount;
+    }
+
+    /**
+     * @return the number of processed messages which could not be deleted, and will therefore be
+     *         received again
+     */
+    public long getDeleteFailedCount() {
+        return deleteFailedCount;
+    }
+
+    /**
+     * @return the number of times the visibility timeout of a message in process was extended
+     */
+    public long getVisibilityExtendedCount() {
+        return visibilityExtendedCount;
+    }
+
+    /**
+     * @return the number of received messages waiting for or being processed
+     */
+    public int getInFlightCount() {
+        return inFlightCount;
+    }
+
+    /**
+     * @return the time between the last processed message being sent to the queue and the end of
+     *         its processing, in milliseconds, or -1 if no message was processed yet
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    /**
+     * @return the number of messages processed successfully per second between the given earlier
+     *         snapshot and this one
+     */
+    public double getProcessedPerSecondSince(QueueConsumerMetrics earlier) {
+        long elapsedMillis = timestampMillis - earlier.timestampMillis;
+        if (elapsedMillis <= 0) {
+            return 0;
+        }
+        return (processedCount - earlier.processedCount) * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "QueueConsumerMetrics [receivedCount=" + receivedCount + ", processedCount=" + processedCount
+                + ", failedCount=" + failedCount + ", deletedCount=" + deletedCount + ", deleteFailedCount="
+                + deleteFailedCount + ", visibilityExtendedCount=" + visibilityExtendedCount + ", inFlightCount="
+                + inFlightCount + ", lagMillis=" + lagMillis + "]";
+    }
+}
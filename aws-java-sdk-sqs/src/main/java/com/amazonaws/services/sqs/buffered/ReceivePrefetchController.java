@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazonaws.services.sqs.buffered;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sizes the pre-fetching of a {@link ReceiveQueueBuffer} when adaptive prefetching is enabled.
+ * <p>
+ * The controller keeps a moving average of the rate at which consumers take messages out of the
+ * buffer, and of how long a receive call returning messages takes. The buffer should then hold
+ * what consumers take during half a visibility timeout, so that buffered messages are consumed
+ * well before they expire, and enough receive batches should be in flight to cover what consumers
+ * take during one receive call. Both are bounded by the limits of the {@link QueueBufferConfig}.
+ * <p>
+ * The averages are updated without locking; concurrent updates may occasionally lose a sample,
+ * which only makes the estimates slightly less accurate.
+ */
+class ReceivePrefetchController {
+
+    /** consumption is counted over windows of that length before being averaged */
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    /** weight of the latest sample in the moving averages */
+    private static final double ALPHA = 0.3;
+
+    /** fraction of the visibility timeout the buffered messages should last for */
+    private static final double VISIBILITY_FRACTION = 0.5;
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final QueueBufferConfig config;
+
+    private final AtomicLong consumedInWindow = new AtomicLong();
+
+    private final AtomicLong windowStartNanos = new AtomicLong(System.nanoTime());
+
+    private volatile double messagesPerSecond;
+
+    /** -1 until the first receive returning messages completes */
+    private volatile double receiveLatencyNanos = -1;
+
+    ReceivePrefetchController(QueueBufferConfig paramConfig) {
+        config = paramConfig;
+    }
+
+    /**
+     * Records that consumers took the given number of messages out of the buffer.
+     */
+    void messagesConsumed(int count) {
+        consumedInWindow.addAndGet(count);
+        updateRate(System.nanoTime());
+    }
+
+    /**
+     * Records the duration of a receive call which returned messages. Long polls which returned
+     * nothing say nothing about how fast messages can be fetched, and must not be recorded.
+     */
+    void receiveCompleted(long durationNanos) {
+        double latency = receiveLatencyNanos;
+        receiveLatencyNanos = latency < 0 ? durationNanos : ALPHA * durationNanos + (1 - ALPHA) * latency;
+    }
+
+    /**
+     * @return the number of finished batches the buffer should hold, between 1 and
+     *         maxDoneReceiveBatches
+     */
+    int getDesiredDoneBatches(long visibilityTimeoutNanos) {
+        updateRate(System.nanoTime());
+        double messages = messagesPerSecond * (visibilityTimeoutNanos / NANOS_PER_SECOND) * VISIBILITY_FRACTION;
+        return toBatches(messages, config.getMaxDoneReceiveBatches());
+    }
+
+    /**
+     * @return the number of receive batches which should be in flight, between 1 and
+     *         maxInflightReceiveBatches
+     */
+    int getDesiredInflightBatches() {
+        updateRate(System.nanoTime());
+        double latency = receiveLatencyNanos;
+        if (latency < 0) {
+            return 1;
+        }
+        double messages = messagesPerSecond * (latency / NANOS_PER_SECOND);
+        return toBatches(messages, config.getMaxInflightReceiveBatches());
+    }
+
+    private int toBatches(double messages, int maxBatches) {
+        int batchSize = Math.max(1, config.getMaxBatchSize());
+        double batches = Math.ceil(messages / batchSize);
+        if (batches < 1) {
+            return 1;
+        }
+        return (int) Math.min(batches, Math.max(1, maxBatches));
+    }
+
+    /**
+     * Closes the current window once it is long enough and folds its consumption rate into the
+     * average, weighted by how many windows it spans. Windows with no consumption are folded too,
+     * so that the rate decays when consumers stop.
+     */
+    private void updateRate(long now) {
+        long start = windowStartNanos.get();
+        long elapsed = now - start;
+        if (elapsed < WINDOW_NANOS || !windowStartNanos.compareAndSet(start, now)) {
+            return;
+        }
+        double rate = consumedInWindow.getAndSet(0) * NANOS_PER_SECOND / elapsed;
+        double decay = Math.pow(1 - ALPHA, (double) elapsed / WINDOW_NANOS);
+        messagesPerSecond = (1 - decay) * rate + decay * messagesPerSecond;
+    }
+}
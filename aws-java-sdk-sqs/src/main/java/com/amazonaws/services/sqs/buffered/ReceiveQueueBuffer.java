@@ -19,8 +19,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -29,6 +33,7 @@ import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.sqs.AmazonSQS;
 import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
 import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
 import com.amazonaws.services.sqs.model.GetQueueAttributesRequest;
 import com.amazonaws.services.sqs.model.Message;
 import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
@@ -40,11 +45,18 @@ import com.amazonaws.services.sqs.model.ReceiveMessageResult;
  * which it uses to satisfy incoming requests. The number of requests pre-fetched and kept in the
  * buffer, as well as the maximum number of threads used to retrieve the messages are configurable.
  * <p>
- * Synchronization strategy: - Threads must hold the TaskSpawnSyncPoint object monitor to spawn a
- * new task or modify the number of inflight tasks - Threads must hold the monitor of the "futures"
- * list to modify the list - Threads must hold the monitor of the "finishedTasks" list to modify the
- * list - If you need to lock both futures and finishedTasks, lock futures first and finishedTasks
- * second
+ * When adaptive prefetching is enabled, a {@link ReceivePrefetchController} sizes the number of
+ * buffered and in flight batches from the observed consumption rate, and buffered batches about
+ * to expire get their visibility timeout extended once.
+ * <p>
+ * Synchronization strategy: - Issued futures and finished batches are handed over through
+ * concurrent queues, and the number of inflight batches is a counter updated with compare-and-set
+ * - Futures are satisfied by a single thread at a time: any thread may request a drain by
+ * incrementing {@code drainRequests}, and only the thread which moved it away from zero drains,
+ * looping until all the requests it absorbed are served. The draining thread is the only one to
+ * remove futures, and finished batches are removed by identity so that a concurrent
+ * {@code clear} is harmless - The monitor of {@code taskSpawnSyncPoint} is only held to fetch the
+ * queue visibility timeout once
  */
 public class ReceiveQueueBuffer {
 
@@ -72,23 +84,23 @@ public class ReceiveQueueBuffer {
 
     private final AmazonSQS sqsClient;
 
-    private long bufferCounter = 0;
+    private final AtomicLong bufferCounter = new AtomicLong();
 
     /**
      * This buffer's queue visibility timeout. Used to detect expired message that should not be
-     * returned by the {@code receiveMessage} call. Synchronized by {@code receiveMessageLock}. -1
+     * returned by the {@code receiveMessage} call. Initialized under {@code taskSpawnSyncPoint}. -1
      * indicates that the time is uninitialized.
      */
     private volatile long visibilityTimeoutNanos = -1;
 
     /**
-     * Used as permits controlling the number of in flight receive batches. Synchronized by
-     * {@code taskSpawnSyncPoint}.
+     * Used as permits controlling the number of in flight receive batches. Updated with
+     * compare-and-set.
      */
-    private volatile int inflightReceiveMessageBatches;
+    private final AtomicInteger inflightReceiveMessageBatches = new AtomicInteger();
 
     /**
-     * synchronize on this object to create new receive batches or modify inflight message count
+     * synchronize on this object to fetch the queue visibility timeout
      */
     private final Object taskSpawnSyncPoint = new Object();
 
@@ -96,17 +108,26 @@ public class ReceiveQueueBuffer {
     volatile boolean shutDown = false;
 
     /** message delivery futures we gave out */
-    private final LinkedList<ReceiveMessageFuture> futures = new LinkedList<ReceiveMessageFuture>();
+    private final ConcurrentLinkedQueue<ReceiveMessageFuture> futures = new ConcurrentLinkedQueue<ReceiveMessageFuture>();
+
+    /** finished batches are stored in this queue. */
+    private final ConcurrentLinkedQueue<ReceiveMessageBatchTask> finishedTasks = new ConcurrentLinkedQueue<ReceiveMessageBatchTask>();
+
+    /** the size of finishedTasks, which the queue itself can only count in linear time */
+    private final AtomicInteger finishedTaskCount = new AtomicInteger();
 
-    /** finished batches are stored in this list. */
-    private LinkedList<ReceiveMessageBatchTask> finishedTasks = new LinkedList<ReceiveMessageBatchTask>();
+    /** the number of drain requests not yet served by the draining thread */
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    /** null unless adaptive prefetching is enabled */
+    private final ReceivePrefetchController prefetchController;
 
     ReceiveQueueBuffer(AmazonSQS paramSQS, Executor paramExecutor, QueueBufferConfig paramConfig, String url) {
         config = paramConfig;
         executor = paramExecutor;
         sqsClient = paramSQS;
         qUrl = url;
-
+        prefetchController = config.isAdaptivePrefetching() ? new ReceivePrefetchController(config) : null;
     }
 
     /**
@@ -116,7 +137,7 @@ public class ReceiveQueueBuffer {
     public void shutdown() {
         shutDown = true;
         try {
-            while (inflightReceiveMessageBatches > 0)
+            while (inflightReceiveMessageBatches.get() > 0)
                 Thread.sleep(100);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -149,6 +170,10 @@ public class ReceiveQueueBuffer {
         // spawn more receive tasks if we need them...
         spawnMoreReceiveTasks();
 
+        if (prefetchController != null) {
+            extendExpiringBatches();
+        }
+
         return toReturn;
     }
 
@@ -160,11 +185,9 @@ public class ReceiveQueueBuffer {
      */
     private ReceiveMessageFuture issueFuture(int size,
                                              QueueBufferCallback<ReceiveMessageRequest, ReceiveMessageResult> callback) {
-        synchronized (futures) {
-            ReceiveMessageFuture theFuture = new ReceiveMessageFuture(callback, size);
-            futures.addLast(theFuture);
-            return theFuture;
-        }
+        ReceiveMessageFuture theFuture = new ReceiveMessageFuture(callback, size);
+        futures.add(theFuture);
+        return theFuture;
     }
 
     /**
@@ -172,32 +195,35 @@ public class ReceiveQueueBuffer {
      * buffer is empty or there are no futures, this method won't do anything.
      */
     private void satisfyFuturesFromBuffer() {
-        synchronized (futures) {
-            synchronized (finishedTasks) {
-                // attempt to satisfy futures until we run out of either futures or
-                // finished tasks
-                while ((!futures.isEmpty()) && (!finishedTasks.isEmpty())) {
-                    // Remove any expired tasks before attempting to fufill the future
-                    pruneExpiredTasks();
-                    // Fufill the future from a non expired task if there is one. There is still a
-                    // slight chance that the first task could have expired between the time we
-                    // pruned and the time we fufill the future
-                    if (!finishedTasks.isEmpty()) {
-                        fufillFuture(futures.poll());
-                    }
+        if (drainRequests.getAndIncrement() != 0) {
+            // the draining thread will see the new future or batch
+            return;
+        }
+        int missed = 1;
+        do {
+            // attempt to satisfy futures until we run out of either futures or
+            // finished tasks
+            while ((!futures.isEmpty()) && (!finishedTasks.isEmpty())) {
+                // Remove any expired tasks before attempting to fufill the future
+                pruneExpiredTasks();
+                // Fufill the future from a non expired task if there is one. There is still a
+                // slight chance that the first task could have expired between the time we
+                // pruned and the time we fufill the future
+                ReceiveMessageBatchTask task = finishedTasks.peek();
+                if (task != null) {
+                    fufillFuture(futures.poll(), task);
                 }
             }
-        }
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
     }
 
     /**
-     * Fills the future with whatever results were received by the full batch currently at the head
-     * of the completed batch queue. Those results may be retrieved messages, or an exception. This
-     * method assumes that you are holding the finished tasks lock locks when invoking it. violate
-     * this assumption at your own peril
+     * Fills the future with whatever results were received by the given batch, which is the one
+     * at the head of the completed batch queue. Those results may be retrieved messages, or an
+     * exception. This method must only be invoked by the draining thread.
      */
-    private void fufillFuture(ReceiveMessageFuture future) {
-        ReceiveMessageBatchTask task = finishedTasks.getFirst();
+    private void fufillFuture(ReceiveMessageFuture future, ReceiveMessageBatchTask task) {
         ReceiveMessageResult result = new ReceiveMessageResult();
         LinkedList<Message> messages = new LinkedList<Message>();
         result.setMessages(messages);
@@ -219,9 +245,12 @@ public class ReceiveQueueBuffer {
         // we may have just drained the batch.
         batchDone = batchDone || task.isEmpty() || (exception != null);
         if (batchDone) {
-            finishedTasks.removeFirst();
+            removeFinishedTask(task);
         }
         result.setMessages(messages);
+        if (prefetchController != null && numRetrieved > 0) {
+            prefetchController.messagesConsumed(numRetrieved);
+        }
 
         // if after the above runs the exception is not null,
         // the finished batch has encountered an error, and we will
@@ -235,8 +264,8 @@ public class ReceiveQueueBuffer {
     }
 
     /**
-     * Prune any expired tasks that do not have an exception associated with them. This method
-     * assumes that you are holding the finishedTasks lock when invoking it
+     * Prune any expired tasks that do not have an exception associated with them. This method must
+     * only be invoked by the draining thread.
      */
     private void pruneExpiredTasks() {
         int numberExpiredTasksPruned = pruneHeadTasks(new Predicate<ReceiveQueueBuffer.ReceiveMessageBatchTask>() {
@@ -260,7 +289,7 @@ public class ReceiveQueueBuffer {
     /**
      * Prune all tasks at the beginning of the finishedTasks list that meet the given condition.
      * Once a task is found that does not meet the given condition the pruning stops. This method
-     * assumes that you are holding the finishedTasks lock when invoking it.
+     * must only be invoked by the draining thread.
      * 
      * @param pruneCondition
      *            Condition on whether a task is eligible to be pruned
@@ -268,9 +297,10 @@ public class ReceiveQueueBuffer {
      */
     private int pruneHeadTasks(Predicate<ReceiveMessageBatchTask> pruneCondition) {
         int numberPruned = 0;
-        while (!finishedTasks.isEmpty()) {
-            if (pruneCondition.test(finishedTasks.getFirst())) {
-                finishedTasks.removeFirst();
+        ReceiveMessageBatchTask task;
+        while ((task = finishedTasks.peek()) != null) {
+            if (pruneCondition.test(task)) {
+                removeFinishedTask(task);
                 numberPruned++;
             } else {
                 break;
@@ -279,6 +309,15 @@ public class ReceiveQueueBuffer {
         return numberPruned;
     }
 
+    /**
+     * Removes the given task from finishedTasks, unless a concurrent {@code clear} already did.
+     */
+    private void removeFinishedTask(ReceiveMessageBatchTask task) {
+        if (finishedTasks.remove(task)) {
+            finishedTaskCount.decrementAndGet();
+        }
+    }
+
     /**
      * maybe create more receive tasks. extra receive tasks won't be created if we are already at
      * the maximum number of receive tasks, or if we are at the maximum number of prefetched buffers
@@ -288,22 +327,57 @@ public class ReceiveQueueBuffer {
             return;
         }
 
+        initVisibilityTimeout();
+
         int desiredBatches = config.getMaxDoneReceiveBatches();
+        int max = config.getMaxInflightReceiveBatches();
+        // consumers waiting for messages are served at full speed, otherwise the
+        // prefetching follows the consumption rate
+        if (prefetchController != null && futures.isEmpty()) {
+            desiredBatches = prefetchController.getDesiredDoneBatches(getEffectiveVisibilityTimeoutNanos());
+            max = prefetchController.getDesiredInflightBatches();
+        }
         desiredBatches = desiredBatches < 1 ? 1 : desiredBatches;
 
-        synchronized (finishedTasks) {
-            if (finishedTasks.size() >= desiredBatches)
-                return;
+        int finished = finishedTaskCount.get();
+        if (finished >= desiredBatches)
+            return;
 
-            // if we have some finished batches already, and
-            // existing inflight batches will bring us to the limit,
-            // don't spawn more. if our finished tasks cache is empty, we will
-            // always spawn a thread.
-            if (finishedTasks.size() > 0 && (finishedTasks.size() + inflightReceiveMessageBatches) >= desiredBatches) {
+        // if we have some finished batches already, and
+        // existing inflight batches will bring us to the limit,
+        // don't spawn more. if our finished tasks cache is empty, we will
+        // always spawn a thread.
+        if (finished > 0 && (finished + inflightReceiveMessageBatches.get()) >= desiredBatches) {
+            return;
+        }
+
+        // must allow at least one inflight receive task, or receive won't
+        // work at all.
+        max = max > 0 ? max : 1;
+        int inflight;
+        do {
+            inflight = inflightReceiveMessageBatches.get();
+            if (inflight >= max) {
                 return;
             }
+        } while (!inflightReceiveMessageBatches.compareAndSet(inflight, inflight + 1));
+
+        ReceiveMessageBatchTask task = new ReceiveMessageBatchTask(this);
+        long batchNumber = bufferCounter.incrementAndGet();
+        if (log.isTraceEnabled()) {
+            log.trace("Spawned receive batch #" + batchNumber + " (" + (inflight + 1) + " of " + max
+                    + " inflight) for queue " + qUrl);
         }
+        executor.execute(task);
+    }
 
+    /**
+     * Fetches the visibility timeout of the queue the first time it is needed.
+     */
+    private void initVisibilityTimeout() {
+        if (visibilityTimeoutNanos != -1) {
+            return;
+        }
         synchronized (taskSpawnSyncPoint) {
             if (visibilityTimeoutNanos == -1) {
                 GetQueueAttributesRequest request = new GetQueueAttributesRequest().withQueueUrl(qUrl)
@@ -313,21 +387,35 @@ public class ReceiveQueueBuffer {
                         .get("VisibilityTimeout"));
                 visibilityTimeoutNanos = TimeUnit.NANOSECONDS.convert(visibilityTimeoutSeconds, TimeUnit.SECONDS);
             }
+        }
+    }
 
-            int max = config.getMaxInflightReceiveBatches();
-            // must allow at least one inflight receive task, or receive won't
-            // work at all.
-            max = max > 0 ? max : 1;
-            int toSpawn = max - inflightReceiveMessageBatches;
-            if (toSpawn > 0) {
-                ReceiveMessageBatchTask task = new ReceiveMessageBatchTask(this);
-                ++inflightReceiveMessageBatches;
-                ++bufferCounter;
-                if (log.isTraceEnabled()) {
-                    log.trace("Spawned receive batch #" + bufferCounter + " (" + inflightReceiveMessageBatches + " of "
-                            + max + " inflight) for queue " + qUrl);
-                }
-                executor.execute(task);
+    /**
+     * @return the visibility timeout of the received messages: the custom one of the config if
+     *         set, the one of the queue otherwise
+     */
+    private long getEffectiveVisibilityTimeoutNanos() {
+        if (config.getVisibilityTimeoutSeconds() > 0) {
+            return TimeUnit.NANOSECONDS.convert(config.getVisibilityTimeoutSeconds(), TimeUnit.SECONDS);
+        }
+        return visibilityTimeoutNanos;
+    }
+
+    /**
+     * Extends, in the background, the visibility timeout of the buffered batches which are about
+     * to expire. Each batch is extended at most once, so that messages nobody consumes do not stay
+     * hidden from other clients forever.
+     */
+    private void extendExpiringBatches() {
+        long now = System.nanoTime();
+        for (final ReceiveMessageBatchTask task : finishedTasks) {
+            if (task.startVisibilityExtension(now)) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        task.extendVisibility();
+                    }
+                });
             }
         }
     }
@@ -336,15 +424,12 @@ public class ReceiveQueueBuffer {
      * This method is called by the batches after they have finished retrieving the messages.
      */
     void reportBatchFinished(ReceiveMessageBatchTask batch) {
-        synchronized (finishedTasks) {
-            finishedTasks.addLast(batch);
-            if (log.isTraceEnabled()) {
-                log.info("Queue " + qUrl + " now has " + finishedTasks.size() + " receive results cached ");
-            }
-        }
-        synchronized (taskSpawnSyncPoint) {
-            --inflightReceiveMessageBatches;
+        finishedTasks.add(batch);
+        int finished = finishedTaskCount.incrementAndGet();
+        if (log.isTraceEnabled()) {
+            log.trace("Queue " + qUrl + " now has " + finished + " receive results cached ");
         }
+        inflightReceiveMessageBatches.decrementAndGet();
         satisfyFuturesFromBuffer();
         spawnMoreReceiveTasks();
     }
@@ -355,12 +440,10 @@ public class ReceiveQueueBuffer {
     public void clear() {
         boolean done = false;
         while (!done) {
-            ReceiveMessageBatchTask currentBatch = null;
-            synchronized (finishedTasks) {
-                currentBatch = finishedTasks.poll();
-            }
+            ReceiveMessageBatchTask currentBatch = finishedTasks.poll();
 
             if (currentBatch != null) {
+                finishedTaskCount.decrementAndGet();
                 currentBatch.clear();
             } else {
                 // ran out of batches to clear
@@ -393,9 +476,11 @@ public class ReceiveQueueBuffer {
     private class ReceiveMessageBatchTask implements Runnable {
         private Exception exception = null;
         private List<Message> messages;
-        private long visibilityDeadlineNano;
+        private volatile long visibilityDeadlineNano;
+        private long visibilityTimeoutNanosOfBatch;
         private boolean open = false;
         private ReceiveQueueBuffer parentBuffer;
+        private final AtomicBoolean visibilityExtended = new AtomicBoolean();
 
         /**
          * Constructs a receive task waiting the specified time before calling SQS.
@@ -455,6 +540,71 @@ public class ReceiveQueueBuffer {
             return System.nanoTime() > visibilityDeadlineNano;
         }
 
+        /**
+         * Claims the extension of the visibility timeout of this batch if its messages have less
+         * than a quarter of their visibility timeout left and were never extended.
+         * 
+         * @return true if the caller must now call {@link #extendVisibility()}
+         */
+        boolean startVisibilityExtension(long now) {
+            long remaining = visibilityDeadlineNano - now;
+            if (remaining <= 0 || remaining > visibilityTimeoutNanosOfBatch / 4 || visibilityExtended.get()) {
+                return false;
+            }
+            synchronized (this) {
+                if (exception != null || messages.isEmpty()) {
+                    return false;
+                }
+            }
+            return visibilityExtended.compareAndSet(false, true);
+        }
+
+        /**
+         * Resets the visibility timeout of the messages remaining in the batch. The deadline of
+         * the batch only moves if all messages were extended. Unlike {@link #clear()}, the call to
+         * SQS is made without holding the monitor so that consumers are not held up; a message
+         * nacked by a concurrent clear may then stay hidden until its extended timeout expires.
+         */
+        void extendVisibility() {
+            ChangeMessageVisibilityBatchRequest batchRequest = new ChangeMessageVisibilityBatchRequest()
+                    .withQueueUrl(qUrl);
+            ResultConverter.appendUserAgent(batchRequest, AmazonSQSBufferedAsyncClient.USER_AGENT);
+            int visibilityTimeoutSeconds = (int) TimeUnit.SECONDS.convert(visibilityTimeoutNanosOfBatch,
+                    TimeUnit.NANOSECONDS);
+
+            List<ChangeMessageVisibilityBatchRequestEntry> entries;
+            synchronized (this) {
+                if (isExpired()) {
+                    return;
+                }
+                entries = new ArrayList<ChangeMessageVisibilityBatchRequestEntry>(messages.size());
+                int i = 0;
+                for (Message m : messages) {
+                    entries.add(new ChangeMessageVisibilityBatchRequestEntry().withId(Integer.toString(i))
+                            .withReceiptHandle(m.getReceiptHandle()).withVisibilityTimeout(visibilityTimeoutSeconds));
+                    ++i;
+                }
+            }
+            if (entries.isEmpty()) {
+                return;
+            }
+
+            long requestStart = System.nanoTime();
+            try {
+                batchRequest.setEntries(entries);
+                ChangeMessageVisibilityBatchResult result = sqsClient.changeMessageVisibilityBatch(batchRequest);
+                if (result.getFailed().isEmpty()) {
+                    visibilityDeadlineNano = requestStart + visibilityTimeoutNanosOfBatch;
+                } else {
+                    log.warn("ReceiveMessageBatchTask: changeMessageVisibility failed for "
+                            + result.getFailed().size() + " of " + entries.size() + " messages");
+                }
+            } catch (AmazonClientException e) {
+                // Log and ignore, the messages will expire as if they were not extended.
+                log.warn("ReceiveMessageBatchTask: changeMessageVisibility failed " + e);
+            }
+        }
+
         /**
          * Nacks and clears all messages remaining in the batch.
          */
@@ -497,15 +647,15 @@ public class ReceiveQueueBuffer {
         public void run() {
 
             try {
-                visibilityDeadlineNano = System.nanoTime() + visibilityTimeoutNanos;
+                long start = System.nanoTime();
+                visibilityTimeoutNanosOfBatch = getEffectiveVisibilityTimeoutNanos();
+                visibilityDeadlineNano = start + visibilityTimeoutNanosOfBatch;
                 ReceiveMessageRequest request = new ReceiveMessageRequest(qUrl).withMaxNumberOfMessages(config
                         .getMaxBatchSize());
                 ResultConverter.appendUserAgent(request, AmazonSQSBufferedAsyncClient.USER_AGENT);
 
                 if (config.getVisibilityTimeoutSeconds() > 0) {
                     request.setVisibilityTimeout(config.getVisibilityTimeoutSeconds());
-                    visibilityDeadlineNano = System.nanoTime()
-                            + TimeUnit.NANOSECONDS.convert(config.getVisibilityTimeoutSeconds(), TimeUnit.SECONDS);
                 }
 
                 if (config.isLongPoll()) {
@@ -513,6 +663,9 @@ public class ReceiveQueueBuffer {
                 }
 
                 messages = sqsClient.receiveMessage(request).getMessages();
+                if (prefetchController != null && !messages.isEmpty()) {
+                    prefetchController.receiveCompleted(System.nanoTime() - start);
+                }
             } catch (AmazonClientException e) {
                 exception = e;
             } finally {
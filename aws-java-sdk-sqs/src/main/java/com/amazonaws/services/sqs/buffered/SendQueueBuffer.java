@@ -15,10 +15,19 @@
 package com.amazonaws.services.sqs.buffered;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -43,6 +52,7 @@ import com.amazonaws.services.sqs.model.SendMessageBatchResult;
 import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
 import com.amazonaws.services.sqs.model.SendMessageRequest;
 import com.amazonaws.services.sqs.model.SendMessageResult;
+import com.amazonaws.util.StringUtils;
 
 /**
  * This class is responsible for buffering outgoing SQS requests, i.e. requests to send a message,
@@ -54,6 +64,11 @@ import com.amazonaws.services.sqs.model.SendMessageResult;
  * Internally, the batch objects maintain a list of futures corresponding to the requests added to
  * them. When a batch completes, it loads the results into the futures and marks the futures as
  * complete.
+ * <p>
+ * No locks are taken on the path of a request: the open batch of each request type is swapped
+ * with compare-and-set, and requests claim slots in the open batch with a single compare-and-set
+ * on its packed count/size state, so many producer threads can submit to the same queue without
+ * contending on a monitor.
  */
 public class SendQueueBuffer {
     private static Log log = LogFactory.getLog(SendQueueBuffer.class);
@@ -80,37 +95,24 @@ public class SendQueueBuffer {
     private final Executor executor;
 
     /**
-     * Object used to serialize sendMessage calls.
+     * Current batching task for sendMessage.
      */
-    private final Object sendMessageLock = new Object();
+    private final AtomicReference<SendMessageBatchTask> openSendMessageBatchTask = new AtomicReference<SendMessageBatchTask>();
 
     /**
-     * Object used to serialize deleteMessage calls.
+     * Current batching task for deleteMessage.
      */
-    private final Object deleteMessageLock = new Object();
+    private final AtomicReference<DeleteMessageBatchTask> openDeleteMessageBatchTask = new AtomicReference<DeleteMessageBatchTask>();
 
     /**
-     * Object used to serialize changeMessageVisibility calls.
+     * Current batching task for changeMessageVisibility.
      */
-    private final Object changeMessageVisibilityLock = new Object();
+    private final AtomicReference<ChangeMessageVisibilityBatchTask> openChangeMessageVisibilityBatchTask = new AtomicReference<ChangeMessageVisibilityBatchTask>();
 
     /**
-     * Current batching task for sendMessage. Using a size 1 array to allow "passing by reference".
-     * Synchronized by {@code sendMessageLock}.
+     * The number of permits of each of the semaphores below.
      */
-    private final SendMessageBatchTask[] openSendMessageBatchTask = new SendMessageBatchTask[1];
-
-    /**
-     * Current batching task for deleteMessage. Using a size 1 array to allow
-     * "passing by reference". Synchronized by {@code deleteMessageLock}.
-     */
-    private final DeleteMessageBatchTask[] openDeleteMessageBatchTask = new DeleteMessageBatchTask[1];
-
-    /**
-     * Current batching task for changeMessageVisibility. Using a size 1 array to allow
-     * "passing by reference". Synchronized by {@code changeMessageVisibilityLock}.
-     */
-    private final ChangeMessageVisibilityBatchTask[] openChangeMessageVisibilityBatchTask = new ChangeMessageVisibilityBatchTask[1];
+    private final int maxInflightBatches;
 
     /**
      * Permits controlling the number of in flight SendMessage batches.
@@ -127,6 +129,13 @@ public class SendQueueBuffer {
      */
     private final Semaphore inflightChangeMessageVisibilityBatches;
 
+    /**
+     * Batches being published as the open batch of their type, whose caller has not yet got a
+     * permit for them. They hold no permit, so {@code flush()} waits for them separately.
+     */
+    private final Set<OutboundBatchTask<?, ?>> startingBatches = Collections
+            .newSetFromMap(new ConcurrentHashMap<OutboundBatchTask<?, ?>, Boolean>());
+
     SendQueueBuffer(AmazonSQS sqsClient, Executor executor, QueueBufferConfig paramConfig, String url) {
         this.sqsClient = sqsClient;
         this.executor = executor;
@@ -136,9 +145,12 @@ public class SendQueueBuffer {
 
         // must allow at least one outbound batch.
         maxBatch = maxBatch > 0 ? maxBatch : 1;
-        this.inflightSendMessageBatches = new Semaphore(maxBatch);
-        this.inflightDeleteMessageBatches = new Semaphore(maxBatch);
-        this.inflightChangeMessageVisibilityBatches = new Semaphore(maxBatch);
+        this.maxInflightBatches = maxBatch;
+
+        // fair, so that flush() is not starved by producers opening new batches
+        this.inflightSendMessageBatches = new Semaphore(maxBatch, true);
+        this.inflightDeleteMessageBatches = new Semaphore(maxBatch, true);
+        this.inflightChangeMessageVisibilityBatches = new Semaphore(maxBatch, true);
     }
 
     public QueueBufferConfig getConfig() {
@@ -150,7 +162,7 @@ public class SendQueueBuffer {
      */
     public QueueBufferFuture<SendMessageRequest, SendMessageResult> sendMessage(SendMessageRequest request,
                                                                                 QueueBufferCallback<SendMessageRequest, SendMessageResult> callback) {
-        QueueBufferFuture<SendMessageRequest, SendMessageResult> result = submitOutboundRequest(sendMessageLock,
+        QueueBufferFuture<SendMessageRequest, SendMessageResult> result = submitOutboundRequest(
                 openSendMessageBatchTask, request, inflightSendMessageBatches, callback);
         return result;
     }
@@ -160,7 +172,7 @@ public class SendQueueBuffer {
      */
     public QueueBufferFuture<DeleteMessageRequest, Void> deleteMessage(DeleteMessageRequest request,
                                                                        QueueBufferCallback<DeleteMessageRequest, Void> callback) {
-        return submitOutboundRequest(deleteMessageLock, openDeleteMessageBatchTask, request,
+        return submitOutboundRequest(openDeleteMessageBatchTask, request,
                 inflightDeleteMessageBatches, callback);
     }
 
@@ -169,7 +181,7 @@ public class SendQueueBuffer {
      */
     public QueueBufferFuture<ChangeMessageVisibilityRequest, Void> changeMessageVisibility(ChangeMessageVisibilityRequest request,
                                                                                            QueueBufferCallback<ChangeMessageVisibilityRequest, Void> callback) {
-        return submitOutboundRequest(changeMessageVisibilityLock, openChangeMessageVisibilityBatchTask, request,
+        return submitOutboundRequest(openChangeMessageVisibilityBatchTask, request,
                 inflightChangeMessageVisibilityBatches, callback);
     }
 
@@ -195,35 +207,46 @@ public class SendQueueBuffer {
      * {@code ChangeMessageVisibility}) in this buffer.
      * <p>
      * The call returns successfully when all outstanding outbound requests submitted before the
-     * call are completed (i.e. processed by SQS).
+     * call are completed (i.e. processed by SQS). The open batches are sent right away rather
+     * than after {@code maxBatchOpenMs}.
      */
     public void flush() {
 
         try {
-            synchronized (sendMessageLock) {
-                inflightSendMessageBatches.acquire(config.getMaxInflightOutboundBatches());
-                inflightSendMessageBatches.release(config.getMaxInflightOutboundBatches());
-            }
-            synchronized (deleteMessageLock) {
-                inflightDeleteMessageBatches.acquire(config.getMaxInflightOutboundBatches());
-                inflightDeleteMessageBatches.release(config.getMaxInflightOutboundBatches());
-            }
-            synchronized (changeMessageVisibilityLock) {
-                inflightChangeMessageVisibilityBatches.acquire(config.getMaxInflightOutboundBatches());
-                inflightChangeMessageVisibilityBatches.release(config.getMaxInflightOutboundBatches());
+            close(openSendMessageBatchTask);
+            close(openDeleteMessageBatchTask);
+            close(openChangeMessageVisibilityBatchTask);
+
+            // a batch published before this call may not hold its permit yet
+            for (OutboundBatchTask<?, ?> task : new ArrayList<OutboundBatchTask<?, ?>>(startingBatches)) {
+                task.awaitStarted();
             }
+
+            awaitCompletion(inflightSendMessageBatches);
+            awaitCompletion(inflightDeleteMessageBatches);
+            awaitCompletion(inflightChangeMessageVisibilityBatches);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
     }
 
+    private void close(AtomicReference<? extends OutboundBatchTask<?, ?>> openOutboundBatchTask) {
+        OutboundBatchTask<?, ?> task = openOutboundBatchTask.get();
+        if (task != null) {
+            task.close();
+        }
+    }
+
+    private void awaitCompletion(Semaphore inflightOperationBatches) throws InterruptedException {
+        // every started batch holds a permit until it completes
+        inflightOperationBatches.acquire(maxInflightBatches);
+        inflightOperationBatches.release(maxInflightBatches);
+    }
+
     /**
      * Submits an outbound request for delivery to the queue associated with this buffer.
      * <p>
      * 
-     * @param operationLock
-     *            the lock synchronizing calls for the call type ( {@code sendMessage},
-     *            {@code deleteMessage}, {@code changeMessageVisibility} )
      * @param openOutboundBatchTask
      *            the open batch task for this call type
      * @param request
@@ -235,8 +258,7 @@ public class SendQueueBuffer {
      *             (see the various outbound calls for details)
      */
     @SuppressWarnings("unchecked")
-    <OBT extends OutboundBatchTask<R, Result>, R extends AmazonWebServiceRequest, Result> QueueBufferFuture<R, Result> submitOutboundRequest(Object operationLock,
-                                                                                                                                             OBT[] openOutboundBatchTask,
+    <OBT extends OutboundBatchTask<R, Result>, R extends AmazonWebServiceRequest, Result> QueueBufferFuture<R, Result> submitOutboundRequest(AtomicReference<OBT> openOutboundBatchTask,
                                                                                                                                              R request,
                                                                                                                                              final Semaphore inflightOperationBatches,
                                                                                                                                              QueueBufferCallback<R, Result> callback) {
@@ -244,50 +266,83 @@ public class SendQueueBuffer {
          * Callers add requests to a single batch task (openOutboundBatchTask) until it is full or
          * maxBatchOpenMs elapses. The total number of batch task in flight is controlled by the
          * inflightOperationBatch semaphore capped at maxInflightOutboundBatches.
+         *
+         * When the open batch is closed, every caller racing to replace it prepares a new batch
+         * already holding its own request; the one whose compare-and-set succeeds publishes it,
+         * the others drop theirs and add their request to the winner's batch. Only the winner
+         * waits for a permit, before the batch starts running; until then the batch is listed in
+         * startingBatches, so that flush() can wait for it.
          */
-        QueueBufferFuture<R, Result> theFuture = null;
-        try {
-            synchronized (operationLock) {
-                if (openOutboundBatchTask[0] == null
-                        || ((theFuture = openOutboundBatchTask[0].addRequest(request, callback))) == null) {
-
-                    OBT obt = (OBT) newOutboundBatchTask(request);
-                    inflightOperationBatches.acquire();
-                    openOutboundBatchTask[0] = obt;
-
-                    // Register a listener for the event signaling that the
-                    // batch task has completed (successfully or not).
-                    openOutboundBatchTask[0].setOnCompleted(new Listener<OutboundBatchTask<R, Result>>() {
-                        @Override
-                        public void invoke(OutboundBatchTask<R, Result> task) {
-                            inflightOperationBatches.release();
-                        }
-                    });
-
-                    if (log.isTraceEnabled()) {
-                        log.trace("Queue " + qUrl + " created new batch for " + request.getClass().toString() + " "
-                                + inflightOperationBatches.availablePermits() + " free slots remain");
-                    }
-
-                    theFuture = openOutboundBatchTask[0].addRequest(request, callback);
-                    executor.execute(openOutboundBatchTask[0]);
-                    if (null == theFuture) {
-                        // this can happen only if the request itself is flawed,
-                        // so that it can't be added to any batch, even a brand
-                        // new one
-                        throw new AmazonClientException("Failed to schedule request " + request + " for execution");
-                    }
+        while (true) {
+            OBT current = openOutboundBatchTask.get();
+            if (current != null) {
+                QueueBufferFuture<R, Result> theFuture = current.addRequest(request, callback);
+                if (theFuture != null) {
+                    return theFuture;
+                }
+                if (openOutboundBatchTask.get() != current) {
+                    // already replaced by somebody else
+                    continue;
                 }
             }
 
+            OBT obt = (OBT) newOutboundBatchTask(request);
+            QueueBufferFuture<R, Result> theFuture = obt.addRequest(request, callback);
+            if (null == theFuture) {
+                // this can happen only if the request itself is flawed,
+                // so that it can't be added to any batch, even a brand
+                // new one
+                throw new AmazonClientException("Failed to schedule request " + request + " for execution");
+            }
+
+            startingBatches.add(obt);
+            if (openOutboundBatchTask.compareAndSet(current, obt)) {
+                startBatch(obt, request, inflightOperationBatches);
+                return theFuture;
+            }
+            obt.started();
+        }
+    }
+
+    /**
+     * Starts a batch task which has just been published as the open batch, once a permit for it
+     * is available.
+     */
+    private <R extends AmazonWebServiceRequest, Result> void startBatch(OutboundBatchTask<R, Result> obt,
+                                                                        R request,
+                                                                        final Semaphore inflightOperationBatches) {
+        try {
+            inflightOperationBatches.acquire();
         } catch (InterruptedException e) {
+            // Other callers may have added requests to the batch already, so it has to run anyway,
+            // just without holding a permit.
+            obt.close();
+            obt.started();
+            executor.execute(obt);
+
             Thread.currentThread().interrupt();
-            AmazonClientException toThrow = new AmazonClientException("Interrupted while waiting for lock.");
+            AmazonClientException toThrow = new AmazonClientException("Interrupted while waiting for a batch slot.");
             toThrow.initCause(e);
             throw toThrow;
         }
 
-        return theFuture;
+        // Register a listener for the event signaling that the
+        // batch task has completed (successfully or not).
+        obt.setOnCompleted(new Listener<OutboundBatchTask<R, Result>>() {
+            @Override
+            public void invoke(OutboundBatchTask<R, Result> task) {
+                inflightOperationBatches.release();
+            }
+        });
+
+        obt.started();
+
+        if (log.isTraceEnabled()) {
+            log.trace("Queue " + qUrl + " created new batch for " + request.getClass().toString() + " "
+                    + inflightOperationBatches.availablePermits() + " free slots remain");
+        }
+
+        executor.execute(obt);
     }
 
     /**
@@ -298,7 +353,11 @@ public class SendQueueBuffer {
      * are assembled into a single batch request to SQS. Specialized for each type of outbound
      * request.
      * <p>
-     * Instances of this class (and subclasses) are thread-safe.
+     * Instances of this class (and subclasses) are thread-safe and lock-free: the number of
+     * requests added, their total size in bytes and whether the batch is closed are packed into a
+     * single {@code long} updated with compare-and-set. A request claims the slot given by the
+     * count it saw and then publishes itself there; once closed, the task waits for all claimed
+     * slots to be published before sending the batch.
      * 
      * @param <R>
      *            the type of the SQS request to batch
@@ -307,16 +366,29 @@ public class SendQueueBuffer {
      */
     private abstract class OutboundBatchTask<R extends AmazonWebServiceRequest, Result> implements Runnable {
 
-        protected final List<R> requests;
-        protected final ArrayList<QueueBufferFuture<R, Result>> futures;
+        private static final long CLOSED = 1L << 62;
+        private static final int COUNT_SHIFT = 40;
+        private static final long BYTES_MASK = (1L << COUNT_SHIFT) - 1;
 
-        private boolean closed;
+        private final AtomicLong state = new AtomicLong();
+        private final AtomicInteger published = new AtomicInteger();
+        private final AtomicReferenceArray<R> requests;
+        private final AtomicReferenceArray<QueueBufferFuture<R, Result>> futures;
+
+        /** Released once the batch holds its permit, or runs without one. */
+        private final CountDownLatch startedLatch = new CountDownLatch(1);
+
+        /**
+         * The thread waiting for the batch to close and for its requests to be published, woken
+         * up by whoever closes it or publishes a request once it is closed.
+         */
+        private volatile Thread runner;
 
         private volatile Listener<OutboundBatchTask<R, Result>> onCompleted;
 
         public OutboundBatchTask() {
-            this.requests = new ArrayList<R>(config.getMaxBatchSize());
-            this.futures = new ArrayList<QueueBufferFuture<R, Result>>(config.getMaxBatchSize());
+            this.requests = new AtomicReferenceArray<R>(config.getMaxBatchSize());
+            this.futures = new AtomicReferenceArray<QueueBufferFuture<R, Result>>(config.getMaxBatchSize());
         }
 
         public void setOnCompleted(Listener<OutboundBatchTask<R, Result>> value) {
@@ -329,86 +401,124 @@ public class SendQueueBuffer {
          * @return the future that can be used to get the results of the execution, or null if the
          *         addition failed.
          */
-        public synchronized QueueBufferFuture<R, Result> addRequest(R request, QueueBufferCallback<R, Result> callback) {
+        public QueueBufferFuture<R, Result> addRequest(R request, QueueBufferCallback<R, Result> callback) {
+            long requestBytes = sizeOf(request);
 
-            if (closed) {
-                return null;
-            }
+            while (true) {
+                long current = state.get();
+                if ((current & CLOSED) != 0) {
+                    return null;
+                }
 
-            QueueBufferFuture<R, Result> theFuture = addIfAllowed(request, callback);
+                int count = (int) (current >>> COUNT_SHIFT);
+                long batchBytes = current & BYTES_MASK;
 
-            // if the addition did not work, or this addition made us full,
-            // we can close the request.
-            if ((null == theFuture) || isFull()) {
-                closed = true;
-                notify();
-            }
+                // if the addition does not work, we can close the batch.
+                if (!isOkToAdd(count, batchBytes, requestBytes)) {
+                    if (state.compareAndSet(current, current | CLOSED)) {
+                        wakeUpRunner();
+                        return null;
+                    }
+                    continue;
+                }
+
+                // if this addition makes us full, it closes the batch as well.
+                boolean full = isFull(count + 1, batchBytes + requestBytes);
+                long next = ((long) (count + 1) << COUNT_SHIFT) | (batchBytes + requestBytes);
+                if (full) {
+                    next |= CLOSED;
+                }
 
-            return theFuture;
+                if (state.compareAndSet(current, next)) {
+                    QueueBufferFuture<R, Result> theFuture = new QueueBufferFuture<R, Result>(callback);
+                    requests.set(count, request);
+                    futures.set(count, theFuture);
+                    published.incrementAndGet();
+
+                    if (isClosed()) {
+                        wakeUpRunner();
+                    }
+                    return theFuture;
+                }
+            }
         }
 
         /**
-         * Adds the request to the batch if capacity allows it. Called by {@code addRequest} with a
-         * lock on {@code this} held.
-         * 
-         * @param request
-         * @return the future that will be signaled when the request is completed and can be used to
-         *         retrieve the result. Can be null if the addition could not be done
+         * Closes the batch, so that it is sent without waiting for more requests.
          */
-        private QueueBufferFuture<R, Result> addIfAllowed(R request, QueueBufferCallback<R, Result> callback) {
-
-            if (isOkToAdd(request)) {
+        public void close() {
+            while (true) {
+                long current = state.get();
+                if ((current & CLOSED) != 0) {
+                    return;
+                }
+                if (state.compareAndSet(current, current | CLOSED)) {
+                    wakeUpRunner();
+                    return;
+                }
+            }
+        }
 
-                requests.add(request);
+        /**
+         * Marks the batch as no longer waiting for a permit.
+         */
+        void started() {
+            startingBatches.remove(this);
+            startedLatch.countDown();
+        }
 
-                QueueBufferFuture<R, Result> theFuture = new QueueBufferFuture<R, Result>(callback);
+        void awaitStarted() throws InterruptedException {
+            startedLatch.await();
+        }
 
-                futures.add(theFuture);
-                onRequestAdded(request);
-                return theFuture;
+        private boolean isClosed() {
+            return (state.get() & CLOSED) != 0;
+        }
 
-            } else {
-                return null;
+        private void wakeUpRunner() {
+            Thread thread = runner;
+            if (thread != null) {
+                LockSupport.unpark(thread);
             }
         }
 
         /**
-         * Checks whether it's okay to add the request to this buffer. Called by
-         * {@code addIfAllowed} with a lock on {@code this} held.
+         * Returns the size of the given request counting towards {@code maxBatchSizeBytes}.
          * 
          * @param request
          *            the request to add
-         * @return true if the request is okay to add, false otherwise
          */
-        protected boolean isOkToAdd(R request) {
-            return requests.size() < config.getMaxBatchSize();
+        protected long sizeOf(R request) {
+            return 0;
         }
 
         /**
-         * A hook to be run when a request is successfully added to this buffer. Called by
-         * {@code addIfAllowed} with a lock on {@code this} held.
+         * Checks whether it's okay to add a request to this buffer.
          * 
-         * @param request
-         *            the request that was added
+         * @param count
+         *            the number of requests in the batch
+         * @param batchBytes
+         *            the size of the requests in the batch
+         * @param requestBytes
+         *            the size of the request to add
+         * @return true if the request is okay to add, false otherwise
          */
-        protected void onRequestAdded(R request) {
-            // to be overridden by subclasses
+        protected boolean isOkToAdd(int count, long batchBytes, long requestBytes) {
+            return count < config.getMaxBatchSize();
         }
 
         /**
-         * Checks whether the buffer is now full. Called by {@code addIfAllowed} with a lock on
-         * {@code this} held.
+         * Checks whether a batch of the given count and size is full.
          * 
          * @return whether the buffer is filled to capacity
          */
-        protected boolean isFull() {
-            return requests.size() >= config.getMaxBatchSize();
+        protected boolean isFull(int count, long batchBytes) {
+            return count >= config.getMaxBatchSize();
         }
 
         /**
-         * Processes the batch once closed. Is <em>NOT</em> called with a lock on {@code this}.
-         * However, it's passed a local copy of both the {@code requests} and {@code futures} lists
-         * made while holding the lock.
+         * Processes the batch once closed. It's passed a copy of both the {@code requests} and
+         * {@code futures} made once all requests of the closed batch were published.
          */
         protected abstract void process(List<R> requests, List<QueueBufferFuture<R, Result>> futures);
 
@@ -416,26 +526,28 @@ public class SendQueueBuffer {
         public final void run() {
             try {
 
-                long deadlineMs = TimeUnit.MILLISECONDS.convert(System.nanoTime(), TimeUnit.NANOSECONDS)
-                        + config.getMaxBatchOpenMs() + 1;
-                long t = TimeUnit.MILLISECONDS.convert(System.nanoTime(), TimeUnit.NANOSECONDS);
-
-                List<R> requests;
-                List<QueueBufferFuture<R, Result>> futures;
-
-                synchronized (this) {
-                    while (!closed && (t < deadlineMs)) {
-                        t = TimeUnit.MILLISECONDS.convert(System.nanoTime(), TimeUnit.NANOSECONDS);
+                runner = Thread.currentThread();
+                long deadlineNanos = System.nanoTime()
+                        + TimeUnit.NANOSECONDS.convert(config.getMaxBatchOpenMs() + 1, TimeUnit.MILLISECONDS);
 
-                        // zero means "wait forever", can't have that.
-                        long toWait = Math.max(1, deadlineMs - t);
-                        wait(toWait);
+                while (!isClosed()) {
+                    long toWait = deadlineNanos - System.nanoTime();
+                    if (toWait <= 0) {
+                        close();
+                        break;
                     }
+                    LockSupport.parkNanos(this, toWait);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
 
-                    closed = true;
-
-                    requests = new ArrayList<R>(this.requests);
-                    futures = new ArrayList<QueueBufferFuture<R, Result>>(this.futures);
+                int count = awaitPublished();
+                List<R> requests = new ArrayList<R>(count);
+                List<QueueBufferFuture<R, Result>> futures = new ArrayList<QueueBufferFuture<R, Result>>(count);
+                for (int i = 0; i < count; i++) {
+                    requests.add(this.requests.get(i));
+                    futures.add(this.futures.get(i));
                 }
 
                 process(requests, futures);
@@ -460,31 +572,47 @@ public class SendQueueBuffer {
             }
         }
 
+        /**
+         * Waits until every request which claimed a slot in the closed batch has been published.
+         * Requests publish right after claiming their slot, and wake up the runner when they find
+         * the batch closed, so this never waits long.
+         * 
+         * @return the number of requests in the batch
+         */
+        private int awaitPublished() {
+            runner = Thread.currentThread();
+            int count = (int) ((state.get() & ~CLOSED) >>> COUNT_SHIFT);
+            while (published.get() < count) {
+                LockSupport.park(this);
+            }
+            return count;
+        }
+
         private void failAll(Exception e) {
-            for (QueueBufferFuture<R, Result> f : futures) {
-                f.setFailure(e);
+            close();
+            int count = awaitPublished();
+            for (int i = 0; i < count; i++) {
+                futures.get(i).setFailure(e);
             }
         }
     }
 
     private class SendMessageBatchTask extends OutboundBatchTask<SendMessageRequest, SendMessageResult> {
 
-        int batchSizeBytes = 0;
-
         @Override
-        protected boolean isOkToAdd(SendMessageRequest request) {
-            return (requests.size() < config.getMaxBatchSize())
-                    && ((request.getMessageBody().getBytes().length + batchSizeBytes) < config.getMaxBatchSizeBytes());
+        protected long sizeOf(SendMessageRequest request) {
+            return request.getMessageBody().getBytes(StringUtils.UTF8).length;
         }
 
         @Override
-        protected void onRequestAdded(SendMessageRequest request) {
-            batchSizeBytes += request.getMessageBody().getBytes().length;
+        protected boolean isOkToAdd(int count, long batchBytes, long requestBytes) {
+            return (count < config.getMaxBatchSize())
+                    && ((requestBytes + batchBytes) < config.getMaxBatchSizeBytes());
         }
 
         @Override
-        protected boolean isFull() {
-            return (requests.size() >= config.getMaxBatchSize()) || (batchSizeBytes >= config.getMaxBatchSizeBytes());
+        protected boolean isFull(int count, long batchBytes) {
+            return (count >= config.getMaxBatchSize()) || (batchBytes >= config.getMaxBatchSizeBytes());
         }
 
         @Override
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sqs.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sqs.model.BatchEntryIdsNotDistinctException;
@@ -28,22 +24,7 @@ public class BatchEntryIdsNotDistinctExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public BatchEntryIdsNotDistinctExceptionUnmarshaller() {
-        super(BatchEntryIdsNotDistinctException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode
-                        .equals("AWS.SimpleQueueService.BatchEntryIdsNotDistinct"))
-            return null;
-
-        BatchEntryIdsNotDistinctException e = (BatchEntryIdsNotDistinctException) super
-                .unmarshall(node);
-
-        return e;
+        super(BatchEntryIdsNotDistinctException.class,
+                "AWS.SimpleQueueService.BatchEntryIdsNotDistinct");
     }
 }
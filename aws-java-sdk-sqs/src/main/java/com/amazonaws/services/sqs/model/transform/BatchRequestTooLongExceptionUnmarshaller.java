@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sqs.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sqs.model.BatchRequestTooLongException;
@@ -28,22 +24,6 @@ public class BatchRequestTooLongExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public BatchRequestTooLongExceptionUnmarshaller() {
-        super(BatchRequestTooLongException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode
-                        .equals("AWS.SimpleQueueService.BatchRequestTooLong"))
-            return null;
-
-        BatchRequestTooLongException e = (BatchRequestTooLongException) super
-                .unmarshall(node);
-
-        return e;
+        super(BatchRequestTooLongException.class, "AWS.SimpleQueueService.BatchRequestTooLong");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sqs.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sqs.model.EmptyBatchRequestException;
@@ -28,22 +24,6 @@ public class EmptyBatchRequestExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public EmptyBatchRequestExceptionUnmarshaller() {
-        super(EmptyBatchRequestException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode
-                        .equals("AWS.SimpleQueueService.EmptyBatchRequest"))
-            return null;
-
-        EmptyBatchRequestException e = (EmptyBatchRequestException) super
-                .unmarshall(node);
-
-        return e;
+        super(EmptyBatchRequestException.class, "AWS.SimpleQueueService.EmptyBatchRequest");
     }
 }
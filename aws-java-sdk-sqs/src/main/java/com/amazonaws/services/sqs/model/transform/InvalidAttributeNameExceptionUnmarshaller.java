@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sqs.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sqs.model.InvalidAttributeNameException;
@@ -28,20 +24,6 @@ public class InvalidAttributeNameExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidAttributeNameExceptionUnmarshaller() {
-        super(InvalidAttributeNameException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidAttributeName"))
-            return null;
-
-        InvalidAttributeNameException e = (InvalidAttributeNameException) super
-                .unmarshall(node);
-
-        return e;
+        super(InvalidAttributeNameException.class, "InvalidAttributeName");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sqs.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sqs.model.InvalidBatchEntryIdException;
@@ -28,22 +24,6 @@ public class InvalidBatchEntryIdExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidBatchEntryIdExceptionUnmarshaller() {
-        super(InvalidBatchEntryIdException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode
-                        .equals("AWS.SimpleQueueService.InvalidBatchEntryId"))
-            return null;
-
-        InvalidBatchEntryIdException e = (InvalidBatchEntryIdException) super
-                .unmarshall(node);
-
-        return e;
+        super(InvalidBatchEntryIdException.class, "AWS.SimpleQueueService.InvalidBatchEntryId");
     }
 }
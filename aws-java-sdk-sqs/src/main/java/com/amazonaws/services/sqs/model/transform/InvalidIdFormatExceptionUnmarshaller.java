@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sqs.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sqs.model.InvalidIdFormatException;
@@ -28,20 +24,6 @@ public class InvalidIdFormatExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidIdFormatExceptionUnmarshaller() {
-        super(InvalidIdFormatException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidIdFormat"))
-            return null;
-
-        InvalidIdFormatException e = (InvalidIdFormatException) super
-                .unmarshall(node);
-
-        return e;
+        super(InvalidIdFormatException.class, "InvalidIdFormat");
     }
 }
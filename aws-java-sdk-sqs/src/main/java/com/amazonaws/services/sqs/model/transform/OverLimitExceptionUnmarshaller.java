@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sqs.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sqs.model.OverLimitException;
@@ -27,19 +23,6 @@ import com.amazonaws.services.sqs.model.OverLimitException;
 public class OverLimitExceptionUnmarshaller extends StandardErrorUnmarshaller {
 
     public OverLimitExceptionUnmarshaller() {
-        super(OverLimitException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("OverLimit"))
-            return null;
-
-        OverLimitException e = (OverLimitException) super.unmarshall(node);
-
-        return e;
+        super(OverLimitException.class, "OverLimit");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sqs.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sqs.model.PurgeQueueInProgressException;
@@ -28,22 +24,6 @@ public class PurgeQueueInProgressExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public PurgeQueueInProgressExceptionUnmarshaller() {
-        super(PurgeQueueInProgressException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode
-                        .equals("AWS.SimpleQueueService.PurgeQueueInProgress"))
-            return null;
-
-        PurgeQueueInProgressException e = (PurgeQueueInProgressException) super
-                .unmarshall(node);
-
-        return e;
+        super(PurgeQueueInProgressException.class, "AWS.SimpleQueueService.PurgeQueueInProgress");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sqs.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sqs.model.QueueDeletedRecentlyException;
@@ -28,22 +24,6 @@ public class QueueDeletedRecentlyExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public QueueDeletedRecentlyExceptionUnmarshaller() {
-        super(QueueDeletedRecentlyException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode
-                        .equals("AWS.SimpleQueueService.QueueDeletedRecently"))
-            return null;
-
-        QueueDeletedRecentlyException e = (QueueDeletedRecentlyException) super
-                .unmarshall(node);
-
-        return e;
+        super(QueueDeletedRecentlyException.class, "AWS.SimpleQueueService.QueueDeletedRecently");
     }
 }
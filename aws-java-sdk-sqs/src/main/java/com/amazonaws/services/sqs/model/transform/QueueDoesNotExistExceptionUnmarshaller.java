@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sqs.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sqs.model.QueueDoesNotExistException;
@@ -28,21 +24,6 @@ public class QueueDoesNotExistExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public QueueDoesNotExistExceptionUnmarshaller() {
-        super(QueueDoesNotExistException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("AWS.SimpleQueueService.NonExistentQueue"))
-            return null;
-
-        QueueDoesNotExistException e = (QueueDoesNotExistException) super
-                .unmarshall(node);
-
-        return e;
+        super(QueueDoesNotExistException.class, "AWS.SimpleQueueService.NonExistentQueue");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sqs.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sqs.model.QueueNameExistsException;
@@ -28,20 +24,6 @@ public class QueueNameExistsExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public QueueNameExistsExceptionUnmarshaller() {
-        super(QueueNameExistsException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("QueueAlreadyExists"))
-            return null;
-
-        QueueNameExistsException e = (QueueNameExistsException) super
-                .unmarshall(node);
-
-        return e;
+        super(QueueNameExistsException.class, "QueueAlreadyExists");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sqs.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sqs.model.ReceiptHandleIsInvalidException;
@@ -28,20 +24,6 @@ public class ReceiptHandleIsInvalidExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public ReceiptHandleIsInvalidExceptionUnmarshaller() {
-        super(ReceiptHandleIsInvalidException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("ReceiptHandleIsInvalid"))
-            return null;
-
-        ReceiptHandleIsInvalidException e = (ReceiptHandleIsInvalidException) super
-                .unmarshall(node);
-
-        return e;
+        super(ReceiptHandleIsInvalidException.class, "ReceiptHandleIsInvalid");
     }
 }
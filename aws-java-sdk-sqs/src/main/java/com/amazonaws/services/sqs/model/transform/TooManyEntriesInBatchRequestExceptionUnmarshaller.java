@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sqs.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sqs.model.TooManyEntriesInBatchRequestException;
@@ -28,22 +24,7 @@ public class TooManyEntriesInBatchRequestExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public TooManyEntriesInBatchRequestExceptionUnmarshaller() {
-        super(TooManyEntriesInBatchRequestException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode
-                        .equals("AWS.SimpleQueueService.TooManyEntriesInBatchRequest"))
-            return null;
-
-        TooManyEntriesInBatchRequestException e = (TooManyEntriesInBatchRequestException) super
-                .unmarshall(node);
-
-        return e;
+        super(TooManyEntriesInBatchRequestException.class,
+                "AWS.SimpleQueueService.TooManyEntriesInBatchRequest");
     }
 }
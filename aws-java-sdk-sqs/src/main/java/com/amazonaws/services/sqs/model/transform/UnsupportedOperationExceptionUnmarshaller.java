@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.sqs.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.sqs.model.UnsupportedOperationException;
@@ -28,22 +24,6 @@ public class UnsupportedOperationExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public UnsupportedOperationExceptionUnmarshaller() {
-        super(UnsupportedOperationException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode
-                        .equals("AWS.SimpleQueueService.UnsupportedOperation"))
-            return null;
-
-        UnsupportedOperationException e = (UnsupportedOperationException) super
-                .unmarshall(node);
-
-        return e;
+        super(UnsupportedOperationException.class, "AWS.SimpleQueueService.UnsupportedOperation");
     }
 }
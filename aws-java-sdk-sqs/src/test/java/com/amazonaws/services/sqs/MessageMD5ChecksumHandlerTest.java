@@ -0,0 +1,364 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.sqs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import com.amazonaws.util.BinaryUtils;
+import com.amazonaws.util.Md5Utils;
+import com.amazonaws.util.StringUtils;
+
+/**
+ * Checks the handler against MD5 hashes of {@code String.getBytes(UTF8)}, which is how
+ * they were computed before the handler encoded strings itself.
+ */
+public class MessageMD5ChecksumHandlerTest {
+
+    private static final String QUEUE_URL = "https://queue.amazonaws.com/123456789012/test";
+
+    private final Random random = new Random(42);
+
+    private MessageMD5ChecksumHandler handler;
+
+    /** runs the latest submitted check first, so that later entries finish first */
+    private ThreadPoolExecutor executor;
+
+    private final AtomicInteger submitted = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingDeque<Runnable>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public boolean offer(Runnable r) {
+                submitted.incrementAndGet();
+                return offerFirst(r);
+            }
+        });
+        // so that every check goes through the queue
+        executor.prestartAllCoreThreads();
+        handler = new MessageMD5ChecksumHandler(executor);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testBodiesMatchStringGetBytes() {
+        List<String> bodies = Arrays.asList(
+                "",
+                "plain ASCII body",
+                "two bytes: \u00e9\u00df\u07ff",
+                "three bytes: \u20ac\u4e2d\uffff",
+                "four bytes: \ud83d\ude00\udbff\udfff",
+                "unpaired high \ud800 surrogate",
+                "unpaired low \udc00 surrogate",
+                "reversed pair \ude00\ud83d",
+                "ends with a high surrogate \ud83d",
+                "\udc00starts with a low surrogate");
+        for (String body : bodies) {
+            assertBodyVerified(body);
+        }
+    }
+
+    @Test
+    public void testSurrogatePairsAndWideCharactersAcrossBufferFlushes() {
+        // the handler encodes into an 8 KB buffer; these put a surrogate pair, or a
+        // two or three byte character, at every offset around the first flushes
+        for (int n = 8170; n < 8200; n++) {
+            assertBodyVerified(repeat('a', n) + "\ud83d\ude00" + repeat('b', 100));
+            assertBodyVerified(repeat('a', n) + "\u20ac\u00e9\ud83d" + repeat('\u4e2d', 3000));
+        }
+        for (int n = 2720; n < 2740; n++) {
+            assertBodyVerified(repeat('\u4e2d', n) + "\ud83d\ude00" + repeat('\u00e9', 5000) + "\ud83d\ude00");
+        }
+    }
+
+    @Test
+    public void testRandomBodies() {
+        for (int i = 0; i < 300; i++) {
+            assertBodyVerified(randomString(random.nextInt(20000)));
+        }
+    }
+
+    @Test
+    public void testAttributesMatchStringGetBytes() {
+        Map<String, MessageAttributeValue> attributes = new HashMap<String, MessageAttributeValue>();
+        attributes.put("string \u00e9\ud83d\ude00", new MessageAttributeValue().withDataType("String")
+                .withStringValue("value \u20ac\ud800 " + repeat('a', 8187) + "\ud83d\ude00"));
+        attributes.put("number", new MessageAttributeValue().withDataType("Number").withStringValue("42"));
+        attributes.put("binary", new MessageAttributeValue().withDataType("Binary")
+                .withBinaryValue(ByteBuffer.wrap(randomBytes(300))));
+        attributes.put("strings", new MessageAttributeValue().withDataType("String.custom")
+                .withStringListValues("one", "\u4e2d\u6587", "\udc00", ""));
+        attributes.put("binaries", new MessageAttributeValue().withDataType("Binary")
+                .withBinaryListValues(ByteBuffer.wrap(randomBytes(10)), ByteBuffer.wrap(new byte[0])));
+        String body = "body";
+
+        sendMessage(body, md5(body), attributes, attributesMd5(attributes));
+        try {
+            sendMessage(body, md5(body), attributes, md5("something else"));
+            fail("Expected an MD5 mismatch of the attributes");
+        } catch (AmazonClientException expected) {
+            assertTrue(expected.getMessage().contains("message attributes"));
+        }
+
+        // the binary values are read without moving their position
+        ByteBuffer binary = attributes.get("binary").getBinaryValue();
+        assertEquals(0, binary.position());
+        binary.position(100);
+        sendMessage(body, md5(body), attributes, attributesMd5(attributes));
+        assertEquals(100, binary.position());
+    }
+
+    @Test
+    public void testSmallBatchIsVerifiedOnTheCallingThread() {
+        SendMessageBatchRequest request = new SendMessageBatchRequest(QUEUE_URL);
+        SendMessageBatchResult result = new SendMessageBatchResult();
+        for (int i = 0; i < 10; i++) {
+            addEntry(request, result, Integer.toString(i), randomString(1000), true);
+        }
+
+        afterResponse(request, result);
+        assertEquals(0, submitted.get());
+    }
+
+    @Test
+    public void testLargeBatchIsVerifiedOnTheExecutor() {
+        SendMessageBatchRequest request = new SendMessageBatchRequest(QUEUE_URL);
+        SendMessageBatchResult result = new SendMessageBatchResult();
+        for (int i = 0; i < 20; i++) {
+            addEntry(request, result, Integer.toString(i), randomString(5000), true);
+        }
+
+        afterResponse(request, result);
+        // the calling thread verifies the first entry
+        assertEquals(19, submitted.get());
+    }
+
+    @Test
+    public void testLargeBatchReportsTheFirstMismatchInBatchOrder() {
+        for (int attempt = 0; attempt < 20; attempt++) {
+            SendMessageBatchRequest request = new SendMessageBatchRequest(QUEUE_URL);
+            SendMessageBatchResult result = new SendMessageBatchResult();
+            for (int i = 0; i < 20; i++) {
+                addEntry(request, result, "entry-" + i, randomString(5000), i != 7 && i != 12);
+            }
+            // the result lists the entries in another order than the request
+            Collections.reverse(request.getEntries());
+
+            submitted.set(0);
+            try {
+                afterResponse(request, result);
+                fail("Expected an MD5 mismatch");
+            } catch (AmazonClientException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage().contains("Message ID: entry-7,"));
+            }
+            assertEquals(19, submitted.get());
+        }
+    }
+
+    @Test
+    public void testLargeReceiveIsVerifiedOnTheExecutor() {
+        List<Message> messages = new ArrayList<Message>();
+        for (int i = 0; i < 20; i++) {
+            String body = randomString(5000);
+            messages.add(new Message().withBody(body).withMD5OfBody(md5(body)));
+        }
+        ReceiveMessageResult result = new ReceiveMessageResult().withMessages(messages);
+
+        afterResponse(new ReceiveMessageRequest(QUEUE_URL), result);
+        assertEquals(19, submitted.get());
+
+        messages.get(15).setMD5OfBody(md5("something else"));
+        try {
+            afterResponse(new ReceiveMessageRequest(QUEUE_URL), result);
+            fail("Expected an MD5 mismatch");
+        } catch (AmazonClientException expected) {
+            assertTrue(expected.getMessage().contains(md5("something else")));
+        }
+    }
+
+    @Test
+    public void testBatchIsVerifiedWithoutExecutor() {
+        handler = new MessageMD5ChecksumHandler(null);
+        SendMessageBatchRequest request = new SendMessageBatchRequest(QUEUE_URL);
+        SendMessageBatchResult result = new SendMessageBatchResult();
+        for (int i = 0; i < 20; i++) {
+            addEntry(request, result, Integer.toString(i), randomString(5000), i != 3);
+        }
+        try {
+            afterResponse(request, result);
+            fail("Expected an MD5 mismatch");
+        } catch (AmazonClientException expected) {
+            assertTrue(expected.getMessage().contains("Message ID: 3,"));
+        }
+        assertEquals(0, submitted.get());
+    }
+
+    private void assertBodyVerified(String body) {
+        sendMessage(body, md5(body), null, null);
+        try {
+            sendMessage(body, md5(body + "x"), null, null);
+            fail("Expected an MD5 mismatch of the body");
+        } catch (AmazonClientException expected) {
+            assertTrue(expected.getMessage().contains("message body"));
+        }
+    }
+
+    private void sendMessage(String body, String bodyMd5, Map<String, MessageAttributeValue> attributes,
+            String attributesMd5) {
+        SendMessageRequest request = new SendMessageRequest(QUEUE_URL, body);
+        if (attributes != null) {
+            request.setMessageAttributes(attributes);
+        }
+        afterResponse(request, new SendMessageResult().withMD5OfMessageBody(bodyMd5)
+                .withMD5OfMessageAttributes(attributesMd5));
+    }
+
+    private void addEntry(SendMessageBatchRequest request, SendMessageBatchResult result, String id, String body,
+            boolean matching) {
+        request.getEntries().add(new SendMessageBatchRequestEntry(id, body));
+        result.getSuccessful().add(new SendMessageBatchResultEntry().withId(id)
+                .withMD5OfMessageBody(md5(matching ? body : body + "x")));
+    }
+
+    private void afterResponse(AmazonWebServiceRequest request, Object response) {
+        handler.afterResponse(new DefaultRequest<AmazonWebServiceRequest>(request, "AmazonSQS"), response, null);
+    }
+
+    private static String md5(String s) {
+        return BinaryUtils.toHex(Md5Utils.computeMD5Hash(s.getBytes(StringUtils.UTF8)));
+    }
+
+    /**
+     * The MD5 of the attributes as documented for SQS, with strings encoded by
+     * {@code String.getBytes(UTF8)}.
+     */
+    private static String attributesMd5(Map<String, MessageAttributeValue> attributes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            List<String> names = new ArrayList<String>(attributes.keySet());
+            Collections.sort(names);
+            for (String name : names) {
+                MessageAttributeValue value = attributes.get(name);
+                update(digest, name.getBytes(StringUtils.UTF8));
+                update(digest, value.getDataType().getBytes(StringUtils.UTF8));
+                if (value.getStringValue() != null) {
+                    digest.update((byte) 1);
+                    update(digest, value.getStringValue().getBytes(StringUtils.UTF8));
+                } else if (value.getBinaryValue() != null) {
+                    digest.update((byte) 2);
+                    update(digest, BinaryUtils.copyBytesFrom(value.getBinaryValue()));
+                } else if (!value.getStringListValues().isEmpty()) {
+                    digest.update((byte) 3);
+                    for (String member : value.getStringListValues()) {
+                        update(digest, member.getBytes(StringUtils.UTF8));
+                    }
+                } else {
+                    digest.update((byte) 4);
+                    for (ByteBuffer member : value.getBinaryListValues()) {
+                        update(digest, BinaryUtils.copyBytesFrom(member));
+                    }
+                }
+            }
+            return BinaryUtils.toHex(digest.digest());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, byte[] bytes) {
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    /**
+     * @return a string mixing one to four byte characters, surrogate pairs,
+     *         and unpaired surrogates
+     */
+    private String randomString(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            switch (random.nextInt(6)) {
+            case 0:
+            case 1:
+                sb.append((char) (0x20 + random.nextInt(0x60)));
+                break;
+            case 2:
+                sb.append((char) (0x80 + random.nextInt(0x780)));
+                break;
+            case 3:
+                sb.append((char) (0x800 + random.nextInt(0xd000)));
+                break;
+            case 4:
+                sb.appendCodePoint(0x10000 + random.nextInt(0x100000));
+                break;
+            default:
+                sb.append((char) (0xd800 + random.nextInt(0x800)));
+                break;
+            }
+        }
+        return sb.toString();
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
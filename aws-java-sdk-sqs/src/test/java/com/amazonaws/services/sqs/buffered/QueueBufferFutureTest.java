@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.sqs.buffered;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AbstractAmazonSQSAsync;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+
+public class QueueBufferFutureTest {
+
+    private static final String QUEUE_URL = "https://queue.amazonaws.com/123456789012/test";
+
+    private QueueBuffer buffer;
+
+    private SendMessageRequest request;
+
+    private CountingHandler handler;
+
+    @Before
+    public void setUp() {
+        buffer = new QueueBuffer(new QueueBufferConfig(), QUEUE_URL, new AbstractAmazonSQSAsync() {});
+        request = new SendMessageRequest(QUEUE_URL, "body");
+        handler = new CountingHandler();
+    }
+
+    @Test
+    public void testSuccessBeforeSetBufferIsDispatched() throws Exception {
+        QueueBufferFuture<SendMessageRequest, SendMessageResult> future = newFuture();
+        SendMessageResult result = new SendMessageResult();
+
+        future.setSuccess(result);
+        future.setBuffer(buffer);
+
+        assertTrue(handler.called.await(5, TimeUnit.SECONDS));
+        assertSame(result, handler.result);
+        assertSame(request, handler.request);
+        assertCalledOnce();
+    }
+
+    @Test
+    public void testFailureBeforeSetBufferIsDispatched() throws Exception {
+        QueueBufferFuture<SendMessageRequest, SendMessageResult> future = newFuture();
+        Exception failure = new RuntimeException("failed");
+
+        future.setFailure(failure);
+        future.setBuffer(buffer);
+
+        assertTrue(handler.called.await(5, TimeUnit.SECONDS));
+        assertSame(failure, handler.exception);
+        assertCalledOnce();
+    }
+
+    @Test
+    public void testSuccessAfterSetBufferIsDispatchedOnce() throws Exception {
+        QueueBufferFuture<SendMessageRequest, SendMessageResult> future = newFuture();
+
+        future.setBuffer(buffer);
+        future.setSuccess(new SendMessageResult());
+        future.setSuccess(new SendMessageResult());
+        future.setFailure(new RuntimeException("late"));
+
+        assertTrue(handler.called.await(5, TimeUnit.SECONDS));
+        assertCalledOnce();
+    }
+
+    @Test
+    public void testNothingIsDispatchedBeforeSetBuffer() throws Exception {
+        QueueBufferFuture<SendMessageRequest, SendMessageResult> future = newFuture();
+
+        future.setSuccess(new SendMessageResult());
+
+        assertTrue(future.isDone());
+        Thread.sleep(100);
+        assertEquals(0, handler.calls.get());
+    }
+
+    private QueueBufferFuture<SendMessageRequest, SendMessageResult> newFuture() {
+        return new QueueBufferFuture<SendMessageRequest, SendMessageResult>(
+                new QueueBufferCallback<SendMessageRequest, SendMessageResult>(handler, request));
+    }
+
+    private void assertCalledOnce() throws InterruptedException {
+        // leaves time for a second, wrong, dispatch to show up
+        Thread.sleep(100);
+        assertEquals(1, handler.calls.get());
+    }
+
+    private static class CountingHandler implements AsyncHandler<SendMessageRequest, SendMessageResult> {
+
+        private final CountDownLatch called = new CountDownLatch(1);
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private volatile SendMessageRequest request;
+
+        private volatile SendMessageResult result;
+
+        private volatile Exception exception;
+
+        @Override
+        public void onSuccess(SendMessageRequest request, SendMessageResult result) {
+            this.request = request;
+            this.result = result;
+            calls.incrementAndGet();
+            called.countDown();
+        }
+
+        @Override
+        public void onError(Exception exception) {
+            this.exception = exception;
+            calls.incrementAndGet();
+            called.countDown();
+        }
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.sqs.buffered;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.sqs.AbstractAmazonSQSAsync;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResultEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResultEntry;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+
+public class QueueConsumerTest {
+
+    private static final String QUEUE_URL = "https://queue.amazonaws.com/123456789012/test";
+
+    private static final int PROCESSING_THREADS = 4;
+
+    private static final int MAX_BUFFERED_MESSAGES = 6;
+
+    private StubSQS stub;
+
+    private AmazonSQSBufferedAsyncClient sqs;
+
+    private QueueConsumer consumer;
+
+    @Before
+    public void setUp() {
+        stub = new StubSQS();
+        sqs = new AmazonSQSBufferedAsyncClient(stub);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (consumer != null) {
+            consumer.shutdown();
+            consumer.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testEveryMessageIsProcessedOnceAndSuccessesAreDeletedInBatches() throws Exception {
+        final int total = 3000;
+        final int failures = total / 100;
+        stub.add(total);
+        final Set<String> handled = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        consumer = newConsumer(new MessageHandler() {
+            @Override
+            public void handleMessage(Message message) throws Exception {
+                try {
+                    assertTrue("duplicate " + message.getMessageId(), handled.add(message.getMessageId()));
+                    if (Integer.parseInt(message.getMessageId()) % 100 == 0) {
+                        throw new Exception("failed " + message.getMessageId());
+                    }
+                } finally {
+                    stub.outstanding.decrementAndGet();
+                }
+            }
+        }, 30, 10);
+        consumer.start();
+
+        waitFor(new Condition() {
+            public boolean test(QueueConsumerMetrics metrics) {
+                return metrics.getDeletedCount() == total - failures;
+            }
+        });
+        consumer.shutdown();
+        assertTrue(consumer.awaitTermination(10, TimeUnit.SECONDS));
+
+        QueueConsumerMetrics metrics = consumer.getMetrics();
+        assertEquals(total, handled.size());
+        assertEquals(total, metrics.getReceivedCount());
+        assertEquals(total - failures, metrics.getProcessedCount());
+        assertEquals(failures, metrics.getFailedCount());
+        assertEquals(total - failures, metrics.getDeletedCount());
+        assertEquals(0, metrics.getDeleteFailedCount());
+        assertEquals(0, metrics.getInFlightCount());
+
+        // failed messages stay in the queue, the others are deleted once
+        assertEquals(total - failures, stub.deleted.size());
+        for (String handle : stub.deleted) {
+            assertFalse(handle, Integer.parseInt(handle.substring("handle-".length())) % 100 == 0);
+        }
+        assertTrue("deletes not coalesced: " + stub.deleteBatches.get() + " batches",
+                stub.deleteBatches.get() <= (total - failures) / 2);
+
+        // receivers never hold more messages than the consumer has room for
+        assertTrue("held " + stub.maxOutstanding.get(),
+                stub.maxOutstanding.get() <= PROCESSING_THREADS + MAX_BUFFERED_MESSAGES);
+        assertTrue(stub.maxRequested.get() <= 10);
+        assertTrue(stub.minRequested.get() >= 1);
+    }
+
+    @Test
+    public void testHeartbeatsExtendOnlyMessagesStillInProcess() throws Exception {
+        stub.add(5);
+        consumer = newConsumer(new MessageHandler() {
+            @Override
+            public void handleMessage(Message message) throws Exception {
+                if (Integer.parseInt(message.getMessageId()) < 2) {
+                    Thread.sleep(2500);
+                }
+                stub.outstanding.decrementAndGet();
+            }
+        }, 3, 1);
+        consumer.start();
+
+        waitFor(new Condition() {
+            public boolean test(QueueConsumerMetrics metrics) {
+                return metrics.getDeletedCount() == 5;
+            }
+        });
+
+        Set<String> extended = new HashSet<String>();
+        for (ChangeMessageVisibilityBatchRequestEntry entry : stub.visibilityChanges) {
+            assertEquals(Integer.valueOf(3), entry.getVisibilityTimeout());
+            extended.add(entry.getReceiptHandle());
+        }
+        assertEquals(new HashSet<String>(Arrays.asList("handle-0", "handle-1")), extended);
+        assertTrue(consumer.getMetrics().getVisibilityExtendedCount() >= 2);
+    }
+
+    @Test
+    public void testShutdownProcessesWhatWasReceived() throws Exception {
+        stub.add(1000);
+        consumer = newConsumer(new MessageHandler() {
+            @Override
+            public void handleMessage(Message message) throws Exception {
+                Thread.sleep(20);
+                stub.outstanding.decrementAndGet();
+            }
+        }, 30, 10);
+        consumer.start();
+
+        waitFor(new Condition() {
+            public boolean test(QueueConsumerMetrics metrics) {
+                return metrics.getProcessedCount() >= 20;
+            }
+        });
+        consumer.shutdown();
+        assertTrue(consumer.awaitTermination(10, TimeUnit.SECONDS));
+        int receives = stub.receives.get();
+
+        QueueConsumerMetrics metrics = consumer.getMetrics();
+        assertTrue(metrics.getReceivedCount() < 1000);
+        assertEquals(metrics.getReceivedCount(), metrics.getProcessedCount());
+        assertEquals(0, metrics.getInFlightCount());
+
+        Thread.sleep(200);
+        assertEquals(receives, stub.receives.get());
+    }
+
+    private QueueConsumer newConsumer(MessageHandler handler, int visibilityTimeoutSeconds,
+            int heartbeatIntervalSeconds) {
+        return new QueueConsumer(sqs, QUEUE_URL, handler, new QueueConsumerConfig()
+                .withReceiverCount(2)
+                .withProcessingThreads(PROCESSING_THREADS)
+                .withMaxBufferedMessages(MAX_BUFFERED_MESSAGES)
+                .withVisibilityTimeoutSeconds(visibilityTimeoutSeconds)
+                .withHeartbeatIntervalSeconds(heartbeatIntervalSeconds));
+    }
+
+    private interface Condition {
+        boolean test(QueueConsumerMetrics metrics);
+    }
+
+    private void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30000;
+        while (!condition.test(consumer.getMetrics())) {
+            assertTrue("timed out, " + consumer.getMetrics(), System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * A queue holding messages with ids 0 to n-1. Receives of an empty queue
+     * wait a little, as a long poll would. The handlers of the tests decrement
+     * {@code outstanding} once done with a message.
+     */
+    private static class StubSQS extends AbstractAmazonSQSAsync {
+
+        private final List<Message> queue = new ArrayList<Message>();
+
+        private final AtomicInteger receives = new AtomicInteger();
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        private final AtomicInteger maxOutstanding = new AtomicInteger();
+
+        private final AtomicInteger maxRequested = new AtomicInteger();
+
+        private final AtomicInteger minRequested = new AtomicInteger(Integer.MAX_VALUE);
+
+        private final AtomicInteger deleteBatches = new AtomicInteger();
+
+        private final Set<String> deleted = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+        private final List<ChangeMessageVisibilityBatchRequestEntry> visibilityChanges = Collections
+                .synchronizedList(new ArrayList<ChangeMessageVisibilityBatchRequestEntry>());
+
+        synchronized void add(int count) {
+            for (int i = 0; i < count; i++) {
+                queue.add(new Message().withMessageId(Integer.toString(i)).withReceiptHandle("handle-" + i)
+                        .addAttributesEntry("SentTimestamp", Long.toString(System.currentTimeMillis())));
+            }
+        }
+
+        @Override
+        public ReceiveMessageResult receiveMessage(ReceiveMessageRequest request) {
+            receives.incrementAndGet();
+            int requested = request.getMaxNumberOfMessages();
+            updateMax(maxRequested, requested);
+            int min;
+            while ((min = minRequested.get()) > requested && !minRequested.compareAndSet(min, requested)) {
+            }
+
+            List<Message> messages = new ArrayList<Message>();
+            synchronized (this) {
+                while (messages.size() < requested && !queue.isEmpty()) {
+                    messages.add(queue.remove(0));
+                }
+                updateMax(maxOutstanding, outstanding.addAndGet(messages.size()));
+            }
+            if (messages.isEmpty()) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new ReceiveMessageResult().withMessages(messages);
+        }
+
+        @Override
+        public Future<ReceiveMessageResult> receiveMessageAsync(final ReceiveMessageRequest request,
+                AsyncHandler<ReceiveMessageRequest, ReceiveMessageResult> asyncHandler) {
+            FutureTask<ReceiveMessageResult> task = new FutureTask<ReceiveMessageResult>(
+                    new Callable<ReceiveMessageResult>() {
+                        public ReceiveMessageResult call() {
+                            return receiveMessage(request);
+                        }
+                    });
+            task.run();
+            return task;
+        }
+
+        @Override
+        public DeleteMessageBatchResult deleteMessageBatch(DeleteMessageBatchRequest request) {
+            deleteBatches.incrementAndGet();
+            DeleteMessageBatchResult result = new DeleteMessageBatchResult();
+            for (DeleteMessageBatchRequestEntry entry : request.getEntries()) {
+                assertTrue("deleted twice " + entry.getReceiptHandle(), deleted.add(entry.getReceiptHandle()));
+                result.getSuccessful().add(new DeleteMessageBatchResultEntry().withId(entry.getId()));
+            }
+            return result;
+        }
+
+        @Override
+        public ChangeMessageVisibilityBatchResult changeMessageVisibilityBatch(
+                ChangeMessageVisibilityBatchRequest request) {
+            visibilityChanges.addAll(request.getEntries());
+            ChangeMessageVisibilityBatchResult result = new ChangeMessageVisibilityBatchResult();
+            for (ChangeMessageVisibilityBatchRequestEntry entry : request.getEntries()) {
+                result.getSuccessful().add(new ChangeMessageVisibilityBatchResultEntry().withId(entry.getId()));
+            }
+            return result;
+        }
+
+        private static void updateMax(AtomicInteger max, int value) {
+            int current;
+            while ((current = max.get()) < value && !max.compareAndSet(current, value)) {
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.sqs.buffered;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.sqs.AbstractAmazonSQS;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
+import com.amazonaws.services.sqs.model.GetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.GetQueueAttributesResult;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+
+public class ReceiveQueueBufferTest {
+
+    private static final String QUEUE_URL = "https://queue.amazonaws.com/123456789012/test";
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testEveryMessageIsDeliveredExactlyOnce() throws Exception {
+        receiveAllFromManyThreads(new QueueBufferConfig()
+                .withMaxInflightReceiveBatches(5)
+                .withMaxDoneReceiveBatches(3));
+    }
+
+    @Test
+    public void testEveryMessageIsDeliveredExactlyOnceWithAdaptivePrefetching() throws Exception {
+        receiveAllFromManyThreads(new QueueBufferConfig()
+                .withMaxInflightReceiveBatches(5)
+                .withMaxDoneReceiveBatches(3)
+                .withAdaptivePrefetching(true));
+    }
+
+    @Test
+    public void testExpiringBufferedBatchIsExtendedOnce() throws Exception {
+        StubSQS sqs = new StubSQS(10, 300);
+        // a single batch, which holds all ten messages
+        ReceiveQueueBuffer buffer = new ReceiveQueueBuffer(sqs, executor, new QueueBufferConfig()
+                .withMaxInflightReceiveBatches(1)
+                .withMaxDoneReceiveBatches(1)
+                .withAdaptivePrefetching(true)
+                .withVisibilityTimeoutSeconds(2), QUEUE_URL);
+
+        assertEquals(1, receive(buffer, 1).size());
+        assertEquals(1, receive(buffer, 1).size());
+        assertTrue(sqs.visibilityChanges.isEmpty());
+
+        // past three quarters of the visibility timeout
+        Thread.sleep(1700);
+        assertEquals(1, receive(buffer, 1).size());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sqs.visibilityChanges.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, sqs.visibilityChanges.size());
+        ChangeMessageVisibilityBatchRequest request = sqs.visibilityChanges.get(0);
+        assertEquals(7, request.getEntries().size());
+        assertEquals(Integer.valueOf(2), request.getEntries().get(0).getVisibilityTimeout());
+
+        assertEquals(1, receive(buffer, 1).size());
+        assertEquals(1, receive(buffer, 1).size());
+        Thread.sleep(200);
+        assertEquals(1, sqs.visibilityChanges.size());
+
+        // the extended messages are still delivered past the original deadline
+        Thread.sleep(500);
+        assertEquals(4, receive(buffer, 4).size());
+        buffer.shutdown();
+    }
+
+    private void receiveAllFromManyThreads(QueueBufferConfig config) throws Exception {
+        final int total = 3000;
+        final int threads = 6;
+        final StubSQS sqs = new StubSQS(total, 300);
+        final ReceiveQueueBuffer buffer = new ReceiveQueueBuffer(sqs, executor, config, QUEUE_URL);
+        final Set<String> received = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        final AtomicInteger receivedCount = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final long deadline = System.currentTimeMillis() + 60000;
+
+        List<Future<Void>> results = new ArrayList<Future<Void>>();
+        ExecutorService consumers = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(consumers.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        Random random = new Random();
+                        while (receivedCount.get() < total && System.currentTimeMillis() < deadline) {
+                            ReceiveMessageRequest request = new ReceiveMessageRequest(QUEUE_URL)
+                                    .withMaxNumberOfMessages(1 + random.nextInt(10));
+                            List<Message> messages;
+                            try {
+                                messages = buffer.receiveMessageAsync(request, null)
+                                        .get(10, TimeUnit.SECONDS).getMessages();
+                            } catch (ExecutionException e) {
+                                failures.incrementAndGet();
+                                continue;
+                            }
+                            for (Message message : messages) {
+                                assertTrue("duplicate " + message.getMessageId(),
+                                        received.add(message.getMessageId()));
+                                receivedCount.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> result : results) {
+                result.get(90, TimeUnit.SECONDS);
+            }
+        } finally {
+            consumers.shutdownNow();
+        }
+        buffer.shutdown();
+
+        assertEquals(total, receivedCount.get());
+        assertEquals(total, received.size());
+        // the stub fails some receives, which must fail futures without losing messages
+        assertTrue(failures.get() > 0);
+        assertTrue(sqs.visibilityChanges.isEmpty());
+    }
+
+    private static List<Message> receive(ReceiveQueueBuffer buffer, int count) throws Exception {
+        return buffer.receiveMessageAsync(new ReceiveMessageRequest(QUEUE_URL).withMaxNumberOfMessages(count), null)
+                .get(10, TimeUnit.SECONDS).getMessages();
+    }
+
+    /**
+     * Hands out the given number of distinct messages, then empty results. One
+     * receive in twenty fails before taking any message.
+     */
+    private static class StubSQS extends AbstractAmazonSQS {
+
+        private final int total;
+
+        private final String visibilityTimeout;
+
+        private final AtomicInteger next = new AtomicInteger();
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private final Random random = new Random();
+
+        private final List<ChangeMessageVisibilityBatchRequest> visibilityChanges =
+                new CopyOnWriteArrayList<ChangeMessageVisibilityBatchRequest>();
+
+        StubSQS(int total, int visibilityTimeoutSeconds) {
+            this.total = total;
+            this.visibilityTimeout = Integer.toString(visibilityTimeoutSeconds);
+        }
+
+        @Override
+        public GetQueueAttributesResult getQueueAttributes(GetQueueAttributesRequest request) {
+            return new GetQueueAttributesResult().addAttributesEntry("VisibilityTimeout", visibilityTimeout);
+        }
+
+        @Override
+        public ReceiveMessageResult receiveMessage(ReceiveMessageRequest request) {
+            try {
+                Thread.sleep(random.nextInt(3));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (calls.incrementAndGet() % 20 == 0) {
+                throw new AmazonServiceException("throttled");
+            }
+
+            List<Message> messages = new ArrayList<Message>();
+            for (int i = 0; i < request.getMaxNumberOfMessages(); i++) {
+                int id = next.getAndIncrement();
+                if (id >= total) {
+                    break;
+                }
+                messages.add(new Message().withMessageId(Integer.toString(id)).withReceiptHandle("handle-" + id));
+            }
+            return new ReceiveMessageResult().withMessages(messages);
+        }
+
+        @Override
+        public ChangeMessageVisibilityBatchResult changeMessageVisibilityBatch(ChangeMessageVisibilityBatchRequest request) {
+            visibilityChanges.add(request);
+            return new ChangeMessageVisibilityBatchResult();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.sqs.buffered;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.services.sqs.AbstractAmazonSQS;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+
+public class SendQueueBufferTest {
+
+    private static final String QUEUE_URL = "https://queue.amazonaws.com/123456789012/test";
+
+    private ExecutorService executor;
+
+    private StubSQS sqs;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        sqs = new StubSQS();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testFlushSendsOpenBatch() throws Exception {
+        SendQueueBuffer buffer = newBuffer(10, 2);
+
+        QueueBufferFuture<SendMessageRequest, SendMessageResult> future =
+                buffer.sendMessage(new SendMessageRequest(QUEUE_URL, "body"), null);
+        buffer.flush();
+
+        assertTrue(future.isDone());
+        assertEquals(1, sqs.sent.get());
+    }
+
+    @Test
+    public void testFlushWaitsForRequestsSentBeforeItFromManyThreads() throws Exception {
+        final int threads = 8;
+        final int messagesPerThread = 300;
+        final SendQueueBuffer buffer = newBuffer(3, 2);
+        final CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<Void>> results = new ArrayList<Future<Void>>();
+        ExecutorService producers = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(producers.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        List<QueueBufferFuture<SendMessageRequest, SendMessageResult>> futures =
+                                new ArrayList<QueueBufferFuture<SendMessageRequest, SendMessageResult>>();
+                        start.await();
+                        for (int i = 1; i <= messagesPerThread; i++) {
+                            futures.add(buffer.sendMessage(new SendMessageRequest(QUEUE_URL, "body"), null));
+                            if (i % 7 == 0) {
+                                buffer.flush();
+                                for (QueueBufferFuture<SendMessageRequest, SendMessageResult> future : futures) {
+                                    assertTrue("request sent before flush() is not done", future.isDone());
+                                }
+                                futures.clear();
+                            }
+                        }
+                        buffer.flush();
+                        for (QueueBufferFuture<SendMessageRequest, SendMessageResult> future : futures) {
+                            assertTrue("request sent before flush() is not done", future.isDone());
+                        }
+                        return null;
+                    }
+                }));
+            }
+
+            start.countDown();
+            for (Future<Void> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            producers.shutdownNow();
+        }
+
+        assertEquals(threads * messagesPerThread, sqs.sent.get());
+    }
+
+    private SendQueueBuffer newBuffer(int maxBatchSize, int maxInflightBatches) {
+        QueueBufferConfig config = new QueueBufferConfig()
+                .withMaxBatchSize(maxBatchSize)
+                .withMaxInflightOutboundBatches(maxInflightBatches)
+                // batches only close when full or flushed
+                .withMaxBatchOpenMs(60000);
+        return new SendQueueBuffer(sqs, executor, config, QUEUE_URL);
+    }
+
+    private static class StubSQS extends AbstractAmazonSQS {
+
+        private final AtomicInteger sent = new AtomicInteger();
+
+        private final Random random = new Random();
+
+        @Override
+        public SendMessageBatchResult sendMessageBatch(SendMessageBatchRequest request) {
+            try {
+                // leaves time for other threads to race for the next batch
+                Thread.sleep(random.nextInt(3));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            SendMessageBatchResult result = new SendMessageBatchResult();
+            for (SendMessageBatchRequestEntry entry : request.getEntries()) {
+                result.getSuccessful().add(new SendMessageBatchResultEntry()
+                        .withId(entry.getId())
+                        .withMessageId(entry.getId()));
+            }
+            sent.addAndGet(request.getEntries().size());
+            return result;
+        }
+    }
+}
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.securitytoken.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.securitytoken.model.IDPRejectedClaimException;
@@ -28,20 +24,6 @@ public class IDPRejectedClaimExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public IDPRejectedClaimExceptionUnmarshaller() {
-        super(IDPRejectedClaimException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("IDPRejectedClaim"))
-            return null;
-
-        IDPRejectedClaimException e = (IDPRejectedClaimException) super
-                .unmarshall(node);
-
-        return e;
+        super(IDPRejectedClaimException.class, "IDPRejectedClaim");
     }
 }
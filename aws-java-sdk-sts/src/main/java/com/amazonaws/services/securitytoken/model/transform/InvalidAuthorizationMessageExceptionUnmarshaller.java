@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.securitytoken.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.securitytoken.model.InvalidAuthorizationMessageException;
@@ -28,21 +24,6 @@ public class InvalidAuthorizationMessageExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidAuthorizationMessageExceptionUnmarshaller() {
-        super(InvalidAuthorizationMessageException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null
-                || !errorCode.equals("InvalidAuthorizationMessageException"))
-            return null;
-
-        InvalidAuthorizationMessageException e = (InvalidAuthorizationMessageException) super
-                .unmarshall(node);
-
-        return e;
+        super(InvalidAuthorizationMessageException.class, "InvalidAuthorizationMessageException");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.securitytoken.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.securitytoken.model.InvalidIdentityTokenException;
@@ -28,20 +24,6 @@ public class InvalidIdentityTokenExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public InvalidIdentityTokenExceptionUnmarshaller() {
-        super(InvalidIdentityTokenException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("InvalidIdentityToken"))
-            return null;
-
-        InvalidIdentityTokenException e = (InvalidIdentityTokenException) super
-                .unmarshall(node);
-
-        return e;
+        super(InvalidIdentityTokenException.class, "InvalidIdentityToken");
     }
 }
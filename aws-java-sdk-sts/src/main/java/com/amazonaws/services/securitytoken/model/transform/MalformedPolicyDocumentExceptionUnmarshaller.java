@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.securitytoken.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.securitytoken.model.MalformedPolicyDocumentException;
@@ -28,20 +24,6 @@ public class MalformedPolicyDocumentExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public MalformedPolicyDocumentExceptionUnmarshaller() {
-        super(MalformedPolicyDocumentException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("MalformedPolicyDocument"))
-            return null;
-
-        MalformedPolicyDocumentException e = (MalformedPolicyDocumentException) super
-                .unmarshall(node);
-
-        return e;
+        super(MalformedPolicyDocumentException.class, "MalformedPolicyDocument");
     }
 }
@@ -16,10 +16,6 @@
 
 package com.amazonaws.services.securitytoken.model.transform;
 
-import org.w3c.dom.Node;
-
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.util.XpathUtils;
 import com.amazonaws.transform.StandardErrorUnmarshaller;
 
 import com.amazonaws.services.securitytoken.model.PackedPolicyTooLargeException;
@@ -28,20 +24,6 @@ public class PackedPolicyTooLargeExceptionUnmarshaller extends
         StandardErrorUnmarshaller {
 
     public PackedPolicyTooLargeExceptionUnmarshaller() {
-        super(PackedPolicyTooLargeException.class);
-    }
-
-    @Override
-    public AmazonServiceException unmarshall(Node node) throws Exception {
-        // Bail out if this isn't the right error code that this
-        // marshaller understands
-        String errorCode = parseErrorCode(node);
-        if (errorCode == null || !errorCode.equals("PackedPolicyTooLarge"))
-            return null;
-
-        PackedPolicyTooLargeException e = (PackedPolicyTooLargeException) super
-                .unmarshall(node);
-
-        return e;
+        super(PackedPolicyTooLargeException.class, "PackedPolicyTooLarge");
     }
 }